@@ -22,6 +22,8 @@ import org.hyperledger.besu.config.GenesisConfigFile;
 import org.hyperledger.besu.controller.BesuController;
 import org.hyperledger.besu.controller.GasLimitCalculator;
 import org.hyperledger.besu.crypto.SECP256K1.KeyPair;
+import org.hyperledger.besu.ethereum.chain.Blockchain;
+import org.hyperledger.besu.ethereum.core.BlockHeader;
 import org.hyperledger.besu.ethereum.core.InMemoryStorageProvider;
 import org.hyperledger.besu.ethereum.core.MiningParametersTestBuilder;
 import org.hyperledger.besu.ethereum.core.PrivacyParameters;
@@ -46,6 +48,7 @@ import com.google.common.io.Files;
 import com.google.common.io.MoreFiles;
 import com.google.common.io.RecursiveDeleteOption;
 import com.google.common.io.Resources;
+import org.openjdk.jmh.annotations.AuxCounters;
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.BenchmarkMode;
 import org.openjdk.jmh.annotations.Fork;
@@ -59,7 +62,7 @@ import org.openjdk.jmh.annotations.State;
 import org.openjdk.jmh.annotations.TearDown;
 
 @State(Scope.Thread)
-@BenchmarkMode(Mode.SingleShotTime)
+@BenchmarkMode(Mode.Throughput)
 @Fork(
     value = 2,
     jvmArgsAppend = {"-server", "-disablesystemassertions"})
@@ -92,8 +95,31 @@ public class BulkJsonImportBenchmark {
   }
 
   @Benchmark
-  public void importChain() throws IOException {
+  public void importChain(final ImportCounters counters) throws IOException {
+    final Blockchain blockchain = controller.getProtocolContext().getBlockchain();
+    final long startHead = blockchain.getChainHeadBlockNumber();
     importer.importChain(jsonData);
+
+    BlockHeader header = blockchain.getChainHeadHeader();
+    while (header.getNumber() > startHead) {
+      counters.blocks++;
+      counters.gas += header.getGasUsed();
+      header = blockchain.getBlockHeader(header.getParentHash()).orElseThrow();
+    }
+  }
+
+  /** Reports the imported blocks and gas alongside the import time, as blocks/s and gas/s. */
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.OPERATIONS)
+  public static class ImportCounters {
+    public long blocks;
+    public long gas;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+      blocks = 0;
+      gas = 0;
+    }
   }
 
   private String getFileContents(final String filename) throws IOException {
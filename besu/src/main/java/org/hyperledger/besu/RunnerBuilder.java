@@ -330,7 +330,8 @@ public class RunnerBuilder {
             .setSupportedProtocols(subProtocols)
             .setClientId(BesuInfo.nodeName(identityString))
             .setLimitRemoteWireConnectionsEnabled(limitRemoteWireConnectionsEnabled)
-            .setFractionRemoteWireConnectionsAllowed(fractionRemoteConnectionsAllowed);
+            .setFractionRemoteWireConnectionsAllowed(fractionRemoteConnectionsAllowed)
+            .setFramerBackend(networkingConfiguration.getRlpx().getFramerBackend());
     networkingConfiguration.setRlpx(rlpxConfiguration).setDiscovery(discoveryConfiguration);
 
     final PeerPermissionsBlacklist bannedNodes = PeerPermissionsBlacklist.create();
@@ -704,7 +705,7 @@ public class RunnerBuilder {
     final LogsSubscriptionService logsSubscriptionService =
         new LogsSubscriptionService(subscriptionManager);
 
-    blockchain.observeLogs(logsSubscriptionService);
+    blockchain.observeBlockAdded(logsSubscriptionService);
   }
 
   private void createSyncingSubscriptionService(
@@ -18,6 +18,8 @@ import org.hyperledger.besu.chainimport.internal.BlockData;
 import org.hyperledger.besu.chainimport.internal.ChainData;
 import org.hyperledger.besu.config.GenesisConfigOptions;
 import org.hyperledger.besu.controller.BesuController;
+import org.hyperledger.besu.crypto.SECP256K1.KeyPair;
+import org.hyperledger.besu.crypto.SECP256K1.PrivateKey;
 import org.hyperledger.besu.ethereum.blockcreation.MiningCoordinator;
 import org.hyperledger.besu.ethereum.core.Address;
 import org.hyperledger.besu.ethereum.core.Block;
@@ -27,12 +29,18 @@ import org.hyperledger.besu.ethereum.core.Hash;
 import org.hyperledger.besu.ethereum.core.Transaction;
 import org.hyperledger.besu.ethereum.core.WorldState;
 import org.hyperledger.besu.ethereum.mainnet.HeaderValidationMode;
+import org.hyperledger.besu.ethereum.storage.WriteBatch;
 
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -51,8 +59,11 @@ import org.apache.tuweni.bytes.Bytes;
 public class JsonBlockImporter<C> {
   private static final Logger LOG = LogManager.getLogger();
 
+  private static final int BLOCKS_PER_WRITE_BATCH = 32;
+
   private final ObjectMapper mapper;
   private final BesuController<C> controller;
+  private final Map<PrivateKey, KeyPair> keyPairs = new HashMap<>();
 
   public JsonBlockImporter(final BesuController<C> controller) {
     this.controller = controller;
@@ -69,16 +80,27 @@ public class JsonBlockImporter<C> {
     final ChainData chainData = mapper.readValue(chainJson, ChainData.class);
 
     final List<Block> importedBlocks = new ArrayList<>();
-    for (final BlockData blockData : chainData.getBlocks()) {
-      final BlockHeader parentHeader = getParentHeader(blockData, importedBlocks);
-      final Block importedBlock = processBlockData(blockData, parentHeader);
-      importedBlocks.add(importedBlock);
+    final ExecutorService signingExecutor =
+        Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+    // Blocks are built on top of the previous ones, so only their persistence is grouped
+    try (final WriteBatch writeBatch = controller.getProtocolContext().startWriteBatch()) {
+      for (final BlockData blockData : chainData.getBlocks()) {
+        final BlockHeader parentHeader = getParentHeader(blockData, importedBlocks);
+        final Block importedBlock = processBlockData(blockData, parentHeader, signingExecutor);
+        importedBlocks.add(importedBlock);
+        if (importedBlocks.size() % BLOCKS_PER_WRITE_BATCH == 0) {
+          writeBatch.commit();
+        }
+      }
+    } finally {
+      signingExecutor.shutdownNow();
     }
 
     this.warnIfImportedBlocksAreNotOnCanonicalChain(importedBlocks);
   }
 
-  private Block processBlockData(final BlockData blockData, final BlockHeader parentHeader) {
+  private Block processBlockData(
+      final BlockData blockData, final BlockHeader parentHeader, final Executor signingExecutor) {
     LOG.info(
         "Preparing to import block at height {} (parent: {})",
         parentHeader.getNumber() + 1L,
@@ -91,7 +113,7 @@ public class JsonBlockImporter<C> {
             .get(parentHeader.getStateRoot())
             .get();
     final List<Transaction> transactions =
-        blockData.streamTransactions(worldState).collect(Collectors.toList());
+        blockData.signTransactions(worldState, keyPairs, signingExecutor);
 
     final Block block = createBlock(blockData, parentHeader, transactions);
     assertAllTransactionsIncluded(block, transactions);
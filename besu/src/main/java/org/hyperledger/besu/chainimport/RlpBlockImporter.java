@@ -30,28 +30,41 @@ import org.hyperledger.besu.ethereum.mainnet.HeaderValidationMode;
 import org.hyperledger.besu.ethereum.mainnet.ProtocolSchedule;
 import org.hyperledger.besu.ethereum.mainnet.ProtocolSpec;
 import org.hyperledger.besu.ethereum.mainnet.ScheduleBasedBlockHeaderFunctions;
+import org.hyperledger.besu.ethereum.storage.WriteBatch;
 import org.hyperledger.besu.ethereum.util.RawBlockIterator;
+import org.hyperledger.besu.metrics.noop.NoOpMetricsSystem;
+import org.hyperledger.besu.services.pipeline.Pipeline;
+import org.hyperledger.besu.services.pipeline.PipelineBuilder;
 
 import java.io.IOException;
 import java.nio.file.Path;
-import java.util.ArrayList;
-import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 import com.google.common.base.MoreObjects;
+import com.google.common.base.Throwables;
 import org.apache.logging.log4j.Logger;
 
-/** Tool for importing rlp-encoded block data from files. */
+/**
+ * Tool for importing rlp-encoded block data from files.
+ *
+ * <p>Blocks go through a pipeline: they are decoded, their transaction senders are recovered and
+ * their headers validated concurrently, then they are executed in order and the changes of several
+ * blocks are persisted together. Blocks already in the blockchain are skipped, so an interrupted
+ * import resumes after the last persisted blocks.
+ */
 public class RlpBlockImporter {
   private static final Logger LOG = getLogger();
 
-  private final Semaphore blockBacklog = new Semaphore(2);
+  private static final int BLOCKS_PER_WRITE_BATCH = 32;
+  private static final int BUFFER_SIZE = 2 * BLOCKS_PER_WRITE_BATCH;
 
-  private final ExecutorService validationExecutor = Executors.newCachedThreadPool();
-  private final ExecutorService importExecutor = Executors.newSingleThreadExecutor();
+  private final int parallelism = Runtime.getRuntime().availableProcessors();
 
   /**
    * Imports blocks that are stored as concatenated RLP sections in the given file into Besu's block
@@ -68,129 +81,146 @@ public class RlpBlockImporter {
     final ProtocolSchedule<C> protocolSchedule = besuController.getProtocolSchedule();
     final ProtocolContext<C> context = besuController.getProtocolContext();
     final MutableBlockchain blockchain = context.getBlockchain();
-    int count = 0;
+    final AtomicInteger count = new AtomicInteger();
 
+    final ExecutorService validationExecutor = Executors.newFixedThreadPool(parallelism);
+    final ExecutorService pipelineExecutor = Executors.newCachedThreadPool();
     try (final RawBlockIterator iterator =
-        new RawBlockIterator(
-            blocks,
-            rlp ->
-                BlockHeader.readFrom(
-                    rlp, ScheduleBasedBlockHeaderFunctions.create(protocolSchedule)))) {
-      BlockHeader previousHeader = null;
-      CompletableFuture<Void> previousBlockFuture = null;
-      while (iterator.hasNext()) {
-        final Block block = iterator.next();
-        final BlockHeader header = block.getHeader();
-        if (header.getNumber() == BlockHeader.GENESIS_BLOCK_NUMBER) {
-          continue;
-        }
-        if (header.getNumber() % 100 == 0) {
-          LOG.info("Import at block {}", header.getNumber());
-        }
-        if (blockchain.contains(header.getHash())) {
-          continue;
-        }
-        if (previousHeader == null) {
-          previousHeader = lookupPreviousHeader(blockchain, header);
-        }
-        final ProtocolSpec<C> protocolSpec = protocolSchedule.getByBlockNumber(header.getNumber());
-        final BlockHeader lastHeader = previousHeader;
-
-        final CompletableFuture<Void> validationFuture =
-            CompletableFuture.runAsync(
-                () -> validateBlock(protocolSpec, context, lastHeader, header), validationExecutor);
-
-        final CompletableFuture<Void> extractingFuture =
-            CompletableFuture.runAsync(() -> extractSignatures(block));
-
-        final CompletableFuture<Void> calculationFutures;
-        if (previousBlockFuture == null) {
-          calculationFutures = extractingFuture;
-        } else {
-          calculationFutures = CompletableFuture.allOf(extractingFuture, previousBlockFuture);
-        }
-
-        try {
-          blockBacklog.acquire();
-        } catch (final InterruptedException e) {
-          LOG.error("Interrupted adding to backlog.", e);
-          break;
-        }
-        previousBlockFuture =
-            validationFuture.runAfterBothAsync(
-                calculationFutures,
-                () -> evaluateBlock(context, block, header, protocolSpec),
-                importExecutor);
-
-        ++count;
-        previousHeader = header;
-      }
-      if (previousBlockFuture != null) {
-        previousBlockFuture.join();
-      }
+            new RawBlockIterator(
+                blocks,
+                rlp ->
+                    BlockHeader.readFrom(
+                        rlp, ScheduleBasedBlockHeaderFunctions.create(protocolSchedule)));
+        final WriteBatch writeBatch = context.startWriteBatch()) {
+      final Pipeline<Block> pipeline =
+          PipelineBuilder.createPipelineFrom(
+                  "decodeBlocks", iterator, BUFFER_SIZE, NoOpMetricsSystem.NO_OP_LABELLED_2_COUNTER)
+              .thenFlatMap("linkBlocks", new BlockLinker(blockchain), BUFFER_SIZE)
+              .thenProcessAsyncOrdered(
+                  "recoverSenders",
+                  block ->
+                      CompletableFuture.supplyAsync(
+                          () -> recoverSenders(block), validationExecutor),
+                  parallelism)
+              .thenProcessAsyncOrdered(
+                  "validateHeaders",
+                  block ->
+                      CompletableFuture.supplyAsync(
+                          () -> validateBlock(protocolSchedule, context, block),
+                          validationExecutor),
+                  parallelism)
+              .inBatches(BLOCKS_PER_WRITE_BATCH)
+              .thenProcess(
+                  "importBlocks",
+                  batch -> {
+                    batch.forEach(block -> evaluateBlock(protocolSchedule, context, block));
+                    return batch;
+                  })
+              .andFinishWith(
+                  "persistBlocks",
+                  batch -> {
+                    writeBatch.commit();
+                    count.addAndGet(batch.size());
+                  });
+      pipeline.start(pipelineExecutor).get();
       return new RlpBlockImporter.ImportResult(
-          blockchain.getChainHead().getTotalDifficulty(), count);
+          blockchain.getChainHead().getTotalDifficulty(), count.get());
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while importing blocks", e);
+    } catch (final ExecutionException e) {
+      Throwables.throwIfUnchecked(e.getCause());
+      throw new IllegalStateException(e.getCause());
     } finally {
-      validationExecutor.shutdownNow();
-      try {
-        validationExecutor.awaitTermination(5, SECONDS);
-      } catch (final Exception e) {
-        LOG.error("Error shutting down validatorExecutor.", e);
-      }
-      importExecutor.shutdownNow();
-      try {
-        importExecutor.awaitTermination(5, SECONDS);
-      } catch (final Exception e) {
-        LOG.error("Error shutting down importExecutor", e);
-      }
+      shutdown(pipelineExecutor);
+      shutdown(validationExecutor);
       besuController.close();
     }
   }
 
-  private void extractSignatures(final Block block) {
-    final List<CompletableFuture<Void>> futures =
-        new ArrayList<>(block.getBody().getTransactions().size());
-    for (final Transaction tx : block.getBody().getTransactions()) {
-      futures.add(CompletableFuture.runAsync(tx::getSender, validationExecutor));
-    }
-    for (final CompletableFuture<Void> future : futures) {
-      future.join();
-    }
+  private static PendingBlock recoverSenders(final PendingBlock block) {
+    block.block.getBody().getTransactions().forEach(Transaction::getSender);
+    return block;
   }
 
-  private <C> void validateBlock(
-      final ProtocolSpec<C> protocolSpec,
+  private static <C> PendingBlock validateBlock(
+      final ProtocolSchedule<C> protocolSchedule,
       final ProtocolContext<C> context,
-      final BlockHeader previousHeader,
-      final BlockHeader header) {
-    final BlockHeaderValidator<C> blockHeaderValidator = protocolSpec.getBlockHeaderValidator();
+      final PendingBlock block) {
+    final BlockHeader header = block.block.getHeader();
+    final BlockHeaderValidator<C> blockHeaderValidator =
+        protocolSchedule.getByBlockNumber(header.getNumber()).getBlockHeaderValidator();
     final boolean validHeader =
         blockHeaderValidator.validateHeader(
-            header, previousHeader, context, HeaderValidationMode.DETACHED_ONLY);
+            header, block.parentHeader, context, HeaderValidationMode.DETACHED_ONLY);
     if (!validHeader) {
       throw new IllegalStateException("Invalid header at block number " + header.getNumber() + ".");
     }
+    return block;
   }
 
-  private <C> void evaluateBlock(
+  private static <C> void evaluateBlock(
+      final ProtocolSchedule<C> protocolSchedule,
       final ProtocolContext<C> context,
-      final Block block,
-      final BlockHeader header,
-      final ProtocolSpec<C> protocolSpec) {
+      final PendingBlock block) {
+    final BlockHeader header = block.block.getHeader();
+    if (header.getNumber() % 100 == 0) {
+      LOG.info("Import at block {}", header.getNumber());
+    }
+    final ProtocolSpec<C> protocolSpec = protocolSchedule.getByBlockNumber(header.getNumber());
+    final BlockImporter<C> blockImporter = protocolSpec.getBlockImporter();
+    final boolean blockImported =
+        blockImporter.importBlock(context, block.block, HeaderValidationMode.SKIP_DETACHED);
+    if (!blockImported) {
+      throw new IllegalStateException("Invalid block at block number " + header.getNumber() + ".");
+    }
+  }
+
+  private static void shutdown(final ExecutorService executor) {
+    executor.shutdownNow();
     try {
-      final BlockImporter<C> blockImporter = protocolSpec.getBlockImporter();
-      final boolean blockImported =
-          blockImporter.importBlock(context, block, HeaderValidationMode.SKIP_DETACHED);
-      if (!blockImported) {
-        throw new IllegalStateException(
-            "Invalid block at block number " + header.getNumber() + ".");
+      executor.awaitTermination(5, SECONDS);
+    } catch (final Exception e) {
+      LOG.error("Error shutting down block import executor.", e);
+    }
+  }
+
+  /** Skips the blocks already imported and pairs the others with their parent's header. */
+  private static class BlockLinker implements Function<Block, Stream<PendingBlock>> {
+    private final MutableBlockchain blockchain;
+    private BlockHeader previousHeader;
+    private long skipped;
+
+    BlockLinker(final MutableBlockchain blockchain) {
+      this.blockchain = blockchain;
+    }
+
+    @Override
+    public Stream<PendingBlock> apply(final Block block) {
+      final BlockHeader header = block.getHeader();
+      if (header.getNumber() == BlockHeader.GENESIS_BLOCK_NUMBER) {
+        return Stream.empty();
       }
-    } finally {
-      blockBacklog.release();
+      if (previousHeader == null) {
+        if (blockchain.contains(header.getHash())) {
+          skipped++;
+          return Stream.empty();
+        }
+        if (skipped > 0) {
+          LOG.info(
+              "Skipped {} blocks already imported, resuming at block {}",
+              skipped,
+              header.getNumber());
+        }
+        previousHeader = lookupPreviousHeader(blockchain, header);
+      }
+      final PendingBlock pendingBlock = new PendingBlock(block, previousHeader);
+      previousHeader = header;
+      return Stream.of(pendingBlock);
     }
   }
 
-  private BlockHeader lookupPreviousHeader(
+  private static BlockHeader lookupPreviousHeader(
       final MutableBlockchain blockchain, final BlockHeader header) {
     return blockchain
         .getBlockHeader(header.getParentHash())
@@ -202,6 +232,16 @@ public class RlpBlockImporter {
                         header.getNumber(), blockchain.getChainHeadBlockNumber())));
   }
 
+  private static class PendingBlock {
+    private final Block block;
+    private final BlockHeader parentHeader;
+
+    PendingBlock(final Block block, final BlockHeader parentHeader) {
+      this.block = block;
+      this.parentHeader = parentHeader;
+    }
+  }
+
   public static final class ImportResult {
 
     public final Difficulty td;
@@ -15,16 +15,22 @@
 package org.hyperledger.besu.chainimport.internal;
 
 import org.hyperledger.besu.chainimport.internal.TransactionData.NonceProvider;
+import org.hyperledger.besu.crypto.SECP256K1.KeyPair;
+import org.hyperledger.besu.crypto.SECP256K1.PrivateKey;
 import org.hyperledger.besu.ethereum.core.Account;
 import org.hyperledger.besu.ethereum.core.Address;
 import org.hyperledger.besu.ethereum.core.Hash;
 import org.hyperledger.besu.ethereum.core.Transaction;
 import org.hyperledger.besu.ethereum.core.WorldState;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Stream;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.stream.Collectors;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
@@ -72,9 +78,29 @@ public class BlockData {
     return extraData;
   }
 
-  public Stream<Transaction> streamTransactions(final WorldState worldState) {
+  /**
+   * Sign the transactions of this block concurrently.
+   *
+   * @param worldState the world state the block is built on, which provides the initial nonces
+   * @param keyPairs the key pairs of the senders, created as needed
+   * @param executor the executor signing the transactions
+   * @return the signed transactions, in block order
+   */
+  public List<Transaction> signTransactions(
+      final WorldState worldState,
+      final Map<PrivateKey, KeyPair> keyPairs,
+      final Executor executor) {
     final NonceProvider nonceProvider = getNonceProvider(worldState);
-    return transactionData.stream().map((tx) -> tx.getSignedTransaction(nonceProvider));
+    final List<CompletableFuture<Transaction>> transactions =
+        new ArrayList<>(transactionData.size());
+    for (final TransactionData tx : transactionData) {
+      // Nonces depend on the order of the transactions, so only the signing runs concurrently
+      final KeyPair keyPair = keyPairs.computeIfAbsent(tx.getPrivateKey(), KeyPair::create);
+      final long nonce = nonceProvider.get(Address.extract(keyPair.getPublicKey()));
+      transactions.add(
+          CompletableFuture.supplyAsync(() -> tx.getSignedTransaction(keyPair, nonce), executor));
+    }
+    return transactions.stream().map(CompletableFuture::join).collect(Collectors.toList());
   }
 
   public NonceProvider getNonceProvider(final WorldState worldState) {
@@ -55,11 +55,11 @@ public class TransactionData {
     this.privateKey = PrivateKey.create(Bytes32.fromHexString(secretKey));
   }
 
-  public Transaction getSignedTransaction(final NonceProvider nonceProvider) {
-    final KeyPair keyPair = KeyPair.create(privateKey);
+  public PrivateKey getPrivateKey() {
+    return privateKey;
+  }
 
-    final Address fromAddress = Address.extract(keyPair.getPublicKey());
-    final long nonce = nonceProvider.get(fromAddress);
+  public Transaction getSignedTransaction(final KeyPair keyPair, final long nonce) {
     return Transaction.builder()
         .gasLimit(gasLimit)
         .gasPrice(gasPrice)
@@ -743,6 +743,13 @@ public class BesuCommand implements DefaultCommandValues, Runnable {
           "Enable passing the revert reason back through TransactionReceipts (default: ${DEFAULT-VALUE})")
   private final Boolean isRevertReasonEnabled = false;
 
+  @Option(
+      hidden = true,
+      names = {"--Xparallel-transaction-processing-enabled"},
+      description =
+          "Execute the transactions of imported blocks speculatively in parallel (default: ${DEFAULT-VALUE})")
+  private final Boolean isParallelTransactionProcessingEnabled = false;
+
   @Option(
       names = {"--required-blocks", "--required-block"},
       paramLabel = "BLOCK=HASH",
@@ -830,6 +837,13 @@ public class BesuCommand implements DefaultCommandValues, Runnable {
               + "(default: ${DEFAULT-VALUE})")
   private final MerkleStorageMode merkleStorageMode = DEFAULT_MERKLE_STORAGE_MODE;
 
+  @Option(
+      hidden = true,
+      names = {"--Xunitrie-flat-state-enabled"},
+      description =
+          "Read Unitrie world states from a flat key/value snapshot instead of walking the Unitrie (default: ${DEFAULT-VALUE})")
+  private final Boolean isUniTrieFlatStateEnabled = false;
+
   @Option(
       names = {"--override-genesis-config"},
       paramLabel = "NAME=VALUE",
@@ -1262,6 +1276,7 @@ public class BesuCommand implements DefaultCommandValues, Runnable {
           .privacyParameters(privacyParameters())
           .clock(Clock.systemUTC())
           .isRevertReasonEnabled(isRevertReasonEnabled)
+          .isParallelTransactionProcessingEnabled(isParallelTransactionProcessingEnabled)
           .storageProvider(keyStorageProvider(keyValueStorageName))
           .isPruningEnabled(isPruningEnabled())
           .pruningConfiguration(
@@ -2087,7 +2102,7 @@ public class BesuCommand implements DefaultCommandValues, Runnable {
   private MerkleAwareProvider createMerkleAwareProvider() {
     switch (merkleStorageMode) {
       case UNITRIE:
-        return new UniTrieMerkleAwareProvider();
+        return new UniTrieMerkleAwareProvider(isUniTrieFlatStateEnabled);
       case CLASSIC:
       default:
         return new ClassicMerkleAwareProvider();
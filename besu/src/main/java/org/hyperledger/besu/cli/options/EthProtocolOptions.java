@@ -15,6 +15,7 @@
 package org.hyperledger.besu.cli.options;
 
 import org.hyperledger.besu.ethereum.eth.EthProtocolConfiguration;
+import org.hyperledger.besu.ethereum.eth.sync.BlockPropagationStrategy;
 import org.hyperledger.besu.util.number.PositiveNumber;
 
 import java.util.Arrays;
@@ -28,6 +29,11 @@ public class EthProtocolOptions implements CLIOptions<EthProtocolConfiguration>
   private static final String MAX_GET_RECEIPTS_FLAG = "--Xewp-max-get-receipts";
   private static final String MAX_GET_NODE_DATA_FLAG = "--Xewp-max-get-node-data";
   private static final String MAX_GET_POOLED_TRANSACTIONS = "--Xewp-max-get-pooled-transactions";
+  private static final String MAX_RESPONSE_BYTES_FLAG = "--Xewp-max-response-bytes";
+  private static final String MAX_RESPONSE_MILLIS_FLAG = "--Xewp-max-response-millis";
+  private static final String MAX_QUEUED_REQUESTS_PER_PEER_FLAG =
+      "--Xewp-max-queued-requests-per-peer";
+  private static final String BLOCK_PROPAGATION_STRATEGY_FLAG = "--Xewp-block-propagation-strategy";
 
   @CommandLine.Option(
       hidden = true,
@@ -74,6 +80,42 @@ public class EthProtocolOptions implements CLIOptions<EthProtocolConfiguration>
   private PositiveNumber maxGetPooledTransactions =
       PositiveNumber.fromInt(EthProtocolConfiguration.DEFAULT_MAX_GET_POOLED_TRANSACTIONS);
 
+  @CommandLine.Option(
+      hidden = true,
+      names = {MAX_RESPONSE_BYTES_FLAG},
+      paramLabel = "<INTEGER>",
+      description =
+          "Size in bytes past which no more items are added to an Ethereum Wire Protocol response. (default: ${DEFAULT-VALUE})")
+  private PositiveNumber maxResponseBytes =
+      PositiveNumber.fromInt(EthProtocolConfiguration.DEFAULT_MAX_RESPONSE_BYTES);
+
+  @CommandLine.Option(
+      hidden = true,
+      names = {MAX_RESPONSE_MILLIS_FLAG},
+      paramLabel = "<INTEGER>",
+      description =
+          "Time in milliseconds past which no more items are added to an Ethereum Wire Protocol response. (default: ${DEFAULT-VALUE})")
+  private PositiveNumber maxResponseMillis =
+      PositiveNumber.fromInt(EthProtocolConfiguration.DEFAULT_MAX_RESPONSE_MILLIS);
+
+  @CommandLine.Option(
+      hidden = true,
+      names = {MAX_QUEUED_REQUESTS_PER_PEER_FLAG},
+      paramLabel = "<INTEGER>",
+      description =
+          "Maximum number of Ethereum Wire Protocol requests from a single peer waiting to be served. (default: ${DEFAULT-VALUE})")
+  private PositiveNumber maxQueuedRequestsPerPeer =
+      PositiveNumber.fromInt(EthProtocolConfiguration.DEFAULT_MAX_QUEUED_REQUESTS_PER_PEER);
+
+  @CommandLine.Option(
+      hidden = true,
+      names = {BLOCK_PROPAGATION_STRATEGY_FLAG},
+      paramLabel = "<STRATEGY>",
+      description =
+          "Peers new blocks are sent to in full: ALL, or SQRT to send them to the square root of the peers and announce their hashes to the others. (default: ${DEFAULT-VALUE})")
+  private BlockPropagationStrategy blockPropagationStrategy =
+      EthProtocolConfiguration.DEFAULT_BLOCK_PROPAGATION_STRATEGY;
+
   private EthProtocolOptions() {}
 
   public static EthProtocolOptions create() {
@@ -87,6 +129,10 @@ public class EthProtocolOptions implements CLIOptions<EthProtocolConfiguration>
     options.maxGetReceipts = PositiveNumber.fromInt(config.getMaxGetReceipts());
     options.maxGetNodeData = PositiveNumber.fromInt(config.getMaxGetNodeData());
     options.maxGetPooledTransactions = PositiveNumber.fromInt(config.getMaxGetPooledTransactions());
+    options.maxResponseBytes = PositiveNumber.fromInt(config.getMaxResponseBytes());
+    options.maxResponseMillis = PositiveNumber.fromInt(config.getMaxResponseMillis());
+    options.maxQueuedRequestsPerPeer = PositiveNumber.fromInt(config.getMaxQueuedRequestsPerPeer());
+    options.blockPropagationStrategy = config.getBlockPropagationStrategy();
     return options;
   }
 
@@ -98,6 +144,10 @@ public class EthProtocolOptions implements CLIOptions<EthProtocolConfiguration>
         .maxGetReceipts(maxGetReceipts)
         .maxGetNodeData(maxGetNodeData)
         .maxGetPooledTransactions(maxGetPooledTransactions)
+        .maxResponseBytes(maxResponseBytes)
+        .maxResponseMillis(maxResponseMillis)
+        .maxQueuedRequestsPerPeer(maxQueuedRequestsPerPeer)
+        .blockPropagationStrategy(blockPropagationStrategy)
         .build();
   }
 
@@ -113,6 +163,14 @@ public class EthProtocolOptions implements CLIOptions<EthProtocolConfiguration>
         MAX_GET_NODE_DATA_FLAG,
         OptionParser.format(maxGetNodeData.getValue()),
         MAX_GET_POOLED_TRANSACTIONS,
-        OptionParser.format(maxGetPooledTransactions.getValue()));
+        OptionParser.format(maxGetPooledTransactions.getValue()),
+        MAX_RESPONSE_BYTES_FLAG,
+        OptionParser.format(maxResponseBytes.getValue()),
+        MAX_RESPONSE_MILLIS_FLAG,
+        OptionParser.format(maxResponseMillis.getValue()),
+        MAX_QUEUED_REQUESTS_PER_PEER_FLAG,
+        OptionParser.format(maxQueuedRequestsPerPeer.getValue()),
+        BLOCK_PROPAGATION_STRATEGY_FLAG,
+        blockPropagationStrategy.name());
   }
 }
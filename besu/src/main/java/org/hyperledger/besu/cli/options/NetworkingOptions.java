@@ -15,6 +15,7 @@
 package org.hyperledger.besu.cli.options;
 
 import org.hyperledger.besu.ethereum.p2p.config.NetworkingConfiguration;
+import org.hyperledger.besu.ethereum.p2p.rlpx.framing.FramerBackend;
 
 import java.util.Arrays;
 import java.util.List;
@@ -26,6 +27,7 @@ public class NetworkingOptions implements CLIOptions<NetworkingConfiguration> {
       "--Xp2p-initiate-connections-frequency";
   private final String CHECK_MAINTAINED_CONNECTIONS_FREQUENCY_FLAG =
       "--Xp2p-check-maintained-connections-frequency";
+  private final String FRAMER_BACKEND_FLAG = "--Xp2p-framer-backend";
 
   @CommandLine.Option(
       names = INITIATE_CONNECTIONS_FREQUENCY_FLAG,
@@ -47,6 +49,15 @@ public class NetworkingOptions implements CLIOptions<NetworkingConfiguration> {
   private int checkMaintainedConnectionsFrequencySec =
       NetworkingConfiguration.DEFAULT_CHECK_MAINTAINED_CONNECTSION_FREQUENCY_SEC;
 
+  @CommandLine.Option(
+      names = FRAMER_BACKEND_FLAG,
+      hidden = true,
+      defaultValue = "BOUNCY_CASTLE",
+      paramLabel = "<BACKEND>",
+      description =
+          "The cryptography backend used to encrypt RLPx frames, either BOUNCY_CASTLE or JCE (default: ${DEFAULT-VALUE})")
+  private FramerBackend framerBackend = FramerBackend.DEFAULT;
+
   private NetworkingOptions() {}
 
   public static NetworkingOptions create() {
@@ -59,6 +70,7 @@ public class NetworkingOptions implements CLIOptions<NetworkingConfiguration> {
         networkingConfig.getCheckMaintainedConnectionsFrequencySec();
     cliOptions.initiateConnectionsFrequencySec =
         networkingConfig.getInitiateConnectionsFrequencySec();
+    cliOptions.framerBackend = networkingConfig.getRlpx().getFramerBackend();
     return cliOptions;
   }
 
@@ -67,6 +79,7 @@ public class NetworkingOptions implements CLIOptions<NetworkingConfiguration> {
     NetworkingConfiguration config = NetworkingConfiguration.create();
     config.setCheckMaintainedConnectionsFrequency(checkMaintainedConnectionsFrequencySec);
     config.setInitiateConnectionsFrequency(initiateConnectionsFrequencySec);
+    config.getRlpx().setFramerBackend(framerBackend);
     return config;
   }
 
@@ -76,6 +89,8 @@ public class NetworkingOptions implements CLIOptions<NetworkingConfiguration> {
         CHECK_MAINTAINED_CONNECTIONS_FREQUENCY_FLAG,
         OptionParser.format(checkMaintainedConnectionsFrequencySec),
         INITIATE_CONNECTIONS_FREQUENCY_FLAG,
-        OptionParser.format(initiateConnectionsFrequencySec));
+        OptionParser.format(initiateConnectionsFrequencySec),
+        FRAMER_BACKEND_FLAG,
+        framerBackend.name());
   }
 }
@@ -56,6 +56,8 @@ public class SynchronizerOptions implements CLIOptions<SynchronizerConfiguration
       "--Xsynchronizer-world-state-min-millis-before-stalling";
   private static final String WORLD_STATE_TASK_CACHE_SIZE_FLAG =
       "--Xsynchronizer-world-state-task-cache-size";
+  private static final String UNITRIE_SNAPSHOT_SYNC_ENABLED_FLAG =
+      "--Xsynchronizer-unitrie-snapshot-sync-enabled";
 
   @CommandLine.Option(
       names = BLOCK_PROPAGATION_RANGE_FLAG,
@@ -210,6 +212,15 @@ public class SynchronizerOptions implements CLIOptions<SynchronizerConfiguration
   private int worldStateTaskCacheSize =
       SynchronizerConfiguration.DEFAULT_WORLD_STATE_TASK_CACHE_SIZE;
 
+  @CommandLine.Option(
+      names = UNITRIE_SNAPSHOT_SYNC_ENABLED_FLAG,
+      hidden = true,
+      defaultValue = "false",
+      description =
+          "Whether fast sync downloads a UniTrie world state from snapshot ranges before downloading it node by node (default: ${DEFAULT-VALUE})")
+  private Boolean uniTrieSnapshotSyncEnabled =
+      SynchronizerConfiguration.DEFAULT_UNITRIE_SNAPSHOT_SYNC_ENABLED;
+
   private SynchronizerOptions() {}
 
   public static SynchronizerOptions create() {
@@ -236,6 +247,7 @@ public class SynchronizerOptions implements CLIOptions<SynchronizerConfiguration
     options.worldStateMaxRequestsWithoutProgress = config.getWorldStateMaxRequestsWithoutProgress();
     options.worldStateMinMillisBeforeStalling = config.getWorldStateMinMillisBeforeStalling();
     options.worldStateTaskCacheSize = config.getWorldStateTaskCacheSize();
+    options.uniTrieSnapshotSyncEnabled = config.isUniTrieSnapshotSyncEnabled();
     return options;
   }
 
@@ -258,6 +270,7 @@ public class SynchronizerOptions implements CLIOptions<SynchronizerConfiguration
     builder.worldStateMaxRequestsWithoutProgress(worldStateMaxRequestsWithoutProgress);
     builder.worldStateMinMillisBeforeStalling(worldStateMinMillisBeforeStalling);
     builder.worldStateTaskCacheSize(worldStateTaskCacheSize);
+    builder.uniTrieSnapshotSyncEnabled(uniTrieSnapshotSyncEnabled);
     return builder;
   }
 
@@ -295,6 +308,7 @@ public class SynchronizerOptions implements CLIOptions<SynchronizerConfiguration
         WORLD_STATE_MIN_MILLIS_BEFORE_STALLING_FLAG,
         OptionParser.format(worldStateMinMillisBeforeStalling),
         WORLD_STATE_TASK_CACHE_SIZE_FLAG,
-        OptionParser.format(worldStateTaskCacheSize));
+        OptionParser.format(worldStateTaskCacheSize),
+        UNITRIE_SNAPSHOT_SYNC_ENABLED_FLAG + "=" + uniTrieSnapshotSyncEnabled.toString());
   }
 }
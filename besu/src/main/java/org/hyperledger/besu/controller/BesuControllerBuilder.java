@@ -40,6 +40,9 @@ import org.hyperledger.besu.ethereum.eth.peervalidation.ClassicForkPeerValidator
 import org.hyperledger.besu.ethereum.eth.peervalidation.DaoForkPeerValidator;
 import org.hyperledger.besu.ethereum.eth.peervalidation.PeerValidator;
 import org.hyperledger.besu.ethereum.eth.peervalidation.RequiredBlocksPeerValidator;
+import org.hyperledger.besu.ethereum.eth.snapshot.UniTrieSnapshotProtocol;
+import org.hyperledger.besu.ethereum.eth.snapshot.UniTrieSnapshotProtocolManager;
+import org.hyperledger.besu.ethereum.eth.snapshot.UniTrieSnapshotProtocolManagerFactory;
 import org.hyperledger.besu.ethereum.eth.sync.DefaultSynchronizer;
 import org.hyperledger.besu.ethereum.eth.sync.SyncMode;
 import org.hyperledger.besu.ethereum.eth.sync.SynchronizerConfiguration;
@@ -47,6 +50,7 @@ import org.hyperledger.besu.ethereum.eth.sync.state.SyncState;
 import org.hyperledger.besu.ethereum.eth.transactions.TransactionPool;
 import org.hyperledger.besu.ethereum.eth.transactions.TransactionPoolConfiguration;
 import org.hyperledger.besu.ethereum.eth.transactions.TransactionPoolFactory;
+import org.hyperledger.besu.ethereum.mainnet.ParallelTransactionExecutor;
 import org.hyperledger.besu.ethereum.mainnet.ProtocolSchedule;
 import org.hyperledger.besu.ethereum.merkleutils.MerkleAwareProvider;
 import org.hyperledger.besu.ethereum.p2p.config.SubProtocolConfiguration;
@@ -91,6 +95,7 @@ public abstract class BesuControllerBuilder<C> {
   private StorageProvider storageProvider;
   private MerkleAwareProvider merkleAwareProvider;
   private boolean isPruningEnabled;
+  private boolean isParallelTransactionProcessingEnabled;
   private PrunerConfiguration prunerConfiguration;
   Map<String, String> genesisConfigOverrides;
   private Map<Long, Hash> requiredBlocks = Collections.emptyMap();
@@ -175,6 +180,12 @@ public abstract class BesuControllerBuilder<C> {
     return this;
   }
 
+  public BesuControllerBuilder<C> isParallelTransactionProcessingEnabled(
+      final boolean isParallelTransactionProcessingEnabled) {
+    this.isParallelTransactionProcessingEnabled = isParallelTransactionProcessingEnabled;
+    return this;
+  }
+
   public BesuControllerBuilder<C> isPruningEnabled(final boolean isPruningEnabled) {
     this.isPruningEnabled = isPruningEnabled;
     return this;
@@ -238,6 +249,10 @@ public abstract class BesuControllerBuilder<C> {
 
     protocolSchedule.setPublicWorldStateArchiveForPrivacyBlockProcessor(
         protocolContext.getWorldStateArchive());
+    if (isParallelTransactionProcessingEnabled) {
+      protocolSchedule.setParallelTransactionExecutor(
+          ParallelTransactionExecutor.create(metricsSystem));
+    }
 
     final MutableBlockchain blockchain = protocolContext.getBlockchain();
 
@@ -293,6 +308,12 @@ public abstract class BesuControllerBuilder<C> {
             scheduler,
             createPeerValidators(protocolSchedule));
 
+    final Optional<UniTrieSnapshotProtocolManager> snapshotProtocolManager =
+        UniTrieSnapshotProtocolManagerFactory.create(
+            merkleAwareProvider,
+            protocolContext.getWorldStateArchive().getWorldStateStorage(),
+            scheduler);
+
     final Synchronizer synchronizer =
         new DefaultSynchronizer<>(
             merkleAwareProvider,
@@ -300,6 +321,7 @@ public abstract class BesuControllerBuilder<C> {
             protocolSchedule,
             protocolContext,
             protocolContext.getWorldStateArchive().getWorldStateStorage(),
+            snapshotProtocolManager,
             ethProtocolManager.getBlockBroadcaster(),
             maybePruner,
             ethProtocolManager.ethContext(),
@@ -322,6 +344,10 @@ public abstract class BesuControllerBuilder<C> {
 
     final SubProtocolConfiguration subProtocolConfiguration =
         createSubProtocolConfiguration(ethProtocolManager);
+    snapshotProtocolManager.ifPresent(
+        protocolManager ->
+            subProtocolConfiguration.withSubProtocol(
+                UniTrieSnapshotProtocol.get(), protocolManager));
 
     final JsonRpcMethods additionalJsonRpcMethodFactory =
         createAdditionalJsonRpcMethodFactory(protocolContext);
@@ -403,7 +429,8 @@ public abstract class BesuControllerBuilder<C> {
         peerValidators,
         fastSyncEnabled,
         scheduler,
-        genesisConfig.getForks());
+        genesisConfig.getForks(),
+        metricsSystem);
   }
 
   private List<PeerValidator> createPeerValidators(final ProtocolSchedule<C> protocolSchedule) {
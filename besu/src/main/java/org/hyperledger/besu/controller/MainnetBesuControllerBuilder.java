@@ -24,6 +24,7 @@ import org.hyperledger.besu.ethereum.core.MiningParameters;
 import org.hyperledger.besu.ethereum.eth.manager.EthProtocolManager;
 import org.hyperledger.besu.ethereum.eth.sync.state.SyncState;
 import org.hyperledger.besu.ethereum.eth.transactions.TransactionPool;
+import org.hyperledger.besu.ethereum.mainnet.EthHashCacheFactory;
 import org.hyperledger.besu.ethereum.mainnet.MainnetBlockHeaderValidator;
 import org.hyperledger.besu.ethereum.mainnet.MainnetProtocolSchedule;
 import org.hyperledger.besu.ethereum.mainnet.ProtocolSchedule;
@@ -31,6 +32,16 @@ import org.hyperledger.besu.ethereum.worldstate.WorldStateArchive;
 
 public class MainnetBesuControllerBuilder extends BesuControllerBuilder<Void> {
 
+  private static final String ETHASH_CACHE_PATH = "ethash";
+
+  @Override
+  protected void prepForBuild() {
+    EthHashCacheFactory.shared()
+        .configure(
+            dataDirectory.resolve(BesuController.CACHE_PATH).resolve(ETHASH_CACHE_PATH),
+            metricsSystem);
+  }
+
   @Override
   protected MiningCoordinator createMiningCoordinator(
       final ProtocolSchedule<Void> protocolSchedule,
@@ -21,14 +21,22 @@ import org.hyperledger.besu.config.GenesisConfigFile;
 import org.hyperledger.besu.controller.BesuController;
 import org.hyperledger.besu.controller.GasLimitCalculator;
 import org.hyperledger.besu.crypto.SECP256K1.KeyPair;
+import org.hyperledger.besu.ethereum.core.Block;
+import org.hyperledger.besu.ethereum.core.BlockHeader;
 import org.hyperledger.besu.ethereum.core.InMemoryStorageProvider;
 import org.hyperledger.besu.ethereum.core.MiningParametersTestBuilder;
 import org.hyperledger.besu.ethereum.core.PrivacyParameters;
 import org.hyperledger.besu.ethereum.eth.EthProtocolConfiguration;
 import org.hyperledger.besu.ethereum.eth.sync.SynchronizerConfiguration;
 import org.hyperledger.besu.ethereum.eth.transactions.TransactionPoolConfiguration;
+import org.hyperledger.besu.ethereum.mainnet.MainnetBlockHeaderFunctions;
 import org.hyperledger.besu.ethereum.merkleutils.ClassicMerkleAwareProvider;
+import org.hyperledger.besu.ethereum.storage.StorageProvider;
+import org.hyperledger.besu.ethereum.storage.keyvalue.KeyValueStorageProvider;
+import org.hyperledger.besu.ethereum.util.RawBlockIterator;
 import org.hyperledger.besu.metrics.noop.NoOpMetricsSystem;
+import org.hyperledger.besu.plugin.services.storage.KeyValueStorage;
+import org.hyperledger.besu.services.kvstore.InMemoryKeyValueStorage;
 import org.hyperledger.besu.testutil.BlockTestUtil;
 import org.hyperledger.besu.testutil.TestClock;
 
@@ -37,6 +45,8 @@ import java.math.BigInteger;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
 
 import com.google.common.io.Resources;
 import org.apache.tuweni.units.bigints.UInt256;
@@ -80,6 +90,40 @@ public final class RlpBlockImporterTest {
     assertThat(result.td).isEqualTo(UInt256.valueOf(21991996248790L));
   }
 
+  @Test
+  public void blockImportResumesAfterImportedBlocks() throws IOException {
+    final Path dataDir = folder.newFolder().toPath();
+    final Path source = dataDir.resolve("1000.blocks");
+    BlockTestUtil.write1000Blocks(source);
+    final Path partialSource = dataDir.resolve("500.blocks");
+    writeFirstBlocks(source, partialSource, 500);
+
+    final KeyValueStorage blockchainStorage = new InMemoryKeyValueStorage();
+    final KeyValueStorage worldStateStorage = new InMemoryKeyValueStorage();
+    final KeyValueStorage preimageStorage = new InMemoryKeyValueStorage();
+    final KeyValueStorage pruningStorage = new InMemoryKeyValueStorage();
+
+    final RlpBlockImporter.ImportResult partialResult =
+        rlpBlockImporter.importBlockchain(
+            partialSource,
+            createMainnetController(
+                dataDir,
+                new KeyValueStorageProvider(
+                    blockchainStorage, worldStateStorage, preimageStorage, pruningStorage, false)));
+    assertThat(partialResult.count).isEqualTo(499);
+
+    final RlpBlockImporter.ImportResult result =
+        rlpBlockImporter.importBlockchain(
+            source,
+            createMainnetController(
+                dataDir,
+                new KeyValueStorageProvider(
+                    blockchainStorage, worldStateStorage, preimageStorage, pruningStorage, false)));
+    // Only the blocks that were not imported yet are counted
+    assertThat(result.count).isEqualTo(500);
+    assertThat(result.td).isEqualTo(UInt256.valueOf(21991996248790L));
+  }
+
   @Test
   public void ibftImport() throws IOException {
     final Path dataDir = folder.newFolder().toPath();
@@ -120,4 +164,41 @@ public final class RlpBlockImporterTest {
     // Don't count the Genesis block
     assertThat(result.count).isEqualTo(958);
   }
+
+  private static BesuController<?> createMainnetController(
+      final Path dataDir, final StorageProvider storageProvider) {
+    return new BesuController.Builder()
+        .fromGenesisConfig(GenesisConfigFile.mainnet())
+        .merkleAwareProvider(new ClassicMerkleAwareProvider())
+        .synchronizerConfiguration(SynchronizerConfiguration.builder().build())
+        .ethProtocolConfiguration(EthProtocolConfiguration.defaultConfig())
+        .storageProvider(storageProvider)
+        .networkId(BigInteger.ONE)
+        .miningParameters(new MiningParametersTestBuilder().enabled(false).build())
+        .nodeKeys(KeyPair.generate())
+        .metricsSystem(new NoOpMetricsSystem())
+        .privacyParameters(PrivacyParameters.DEFAULT)
+        .dataDirectory(dataDir)
+        .clock(TestClock.fixed())
+        .transactionPoolConfiguration(TransactionPoolConfiguration.builder().build())
+        .targetGasLimit(GasLimitCalculator.DEFAULT)
+        .build();
+  }
+
+  private static void writeFirstBlocks(final Path source, final Path target, final int count)
+      throws IOException {
+    final List<byte[]> blocks = new ArrayList<>();
+    try (final RawBlockIterator iterator =
+        new RawBlockIterator(
+            source, rlp -> BlockHeader.readFrom(rlp, new MainnetBlockHeaderFunctions()))) {
+      while (iterator.hasNext() && blocks.size() < count) {
+        final Block block = iterator.next();
+        blocks.add(block.toRlp().toArrayUnsafe());
+      }
+    }
+    Files.write(target, new byte[0]);
+    for (final byte[] block : blocks) {
+      Files.write(target, block, StandardOpenOption.APPEND);
+    }
+  }
 }
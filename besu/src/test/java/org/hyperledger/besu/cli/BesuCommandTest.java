@@ -33,6 +33,7 @@ import static org.hyperledger.besu.ethereum.p2p.config.DiscoveryConfiguration.MA
 import static org.junit.Assume.assumeFalse;
 import static org.junit.Assume.assumeTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isA;
 import static org.mockito.ArgumentMatchers.isNotNull;
@@ -58,6 +59,7 @@ import org.hyperledger.besu.ethereum.core.Wei;
 import org.hyperledger.besu.ethereum.eth.sync.SyncMode;
 import org.hyperledger.besu.ethereum.eth.sync.SynchronizerConfiguration;
 import org.hyperledger.besu.ethereum.merkleutils.ClassicMerkleAwareProvider;
+import org.hyperledger.besu.ethereum.merkleutils.MerkleAwareProvider;
 import org.hyperledger.besu.ethereum.merkleutils.UniTrieMerkleAwareProvider;
 import org.hyperledger.besu.ethereum.p2p.peers.EnodeURL;
 import org.hyperledger.besu.ethereum.permissioning.LocalPermissioningConfiguration;
@@ -2671,6 +2673,28 @@ public class BesuCommandTest extends CommandTestAbstract {
     assertThat(commandErrorOutput.toString()).isEmpty();
   }
 
+  @Test
+  public void parallelTransactionProcessingIsDisabledByDefault() {
+    parseCommand();
+
+    verify(mockControllerBuilder).isParallelTransactionProcessingEnabled(false);
+    verify(mockControllerBuilder).build();
+
+    assertThat(commandOutput.toString()).isEmpty();
+    assertThat(commandErrorOutput.toString()).isEmpty();
+  }
+
+  @Test
+  public void parallelTransactionProcessingEnabledExplicitly() {
+    parseCommand("--Xparallel-transaction-processing-enabled");
+
+    verify(mockControllerBuilder).isParallelTransactionProcessingEnabled(true);
+    verify(mockControllerBuilder).build();
+
+    assertThat(commandOutput.toString()).isEmpty();
+    assertThat(commandErrorOutput.toString()).isEmpty();
+  }
+
   @Test
   public void pruningParametersAreCaptured() throws Exception {
     parseCommand(
@@ -3576,4 +3600,23 @@ public class BesuCommandTest extends CommandTestAbstract {
     parseCommand("--merkle-storage-mode=unitrie");
     verify(mockControllerBuilder).merkleAwareProvider(isA(UniTrieMerkleAwareProvider.class));
   }
+
+  @Test
+  public void uniTrieFlatStateDisabledByDefault() {
+    parseCommand("--merkle-storage-mode=unitrie");
+    verify(mockControllerBuilder)
+        .merkleAwareProvider(argThat(provider -> !uniTrieFlatStateEnabled(provider)));
+  }
+
+  @Test
+  public void uniTrieFlatStateEnabledExplicitly() {
+    parseCommand("--merkle-storage-mode=unitrie", "--Xunitrie-flat-state-enabled");
+    verify(mockControllerBuilder)
+        .merkleAwareProvider(argThat(BesuCommandTest::uniTrieFlatStateEnabled));
+  }
+
+  private static boolean uniTrieFlatStateEnabled(final MerkleAwareProvider provider) {
+    return provider instanceof UniTrieMerkleAwareProvider
+        && ((UniTrieMerkleAwareProvider) provider).isFlatStateEnabled();
+  }
 }
@@ -18,6 +18,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.verifyZeroInteractions;
 
 import org.hyperledger.besu.ethereum.eth.EthProtocolConfiguration;
+import org.hyperledger.besu.ethereum.eth.sync.BlockPropagationStrategy;
 import org.hyperledger.besu.util.number.PositiveNumber;
 
 import org.junit.Test;
@@ -114,6 +115,39 @@ public class EthProtocolOptionsTest
             "Invalid value for option '--Xewp-max-get-node-data': cannot convert '-16' to PositiveNumber");
   }
 
+  @Test
+  public void parsesValidEwpResponseBudgetOptions() {
+    final TestBesuCommand cmd =
+        parseCommand(
+            "--Xewp-max-response-bytes",
+            "1024",
+            "--Xewp-max-response-millis",
+            "50",
+            "--Xewp-max-queued-requests-per-peer",
+            "4");
+
+    final EthProtocolOptions options = getOptionsFromBesuCommand(cmd);
+    final EthProtocolConfiguration config = options.toDomainObject();
+    assertThat(config.getMaxResponseBytes()).isEqualTo(1024);
+    assertThat(config.getMaxResponseMillis()).isEqualTo(50);
+    assertThat(config.getMaxQueuedRequestsPerPeer()).isEqualTo(4);
+
+    assertThat(commandOutput.toString()).isEmpty();
+    assertThat(commandErrorOutput.toString()).isEmpty();
+  }
+
+  @Test
+  public void parsesValidEwpBlockPropagationStrategyOptions() {
+    final TestBesuCommand cmd = parseCommand("--Xewp-block-propagation-strategy", "SQRT");
+
+    final EthProtocolOptions options = getOptionsFromBesuCommand(cmd);
+    final EthProtocolConfiguration config = options.toDomainObject();
+    assertThat(config.getBlockPropagationStrategy()).isEqualTo(BlockPropagationStrategy.SQRT);
+
+    assertThat(commandOutput.toString()).isEmpty();
+    assertThat(commandErrorOutput.toString()).isEmpty();
+  }
+
   @Override
   EthProtocolConfiguration createDefaultDomainObject() {
     return EthProtocolConfiguration.builder().build();
@@ -133,6 +167,14 @@ public class EthProtocolOptionsTest
         .maxGetPooledTransactions(
             PositiveNumber.fromInt(
                 EthProtocolConfiguration.DEFAULT_MAX_GET_POOLED_TRANSACTIONS + 2))
+        .maxResponseBytes(
+            PositiveNumber.fromInt(EthProtocolConfiguration.DEFAULT_MAX_RESPONSE_BYTES + 2))
+        .maxResponseMillis(
+            PositiveNumber.fromInt(EthProtocolConfiguration.DEFAULT_MAX_RESPONSE_MILLIS + 2))
+        .maxQueuedRequestsPerPeer(
+            PositiveNumber.fromInt(
+                EthProtocolConfiguration.DEFAULT_MAX_QUEUED_REQUESTS_PER_PEER + 2))
+        .blockPropagationStrategy(BlockPropagationStrategy.SQRT)
         .build();
   }
 
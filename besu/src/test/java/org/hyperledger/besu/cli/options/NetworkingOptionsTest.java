@@ -17,6 +17,7 @@ package org.hyperledger.besu.cli.options;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import org.hyperledger.besu.ethereum.p2p.config.NetworkingConfiguration;
+import org.hyperledger.besu.ethereum.p2p.rlpx.framing.FramerBackend;
 
 import org.junit.Test;
 
@@ -71,6 +72,31 @@ public class NetworkingOptionsTest
     assertThat(commandOutput.toString()).isEmpty();
   }
 
+  @Test
+  public void framerBackendFlag_isSet() {
+    final TestBesuCommand cmd = parseCommand("--Xp2p-framer-backend", "JCE");
+
+    final NetworkingOptions options = cmd.getNetworkingOptions();
+    final NetworkingConfiguration networkingConfig = options.toDomainObject();
+    assertThat(networkingConfig.getRlpx().getFramerBackend()).isEqualTo(FramerBackend.JCE);
+
+    assertThat(commandErrorOutput.toString()).isEmpty();
+    assertThat(commandOutput.toString()).isEmpty();
+  }
+
+  @Test
+  public void framerBackendFlag_isNotSet() {
+    final TestBesuCommand cmd = parseCommand();
+
+    final NetworkingOptions options = cmd.getNetworkingOptions();
+    final NetworkingConfiguration networkingConfig = options.toDomainObject();
+    assertThat(networkingConfig.getRlpx().getFramerBackend())
+        .isEqualTo(FramerBackend.BOUNCY_CASTLE);
+
+    assertThat(commandErrorOutput.toString()).isEmpty();
+    assertThat(commandOutput.toString()).isEmpty();
+  }
+
   @Override
   NetworkingConfiguration createDefaultDomainObject() {
     return NetworkingConfiguration.create();
@@ -83,6 +109,7 @@ public class NetworkingOptionsTest
         NetworkingConfiguration.DEFAULT_INITIATE_CONNECTIONS_FREQUENCY_SEC + 10);
     config.setCheckMaintainedConnectionsFrequency(
         NetworkingConfiguration.DEFAULT_CHECK_MAINTAINED_CONNECTSION_FREQUENCY_SEC + 10);
+    config.getRlpx().setFramerBackend(FramerBackend.JCE);
     return config;
   }
 
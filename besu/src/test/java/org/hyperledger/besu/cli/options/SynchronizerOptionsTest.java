@@ -44,6 +44,8 @@ public class SynchronizerOptionsTest
         .worldStateMinMillisBeforeStalling(
             SynchronizerConfiguration.DEFAULT_WORLD_STATE_MIN_MILLIS_BEFORE_STALLING * 2)
         .worldStateTaskCacheSize(SynchronizerConfiguration.DEFAULT_WORLD_STATE_TASK_CACHE_SIZE + 1)
+        .uniTrieSnapshotSyncEnabled(
+            !SynchronizerConfiguration.DEFAULT_UNITRIE_SNAPSHOT_SYNC_ENABLED)
         .blockPropagationRange(
             Range.closed(
                 SynchronizerConfiguration.DEFAULT_BLOCK_PROPAGATION_RANGE.lowerEndpoint() - 2,
@@ -0,0 +1,227 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.crypto.altbn128;
+
+import java.math.BigInteger;
+import java.util.Optional;
+
+import org.apache.tuweni.bytes.Bytes;
+
+/**
+ * Addition and scalar multiplication on the alt_bn128 curve y^2 = x^3 + 3, with the encodings of
+ * the corresponding precompiled contracts (EIP-196).
+ *
+ * <p>Points are encoded as their two affine coordinates, 32 bytes each, the point at infinity being
+ * (0, 0). Computations run in Jacobian coordinates on {@link Fp} limbs, so that the only inversion
+ * is the one converting the result back to affine coordinates. The results are the same as those of
+ * {@link AltBn128Point}.
+ */
+public final class AltBn128G1 {
+
+  private static final int POINT_LENGTH = 2 * Fp.BYTES;
+  private static final int ADD_INPUT_LENGTH = 2 * POINT_LENGTH;
+  private static final int MULTIPLY_INPUT_LENGTH = POINT_LENGTH + Fp.BYTES;
+  private static final long[] B = Fp.create(BigInteger.valueOf(3));
+
+  private final long[] x = Fp.create();
+  private final long[] y = Fp.create();
+  private final long[] z = Fp.create();
+
+  private final long[] t0 = Fp.create();
+  private final long[] t1 = Fp.create();
+  private final long[] t2 = Fp.create();
+  private final long[] t3 = Fp.create();
+  private final long[] t4 = Fp.create();
+  private final long[] t5 = Fp.create();
+
+  private AltBn128G1() {}
+
+  /**
+   * Add two points.
+   *
+   * @param input the two encoded points, 128 bytes
+   * @return the encoded sum, or empty if a point is not on the curve
+   */
+  public static Optional<Bytes> add(final Bytes input) {
+    if (input.size() != ADD_INPUT_LENGTH) {
+      throw new IllegalArgumentException("Input must be two 64 bytes points");
+    }
+    final byte[] bytes = input.toArrayUnsafe();
+    final long[] x1 = Fp.create();
+    final long[] y1 = Fp.create();
+    final long[] x2 = Fp.create();
+    final long[] y2 = Fp.create();
+    if (!decode(bytes, 0, x1, y1) || !decode(bytes, POINT_LENGTH, x2, y2)) {
+      return Optional.empty();
+    }
+    final AltBn128G1 sum = new AltBn128G1().setAffine(x1, y1);
+    sum.addAffine(x2, y2);
+    return Optional.of(sum.encode());
+  }
+
+  /**
+   * Multiply a point by a scalar.
+   *
+   * @param input the encoded point followed by the 32 bytes big-endian scalar, 96 bytes
+   * @return the encoded product, or empty if the point is not on the curve
+   */
+  public static Optional<Bytes> multiply(final Bytes input) {
+    if (input.size() != MULTIPLY_INPUT_LENGTH) {
+      throw new IllegalArgumentException("Input must be a 64 bytes point and a 32 bytes scalar");
+    }
+    final byte[] bytes = input.toArrayUnsafe();
+    final long[] px = Fp.create();
+    final long[] py = Fp.create();
+    if (!decode(bytes, 0, px, py)) {
+      return Optional.empty();
+    }
+    final AltBn128G1 product = new AltBn128G1();
+    for (int i = 0; i < Fp.BYTES * Byte.SIZE; i++) {
+      product.doublePoint();
+      if ((bytes[POINT_LENGTH + i / Byte.SIZE] >>> (7 - i % Byte.SIZE) & 1) != 0) {
+        product.addAffine(px, py);
+      }
+    }
+    return Optional.of(product.encode());
+  }
+
+  /**
+   * Decode an affine point and check that it is on the curve.
+   *
+   * @param src the encoded bytes
+   * @param offset the offset of the point in {@code src}
+   * @param x the decoded x coordinate
+   * @param y the decoded y coordinate
+   * @return false if a coordinate is not smaller than the field modulus or the point is neither on
+   *     the curve nor (0, 0)
+   */
+  static boolean decode(final byte[] src, final int offset, final long[] x, final long[] y) {
+    if (!Fp.fromBytes(src, offset, x) || !Fp.fromBytes(src, offset + Fp.BYTES, y)) {
+      return false;
+    }
+    if (Fp.isZero(x) && Fp.isZero(y)) {
+      return true;
+    }
+    // y^2 = x^3 + 3
+    final long[] lhs = Fp.create();
+    final long[] rhs = Fp.create();
+    Fp.square(y, lhs);
+    Fp.square(x, rhs);
+    Fp.multiply(rhs, x, rhs);
+    Fp.add(rhs, B, rhs);
+    return Fp.equal(lhs, rhs);
+  }
+
+  private AltBn128G1 setAffine(final long[] ax, final long[] ay) {
+    if (Fp.isZero(ax) && Fp.isZero(ay)) {
+      Fp.setZero(z);
+    } else {
+      Fp.copy(ax, x);
+      Fp.copy(ay, y);
+      Fp.setOne(z);
+    }
+    return this;
+  }
+
+  private boolean isInfinity() {
+    return Fp.isZero(z);
+  }
+
+  // dbl-2009-l
+  private void doublePoint() {
+    if (isInfinity()) {
+      return;
+    }
+    Fp.square(x, t0); // A = X^2
+    Fp.square(y, t1); // B = Y^2
+    Fp.square(t1, t2); // C = B^2
+    Fp.add(x, t1, t3);
+    Fp.square(t3, t3);
+    Fp.subtract(t3, t0, t3);
+    Fp.subtract(t3, t2, t3);
+    Fp.add(t3, t3, t3); // D = 2((X + B)^2 - A - C)
+    Fp.add(t0, t0, t4);
+    Fp.add(t4, t0, t4); // E = 3A
+    Fp.square(t4, t5); // F = E^2
+    Fp.multiply(y, z, z);
+    Fp.add(z, z, z); // Z3 = 2 Y Z
+    Fp.subtract(t5, t3, x);
+    Fp.subtract(x, t3, x); // X3 = F - 2D
+    Fp.subtract(t3, x, y);
+    Fp.multiply(t4, y, y);
+    Fp.add(t2, t2, t2);
+    Fp.add(t2, t2, t2);
+    Fp.add(t2, t2, t2);
+    Fp.subtract(y, t2, y); // Y3 = E(D - X3) - 8C
+  }
+
+  // madd-2007-bl
+  private void addAffine(final long[] ax, final long[] ay) {
+    if (Fp.isZero(ax) && Fp.isZero(ay)) {
+      return;
+    }
+    if (isInfinity()) {
+      setAffine(ax, ay);
+      return;
+    }
+    Fp.square(z, t0); // Z1Z1 = Z1^2
+    Fp.multiply(ax, t0, t1); // U2 = X2 Z1Z1
+    Fp.multiply(ay, z, t2);
+    Fp.multiply(t2, t0, t2); // S2 = Y2 Z1 Z1Z1
+    Fp.subtract(t1, x, t1); // H = U2 - X1
+    Fp.subtract(t2, y, t2);
+    Fp.add(t2, t2, t2); // r = 2(S2 - Y1)
+    if (Fp.isZero(t1)) {
+      if (Fp.isZero(t2)) {
+        doublePoint();
+      } else {
+        Fp.setZero(z);
+      }
+      return;
+    }
+    Fp.square(t1, t3); // HH = H^2
+    Fp.add(z, t1, z);
+    Fp.square(z, z);
+    Fp.subtract(z, t0, z);
+    Fp.subtract(z, t3, z); // Z3 = (Z1 + H)^2 - Z1Z1 - HH
+    Fp.add(t3, t3, t3);
+    Fp.add(t3, t3, t3); // I = 4 HH
+    Fp.multiply(t1, t3, t4); // J = H I
+    Fp.multiply(x, t3, t5); // V = X1 I
+    Fp.multiply(y, t4, t0);
+    Fp.add(t0, t0, t0); // 2 Y1 J
+    Fp.square(t2, x);
+    Fp.subtract(x, t4, x);
+    Fp.subtract(x, t5, x);
+    Fp.subtract(x, t5, x); // X3 = r^2 - J - 2V
+    Fp.subtract(t5, x, y);
+    Fp.multiply(t2, y, y);
+    Fp.subtract(y, t0, y); // Y3 = r(V - X3) - 2 Y1 J
+  }
+
+  private Bytes encode() {
+    final byte[] result = new byte[POINT_LENGTH];
+    if (!isInfinity()) {
+      Fp.inverse(z, t0);
+      Fp.square(t0, t1);
+      Fp.multiply(x, t1, t2);
+      Fp.toBytes(t2, result, 0);
+      Fp.multiply(t1, t0, t1);
+      Fp.multiply(y, t1, t2);
+      Fp.toBytes(t2, result, Fp.BYTES);
+    }
+    return Bytes.wrap(result);
+  }
+}
@@ -0,0 +1,276 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.crypto.altbn128;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.apache.tuweni.bytes.Bytes;
+
+/**
+ * Optimal ate pairing check on alt_bn128, with the encoding of the corresponding precompiled
+ * contract (EIP-197).
+ *
+ * <p>The Miller loop runs on {@link Fp12} elements that are allocated once per check and updated in
+ * place, and the loops of all the pairs share a single accumulator, so that its squarings are only
+ * done once. The lines of the loop only depend on the G2 point up to its evaluation at the G1
+ * point, so they are computed once per G2 point, together with its subgroup check, and cached:
+ * verifiers of succinct proofs pair against the same few G2 points of their verification key on
+ * every call. The result is the same as that of {@link AltBn128Fq12Pairer}.
+ */
+public final class AltBn128Pairing {
+
+  private static final int G1_LENGTH = 2 * Fp.BYTES;
+  private static final int G2_LENGTH = 4 * Fp.BYTES;
+  private static final int PAIR_LENGTH = G1_LENGTH + G2_LENGTH;
+  private static final int PREPARED_CACHE_SIZE = 256;
+
+  private static final BigInteger ATE_LOOP_COUNT = new BigInteger("29793968203157093288");
+  private static final int LOG_ATE_LOOP_COUNT = 63;
+  private static final BigInteger CURVE_ORDER =
+      new BigInteger(
+          "21888242871839275222246405745257275088548364400416034343698204186575808495617");
+
+  // The p-power Frobenius map on the twist multiplies x by (9 + i)^((p - 1) / 3) and y by
+  // (9 + i)^((p - 1) / 2) after conjugating them
+  private static final Fp2 FROBENIUS_X;
+  private static final Fp2 FROBENIUS_Y;
+
+  // The BN parameter u, with p = 36u^4 + 36u^3 + 24u^2 + 6u + 1
+  private static final BigInteger U = new BigInteger("4965661367192848881");
+
+  static {
+    final BigInteger p = Fp.modulus();
+    final Fp2 nonResidue = Fp2.create(BigInteger.valueOf(9), BigInteger.ONE);
+    FROBENIUS_X =
+        new Fp2().power(nonResidue, p.subtract(BigInteger.ONE).divide(BigInteger.valueOf(3)));
+    FROBENIUS_Y = new Fp2().power(nonResidue, p.subtract(BigInteger.ONE).shiftRight(1));
+  }
+
+  private static final Cache<Bytes, PreparedG2> PREPARED =
+      CacheBuilder.newBuilder().maximumSize(PREPARED_CACHE_SIZE).build();
+
+  private AltBn128Pairing() {}
+
+  /**
+   * Check whether the product of the pairings of the given pairs is one.
+   *
+   * @param input the encoded pairs, 192 bytes each: a G1 point as its x and y coordinates, then a
+   *     G2 point as the imaginary and real parts of its x coordinate, then of its y coordinate
+   * @return whether the product of the pairings is one, or empty if a point is not on its curve or
+   *     a G2 point is not in the subgroup of order r
+   */
+  public static Optional<Boolean> check(final Bytes input) {
+    if (input.size() % PAIR_LENGTH != 0) {
+      throw new IllegalArgumentException("Input must be made of 192 bytes pairs");
+    }
+    final byte[] bytes = input.toArrayUnsafe();
+    final List<long[]> g1 = new ArrayList<>();
+    final List<PreparedG2> g2 = new ArrayList<>();
+    for (int offset = 0; offset < bytes.length; offset += PAIR_LENGTH) {
+      final long[] px = Fp.create();
+      final long[] py = Fp.create();
+      if (!AltBn128G1.decode(bytes, offset, px, py)) {
+        return Optional.empty();
+      }
+      final Optional<PreparedG2> q = prepare(input.slice(offset + G1_LENGTH, G2_LENGTH));
+      if (q.isEmpty()) {
+        return Optional.empty();
+      }
+      // Pairs with a point at infinity contribute one to the product
+      if (!(Fp.isZero(px) && Fp.isZero(py)) && !q.get().isInfinity()) {
+        g1.add(px);
+        g1.add(py);
+        g2.add(q.get());
+      }
+    }
+    return Optional.of(finalExponentiation(millerLoop(g1, g2)).isOne());
+  }
+
+  private static Optional<PreparedG2> prepare(final Bytes encoded) {
+    final PreparedG2 cached = PREPARED.getIfPresent(encoded);
+    if (cached != null) {
+      return Optional.of(cached);
+    }
+    final Fp2 x = new Fp2();
+    final Fp2 y = new Fp2();
+    final byte[] bytes = encoded.toArrayUnsafe();
+    if (!x.fromBytes(bytes, 0) || !y.fromBytes(bytes, 2 * Fp.BYTES)) {
+      return Optional.empty();
+    }
+    final PreparedG2 prepared;
+    if (x.isZero() && y.isZero()) {
+      prepared = PreparedG2.INFINITY;
+    } else if (!TwistPoint.isOnCurve(x, y) || !isInSubgroup(x, y)) {
+      return Optional.empty();
+    } else {
+      prepared = new PreparedG2(x, y);
+    }
+    // Copy the key so that the cache does not retain the whole input
+    PREPARED.put(encoded.copy(), prepared);
+    return Optional.of(prepared);
+  }
+
+  private static boolean isInSubgroup(final Fp2 x, final Fp2 y) {
+    final TwistPoint point = new TwistPoint().setAffine(x, y);
+    final Fp2 la = new Fp2();
+    final Fp2 lb = new Fp2();
+    final Fp2 lc = new Fp2();
+    for (int i = CURVE_ORDER.bitLength() - 2; i >= 0; i--) {
+      point.doubleStep(la, lb, lc);
+      if (CURVE_ORDER.testBit(i)) {
+        point.addStep(x, y, la, lb, lc);
+      }
+    }
+    return point.isInfinity();
+  }
+
+  private static Fp12 millerLoop(final List<long[]> g1, final List<PreparedG2> g2) {
+    final Fp12 f = new Fp12().setOne();
+    final Fp2 l0 = new Fp2();
+    final Fp2 l1 = new Fp2();
+    int line = 0;
+    for (int i = LOG_ATE_LOOP_COUNT; i >= 0; i--) {
+      f.square(f);
+      multiplyByLines(f, line++, g1, g2, l0, l1);
+      if (ATE_LOOP_COUNT.testBit(i)) {
+        multiplyByLines(f, line++, g1, g2, l0, l1);
+      }
+    }
+    multiplyByLines(f, line++, g1, g2, l0, l1);
+    multiplyByLines(f, line, g1, g2, l0, l1);
+    return f;
+  }
+
+  private static void multiplyByLines(
+      final Fp12 f,
+      final int line,
+      final List<long[]> g1,
+      final List<PreparedG2> g2,
+      final Fp2 l0,
+      final Fp2 l1) {
+    for (int i = 0; i < g2.size(); i++) {
+      final Fp2[] coefficients = g2.get(i).lines[line];
+      if (coefficients != null) {
+        l0.multiply(coefficients[0], g1.get(2 * i + 1));
+        l1.multiply(coefficients[1], g1.get(2 * i));
+        f.multiplyByLine(l0, l1, coefficients[2]);
+      }
+    }
+  }
+
+  private static Fp12 finalExponentiation(final Fp12 f) {
+    // Easy part: f^((p^6 - 1)(p^2 + 1)), after which inverting is conjugating
+    final Fp12 t = new Fp12().inverse(f);
+    f.conjugate(f).multiply(f, t);
+    t.frobeniusSquared(f);
+    f.multiply(f, t);
+
+    // Hard part: f^((p^4 - p^2 + 1) / r), decomposed in base p with coefficients that are
+    // polynomials in u (Scott et al., "On the final exponentiation for calculating pairings on
+    // ordinary elliptic curves")
+    final Fp12 fp = new Fp12().frobenius(f);
+    final Fp12 fp2 = new Fp12().frobeniusSquared(f);
+    final Fp12 fp3 = new Fp12().frobenius(fp2);
+    final Fp12 fu = powerOfU(f);
+    final Fp12 fu2 = powerOfU(fu);
+    final Fp12 fu3 = powerOfU(fu2);
+
+    final Fp12 y0 = fp.multiply(fp, fp2).multiply(fp, fp3);
+    final Fp12 y1 = f.conjugate(f);
+    final Fp12 y2 = new Fp12().frobeniusSquared(fu2);
+    final Fp12 y3 = fp2.frobenius(fu).conjugate(fp2);
+    final Fp12 y4 = fp3.frobenius(fu2).multiply(fu, fp3).conjugate(fp3);
+    final Fp12 y5 = fu2.conjugate(fu2);
+    final Fp12 y6 = t.frobenius(fu3).multiply(fu3, t).conjugate(t);
+
+    final Fp12 t0 = fu.square(y6).multiply(fu, y4).multiply(fu, y5);
+    final Fp12 t1 = fu3.multiply(y3, y5).multiply(fu3, t0);
+    t0.multiply(t0, y2);
+    t1.square(t1).multiply(t1, t0).square(t1);
+    t0.multiply(t1, y1);
+    t1.multiply(t1, y0);
+    return t0.square(t0).multiply(t0, t1);
+  }
+
+  private static Fp12 powerOfU(final Fp12 a) {
+    final Fp12 result = new Fp12().set(a);
+    for (int i = U.bitLength() - 2; i >= 0; i--) {
+      result.square(result);
+      if (U.testBit(i)) {
+        result.multiply(result, a);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * The coefficients of the lines of the Miller loop for a G2 point, in the order the loop uses
+   * them. Vertical lines are left out: they lie in Fp6, which the final exponentiation maps to one.
+   */
+  private static final class PreparedG2 {
+
+    private static final PreparedG2 INFINITY = new PreparedG2();
+
+    private final Fp2[][] lines;
+
+    private PreparedG2() {
+      this.lines = null;
+    }
+
+    private PreparedG2(final Fp2 x, final Fp2 y) {
+      final List<Fp2[]> result = new ArrayList<>();
+      final TwistPoint t = new TwistPoint().setAffine(x, y);
+      for (int i = LOG_ATE_LOOP_COUNT; i >= 0; i--) {
+        final Fp2[] doubling = newLine();
+        t.doubleStep(doubling[0], doubling[1], doubling[2]);
+        result.add(doubling);
+        if (ATE_LOOP_COUNT.testBit(i)) {
+          result.add(addStep(t, x, y));
+        }
+      }
+      // Q1 = pi(Q), then -Q2 = -pi(Q1)
+      final Fp2 q1x = frobenius(x, FROBENIUS_X);
+      final Fp2 q1y = frobenius(y, FROBENIUS_Y);
+      result.add(addStep(t, q1x, q1y));
+      final Fp2 q2x = frobenius(q1x, FROBENIUS_X);
+      final Fp2 q2y = frobenius(q1y, FROBENIUS_Y);
+      result.add(addStep(t, q2x, q2y.negate(q2y)));
+      this.lines = result.toArray(new Fp2[0][]);
+    }
+
+    private boolean isInfinity() {
+      return lines == null;
+    }
+
+    private static Fp2[] addStep(final TwistPoint t, final Fp2 x, final Fp2 y) {
+      final Fp2[] line = newLine();
+      return t.addStep(x, y, line[0], line[1], line[2]) ? line : null;
+    }
+
+    private static Fp2 frobenius(final Fp2 a, final Fp2 factor) {
+      final Fp2 result = new Fp2().conjugate(a);
+      return result.multiply(result, factor);
+    }
+
+    private static Fp2[] newLine() {
+      return new Fp2[] {new Fp2(), new Fp2(), new Fp2()};
+    }
+  }
+}
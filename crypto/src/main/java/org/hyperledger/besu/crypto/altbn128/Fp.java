@@ -0,0 +1,384 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.crypto.altbn128;
+
+import java.math.BigInteger;
+
+/**
+ * Arithmetic modulo the alt_bn128 field modulus on four 64-bit limbs, least significant first.
+ *
+ * <p>Elements are kept in Montgomery form, so that a multiplication costs a handful of 64-bit
+ * multiplications and no division. Every operation writes its result to an {@code out} array that
+ * may alias its operands, and allocates nothing, so that the extension fields can reuse their
+ * scratch limbs across a whole pairing.
+ */
+final class Fp {
+
+  static final int LIMBS = 4;
+  static final int BYTES = 32;
+
+  private static final long P0 = 0x3c208c16d87cfd47L;
+  private static final long P1 = 0x97816a916871ca8dL;
+  private static final long P2 = 0xb85045b68181585dL;
+  private static final long P3 = 0x30644e72e131a029L;
+
+  // -p^-1 mod 2^64
+  private static final long INV = -inverse64(P0);
+
+  private static final long[] R_SQUARED = limbs(BigInteger.ONE.shiftLeft(512).mod(modulus()));
+  private static final long[] ONE = limbs(BigInteger.ONE.shiftLeft(256).mod(modulus()));
+  private static final long[] CANONICAL_ONE = {1, 0, 0, 0};
+
+  private Fp() {}
+
+  static BigInteger modulus() {
+    return FieldElement.FIELD_MODULUS;
+  }
+
+  static long[] create() {
+    return new long[LIMBS];
+  }
+
+  static long[] create(final BigInteger value) {
+    final long[] out = limbs(value.mod(modulus()));
+    multiply(out, R_SQUARED, out);
+    return out;
+  }
+
+  static BigInteger toBigInteger(final long[] a) {
+    final byte[] bytes = new byte[BYTES];
+    toBytes(a, bytes, 0);
+    return new BigInteger(1, bytes);
+  }
+
+  /**
+   * Decode a big-endian field element.
+   *
+   * @param src the encoded bytes
+   * @param offset the offset of the element in {@code src}
+   * @param out the decoded element
+   * @return false if the encoded value is not smaller than the field modulus
+   */
+  static boolean fromBytes(final byte[] src, final int offset, final long[] out) {
+    final long a3 = readLong(src, offset);
+    final long a2 = readLong(src, offset + 8);
+    final long a1 = readLong(src, offset + 16);
+    final long a0 = readLong(src, offset + 24);
+    long borrow = lessThan(a0, P0);
+    borrow = lessThan(a1, P1) | (a1 == P1 ? borrow : 0);
+    borrow = lessThan(a2, P2) | (a2 == P2 ? borrow : 0);
+    borrow = lessThan(a3, P3) | (a3 == P3 ? borrow : 0);
+    if (borrow == 0) {
+      return false;
+    }
+    out[0] = a0;
+    out[1] = a1;
+    out[2] = a2;
+    out[3] = a3;
+    multiply(out, R_SQUARED, out);
+    return true;
+  }
+
+  static void toBytes(final long[] a, final byte[] dst, final int offset) {
+    final long[] canonical = create();
+    multiply(a, CANONICAL_ONE, canonical);
+    writeLong(canonical[3], dst, offset);
+    writeLong(canonical[2], dst, offset + 8);
+    writeLong(canonical[1], dst, offset + 16);
+    writeLong(canonical[0], dst, offset + 24);
+  }
+
+  static void setZero(final long[] out) {
+    out[0] = 0;
+    out[1] = 0;
+    out[2] = 0;
+    out[3] = 0;
+  }
+
+  static void setOne(final long[] out) {
+    copy(ONE, out);
+  }
+
+  static void copy(final long[] a, final long[] out) {
+    out[0] = a[0];
+    out[1] = a[1];
+    out[2] = a[2];
+    out[3] = a[3];
+  }
+
+  static boolean isZero(final long[] a) {
+    return (a[0] | a[1] | a[2] | a[3]) == 0;
+  }
+
+  static boolean isOne(final long[] a) {
+    return equal(a, ONE);
+  }
+
+  static boolean equal(final long[] a, final long[] b) {
+    return ((a[0] ^ b[0]) | (a[1] ^ b[1]) | (a[2] ^ b[2]) | (a[3] ^ b[3])) == 0;
+  }
+
+  static void add(final long[] a, final long[] b, final long[] out) {
+    final long a0 = a[0];
+    final long a1 = a[1];
+    final long a2 = a[2];
+    final long a3 = a[3];
+    final long s0 = a0 + b[0];
+    long carry = lessThan(s0, a0);
+    final long s1 = a1 + b[1] + carry;
+    carry = lessThan(s1, a1) | (s1 == a1 ? carry : 0);
+    final long s2 = a2 + b[2] + carry;
+    carry = lessThan(s2, a2) | (s2 == a2 ? carry : 0);
+    final long s3 = a3 + b[3] + carry;
+    carry = lessThan(s3, a3) | (s3 == a3 ? carry : 0);
+    reduce(s0, s1, s2, s3, carry, out);
+  }
+
+  static void subtract(final long[] a, final long[] b, final long[] out) {
+    final long a0 = a[0];
+    final long a1 = a[1];
+    final long a2 = a[2];
+    final long a3 = a[3];
+    final long b0 = b[0];
+    final long b1 = b[1];
+    final long b2 = b[2];
+    final long b3 = b[3];
+    long d0 = a0 - b0;
+    long borrow = lessThan(a0, b0);
+    long d1 = a1 - b1 - borrow;
+    borrow = lessThan(a1, b1) | (a1 == b1 ? borrow : 0);
+    long d2 = a2 - b2 - borrow;
+    borrow = lessThan(a2, b2) | (a2 == b2 ? borrow : 0);
+    long d3 = a3 - b3 - borrow;
+    borrow = lessThan(a3, b3) | (a3 == b3 ? borrow : 0);
+    // Add the modulus back on underflow
+    final long mask = -borrow;
+    final long q0 = P0 & mask;
+    final long q1 = P1 & mask;
+    final long q2 = P2 & mask;
+    final long q3 = P3 & mask;
+    final long e0 = d0;
+    d0 += q0;
+    long carry = lessThan(d0, e0);
+    final long e1 = d1;
+    d1 += q1 + carry;
+    carry = lessThan(d1, e1) | (d1 == e1 ? carry : 0);
+    final long e2 = d2;
+    d2 += q2 + carry;
+    carry = lessThan(d2, e2) | (d2 == e2 ? carry : 0);
+    d3 += q3 + carry;
+    out[0] = d0;
+    out[1] = d1;
+    out[2] = d2;
+    out[3] = d3;
+  }
+
+  static void negate(final long[] a, final long[] out) {
+    if (isZero(a)) {
+      setZero(out);
+      return;
+    }
+    final long a0 = a[0];
+    final long a1 = a[1];
+    final long a2 = a[2];
+    final long a3 = a[3];
+    final long d0 = P0 - a0;
+    long borrow = lessThan(P0, a0);
+    final long d1 = P1 - a1 - borrow;
+    borrow = lessThan(P1, a1) | (P1 == a1 ? borrow : 0);
+    final long d2 = P2 - a2 - borrow;
+    borrow = lessThan(P2, a2) | (P2 == a2 ? borrow : 0);
+    out[0] = d0;
+    out[1] = d1;
+    out[2] = d2;
+    out[3] = P3 - a3 - borrow;
+  }
+
+  /** Montgomery multiplication, interleaving the product and reduction limb by limb (CIOS). */
+  static void multiply(final long[] a, final long[] b, final long[] out) {
+    final long a0 = a[0];
+    final long a1 = a[1];
+    final long a2 = a[2];
+    final long a3 = a[3];
+    long t0 = 0;
+    long t1 = 0;
+    long t2 = 0;
+    long t3 = 0;
+    long t4 = 0;
+    for (int i = 0; i < LIMBS; i++) {
+      final long bi = b[i];
+      long lo;
+      long hi;
+      long carry;
+
+      // t += a * b[i]
+      lo = a0 * bi;
+      hi = multiplyHigh(a0, bi);
+      lo += t0;
+      hi += lessThan(lo, t0);
+      t0 = lo;
+      carry = hi;
+
+      lo = a1 * bi;
+      hi = multiplyHigh(a1, bi);
+      lo += t1;
+      hi += lessThan(lo, t1);
+      lo += carry;
+      hi += lessThan(lo, carry);
+      t1 = lo;
+      carry = hi;
+
+      lo = a2 * bi;
+      hi = multiplyHigh(a2, bi);
+      lo += t2;
+      hi += lessThan(lo, t2);
+      lo += carry;
+      hi += lessThan(lo, carry);
+      t2 = lo;
+      carry = hi;
+
+      lo = a3 * bi;
+      hi = multiplyHigh(a3, bi);
+      lo += t3;
+      hi += lessThan(lo, t3);
+      lo += carry;
+      hi += lessThan(lo, carry);
+      t3 = lo;
+      carry = hi;
+
+      t4 += carry;
+      final long t5 = lessThan(t4, carry);
+
+      // t = (t + m * p) / 2^64, where m is chosen to clear the lowest limb
+      final long m = t0 * INV;
+      lo = m * P0;
+      hi = multiplyHigh(m, P0);
+      lo += t0;
+      hi += lessThan(lo, t0);
+      carry = hi;
+
+      lo = m * P1;
+      hi = multiplyHigh(m, P1);
+      lo += t1;
+      hi += lessThan(lo, t1);
+      lo += carry;
+      hi += lessThan(lo, carry);
+      t0 = lo;
+      carry = hi;
+
+      lo = m * P2;
+      hi = multiplyHigh(m, P2);
+      lo += t2;
+      hi += lessThan(lo, t2);
+      lo += carry;
+      hi += lessThan(lo, carry);
+      t1 = lo;
+      carry = hi;
+
+      lo = m * P3;
+      hi = multiplyHigh(m, P3);
+      lo += t3;
+      hi += lessThan(lo, t3);
+      lo += carry;
+      hi += lessThan(lo, carry);
+      t2 = lo;
+      carry = hi;
+
+      t3 = t4 + carry;
+      t4 = t5 + lessThan(t3, carry);
+    }
+    reduce(t0, t1, t2, t3, t4, out);
+  }
+
+  static void square(final long[] a, final long[] out) {
+    multiply(a, a, out);
+  }
+
+  /**
+   * The inverse of zero is zero, as in {@link Fq}. Inversions are rare enough for the extended
+   * Euclidean algorithm of {@link BigInteger} to beat Fermat's little theorem, despite allocating.
+   */
+  static void inverse(final long[] a, final long[] out) {
+    if (isZero(a)) {
+      setZero(out);
+      return;
+    }
+    copy(create(toBigInteger(a).modInverse(modulus())), out);
+  }
+
+  // Subtract the modulus once if the value is not smaller than it
+  private static void reduce(
+      final long t0, final long t1, final long t2, final long t3, final long t4, final long[] out) {
+    final long s0 = t0 - P0;
+    long borrow = lessThan(t0, P0);
+    final long s1 = t1 - P1 - borrow;
+    borrow = lessThan(t1, P1) | (t1 == P1 ? borrow : 0);
+    final long s2 = t2 - P2 - borrow;
+    borrow = lessThan(t2, P2) | (t2 == P2 ? borrow : 0);
+    final long s3 = t3 - P3 - borrow;
+    borrow = lessThan(t3, P3) | (t3 == P3 ? borrow : 0);
+    if (t4 != 0 || borrow == 0) {
+      out[0] = s0;
+      out[1] = s1;
+      out[2] = s2;
+      out[3] = s3;
+    } else {
+      out[0] = t0;
+      out[1] = t1;
+      out[2] = t2;
+      out[3] = t3;
+    }
+  }
+
+  private static long lessThan(final long a, final long b) {
+    return (a + Long.MIN_VALUE) < (b + Long.MIN_VALUE) ? 1 : 0;
+  }
+
+  private static long multiplyHigh(final long a, final long b) {
+    // Math.multiplyHigh is signed, correct it for unsigned operands
+    return Math.multiplyHigh(a, b) + ((a >> 63) & b) + ((b >> 63) & a);
+  }
+
+  private static long inverse64(final long a) {
+    // Newton iteration, each step doubles the number of correct low bits
+    long x = a;
+    for (int i = 0; i < 5; i++) {
+      x *= 2 - a * x;
+    }
+    return x;
+  }
+
+  private static long[] limbs(final BigInteger value) {
+    final long[] out = create();
+    for (int i = 0; i < LIMBS; i++) {
+      out[i] = value.shiftRight(i * Long.SIZE).longValue();
+    }
+    return out;
+  }
+
+  private static long readLong(final byte[] src, final int offset) {
+    long value = 0;
+    for (int i = 0; i < 8; i++) {
+      value = (value << 8) | (src[offset + i] & 0xFF);
+    }
+    return value;
+  }
+
+  private static void writeLong(final long value, final byte[] dst, final int offset) {
+    for (int i = 0; i < 8; i++) {
+      dst[offset + i] = (byte) (value >>> (56 - 8 * i));
+    }
+  }
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.crypto.altbn128;
+
+import java.math.BigInteger;
+
+/**
+ * Mutable element of the quadratic extension Fp6[w] / (w^2 - v), with the same aliasing rules as
+ * {@link Fp2}.
+ */
+final class Fp12 {
+
+  // 9 + i
+  private static final Fp2 NON_RESIDUE = Fp2.create(BigInteger.valueOf(9), BigInteger.ONE);
+
+  // The p^n Frobenius map multiplies the coefficient of w^k by (9 + i)^(k (p^n - 1) / 6), after
+  // conjugating it if n is odd
+  private static final Fp2[] FROBENIUS = frobeniusCoefficients(1);
+  private static final Fp2[] FROBENIUS_SQUARED = frobeniusCoefficients(2);
+
+  final Fp6 c0 = new Fp6();
+  final Fp6 c1 = new Fp6();
+
+  private final Fp6 v0 = new Fp6();
+  private final Fp6 v1 = new Fp6();
+  private final Fp6 s = new Fp6();
+  private final Fp2 t = new Fp2();
+
+  Fp12 set(final Fp12 a) {
+    c0.set(a.c0);
+    c1.set(a.c1);
+    return this;
+  }
+
+  Fp12 setOne() {
+    c0.setOne();
+    c1.setZero();
+    return this;
+  }
+
+  boolean isOne() {
+    return c0.isOne() && c1.isZero();
+  }
+
+  Fp12 multiply(final Fp12 a, final Fp12 b) {
+    // c0 = a0 b0 + a1 b1 v, c1 = (a0 + a1)(b0 + b1) - a0 b0 - a1 b1
+    v0.multiply(a.c0, b.c0);
+    v1.multiply(a.c1, b.c1);
+    s.add(a.c0, a.c1);
+    c1.add(b.c0, b.c1).multiply(c1, s).subtract(c1, v0).subtract(c1, v1);
+    c0.multiplyByNonResidue(v1).add(c0, v0);
+    return this;
+  }
+
+  Fp12 square(final Fp12 a) {
+    // c0 = (a0 + a1)(a0 + a1 v) - a0 a1 - a0 a1 v, c1 = 2 a0 a1
+    v0.multiply(a.c0, a.c1);
+    s.add(a.c0, a.c1);
+    v1.multiplyByNonResidue(a.c1).add(v1, a.c0);
+    s.multiply(s, v1).subtract(s, v0);
+    c1.add(v0, v0);
+    c0.subtract(s, v1.multiplyByNonResidue(v0));
+    return this;
+  }
+
+  /**
+   * Multiply by a line function, which is sparse: l0 + (l1 + l2 v) w.
+   *
+   * @param l0 the constant coefficient
+   * @param l1 the coefficient of w
+   * @param l2 the coefficient of v w
+   * @return this element
+   */
+  Fp12 multiplyByLine(final Fp2 l0, final Fp2 l1, final Fp2 l2) {
+    v0.multiply(c0, l0);
+    v1.multiplyBy01(c1, l1, l2);
+    s.add(c0, c1).multiplyBy01(s, t.add(l0, l1), l2);
+    c1.subtract(s, v0).subtract(c1, v1);
+    c0.multiplyByNonResidue(v1).add(c0, v0);
+    return this;
+  }
+
+  /**
+   * Multiply by an element of the Fp6 subfield of the form l0 + l1 v, such as a vertical line.
+   *
+   * @param l0 the constant coefficient
+   * @param l1 the coefficient of v
+   * @return this element
+   */
+  Fp12 multiplyBy01(final Fp2 l0, final Fp2 l1) {
+    c0.multiplyBy01(c0, l0, l1);
+    c1.multiplyBy01(c1, l0, l1);
+    return this;
+  }
+
+  /** Raise to the power p^6, which is the inverse for unitary elements. */
+  Fp12 conjugate(final Fp12 a) {
+    c0.set(a.c0);
+    c1.negate(a.c1);
+    return this;
+  }
+
+  Fp12 inverse(final Fp12 a) {
+    // 1 / (a0 + a1 w) = (a0 - a1 w) / (a0^2 - a1^2 v)
+    v0.square(a.c0);
+    v1.square(a.c1);
+    v0.subtract(v0, s.multiplyByNonResidue(v1)).inverse(v0);
+    s.multiply(a.c1, v0);
+    c0.multiply(a.c0, v0);
+    c1.negate(s);
+    return this;
+  }
+
+  /** Raise to the power p. */
+  Fp12 frobenius(final Fp12 a) {
+    c0.c0.conjugate(a.c0.c0);
+    c0.c1.conjugate(a.c0.c1).multiply(c0.c1, FROBENIUS[2]);
+    c0.c2.conjugate(a.c0.c2).multiply(c0.c2, FROBENIUS[4]);
+    c1.c0.conjugate(a.c1.c0).multiply(c1.c0, FROBENIUS[1]);
+    c1.c1.conjugate(a.c1.c1).multiply(c1.c1, FROBENIUS[3]);
+    c1.c2.conjugate(a.c1.c2).multiply(c1.c2, FROBENIUS[5]);
+    return this;
+  }
+
+  /** Raise to the power p^2. */
+  Fp12 frobeniusSquared(final Fp12 a) {
+    c0.c0.set(a.c0.c0);
+    c0.c1.multiply(a.c0.c1, FROBENIUS_SQUARED[2]);
+    c0.c2.multiply(a.c0.c2, FROBENIUS_SQUARED[4]);
+    c1.c0.multiply(a.c1.c0, FROBENIUS_SQUARED[1]);
+    c1.c1.multiply(a.c1.c1, FROBENIUS_SQUARED[3]);
+    c1.c2.multiply(a.c1.c2, FROBENIUS_SQUARED[5]);
+    return this;
+  }
+
+  private static Fp2[] frobeniusCoefficients(final int n) {
+    final BigInteger exponent =
+        Fp.modulus().pow(n).subtract(BigInteger.ONE).divide(BigInteger.valueOf(6));
+    final Fp2[] coefficients = new Fp2[6];
+    for (int k = 0; k < coefficients.length; k++) {
+      coefficients[k] = new Fp2().power(NON_RESIDUE, exponent.multiply(BigInteger.valueOf(k)));
+    }
+    return coefficients;
+  }
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.crypto.altbn128;
+
+import java.math.BigInteger;
+
+/**
+ * Mutable element of the quadratic extension Fp[i] / (i^2 + 1), built on {@link Fp} limbs.
+ *
+ * <p>Operations overwrite this element with the result and return it. Operands may be this element
+ * itself, since every operation reads its operands into scratch limbs owned by the result before
+ * writing it.
+ */
+final class Fp2 {
+
+  final long[] c0 = Fp.create();
+  final long[] c1 = Fp.create();
+
+  private final long[] t0 = Fp.create();
+  private final long[] t1 = Fp.create();
+  private final long[] t2 = Fp.create();
+  private final long[] t3 = Fp.create();
+
+  static Fp2 create(final BigInteger real, final BigInteger imaginary) {
+    final Fp2 result = new Fp2();
+    Fp.copy(Fp.create(real), result.c0);
+    Fp.copy(Fp.create(imaginary), result.c1);
+    return result;
+  }
+
+  /**
+   * Decode an element encoded as its imaginary then its real part, as in the pairing precompile.
+   *
+   * @param src the encoded bytes
+   * @param offset the offset of the element in {@code src}
+   * @return false if either part is not smaller than the field modulus
+   */
+  boolean fromBytes(final byte[] src, final int offset) {
+    return Fp.fromBytes(src, offset, c1) && Fp.fromBytes(src, offset + Fp.BYTES, c0);
+  }
+
+  Fp2 set(final Fp2 a) {
+    Fp.copy(a.c0, c0);
+    Fp.copy(a.c1, c1);
+    return this;
+  }
+
+  Fp2 setZero() {
+    Fp.setZero(c0);
+    Fp.setZero(c1);
+    return this;
+  }
+
+  Fp2 setOne() {
+    Fp.setOne(c0);
+    Fp.setZero(c1);
+    return this;
+  }
+
+  boolean isZero() {
+    return Fp.isZero(c0) && Fp.isZero(c1);
+  }
+
+  boolean isOne() {
+    return Fp.isOne(c0) && Fp.isZero(c1);
+  }
+
+  boolean isEqualTo(final Fp2 a) {
+    return Fp.equal(c0, a.c0) && Fp.equal(c1, a.c1);
+  }
+
+  Fp2 add(final Fp2 a, final Fp2 b) {
+    Fp.add(a.c0, b.c0, c0);
+    Fp.add(a.c1, b.c1, c1);
+    return this;
+  }
+
+  Fp2 subtract(final Fp2 a, final Fp2 b) {
+    Fp.subtract(a.c0, b.c0, c0);
+    Fp.subtract(a.c1, b.c1, c1);
+    return this;
+  }
+
+  Fp2 negate(final Fp2 a) {
+    Fp.negate(a.c0, c0);
+    Fp.negate(a.c1, c1);
+    return this;
+  }
+
+  Fp2 conjugate(final Fp2 a) {
+    Fp.copy(a.c0, c0);
+    Fp.negate(a.c1, c1);
+    return this;
+  }
+
+  Fp2 multiply(final Fp2 a, final Fp2 b) {
+    // Karatsuba: three base field multiplications instead of four
+    Fp.multiply(a.c0, b.c0, t0);
+    Fp.multiply(a.c1, b.c1, t1);
+    Fp.add(a.c0, a.c1, t2);
+    Fp.add(b.c0, b.c1, t3);
+    Fp.multiply(t2, t3, t2);
+    Fp.subtract(t0, t1, c0);
+    Fp.subtract(t2, t0, t2);
+    Fp.subtract(t2, t1, c1);
+    return this;
+  }
+
+  Fp2 multiply(final Fp2 a, final long[] b) {
+    Fp.multiply(a.c0, b, c0);
+    Fp.multiply(a.c1, b, c1);
+    return this;
+  }
+
+  Fp2 square(final Fp2 a) {
+    // (a0 + a1 i)^2 = (a0 + a1)(a0 - a1) + 2 a0 a1 i
+    Fp.add(a.c0, a.c1, t0);
+    Fp.subtract(a.c0, a.c1, t1);
+    Fp.multiply(a.c0, a.c1, t2);
+    Fp.multiply(t0, t1, c0);
+    Fp.add(t2, t2, c1);
+    return this;
+  }
+
+  /** Multiply by the non-residue 9 + i used to build the higher extensions. */
+  Fp2 multiplyByNonResidue(final Fp2 a) {
+    nine(a.c0, t0);
+    nine(a.c1, t1);
+    Fp.add(a.c0, t1, t2);
+    Fp.subtract(t0, a.c1, c0);
+    Fp.copy(t2, c1);
+    return this;
+  }
+
+  Fp2 inverse(final Fp2 a) {
+    // 1 / (a0 + a1 i) = (a0 - a1 i) / (a0^2 + a1^2)
+    Fp.square(a.c0, t0);
+    Fp.square(a.c1, t1);
+    Fp.add(t0, t1, t0);
+    Fp.inverse(t0, t0);
+    Fp.negate(a.c1, t1);
+    Fp.multiply(a.c0, t0, c0);
+    Fp.multiply(t1, t0, c1);
+    return this;
+  }
+
+  Fp2 power(final Fp2 a, final BigInteger exponent) {
+    final Fp2 base = new Fp2().set(a);
+    setOne();
+    for (int i = exponent.bitLength() - 1; i >= 0; i--) {
+      square(this);
+      if (exponent.testBit(i)) {
+        multiply(this, base);
+      }
+    }
+    return this;
+  }
+
+  private static void nine(final long[] a, final long[] out) {
+    Fp.add(a, a, out);
+    Fp.add(out, out, out);
+    Fp.add(out, out, out);
+    Fp.add(out, a, out);
+  }
+}
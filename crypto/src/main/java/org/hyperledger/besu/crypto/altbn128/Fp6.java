@@ -0,0 +1,171 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.crypto.altbn128;
+
+/**
+ * Mutable element of the cubic extension Fp2[v] / (v^3 - (9 + i)), with the same aliasing rules as
+ * {@link Fp2}.
+ */
+final class Fp6 {
+
+  final Fp2 c0 = new Fp2();
+  final Fp2 c1 = new Fp2();
+  final Fp2 c2 = new Fp2();
+
+  private final Fp2 v0 = new Fp2();
+  private final Fp2 v1 = new Fp2();
+  private final Fp2 v2 = new Fp2();
+  private final Fp2 s = new Fp2();
+  private final Fp2 u = new Fp2();
+  private final Fp2 r0 = new Fp2();
+  private final Fp2 r1 = new Fp2();
+
+  Fp6 set(final Fp6 a) {
+    c0.set(a.c0);
+    c1.set(a.c1);
+    c2.set(a.c2);
+    return this;
+  }
+
+  Fp6 setZero() {
+    c0.setZero();
+    c1.setZero();
+    c2.setZero();
+    return this;
+  }
+
+  Fp6 setOne() {
+    c0.setOne();
+    c1.setZero();
+    c2.setZero();
+    return this;
+  }
+
+  boolean isZero() {
+    return c0.isZero() && c1.isZero() && c2.isZero();
+  }
+
+  boolean isOne() {
+    return c0.isOne() && c1.isZero() && c2.isZero();
+  }
+
+  Fp6 add(final Fp6 a, final Fp6 b) {
+    c0.add(a.c0, b.c0);
+    c1.add(a.c1, b.c1);
+    c2.add(a.c2, b.c2);
+    return this;
+  }
+
+  Fp6 subtract(final Fp6 a, final Fp6 b) {
+    c0.subtract(a.c0, b.c0);
+    c1.subtract(a.c1, b.c1);
+    c2.subtract(a.c2, b.c2);
+    return this;
+  }
+
+  Fp6 negate(final Fp6 a) {
+    c0.negate(a.c0);
+    c1.negate(a.c1);
+    c2.negate(a.c2);
+    return this;
+  }
+
+  Fp6 multiply(final Fp6 a, final Fp6 b) {
+    // Karatsuba: six Fp2 multiplications instead of nine
+    v0.multiply(a.c0, b.c0);
+    v1.multiply(a.c1, b.c1);
+    v2.multiply(a.c2, b.c2);
+
+    // c0 = v0 + ((a1 + a2)(b1 + b2) - v1 - v2) * (9 + i)
+    s.add(a.c1, a.c2);
+    u.add(b.c1, b.c2);
+    r0.multiply(s, u).subtract(r0, v1).subtract(r0, v2).multiplyByNonResidue(r0).add(r0, v0);
+
+    // c1 = (a0 + a1)(b0 + b1) - v0 - v1 + v2 * (9 + i)
+    s.add(a.c0, a.c1);
+    u.add(b.c0, b.c1);
+    r1.multiply(s, u).subtract(r1, v0).subtract(r1, v1);
+    r1.add(r1, s.multiplyByNonResidue(v2));
+
+    // c2 = (a0 + a2)(b0 + b2) - v0 - v2 + v1
+    s.add(a.c0, a.c2);
+    u.add(b.c0, b.c2);
+    c2.multiply(s, u).subtract(c2, v0).subtract(c2, v2).add(c2, v1);
+    c0.set(r0);
+    c1.set(r1);
+    return this;
+  }
+
+  Fp6 square(final Fp6 a) {
+    return multiply(a, a);
+  }
+
+  Fp6 multiply(final Fp6 a, final Fp2 b) {
+    c0.multiply(a.c0, b);
+    c1.multiply(a.c1, b);
+    c2.multiply(a.c2, b);
+    return this;
+  }
+
+  /** Multiply by the sparse element b0 + b1 v, as found in line functions. */
+  Fp6 multiplyBy01(final Fp6 a, final Fp2 b0, final Fp2 b1) {
+    // c0 = a0 b0 + a2 b1 (9 + i)
+    v0.multiply(a.c0, b0);
+    r0.multiply(a.c2, b1).multiplyByNonResidue(r0).add(r0, v0);
+    // c1 = a0 b1 + a1 b0
+    v0.multiply(a.c0, b1);
+    r1.multiply(a.c1, b0).add(r1, v0);
+    // c2 = a1 b1 + a2 b0
+    v0.multiply(a.c1, b1);
+    c2.multiply(a.c2, b0).add(c2, v0);
+    c0.set(r0);
+    c1.set(r1);
+    return this;
+  }
+
+  /** Multiply by v, whose cube is the non-residue 9 + i. */
+  Fp6 multiplyByNonResidue(final Fp6 a) {
+    s.multiplyByNonResidue(a.c2);
+    c2.set(a.c1);
+    c1.set(a.c0);
+    c0.set(s);
+    return this;
+  }
+
+  Fp6 inverse(final Fp6 a) {
+    // r0 = a0^2 - a1 a2 (9 + i)
+    r0.square(a.c0);
+    s.multiply(a.c1, a.c2).multiplyByNonResidue(s);
+    r0.subtract(r0, s);
+    // r1 = a2^2 (9 + i) - a0 a1
+    r1.square(a.c2).multiplyByNonResidue(r1);
+    s.multiply(a.c0, a.c1);
+    r1.subtract(r1, s);
+    // v2 = a1^2 - a0 a2
+    v2.square(a.c1);
+    s.multiply(a.c0, a.c2);
+    v2.subtract(v2, s);
+    // s = 1 / (a0 r0 + (a2 r1 + a1 v2) (9 + i))
+    s.multiply(a.c2, r1);
+    u.multiply(a.c1, v2);
+    s.add(s, u).multiplyByNonResidue(s);
+    u.multiply(a.c0, r0);
+    s.add(s, u).inverse(s);
+    c0.multiply(r0, s);
+    c1.multiply(r1, s);
+    c2.multiply(v2, s);
+    return this;
+  }
+}
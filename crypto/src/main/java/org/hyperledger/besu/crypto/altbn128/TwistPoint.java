@@ -0,0 +1,143 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.crypto.altbn128;
+
+import java.math.BigInteger;
+
+/**
+ * Mutable point on the sextic twist y^2 = x^3 + 3 / (9 + i) in homogeneous projective coordinates.
+ *
+ * <p>The doubling and addition steps also compute the line through the points involved, evaluated
+ * up to a factor in Fp2 that the final exponentiation of the pairing cancels. For a point P of G1,
+ * the line is {@code a yP + b xP w + c v w}.
+ */
+final class TwistPoint {
+
+  private static final long[] THREE = Fp.create(BigInteger.valueOf(3));
+
+  static final Fp2 B = new Fp2().inverse(Fp2.create(BigInteger.valueOf(9), BigInteger.ONE));
+
+  static {
+    B.multiply(B, THREE);
+  }
+
+  private static final Fp2 THREE_B = new Fp2().multiply(B, THREE);
+  private static final long[] TWO_INVERSE = Fp.create(BigInteger.TWO.modInverse(Fp.modulus()));
+
+  final Fp2 x = new Fp2();
+  final Fp2 y = new Fp2();
+  final Fp2 z = new Fp2();
+
+  private final Fp2 a = new Fp2();
+  private final Fp2 b = new Fp2();
+  private final Fp2 c = new Fp2();
+  private final Fp2 d = new Fp2();
+  private final Fp2 e = new Fp2();
+  private final Fp2 f = new Fp2();
+  private final Fp2 g = new Fp2();
+  private final Fp2 h = new Fp2();
+
+  TwistPoint setAffine(final Fp2 x, final Fp2 y) {
+    this.x.set(x);
+    this.y.set(y);
+    this.z.setOne();
+    return this;
+  }
+
+  boolean isInfinity() {
+    return z.isZero();
+  }
+
+  /**
+   * Check whether an affine point satisfies the curve equation. The point at infinity, encoded as
+   * (0, 0), does not.
+   */
+  static boolean isOnCurve(final Fp2 x, final Fp2 y) {
+    final Fp2 rhs = new Fp2().square(x);
+    rhs.multiply(rhs, x).add(rhs, B);
+    return new Fp2().square(y).isEqualTo(rhs);
+  }
+
+  /**
+   * Double this point.
+   *
+   * @param la set to the coefficient of yP in the tangent line
+   * @param lb set to the coefficient of xP w in the tangent line
+   * @param lc set to the coefficient of v w in the tangent line
+   */
+  void doubleStep(final Fp2 la, final Fp2 lb, final Fp2 lc) {
+    a.multiply(x, y).multiply(a, TWO_INVERSE);
+    b.square(y);
+    c.square(z);
+    e.multiply(c, THREE_B);
+    f.add(e, e).add(f, e);
+    g.add(b, f).multiply(g, TWO_INVERSE);
+    h.add(y, z).square(h).subtract(h, b).subtract(h, c);
+
+    la.negate(h);
+    d.square(x);
+    lb.add(d, d).add(lb, d);
+    lc.subtract(e, b);
+
+    x.subtract(b, f).multiply(x, a);
+    c.square(e);
+    y.square(g).subtract(y, c).subtract(y, c).subtract(y, c);
+    z.multiply(b, h);
+  }
+
+  /**
+   * Add an affine point to this point.
+   *
+   * @param qx the x coordinate of the point to add
+   * @param qy the y coordinate of the point to add
+   * @param la set to the coefficient of yP in the line through both points
+   * @param lb set to the coefficient of xP w in the line through both points
+   * @param lc set to the coefficient of v w in the line through both points
+   * @return false if the line is vertical, in which case the coefficients are left unchanged
+   */
+  boolean addStep(final Fp2 qx, final Fp2 qy, final Fp2 la, final Fp2 lb, final Fp2 lc) {
+    if (isInfinity()) {
+      setAffine(qx, qy);
+      return false;
+    }
+    // theta = Y - qy Z, lambda = X - qx Z
+    final Fp2 theta = a.multiply(qy, z).subtract(y, a);
+    final Fp2 lambda = b.multiply(qx, z).subtract(x, b);
+    if (lambda.isZero()) {
+      if (theta.isZero()) {
+        doubleStep(la, lb, lc);
+        return true;
+      }
+      z.setZero();
+      return false;
+    }
+
+    la.set(lambda);
+    lb.negate(theta);
+    lc.multiply(theta, qx).subtract(lc, c.multiply(lambda, qy));
+
+    c.square(theta);
+    d.square(lambda);
+    e.multiply(lambda, d);
+    f.multiply(z, c);
+    g.multiply(x, d);
+    h.add(e, f).subtract(h, g).subtract(h, g);
+    x.multiply(lambda, h);
+    g.subtract(g, h).multiply(g, theta);
+    y.multiply(y, e).subtract(g, y);
+    z.multiply(z, e);
+    return true;
+  }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.crypto.altbn128;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+import org.junit.Test;
+
+public class AltBn128G1Test {
+
+  private static final BigInteger CURVE_ORDER =
+      new BigInteger(
+          "21888242871839275222246405745257275088548364400416034343698204186575808495617");
+
+  private final Random random = new Random(1);
+
+  @Test
+  public void shouldAddLikeAffineImplementation() {
+    for (int i = 0; i < 20; i++) {
+      final AltBn128Point p = randomPoint();
+      final AltBn128Point q = randomPoint();
+      assertThat(AltBn128G1.add(Bytes.concatenate(encode(p), encode(q))))
+          .contains(encode(p.add(q)));
+    }
+  }
+
+  @Test
+  public void shouldAddSpecialCases() {
+    final AltBn128Point p = randomPoint();
+    final Bytes infinity = encode(AltBn128Point.INFINITY);
+
+    assertThat(AltBn128G1.add(Bytes.concatenate(encode(p), encode(p)))).contains(encode(p.doub()));
+    assertThat(AltBn128G1.add(Bytes.concatenate(encode(p), encode(p.negate())))).contains(infinity);
+    assertThat(AltBn128G1.add(Bytes.concatenate(encode(p), infinity))).contains(encode(p));
+    assertThat(AltBn128G1.add(Bytes.concatenate(infinity, encode(p)))).contains(encode(p));
+    assertThat(AltBn128G1.add(Bytes.concatenate(infinity, infinity))).contains(infinity);
+  }
+
+  @Test
+  public void shouldMultiplyLikeAffineImplementation() {
+    for (int i = 0; i < 10; i++) {
+      final AltBn128Point p = randomPoint();
+      final BigInteger n = new BigInteger(256, random);
+      assertThat(AltBn128G1.multiply(Bytes.concatenate(encode(p), Bytes32.leftPad(bytes(n)))))
+          .contains(encode(p.multiply(n)));
+    }
+  }
+
+  @Test
+  public void shouldMultiplySpecialCases() {
+    final AltBn128Point p = randomPoint();
+    final Bytes infinity = encode(AltBn128Point.INFINITY);
+
+    assertThat(AltBn128G1.multiply(Bytes.concatenate(encode(p), Bytes32.ZERO))).contains(infinity);
+    assertThat(AltBn128G1.multiply(Bytes.concatenate(encode(p), scalar(CURVE_ORDER))))
+        .contains(infinity);
+    assertThat(
+            AltBn128G1.multiply(
+                Bytes.concatenate(encode(p), scalar(CURVE_ORDER.add(BigInteger.ONE)))))
+        .contains(encode(p));
+    assertThat(AltBn128G1.multiply(Bytes.concatenate(infinity, scalar(BigInteger.TEN))))
+        .contains(infinity);
+  }
+
+  @Test
+  public void shouldRejectPointsNotOnCurve() {
+    final Bytes p = encode(randomPoint());
+    final Bytes notOnCurve =
+        Bytes.concatenate(Bytes32.leftPad(Bytes.of(1)), Bytes32.leftPad(Bytes.of(3)));
+    final Bytes coordinateTooLarge =
+        Bytes.concatenate(
+            Bytes32.leftPad(bytes(FieldElement.FIELD_MODULUS.add(BigInteger.ONE))),
+            Bytes32.leftPad(Bytes.of(2)));
+
+    assertThat(AltBn128G1.add(Bytes.concatenate(p, notOnCurve))).isEmpty();
+    assertThat(AltBn128G1.add(Bytes.concatenate(coordinateTooLarge, p))).isEmpty();
+    assertThat(AltBn128G1.multiply(Bytes.concatenate(notOnCurve, Bytes32.ZERO))).isEmpty();
+    assertThat(AltBn128G1.multiply(Bytes.concatenate(coordinateTooLarge, Bytes32.ZERO))).isEmpty();
+  }
+
+  private AltBn128Point randomPoint() {
+    return AltBn128Point.g1().multiply(new BigInteger(254, random));
+  }
+
+  private static Bytes scalar(final BigInteger n) {
+    return Bytes32.leftPad(bytes(n));
+  }
+
+  private static Bytes bytes(final BigInteger n) {
+    return Bytes.wrap(n.toByteArray()).trimLeadingZeros();
+  }
+
+  static Bytes encode(final AltBn128Point p) {
+    return Bytes.concatenate(encode(p.getX()), encode(p.getY()));
+  }
+
+  static Bytes encode(final Fq n) {
+    // Negated elements are not reduced, adding zero does
+    return Bytes32.leftPad(n.add(Fq.zero()).toBytes());
+  }
+}
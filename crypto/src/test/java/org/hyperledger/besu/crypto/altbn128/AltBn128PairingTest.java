@@ -0,0 +1,111 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.crypto.altbn128;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hyperledger.besu.crypto.altbn128.AltBn128G1Test.encode;
+
+import java.math.BigInteger;
+import java.util.Optional;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+import org.junit.Test;
+
+public class AltBn128PairingTest {
+
+  private static final AltBn128Point G1 = AltBn128Point.g1();
+  private static final AltBn128Fq2Point G2 = AltBn128Fq2Point.g2();
+
+  @Test
+  public void shouldBeOneWhenNegatedPairsAreMultiplied() {
+    assertThat(check(pair(G1, G2), pair(G1.negate(), G2))).contains(true);
+    assertThat(check(pair(G1, G2), pair(G1, G2.negate()))).contains(true);
+  }
+
+  @Test
+  public void shouldBeNondegenerate() {
+    assertThat(check(pair(G1, G2))).contains(false);
+    assertThat(check(pair(G1, G2), pair(G1, G2))).contains(false);
+  }
+
+  @Test
+  public void shouldBeBilinear() {
+    final AltBn128Point p = G1.multiply(BigInteger.valueOf(2));
+    final AltBn128Fq2Point q = G2.multiply(BigInteger.valueOf(3));
+    final AltBn128Point product = G1.multiply(BigInteger.valueOf(6)).negate();
+
+    assertThat(check(pair(p, q), pair(product, G2))).contains(true);
+    assertThat(check(pair(p, q), pair(G1, G2), pair(product, G2))).contains(false);
+  }
+
+  @Test
+  public void shouldAgreeWithAffineImplementation() {
+    final AltBn128Point p = G1.multiply(BigInteger.valueOf(5));
+    final AltBn128Fq2Point q = G2.multiply(BigInteger.valueOf(7));
+    final Fq12 expected =
+        AltBn128Fq12Pairer.finalize(
+            AltBn128Fq12Pairer.pair(p, q).multiply(AltBn128Fq12Pairer.pair(G1, G2)));
+
+    assertThat(check(pair(p, q), pair(G1, G2))).contains(expected.equals(Fq12.one()));
+  }
+
+  @Test
+  public void shouldIgnorePairsWithPointAtInfinity() {
+    final Bytes g1Infinity = Bytes.wrap(new byte[64]);
+    final Bytes g2Infinity = Bytes.wrap(new byte[128]);
+
+    assertThat(check(Bytes.concatenate(g1Infinity, encodeG2(G2)))).contains(true);
+    assertThat(check(Bytes.concatenate(encode(G1), g2Infinity))).contains(true);
+    assertThat(check(pair(G1, G2), Bytes.concatenate(encode(G1), g2Infinity))).contains(false);
+  }
+
+  @Test
+  public void shouldGiveSameResultForCachedG2Points() {
+    final Bytes input = Bytes.concatenate(pair(G1, G2), pair(G1.negate(), G2));
+
+    assertThat(AltBn128Pairing.check(input)).contains(true);
+    assertThat(AltBn128Pairing.check(input)).contains(true);
+    assertThat(AltBn128Pairing.check(pair(G1, G2))).contains(false);
+  }
+
+  @Test
+  public void shouldRejectInvalidPoints() {
+    final Bytes g2NotOnCurve = Bytes.concatenate(encodeG2(G2).slice(0, 96), Bytes32.ZERO);
+    final Bytes g1NotOnCurve = Bytes.concatenate(Bytes32.leftPad(Bytes.of(1)), Bytes32.ZERO);
+    final Bytes coordinateTooLarge =
+        Bytes.concatenate(
+            Bytes32.leftPad(Bytes.wrap(FieldElement.FIELD_MODULUS.toByteArray())),
+            encodeG2(G2).slice(32, 96));
+
+    assertThat(check(Bytes.concatenate(encode(G1), g2NotOnCurve))).isEmpty();
+    assertThat(check(Bytes.concatenate(g1NotOnCurve, encodeG2(G2)))).isEmpty();
+    assertThat(check(Bytes.concatenate(encode(G1), coordinateTooLarge))).isEmpty();
+  }
+
+  private static Optional<Boolean> check(final Bytes... pairs) {
+    return AltBn128Pairing.check(Bytes.concatenate(pairs));
+  }
+
+  private static Bytes pair(final AltBn128Point p, final AltBn128Fq2Point q) {
+    return Bytes.concatenate(encode(p), encodeG2(q));
+  }
+
+  private static Bytes encodeG2(final AltBn128Fq2Point q) {
+    final Fq[] x = q.getX().getCoefficients();
+    final Fq[] y = q.getY().getCoefficients();
+    return Bytes.concatenate(encode(x[1]), encode(x[0]), encode(y[1]), encode(y[0]));
+  }
+}
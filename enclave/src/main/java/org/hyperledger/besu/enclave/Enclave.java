@@ -30,6 +30,7 @@ import org.hyperledger.besu.enclave.types.SendResponse;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -84,6 +85,23 @@ public class Enclave {
         (statusCode, body) -> handleJsonResponse(statusCode, body, ReceiveResponse.class));
   }
 
+  /**
+   * Fetch a payload without waiting for the enclave, so that several payloads can be fetched
+   * concurrently.
+   *
+   * @param enclaveKey the key of the payload
+   * @return the payload, or the {@link EnclaveClientException}, {@link EnclaveServerException} or
+   *     {@link EnclaveIOException} that {@link #receive(String)} would have thrown
+   */
+  public CompletableFuture<ReceiveResponse> receiveAsync(final String enclaveKey) {
+    final ReceiveRequest request = new ReceiveRequest(enclaveKey);
+    return postAsync(
+        ORION,
+        request,
+        "/receive",
+        (statusCode, body) -> handleJsonResponse(statusCode, body, ReceiveResponse.class));
+  }
+
   public ReceiveResponse receive(final String enclaveKey, final String to) {
     final ReceiveRequest request = new ReceiveRequest(enclaveKey, to);
     return post(
@@ -149,6 +167,22 @@ public class Enclave {
     return requestTransmitter.post(mediaType, bodyText, endpoint, responseBodyHandler);
   }
 
+  private <T> CompletableFuture<T> postAsync(
+      final String mediaType,
+      final Object content,
+      final String endpoint,
+      final ResponseBodyHandler<T> responseBodyHandler) {
+    final String bodyText;
+    try {
+      bodyText = objectMapper.writeValueAsString(content);
+    } catch (final JsonProcessingException e) {
+      return CompletableFuture.failedFuture(
+          new EnclaveClientException(400, "Unable to serialize request."));
+    }
+
+    return requestTransmitter.postAsync(mediaType, bodyText, endpoint, responseBodyHandler);
+  }
+
   private <T> T handleJsonResponse(
       final int statusCode, final byte[] body, final Class<T> responseType) {
 
@@ -33,6 +33,8 @@ public class EnclaveFactory {
 
   private final Vertx vertx;
   private static final int CONNECT_TIMEOUT = 1000;
+  // Payloads of a block are fetched concurrently over kept-alive connections
+  private static final int MAX_POOL_SIZE = 16;
   private static final boolean TRUST_CA = false;
 
   public EnclaveFactory(final Vertx vertx) {
@@ -58,6 +60,8 @@ public class EnclaveFactory {
     clientOptions.setDefaultHost(enclaveUri.getHost());
     clientOptions.setDefaultPort(enclaveUri.getPort());
     clientOptions.setConnectTimeout(CONNECT_TIMEOUT);
+    clientOptions.setKeepAlive(true);
+    clientOptions.setMaxPoolSize(MAX_POOL_SIZE);
     return clientOptions;
   }
 
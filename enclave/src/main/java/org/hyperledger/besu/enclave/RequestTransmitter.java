@@ -14,6 +14,8 @@
  */
 package org.hyperledger.besu.enclave;
 
+import java.util.concurrent.CompletableFuture;
+
 public interface RequestTransmitter {
 
   @FunctionalInterface
@@ -27,5 +29,11 @@ public interface RequestTransmitter {
       String endpoint,
       ResponseBodyHandler<T> responseBodyHandler);
 
+  <T> CompletableFuture<T> postAsync(
+      String mediaType,
+      String content,
+      String endpoint,
+      ResponseBodyHandler<T> responseBodyHandler);
+
   <T> T get(String endpoint, ResponseBodyHandler<T> responseBodyHandler);
 }
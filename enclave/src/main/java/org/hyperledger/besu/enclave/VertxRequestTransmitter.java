@@ -43,6 +43,34 @@ public class VertxRequestTransmitter implements RequestTransmitter {
         HttpMethod.POST, Optional.of(contentType), Optional.of(content), endpoint, responseHandler);
   }
 
+  @Override
+  public <T> CompletableFuture<T> postAsync(
+      final String contentType,
+      final String content,
+      final String endpoint,
+      final ResponseBodyHandler<T> responseHandler) {
+    final CompletableFuture<T> result = new CompletableFuture<>();
+    sendRequestAsync(
+            HttpMethod.POST,
+            Optional.of(contentType),
+            Optional.of(content),
+            endpoint,
+            responseHandler)
+        .whenComplete(
+            (response, error) -> {
+              if (error == null) {
+                result.complete(response);
+              } else if (error instanceof EnclaveClientException
+                  || error instanceof EnclaveServerException) {
+                result.completeExceptionally(error);
+              } else {
+                result.completeExceptionally(
+                    new EnclaveIOException("Enclave Communication Failed", error));
+              }
+            });
+    return result;
+  }
+
   @Override
   public <T> T get(final String endpoint, final ResponseBodyHandler<T> responseHandler) {
     return sendRequest(
@@ -56,21 +84,7 @@ public class VertxRequestTransmitter implements RequestTransmitter {
       final String endpoint,
       final ResponseBodyHandler<T> responseHandler) {
     try {
-      final CompletableFuture<T> result = new CompletableFuture<>();
-      final HttpClientRequest request =
-          client
-              .request(method, endpoint)
-              .handler(response -> handleResponse(response, responseHandler, result))
-              .setTimeout(REQUEST_TIMEOUT_MS)
-              .exceptionHandler(result::completeExceptionally)
-              .setChunked(false);
-      contentType.ifPresent(ct -> request.putHeader(HttpHeaders.CONTENT_TYPE, ct));
-      if (content.isPresent()) {
-        request.end(content.get());
-      } else {
-        request.end();
-      }
-      return result.get();
+      return sendRequestAsync(method, contentType, content, endpoint, responseHandler).get();
     } catch (final ExecutionException | InterruptedException e) {
       if (e.getCause() instanceof EnclaveClientException) {
         throw (EnclaveClientException) e.getCause();
@@ -81,6 +95,29 @@ public class VertxRequestTransmitter implements RequestTransmitter {
     }
   }
 
+  protected <T> CompletableFuture<T> sendRequestAsync(
+      final HttpMethod method,
+      final Optional<String> contentType,
+      final Optional<String> content,
+      final String endpoint,
+      final ResponseBodyHandler<T> responseHandler) {
+    final CompletableFuture<T> result = new CompletableFuture<>();
+    final HttpClientRequest request =
+        client
+            .request(method, endpoint)
+            .handler(response -> handleResponse(response, responseHandler, result))
+            .setTimeout(REQUEST_TIMEOUT_MS)
+            .exceptionHandler(result::completeExceptionally)
+            .setChunked(false);
+    contentType.ifPresent(ct -> request.putHeader(HttpHeaders.CONTENT_TYPE, ct));
+    if (content.isPresent()) {
+      request.end(content.get());
+    } else {
+      request.end();
+    }
+    return result;
+  }
+
   private <T> void handleResponse(
       final HttpClientResponse response,
       final ResponseBodyHandler<T> responseHandler,
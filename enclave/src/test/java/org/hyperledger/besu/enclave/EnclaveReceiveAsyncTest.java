@@ -0,0 +1,138 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.enclave;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.hyperledger.besu.enclave.types.ReceiveResponse;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpServer;
+import io.vertx.core.http.HttpServerRequest;
+import io.vertx.core.json.JsonObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class EnclaveReceiveAsyncTest {
+  private static final int REQUESTS = 8;
+
+  private final Vertx vertx = Vertx.vertx();
+  private final List<Runnable> pendingResponses = new ArrayList<>();
+  private final AtomicInteger connections = new AtomicInteger();
+  private HttpServer httpServer;
+  private Enclave enclave;
+
+  @Before
+  public void setUp() throws Exception {
+    final CompletableFuture<HttpServer> listening = new CompletableFuture<>();
+    vertx
+        .createHttpServer()
+        .connectionHandler(connection -> connections.incrementAndGet())
+        .requestHandler(
+            request ->
+                request.bodyHandler(
+                    body -> {
+                      final String key = body.toJsonObject().getString("key");
+                      if (key.equals("unknown")) {
+                        request.response().setStatusCode(404).end("{\"error\":\"NotFound\"}");
+                        return;
+                      }
+                      // Only respond once every request is in flight, which cannot happen unless
+                      // they were sent concurrently.
+                      pendingResponses.add(() -> respond(request, key));
+                      if (pendingResponses.size() == REQUESTS) {
+                        pendingResponses.forEach(Runnable::run);
+                        pendingResponses.clear();
+                      }
+                    }))
+        .listen(
+            0,
+            result -> {
+              if (result.succeeded()) {
+                listening.complete(result.result());
+              } else {
+                listening.completeExceptionally(result.cause());
+              }
+            });
+    httpServer = listening.get(10, TimeUnit.SECONDS);
+    enclave =
+        new EnclaveFactory(vertx)
+            .createVertxEnclave(URI.create("http://localhost:" + httpServer.actualPort()));
+  }
+
+  @After
+  public void tearDown() {
+    vertx.close();
+  }
+
+  @Test
+  public void payloadsAreReceivedConcurrently() {
+    final List<CompletableFuture<ReceiveResponse>> responses = new ArrayList<>();
+    for (int i = 0; i < REQUESTS; i++) {
+      responses.add(enclave.receiveAsync("key" + i));
+    }
+
+    for (int i = 0; i < REQUESTS; i++) {
+      final ReceiveResponse response = responses.get(i).orTimeout(10, TimeUnit.SECONDS).join();
+      assertThat(new String(response.getPayload(), StandardCharsets.UTF_8))
+          .isEqualTo("payload-key" + i);
+    }
+  }
+
+  @Test
+  public void connectionsAreReused() {
+    for (int round = 0; round < 3; round++) {
+      final List<CompletableFuture<ReceiveResponse>> responses = new ArrayList<>();
+      for (int i = 0; i < REQUESTS; i++) {
+        responses.add(enclave.receiveAsync("key" + i));
+      }
+      responses.forEach(response -> response.orTimeout(10, TimeUnit.SECONDS).join());
+    }
+
+    assertThat(connections.get()).isLessThanOrEqualTo(REQUESTS);
+  }
+
+  @Test
+  public void failedReceiveCompletesExceptionally() {
+    assertThatThrownBy(() -> enclave.receiveAsync("unknown").orTimeout(10, TimeUnit.SECONDS).join())
+        .isInstanceOf(CompletionException.class)
+        .hasCauseInstanceOf(EnclaveClientException.class);
+  }
+
+  private static void respond(final HttpServerRequest request, final String key) {
+    final byte[] payload = ("payload-" + key).getBytes(StandardCharsets.UTF_8);
+    request
+        .response()
+        .putHeader("Content-Type", "application/json")
+        .end(
+            new JsonObject()
+                .put("payload", Base64.getEncoder().encodeToString(payload))
+                .put("privacyGroupId", "group")
+                .put("senderKey", "sender")
+                .encode());
+  }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.api.query;
+
+import org.hyperledger.besu.ethereum.core.Address;
+import org.hyperledger.besu.ethereum.core.Log;
+import org.hyperledger.besu.ethereum.core.LogTopic;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/** Matches the logs of a block against the logs subscriptions of many websocket clients. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class LogsQueryIndexBenchmark {
+
+  private static final int CONTRACTS = 2_000;
+  private static final int EVENTS = 16;
+
+  @Param({"10000"})
+  public int subscriptions;
+
+  @Param({"5000"})
+  public int logsPerBlock;
+
+  private final List<LogsQuery> queries = new ArrayList<>();
+  private final LogsQueryIndex<Integer> index = new LogsQueryIndex<>();
+  private final List<Log> logs = new ArrayList<>();
+
+  @Setup
+  public void prepare() {
+    final Random random = new Random(42);
+    for (int i = 0; i < subscriptions; i++) {
+      final LogsQuery query;
+      switch (random.nextInt(4)) {
+        case 0:
+          // Every event of a contract
+          query = new LogsQuery(List.of(contract(random)), Collections.emptyList());
+          break;
+        case 1:
+          // An event of any contract, such as ERC-20 transfers
+          query =
+              new LogsQuery(
+                  Collections.emptyList(), List.of(Collections.singletonList(event(random))));
+          break;
+        default:
+          // An event of a contract
+          query =
+              new LogsQuery(
+                  List.of(contract(random)), List.of(Collections.singletonList(event(random))));
+      }
+      queries.add(query);
+      index.put(i, query);
+    }
+    for (int i = 0; i < logsPerBlock; i++) {
+      logs.add(new Log(contract(random), Bytes.EMPTY, List.of(event(random), topic(i))));
+    }
+  }
+
+  @Benchmark
+  public int linearScan() {
+    int matches = 0;
+    for (final Log log : logs) {
+      for (final LogsQuery query : queries) {
+        if (query.matches(log)) {
+          matches++;
+        }
+      }
+    }
+    return matches;
+  }
+
+  @Benchmark
+  public int indexed() {
+    final int[] matches = new int[1];
+    for (final Log log : logs) {
+      index.forEachMatch(log, subscription -> matches[0]++);
+    }
+    return matches[0];
+  }
+
+  private static Address contract(final Random random) {
+    return Address.fromHexString(Integer.toHexString(random.nextInt(CONTRACTS) + 1));
+  }
+
+  private static LogTopic event(final Random random) {
+    return topic(random.nextInt(EVENTS) + 1_000_000);
+  }
+
+  private static LogTopic topic(final int value) {
+    return LogTopic.create(Bytes32.leftPad(Bytes.ofUnsignedInt(value)));
+  }
+}
@@ -28,7 +28,9 @@ import org.hyperledger.besu.ethereum.eth.transactions.TransactionPool;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import com.google.common.annotations.VisibleForTesting;
 import io.vertx.core.AbstractVerticle;
@@ -136,19 +138,29 @@ public class FilterManager extends AbstractVerticle {
           }
         });
 
-    checkBlockchainForMatchingLogsForFilters();
+    recordMatchingLogsForFilters(event.getLogsWithMetadata());
   }
 
-  private void checkBlockchainForMatchingLogsForFilters() {
-    final Collection<LogFilter> logFilters = filterRepository.getFiltersOfType(LogFilter.class);
-    logFilters.forEach(
-        (filter) -> {
-          final long headBlockNumber = blockchainQueries.headBlockNumber();
-          final long toBlockNumber =
-              filter.getToBlock().getNumber().orElse(blockchainQueries.headBlockNumber());
-          final List<LogWithMetadata> logs =
-              blockchainQueries.matchingLogs(headBlockNumber, toBlockNumber, filter.getLogsQuery());
-          filter.addLog(logs);
+  private void recordMatchingLogsForFilters(final List<LogWithMetadata> logs) {
+    // Log filters are looked up by log address and topics, and each gets its logs in one batch
+    final Map<LogFilter, List<LogWithMetadata>> matchingLogs = new LinkedHashMap<>();
+    for (final LogWithMetadata log : logs) {
+      if (log.isRemoved()) {
+        continue;
+      }
+      filterRepository.forEachLogFilterMatching(
+          log,
+          filter -> {
+            if (log.getBlockNumber() <= filter.getToBlock().getNumber().orElse(Long.MAX_VALUE)) {
+              matchingLogs.computeIfAbsent(filter, f -> new ArrayList<>()).add(log);
+            }
+          });
+    }
+    matchingLogs.forEach(
+        (filter, filterLogs) -> {
+          synchronized (filter) {
+            filter.addLog(filterLogs);
+          }
         });
   }
 
@@ -14,17 +14,22 @@
  */
 package org.hyperledger.besu.ethereum.api.jsonrpc.internal.filter;
 
+import org.hyperledger.besu.ethereum.api.query.LogsQueryIndex;
+import org.hyperledger.besu.ethereum.core.Log;
+
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 public class FilterRepository {
 
   private final Map<String, Filter> filters = new ConcurrentHashMap<>();
+  private final LogsQueryIndex<String> logFilters = new LogsQueryIndex<>();
 
   public FilterRepository() {}
 
@@ -57,6 +62,11 @@ public class FilterRepository {
     return Optional.of((T) filter);
   }
 
+  void forEachLogFilterMatching(final Log log, final Consumer<LogFilter> consumer) {
+    logFilters.forEachMatch(
+        log, filterId -> getFilter(filterId, LogFilter.class).ifPresent(consumer));
+  }
+
   boolean exists(final String id) {
     return filters.containsKey(id);
   }
@@ -72,13 +82,18 @@ public class FilterRepository {
     }
 
     filters.put(filter.getId(), filter);
+    if (filter instanceof LogFilter) {
+      logFilters.put(filter.getId(), ((LogFilter) filter).getLogsQuery());
+    }
   }
 
   void delete(final String id) {
     filters.remove(id);
+    logFilters.remove(id);
   }
 
   void deleteAll() {
     filters.clear();
+    logFilters.clear();
   }
 }
@@ -30,11 +30,13 @@ import com.google.common.collect.Iterables;
 import io.vertx.core.AsyncResult;
 import io.vertx.core.Handler;
 import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.MessageConsumer;
 import io.vertx.core.http.HttpServer;
 import io.vertx.core.http.HttpServerOptions;
 import io.vertx.core.http.HttpServerRequest;
 import io.vertx.core.http.HttpServerResponse;
 import io.vertx.core.http.ServerWebSocket;
+import io.vertx.core.json.JsonArray;
 import io.vertx.core.net.SocketAddress;
 import io.vertx.ext.web.Router;
 import io.vertx.ext.web.RoutingContext;
@@ -129,9 +131,18 @@ public class WebSocketService {
                         authenticationService, connectionId, payload, user));
           });
 
+      final MessageConsumer<JsonArray> batchConsumer =
+          vertx
+              .eventBus()
+              .localConsumer(
+                  SubscriptionManager.batchAddress(connectionId),
+                  message ->
+                      message.body().forEach(frame -> websocket.writeTextMessage((String) frame)));
+
       websocket.closeHandler(
           v -> {
             LOG.debug("Websocket Disconnected ({})", socketAddressAsString(socketAddress));
+            batchConsumer.unregister();
             vertx
                 .eventBus()
                 .publish(SubscriptionManager.EVENTBUS_REMOVE_SUBSCRIPTIONS_ADDRESS, connectionId);
@@ -15,15 +15,19 @@
 package org.hyperledger.besu.ethereum.api.jsonrpc.websocket.subscription;
 
 import org.hyperledger.besu.ethereum.api.jsonrpc.internal.results.JsonRpcResult;
+import org.hyperledger.besu.ethereum.api.jsonrpc.websocket.subscription.logs.LogsSubscription;
 import org.hyperledger.besu.ethereum.api.jsonrpc.websocket.subscription.request.SubscribeRequest;
 import org.hyperledger.besu.ethereum.api.jsonrpc.websocket.subscription.request.SubscriptionType;
 import org.hyperledger.besu.ethereum.api.jsonrpc.websocket.subscription.request.UnsubscribeRequest;
 import org.hyperledger.besu.ethereum.api.jsonrpc.websocket.subscription.response.SubscriptionResponse;
+import org.hyperledger.besu.ethereum.api.query.LogsQueryIndex;
+import org.hyperledger.besu.ethereum.core.Log;
 import org.hyperledger.besu.metrics.BesuMetricCategory;
 import org.hyperledger.besu.plugin.services.MetricsSystem;
 import org.hyperledger.besu.plugin.services.metrics.Counter;
 import org.hyperledger.besu.plugin.services.metrics.LabelledMetric;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -34,6 +38,7 @@ import java.util.stream.Collectors;
 import io.vertx.core.AbstractVerticle;
 import io.vertx.core.eventbus.Message;
 import io.vertx.core.json.Json;
+import io.vertx.core.json.JsonArray;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -47,9 +52,11 @@ public class SubscriptionManager extends AbstractVerticle {
 
   public static final String EVENTBUS_REMOVE_SUBSCRIPTIONS_ADDRESS =
       "SubscriptionManager::removeSubscriptions";
+  private static final String EVENTBUS_BATCH_ADDRESS_SUFFIX = "::batch";
 
   private final AtomicLong subscriptionCounter = new AtomicLong(0);
   private final Map<Long, Subscription> subscriptions = new ConcurrentHashMap<>();
+  private final LogsQueryIndex<Long> logsSubscriptions = new LogsQueryIndex<>();
   private final SubscriptionBuilder subscriptionBuilder = new SubscriptionBuilder();
   private final LabelledMetric<Counter> subscribeCounter;
   private final LabelledMetric<Counter> unsubscribeCounter;
@@ -82,6 +89,10 @@ public class SubscriptionManager extends AbstractVerticle {
     final Subscription subscription =
         subscriptionBuilder.build(subscriptionId, request.getConnectionId(), request);
     subscriptions.put(subscription.getSubscriptionId(), subscription);
+    if (subscription instanceof LogsSubscription) {
+      logsSubscriptions.put(
+          subscription.getSubscriptionId(), ((LogsSubscription) subscription).getLogsQuery());
+    }
 
     return subscription.getSubscriptionId();
   }
@@ -104,6 +115,7 @@ public class SubscriptionManager extends AbstractVerticle {
 
   private void destroySubscription(final long subscriptionId) {
     final Subscription removed = subscriptions.remove(subscriptionId);
+    logsSubscriptions.remove(subscriptionId);
     if (removed != null) {
       unsubscribeCounter.labels(removed.getSubscriptionType().getCode()).inc();
     }
@@ -133,6 +145,26 @@ public class SubscriptionManager extends AbstractVerticle {
         .collect(Collectors.toList());
   }
 
+  /**
+   * Returns the logs subscriptions matching a log, looking them up by the log address and topics
+   * rather than testing every logs subscription.
+   *
+   * @param log the log to match
+   * @return the matching logs subscriptions
+   */
+  public List<LogsSubscription> logsSubscriptionsMatching(final Log log) {
+    final List<LogsSubscription> matching = new ArrayList<>();
+    logsSubscriptions.forEachMatch(
+        log,
+        subscriptionId -> {
+          final Subscription subscription = subscriptions.get(subscriptionId);
+          if (subscription != null) {
+            matching.add((LogsSubscription) subscription);
+          }
+        });
+    return matching;
+  }
+
   public void sendMessage(final Long subscriptionId, final JsonRpcResult msg) {
     final SubscriptionResponse response = new SubscriptionResponse(subscriptionId, msg);
 
@@ -142,6 +174,33 @@ public class SubscriptionManager extends AbstractVerticle {
     }
   }
 
+  /**
+   * Sends several notifications to a connection with a single event bus message.
+   *
+   * @param connectionId the connection to send the notifications to
+   * @param responses the notifications, in the order they are to be delivered
+   */
+  public void sendMessages(final String connectionId, final List<SubscriptionResponse> responses) {
+    if (responses.size() == 1) {
+      vertx.eventBus().send(connectionId, Json.encode(responses.get(0)));
+    } else if (!responses.isEmpty()) {
+      final JsonArray frames = new JsonArray();
+      responses.forEach(response -> frames.add(Json.encode(response)));
+      vertx.eventBus().send(batchAddress(connectionId), frames);
+    }
+  }
+
+  /**
+   * Returns the event bus address on which batches of notifications are sent to a connection, as a
+   * {@link JsonArray} of encoded messages to write in order.
+   *
+   * @param connectionId the connection
+   * @return the event bus address of the connection batches
+   */
+  public static String batchAddress(final String connectionId) {
+    return connectionId + EVENTBUS_BATCH_ADDRESS_SUFFIX;
+  }
+
   public <T> void notifySubscribersOnWorkerThread(
       final SubscriptionType subscriptionType,
       final Class<T> clazz,
@@ -16,12 +16,24 @@ package org.hyperledger.besu.ethereum.api.jsonrpc.websocket.subscription.logs;
 
 import org.hyperledger.besu.ethereum.api.jsonrpc.internal.results.LogResult;
 import org.hyperledger.besu.ethereum.api.jsonrpc.websocket.subscription.SubscriptionManager;
-import org.hyperledger.besu.ethereum.api.jsonrpc.websocket.subscription.request.SubscriptionType;
+import org.hyperledger.besu.ethereum.api.jsonrpc.websocket.subscription.response.SubscriptionResponse;
+import org.hyperledger.besu.ethereum.chain.BlockAddedEvent;
+import org.hyperledger.besu.ethereum.chain.BlockAddedObserver;
+import org.hyperledger.besu.ethereum.chain.Blockchain;
 import org.hyperledger.besu.ethereum.core.LogWithMetadata;
 
-import java.util.function.Consumer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
-public class LogsSubscriptionService implements Consumer<LogWithMetadata> {
+/**
+ * Notifies logs subscriptions of the logs added and removed by each new block.
+ *
+ * <p>Matching subscriptions are looked up by log address and topics, and the notifications of a
+ * block are sent to each connection as a single batch.
+ */
+public class LogsSubscriptionService implements BlockAddedObserver {
 
   private final SubscriptionManager subscriptionManager;
 
@@ -30,12 +42,21 @@ public class LogsSubscriptionService implements Consumer<LogWithMetadata> {
   }
 
   @Override
-  public void accept(final LogWithMetadata logWithMetadata) {
-    subscriptionManager.subscriptionsOfType(SubscriptionType.LOGS, LogsSubscription.class).stream()
-        .filter(logsSubscription -> logsSubscription.getLogsQuery().matches(logWithMetadata))
-        .forEach(
-            logsSubscription ->
-                subscriptionManager.sendMessage(
-                    logsSubscription.getSubscriptionId(), new LogResult(logWithMetadata)));
+  public void onBlockAdded(final BlockAddedEvent event, final Blockchain blockchain) {
+    final Map<String, List<SubscriptionResponse>> responsesByConnection = new LinkedHashMap<>();
+    for (final LogWithMetadata log : event.getLogsWithMetadata()) {
+      final List<LogsSubscription> subscriptions =
+          subscriptionManager.logsSubscriptionsMatching(log);
+      if (subscriptions.isEmpty()) {
+        continue;
+      }
+      final LogResult result = new LogResult(log);
+      for (final LogsSubscription subscription : subscriptions) {
+        responsesByConnection
+            .computeIfAbsent(subscription.getConnectionId(), id -> new ArrayList<>())
+            .add(new SubscriptionResponse(subscription.getSubscriptionId(), result));
+      }
+    }
+    responsesByConnection.forEach(subscriptionManager::sendMessages);
   }
 }
@@ -30,7 +30,6 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
 import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonFormat;
@@ -89,15 +88,28 @@ public class LogsQuery {
     return matchesAddresses(log.getLogger()) && matchesTopics(log.getTopics());
   }
 
+  List<Address> getAddresses() {
+    return addresses;
+  }
+
+  List<List<LogTopic>> getTopics() {
+    return topics;
+  }
+
   private boolean matchesAddresses(final Address address) {
     return addresses.isEmpty() || addresses.contains(address);
   }
 
   private boolean matchesTopics(final List<LogTopic> topics) {
-    return this.topics.isEmpty()
-        || (topics.size() >= this.topics.size()
-            && IntStream.range(0, this.topics.size())
-                .allMatch(i -> matchesTopic(topics.get(i), this.topics.get(i))));
+    if (topics.size() < this.topics.size()) {
+      return false;
+    }
+    for (int i = 0; i < this.topics.size(); i++) {
+      if (!matchesTopic(topics.get(i), this.topics.get(i))) {
+        return false;
+      }
+    }
+    return true;
   }
 
   private boolean matchesTopic(final LogTopic topic, final List<LogTopic> matchCriteria) {
@@ -0,0 +1,167 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.api.query;
+
+import org.hyperledger.besu.ethereum.core.Address;
+import org.hyperledger.besu.ethereum.core.Log;
+import org.hyperledger.besu.ethereum.core.LogTopic;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * An inverted index of {@link LogsQuery}s by the addresses and topics they match, so that a log
+ * only visits the queries that can match it instead of every registered query.
+ *
+ * <p>A query is indexed under its addresses if it has any, otherwise under the topics of its first
+ * topic position without a wildcard. Queries matching any address and any topic are kept aside and
+ * checked against every log. Each query is thus reached at most once per log, and candidates are
+ * confirmed with {@link LogsQuery#matches(Log)}.
+ *
+ * <p>Lookups may run concurrently with updates.
+ *
+ * @param <K> the type of the keys the queries are registered under
+ */
+public class LogsQueryIndex<K> {
+
+  private final Map<K, LogsQuery> queries = new ConcurrentHashMap<>();
+  private final Map<Address, Map<K, LogsQuery>> byAddress = new ConcurrentHashMap<>();
+  private final Map<Integer, Map<LogTopic, Map<K, LogsQuery>>> byTopic = new ConcurrentHashMap<>();
+  private final Map<K, LogsQuery> unindexed = new ConcurrentHashMap<>();
+
+  /**
+   * Registers a query, replacing any query previously registered under the same key.
+   *
+   * @param key the key to register the query under
+   * @param query the query
+   */
+  public synchronized void put(final K key, final LogsQuery query) {
+    remove(key);
+    queries.put(key, query);
+    if (!query.getAddresses().isEmpty()) {
+      query.getAddresses().stream()
+          .filter(Objects::nonNull)
+          .forEach(address -> add(byAddress, address, key, query));
+      return;
+    }
+    final int position = indexedTopicPosition(query);
+    if (position < 0) {
+      unindexed.put(key, query);
+      return;
+    }
+    final Map<LogTopic, Map<K, LogsQuery>> topics =
+        byTopic.computeIfAbsent(position, p -> new ConcurrentHashMap<>());
+    query.getTopics().get(position).forEach(topic -> add(topics, topic, key, query));
+  }
+
+  /**
+   * Unregisters the query registered under the given key, if any.
+   *
+   * @param key the key the query was registered under
+   */
+  public synchronized void remove(final K key) {
+    final LogsQuery query = queries.remove(key);
+    if (query == null) {
+      return;
+    }
+    if (!query.getAddresses().isEmpty()) {
+      query.getAddresses().stream()
+          .filter(Objects::nonNull)
+          .forEach(address -> remove(byAddress, address, key));
+      return;
+    }
+    final int position = indexedTopicPosition(query);
+    if (position < 0) {
+      unindexed.remove(key);
+      return;
+    }
+    final Map<LogTopic, Map<K, LogsQuery>> topics = byTopic.get(position);
+    query.getTopics().get(position).forEach(topic -> remove(topics, topic, key));
+  }
+
+  /** Unregisters all queries. */
+  public synchronized void clear() {
+    queries.clear();
+    byAddress.clear();
+    byTopic.clear();
+    unindexed.clear();
+  }
+
+  public int size() {
+    return queries.size();
+  }
+
+  /**
+   * Passes the key of every query matching the given log to the given consumer.
+   *
+   * @param log the log to match
+   * @param consumer the consumer of the matching keys
+   */
+  public void forEachMatch(final Log log, final Consumer<? super K> consumer) {
+    final BiConsumer<K, LogsQuery> matching =
+        (key, query) -> {
+          if (query.matches(log)) {
+            consumer.accept(key);
+          }
+        };
+
+    final Map<K, LogsQuery> addressMatches = byAddress.get(log.getLogger());
+    if (addressMatches != null) {
+      addressMatches.forEach(matching);
+    }
+    final List<LogTopic> topics = log.getTopics();
+    for (int i = 0; i < topics.size(); i++) {
+      final Map<LogTopic, Map<K, LogsQuery>> topicIndex = byTopic.get(i);
+      if (topicIndex != null) {
+        final Map<K, LogsQuery> topicMatches = topicIndex.get(topics.get(i));
+        if (topicMatches != null) {
+          topicMatches.forEach(matching);
+        }
+      }
+    }
+    unindexed.forEach(matching);
+  }
+
+  private static int indexedTopicPosition(final LogsQuery query) {
+    final List<List<LogTopic>> topics = query.getTopics();
+    for (int i = 0; i < topics.size(); i++) {
+      final List<LogTopic> alternatives = topics.get(i);
+      // A null alternative is a wildcard, and an empty position matches nothing
+      if (!alternatives.isEmpty() && !alternatives.contains(null)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private static <T, K> void add(
+      final Map<T, Map<K, LogsQuery>> index, final T value, final K key, final LogsQuery query) {
+    index.computeIfAbsent(value, v -> new ConcurrentHashMap<>()).put(key, query);
+  }
+
+  private static <T, K> void remove(
+      final Map<T, Map<K, LogsQuery>> index, final T value, final K key) {
+    index.computeIfPresent(
+        value,
+        (v, keys) -> {
+          keys.remove(key);
+          return keys.isEmpty() ? null : keys;
+        });
+  }
+}
@@ -19,6 +19,7 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -80,48 +81,90 @@ public class FilterManagerLogFilterTest {
   }
 
   @Test
-  public void shouldCheckMatchingLogsWhenRecordedNewBlockEvent() {
-    when(blockchainQueries.headBlockNumber()).thenReturn(100L);
+  public void shouldRecordMatchingLogsWhenRecordedNewBlockEvent() {
+    final List<LogWithMetadata> blockLogs = blockLogs();
+    final LogWithMetadata log = blockLogs.get(1);
 
-    filterManager.installLogFilter(latest(), latest(), logsQuery());
-    recordNewBlockEvent();
+    final String filterId =
+        filterManager.installLogFilter(latest(), latest(), logsQuery(log.getLogger()));
+    recordNewBlockEvent(blockLogs);
 
-    verify(blockchainQueries).matchingLogs(eq(100L), eq(100L), eq(logsQuery()));
+    assertThat(filterManager.logsChanges(filterId))
+        .isEqualToComparingFieldByFieldRecursively(Lists.newArrayList(log));
+    verify(blockchainQueries, never()).matchingLogs(anyLong(), anyLong(), any());
   }
 
   @Test
-  public void shouldUseHeadBlockAsFromBlockNumberWhenCheckingLogsForChanges() {
-    when(blockchainQueries.headBlockNumber()).thenReturn(3L);
+  public void shouldRecordAllLogsForLogFilterWithoutCriteria() {
+    final List<LogWithMetadata> blockLogs = blockLogs();
 
-    filterManager.installLogFilter(blockNum(1L), blockNum(10L), logsQuery());
-    recordNewBlockEvent();
+    final String filterId = filterManager.installLogFilter(latest(), latest(), logsQuery());
+    recordNewBlockEvent(blockLogs);
 
-    verify(blockchainQueries).matchingLogs(eq(3L), eq(10L), eq(logsQuery()));
+    assertThat(filterManager.logsChanges(filterId))
+        .isEqualToComparingFieldByFieldRecursively(blockLogs);
   }
 
   @Test
-  public void shouldReturnLogWhenLogFilterMatches() {
-    final LogWithMetadata log = logWithMetadata();
-    when(blockchainQueries.headBlockNumber()).thenReturn(100L);
-    when(blockchainQueries.matchingLogs(eq(100L), eq(100L), eq(logsQuery())))
-        .thenReturn(Lists.newArrayList(log));
+  public void shouldNotRecordLogsAfterToBlock() {
+    final List<LogWithMetadata> blockLogs = blockLogs();
+    final long blockNumber = blockLogs.get(0).getBlockNumber();
+
+    final String beforeFilterId =
+        filterManager.installLogFilter(blockNum(0L), blockNum(blockNumber - 1), logsQuery());
+    final String atFilterId =
+        filterManager.installLogFilter(blockNum(0L), blockNum(blockNumber), logsQuery());
+    recordNewBlockEvent(blockLogs);
+
+    assertThat(filterManager.logsChanges(beforeFilterId).size()).isEqualTo(0);
+    assertThat(filterManager.logsChanges(atFilterId).size()).isEqualTo(blockLogs.size());
+  }
 
-    final String filterId = filterManager.installLogFilter(latest(), latest(), logsQuery());
-    recordNewBlockEvent();
+  @Test
+  public void shouldNotRecordRemovedLogs() {
+    final LogWithMetadata log = logWithMetadata(true);
 
-    final List<LogWithMetadata> retrievedLogs = filterManager.logsChanges(filterId);
+    final String filterId = filterManager.installLogFilter(latest(), latest(), logsQuery());
+    recordNewBlockEvent(Lists.newArrayList(log));
 
-    assertThat(retrievedLogs).isEqualToComparingFieldByFieldRecursively(Lists.newArrayList(log));
+    assertThat(filterManager.logsChanges(filterId).size()).isEqualTo(0);
   }
 
   @Test
-  public void shouldCheckLogsForEveryLogFilter() {
-    filterManager.installLogFilter(latest(), latest(), logsQuery());
-    filterManager.installLogFilter(latest(), latest(), logsQuery());
-    filterManager.installLogFilter(latest(), latest(), logsQuery());
-    recordNewBlockEvent();
+  public void shouldRecordLogsForEveryMatchingLogFilter() {
+    final List<LogWithMetadata> blockLogs = blockLogs();
+    final LogWithMetadata log = blockLogs.get(0);
+
+    final List<String> filterIds =
+        Lists.newArrayList(
+            filterManager.installLogFilter(latest(), latest(), logsQuery()),
+            filterManager.installLogFilter(latest(), latest(), logsQuery(log.getLogger())),
+            filterManager.installLogFilter(latest(), latest(), logsQuery(log.getLogger())));
+    final String otherFilterId =
+        filterManager.installLogFilter(latest(), latest(), logsQuery(Address.fromHexString("0x0")));
+    recordNewBlockEvent(blockLogs);
+
+    assertThat(filterManager.logsChanges(filterIds.get(0)).size()).isEqualTo(blockLogs.size());
+    assertThat(filterManager.logsChanges(filterIds.get(1)))
+        .isEqualToComparingFieldByFieldRecursively(Lists.newArrayList(log));
+    assertThat(filterManager.logsChanges(filterIds.get(2)))
+        .isEqualToComparingFieldByFieldRecursively(Lists.newArrayList(log));
+    assertThat(filterManager.logsChanges(otherFilterId).size()).isEqualTo(0);
+  }
 
-    verify(blockchainQueries, times(3)).matchingLogs(anyLong(), anyLong(), any());
+  @Test
+  public void shouldNotRecordLogsForUninstalledLogFilter() {
+    final List<LogWithMetadata> blockLogs = blockLogs();
+    final Address address = blockLogs.get(0).getLogger();
+
+    final String filterId = filterManager.installLogFilter(latest(), latest(), logsQuery(address));
+    final String otherFilterId =
+        filterManager.installLogFilter(latest(), latest(), logsQuery(address));
+    filterManager.uninstallFilter(filterId);
+    recordNewBlockEvent(blockLogs);
+
+    assertThat(filterManager.logsChanges(filterId)).isNull();
+    assertThat(filterManager.logsChanges(otherFilterId).size()).isEqualTo(1);
   }
 
   @Test
@@ -134,25 +177,25 @@ public class FilterManagerLogFilterTest {
 
   @Test
   public void shouldClearLogsAfterGettingLogChanges() {
-    when(blockchainQueries.matchingLogs(anyLong(), anyLong(), any()))
-        .thenReturn(Lists.newArrayList(logWithMetadata()));
-
     final String filterId = filterManager.installLogFilter(latest(), latest(), logsQuery());
-    recordNewBlockEvent();
-    recordNewBlockEvent();
+    recordNewBlockEvent(Lists.newArrayList(logWithMetadata(false)));
+    recordNewBlockEvent(Lists.newArrayList(logWithMetadata(false)));
 
     assertThat(filterManager.logsChanges(filterId).size()).isEqualTo(2);
     assertThat(filterManager.logsChanges(filterId).size()).isEqualTo(0);
   }
 
-  private void recordNewBlockEvent() {
+  private List<LogWithMetadata> blockLogs() {
+    final BlockDataGenerator gen = new BlockDataGenerator();
+    final Block block = gen.block();
+    return LogWithMetadata.generate(block, gen.receipts(block), false);
+  }
+
+  private void recordNewBlockEvent(final List<LogWithMetadata> logs) {
     final BlockDataGenerator gen = new BlockDataGenerator();
     final Block block = gen.block();
     filterManager.recordBlockEvent(
-        BlockAddedEvent.createForHeadAdvancement(
-            block,
-            LogWithMetadata.generate(block, gen.receipts(block), false),
-            Collections.emptyList()),
+        BlockAddedEvent.createForHeadAdvancement(block, logs, Collections.emptyList()),
         blockchainQueries.getBlockchain());
   }
 
@@ -195,6 +238,10 @@ public class FilterManagerLogFilterTest {
   }
 
   private LogWithMetadata logWithMetadata() {
+    return logWithMetadata(false);
+  }
+
+  private LogWithMetadata logWithMetadata(final boolean removed) {
     return new LogWithMetadata(
         0,
         100L,
@@ -204,13 +251,17 @@ public class FilterManagerLogFilterTest {
         Address.fromHexString("0x0"),
         Bytes.EMPTY,
         Lists.newArrayList(),
-        false);
+        removed);
   }
 
   private LogsQuery logsQuery() {
     return new LogsQuery.Builder().build();
   }
 
+  private LogsQuery logsQuery(final Address address) {
+    return new LogsQuery.Builder().address(address).build();
+  }
+
   private BlockParameter latest() {
     return new BlockParameter("latest");
   }
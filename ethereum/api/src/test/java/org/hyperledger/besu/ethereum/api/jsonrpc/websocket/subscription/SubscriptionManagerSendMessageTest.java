@@ -23,10 +23,12 @@ import org.hyperledger.besu.ethereum.api.jsonrpc.websocket.subscription.request.
 import org.hyperledger.besu.ethereum.api.jsonrpc.websocket.subscription.response.SubscriptionResponse;
 import org.hyperledger.besu.metrics.noop.NoOpMetricsSystem;
 
+import java.util.List;
 import java.util.UUID;
 
 import io.vertx.core.Vertx;
 import io.vertx.core.json.Json;
+import io.vertx.core.json.JsonArray;
 import io.vertx.ext.unit.Async;
 import io.vertx.ext.unit.TestContext;
 import io.vertx.ext.unit.junit.VertxUnitRunner;
@@ -76,6 +78,32 @@ public class SubscriptionManagerSendMessageTest {
     async.awaitSuccess(VERTX_AWAIT_TIMEOUT_MILLIS);
   }
 
+  @Test
+  public void shouldSendBatchedMessagesOnTheConnectionBatchEventBusAddress(
+      final TestContext context) {
+    final String connectionId = UUID.randomUUID().toString();
+    final List<SubscriptionResponse> responses =
+        List.of(
+            new SubscriptionResponse(1L, mock(JsonRpcResult.class)),
+            new SubscriptionResponse(2L, mock(JsonRpcResult.class)));
+
+    final Async async = context.async();
+
+    vertx
+        .eventBus()
+        .<JsonArray>consumer(SubscriptionManager.batchAddress(connectionId))
+        .handler(
+            msg -> {
+              context.assertEquals(2, msg.body().size());
+              context.assertEquals(Json.encode(responses.get(0)), msg.body().getString(0));
+              context.assertEquals(Json.encode(responses.get(1)), msg.body().getString(1));
+              async.complete();
+            })
+        .completionHandler(v -> subscriptionManager.sendMessages(connectionId, responses));
+
+    async.awaitSuccess(VERTX_AWAIT_TIMEOUT_MILLIS);
+  }
+
   @Test
   public void shouldNotSendMessageOnTheConnectionIdEventBusAddressForAbsentSubscription(
       final TestContext context) {
@@ -22,15 +22,20 @@ import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.junit.internal.matchers.ThrowableMessageMatcher.hasMessage;
 
 import org.hyperledger.besu.ethereum.api.jsonrpc.websocket.subscription.blockheaders.NewBlockHeadersSubscription;
+import org.hyperledger.besu.ethereum.api.jsonrpc.websocket.subscription.logs.LogsSubscription;
 import org.hyperledger.besu.ethereum.api.jsonrpc.websocket.subscription.request.SubscribeRequest;
 import org.hyperledger.besu.ethereum.api.jsonrpc.websocket.subscription.request.SubscriptionType;
 import org.hyperledger.besu.ethereum.api.jsonrpc.websocket.subscription.request.UnsubscribeRequest;
 import org.hyperledger.besu.ethereum.api.jsonrpc.websocket.subscription.syncing.SyncingSubscription;
+import org.hyperledger.besu.ethereum.api.query.LogsQuery;
+import org.hyperledger.besu.ethereum.core.Address;
+import org.hyperledger.besu.ethereum.core.Log;
 import org.hyperledger.besu.metrics.noop.NoOpMetricsSystem;
 
 import java.util.List;
 import java.util.UUID;
 
+import org.apache.tuweni.bytes.Bytes;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -210,6 +215,40 @@ public class SubscriptionManagerTest {
     assertThat(thrown).isInstanceOf(SubscriptionNotFoundException.class);
   }
 
+  @Test
+  public void logsSubscriptionsMatchingReturnsOnlyMatchingSubscriptions() {
+    final Address address = Address.fromHexString("0x01");
+    final Long matchingId = subscriptionManager.subscribe(logsSubscribeRequest(address));
+    subscriptionManager.subscribe(logsSubscribeRequest(Address.fromHexString("0x02")));
+    subscriptionManager.subscribe(subscribeRequest(CONNECTION_ID));
+
+    final List<LogsSubscription> subscriptions =
+        subscriptionManager.logsSubscriptionsMatching(new Log(address, Bytes.EMPTY, List.of()));
+
+    assertThat(subscriptions).hasSize(1);
+    assertThat(subscriptions.get(0).getSubscriptionId()).isEqualTo(matchingId);
+  }
+
+  @Test
+  public void unsubscribedLogsSubscriptionDoesNotMatch() {
+    final Address address = Address.fromHexString("0x01");
+    final Long subscriptionId = subscriptionManager.subscribe(logsSubscribeRequest(address));
+
+    subscriptionManager.unsubscribe(new UnsubscribeRequest(subscriptionId, CONNECTION_ID));
+
+    assertThat(
+            subscriptionManager.logsSubscriptionsMatching(new Log(address, Bytes.EMPTY, List.of())))
+        .isEmpty();
+  }
+
+  private SubscribeRequest logsSubscribeRequest(final Address address) {
+    return new SubscribeRequest(
+        SubscriptionType.LOGS,
+        new LogsQuery.Builder().address(address).build(),
+        null,
+        CONNECTION_ID);
+  }
+
   private SubscribeRequest subscribeRequest(final String connectionId) {
     return new SubscribeRequest(SubscriptionType.SYNCING, null, null, connectionId);
   }
@@ -17,14 +17,17 @@ package org.hyperledger.besu.ethereum.api.jsonrpc.websocket.subscription.logs;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
-import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
-import static org.mockito.Mockito.when;
 
 import org.hyperledger.besu.ethereum.api.jsonrpc.internal.results.LogResult;
 import org.hyperledger.besu.ethereum.api.jsonrpc.internal.results.Quantity;
 import org.hyperledger.besu.ethereum.api.jsonrpc.websocket.subscription.SubscriptionManager;
+import org.hyperledger.besu.ethereum.api.jsonrpc.websocket.subscription.response.SubscriptionResponse;
 import org.hyperledger.besu.ethereum.api.query.LogsQuery;
+import org.hyperledger.besu.ethereum.api.query.LogsQueryIndex;
 import org.hyperledger.besu.ethereum.chain.MutableBlockchain;
 import org.hyperledger.besu.ethereum.core.Address;
 import org.hyperledger.besu.ethereum.core.Block;
@@ -47,12 +50,12 @@ import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
-import com.google.common.collect.Lists;
 import org.apache.tuweni.bytes.Bytes;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 
@@ -67,11 +70,12 @@ public class LogsSubscriptionServiceTest {
   private final AtomicLong nextSubscriptionId = new AtomicLong();
 
   @Mock private SubscriptionManager subscriptionManager;
+  @Captor private ArgumentCaptor<List<SubscriptionResponse>> responsesCaptor;
 
   @Before
   public void before() {
     logsSubscriptionService = new LogsSubscriptionService(subscriptionManager);
-    blockchain.observeLogs(logsSubscriptionService);
+    blockchain.observeBlockAdded(logsSubscriptionService);
   }
 
   @Test
@@ -88,10 +92,7 @@ public class LogsSubscriptionServiceTest {
     registerSubscriptions(subscription);
     blockchain.appendBlock(blockWithReceipts.getBlock(), blockWithReceipts.getReceipts());
 
-    final ArgumentCaptor<LogResult> captor = ArgumentCaptor.forClass(LogResult.class);
-    verify(subscriptionManager).sendMessage(eq(subscription.getSubscriptionId()), captor.capture());
-
-    final List<LogResult> logResults = captor.getAllValues();
+    final List<LogResult> logResults = sentResults(subscription);
 
     assertThat(logResults).hasSize(1);
     final LogResult result = logResults.get(0);
@@ -121,11 +122,7 @@ public class LogsSubscriptionServiceTest {
       blockchain.appendBlock(newBlock.getBlock(), newBlock.getReceipts());
     }
 
-    final ArgumentCaptor<LogResult> captor = ArgumentCaptor.forClass(LogResult.class);
-    verify(subscriptionManager, times(2))
-        .sendMessage(eq(subscription.getSubscriptionId()), captor.capture());
-
-    final List<LogResult> logResults = captor.getAllValues();
+    final List<LogResult> logResults = sentResults(subscription);
 
     assertThat(logResults).hasSize(2);
     final LogResult firstLog = logResults.get(0);
@@ -164,11 +161,7 @@ public class LogsSubscriptionServiceTest {
     // Sanity check
     assertThat(blockchain.getChainHeadHash()).isEqualTo(newBlockWithLog.getBlock().getHash());
 
-    final ArgumentCaptor<LogResult> captor = ArgumentCaptor.forClass(LogResult.class);
-    verify(subscriptionManager, times(3))
-        .sendMessage(eq(subscription.getSubscriptionId()), captor.capture());
-
-    final List<LogResult> logResults = captor.getAllValues();
+    final List<LogResult> logResults = sentResults(subscription);
 
     assertThat(logResults).hasSize(3);
     final LogResult originalLog = logResults.get(0);
@@ -202,10 +195,7 @@ public class LogsSubscriptionServiceTest {
       blockchain.appendBlock(otherBlock.getBlock(), otherBlock.getReceipts());
     }
 
-    final ArgumentCaptor<LogResult> captor = ArgumentCaptor.forClass(LogResult.class);
-    verify(subscriptionManager, times(targetBlocks.size() * txCount))
-        .sendMessage(eq(subscription.getSubscriptionId()), captor.capture());
-    final List<LogResult> logResults = captor.getAllValues();
+    final List<LogResult> logResults = sentResults(subscription);
 
     // Verify all logs are emitted
     assertThat(logResults).hasSize(targetBlocks.size() * txCount);
@@ -242,11 +232,7 @@ public class LogsSubscriptionServiceTest {
     blockchain.appendBlock(blockWithReceipts.getBlock(), blockWithReceipts.getReceipts());
 
     for (LogsSubscription subscription : subscriptions) {
-      final ArgumentCaptor<LogResult> captor = ArgumentCaptor.forClass(LogResult.class);
-      verify(subscriptionManager)
-          .sendMessage(eq(subscription.getSubscriptionId()), captor.capture());
-
-      final List<LogResult> logResults = captor.getAllValues();
+      final List<LogResult> logResults = sentResults(subscription);
 
       assertThat(logResults).hasSize(1);
       final LogResult result = logResults.get(0);
@@ -263,9 +249,7 @@ public class LogsSubscriptionServiceTest {
     final BlockWithReceipts blockWithReceipts = generateBlock(2, 0, 0);
     blockchain.appendBlock(blockWithReceipts.getBlock(), blockWithReceipts.getReceipts());
 
-    final ArgumentCaptor<LogResult> captor = ArgumentCaptor.forClass(LogResult.class);
-    verify(subscriptionManager, times(0))
-        .sendMessage(eq(subscription.getSubscriptionId()), captor.capture());
+    assertThat(sentResults(subscription)).isEmpty();
   }
 
   @Test
@@ -277,9 +261,55 @@ public class LogsSubscriptionServiceTest {
     final BlockWithReceipts blockWithReceipts = generateBlock(2, 2, 2);
     blockchain.appendBlock(blockWithReceipts.getBlock(), blockWithReceipts.getReceipts());
 
-    final ArgumentCaptor<LogResult> captor = ArgumentCaptor.forClass(LogResult.class);
-    verify(subscriptionManager, times(0))
-        .sendMessage(eq(subscription.getSubscriptionId()), captor.capture());
+    assertThat(sentResults(subscription)).isEmpty();
+  }
+
+  @Test
+  public void notificationsAreBatchedPerConnection() {
+    final Log targetLog = gen.log();
+    final Log otherLog = gen.log();
+    final LogsSubscription first = createSubscription("conn1", targetLog.getLogger());
+    final LogsSubscription second = createSubscription("conn1", targetLog.getLogger());
+    final LogsSubscription third = createSubscription("conn2", targetLog.getLogger());
+    final LogsSubscription unrelated = createSubscription("conn3", otherLog.getLogger());
+    registerSubscriptions(first, second, third, unrelated);
+
+    final BlockWithReceipts blockWithReceipts =
+        generateBlock(3, () -> Collections.singletonList(targetLog));
+    blockchain.appendBlock(blockWithReceipts.getBlock(), blockWithReceipts.getReceipts());
+
+    verify(subscriptionManager).sendMessages(eq("conn1"), responsesCaptor.capture());
+    assertThat(responsesCaptor.getValue()).hasSize(6);
+    verify(subscriptionManager).sendMessages(eq("conn2"), responsesCaptor.capture());
+    assertThat(responsesCaptor.getValue()).hasSize(3);
+    verify(subscriptionManager, never()).sendMessages(eq("conn3"), any());
+    for (final LogsSubscription subscription : Arrays.asList(first, second, third)) {
+      final List<LogResult> logResults = sentResults(subscription);
+      assertThat(logResults).hasSize(3);
+      for (int i = 0; i < logResults.size(); i++) {
+        assertLogResultMatches(
+            logResults.get(i),
+            blockWithReceipts.getBlock(),
+            blockWithReceipts.getReceipts(),
+            i,
+            0,
+            false);
+      }
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private List<LogResult> sentResults(final LogsSubscription subscription) {
+    final ArgumentCaptor<List<SubscriptionResponse>> captor = ArgumentCaptor.forClass(List.class);
+    verify(subscriptionManager, atLeast(0))
+        .sendMessages(eq(subscription.getConnectionId()), captor.capture());
+    final String subscriptionId = Quantity.create(subscription.getSubscriptionId());
+    return captor.getAllValues().stream()
+        .flatMap(List::stream)
+        .map(SubscriptionResponse::getParams)
+        .filter(params -> params.getSubscription().equals(subscriptionId))
+        .map(params -> (LogResult) params.getResult())
+        .collect(Collectors.toList());
   }
 
   private void assertLogResultMatches(
@@ -347,14 +377,20 @@ public class LogsSubscriptionServiceTest {
   }
 
   private LogsSubscription createSubscription(final Address address) {
-    return createSubscription(Arrays.asList(address), Collections.emptyList());
+    return createSubscription("conn", address);
+  }
+
+  private LogsSubscription createSubscription(final String connectionId, final Address address) {
+    return createSubscription(connectionId, Arrays.asList(address), Collections.emptyList());
   }
 
   private LogsSubscription createSubscription(
-      final List<Address> addresses, final List<List<LogTopic>> logTopics) {
+      final String connectionId,
+      final List<Address> addresses,
+      final List<List<LogTopic>> logTopics) {
 
     return new LogsSubscription(
-        nextSubscriptionId.incrementAndGet(), "conn", new LogsQuery(addresses, logTopics));
+        nextSubscriptionId.incrementAndGet(), connectionId, new LogsQuery(addresses, logTopics));
   }
 
   private void registerSubscriptions(final LogsSubscription... subscriptions) {
@@ -362,7 +398,15 @@ public class LogsSubscriptionServiceTest {
   }
 
   private void registerSubscriptions(final List<LogsSubscription> subscriptions) {
-    when(subscriptionManager.subscriptionsOfType(any(), any()))
-        .thenReturn(Lists.newArrayList(subscriptions));
+    final LogsQueryIndex<LogsSubscription> index = new LogsQueryIndex<>();
+    subscriptions.forEach(subscription -> index.put(subscription, subscription.getLogsQuery()));
+    lenient()
+        .when(subscriptionManager.logsSubscriptionsMatching(any()))
+        .thenAnswer(
+            invocation -> {
+              final List<LogsSubscription> matching = new ArrayList<>();
+              index.forEachMatch(invocation.getArgument(0), matching::add);
+              return matching;
+            });
   }
 }
@@ -0,0 +1,161 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.api.query;
+
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.hyperledger.besu.ethereum.core.Address;
+import org.hyperledger.besu.ethereum.core.Log;
+import org.hyperledger.besu.ethereum.core.LogTopic;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+import org.junit.Test;
+
+public class LogsQueryIndexTest {
+
+  private static final Address FIRST_ADDRESS = Address.fromHexString("0x01");
+  private static final Address SECOND_ADDRESS = Address.fromHexString("0x02");
+  private static final LogTopic FIRST_TOPIC = topic(1);
+  private static final LogTopic SECOND_TOPIC = topic(2);
+
+  private final LogsQueryIndex<String> index = new LogsQueryIndex<>();
+
+  @Test
+  public void matchesQueriesByAddress() {
+    index.put("first", new LogsQuery(singletonList(FIRST_ADDRESS), emptyList()));
+    index.put("both", new LogsQuery(Arrays.asList(FIRST_ADDRESS, SECOND_ADDRESS), emptyList()));
+
+    assertThat(matches(log(FIRST_ADDRESS))).containsExactlyInAnyOrder("first", "both");
+    assertThat(matches(log(SECOND_ADDRESS))).containsExactly("both");
+    assertThat(matches(log(Address.fromHexString("0x03")))).isEmpty();
+  }
+
+  @Test
+  public void matchesQueriesByTopicAfterWildcard() {
+    index.put(
+        "second",
+        new LogsQuery(emptyList(), Arrays.asList(singletonList(null), singletonList(FIRST_TOPIC))));
+
+    assertThat(matches(log(SECOND_ADDRESS, SECOND_TOPIC, FIRST_TOPIC))).containsExactly("second");
+    assertThat(matches(log(SECOND_ADDRESS, FIRST_TOPIC, SECOND_TOPIC))).isEmpty();
+    assertThat(matches(log(SECOND_ADDRESS, FIRST_TOPIC))).isEmpty();
+  }
+
+  @Test
+  public void matchesQueriesWithoutCriteriaForEveryLog() {
+    index.put("all", new LogsQuery(emptyList(), emptyList()));
+    index.put("wildcard", new LogsQuery(emptyList(), singletonList(singletonList(null))));
+
+    assertThat(matches(log(FIRST_ADDRESS))).containsExactlyInAnyOrder("all");
+    assertThat(matches(log(SECOND_ADDRESS, FIRST_TOPIC)))
+        .containsExactlyInAnyOrder("all", "wildcard");
+  }
+
+  @Test
+  public void removedQueriesDoNotMatch() {
+    index.put("address", new LogsQuery(singletonList(FIRST_ADDRESS), emptyList()));
+    index.put("topic", new LogsQuery(emptyList(), singletonList(singletonList(FIRST_TOPIC))));
+    index.put("all", new LogsQuery(emptyList(), emptyList()));
+
+    index.remove("address");
+    index.remove("topic");
+    index.remove("all");
+
+    assertThat(matches(log(FIRST_ADDRESS, FIRST_TOPIC))).isEmpty();
+    assertThat(index.size()).isZero();
+  }
+
+  @Test
+  public void putReplacesQueryWithSameKey() {
+    index.put("key", new LogsQuery(singletonList(FIRST_ADDRESS), emptyList()));
+    index.put("key", new LogsQuery(singletonList(SECOND_ADDRESS), emptyList()));
+
+    assertThat(matches(log(FIRST_ADDRESS))).isEmpty();
+    assertThat(matches(log(SECOND_ADDRESS))).containsExactly("key");
+    assertThat(index.size()).isEqualTo(1);
+  }
+
+  @Test
+  public void matchesSameQueriesAsLinearScan() {
+    final Random random = new Random(1);
+    final List<LogsQuery> queries = new ArrayList<>();
+    for (int i = 0; i < 500; i++) {
+      final LogsQuery query = randomQuery(random);
+      queries.add(query);
+      index.put(String.valueOf(i), query);
+    }
+
+    for (int i = 0; i < 500; i++) {
+      final Log log = randomLog(random);
+      final Set<String> expected = new HashSet<>();
+      for (int j = 0; j < queries.size(); j++) {
+        if (queries.get(j).matches(log)) {
+          expected.add(String.valueOf(j));
+        }
+      }
+      assertThat(matches(log)).containsExactlyInAnyOrderElementsOf(expected);
+    }
+  }
+
+  private List<String> matches(final Log log) {
+    final List<String> matches = new ArrayList<>();
+    index.forEachMatch(log, matches::add);
+    return matches;
+  }
+
+  private static LogsQuery randomQuery(final Random random) {
+    final List<Address> addresses = new ArrayList<>();
+    if (random.nextBoolean()) {
+      for (int i = random.nextInt(3); i >= 0; i--) {
+        addresses.add(Address.fromHexString(Integer.toHexString(random.nextInt(8))));
+      }
+    }
+    final List<List<LogTopic>> topics = new ArrayList<>();
+    for (int i = random.nextInt(4); i > 0; i--) {
+      final List<LogTopic> alternatives = new ArrayList<>();
+      for (int j = random.nextInt(3); j > 0; j--) {
+        alternatives.add(random.nextInt(4) == 0 ? null : topic(random.nextInt(4)));
+      }
+      topics.add(alternatives);
+    }
+    return new LogsQuery(addresses, topics);
+  }
+
+  private static Log randomLog(final Random random) {
+    final LogTopic[] topics = new LogTopic[random.nextInt(4)];
+    for (int i = 0; i < topics.length; i++) {
+      topics[i] = topic(random.nextInt(4));
+    }
+    return log(Address.fromHexString(Integer.toHexString(random.nextInt(8))), topics);
+  }
+
+  private static Log log(final Address address, final LogTopic... topics) {
+    return new Log(address, Bytes.EMPTY, Arrays.asList(topics));
+  }
+
+  private static LogTopic topic(final int value) {
+    return LogTopic.create(Bytes32.leftPad(Bytes.of(value)));
+  }
+}
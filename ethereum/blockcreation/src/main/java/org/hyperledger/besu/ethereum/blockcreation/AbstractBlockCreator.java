@@ -167,9 +167,8 @@ public abstract class AbstractBlockCreator<C> implements AsyncBlockCreator {
               .populateFrom(processableBlockHeader)
               .ommersHash(BodyValidation.ommersHash(ommers))
               .stateRoot(disposableWorldState.rootHash())
-              .transactionsRoot(
-                  BodyValidation.transactionsRoot(transactionResults.getTransactions()))
-              .receiptsRoot(BodyValidation.receiptsRoot(transactionResults.getReceipts()))
+              .transactionsRoot(transactionResults.getTransactionsRoot())
+              .receiptsRoot(transactionResults.getReceiptsRoot())
               .logsBloom(BodyValidation.logsBloom(transactionResults.getReceipts()))
               .gasUsed(transactionResults.getCumulativeGasUsed())
               .extraData(extraDataCalculator.get(parentHeader))
@@ -16,6 +16,7 @@ package org.hyperledger.besu.ethereum.blockcreation;
 
 import org.hyperledger.besu.ethereum.chain.Blockchain;
 import org.hyperledger.besu.ethereum.core.Address;
+import org.hyperledger.besu.ethereum.core.Hash;
 import org.hyperledger.besu.ethereum.core.MutableWorldState;
 import org.hyperledger.besu.ethereum.core.ProcessableBlockHeader;
 import org.hyperledger.besu.ethereum.core.Transaction;
@@ -28,6 +29,8 @@ import org.hyperledger.besu.ethereum.mainnet.MainnetBlockProcessor;
 import org.hyperledger.besu.ethereum.mainnet.TransactionProcessor;
 import org.hyperledger.besu.ethereum.mainnet.TransactionValidationParams;
 import org.hyperledger.besu.ethereum.mainnet.TransactionValidator;
+import org.hyperledger.besu.ethereum.rlp.RLP;
+import org.hyperledger.besu.ethereum.trie.OrderedListTrieRoot;
 import org.hyperledger.besu.ethereum.vm.BlockHashLookup;
 
 import java.util.List;
@@ -49,6 +52,7 @@ import com.google.common.collect.Lists;
  * <ul>
  *   <li>A list of transactions to include in the block being constructed.
  *   <li>A list of receipts for inclusion in the block.
+ *   <li>The transactions and receipts roots, computed incrementally as transactions are selected.
  *   <li>The root hash of the world state at the completion of transaction execution.
  *   <li>The amount of gas consumed when executing all transactions.
  * </ul>
@@ -66,12 +70,16 @@ public class BlockTransactionSelector {
 
     private final List<Transaction> transactions = Lists.newArrayList();
     private final List<TransactionReceipt> receipts = Lists.newArrayList();
+    private final OrderedListTrieRoot transactionsTrie = new OrderedListTrieRoot();
+    private final OrderedListTrieRoot receiptsTrie = new OrderedListTrieRoot();
     private long cumulativeGasUsed = 0;
 
     private void update(
         final Transaction transaction, final TransactionReceipt receipt, final long gasUsed) {
       transactions.add(transaction);
       receipts.add(receipt);
+      transactionsTrie.append(RLP.encode(transaction::writeTo));
+      receiptsTrie.append(RLP.encode(receipt::writeTo));
       cumulativeGasUsed += gasUsed;
     }
 
@@ -86,6 +94,14 @@ public class BlockTransactionSelector {
     public long getCumulativeGasUsed() {
       return cumulativeGasUsed;
     }
+
+    public Hash getTransactionsRoot() {
+      return Hash.wrap(transactionsTrie.getRootHash());
+    }
+
+    public Hash getReceiptsRoot() {
+      return Hash.wrap(receiptsTrie.getRootHash());
+    }
   }
 
   private final Supplier<Boolean> isCancelled;
@@ -41,6 +41,7 @@ import org.hyperledger.besu.ethereum.core.WorldUpdater;
 import org.hyperledger.besu.ethereum.difficulty.fixed.FixedDifficultyProtocolSchedule;
 import org.hyperledger.besu.ethereum.eth.transactions.PendingTransactions;
 import org.hyperledger.besu.ethereum.eth.transactions.TransactionPoolConfiguration;
+import org.hyperledger.besu.ethereum.mainnet.BodyValidation;
 import org.hyperledger.besu.ethereum.mainnet.MainnetTransactionProcessor;
 import org.hyperledger.besu.ethereum.mainnet.ProtocolSchedule;
 import org.hyperledger.besu.ethereum.mainnet.TransactionProcessor;
@@ -120,6 +121,8 @@ public class BlockTransactionSelectorTest {
 
     assertThat(results.getTransactions().size()).isEqualTo(0);
     assertThat(results.getReceipts().size()).isEqualTo(0);
+    assertThat(results.getTransactionsRoot()).isEqualTo(Hash.EMPTY_TRIE_HASH);
+    assertThat(results.getReceiptsRoot()).isEqualTo(Hash.EMPTY_TRIE_HASH);
     assertThat(results.getCumulativeGasUsed()).isEqualTo(0);
   }
 
@@ -212,6 +215,10 @@ public class BlockTransactionSelectorTest {
     assertThat(results.getTransactions().contains(transactionsToInject.get(1))).isFalse();
     assertThat(results.getReceipts().size()).isEqualTo(4);
     assertThat(results.getCumulativeGasUsed()).isEqualTo(400);
+    assertThat(results.getTransactionsRoot())
+        .isEqualTo(BodyValidation.transactionsRoot(results.getTransactions()));
+    assertThat(results.getReceiptsRoot())
+        .isEqualTo(BodyValidation.receiptsRoot(results.getReceipts()));
   }
 
   @Test
@@ -443,7 +450,7 @@ public class BlockTransactionSelectorTest {
             any()))
         .thenReturn(
             MainnetTransactionProcessor.Result.successful(
-                new ArrayList<>(), 10000, Bytes.EMPTY, ValidationResult.valid()));
+                new ArrayList<>(), 0, Bytes.EMPTY, ValidationResult.valid()));
     when(transactionProcessor.processTransaction(
             eq(blockchain),
             any(WorldUpdater.class),
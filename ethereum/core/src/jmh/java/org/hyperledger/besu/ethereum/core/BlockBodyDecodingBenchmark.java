@@ -0,0 +1,82 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.core;
+
+import org.hyperledger.besu.ethereum.mainnet.MainnetBlockHeaderFunctions;
+import org.hyperledger.besu.ethereum.rlp.RLP;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares eager and lazy decoding of block bodies. Run with {@code -prof gc} to compare the
+ * memory allocated per decoded body.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BlockBodyDecodingBenchmark {
+
+  @Param({"200"})
+  public int transactionCount;
+
+  private final BlockHeaderFunctions blockHeaderFunctions = new MainnetBlockHeaderFunctions();
+  private Bytes encoded;
+
+  @Setup
+  public void prepare() {
+    final BlockDataGenerator gen = new BlockDataGenerator(1);
+    final List<Transaction> transactions = new ArrayList<>(transactionCount);
+    for (int i = 0; i < transactionCount; i++) {
+      transactions.add(gen.transaction(gen.bytesValue(0, 200)));
+    }
+    final BlockBody body = new BlockBody(transactions, new ArrayList<>());
+    encoded = RLP.encode(body::writeTo);
+  }
+
+  @Benchmark
+  public BlockBody decodeEagerly() {
+    return BlockBody.readFrom(RLP.input(encoded), blockHeaderFunctions);
+  }
+
+  @Benchmark
+  public BlockBody decodeLazily() {
+    return BlockBody.readLazilyFrom(RLP.input(encoded), blockHeaderFunctions);
+  }
+
+  @Benchmark
+  public void transactionHashesEagerly(final Blackhole blackhole) {
+    final BlockBody body = BlockBody.readFrom(RLP.input(encoded), blockHeaderFunctions);
+    body.getTransactions().forEach(transaction -> blackhole.consume(transaction.getHash()));
+  }
+
+  @Benchmark
+  public void transactionHashesLazily(final Blackhole blackhole) {
+    final BlockBody body = BlockBody.readLazilyFrom(RLP.input(encoded), blockHeaderFunctions);
+    body.getTransactions().forEach(transaction -> blackhole.consume(transaction.getHash()));
+  }
+}
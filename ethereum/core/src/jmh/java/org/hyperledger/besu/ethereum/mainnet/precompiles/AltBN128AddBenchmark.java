@@ -0,0 +1,68 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.mainnet.precompiles;
+
+import static org.hyperledger.besu.ethereum.mainnet.precompiles.AltBN128BenchmarkHelper.encode;
+
+import org.hyperledger.besu.crypto.altbn128.AltBn128Point;
+import org.hyperledger.besu.ethereum.mainnet.IstanbulGasCalculator;
+
+import java.math.BigInteger;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Compares the AltBN128Add precompile with the affine {@link AltBn128Point} implementation it used
+ * to be computed with, on the sum of two points.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AltBN128AddBenchmark {
+
+  private final AltBN128AddPrecompiledContract contract =
+      AltBN128AddPrecompiledContract.istanbul(new IstanbulGasCalculator());
+
+  private AltBn128Point p;
+  private AltBn128Point q;
+  private BigInteger scalar;
+  private Bytes input;
+
+  @Setup
+  public void prepare() {
+    p = AltBn128Point.g1().multiply(BigInteger.valueOf(12345));
+    q = AltBn128Point.g1().multiply(BigInteger.valueOf(67890));
+    scalar = BigInteger.ONE.shiftLeft(255).subtract(BigInteger.valueOf(19));
+    input = Bytes.concatenate(encode(p), encode(q));
+  }
+
+  @Benchmark
+  public Bytes precompile() {
+    return contract.compute(input, null);
+  }
+
+  @Benchmark
+  public AltBn128Point legacy() {
+    return p.add(q);
+  }
+}
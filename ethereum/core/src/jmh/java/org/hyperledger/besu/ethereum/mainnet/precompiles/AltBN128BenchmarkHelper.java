@@ -0,0 +1,53 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.mainnet.precompiles;
+
+import org.hyperledger.besu.crypto.altbn128.AltBn128Fq2Point;
+import org.hyperledger.besu.crypto.altbn128.AltBn128Point;
+import org.hyperledger.besu.crypto.altbn128.Fq;
+
+import java.math.BigInteger;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+
+/** Precompile input encodings of the points of the affine alt_bn128 implementation. */
+final class AltBN128BenchmarkHelper {
+
+  static final BigInteger CURVE_ORDER =
+      new BigInteger(
+          "21888242871839275222246405745257275088548364400416034343698204186575808495617");
+
+  private AltBN128BenchmarkHelper() {}
+
+  static Bytes encode(final AltBn128Point point) {
+    return Bytes.concatenate(encode(point.getX()), encode(point.getY()));
+  }
+
+  static Bytes encode(final AltBn128Fq2Point point) {
+    final Fq[] x = point.getX().getCoefficients();
+    final Fq[] y = point.getY().getCoefficients();
+    return Bytes.concatenate(encode(x[1]), encode(x[0]), encode(y[1]), encode(y[0]));
+  }
+
+  static Bytes encode(final BigInteger scalar) {
+    return Bytes32.leftPad(Bytes.wrap(scalar.toByteArray()).trimLeadingZeros());
+  }
+
+  private static Bytes encode(final Fq n) {
+    // Negated elements are not reduced, adding zero does
+    return Bytes32.leftPad(n.add(Fq.zero()).toBytes());
+  }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.mainnet.precompiles;
+
+import static org.hyperledger.besu.ethereum.mainnet.precompiles.AltBN128BenchmarkHelper.CURVE_ORDER;
+import static org.hyperledger.besu.ethereum.mainnet.precompiles.AltBN128BenchmarkHelper.encode;
+
+import org.hyperledger.besu.crypto.altbn128.AltBn128Fq12Pairer;
+import org.hyperledger.besu.crypto.altbn128.AltBn128Fq2Point;
+import org.hyperledger.besu.crypto.altbn128.AltBn128Point;
+import org.hyperledger.besu.crypto.altbn128.Fq12;
+import org.hyperledger.besu.ethereum.mainnet.IstanbulGasCalculator;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Compares the AltBN128Pairing precompile with the affine {@link AltBn128Fq12Pairer} it used to be
+ * computed with, on the two pairs check e(2 G1, G2) e(-G1, 2 G2) = 1. The uncached check cycles
+ * through more G2 points than the precompile caches, so that each call prepares its G2 point from
+ * scratch.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AltBN128PairingBenchmark {
+
+  private static final int UNCACHED_G2_POINTS = 512;
+
+  private final AltBN128PairingPrecompiledContract contract =
+      AltBN128PairingPrecompiledContract.istanbul(new IstanbulGasCalculator());
+
+  private AltBn128Point g1;
+  private AltBn128Point minusG1;
+  private AltBn128Fq2Point g2;
+  private Bytes input;
+  private final List<Bytes> uncachedInputs = new ArrayList<>();
+  private int nextUncached;
+
+  @Setup
+  public void prepare() {
+    g1 = AltBn128Point.g1();
+    minusG1 = g1.multiply(CURVE_ORDER.subtract(BigInteger.ONE));
+    g2 = AltBn128Fq2Point.g2();
+    input = Bytes.concatenate(encode(g1.doub()), encode(g2), encode(minusG1), encode(g2.doub()));
+
+    AltBn128Fq2Point point = g2;
+    for (int i = 0; i < UNCACHED_G2_POINTS; i++) {
+      point = point.add(g2);
+      uncachedInputs.add(Bytes.concatenate(encode(g1), encode(point)));
+    }
+  }
+
+  @Benchmark
+  public Bytes precompile() {
+    return contract.compute(input, null);
+  }
+
+  @Benchmark
+  public Bytes uncachedPrecompile() {
+    nextUncached = (nextUncached + 1) % UNCACHED_G2_POINTS;
+    return contract.compute(uncachedInputs.get(nextUncached), null);
+  }
+
+  @Benchmark
+  public boolean legacy() {
+    final Fq12 product =
+        AltBn128Fq12Pairer.pair(g1.doub(), g2)
+            .multiply(AltBn128Fq12Pairer.pair(minusG1, g2.doub()));
+    return AltBn128Fq12Pairer.finalize(product).equals(Fq12.one());
+  }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.mainnet.precompiles;
+
+import org.hyperledger.besu.ethereum.mainnet.IstanbulGasCalculator;
+
+import java.math.BigInteger;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Compares the ModExp precompile with {@link BigInteger#modPow} on the same operands, which bounds
+ * the cost of decoding and encoding the precompile input and output.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ModExpBenchmark {
+
+  @Param({"256", "512", "1024", "2048"})
+  public int modulusBits;
+
+  @Param({"17", "full"})
+  public String exponent;
+
+  private final BigIntegerModularExponentiationPrecompiledContract contract =
+      new BigIntegerModularExponentiationPrecompiledContract(new IstanbulGasCalculator());
+
+  private BigInteger base;
+  private BigInteger exp;
+  private BigInteger modulus;
+  private Bytes input;
+
+  @Setup
+  public void prepare() {
+    final Random random = new Random(1);
+    modulus = new BigInteger(modulusBits, random).setBit(modulusBits - 1).setBit(0);
+    base = new BigInteger(modulusBits, random).mod(modulus);
+    exp = exponent.equals("full") ? new BigInteger(modulusBits, random) : BigInteger.valueOf(17);
+    final Bytes baseBytes = unsigned(base, modulusBits / 8);
+    final Bytes expBytes = unsigned(exp, Math.max(1, (exp.bitLength() + 7) / 8));
+    final Bytes modulusBytes = unsigned(modulus, modulusBits / 8);
+    input =
+        Bytes.concatenate(
+            Bytes32.leftPad(Bytes.ofUnsignedInt(baseBytes.size())),
+            Bytes32.leftPad(Bytes.ofUnsignedInt(expBytes.size())),
+            Bytes32.leftPad(Bytes.ofUnsignedInt(modulusBytes.size())),
+            baseBytes,
+            expBytes,
+            modulusBytes);
+  }
+
+  @Benchmark
+  public Bytes precompile() {
+    return contract.compute(input, null);
+  }
+
+  @Benchmark
+  public BigInteger bigIntegerModPow() {
+    return base.modPow(exp, modulus);
+  }
+
+  private static Bytes unsigned(final BigInteger value, final int size) {
+    final Bytes bytes = Bytes.wrap(value.toByteArray()).trimLeadingZeros();
+    return Bytes.concatenate(Bytes.wrap(new byte[size - bytes.size()]), bytes);
+  }
+}
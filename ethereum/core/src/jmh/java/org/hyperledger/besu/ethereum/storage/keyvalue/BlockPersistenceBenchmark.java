@@ -0,0 +1,159 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.storage.keyvalue;
+
+import org.hyperledger.besu.ethereum.chain.BlockchainStorage;
+import org.hyperledger.besu.ethereum.core.BlockHeader;
+import org.hyperledger.besu.ethereum.core.BlockHeaderTestFixture;
+import org.hyperledger.besu.ethereum.core.Difficulty;
+import org.hyperledger.besu.ethereum.mainnet.MainnetProtocolSchedule;
+import org.hyperledger.besu.ethereum.storage.WriteBatch;
+import org.hyperledger.besu.ethereum.worldstate.WorldStateStorage;
+import org.hyperledger.besu.metrics.noop.NoOpMetricsSystem;
+import org.hyperledger.besu.plugin.services.storage.KeyValueStorage;
+import org.hyperledger.besu.plugin.services.storage.KeyValueStorageTransaction;
+import org.hyperledger.besu.plugin.services.storage.SegmentIdentifier;
+import org.hyperledger.besu.plugin.services.storage.rocksdb.RocksDBMetricsFactory;
+import org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBConfigurationBuilder;
+import org.hyperledger.besu.plugin.services.storage.rocksdb.segmented.RocksDBColumnarKeyValueStorage;
+import org.hyperledger.besu.services.kvstore.SegmentedKeyValueStorageAdapter;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.io.MoreFiles;
+import com.google.common.io.RecursiveDeleteOption;
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Persists the world state nodes, pruner marks and chain data of a block to RocksDB, as the block
+ * importer does, either in a single write batch or storage by storage.
+ *
+ * <p>Only the persistence step is measured. Block import as a whole is dominated by sender
+ * recovery, transaction execution and hashing, so gains here don't show up as import throughput.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class BlockPersistenceBenchmark {
+
+  private static final byte[] MARK = {1};
+
+  @Param({"100", "1000"})
+  public int nodesPerBlock;
+
+  @Param({"true", "false"})
+  public boolean writeBatch;
+
+  private final Random random = new Random(42);
+  private Path storageDirectory;
+  private RocksDBColumnarKeyValueStorage rocksDBStorage;
+  private KeyValueStorageProvider storageProvider;
+  private WorldStateStorage worldStateStorage;
+  private KeyValueStorage pruningStorage;
+  private BlockchainStorage blockchainStorage;
+  private BlockHeader header;
+  private Bytes32[] nodeHashes;
+  private Bytes[] nodes;
+
+  @Setup
+  public void prepare() throws IOException {
+    storageDirectory = Files.createTempDirectory("benchmark");
+    final List<SegmentIdentifier> segments = Arrays.asList(KeyValueSegmentIdentifier.values());
+    rocksDBStorage =
+        new RocksDBColumnarKeyValueStorage(
+            new RocksDBConfigurationBuilder().databaseDir(storageDirectory).build(),
+            segments,
+            new NoOpMetricsSystem(),
+            RocksDBMetricsFactory.PUBLIC_ROCKS_DB_METRICS);
+    storageProvider =
+        new KeyValueStorageProvider(
+            new SegmentedKeyValueStorageAdapter<>(
+                KeyValueSegmentIdentifier.BLOCKCHAIN, rocksDBStorage),
+            new SegmentedKeyValueStorageAdapter<>(
+                KeyValueSegmentIdentifier.WORLD_STATE, rocksDBStorage),
+            new SegmentedKeyValueStorageAdapter<>(
+                KeyValueSegmentIdentifier.WORLD_STATE, rocksDBStorage),
+            new SegmentedKeyValueStorageAdapter<>(
+                KeyValueSegmentIdentifier.PRUNING_STATE, rocksDBStorage),
+            false);
+    worldStateStorage = storageProvider.createWorldStateStorage();
+    pruningStorage = storageProvider.createPruningStorage();
+    blockchainStorage = storageProvider.createBlockchainStorage(MainnetProtocolSchedule.create());
+    header = new BlockHeaderTestFixture().buildHeader();
+    nodeHashes = new Bytes32[nodesPerBlock];
+    nodes = new Bytes[nodesPerBlock];
+  }
+
+  @TearDown
+  public void cleanUp() throws IOException {
+    storageProvider.close();
+    MoreFiles.deleteRecursively(storageDirectory, RecursiveDeleteOption.ALLOW_INSECURE);
+  }
+
+  @Benchmark
+  public void persistBlock() {
+    for (int i = 0; i < nodesPerBlock; i++) {
+      final byte[] node = new byte[100];
+      random.nextBytes(node);
+      nodes[i] = Bytes.wrap(node);
+      nodeHashes[i] = Bytes32.wrap(node, 0);
+    }
+
+    if (writeBatch) {
+      try (final WriteBatch ignored = storageProvider.startWriteBatch()) {
+        persist();
+      }
+    } else {
+      persist();
+    }
+  }
+
+  private void persist() {
+    final WorldStateStorage.Updater worldStateUpdater = worldStateStorage.updater();
+    for (int i = 0; i < nodesPerBlock; i++) {
+      worldStateUpdater.putAccountStateTrieNode(nodeHashes[i], nodes[i]);
+    }
+    worldStateUpdater.commit();
+
+    final KeyValueStorageTransaction marks = pruningStorage.startTransaction();
+    for (final Bytes32 nodeHash : nodeHashes) {
+      marks.put(nodeHash.toArrayUnsafe(), MARK);
+    }
+    marks.commit();
+
+    final BlockchainStorage.Updater blockchainUpdater = blockchainStorage.updater();
+    blockchainUpdater.putBlockHeader(header.getHash(), header);
+    blockchainUpdater.putBlockHash(header.getNumber(), header.getHash());
+    blockchainUpdater.putTotalDifficulty(header.getHash(), Difficulty.ONE);
+    blockchainUpdater.setChainHead(header.getHash());
+    blockchainUpdater.commit();
+  }
+}
@@ -22,12 +22,14 @@ import org.hyperledger.besu.ethereum.chain.MutableBlockchain;
 import org.hyperledger.besu.ethereum.mainnet.ProtocolSchedule;
 import org.hyperledger.besu.ethereum.merkleutils.MerkleAwareProvider;
 import org.hyperledger.besu.ethereum.storage.StorageProvider;
+import org.hyperledger.besu.ethereum.storage.WriteBatch;
 import org.hyperledger.besu.ethereum.worldstate.WorldStateArchive;
 import org.hyperledger.besu.ethereum.worldstate.WorldStatePreimageStorage;
 import org.hyperledger.besu.ethereum.worldstate.WorldStateStorage;
 import org.hyperledger.besu.plugin.services.MetricsSystem;
 
 import java.util.function.BiFunction;
+import java.util.function.Supplier;
 
 /**
  * Holds the mutable state used to track the current context of the protocol. This is primarily the
@@ -40,14 +42,24 @@ public class ProtocolContext<C> {
   private final MutableBlockchain blockchain;
   private final WorldStateArchive worldStateArchive;
   private final C consensusState;
+  private final Supplier<WriteBatch> writeBatchFactory;
 
   public ProtocolContext(
       final MutableBlockchain blockchain,
       final WorldStateArchive worldStateArchive,
       final C consensusState) {
+    this(blockchain, worldStateArchive, consensusState, () -> WriteBatch.NONE);
+  }
+
+  public ProtocolContext(
+      final MutableBlockchain blockchain,
+      final WorldStateArchive worldStateArchive,
+      final C consensusState,
+      final Supplier<WriteBatch> writeBatchFactory) {
     this.blockchain = blockchain;
     this.worldStateArchive = worldStateArchive;
     this.consensusState = consensusState;
+    this.writeBatchFactory = writeBatchFactory;
   }
 
   public static <T> ProtocolContext<T> init(
@@ -73,7 +85,8 @@ public class ProtocolContext<C> {
     return new ProtocolContext<>(
         blockchain,
         worldStateArchive,
-        consensusContextFactory.apply(blockchain, worldStateArchive));
+        consensusContextFactory.apply(blockchain, worldStateArchive),
+        storageProvider::startWriteBatch);
   }
 
   public MutableBlockchain getBlockchain() {
@@ -87,4 +100,15 @@ public class ProtocolContext<C> {
   public C getConsensusState() {
     return consensusState;
   }
+
+  /**
+   * Hold the writes to the blockchain and world state in memory until the returned batch is closed,
+   * so that they are persisted together.
+   *
+   * @return the batch holding the writes
+   * @see StorageProvider#startWriteBatch()
+   */
+  public WriteBatch startWriteBatch() {
+    return writeBatchFactory.get();
+  }
 }
@@ -35,6 +35,7 @@ import org.hyperledger.besu.util.Subscribers;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -42,16 +43,37 @@ import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.Lists;
 
 public class DefaultBlockchain implements MutableBlockchain {
 
+  private static final long BLOCK_HEADER_CACHE_SIZE = 8192;
+  private static final long BLOCK_BODY_CACHE_SIZE = 512;
+  private static final long TRANSACTION_RECEIPTS_CACHE_SIZE = 512;
+  private static final long BLOCK_HASH_CACHE_SIZE = 8192;
+
   protected final BlockchainStorage blockchainStorage;
 
+  // Decoded block data keyed by hash never changes once stored, so these caches only need to be
+  // bounded. The number to hash index is rewritten on reorgs and rewinds and is invalidated then.
+  private final Cache<Hash, BlockHeader> blockHeaderCache =
+      CacheBuilder.newBuilder().maximumSize(BLOCK_HEADER_CACHE_SIZE).recordStats().build();
+  private final Cache<Hash, BlockBody> blockBodyCache =
+      CacheBuilder.newBuilder().maximumSize(BLOCK_BODY_CACHE_SIZE).recordStats().build();
+  private final Cache<Hash, List<TransactionReceipt>> transactionReceiptsCache =
+      CacheBuilder.newBuilder().maximumSize(TRANSACTION_RECEIPTS_CACHE_SIZE).recordStats().build();
+  private final Cache<Long, Hash> blockHashCache =
+      CacheBuilder.newBuilder().maximumSize(BLOCK_HASH_CACHE_SIZE).recordStats().build();
+  private final Object blockHashCacheLock = new Object();
+  private long blockHashCacheGeneration = 0;
+
   private final Subscribers<BlockAddedObserver> blockAddedObservers = Subscribers.create();
   private final Subscribers<ChainReorgObserver> blockReorgObservers = Subscribers.create();
 
@@ -118,6 +140,30 @@ public class DefaultBlockchain implements MutableBlockchain {
         "chain_head_ommer_count",
         "Number of ommers in the current chain head block",
         () -> chainHeadOmmerCount);
+
+    metricsSystem.createGauge(
+        BesuMetricCategory.BLOCKCHAIN,
+        "block_header_cache_hit_rate",
+        "Ratio of block header lookups served from the in-memory cache",
+        () -> blockHeaderCache.stats().hitRate());
+
+    metricsSystem.createGauge(
+        BesuMetricCategory.BLOCKCHAIN,
+        "block_body_cache_hit_rate",
+        "Ratio of block body lookups served from the in-memory cache",
+        () -> blockBodyCache.stats().hitRate());
+
+    metricsSystem.createGauge(
+        BesuMetricCategory.BLOCKCHAIN,
+        "transaction_receipts_cache_hit_rate",
+        "Ratio of transaction receipt lookups served from the in-memory cache",
+        () -> transactionReceiptsCache.stats().hitRate());
+
+    metricsSystem.createGauge(
+        BesuMetricCategory.BLOCKCHAIN,
+        "block_hash_cache_hit_rate",
+        "Ratio of block number to hash lookups served from the in-memory cache",
+        () -> blockHashCache.stats().hitRate());
   }
 
   public static MutableBlockchain createMutable(
@@ -166,32 +212,64 @@ public class DefaultBlockchain implements MutableBlockchain {
 
   @Override
   public Block getChainHeadBlock() {
-    return new Block(chainHeader, blockchainStorage.getBlockBody(chainHeader.getHash()).get());
+    return new Block(chainHeader, getBlockBody(chainHeader.getHash()).get());
   }
 
   @Override
   public Optional<BlockHeader> getBlockHeader(final long blockNumber) {
-    return blockchainStorage.getBlockHash(blockNumber).flatMap(blockchainStorage::getBlockHeader);
+    return getBlockHashByNumber(blockNumber).flatMap(this::getBlockHeader);
   }
 
   @Override
   public Optional<BlockHeader> getBlockHeader(final Hash blockHeaderHash) {
-    return blockchainStorage.getBlockHeader(blockHeaderHash);
+    return readThrough(blockHeaderCache, blockHeaderHash, blockchainStorage::getBlockHeader);
   }
 
   @Override
   public Optional<BlockBody> getBlockBody(final Hash blockHeaderHash) {
-    return blockchainStorage.getBlockBody(blockHeaderHash);
+    return readThrough(blockBodyCache, blockHeaderHash, blockchainStorage::getBlockBody);
   }
 
   @Override
   public Optional<List<TransactionReceipt>> getTxReceipts(final Hash blockHeaderHash) {
-    return blockchainStorage.getTransactionReceipts(blockHeaderHash);
+    return readThrough(
+        transactionReceiptsCache,
+        blockHeaderHash,
+        hash -> blockchainStorage.getTransactionReceipts(hash).map(Collections::unmodifiableList));
   }
 
   @Override
   public Optional<Hash> getBlockHashByNumber(final long number) {
-    return blockchainStorage.getBlockHash(number);
+    final Hash cachedHash = blockHashCache.getIfPresent(number);
+    if (cachedHash != null) {
+      return Optional.of(cachedHash);
+    }
+    final long generation;
+    synchronized (blockHashCacheLock) {
+      generation = blockHashCacheGeneration;
+    }
+    final Optional<Hash> blockHash = blockchainStorage.getBlockHash(number);
+    blockHash.ifPresent(
+        hash -> {
+          synchronized (blockHashCacheLock) {
+            // Don't cache a value read from storage concurrently with a reorg or rewind
+            if (generation == blockHashCacheGeneration) {
+              blockHashCache.put(number, hash);
+            }
+          }
+        });
+    return blockHash;
+  }
+
+  private static <K, V> Optional<V> readThrough(
+      final Cache<K, V> cache, final K key, final Function<K, Optional<V>> loader) {
+    final V cachedValue = cache.getIfPresent(key);
+    if (cachedValue != null) {
+      return Optional.of(cachedValue);
+    }
+    final Optional<V> value = loader.apply(key);
+    value.ifPresent(v -> cache.put(key, v));
+    return value;
   }
 
   @Override
@@ -205,8 +283,7 @@ public class DefaultBlockchain implements MutableBlockchain {
         .getTransactionLocation(transactionHash)
         .flatMap(
             l ->
-                blockchainStorage
-                    .getBlockBody(l.getBlockHash())
+                getBlockBody(l.getBlockHash())
                     .map(b -> b.getTransactions().get(l.getTransactionIndex())));
   }
 
@@ -248,6 +325,14 @@ public class DefaultBlockchain implements MutableBlockchain {
         updateCanonicalChainData(updater, blockWithReceipts, td);
 
     updater.commit();
+    blockHeaderCache.put(hash, block.getHeader());
+    blockBodyCache.put(hash, block.getBody());
+    transactionReceiptsCache.put(hash, List.copyOf(receipts));
+    if (blockAddedEvent.getEventType() == BlockAddedEvent.EventType.CHAIN_REORG) {
+      invalidateBlockHashCache();
+    } else if (blockAddedEvent.getEventType() == BlockAddedEvent.EventType.HEAD_ADVANCED) {
+      blockHashCache.put(block.getHeader().getNumber(), hash);
+    }
     if (blockAddedEvent.isNewCanonicalHead()) {
       updateCacheForNewCanonicalHead(block, td);
     }
@@ -417,12 +502,13 @@ public class DefaultBlockchain implements MutableBlockchain {
 
     final BlockchainStorage.Updater updater = blockchainStorage.updater();
     try {
-      final BlockHeader oldBlockHeader = blockchainStorage.getBlockHeader(blockHash.get()).get();
+      final BlockHeader oldBlockHeader = getBlockHeader(blockHash.get()).get();
       final BlockWithReceipts blockWithReceipts = getBlockWithReceipts(oldBlockHeader).get();
       final Block block = blockWithReceipts.getBlock();
 
       handleChainReorg(updater, blockWithReceipts);
       updater.commit();
+      invalidateBlockHashCache();
 
       updateCacheForNewCanonicalHead(block, calculateTotalDifficulty(block));
       return true;
@@ -434,6 +520,13 @@ public class DefaultBlockchain implements MutableBlockchain {
     }
   }
 
+  private void invalidateBlockHashCache() {
+    synchronized (blockHashCacheLock) {
+      blockHashCacheGeneration++;
+      blockHashCache.invalidateAll();
+    }
+  }
+
   void updateCacheForNewCanonicalHead(final Block block, final Difficulty uInt256) {
     chainHeader = block.getHeader();
     totalDifficulty = uInt256;
@@ -499,11 +592,11 @@ public class DefaultBlockchain implements MutableBlockchain {
       // Saves a db read for the most common case
       return false;
     }
-    return blockchainStorage.getBlockHeader(block.getHash()).isPresent();
+    return getBlockHeader(block.getHash()).isPresent();
   }
 
   private boolean blockIsConnected(final Block block) {
-    return blockchainStorage.getBlockHeader(block.getHeader().getParentHash()).isPresent();
+    return getBlockHeader(block.getHeader().getParentHash()).isPresent();
   }
 
   private void addAddedLogsWithMetadata(
@@ -523,19 +616,16 @@ public class DefaultBlockchain implements MutableBlockchain {
   }
 
   private Optional<BlockWithReceipts> getBlockWithReceipts(final BlockHeader blockHeader) {
-    return blockchainStorage
-        .getBlockBody(blockHeader.getHash())
+    return getBlockBody(blockHeader.getHash())
         .map(body -> new Block(blockHeader, body))
         .flatMap(
             block ->
-                blockchainStorage
-                    .getTransactionReceipts(blockHeader.getHash())
+                getTxReceipts(blockHeader.getHash())
                     .map(receipts -> new BlockWithReceipts(block, receipts)));
   }
 
   private BlockWithReceipts getParentBlockWithReceipts(final BlockWithReceipts blockWithReceipts) {
-    return blockchainStorage
-        .getBlockHeader(blockWithReceipts.getHeader().getParentHash())
+    return getBlockHeader(blockWithReceipts.getHeader().getParentHash())
         .flatMap(this::getBlockWithReceipts)
         .get();
   }
@@ -24,7 +24,6 @@ import java.util.Map;
 import java.util.NavigableMap;
 import java.util.Optional;
 import java.util.Set;
-import java.util.SortedMap;
 import java.util.TreeMap;
 import javax.annotation.Nullable;
 
@@ -52,6 +51,26 @@ public abstract class AbstractWorldUpdater<W extends WorldView, A extends Accoun
 
   protected abstract A getForMutation(Address address);
 
+  /**
+   * Creates the tracker for an account created in this updater.
+   *
+   * @param address the address of the new account.
+   * @return a tracker for a new, empty account.
+   */
+  protected UpdateTrackingAccount<A> newTracker(final Address address) {
+    return new UpdateTrackingAccount<>(address);
+  }
+
+  /**
+   * Creates the tracker for an existing account first modified in this updater.
+   *
+   * @param account the account as seen by the wrapped world view.
+   * @return a tracker for updates on top of {@code account}.
+   */
+  protected UpdateTrackingAccount<A> newTracker(final A account) {
+    return new UpdateTrackingAccount<>(account);
+  }
+
   protected UpdateTrackingAccount<A> track(final UpdateTrackingAccount<A> account) {
     final Address address = account.getAddress();
     updatedAccounts.put(address, account);
@@ -62,9 +81,9 @@ public abstract class AbstractWorldUpdater<W extends WorldView, A extends Accoun
   @Override
   public DefaultEvmAccount createAccount(
       final Address address, final long nonce, final Wei balance) {
-    final UpdateTrackingAccount<A> account = new UpdateTrackingAccount<>(address);
-    account.setNonce(nonce);
-    account.setBalance(balance);
+    final UpdateTrackingAccount<A> account = newTracker(address);
+    account.nonce = nonce;
+    account.balance = balance;
     return new DefaultEvmAccount(track(account));
   }
 
@@ -97,7 +116,7 @@ public abstract class AbstractWorldUpdater<W extends WorldView, A extends Accoun
     if (origin == null) {
       return null;
     } else {
-      return new DefaultEvmAccount(track(new UpdateTrackingAccount<>(origin)));
+      return new DefaultEvmAccount(track(newTracker(origin)));
     }
   }
 
@@ -124,6 +143,17 @@ public abstract class AbstractWorldUpdater<W extends WorldView, A extends Accoun
     return new StackedUpdater<>(this);
   }
 
+  /**
+   * Creates a {@link JournaledUpdater} on top of this updater.
+   *
+   * @return a new updater on top of this updater, whose nested updaters are checkpoints of a single
+   *     change journal.
+   */
+  @Override
+  public WorldUpdater transactionUpdater() {
+    return new JournaledUpdater<>(this);
+  }
+
   /**
    * The world view on top of which this buffer updates.
    *
@@ -160,6 +190,38 @@ public abstract class AbstractWorldUpdater<W extends WorldView, A extends Accoun
     return deletedAccounts;
   }
 
+  @Nullable
+  UpdateTrackingAccount<A> updatedAccount(final Address address) {
+    return updatedAccounts.get(address);
+  }
+
+  boolean isDeleted(final Address address) {
+    return deletedAccounts.contains(address);
+  }
+
+  /**
+   * Resets what this updater knows of an account, bypassing any bookkeeping done by subclasses.
+   *
+   * @param address the address of the account.
+   * @param tracker the tracker for the account, or {@code null} if it is not tracked.
+   * @param deleted whether the account is deleted.
+   */
+  void restore(
+      final Address address,
+      @Nullable final UpdateTrackingAccount<A> tracker,
+      final boolean deleted) {
+    if (tracker == null) {
+      updatedAccounts.remove(address);
+    } else {
+      updatedAccounts.put(address, tracker);
+    }
+    if (deleted) {
+      deletedAccounts.add(address);
+    } else {
+      deletedAccounts.remove(address);
+    }
+  }
+
   /**
    * A implementation of {@link MutableAccount} that tracks updates made to the account since the
    * creation of the updater this is linked to.
@@ -184,11 +246,15 @@ public abstract class AbstractWorldUpdater<W extends WorldView, A extends Accoun
 
     // Only contains updated storage entries, but may contains entry with a value of 0 to signify
     // deletion.
-    private final SortedMap<UInt256, UInt256> updatedStorage;
+    private final Map<UInt256, UInt256> updatedStorage;
     private boolean storageWasCleared = false;
     private boolean transactionBoundary = false;
 
     UpdateTrackingAccount(final Address address) {
+      this(address, new TreeMap<>());
+    }
+
+    UpdateTrackingAccount(final Address address, final Map<UInt256, UInt256> updatedStorage) {
       checkNotNull(address);
       this.address = address;
       this.addressHash = Hash.hash(this.address);
@@ -199,10 +265,14 @@ public abstract class AbstractWorldUpdater<W extends WorldView, A extends Accoun
       this.version = Account.DEFAULT_VERSION;
 
       this.updatedCode = Bytes.EMPTY;
-      this.updatedStorage = new TreeMap<>();
+      this.updatedStorage = updatedStorage;
     }
 
     UpdateTrackingAccount(@Nullable final A account) {
+      this(account, new TreeMap<>());
+    }
+
+    UpdateTrackingAccount(@Nullable final A account, final Map<UInt256, UInt256> updatedStorage) {
       checkNotNull(account);
 
       this.address = account.getAddress();
@@ -216,7 +286,7 @@ public abstract class AbstractWorldUpdater<W extends WorldView, A extends Accoun
       this.balance = account.getBalance();
       this.version = account.getVersion();
 
-      this.updatedStorage = new TreeMap<>();
+      this.updatedStorage = updatedStorage;
     }
 
     /**
@@ -397,6 +467,12 @@ public abstract class AbstractWorldUpdater<W extends WorldView, A extends Accoun
       return storageWasCleared;
     }
 
+    void restoreStorage(final boolean wasCleared, final Map<UInt256, UInt256> storage) {
+      storageWasCleared = wasCleared;
+      updatedStorage.clear();
+      updatedStorage.putAll(storage);
+    }
+
     @Override
     public String toString() {
       String storage = updatedStorage.isEmpty() ? "[not updated]" : updatedStorage.toString();
@@ -73,6 +73,24 @@ public class Block {
     return new Block(header, new BlockBody(transactions, ommers));
   }
 
+  /**
+   * Reads a block whose transactions are only decoded when their fields are accessed.
+   *
+   * @param in Input to read from
+   * @param hashFunction Functions used to compute the hashes of the header and ommers
+   * @return The block
+   * @see Transaction#readLazilyFrom(RLPInput)
+   */
+  public static Block readLazilyFrom(final RLPInput in, final BlockHeaderFunctions hashFunction) {
+    in.enterList();
+    final BlockHeader header = BlockHeader.readFrom(in, hashFunction);
+    final List<Transaction> transactions = in.readList(Transaction::readLazilyFrom);
+    final List<BlockHeader> ommers = in.readList(rlp -> BlockHeader.readFrom(rlp, hashFunction));
+    in.leaveList();
+
+    return new Block(header, new BlockBody(transactions, ommers));
+  }
+
   @Override
   public boolean equals(final Object obj) {
     if (obj == this) {
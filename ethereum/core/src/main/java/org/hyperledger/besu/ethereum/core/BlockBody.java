@@ -74,6 +74,25 @@ public class BlockBody implements org.hyperledger.besu.plugin.data.BlockBody {
     return body;
   }
 
+  /**
+   * Reads a block body whose transactions are only decoded when their fields are accessed.
+   *
+   * @param input Input to read from
+   * @param blockHeaderFunctions Functions used to compute the hashes of the ommers
+   * @return The block body
+   * @see Transaction#readLazilyFrom(RLPInput)
+   */
+  public static BlockBody readLazilyFrom(
+      final RLPInput input, final BlockHeaderFunctions blockHeaderFunctions) {
+    input.enterList();
+    final BlockBody body =
+        new BlockBody(
+            input.readList(Transaction::readLazilyFrom),
+            input.readList(rlp -> BlockHeader.readFrom(rlp, blockHeaderFunctions)));
+    input.leaveList();
+    return body;
+  }
+
   @Override
   public boolean equals(final Object obj) {
     if (obj == this) {
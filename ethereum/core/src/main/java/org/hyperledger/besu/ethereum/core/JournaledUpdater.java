@@ -0,0 +1,451 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.core;
+
+import org.hyperledger.besu.ethereum.core.AbstractWorldUpdater.StackedUpdater;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+import org.apache.tuweni.units.bigints.UInt256;
+
+/**
+ * A {@link StackedUpdater} that records every change made to it in a single journal, so that its
+ * nested updaters can be checkpoints of that journal rather than buffers of their own.
+ *
+ * <p>The updaters returned by {@link #updater()} share the accounts of this updater: committing one
+ * is free, and reverting one truncates the journal back to the point where it was created. This
+ * avoids copying every touched account and storage slot from one updater to the next on each nested
+ * message call, at the cost of requiring nested updaters to be committed or reverted in the reverse
+ * order of their creation, which message frames always do.
+ */
+public class JournaledUpdater<W extends WorldView, A extends Account> extends StackedUpdater<W, A> {
+
+  // Each entry undoes a single change, in the reverse order of the changes.
+  private final List<Runnable> journal = new ArrayList<>();
+  // Position in the journal of the last touch and deletion of each account.
+  private final Map<Address, Integer> lastTouched = new HashMap<>();
+  private final Map<Address, Integer> lastDeleted = new HashMap<>();
+
+  JournaledUpdater(final AbstractWorldUpdater<W, A> world) {
+    super(world);
+  }
+
+  @Override
+  protected UpdateTrackingAccount<UpdateTrackingAccount<A>> newTracker(final Address address) {
+    return new JournaledAccount<>(this, address);
+  }
+
+  @Override
+  protected UpdateTrackingAccount<UpdateTrackingAccount<A>> newTracker(
+      final UpdateTrackingAccount<A> account) {
+    return new JournaledAccount<>(this, account);
+  }
+
+  @Override
+  protected UpdateTrackingAccount<UpdateTrackingAccount<A>> track(
+      final UpdateTrackingAccount<UpdateTrackingAccount<A>> account) {
+    recordAccount(account.getAddress());
+    return super.track(account);
+  }
+
+  @Override
+  public void deleteAccount(final Address address) {
+    recordAccount(address);
+    recordPosition(lastDeleted, address);
+    super.deleteAccount(address);
+  }
+
+  /**
+   * Creates a checkpoint of this updater.
+   *
+   * @return a new updater sharing the accounts of this updater, whose {@link WorldUpdater#revert()}
+   *     discards the changes made since its creation.
+   */
+  @Override
+  public WorldUpdater updater() {
+    return new Checkpoint(this);
+  }
+
+  @Override
+  public void revert() {
+    super.revert();
+    clearJournal();
+  }
+
+  @Override
+  public void commit() {
+    super.commit();
+    clearJournal();
+  }
+
+  private void clearJournal() {
+    journal.clear();
+    lastTouched.clear();
+    lastDeleted.clear();
+  }
+
+  private void record(final Runnable undo) {
+    journal.add(undo);
+  }
+
+  private void recordAccount(final Address address) {
+    final UpdateTrackingAccount<UpdateTrackingAccount<A>> tracker = updatedAccount(address);
+    final boolean deleted = isDeleted(address);
+    record(() -> restore(address, tracker, deleted));
+  }
+
+  private void recordPosition(final Map<Address, Integer> positions, final Address address) {
+    final Integer previous = positions.put(address, journal.size());
+    record(
+        () -> {
+          if (previous == null) {
+            positions.remove(address);
+          } else {
+            positions.put(address, previous);
+          }
+        });
+  }
+
+  private void touch(final Address address, final int mark) {
+    final Integer previous = lastTouched.get(address);
+    if (previous == null || previous < mark) {
+      recordPosition(lastTouched, address);
+    }
+  }
+
+  private void rollback(final int mark) {
+    for (int i = journal.size() - 1; i >= mark; i--) {
+      journal.remove(i).run();
+    }
+  }
+
+  private Collection<UpdateTrackingAccount<? extends Account>> touchedSince(final int mark) {
+    final List<UpdateTrackingAccount<? extends Account>> touched = new ArrayList<>();
+    lastTouched.forEach(
+        (address, position) -> {
+          final UpdateTrackingAccount<UpdateTrackingAccount<A>> tracker = updatedAccount(address);
+          if (position >= mark && tracker != null) {
+            touched.add(tracker);
+          }
+        });
+    return touched;
+  }
+
+  private Collection<Address> deletedSince(final int mark) {
+    final List<Address> deleted = new ArrayList<>();
+    lastDeleted.forEach(
+        (address, position) -> {
+          if (position >= mark && isDeleted(address)) {
+            deleted.add(address);
+          }
+        });
+    return deleted;
+  }
+
+  /** A view of the journaled updater that only accounts for the changes made since its creation. */
+  private class Checkpoint implements WorldUpdater {
+    private final WorldUpdater parent;
+    private final int mark;
+
+    private Checkpoint(final WorldUpdater parent) {
+      this.parent = parent;
+      this.mark = journal.size();
+    }
+
+    @Override
+    public DefaultEvmAccount createAccount(
+        final Address address, final long nonce, final Wei balance) {
+      final DefaultEvmAccount account =
+          JournaledUpdater.this.createAccount(address, nonce, balance);
+      touch(address, mark);
+      return view(account);
+    }
+
+    @Override
+    public Account get(final Address address) {
+      return JournaledUpdater.this.get(address);
+    }
+
+    @Override
+    public DefaultEvmAccount getAccount(final Address address) {
+      final DefaultEvmAccount account = JournaledUpdater.this.getAccount(address);
+      if (account == null) {
+        return null;
+      }
+      touch(address, mark);
+      return view(account);
+    }
+
+    @SuppressWarnings("unchecked")
+    private DefaultEvmAccount view(final DefaultEvmAccount account) {
+      return new DefaultEvmAccount(
+          new CheckpointAccount<>((JournaledAccount<A>) account.getMutable(), mark));
+    }
+
+    @Override
+    public void deleteAccount(final Address address) {
+      JournaledUpdater.this.deleteAccount(address);
+    }
+
+    @Override
+    public Collection<UpdateTrackingAccount<? extends Account>> getTouchedAccounts() {
+      return touchedSince(mark);
+    }
+
+    @Override
+    public Collection<Address> getDeletedAccountAddresses() {
+      return deletedSince(mark);
+    }
+
+    @Override
+    public void revert() {
+      rollback(mark);
+    }
+
+    @Override
+    public void commit() {
+      // The changes are already visible to the enclosing checkpoint, which may still revert them.
+    }
+
+    @Override
+    public WorldUpdater updater() {
+      return new Checkpoint(this);
+    }
+
+    @Override
+    public Optional<WorldUpdater> parentUpdater() {
+      return Optional.of(parent);
+    }
+  }
+
+  /**
+   * An account as seen from a checkpoint: changes go to the shared tracker, but only the storage
+   * updates made since the checkpoint was created are reported as updated, as they would be by the
+   * tracker of a stacked updater.
+   */
+  private static class CheckpointAccount<A extends Account> implements MutableAccount {
+    private final JournaledAccount<A> account;
+    private final int mark;
+
+    private CheckpointAccount(final JournaledAccount<A> account, final int mark) {
+      this.account = account;
+      this.mark = mark;
+    }
+
+    @Override
+    public Address getAddress() {
+      return account.getAddress();
+    }
+
+    @Override
+    public Hash getAddressHash() {
+      return account.getAddressHash();
+    }
+
+    @Override
+    public long getNonce() {
+      return account.getNonce();
+    }
+
+    @Override
+    public void setNonce(final long value) {
+      account.setNonce(value);
+    }
+
+    @Override
+    public Wei getBalance() {
+      return account.getBalance();
+    }
+
+    @Override
+    public void setBalance(final Wei value) {
+      account.setBalance(value);
+    }
+
+    @Override
+    public Bytes getCode() {
+      return account.getCode();
+    }
+
+    @Override
+    public Hash getCodeHash() {
+      return account.getCodeHash();
+    }
+
+    @Override
+    public Bytes32 getCodeSize() {
+      return account.getCodeSize();
+    }
+
+    @Override
+    public boolean hasCode() {
+      return account.hasCode();
+    }
+
+    @Override
+    public void setCode(final Bytes code) {
+      account.setCode(code);
+    }
+
+    @Override
+    public int getVersion() {
+      return account.getVersion();
+    }
+
+    @Override
+    public void setVersion(final int version) {
+      account.setVersion(version);
+    }
+
+    @Override
+    public UInt256 getStorageValue(final UInt256 key) {
+      return account.getStorageValue(key);
+    }
+
+    @Override
+    public UInt256 getOriginalStorageValue(final UInt256 key) {
+      return account.getOriginalStorageValue(key);
+    }
+
+    @Override
+    public NavigableMap<Bytes32, AccountStorageEntry> storageEntriesFrom(
+        final Bytes32 startKeyHash, final int limit) {
+      return account.storageEntriesFrom(startKeyHash, limit);
+    }
+
+    @Override
+    public void setStorageValue(final UInt256 key, final UInt256 value) {
+      account.setStorageValue(key, value);
+    }
+
+    @Override
+    public void clearStorage() {
+      account.clearStorage();
+    }
+
+    @Override
+    public Map<UInt256, UInt256> getUpdatedStorage() {
+      return account.updatedStorageSince(mark);
+    }
+  }
+
+  /**
+   * An account tracker recording the previous value of each field it updates in the journal.
+   *
+   * <p>Its storage updates are kept in a hash map, as nothing needs them in key order and 256-bit
+   * keys hash cheaply. The journal position of the last update of each slot is kept alongside, so
+   * that checkpoints can report the slots updated since their creation.
+   */
+  private static class JournaledAccount<A extends Account>
+      extends UpdateTrackingAccount<UpdateTrackingAccount<A>> {
+    private final JournaledUpdater<?, A> updater;
+    private final Map<UInt256, Integer> storagePositions = new HashMap<>();
+
+    private JournaledAccount(final JournaledUpdater<?, A> updater, final Address address) {
+      super(address, new HashMap<>());
+      this.updater = updater;
+    }
+
+    private JournaledAccount(
+        final JournaledUpdater<?, A> updater, final UpdateTrackingAccount<A> account) {
+      super(account, new HashMap<>());
+      this.updater = updater;
+    }
+
+    @Override
+    public void setNonce(final long value) {
+      final long previous = getNonce();
+      updater.record(() -> super.setNonce(previous));
+      super.setNonce(value);
+    }
+
+    @Override
+    public void setBalance(final Wei value) {
+      final Wei previous = getBalance();
+      updater.record(() -> super.setBalance(previous));
+      super.setBalance(value);
+    }
+
+    @Override
+    public void setCode(final Bytes code) {
+      // Restoring null code marks the code as not updated again.
+      final Bytes previous = codeWasUpdated() ? getCode() : null;
+      updater.record(() -> super.setCode(previous));
+      super.setCode(code);
+    }
+
+    @Override
+    public void setVersion(final int version) {
+      final int previous = getVersion();
+      updater.record(() -> super.setVersion(previous));
+      super.setVersion(version);
+    }
+
+    @Override
+    public void setStorageValue(final UInt256 key, final UInt256 value) {
+      final Map<UInt256, UInt256> storage = getUpdatedStorage();
+      final UInt256 previous = storage.get(key);
+      final Integer previousPosition = storagePositions.put(key, updater.journal.size());
+      updater.record(
+          () -> {
+            if (previous == null) {
+              storage.remove(key);
+            } else {
+              storage.put(key, previous);
+            }
+            if (previousPosition == null) {
+              storagePositions.remove(key);
+            } else {
+              storagePositions.put(key, previousPosition);
+            }
+          });
+      super.setStorageValue(key, value);
+    }
+
+    @Override
+    public void clearStorage() {
+      final boolean wasCleared = getStorageWasCleared();
+      final Map<UInt256, UInt256> previous = new HashMap<>(getUpdatedStorage());
+      final Map<UInt256, Integer> previousPositions = new HashMap<>(storagePositions);
+      updater.record(
+          () -> {
+            restoreStorage(wasCleared, previous);
+            storagePositions.putAll(previousPositions);
+          });
+      storagePositions.clear();
+      super.clearStorage();
+    }
+
+    private Map<UInt256, UInt256> updatedStorageSince(final int mark) {
+      final Map<UInt256, UInt256> storage = getUpdatedStorage();
+      final Map<UInt256, UInt256> updated = new HashMap<>();
+      storagePositions.forEach(
+          (key, position) -> {
+            if (position >= mark) {
+              updated.put(key, storage.get(key));
+            }
+          });
+      return updated;
+    }
+  }
+}
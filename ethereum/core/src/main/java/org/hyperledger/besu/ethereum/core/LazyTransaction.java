@@ -0,0 +1,123 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.core;
+
+import org.hyperledger.besu.crypto.SECP256K1;
+import org.hyperledger.besu.ethereum.rlp.RLP;
+import org.hyperledger.besu.ethereum.rlp.RLPOutput;
+import org.hyperledger.besu.plugin.data.Quantity;
+
+import java.math.BigInteger;
+import java.util.Optional;
+
+import org.apache.tuweni.bytes.Bytes;
+
+/**
+ * A {@link Transaction} backed by a view of its RLP encoding, whose fields are decoded on first
+ * access.
+ *
+ * @see Transaction#readLazilyFrom(org.hyperledger.besu.ethereum.rlp.RLPInput)
+ */
+class LazyTransaction extends Transaction {
+
+  private final Bytes rlp;
+  private volatile Transaction decoded;
+
+  LazyTransaction(final Bytes rlp) {
+    super(0, null, null, null, 0, null, null, null, null, null, null);
+    this.rlp = rlp;
+  }
+
+  private Transaction decoded() {
+    Transaction result = decoded;
+    if (result == null) {
+      result = Transaction.readFrom(RLP.input(rlp));
+      decoded = result;
+    }
+    return result;
+  }
+
+  boolean isDecoded() {
+    return decoded != null;
+  }
+
+  @Override
+  public long getNonce() {
+    return decoded().getNonce();
+  }
+
+  @Override
+  public Wei getGasPrice() {
+    return decoded().getGasPrice();
+  }
+
+  @Override
+  public Optional<Quantity> getGasPremium() {
+    return decoded().getGasPremium();
+  }
+
+  @Override
+  public Optional<Quantity> getFeeCap() {
+    return decoded().getFeeCap();
+  }
+
+  @Override
+  public long getGasLimit() {
+    return decoded().getGasLimit();
+  }
+
+  @Override
+  public Optional<Address> getTo() {
+    return decoded().getTo();
+  }
+
+  @Override
+  public Wei getValue() {
+    return decoded().getValue();
+  }
+
+  @Override
+  public SECP256K1.Signature getSignature() {
+    return decoded().getSignature();
+  }
+
+  @Override
+  public Bytes getPayload() {
+    return decoded().getPayload();
+  }
+
+  @Override
+  public Optional<BigInteger> getChainId() {
+    return decoded().getChainId();
+  }
+
+  @Override
+  public Address getSender() {
+    return decoded().getSender();
+  }
+
+  @Override
+  public Hash getHash() {
+    if (hash == null) {
+      hash = Hash.hash(rlp);
+    }
+    return hash;
+  }
+
+  @Override
+  public void writeTo(final RLPOutput out) {
+    out.writeRLPUnsafe(rlp);
+  }
+}
@@ -21,6 +21,7 @@ import org.hyperledger.besu.crypto.SECP256K1;
 import org.hyperledger.besu.enclave.Enclave;
 import org.hyperledger.besu.enclave.EnclaveFactory;
 import org.hyperledger.besu.ethereum.merkleutils.MerkleAwareProvider;
+import org.hyperledger.besu.ethereum.privacy.EnclavePayloadCache;
 import org.hyperledger.besu.ethereum.privacy.storage.PrivacyStorageProvider;
 import org.hyperledger.besu.ethereum.privacy.storage.PrivateStateStorage;
 import org.hyperledger.besu.ethereum.worldstate.WorldStateArchive;
@@ -49,6 +50,7 @@ public class PrivacyParameters {
   private File enclavePublicKeyFile;
   private Optional<SECP256K1.KeyPair> signingKeyPair = Optional.empty();
   private Enclave enclave;
+  private EnclavePayloadCache enclavePayloadCache;
 
   private PrivacyStorageProvider privateStorageProvider;
   private WorldStateArchive privateWorldStateArchive;
@@ -134,6 +136,11 @@ public class PrivacyParameters {
 
   public void setEnclave(final Enclave enclave) {
     this.enclave = enclave;
+    this.enclavePayloadCache = new EnclavePayloadCache(enclave);
+  }
+
+  public EnclavePayloadCache getEnclavePayloadCache() {
+    return enclavePayloadCache;
   }
 
   private void setMultiTenancyEnabled(final boolean multiTenancyEnabled) {
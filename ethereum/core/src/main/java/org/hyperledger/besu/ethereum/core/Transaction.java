@@ -121,6 +121,23 @@ public class Transaction implements org.hyperledger.besu.plugin.data.Transaction
     return builder.signature(signature).build();
   }
 
+  /**
+   * Reads a transaction without decoding its fields.
+   *
+   * <p>The returned transaction keeps a view of its RLP encoding, from which its hash is computed
+   * and which it writes back as is. Its fields are only decoded the first time one of them is
+   * accessed, so consumers that only need the hashes of the transactions of a block, or their
+   * count, never pay for decoding them. It is meant for RLP that is already known to be
+   * well-formed, or that is validated against a transactions root before the fields are used.
+   *
+   * @param input the input to read the transaction from
+   * @return the transaction
+   * @throws RLPException if the next item of the input is not a list
+   */
+  public static Transaction readLazilyFrom(final RLPInput input) throws RLPException {
+    return new LazyTransaction(input.currentListAsBytes());
+  }
+
   public static Transaction readFromExperimental(final RLPInput input) throws RLPException {
     input.enterList();
 
@@ -340,7 +357,7 @@ public class Transaction implements org.hyperledger.besu.plugin.data.Transaction
    */
   @Override
   public Optional<Bytes> getInit() {
-    return getTo().isPresent() ? Optional.empty() : Optional.of(payload);
+    return getTo().isPresent() ? Optional.empty() : Optional.of(getPayload());
   }
 
   /**
@@ -350,7 +367,7 @@ public class Transaction implements org.hyperledger.besu.plugin.data.Transaction
    */
   @Override
   public Optional<Bytes> getData() {
-    return getTo().isPresent() ? Optional.of(payload) : Optional.empty();
+    return getTo().isPresent() ? Optional.of(getPayload()) : Optional.empty();
   }
 
   /**
@@ -433,18 +450,19 @@ public class Transaction implements org.hyperledger.besu.plugin.data.Transaction
 
   @Override
   public BigInteger getR() {
-    return signature.getR();
+    return getSignature().getR();
   }
 
   @Override
   public BigInteger getS() {
-    return signature.getS();
+    return getSignature().getS();
   }
 
   @Override
   public BigInteger getV() {
     final BigInteger v;
-    final BigInteger recId = BigInteger.valueOf(signature.getRecId());
+    final BigInteger recId = BigInteger.valueOf(getSignature().getRecId());
+    final Optional<BigInteger> chainId = getChainId();
     if (chainId.isEmpty()) {
       v = recId.add(REPLAY_UNPROTECTED_V_BASE);
     } else {
@@ -557,22 +575,31 @@ public class Transaction implements org.hyperledger.besu.plugin.data.Transaction
       return false;
     }
     final Transaction that = (Transaction) other;
-    return this.chainId.equals(that.chainId)
-        && this.gasLimit == that.gasLimit
-        && Objects.equals(this.gasPrice, that.gasPrice)
-        && Objects.equals(this.gasPremium, that.gasPremium)
-        && Objects.equals(this.feeCap, that.feeCap)
-        && this.nonce == that.nonce
-        && this.payload.equals(that.payload)
-        && this.signature.equals(that.signature)
-        && this.to.equals(that.to)
-        && this.value.equals(that.value);
+    return this.getChainId().equals(that.getChainId())
+        && this.getGasLimit() == that.getGasLimit()
+        && Objects.equals(this.getGasPrice(), that.getGasPrice())
+        && Objects.equals(this.getGasPremium(), that.getGasPremium())
+        && Objects.equals(this.getFeeCap(), that.getFeeCap())
+        && this.getNonce() == that.getNonce()
+        && this.getPayload().equals(that.getPayload())
+        && this.getSignature().equals(that.getSignature())
+        && this.getTo().equals(that.getTo())
+        && this.getValue().equals(that.getValue());
   }
 
   @Override
   public int hashCode() {
     return Objects.hash(
-        nonce, gasPrice, gasPremium, feeCap, gasLimit, to, value, payload, signature, chainId);
+        getNonce(),
+        getGasPrice(),
+        getGasPremium(),
+        getFeeCap(),
+        getGasLimit(),
+        getTo(),
+        getValue(),
+        getPayload(),
+        getSignature(),
+        getChainId());
   }
 
   @Override
@@ -589,7 +616,7 @@ public class Transaction implements org.hyperledger.besu.plugin.data.Transaction
     if (getTo().isPresent()) sb.append("to=").append(getTo().get()).append(", ");
     sb.append("value=").append(getValue()).append(", ");
     sb.append("sig=").append(getSignature()).append(", ");
-    if (chainId.isPresent()) sb.append("chainId=").append(getChainId().get()).append(", ");
+    if (getChainId().isPresent()) sb.append("chainId=").append(getChainId().get()).append(", ");
     sb.append("payload=").append(getPayload());
     return sb.append("}").toString();
   }
@@ -103,6 +103,19 @@ public interface WorldUpdater extends MutableWorldView {
    */
   Collection<Address> getDeletedAccountAddresses();
 
+  /**
+   * Creates an updater for the execution of a single transaction on top of this updater.
+   *
+   * <p>Nested updaters of the returned updater may be cheap checkpoints of its changes rather than
+   * independent buffers, so they must be committed or reverted in the reverse order of their
+   * creation, as message frames are.
+   *
+   * @return a new updater on top of this updater.
+   */
+  default WorldUpdater transactionUpdater() {
+    return updater();
+  }
+
   /** Removes the changes that were made to this updater. */
   void revert();
 
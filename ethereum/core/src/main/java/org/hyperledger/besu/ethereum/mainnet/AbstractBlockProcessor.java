@@ -28,6 +28,7 @@ import org.hyperledger.besu.ethereum.vm.BlockHashLookup;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 
 import com.google.common.collect.ImmutableList;
 import org.apache.logging.log4j.LogManager;
@@ -89,6 +90,8 @@ public abstract class AbstractBlockProcessor implements BlockProcessor {
 
   private final MiningBeneficiaryCalculator miningBeneficiaryCalculator;
 
+  private Optional<ParallelTransactionExecutor> parallelTransactionExecutor = Optional.empty();
+
   public AbstractBlockProcessor(final AbstractBlockProcessor blockProcessor) {
     this(
         blockProcessor.transactionProcessor,
@@ -121,8 +124,27 @@ public abstract class AbstractBlockProcessor implements BlockProcessor {
 
     long gasUsed = 0;
     final List<TransactionReceipt> receipts = new ArrayList<>();
-
-    for (final Transaction transaction : transactions) {
+    final Address miningBeneficiary = miningBeneficiaryCalculator.calculateBeneficiary(blockHeader);
+
+    final long start = System.nanoTime();
+    final List<ParallelTransactionExecutor.Speculation> speculations =
+        parallelTransactionExecutor.isPresent() && transactions.size() > 1
+            ? parallelTransactionExecutor
+                .get()
+                .speculate(
+                    blockchain,
+                    worldState,
+                    blockHeader,
+                    transactions,
+                    miningBeneficiary,
+                    transactionProcessor)
+            : null;
+    final SpeculativeWorldUpdater.Writes writes =
+        speculations == null ? null : new SpeculativeWorldUpdater.Writes();
+    int conflicts = 0;
+
+    for (int i = 0; i < transactions.size(); i++) {
+      final Transaction transaction = transactions.get(i);
       final long remainingGasBudget = blockHeader.getGasLimit() - gasUsed;
       if (Long.compareUnsigned(transaction.getGasLimit(), remainingGasBudget) > 0) {
         LOG.warn(
@@ -133,24 +155,32 @@ public abstract class AbstractBlockProcessor implements BlockProcessor {
       }
 
       final WorldUpdater worldStateUpdater = worldState.updater();
-      final BlockHashLookup blockHashLookup = new BlockHashLookup(blockHeader, blockchain);
-      final Address miningBeneficiary =
-          miningBeneficiaryCalculator.calculateBeneficiary(blockHeader);
-
-      final TransactionProcessor.Result result =
-          transactionProcessor.processTransaction(
-              blockchain,
-              worldStateUpdater,
-              blockHeader,
-              transaction,
-              miningBeneficiary,
-              blockHashLookup,
-              true,
-              TransactionValidationParams.processingBlock());
+      final TransactionProcessor.Result result;
+      if (speculations != null && speculations.get(i).applyTo(worldStateUpdater, writes)) {
+        result = speculations.get(i).getResult();
+      } else {
+        if (speculations != null) {
+          conflicts++;
+        }
+        final BlockHashLookup blockHashLookup = new BlockHashLookup(blockHeader, blockchain);
+        result =
+            transactionProcessor.processTransaction(
+                blockchain,
+                worldStateUpdater,
+                blockHeader,
+                transaction,
+                miningBeneficiary,
+                blockHashLookup,
+                true,
+                TransactionValidationParams.processingBlock());
+      }
       if (result.isInvalid()) {
         return AbstractBlockProcessor.Result.failed();
       }
 
+      if (writes != null) {
+        writes.record(worldStateUpdater);
+      }
       worldStateUpdater.commit();
       gasUsed = transaction.getGasLimit() - result.getGasRemaining() + gasUsed;
       final TransactionReceipt transactionReceipt =
@@ -158,6 +188,18 @@ public abstract class AbstractBlockProcessor implements BlockProcessor {
       receipts.add(transactionReceipt);
     }
 
+    if (speculations != null) {
+      parallelTransactionExecutor
+          .get()
+          .recordBlock(
+              transactions.size(),
+              conflicts,
+              speculations.stream()
+                  .mapToLong(ParallelTransactionExecutor.Speculation::getExecutionNanos)
+                  .sum(),
+              System.nanoTime() - start);
+    }
+
     if (!rewardCoinbase(worldState, blockHeader, ommers, skipZeroBlockRewards)) {
       return AbstractBlockProcessor.Result.failed();
     }
@@ -166,6 +208,17 @@ public abstract class AbstractBlockProcessor implements BlockProcessor {
     return AbstractBlockProcessor.Result.successful(receipts);
   }
 
+  /**
+   * Enables the speculative parallel execution of the transactions of blocks with more than one
+   * transaction.
+   *
+   * @param parallelTransactionExecutor the executor running the speculative executions.
+   */
+  public void setParallelTransactionExecutor(
+      final ParallelTransactionExecutor parallelTransactionExecutor) {
+    this.parallelTransactionExecutor = Optional.of(parallelTransactionExecutor);
+  }
+
   abstract boolean rewardCoinbase(
       final MutableWorldState worldState,
       final ProcessableBlockHeader header,
@@ -22,14 +22,10 @@ import org.hyperledger.besu.ethereum.core.LogsBloomFilter;
 import org.hyperledger.besu.ethereum.core.Transaction;
 import org.hyperledger.besu.ethereum.core.TransactionReceipt;
 import org.hyperledger.besu.ethereum.rlp.RLP;
-import org.hyperledger.besu.ethereum.trie.MerklePatriciaTrie;
-import org.hyperledger.besu.ethereum.trie.SimpleMerklePatriciaTrie;
+import org.hyperledger.besu.ethereum.trie.OrderedListTrieRoot;
 
 import java.util.List;
 
-import org.apache.tuweni.bytes.Bytes;
-import org.apache.tuweni.units.bigints.UInt256;
-
 /** A utility class for body validation tasks. */
 public final class BodyValidation {
 
@@ -37,14 +33,6 @@ public final class BodyValidation {
     // Utility Class
   }
 
-  private static Bytes indexKey(final int i) {
-    return RLP.encodeOne(UInt256.valueOf(i).toBytes().trimLeadingZeros());
-  }
-
-  private static MerklePatriciaTrie<Bytes, Bytes> trie() {
-    return new SimpleMerklePatriciaTrie<>(b -> b);
-  }
-
   /**
    * Generates the transaction root for a list of transactions
    *
@@ -52,10 +40,10 @@ public final class BodyValidation {
    * @return the transaction root
    */
   public static Hash transactionsRoot(final List<Transaction> transactions) {
-    final MerklePatriciaTrie<Bytes, Bytes> trie = trie();
+    final OrderedListTrieRoot trie = new OrderedListTrieRoot();
 
-    for (int i = 0; i < transactions.size(); ++i) {
-      trie.put(indexKey(i), RLP.encode(transactions.get(i)::writeTo));
+    for (final Transaction transaction : transactions) {
+      trie.append(RLP.encode(transaction::writeTo));
     }
 
     return Hash.wrap(trie.getRootHash());
@@ -68,10 +56,10 @@ public final class BodyValidation {
    * @return the receipt root
    */
   public static Hash receiptsRoot(final List<TransactionReceipt> receipts) {
-    final MerklePatriciaTrie<Bytes, Bytes> trie = trie();
+    final OrderedListTrieRoot trie = new OrderedListTrieRoot();
 
-    for (int i = 0; i < receipts.size(); ++i) {
-      trie.put(indexKey(i), RLP.encode(receipts.get(i)::writeTo));
+    for (final TransactionReceipt receipt : receipts) {
+      trie.append(RLP.encode(receipt::writeTo));
     }
 
     return Hash.wrap(trie.getRootHash());
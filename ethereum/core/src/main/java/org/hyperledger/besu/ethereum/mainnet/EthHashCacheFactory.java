@@ -14,19 +14,75 @@
  */
 package org.hyperledger.besu.ethereum.mainnet;
 
+import org.hyperledger.besu.metrics.BesuMetricCategory;
+import org.hyperledger.besu.metrics.noop.NoOpMetricsSystem;
+import org.hyperledger.besu.plugin.services.MetricsSystem;
+import org.hyperledger.besu.plugin.services.metrics.Counter;
+import org.hyperledger.besu.plugin.services.metrics.LabelledMetric;
+import org.hyperledger.besu.plugin.services.metrics.OperationTimer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.primitives.Ints;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 
+/**
+ * Provides the EthHash caches used to verify proofs of work.
+ *
+ * <p>Once blocks get within {@link #PRECOMPUTE_DISTANCE} of the next epoch, the cache for that
+ * epoch is generated in the background so that validation doesn't stall at the boundary. When a
+ * cache directory is configured, generated caches are written there and later memory-mapped instead
+ * of being regenerated, which also spares restarts from regenerating them.
+ */
 public class EthHashCacheFactory {
+  private static final Logger LOG = LogManager.getLogger();
+
+  static final long PRECOMPUTE_DISTANCE = EthHash.EPOCH_LENGTH / 10;
+
+  // Caches of epochs older than the newest written one minus this are deleted
+  private static final long RETAINED_EPOCHS = 2;
+  private static final Pattern CACHE_FILE_NAME = Pattern.compile("cache-(\\d+)\\.bin");
+
+  private static final EthHashCacheFactory SHARED =
+      new EthHashCacheFactory(
+          Executors.newSingleThreadExecutor(
+              new ThreadFactoryBuilder()
+                  .setDaemon(true)
+                  .setNameFormat(EthHashCacheFactory.class.getSimpleName() + "-%d")
+                  .build()));
 
   public static class EthHashDescriptor {
     private final long datasetSize;
-    private final int[] cache;
+    private final IntBuffer cache;
 
     public EthHashDescriptor(final long datasetSize, final int[] cache) {
+      this(datasetSize, IntBuffer.wrap(cache));
+    }
+
+    public EthHashDescriptor(final long datasetSize, final IntBuffer cache) {
       this.datasetSize = datasetSize;
       this.cache = cache;
     }
@@ -35,25 +91,201 @@ public class EthHashCacheFactory {
       return datasetSize;
     }
 
-    public int[] getCache() {
+    /**
+     * The cache, which may be backed by a memory-mapped file.
+     *
+     * @return the cache, to be read with absolute gets only
+     */
+    public IntBuffer getCache() {
       return cache;
     }
   }
 
-  Cache<Long, EthHashDescriptor> descriptorCache = CacheBuilder.newBuilder().maximumSize(5).build();
+  private final Cache<Long, EthHashDescriptor> descriptorCache =
+      CacheBuilder.newBuilder().maximumSize(5).build();
+  private final Set<Long> scheduledEpochs = ConcurrentHashMap.newKeySet();
+  private final Executor executor;
+
+  private volatile Optional<Path> cacheDirectory = Optional.empty();
+  private volatile OperationTimer generationTimer;
+  private volatile LabelledMetric<Counter> cachesCounter;
+
+  @VisibleForTesting
+  EthHashCacheFactory(final Executor executor) {
+    this.executor = executor;
+    registerMetrics(new NoOpMetricsSystem());
+  }
+
+  /**
+   * The factory shared by every {@link EthHasher.Light}.
+   *
+   * @return the shared factory
+   */
+  public static EthHashCacheFactory shared() {
+    return SHARED;
+  }
+
+  /**
+   * Persist generated caches to the given directory and report on the given metrics system.
+   *
+   * @param cacheDirectory directory holding the cache files, created if needed
+   * @param metricsSystem metrics system to report cache generation to
+   */
+  public void configure(final Path cacheDirectory, final MetricsSystem metricsSystem) {
+    try {
+      Files.createDirectories(cacheDirectory);
+      this.cacheDirectory = Optional.of(cacheDirectory);
+    } catch (final IOException e) {
+      LOG.warn("Unable to create EthHash cache directory {}", cacheDirectory, e);
+    }
+    registerMetrics(metricsSystem);
+  }
+
+  private void registerMetrics(final MetricsSystem metricsSystem) {
+    generationTimer =
+        metricsSystem.createTimer(
+            BesuMetricCategory.BLOCKCHAIN,
+            "ethash_cache_generation_seconds",
+            "Time taken to generate an EthHash cache");
+    cachesCounter =
+        metricsSystem.createLabelledCounter(
+            BesuMetricCategory.BLOCKCHAIN,
+            "ethash_caches_total",
+            "Number of EthHash caches made available, by source",
+            "source");
+    metricsSystem.createIntegerGauge(
+        BesuMetricCategory.BLOCKCHAIN,
+        "ethash_caches_available",
+        "Number of EthHash caches held in memory",
+        () -> (int) descriptorCache.size());
+  }
 
   public EthHashDescriptor ethHashCacheFor(final long blockNumber) {
     final long epochIndex = EthHash.epoch(blockNumber);
+    if (EthHash.EPOCH_LENGTH - blockNumber % EthHash.EPOCH_LENGTH <= PRECOMPUTE_DISTANCE) {
+      precompute(epochIndex + 1);
+    }
+    return descriptorFor(epochIndex, "generated");
+  }
+
+  private void precompute(final long epochIndex) {
+    if (descriptorCache.getIfPresent(epochIndex) != null || !scheduledEpochs.add(epochIndex)) {
+      return;
+    }
+    executor.execute(
+        () -> {
+          try {
+            descriptorFor(epochIndex, "precomputed");
+          } catch (final RuntimeException e) {
+            LOG.warn("Failed to precompute the EthHash cache for epoch {}", epochIndex, e);
+          } finally {
+            scheduledEpochs.remove(epochIndex);
+          }
+        });
+  }
+
+  private EthHashDescriptor descriptorFor(final long epochIndex, final String source) {
     try {
-      return descriptorCache.get(epochIndex, () -> createHashCache(epochIndex, blockNumber));
+      // Concurrent requests for the same epoch wait for a single load
+      return descriptorCache.get(epochIndex, () -> loadOrCreateHashCache(epochIndex, source));
     } catch (final ExecutionException ex) {
       throw new RuntimeException("Failed to create a suitable cache for EthHash calculations.", ex);
     }
   }
 
-  private EthHashDescriptor createHashCache(final long epochIndex, final long blockNumber) {
-    final int[] cache =
-        EthHash.mkCache(Ints.checkedCast(EthHash.cacheSize(epochIndex)), blockNumber);
-    return new EthHashDescriptor(EthHash.datasetSize(epochIndex), cache);
+  private EthHashDescriptor loadOrCreateHashCache(final long epochIndex, final String source) {
+    final long datasetSize = EthHash.datasetSize(epochIndex);
+    final Optional<Path> directory = cacheDirectory;
+    if (directory.isPresent()) {
+      final Optional<IntBuffer> cache = loadHashCache(directory.get(), epochIndex);
+      if (cache.isPresent()) {
+        cachesCounter.labels("loaded").inc();
+        return new EthHashDescriptor(datasetSize, cache.get());
+      }
+    }
+
+    final int[] cache;
+    try (final OperationTimer.TimingContext ignored = generationTimer.startTimer()) {
+      cache =
+          EthHash.mkCache(
+              Ints.checkedCast(EthHash.cacheSize(epochIndex)), epochIndex * EthHash.EPOCH_LENGTH);
+    }
+    cachesCounter.labels(source).inc();
+    LOG.debug("Generated EthHash cache for epoch {}", epochIndex);
+
+    if (directory.isPresent()) {
+      try {
+        storeHashCache(directory.get(), epochIndex, cache);
+        // Map it back so the heap copy can be dropped
+        final Optional<IntBuffer> mapped = loadHashCache(directory.get(), epochIndex);
+        if (mapped.isPresent()) {
+          return new EthHashDescriptor(datasetSize, mapped.get());
+        }
+      } catch (final IOException | UncheckedIOException e) {
+        LOG.warn("Unable to persist the EthHash cache for epoch {}", epochIndex, e);
+      }
+    }
+    return new EthHashDescriptor(datasetSize, cache);
+  }
+
+  private static Optional<IntBuffer> loadHashCache(final Path directory, final long epochIndex) {
+    final Path file = cacheFile(directory, epochIndex);
+    if (!Files.isRegularFile(file)) {
+      return Optional.empty();
+    }
+    try (final FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      // Files are written under a temporary name and then renamed, so only the size can be off
+      if (channel.size() != EthHash.cacheSize(epochIndex)) {
+        LOG.warn("Ignoring EthHash cache file {} with unexpected size", file);
+        return Optional.empty();
+      }
+      final ByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+      return Optional.of(mapped.order(ByteOrder.LITTLE_ENDIAN).asIntBuffer());
+    } catch (final IOException e) {
+      LOG.warn("Unable to load EthHash cache file {}", file, e);
+      return Optional.empty();
+    }
+  }
+
+  private static void storeHashCache(final Path directory, final long epochIndex, final int[] cache)
+      throws IOException {
+    final ByteBuffer buffer =
+        ByteBuffer.allocate(cache.length * Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+    buffer.asIntBuffer().put(cache);
+    final Path file = cacheFile(directory, epochIndex);
+    final Path temporaryFile = Files.createTempFile(directory, file.getFileName().toString(), null);
+    try {
+      try (final FileChannel channel = FileChannel.open(temporaryFile, StandardOpenOption.WRITE)) {
+        while (buffer.hasRemaining()) {
+          channel.write(buffer);
+        }
+        channel.force(true);
+      }
+      Files.move(temporaryFile, file, StandardCopyOption.ATOMIC_MOVE);
+    } finally {
+      Files.deleteIfExists(temporaryFile);
+    }
+    deleteHashCachesBefore(directory, epochIndex - RETAINED_EPOCHS);
+  }
+
+  private static void deleteHashCachesBefore(final Path directory, final long epochIndex)
+      throws IOException {
+    try (final Stream<Path> files = Files.list(directory)) {
+      files.forEach(
+          file -> {
+            final Matcher matcher = CACHE_FILE_NAME.matcher(file.getFileName().toString());
+            if (matcher.matches() && Long.parseLong(matcher.group(1)) < epochIndex) {
+              try {
+                Files.deleteIfExists(file);
+              } catch (final IOException e) {
+                throw new UncheckedIOException(e);
+              }
+            }
+          });
+    }
+  }
+
+  private static Path cacheFile(final Path directory, final long epochIndex) {
+    return directory.resolve("cache-" + epochIndex + ".bin");
   }
 }
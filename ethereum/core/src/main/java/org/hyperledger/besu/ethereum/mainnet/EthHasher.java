@@ -26,7 +26,7 @@ public interface EthHasher {
 
   final class Light implements EthHasher {
 
-    private static final EthHashCacheFactory cacheFactory = new EthHashCacheFactory();
+    private static final EthHashCacheFactory cacheFactory = EthHashCacheFactory.shared();
 
     @Override
     public void hash(
@@ -20,6 +20,7 @@ import org.hyperledger.besu.ethereum.chain.MutableBlockchain;
 import org.hyperledger.besu.ethereum.core.Block;
 import org.hyperledger.besu.ethereum.core.BlockImporter;
 import org.hyperledger.besu.ethereum.core.TransactionReceipt;
+import org.hyperledger.besu.ethereum.storage.WriteBatch;
 
 import java.util.List;
 import java.util.Optional;
@@ -55,9 +56,12 @@ public class MainnetBlockImporter<C> implements BlockImporter<C> {
       final BlockValidator.BlockProcessingOutputs processingOutputs,
       final Block block,
       final ProtocolContext<C> context) {
-    processingOutputs.worldState.persist();
-    final MutableBlockchain blockchain = context.getBlockchain();
-    blockchain.appendBlock(block, processingOutputs.receipts);
+    // The world state, pruner marks and chain data of the block are persisted in a single write
+    try (final WriteBatch ignored = context.startWriteBatch()) {
+      processingOutputs.worldState.persist();
+      final MutableBlockchain blockchain = context.getBlockchain();
+      blockchain.appendBlock(block, processingOutputs.receipts);
+    }
   }
 
   @Override
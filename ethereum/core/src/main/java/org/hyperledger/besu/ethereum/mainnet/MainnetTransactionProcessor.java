@@ -217,7 +217,7 @@ public class MainnetTransactionProcessor implements TransactionProcessor {
         transaction.getGasLimit(),
         intrinsicGas);
 
-    final WorldUpdater worldUpdater = worldState.updater();
+    final WorldUpdater worldUpdater = worldState.transactionUpdater();
     final MessageFrame initialFrame;
     final Deque<MessageFrame> messageFrameStack = new ArrayDeque<>();
     if (transaction.isContractCreation()) {
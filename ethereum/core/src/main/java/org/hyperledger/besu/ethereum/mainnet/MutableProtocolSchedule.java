@@ -88,4 +88,11 @@ public class MutableProtocolSchedule<C> implements ProtocolSchedule<C> {
             spec.getSpec()
                 .setPublicWorldStateArchiveForPrivacyBlockProcessor(publicWorldStateArchive));
   }
+
+  @Override
+  public void setParallelTransactionExecutor(
+      final ParallelTransactionExecutor parallelTransactionExecutor) {
+    protocolSpecs.forEach(
+        spec -> spec.getSpec().setParallelTransactionExecutor(parallelTransactionExecutor));
+  }
 }
@@ -0,0 +1,237 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.mainnet;
+
+import org.hyperledger.besu.ethereum.chain.Blockchain;
+import org.hyperledger.besu.ethereum.core.Address;
+import org.hyperledger.besu.ethereum.core.BlockHeader;
+import org.hyperledger.besu.ethereum.core.Transaction;
+import org.hyperledger.besu.ethereum.core.WorldUpdater;
+import org.hyperledger.besu.ethereum.core.WorldView;
+import org.hyperledger.besu.ethereum.vm.BlockHashLookup;
+import org.hyperledger.besu.metrics.BesuMetricCategory;
+import org.hyperledger.besu.plugin.services.MetricsSystem;
+import org.hyperledger.besu.plugin.services.metrics.Counter;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.google.common.util.concurrent.AtomicDouble;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Executes the transactions of a block speculatively and in parallel, each against the world state
+ * as it was at the start of the block.
+ *
+ * <p>The block processor then walks the transactions in block order: the updates of a speculative
+ * execution are replayed on the world state if none of the accounts and storage slots it read were
+ * written by an earlier transaction of the block, and the transaction is re-executed sequentially
+ * otherwise. The resulting world state and receipts are therefore identical to those of a purely
+ * sequential execution.
+ */
+public class ParallelTransactionExecutor {
+  private static final Logger LOG = LogManager.getLogger();
+
+  private final ExecutorService executorService;
+
+  private final Counter transactionsCounter;
+  private final Counter conflictsCounter;
+  private final AtomicLong transactions = new AtomicLong();
+  private final AtomicLong conflicts = new AtomicLong();
+  private final AtomicDouble lastSpeedup = new AtomicDouble();
+
+  public ParallelTransactionExecutor(
+      final ExecutorService executorService, final MetricsSystem metricsSystem) {
+    this.executorService = executorService;
+    this.transactionsCounter =
+        metricsSystem.createCounter(
+            BesuMetricCategory.BLOCKCHAIN,
+            "parallel_transactions_total",
+            "Number of transactions executed speculatively in parallel");
+    this.conflictsCounter =
+        metricsSystem.createCounter(
+            BesuMetricCategory.BLOCKCHAIN,
+            "parallel_transaction_conflicts_total",
+            "Number of speculatively executed transactions that had to be re-executed");
+    metricsSystem.createGauge(
+        BesuMetricCategory.BLOCKCHAIN,
+        "parallel_transaction_conflict_rate",
+        "Ratio of speculatively executed transactions that had to be re-executed",
+        this::getConflictRate);
+    metricsSystem.createGauge(
+        BesuMetricCategory.BLOCKCHAIN,
+        "parallel_transaction_speedup",
+        "Transaction execution time over block processing time for the last block processed in parallel",
+        lastSpeedup::get);
+  }
+
+  public static ParallelTransactionExecutor create(final MetricsSystem metricsSystem) {
+    return new ParallelTransactionExecutor(
+        Executors.newFixedThreadPool(
+            Runtime.getRuntime().availableProcessors(),
+            new ThreadFactoryBuilder()
+                .setDaemon(true)
+                .setNameFormat("ParallelTransactionExecutor-%d")
+                .build()),
+        metricsSystem);
+  }
+
+  /**
+   * Executes the given transactions speculatively, waiting for all executions to complete.
+   *
+   * @param blockchain the blockchain the block belongs to.
+   * @param worldState the world state at the start of the block. It must not be modified until this
+   *     method returns.
+   * @param blockHeader the header of the block.
+   * @param transactions the transactions of the block.
+   * @param miningBeneficiary the address credited with the transaction fees.
+   * @param transactionProcessor the processor used to execute the transactions.
+   * @return the speculative executions, in the order of the transactions.
+   */
+  List<Speculation> speculate(
+      final Blockchain blockchain,
+      final WorldView worldState,
+      final BlockHeader blockHeader,
+      final List<Transaction> transactions,
+      final Address miningBeneficiary,
+      final TransactionProcessor transactionProcessor) {
+    final List<CompletableFuture<Speculation>> futures = new ArrayList<>(transactions.size());
+    final Set<Address> senders = new HashSet<>();
+    for (final Transaction transaction : transactions) {
+      if (!senders.add(transaction.getSender())) {
+        // Its nonce depends on an earlier transaction of the block, so it is bound to conflict.
+        futures.add(CompletableFuture.completedFuture(Speculation.SKIPPED));
+        continue;
+      }
+      futures.add(
+          CompletableFuture.supplyAsync(
+              () ->
+                  execute(
+                      blockchain,
+                      worldState,
+                      blockHeader,
+                      transaction,
+                      miningBeneficiary,
+                      transactionProcessor),
+              executorService));
+    }
+    final List<Speculation> speculations = new ArrayList<>(futures.size());
+    for (final CompletableFuture<Speculation> future : futures) {
+      speculations.add(future.join());
+    }
+    return speculations;
+  }
+
+  private static Speculation execute(
+      final Blockchain blockchain,
+      final WorldView worldState,
+      final BlockHeader blockHeader,
+      final Transaction transaction,
+      final Address miningBeneficiary,
+      final TransactionProcessor transactionProcessor) {
+    final long start = System.nanoTime();
+    final SpeculativeWorldUpdater updater =
+        new SpeculativeWorldUpdater(worldState, miningBeneficiary, transaction.getSender());
+    TransactionProcessor.Result result;
+    try {
+      result =
+          transactionProcessor.processTransaction(
+              blockchain,
+              updater,
+              blockHeader,
+              transaction,
+              miningBeneficiary,
+              new BlockHashLookup(blockHeader, blockchain),
+              true,
+              TransactionValidationParams.processingBlock());
+    } catch (final RuntimeException e) {
+      // The transaction will be re-executed sequentially, which surfaces any genuine failure.
+      LOG.trace("Speculative execution of transaction {} failed", transaction.getHash(), e);
+      result = null;
+    }
+    return new Speculation(updater, result, System.nanoTime() - start);
+  }
+
+  /**
+   * Records the outcome of processing a block in parallel.
+   *
+   * @param transactionCount the number of transactions executed speculatively.
+   * @param conflictCount the number of those transactions that were re-executed.
+   * @param executionNanos the total time spent executing the transactions speculatively.
+   * @param elapsedNanos the time spent processing the transactions of the block.
+   */
+  void recordBlock(
+      final int transactionCount,
+      final int conflictCount,
+      final long executionNanos,
+      final long elapsedNanos) {
+    transactionsCounter.inc(transactionCount);
+    conflictsCounter.inc(conflictCount);
+    transactions.addAndGet(transactionCount);
+    conflicts.addAndGet(conflictCount);
+    if (elapsedNanos > 0) {
+      lastSpeedup.set((double) executionNanos / elapsedNanos);
+    }
+  }
+
+  private double getConflictRate() {
+    final long total = transactions.get();
+    return total == 0 ? 0 : (double) conflicts.get() / total;
+  }
+
+  static class Speculation {
+    private static final Speculation SKIPPED = new Speculation(null, null, 0);
+
+    private final SpeculativeWorldUpdater updater;
+    private final TransactionProcessor.Result result;
+    private final long executionNanos;
+
+    private Speculation(
+        final SpeculativeWorldUpdater updater,
+        final TransactionProcessor.Result result,
+        final long executionNanos) {
+      this.updater = updater;
+      this.result = result;
+      this.executionNanos = executionNanos;
+    }
+
+    /**
+     * Replays this speculative execution on the given updater if it is still valid.
+     *
+     * @param worldUpdater the updater for the transaction.
+     * @param writes the writes of the transactions preceding this one in the block.
+     * @return {@code true} if the updates were replayed.
+     */
+    boolean applyTo(final WorldUpdater worldUpdater, final SpeculativeWorldUpdater.Writes writes) {
+      return result != null && !result.isInvalid() && updater.applyTo(worldUpdater, writes);
+    }
+
+    TransactionProcessor.Result getResult() {
+      return result;
+    }
+
+    long getExecutionNanos() {
+      return executionNanos;
+    }
+  }
+}
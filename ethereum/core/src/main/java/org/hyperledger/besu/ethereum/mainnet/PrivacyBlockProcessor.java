@@ -23,6 +23,7 @@ import org.hyperledger.besu.ethereum.core.BlockHeader;
 import org.hyperledger.besu.ethereum.core.Hash;
 import org.hyperledger.besu.ethereum.core.MutableWorldState;
 import org.hyperledger.besu.ethereum.core.Transaction;
+import org.hyperledger.besu.ethereum.privacy.EnclavePayloadCache;
 import org.hyperledger.besu.ethereum.privacy.PrivateStateRehydration;
 import org.hyperledger.besu.ethereum.privacy.PrivateTransactionWithMetadata;
 import org.hyperledger.besu.ethereum.privacy.storage.PrivacyGroupHeadBlockMap;
@@ -49,7 +50,8 @@ public class PrivacyBlockProcessor implements BlockProcessor {
 
   private final BlockProcessor blockProcessor;
   private final ProtocolSchedule<?> protocolSchedule;
-  private final Enclave enclave;
+  private final EnclavePayloadCache enclavePayloadCache;
+  private final Address privacyPrecompileAddress;
   private final PrivateStateStorage privateStateStorage;
   private final WorldStateArchive privateWorldStateArchive;
   private WorldStateArchive publicWorldStateArchive;
@@ -60,9 +62,26 @@ public class PrivacyBlockProcessor implements BlockProcessor {
       final Enclave enclave,
       final PrivateStateStorage privateStateStorage,
       final WorldStateArchive privateWorldStateArchive) {
+    this(
+        blockProcessor,
+        protocolSchedule,
+        new EnclavePayloadCache(enclave),
+        Address.DEFAULT_PRIVACY,
+        privateStateStorage,
+        privateWorldStateArchive);
+  }
+
+  public <C> PrivacyBlockProcessor(
+      final BlockProcessor blockProcessor,
+      final ProtocolSchedule<C> protocolSchedule,
+      final EnclavePayloadCache enclavePayloadCache,
+      final Address privacyPrecompileAddress,
+      final PrivateStateStorage privateStateStorage,
+      final WorldStateArchive privateWorldStateArchive) {
     this.blockProcessor = blockProcessor;
     this.protocolSchedule = protocolSchedule;
-    this.enclave = enclave;
+    this.enclavePayloadCache = enclavePayloadCache;
+    this.privacyPrecompileAddress = privacyPrecompileAddress;
     this.privateStateStorage = privateStateStorage;
     this.privateWorldStateArchive = privateWorldStateArchive;
   }
@@ -79,6 +98,7 @@ public class PrivacyBlockProcessor implements BlockProcessor {
       final List<Transaction> transactions,
       final List<BlockHeader> ommers) {
 
+    prefetchPayloads(transactions);
     maybeRehydrate(blockchain, blockHeader, transactions);
 
     final PrivacyGroupHeadBlockMap privacyGroupHeadBlockMap =
@@ -93,6 +113,23 @@ public class PrivacyBlockProcessor implements BlockProcessor {
     return blockProcessor.processBlock(blockchain, worldState, blockHeader, transactions, ommers);
   }
 
+  private void prefetchPayloads(final List<Transaction> transactions) {
+    final List<String> enclaveKeys = new ArrayList<>();
+    for (final Transaction transaction : transactions) {
+      final Optional<Address> to = transaction.getTo();
+      final Bytes payload = transaction.getPayload();
+      if (to.equals(Optional.of(privacyPrecompileAddress))) {
+        enclaveKeys.add(payload.toBase64String());
+      } else if (to.equals(Optional.of(Address.ONCHAIN_PRIVACY)) && payload.size() >= 32) {
+        enclaveKeys.add(payload.slice(0, 32).toBase64String());
+        if (payload.size() == 64) {
+          enclaveKeys.add(payload.slice(32, 32).toBase64String());
+        }
+      }
+    }
+    enclavePayloadCache.prefetch(enclaveKeys);
+  }
+
   void maybeRehydrate(
       final Blockchain blockchain,
       final BlockHeader blockHeader,
@@ -107,7 +144,8 @@ public class PrivacyBlockProcessor implements BlockProcessor {
             t -> {
               final Bytes32 addKey = Bytes32.wrap(t.getPayload().slice(32, 32));
               try {
-                final ReceiveResponse receiveResponse = enclave.receive(addKey.toBase64String());
+                final ReceiveResponse receiveResponse =
+                    enclavePayloadCache.receive(addKey.toBase64String());
                 final List<PrivateTransactionWithMetadata> privateTransactionWithMetadataList =
                     deserializeAddToGroupPayload(
                         Bytes.wrap(Base64.getDecoder().decode(receiveResponse.getPayload())));
@@ -30,4 +30,6 @@ public interface ProtocolSchedule<C> {
 
   void setPublicWorldStateArchiveForPrivacyBlockProcessor(
       WorldStateArchive publicWorldStateArchive);
+
+  void setParallelTransactionExecutor(ParallelTransactionExecutor parallelTransactionExecutor);
 }
@@ -295,4 +295,12 @@ public class ProtocolSpec<C> {
     if (PrivacyBlockProcessor.class.isAssignableFrom(blockProcessor.getClass()))
       ((PrivacyBlockProcessor) blockProcessor).setPublicWorldStateArchive(publicWorldStateArchive);
   }
+
+  public void setParallelTransactionExecutor(
+      final ParallelTransactionExecutor parallelTransactionExecutor) {
+    if (blockProcessor instanceof AbstractBlockProcessor) {
+      ((AbstractBlockProcessor) blockProcessor)
+          .setParallelTransactionExecutor(parallelTransactionExecutor);
+    }
+  }
 }
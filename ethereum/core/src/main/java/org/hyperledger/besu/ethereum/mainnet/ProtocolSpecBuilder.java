@@ -321,7 +321,8 @@ public class ProtocolSpecBuilder<T> {
           new PrivacyBlockProcessor(
               blockProcessor,
               protocolSchedule,
-              privacyParameters.getEnclave(),
+              privacyParameters.getEnclavePayloadCache(),
+              address,
               privacyParameters.getPrivateStateStorage(),
               privacyParameters.getPrivateWorldStateArchive());
     }
@@ -0,0 +1,389 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.mainnet;
+
+import org.hyperledger.besu.ethereum.core.AbstractWorldUpdater;
+import org.hyperledger.besu.ethereum.core.Account;
+import org.hyperledger.besu.ethereum.core.AccountStorageEntry;
+import org.hyperledger.besu.ethereum.core.Address;
+import org.hyperledger.besu.ethereum.core.DefaultEvmAccount;
+import org.hyperledger.besu.ethereum.core.Hash;
+import org.hyperledger.besu.ethereum.core.MutableAccount;
+import org.hyperledger.besu.ethereum.core.Wei;
+import org.hyperledger.besu.ethereum.core.WorldUpdater;
+import org.hyperledger.besu.ethereum.core.WorldView;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+import org.apache.tuweni.units.bigints.UInt256;
+
+/**
+ * A {@link WorldUpdater} used to execute a single transaction speculatively, against the world
+ * state as it was at the start of the block, while recording every account and storage slot the
+ * transaction reads.
+ *
+ * <p>Once the transactions preceding it in the block have been committed, the speculative updates
+ * can be replayed on the real world state with {@link #applyTo(WorldUpdater, Writes)}, provided
+ * none of the recorded reads were invalidated by those transactions.
+ *
+ * <p>Every transaction credits its fee to the mining beneficiary, which would make all transactions
+ * of a block conflict with each other. Unless the transaction otherwise reads the beneficiary
+ * account, that credit is therefore not recorded as a read and is replayed as a balance increment
+ * on top of the beneficiary's current balance.
+ */
+class SpeculativeWorldUpdater
+    extends AbstractWorldUpdater<SpeculativeWorldUpdater.ReadTrackingWorldView, Account> {
+
+  private final Address miningBeneficiary;
+  private final boolean deferBeneficiaryCredit;
+
+  SpeculativeWorldUpdater(
+      final WorldView world, final Address miningBeneficiary, final Address sender) {
+    super(new ReadTrackingWorldView(world));
+    this.miningBeneficiary = miningBeneficiary;
+    // Senders are validated against their balance, so a beneficiary sending a transaction is read.
+    this.deferBeneficiaryCredit = !miningBeneficiary.equals(sender);
+  }
+
+  @Override
+  protected Account getForMutation(final Address address) {
+    return wrappedWorldView().get(address);
+  }
+
+  @Override
+  public DefaultEvmAccount getAccount(final Address address) {
+    if (isDeferredBeneficiary(address)) {
+      // The transaction processor only fetches the beneficiary from the top-level updater to pay
+      // the fee; the EVM reaches accounts through child updaters.
+      return wrappedWorldView().untracked(() -> super.getAccount(address));
+    }
+    return super.getAccount(address);
+  }
+
+  @Override
+  public DefaultEvmAccount createAccount(
+      final Address address, final long nonce, final Wei balance) {
+    if (!isDeferredBeneficiary(address)) {
+      wrappedWorldView().recordAccount(address);
+    }
+    return super.createAccount(address, nonce, balance);
+  }
+
+  @Override
+  public Collection<UpdateTrackingAccount<? extends Account>> getTouchedAccounts() {
+    return new ArrayList<>(updatedAccounts());
+  }
+
+  @Override
+  public Collection<Address> getDeletedAccountAddresses() {
+    return new ArrayList<>(deletedAccounts());
+  }
+
+  @Override
+  public void revert() {
+    deletedAccounts().clear();
+    updatedAccounts().clear();
+  }
+
+  /**
+   * Does nothing: the speculative updates are kept in this updater until they are replayed on the
+   * real world state with {@link #applyTo(WorldUpdater, Writes)}.
+   */
+  @Override
+  public void commit() {}
+
+  /**
+   * Replays the updates of this updater on the given one, unless they conflict with the given
+   * writes.
+   *
+   * @param target the updater on which to replay the updates.
+   * @param writes the writes of the transactions that were committed since the speculative
+   *     execution started.
+   * @return {@code true} if the updates were replayed, or {@code false} if they were invalidated by
+   *     the given writes, in which case {@code target} is left untouched.
+   */
+  boolean applyTo(final WorldUpdater target, final Writes writes) {
+    final ReadTrackingWorldView reads = wrappedWorldView();
+    if (writes.conflictWith(reads)) {
+      return false;
+    }
+
+    final boolean creditBeneficiary =
+        deferBeneficiaryCredit && !reads.accounts.contains(miningBeneficiary);
+    final boolean beneficiaryDeleted = deletedAccounts().contains(miningBeneficiary);
+    Wei beneficiaryCredit = null;
+    if (creditBeneficiary && !beneficiaryDeleted) {
+      final UpdateTrackingAccount<Account> beneficiary = updatedAccount(miningBeneficiary);
+      if (beneficiary != null) {
+        final Account original = beneficiary.getWrappedAccount();
+        beneficiaryCredit =
+            beneficiary.getBalance().subtract(original == null ? Wei.ZERO : original.getBalance());
+        if (beneficiaryCredit.isZero() && original != null && !original.isEmpty()) {
+          // Whether an empty beneficiary is cleared depends on the fork, which the speculative
+          // execution did not reveal.
+          final Account current = target.get(miningBeneficiary);
+          if (current == null || current.isEmpty()) {
+            return false;
+          }
+        }
+      }
+    }
+
+    for (final Address address : deletedAccounts()) {
+      if (!creditBeneficiary || !address.equals(miningBeneficiary)) {
+        target.deleteAccount(address);
+      }
+    }
+    for (final UpdateTrackingAccount<Account> update : updatedAccounts()) {
+      if (creditBeneficiary && update.getAddress().equals(miningBeneficiary)) {
+        continue;
+      }
+      final MutableAccount account;
+      if (update.getWrappedAccount() == null) {
+        account =
+            target
+                .createAccount(update.getAddress(), update.getNonce(), update.getBalance())
+                .getMutable();
+      } else {
+        account = target.getAccount(update.getAddress()).getMutable();
+        account.setNonce(update.getNonce());
+        account.setBalance(update.getBalance());
+      }
+      if (update.codeWasUpdated()) {
+        account.setCode(update.getCode());
+        account.setVersion(update.getVersion());
+      }
+      if (update.getStorageWasCleared()) {
+        account.clearStorage();
+      }
+      update.getUpdatedStorage().forEach(account::setStorageValue);
+    }
+
+    if (creditBeneficiary) {
+      if (beneficiaryDeleted) {
+        // The beneficiary was empty and got cleared, which it must still be to be cleared again.
+        final Account current = target.get(miningBeneficiary);
+        if (current == null || current.isEmpty()) {
+          target.deleteAccount(miningBeneficiary);
+        }
+      } else if (beneficiaryCredit != null) {
+        target.getOrCreate(miningBeneficiary).getMutable().incrementBalance(beneficiaryCredit);
+      }
+    }
+    return true;
+  }
+
+  private boolean isDeferredBeneficiary(final Address address) {
+    return deferBeneficiaryCredit && address.equals(miningBeneficiary);
+  }
+
+  private UpdateTrackingAccount<Account> updatedAccount(final Address address) {
+    for (final UpdateTrackingAccount<Account> account : updatedAccounts()) {
+      if (account.getAddress().equals(address)) {
+        return account;
+      }
+    }
+    return null;
+  }
+
+  /** The accounts and storage slots written by the transactions committed so far in a block. */
+  static class Writes {
+    private final Set<Address> accounts = new HashSet<>();
+    private final Map<Address, Set<UInt256>> storage = new HashMap<>();
+
+    /**
+     * Records the writes buffered in the given updater.
+     *
+     * @param updater an updater about to be committed.
+     */
+    void record(final WorldUpdater updater) {
+      accounts.addAll(updater.getDeletedAccountAddresses());
+      for (final UpdateTrackingAccount<? extends Account> account : updater.getTouchedAccounts()) {
+        final Account original = account.getWrappedAccount();
+        if (original == null
+            || account.codeWasUpdated()
+            || account.getStorageWasCleared()
+            || account.getNonce() != original.getNonce()
+            || account.getVersion() != original.getVersion()
+            || !account.getBalance().equals(original.getBalance())) {
+          accounts.add(account.getAddress());
+        }
+        if (!account.getUpdatedStorage().isEmpty()) {
+          storage
+              .computeIfAbsent(account.getAddress(), address -> new HashSet<>())
+              .addAll(account.getUpdatedStorage().keySet());
+        }
+      }
+    }
+
+    private boolean conflictWith(final ReadTrackingWorldView reads) {
+      for (final Address address : reads.accounts) {
+        if (accounts.contains(address)) {
+          return true;
+        }
+      }
+      for (final Address address : reads.scannedStorage) {
+        if (storage.containsKey(address)) {
+          return true;
+        }
+      }
+      for (final Map.Entry<Address, Set<UInt256>> read : reads.storage.entrySet()) {
+        final Set<UInt256> written = storage.get(read.getKey());
+        if (written != null) {
+          for (final UInt256 key : read.getValue()) {
+            if (written.contains(key)) {
+              return true;
+            }
+          }
+        }
+      }
+      return false;
+    }
+  }
+
+  static class ReadTrackingWorldView implements WorldView {
+    private final WorldView world;
+    private final Set<Address> accounts = new HashSet<>();
+    private final Map<Address, Set<UInt256>> storage = new HashMap<>();
+    private final Set<Address> scannedStorage = new HashSet<>();
+    private boolean tracking = true;
+
+    private ReadTrackingWorldView(final WorldView world) {
+      this.world = world;
+    }
+
+    @Override
+    public Account get(final Address address) {
+      recordAccount(address);
+      final Account account = world.get(address);
+      return account == null ? null : new ReadTrackingAccount(account, this);
+    }
+
+    private void recordAccount(final Address address) {
+      if (tracking) {
+        accounts.add(address);
+      }
+    }
+
+    private void recordStorage(final Address address, final UInt256 key) {
+      if (tracking) {
+        storage.computeIfAbsent(address, a -> new HashSet<>()).add(key);
+      }
+    }
+
+    private void recordStorageScan(final Address address) {
+      if (tracking) {
+        scannedStorage.add(address);
+      }
+    }
+
+    private <T> T untracked(final Supplier<T> supplier) {
+      tracking = false;
+      try {
+        return supplier.get();
+      } finally {
+        tracking = true;
+      }
+    }
+  }
+
+  private static class ReadTrackingAccount implements Account {
+    private final Account account;
+    private final ReadTrackingWorldView reads;
+
+    private ReadTrackingAccount(final Account account, final ReadTrackingWorldView reads) {
+      this.account = account;
+      this.reads = reads;
+    }
+
+    @Override
+    public Address getAddress() {
+      return account.getAddress();
+    }
+
+    @Override
+    public Hash getAddressHash() {
+      return account.getAddressHash();
+    }
+
+    @Override
+    public long getNonce() {
+      return account.getNonce();
+    }
+
+    @Override
+    public Wei getBalance() {
+      return account.getBalance();
+    }
+
+    @Override
+    public Bytes getCode() {
+      return account.getCode();
+    }
+
+    @Override
+    public Hash getCodeHash() {
+      return account.getCodeHash();
+    }
+
+    @Override
+    public Bytes32 getCodeSize() {
+      return account.getCodeSize();
+    }
+
+    @Override
+    public boolean hasCode() {
+      return account.hasCode();
+    }
+
+    @Override
+    public int getVersion() {
+      return account.getVersion();
+    }
+
+    @Override
+    public boolean isEmpty() {
+      return account.isEmpty();
+    }
+
+    @Override
+    public UInt256 getStorageValue(final UInt256 key) {
+      reads.recordStorage(account.getAddress(), key);
+      return account.getStorageValue(key);
+    }
+
+    @Override
+    public UInt256 getOriginalStorageValue(final UInt256 key) {
+      reads.recordStorage(account.getAddress(), key);
+      return account.getOriginalStorageValue(key);
+    }
+
+    @Override
+    public NavigableMap<Bytes32, AccountStorageEntry> storageEntriesFrom(
+        final Bytes32 startKeyHash, final int limit) {
+      reads.recordStorageScan(account.getAddress());
+      return account.storageEntriesFrom(startKeyHash, limit);
+    }
+  }
+}
@@ -14,21 +14,19 @@
  */
 package org.hyperledger.besu.ethereum.mainnet.precompiles;
 
-import org.hyperledger.besu.crypto.altbn128.AltBn128Point;
-import org.hyperledger.besu.crypto.altbn128.Fq;
+import org.hyperledger.besu.crypto.altbn128.AltBn128G1;
 import org.hyperledger.besu.ethereum.core.Gas;
 import org.hyperledger.besu.ethereum.mainnet.AbstractPrecompiledContract;
 import org.hyperledger.besu.ethereum.vm.GasCalculator;
 import org.hyperledger.besu.ethereum.vm.MessageFrame;
 
-import java.math.BigInteger;
-import java.util.Arrays;
-
 import org.apache.tuweni.bytes.Bytes;
 import org.apache.tuweni.bytes.MutableBytes;
 
 public class AltBN128AddPrecompiledContract extends AbstractPrecompiledContract {
 
+  private static final int INPUT_LENGTH = 128;
+
   private final Gas gasCost;
 
   private AltBN128AddPrecompiledContract(final GasCalculator gasCalculator, final Gas gasCost) {
@@ -51,32 +49,16 @@ public class AltBN128AddPrecompiledContract extends AbstractPrecompiledContract
 
   @Override
   public Bytes compute(final Bytes input, final MessageFrame messageFrame) {
-    final BigInteger x1 = extractParameter(input, 0, 32);
-    final BigInteger y1 = extractParameter(input, 32, 32);
-    final BigInteger x2 = extractParameter(input, 64, 32);
-    final BigInteger y2 = extractParameter(input, 96, 32);
-
-    final AltBn128Point p1 = new AltBn128Point(Fq.create(x1), Fq.create(y1));
-    final AltBn128Point p2 = new AltBn128Point(Fq.create(x2), Fq.create(y2));
-    if (!p1.isOnCurve() || !p2.isOnCurve()) {
-      return null;
-    }
-    final AltBn128Point sum = p1.add(p2);
-    final Bytes x = sum.getX().toBytes();
-    final Bytes y = sum.getY().toBytes();
-    final MutableBytes result = MutableBytes.create(64);
-    x.copyTo(result, 32 - x.size());
-    y.copyTo(result, 64 - y.size());
-
-    return result;
+    return AltBn128G1.add(paddedInput(input)).orElse(null);
   }
 
-  private static BigInteger extractParameter(
-      final Bytes input, final int offset, final int length) {
-    if (offset > input.size() || length == 0) {
-      return BigInteger.ZERO;
+  // Missing input bytes are zeros and extra ones are ignored
+  private static Bytes paddedInput(final Bytes input) {
+    if (input.size() >= INPUT_LENGTH) {
+      return input.slice(0, INPUT_LENGTH);
     }
-    final byte[] raw = Arrays.copyOfRange(input.toArray(), offset, offset + length);
-    return new BigInteger(1, raw);
+    final MutableBytes padded = MutableBytes.create(INPUT_LENGTH);
+    input.copyTo(padded, 0);
+    return padded;
   }
 }
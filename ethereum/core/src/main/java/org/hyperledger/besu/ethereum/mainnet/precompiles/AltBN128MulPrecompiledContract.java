@@ -14,24 +14,18 @@
  */
 package org.hyperledger.besu.ethereum.mainnet.precompiles;
 
-import org.hyperledger.besu.crypto.altbn128.AltBn128Point;
-import org.hyperledger.besu.crypto.altbn128.Fq;
+import org.hyperledger.besu.crypto.altbn128.AltBn128G1;
 import org.hyperledger.besu.ethereum.core.Gas;
 import org.hyperledger.besu.ethereum.mainnet.AbstractPrecompiledContract;
 import org.hyperledger.besu.ethereum.vm.GasCalculator;
 import org.hyperledger.besu.ethereum.vm.MessageFrame;
 
-import java.math.BigInteger;
-import java.util.Arrays;
-
 import org.apache.tuweni.bytes.Bytes;
 import org.apache.tuweni.bytes.MutableBytes;
 
 public class AltBN128MulPrecompiledContract extends AbstractPrecompiledContract {
 
-  private static final BigInteger MAX_N =
-      new BigInteger(
-          "115792089237316195423570985008687907853269984665640564039457584007913129639935");
+  private static final int INPUT_LENGTH = 96;
 
   private final Gas gasCost;
 
@@ -55,31 +49,16 @@ public class AltBN128MulPrecompiledContract extends AbstractPrecompiledContract
 
   @Override
   public Bytes compute(final Bytes input, final MessageFrame messageFrame) {
-    final BigInteger x = extractParameter(input, 0, 32);
-    final BigInteger y = extractParameter(input, 32, 32);
-    final BigInteger n = extractParameter(input, 64, 32);
-
-    final AltBn128Point p = new AltBn128Point(Fq.create(x), Fq.create(y));
-    if (!p.isOnCurve() || n.compareTo(MAX_N) > 0) {
-      return null;
-    }
-    final AltBn128Point product = p.multiply(n);
-
-    final Bytes xResult = product.getX().toBytes();
-    final Bytes yResult = product.getY().toBytes();
-    final MutableBytes result = MutableBytes.create(64);
-    xResult.copyTo(result, 32 - xResult.size());
-    yResult.copyTo(result, 64 - yResult.size());
-
-    return result;
+    return AltBn128G1.multiply(paddedInput(input)).orElse(null);
   }
 
-  private static BigInteger extractParameter(
-      final Bytes input, final int offset, final int length) {
-    if (offset > input.size() || length == 0) {
-      return BigInteger.ZERO;
+  // Missing input bytes are zeros and extra ones are ignored
+  private static Bytes paddedInput(final Bytes input) {
+    if (input.size() >= INPUT_LENGTH) {
+      return input.slice(0, INPUT_LENGTH);
     }
-    final byte[] raw = Arrays.copyOfRange(input.toArray(), offset, offset + length);
-    return new BigInteger(1, raw);
+    final MutableBytes padded = MutableBytes.create(INPUT_LENGTH);
+    input.copyTo(padded, 0);
+    return padded;
   }
 }
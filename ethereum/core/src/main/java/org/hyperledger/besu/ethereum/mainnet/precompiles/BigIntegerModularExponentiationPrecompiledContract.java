@@ -20,7 +20,6 @@ import org.hyperledger.besu.ethereum.vm.GasCalculator;
 import org.hyperledger.besu.ethereum.vm.MessageFrame;
 
 import java.math.BigInteger;
-import java.util.Arrays;
 
 import org.apache.tuweni.bytes.Bytes;
 import org.apache.tuweni.bytes.MutableBytes;
@@ -151,7 +150,9 @@ public class BigIntegerModularExponentiationPrecompiledContract
     if (offset > input.size() || length == 0) {
       return BigInteger.ZERO;
     }
-    final byte[] raw = Arrays.copyOfRange(input.toArray(), offset, offset + length);
+    // Only copy the parameter itself, zero-padded if the input is too short
+    final byte[] raw = new byte[length];
+    input.slice(offset, Math.min(length, input.size() - offset)).copyTo(MutableBytes.wrap(raw), 0);
     return new BigInteger(1, raw);
   }
 
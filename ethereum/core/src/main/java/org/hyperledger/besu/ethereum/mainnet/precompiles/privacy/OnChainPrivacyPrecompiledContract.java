@@ -63,11 +63,7 @@ public class OnChainPrivacyPrecompiledContract extends PrivacyPrecompiledContrac
 
   public OnChainPrivacyPrecompiledContract(
       final GasCalculator gasCalculator, final PrivacyParameters privacyParameters) {
-    this(
-        gasCalculator,
-        privacyParameters.getEnclave(),
-        privacyParameters.getPrivateWorldStateArchive(),
-        privacyParameters.getPrivateStateStorage());
+    super(gasCalculator, privacyParameters, "OnChainPrivacy");
   }
 
   OnChainPrivacyPrecompiledContract(
@@ -28,6 +28,7 @@ import org.hyperledger.besu.ethereum.core.ProcessableBlockHeader;
 import org.hyperledger.besu.ethereum.core.WorldUpdater;
 import org.hyperledger.besu.ethereum.debug.TraceOptions;
 import org.hyperledger.besu.ethereum.mainnet.AbstractPrecompiledContract;
+import org.hyperledger.besu.ethereum.privacy.EnclavePayloadCache;
 import org.hyperledger.besu.ethereum.privacy.PrivateStateRootResolver;
 import org.hyperledger.besu.ethereum.privacy.PrivateTransaction;
 import org.hyperledger.besu.ethereum.privacy.PrivateTransactionProcessor;
@@ -51,6 +52,7 @@ import org.apache.tuweni.bytes.Bytes32;
 
 public class PrivacyPrecompiledContract extends AbstractPrecompiledContract {
   final Enclave enclave;
+  final EnclavePayloadCache enclavePayloadCache;
   final PrivateStateStorage privateStateStorage;
   final WorldStateArchive privateWorldStateArchive;
   final PrivateStateRootResolver privateStateRootResolver;
@@ -60,12 +62,20 @@ public class PrivacyPrecompiledContract extends AbstractPrecompiledContract {
 
   public PrivacyPrecompiledContract(
       final GasCalculator gasCalculator, final PrivacyParameters privacyParameters) {
+    this(gasCalculator, privacyParameters, "Privacy");
+  }
+
+  PrivacyPrecompiledContract(
+      final GasCalculator gasCalculator,
+      final PrivacyParameters privacyParameters,
+      final String name) {
     this(
         gasCalculator,
         privacyParameters.getEnclave(),
+        privacyParameters.getEnclavePayloadCache(),
         privacyParameters.getPrivateWorldStateArchive(),
         privacyParameters.getPrivateStateStorage(),
-        "Privacy");
+        name);
   }
 
   PrivacyPrecompiledContract(
@@ -82,8 +92,25 @@ public class PrivacyPrecompiledContract extends AbstractPrecompiledContract {
       final WorldStateArchive worldStateArchive,
       final PrivateStateStorage privateStateStorage,
       final String name) {
+    this(
+        gasCalculator,
+        enclave,
+        new EnclavePayloadCache(enclave),
+        worldStateArchive,
+        privateStateStorage,
+        name);
+  }
+
+  private PrivacyPrecompiledContract(
+      final GasCalculator gasCalculator,
+      final Enclave enclave,
+      final EnclavePayloadCache enclavePayloadCache,
+      final WorldStateArchive worldStateArchive,
+      final PrivateStateStorage privateStateStorage,
+      final String name) {
     super(name, gasCalculator);
     this.enclave = enclave;
+    this.enclavePayloadCache = enclavePayloadCache;
     this.privateWorldStateArchive = worldStateArchive;
     this.privateStateStorage = privateStateStorage;
     this.privateStateRootResolver = new PrivateStateRootResolver(privateStateStorage);
@@ -242,7 +269,7 @@ public class PrivacyPrecompiledContract extends AbstractPrecompiledContract {
   ReceiveResponse getReceiveResponse(final String key) {
     final ReceiveResponse receiveResponse;
     try {
-      receiveResponse = enclave.receive(key);
+      receiveResponse = enclavePayloadCache.receive(key);
     } catch (final EnclaveServerException e) {
       LOG.error("Enclave is responding with an error, perhaps it has a misconfiguration?", e);
       throw e;
@@ -19,6 +19,7 @@ import org.hyperledger.besu.ethereum.chain.MutableBlockchain;
 import org.hyperledger.besu.ethereum.core.MutableWorldState;
 import org.hyperledger.besu.ethereum.proof.UniTrieWorldStateProofProvider;
 import org.hyperledger.besu.ethereum.proof.WorldStateProofProvider;
+import org.hyperledger.besu.ethereum.unitrie.UniTrie;
 import org.hyperledger.besu.ethereum.worldstate.MarkSweepPruner;
 import org.hyperledger.besu.ethereum.worldstate.UniTrieMarkSweepPruner;
 import org.hyperledger.besu.ethereum.worldstate.UniTrieMutableWorldState;
@@ -27,6 +28,8 @@ import org.hyperledger.besu.ethereum.worldstate.WorldStateStorage;
 import org.hyperledger.besu.metrics.ObservableMetricsSystem;
 import org.hyperledger.besu.plugin.services.storage.KeyValueStorage;
 
+import java.util.Optional;
+
 import org.apache.tuweni.bytes.Bytes32;
 
 /**
@@ -36,10 +39,29 @@ import org.apache.tuweni.bytes.Bytes32;
  */
 public class UniTrieMerkleAwareProvider implements MerkleAwareProvider {
 
+  private final boolean flatStateEnabled;
+
+  public UniTrieMerkleAwareProvider() {
+    this(false);
+  }
+
+  /**
+   * Create a provider.
+   *
+   * @param flatStateEnabled whether world states read from the storage's flat state, if it has one
+   */
+  public UniTrieMerkleAwareProvider(final boolean flatStateEnabled) {
+    this.flatStateEnabled = flatStateEnabled;
+  }
+
+  public boolean isFlatStateEnabled() {
+    return flatStateEnabled;
+  }
+
   @Override
   public MutableWorldState createMutableWorldState(
       final WorldStateStorage storage, final WorldStatePreimageStorage preImageStorage) {
-    return new UniTrieMutableWorldState(storage);
+    return createMutableWorldState(UniTrie.NULL_UNINODE_HASH, storage, preImageStorage);
   }
 
   @Override
@@ -47,7 +69,8 @@ public class UniTrieMerkleAwareProvider implements MerkleAwareProvider {
       final Bytes32 rootHash,
       final WorldStateStorage storage,
       final WorldStatePreimageStorage preImageStorage) {
-    return new UniTrieMutableWorldState(rootHash, storage);
+    return new UniTrieMutableWorldState(
+        rootHash, storage, flatStateEnabled ? storage.getUniTrieFlatState() : Optional.empty());
   }
 
   @Override
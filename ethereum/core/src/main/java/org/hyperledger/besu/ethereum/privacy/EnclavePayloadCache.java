@@ -0,0 +1,80 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.privacy;
+
+import org.hyperledger.besu.enclave.Enclave;
+import org.hyperledger.besu.enclave.types.ReceiveResponse;
+
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Private transaction payloads fetched from the enclave ahead of their use.
+ *
+ * <p>Block processing prefetches the payloads of all the privacy marker transactions of a block
+ * concurrently, and the privacy precompiled contracts then read them here instead of waiting for
+ * one enclave round trip per transaction. Payloads are handed out once; payloads that were not
+ * prefetched are fetched synchronously.
+ */
+public class EnclavePayloadCache {
+  private static final int MAX_PREFETCHED_PAYLOADS = 1024;
+
+  private final Enclave enclave;
+  private final ConcurrentMap<String, CompletableFuture<ReceiveResponse>> payloads =
+      CacheBuilder.newBuilder()
+          .maximumSize(MAX_PREFETCHED_PAYLOADS)
+          .expireAfterWrite(1, TimeUnit.MINUTES)
+          .<String, CompletableFuture<ReceiveResponse>>build()
+          .asMap();
+
+  public EnclavePayloadCache(final Enclave enclave) {
+    this.enclave = enclave;
+  }
+
+  /**
+   * Start fetching payloads from the enclave.
+   *
+   * @param enclaveKeys the keys of the payloads
+   */
+  public void prefetch(final Collection<String> enclaveKeys) {
+    enclaveKeys.forEach(key -> payloads.computeIfAbsent(key, enclave::receiveAsync));
+  }
+
+  /**
+   * Get a payload, waiting for it if it is being prefetched.
+   *
+   * @param enclaveKey the key of the payload
+   * @return the payload
+   */
+  public ReceiveResponse receive(final String enclaveKey) {
+    final CompletableFuture<ReceiveResponse> payload = payloads.remove(enclaveKey);
+    if (payload == null) {
+      return enclave.receive(enclaveKey);
+    }
+    try {
+      return payload.join();
+    } catch (final CompletionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw e;
+    }
+  }
+}
@@ -34,6 +34,12 @@ public class PrivateStateRootResolver {
   }
 
   public Hash resolveLastStateRoot(final Bytes32 privacyGroupId, final Hash blockHash) {
+    final Optional<Hash> indexedStateRoot =
+        privateStateStorage.getPrivateStateRoot(blockHash, privacyGroupId);
+    if (indexedStateRoot.isPresent()) {
+      return indexedStateRoot.get();
+    }
+
     final Optional<PrivateBlockMetadata> privateBlockMetadataOptional =
         privateStateStorage.getPrivateBlockMetadata(blockHash, privacyGroupId);
     if (privateBlockMetadataOptional.isPresent()) {
@@ -16,6 +16,7 @@ package org.hyperledger.besu.ethereum.privacy.storage;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
 
+import org.hyperledger.besu.ethereum.core.Hash;
 import org.hyperledger.besu.ethereum.privacy.PrivateTransactionReceipt;
 import org.hyperledger.besu.ethereum.rlp.BytesValueRLPInput;
 import org.hyperledger.besu.ethereum.rlp.RLP;
@@ -23,9 +24,14 @@ import org.hyperledger.besu.plugin.services.storage.KeyValueStorage;
 import org.hyperledger.besu.plugin.services.storage.KeyValueStorageTransaction;
 
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ExecutionException;
 import java.util.function.Predicate;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import org.apache.tuweni.bytes.Bytes;
 import org.apache.tuweni.bytes.Bytes32;
 
@@ -41,8 +47,13 @@ public class PrivateStateKeyValueStorage implements PrivateStateStorage {
       Bytes.of("PGHEADMAP".getBytes(UTF_8));
   private static final Bytes LEGACY_STATUS_KEY_SUFFIX = Bytes.of("STATUS".getBytes(UTF_8));
   private static final Bytes ADD_DATA_KEY = Bytes.of("ADDKEY".getBytes(UTF_8));
+  private static final Bytes STATE_ROOT_INDEX_SUFFIX = Bytes.of("STATEROOT".getBytes(UTF_8));
+
+  private static final int STATE_ROOT_CACHE_SIZE = 16_384;
 
   private final KeyValueStorage keyValueStorage;
+  private final Cache<Bytes, Optional<Hash>> stateRootCache =
+      CacheBuilder.newBuilder().maximumSize(STATE_ROOT_CACHE_SIZE).build();
 
   public PrivateStateKeyValueStorage(final KeyValueStorage keyValueStorage) {
     this.keyValueStorage = keyValueStorage;
@@ -69,6 +80,17 @@ public class PrivateStateKeyValueStorage implements PrivateStateStorage {
         .map(b -> PrivacyGroupHeadBlockMap.readFrom(new BytesValueRLPInput(b, false)));
   }
 
+  @Override
+  public Optional<Hash> getPrivateStateRoot(final Bytes32 blockHash, final Bytes32 privacyGroupId) {
+    final Bytes key = Bytes.concatenate(blockHash, privacyGroupId);
+    try {
+      return stateRootCache.get(
+          key, () -> get(key, STATE_ROOT_INDEX_SUFFIX).map(b -> Hash.wrap(Bytes32.wrap(b))));
+    } catch (final ExecutionException e) {
+      throw new IllegalStateException(e.getCause());
+    }
+  }
+
   @Override
   public Optional<Bytes32> getAddDataKey(final Bytes32 privacyGroupId) {
     return get(privacyGroupId, ADD_DATA_KEY).map(Bytes32::wrap);
@@ -104,14 +126,26 @@ public class PrivateStateKeyValueStorage implements PrivateStateStorage {
 
   @Override
   public PrivateStateStorage.Updater updater() {
-    return new PrivateStateKeyValueStorage.Updater(keyValueStorage.startTransaction());
+    return new PrivateStateKeyValueStorage.Updater(this, keyValueStorage.startTransaction());
   }
 
+  /**
+   * Updates private state storage, keeping the state root index in step with the private block
+   * metadata and privacy group head block maps it writes.
+   *
+   * <p>The latest state root of a group as of a block is the root of the block's own metadata for
+   * the group if there is any, and otherwise the one indexed for the group's head block, so writing
+   * a head block map indexes every group it tracks from the index entries of their head blocks.
+   */
   public static class Updater implements PrivateStateStorage.Updater {
 
+    private final PrivateStateKeyValueStorage storage;
     private final KeyValueStorageTransaction transaction;
+    private final Map<Bytes, Optional<Hash>> pendingStateRoots = new HashMap<>();
 
-    private Updater(final KeyValueStorageTransaction transaction) {
+    private Updater(
+        final PrivateStateKeyValueStorage storage, final KeyValueStorageTransaction transaction) {
+      this.storage = storage;
       this.transaction = transaction;
     }
 
@@ -134,6 +168,7 @@ public class PrivateStateKeyValueStorage implements PrivateStateStorage {
           Bytes.concatenate(blockHash, privacyGroupId),
           METADATA_KEY_SUFFIX,
           RLP.encode(metadata::writeTo));
+      indexStateRoot(blockHash, privacyGroupId, metadata.getLatestStateRoot());
       return this;
     }
 
@@ -141,9 +176,44 @@ public class PrivateStateKeyValueStorage implements PrivateStateStorage {
     public PrivateStateStorage.Updater putPrivacyGroupHeadBlockMap(
         final Bytes32 blockHash, final PrivacyGroupHeadBlockMap map) {
       set(blockHash, PRIVACY_GROUP_HEAD_BLOCK_MAP_SUFFIX, RLP.encode(map::writeTo));
+      map.forEach(
+          (privacyGroupId, headBlockHash) -> {
+            if (!headBlockHash.equals(blockHash)) {
+              indexStateRoot(
+                  blockHash, privacyGroupId, getStateRoot(headBlockHash, privacyGroupId));
+            }
+          });
       return this;
     }
 
+    private Optional<Hash> getStateRoot(final Bytes32 blockHash, final Bytes32 privacyGroupId) {
+      final Optional<Hash> pendingStateRoot =
+          pendingStateRoots.get(Bytes.concatenate(blockHash, privacyGroupId));
+      if (pendingStateRoot != null) {
+        return pendingStateRoot;
+      }
+      final Optional<Hash> indexedStateRoot =
+          storage.getPrivateStateRoot(blockHash, privacyGroupId);
+      if (indexedStateRoot.isPresent()) {
+        return indexedStateRoot;
+      }
+      // Written before the index existed
+      return storage
+          .getPrivateBlockMetadata(blockHash, privacyGroupId)
+          .flatMap(PrivateBlockMetadata::getLatestStateRoot);
+    }
+
+    private void indexStateRoot(
+        final Bytes32 blockHash, final Bytes32 privacyGroupId, final Optional<Hash> stateRoot) {
+      final Bytes key = Bytes.concatenate(blockHash, privacyGroupId);
+      if (stateRoot.isPresent()) {
+        set(key, STATE_ROOT_INDEX_SUFFIX, stateRoot.get());
+      } else {
+        remove(key, STATE_ROOT_INDEX_SUFFIX);
+      }
+      pendingStateRoots.put(key, stateRoot);
+    }
+
     @Override
     public PrivateStateStorage.Updater putDatabaseVersion(final int version) {
       set(Bytes.EMPTY, DB_VERSION_KEY, Bytes.ofUnsignedInt(version));
@@ -160,11 +230,14 @@ public class PrivateStateKeyValueStorage implements PrivateStateStorage {
     @Override
     public void commit() {
       transaction.commit();
+      storage.stateRootCache.putAll(pendingStateRoots);
+      pendingStateRoots.clear();
     }
 
     @Override
     public void rollback() {
       transaction.rollback();
+      pendingStateRoots.clear();
     }
 
     private void set(final Bytes key, final Bytes keySuffix, final Bytes value) {
@@ -174,6 +247,9 @@ public class PrivateStateKeyValueStorage implements PrivateStateStorage {
     @Override
     public void remove(final Bytes key, final Bytes keySuffix) {
       transaction.remove(Bytes.concatenate(key, keySuffix).toArrayUnsafe());
+      if (keySuffix.equals(STATE_ROOT_INDEX_SUFFIX)) {
+        pendingStateRoots.put(key, Optional.empty());
+      }
     }
   }
 }
@@ -14,6 +14,7 @@
  */
 package org.hyperledger.besu.ethereum.privacy.storage;
 
+import org.hyperledger.besu.ethereum.core.Hash;
 import org.hyperledger.besu.ethereum.privacy.PrivateTransactionReceipt;
 
 import java.util.Optional;
@@ -29,6 +30,18 @@ public interface PrivateStateStorage {
 
   Optional<PrivacyGroupHeadBlockMap> getPrivacyGroupHeadBlockMap(Bytes32 blockHash);
 
+  /**
+   * Look up the latest private state root of a privacy group as of a block in the state root index.
+   *
+   * <p>The index is maintained as private block metadata and privacy group head block maps are
+   * written, so an empty result only means that the root has to be resolved from those.
+   *
+   * @param blockHash the block hash
+   * @param privacyGroupId the privacy group id
+   * @return the indexed state root, if any
+   */
+  Optional<Hash> getPrivateStateRoot(Bytes32 blockHash, Bytes32 privacyGroupId);
+
   int getSchemaVersion();
 
   Optional<Bytes32> getAddDataKey(Bytes32 privacyGroupId);
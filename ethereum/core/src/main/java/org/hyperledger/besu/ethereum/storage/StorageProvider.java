@@ -33,4 +33,16 @@ public interface StorageProvider extends Closeable {
   KeyValueStorage createPruningStorage();
 
   boolean isWorldStateIterable();
+
+  /**
+   * Hold the writes to the blockchain, world state and pruning storage in memory, so that the
+   * changes made by a block, or by several blocks, are persisted together. Batches started while
+   * another is open share its writes, which are persisted when any of them is committed or the last
+   * one is closed.
+   *
+   * @return the batch holding the writes
+   */
+  default WriteBatch startWriteBatch() {
+    return WriteBatch.NONE;
+  }
 }
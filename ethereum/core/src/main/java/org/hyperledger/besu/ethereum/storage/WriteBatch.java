@@ -0,0 +1,49 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.storage;
+
+import org.hyperledger.besu.plugin.services.exception.StorageException;
+
+import java.io.Closeable;
+
+/**
+ * Writes to the storage of a {@link StorageProvider} that are held in memory, where reads already
+ * see them, until they are committed.
+ */
+public interface WriteBatch extends Closeable {
+
+  /** Batch for storage that persists every write straight away. */
+  WriteBatch NONE =
+      new WriteBatch() {
+        @Override
+        public void commit() {}
+
+        @Override
+        public void close() {}
+      };
+
+  /**
+   * Persist the writes held since the batch was started or last committed. Writes made while
+   * committing are held for the next commit.
+   */
+  void commit() throws StorageException;
+
+  /**
+   * Close the batch. Once every open batch is closed, the held writes are committed and new ones
+   * are no longer held.
+   */
+  @Override
+  void close() throws StorageException;
+}
@@ -81,7 +81,7 @@ public class KeyValueStoragePrefixedKeyBlockchainStorage implements BlockchainSt
   @Override
   public Optional<BlockBody> getBlockBody(final Hash blockHash) {
     return get(BLOCK_BODY_PREFIX, blockHash)
-        .map(bytes -> BlockBody.readFrom(RLP.input(bytes), blockHeaderFunctions));
+        .map(bytes -> BlockBody.readLazilyFrom(RLP.input(bytes), blockHeaderFunctions));
   }
 
   @Override
@@ -132,18 +132,21 @@ public class KeyValueStoragePrefixedKeyBlockchainStorage implements BlockchainSt
 
     @Override
     public void putBlockHeader(final Hash blockHash, final BlockHeader blockHeader) {
-      set(BLOCK_HEADER_PREFIX, blockHash, RLP.encode(blockHeader::writeTo));
+      set(BLOCK_HEADER_PREFIX, blockHash, RLP.encodeToArray(blockHeader::writeTo));
     }
 
     @Override
     public void putBlockBody(final Hash blockHash, final BlockBody blockBody) {
-      set(BLOCK_BODY_PREFIX, blockHash, RLP.encode(blockBody::writeTo));
+      set(BLOCK_BODY_PREFIX, blockHash, RLP.encodeToArray(blockBody::writeTo));
     }
 
     @Override
     public void putTransactionLocation(
         final Hash transactionHash, final TransactionLocation transactionLocation) {
-      set(TRANSACTION_LOCATION_PREFIX, transactionHash, RLP.encode(transactionLocation::writeTo));
+      set(
+          TRANSACTION_LOCATION_PREFIX,
+          transactionHash,
+          RLP.encodeToArray(transactionLocation::writeTo));
     }
 
     @Override
@@ -195,15 +198,20 @@ public class KeyValueStoragePrefixedKeyBlockchainStorage implements BlockchainSt
     }
 
     private void set(final Bytes prefix, final Bytes key, final Bytes value) {
-      transaction.put(Bytes.concatenate(prefix, key).toArrayUnsafe(), value.toArrayUnsafe());
+      set(prefix, key, value.toArrayUnsafe());
+    }
+
+    private void set(final Bytes prefix, final Bytes key, final byte[] value) {
+      transaction.put(Bytes.concatenate(prefix, key).toArrayUnsafe(), value);
     }
 
     private void remove(final Bytes prefix, final Bytes key) {
       transaction.remove(Bytes.concatenate(prefix, key).toArrayUnsafe());
     }
 
-    private Bytes rlpEncode(final List<TransactionReceipt> receipts) {
-      return RLP.encode(o -> o.writeList(receipts, TransactionReceipt::writeToWithRevertReason));
+    private byte[] rlpEncode(final List<TransactionReceipt> receipts) {
+      return RLP.encodeToArray(
+          o -> o.writeList(receipts, TransactionReceipt::writeToWithRevertReason));
     }
   }
 }
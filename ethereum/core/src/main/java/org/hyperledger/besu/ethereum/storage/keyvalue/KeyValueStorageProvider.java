@@ -14,23 +14,41 @@
  */
 package org.hyperledger.besu.ethereum.storage.keyvalue;
 
+import static com.google.common.base.Preconditions.checkState;
+
 import org.hyperledger.besu.ethereum.chain.BlockchainStorage;
 import org.hyperledger.besu.ethereum.mainnet.ProtocolSchedule;
 import org.hyperledger.besu.ethereum.mainnet.ScheduleBasedBlockHeaderFunctions;
 import org.hyperledger.besu.ethereum.storage.StorageProvider;
+import org.hyperledger.besu.ethereum.storage.WriteBatch;
+import org.hyperledger.besu.ethereum.worldstate.UniTrieFlatState;
 import org.hyperledger.besu.ethereum.worldstate.WorldStatePreimageStorage;
 import org.hyperledger.besu.ethereum.worldstate.WorldStateStorage;
 import org.hyperledger.besu.plugin.services.storage.KeyValueStorage;
+import org.hyperledger.besu.services.kvstore.CoalescingKeyValueStorage;
 
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import com.google.common.base.Suppliers;
 
 public class KeyValueStorageProvider implements StorageProvider {
 
-  private final KeyValueStorage blockchainStorage;
-  private final KeyValueStorage worldStateStorage;
+  private final CoalescingKeyValueStorage blockchainStorage;
+  private final CoalescingKeyValueStorage worldStateStorage;
   private final KeyValueStorage worldStatePreimageStorage;
-  private final KeyValueStorage pruningStorage;
+  private final CoalescingKeyValueStorage pruningStorage;
+  private final Optional<KeyValueStorage> flatStateStorage;
   private final boolean isWorldStateIterable;
+  // Shared by every world state storage, as it tracks the states persisted to the segment
+  private final Supplier<Optional<UniTrieFlatState>> uniTrieFlatState;
+  // The chain data goes last, so that it never references a world state that wasn't written when
+  // the storages can't be written atomically
+  private final List<CoalescingKeyValueStorage> batchedStorage;
+  private int openBatches;
 
   public KeyValueStorageProvider(
       final KeyValueStorage blockchainStorage,
@@ -38,11 +56,37 @@ public class KeyValueStorageProvider implements StorageProvider {
       final KeyValueStorage worldStatePreimageStorage,
       final KeyValueStorage pruningStorage,
       final boolean isWorldStateIterable) {
-    this.blockchainStorage = blockchainStorage;
-    this.worldStateStorage = worldStateStorage;
+    this(
+        blockchainStorage,
+        worldStateStorage,
+        worldStatePreimageStorage,
+        pruningStorage,
+        Optional.empty(),
+        isWorldStateIterable);
+  }
+
+  public KeyValueStorageProvider(
+      final KeyValueStorage blockchainStorage,
+      final KeyValueStorage worldStateStorage,
+      final KeyValueStorage worldStatePreimageStorage,
+      final KeyValueStorage pruningStorage,
+      final Optional<KeyValueStorage> flatStateStorage,
+      final boolean isWorldStateIterable) {
+    this.blockchainStorage = new CoalescingKeyValueStorage(blockchainStorage);
+    this.worldStateStorage = new CoalescingKeyValueStorage(worldStateStorage);
     this.worldStatePreimageStorage = worldStatePreimageStorage;
-    this.pruningStorage = pruningStorage;
+    this.pruningStorage = new CoalescingKeyValueStorage(pruningStorage);
+    this.flatStateStorage = flatStateStorage;
     this.isWorldStateIterable = isWorldStateIterable;
+    this.uniTrieFlatState =
+        Suppliers.memoize(
+            () ->
+                flatStateStorage.map(
+                    storage ->
+                        UniTrieFlatState.create(
+                            storage, new WorldStateKeyValueStorage(this.worldStateStorage))));
+    this.batchedStorage =
+        List.of(this.worldStateStorage, this.pruningStorage, this.blockchainStorage);
   }
 
   @Override
@@ -53,7 +97,7 @@ public class KeyValueStorageProvider implements StorageProvider {
 
   @Override
   public WorldStateStorage createWorldStateStorage() {
-    return new WorldStateKeyValueStorage(worldStateStorage);
+    return new WorldStateKeyValueStorage(worldStateStorage, uniTrieFlatState.get());
   }
 
   @Override
@@ -71,10 +115,59 @@ public class KeyValueStorageProvider implements StorageProvider {
     return isWorldStateIterable;
   }
 
+  @Override
+  public synchronized WriteBatch startWriteBatch() {
+    if (openBatches++ == 0) {
+      batchedStorage.forEach(CoalescingKeyValueStorage::startCoalescing);
+    }
+    return new WriteBatch() {
+      private boolean closed;
+
+      @Override
+      public void commit() {
+        synchronized (KeyValueStorageProvider.this) {
+          checkState(!closed, "Write batch is closed");
+          flushBatchedStorage();
+        }
+      }
+
+      @Override
+      public void close() {
+        synchronized (KeyValueStorageProvider.this) {
+          if (closed) {
+            return;
+          }
+          closed = true;
+          if (--openBatches == 0) {
+            try {
+              flushBatchedStorage();
+            } finally {
+              batchedStorage.forEach(CoalescingKeyValueStorage::stopCoalescing);
+            }
+          }
+        }
+      }
+    };
+  }
+
+  private void flushBatchedStorage() {
+    // Detach the chain data first: the world states it references were written before it, so they
+    // are still pending when the world state storage is detached
+    final CoalescingKeyValueStorage.Flush[] flushes =
+        new CoalescingKeyValueStorage.Flush[batchedStorage.size()];
+    for (int i = flushes.length - 1; i >= 0; i--) {
+      flushes[i] = batchedStorage.get(i).startFlush();
+    }
+    CoalescingKeyValueStorage.completeAll(Arrays.asList(flushes));
+  }
+
   @Override
   public void close() throws IOException {
     blockchainStorage.close();
     worldStateStorage.close();
     pruningStorage.close();
+    if (flatStateStorage.isPresent()) {
+      flatStateStorage.get().close();
+    }
   }
 }
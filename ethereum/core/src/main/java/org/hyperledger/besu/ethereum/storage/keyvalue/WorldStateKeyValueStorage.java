@@ -16,6 +16,7 @@ package org.hyperledger.besu.ethereum.storage.keyvalue;
 
 import org.hyperledger.besu.ethereum.core.Hash;
 import org.hyperledger.besu.ethereum.trie.MerklePatriciaTrie;
+import org.hyperledger.besu.ethereum.worldstate.UniTrieFlatState;
 import org.hyperledger.besu.ethereum.worldstate.WorldStateStorage;
 import org.hyperledger.besu.plugin.services.storage.KeyValueStorage;
 import org.hyperledger.besu.plugin.services.storage.KeyValueStorageTransaction;
@@ -33,9 +34,16 @@ public class WorldStateKeyValueStorage implements WorldStateStorage {
 
   private final Subscribers<NodesAddedListener> nodeAddedListeners = Subscribers.create();
   private final KeyValueStorage keyValueStorage;
+  private final Optional<UniTrieFlatState> uniTrieFlatState;
 
   public WorldStateKeyValueStorage(final KeyValueStorage keyValueStorage) {
+    this(keyValueStorage, Optional.empty());
+  }
+
+  public WorldStateKeyValueStorage(
+      final KeyValueStorage keyValueStorage, final Optional<UniTrieFlatState> uniTrieFlatState) {
     this.keyValueStorage = keyValueStorage;
+    this.uniTrieFlatState = uniTrieFlatState;
   }
 
   @Override
@@ -101,6 +109,11 @@ public class WorldStateKeyValueStorage implements WorldStateStorage {
     nodeAddedListeners.unsubscribe(id);
   }
 
+  @Override
+  public Optional<UniTrieFlatState> getUniTrieFlatState() {
+    return uniTrieFlatState;
+  }
+
   public static class Updater implements WorldStateStorage.Updater {
 
     private final KeyValueStorageTransaction transaction;
@@ -0,0 +1,250 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.transaction;
+
+import org.hyperledger.besu.ethereum.core.AbstractWorldUpdater;
+import org.hyperledger.besu.ethereum.core.Account;
+import org.hyperledger.besu.ethereum.core.AccountStorageEntry;
+import org.hyperledger.besu.ethereum.core.Address;
+import org.hyperledger.besu.ethereum.core.Hash;
+import org.hyperledger.besu.ethereum.core.Wei;
+import org.hyperledger.besu.ethereum.core.WorldUpdater;
+import org.hyperledger.besu.ethereum.core.WorldView;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+import org.apache.tuweni.units.bigints.UInt256;
+
+/**
+ * The accounts and storage slots read by a simulated transaction.
+ *
+ * <p>The result of a simulation only depends on the world state through these reads, so it can be
+ * reused on any later world state in which they are unchanged, as checked by {@link
+ * TransactionSimulator#isUnchangedAtHead(StateReads)}.
+ */
+public class StateReads {
+  // Accounts as they were read, null if they did not exist.
+  private final Map<Address, Account> accounts = new HashMap<>();
+  private final Map<Address, Map<UInt256, UInt256>> storage = new HashMap<>();
+  // Storage iteration reads an unbounded set of slots, which is not recorded.
+  private boolean complete = true;
+  // Memoizes the last successful check, as the chain head usually only moves once per block.
+  private volatile Hash lastMatchingStateRoot;
+
+  WorldUpdater recordingUpdater(final Hash stateRoot, final WorldView world) {
+    lastMatchingStateRoot = stateRoot;
+    return new RecordingUpdater(new RecordingWorldView(world));
+  }
+
+  /**
+   * Checks whether the given world state is the same as the one read, as far as these reads are
+   * concerned.
+   *
+   * @param stateRoot the root hash of the world state to check.
+   * @param worldState supplies the world state to check, or empty if it is not available.
+   * @return {@code true} if every recorded read gives the same result on the world state.
+   */
+  boolean isUnchangedIn(
+      final Hash stateRoot, final Supplier<Optional<? extends WorldView>> worldState) {
+    if (stateRoot.equals(lastMatchingStateRoot)) {
+      return true;
+    }
+    if (!complete) {
+      return false;
+    }
+    final WorldView world = worldState.get().orElse(null);
+    if (world == null) {
+      return false;
+    }
+    for (final Map.Entry<Address, Account> read : accounts.entrySet()) {
+      if (!sameAccount(read.getValue(), world.get(read.getKey()))) {
+        return false;
+      }
+    }
+    for (final Map.Entry<Address, Map<UInt256, UInt256>> read : storage.entrySet()) {
+      final Account account = world.get(read.getKey());
+      for (final Map.Entry<UInt256, UInt256> slot : read.getValue().entrySet()) {
+        final UInt256 value =
+            account == null ? UInt256.ZERO : account.getStorageValue(slot.getKey());
+        if (!value.equals(slot.getValue())) {
+          return false;
+        }
+      }
+    }
+    lastMatchingStateRoot = stateRoot;
+    return true;
+  }
+
+  private static boolean sameAccount(final Account read, final Account current) {
+    if (read == null || current == null) {
+      return read == current;
+    }
+    return read.getNonce() == current.getNonce()
+        && read.getVersion() == current.getVersion()
+        && read.getBalance().equals(current.getBalance())
+        && read.getCodeHash().equals(current.getCodeHash());
+  }
+
+  private void recordAccount(final Address address, final Account account) {
+    if (!accounts.containsKey(address)) {
+      accounts.put(address, account);
+    }
+  }
+
+  private void recordStorage(final Address address, final UInt256 key, final UInt256 value) {
+    storage.computeIfAbsent(address, a -> new HashMap<>()).putIfAbsent(key, value);
+  }
+
+  private void recordStorageScan() {
+    complete = false;
+  }
+
+  private class RecordingWorldView implements WorldView {
+    private final WorldView world;
+
+    private RecordingWorldView(final WorldView world) {
+      this.world = world;
+    }
+
+    @Override
+    public Account get(final Address address) {
+      final Account account = world.get(address);
+      recordAccount(address, account);
+      return account == null ? null : new RecordingAccount(account);
+    }
+  }
+
+  private static class RecordingUpdater extends AbstractWorldUpdater<RecordingWorldView, Account> {
+
+    private RecordingUpdater(final RecordingWorldView world) {
+      super(world);
+    }
+
+    @Override
+    protected Account getForMutation(final Address address) {
+      return wrappedWorldView().get(address);
+    }
+
+    @Override
+    public Collection<UpdateTrackingAccount<? extends Account>> getTouchedAccounts() {
+      return new ArrayList<>(updatedAccounts());
+    }
+
+    @Override
+    public Collection<Address> getDeletedAccountAddresses() {
+      return new ArrayList<>(deletedAccounts());
+    }
+
+    @Override
+    public void revert() {
+      deletedAccounts().clear();
+      updatedAccounts().clear();
+    }
+
+    /**
+     * Does nothing: the updates of a simulated transaction are only kept until this updater is
+     * discarded, and never reach the wrapped world state.
+     */
+    @Override
+    public void commit() {}
+  }
+
+  private class RecordingAccount implements Account {
+    private final Account account;
+
+    private RecordingAccount(final Account account) {
+      this.account = account;
+    }
+
+    @Override
+    public Address getAddress() {
+      return account.getAddress();
+    }
+
+    @Override
+    public Hash getAddressHash() {
+      return account.getAddressHash();
+    }
+
+    @Override
+    public long getNonce() {
+      return account.getNonce();
+    }
+
+    @Override
+    public Wei getBalance() {
+      return account.getBalance();
+    }
+
+    @Override
+    public Bytes getCode() {
+      return account.getCode();
+    }
+
+    @Override
+    public Hash getCodeHash() {
+      return account.getCodeHash();
+    }
+
+    @Override
+    public Bytes32 getCodeSize() {
+      return account.getCodeSize();
+    }
+
+    @Override
+    public boolean hasCode() {
+      return account.hasCode();
+    }
+
+    @Override
+    public int getVersion() {
+      return account.getVersion();
+    }
+
+    @Override
+    public boolean isEmpty() {
+      return account.isEmpty();
+    }
+
+    @Override
+    public UInt256 getStorageValue(final UInt256 key) {
+      final UInt256 value = account.getStorageValue(key);
+      recordStorage(account.getAddress(), key, value);
+      return value;
+    }
+
+    @Override
+    public UInt256 getOriginalStorageValue(final UInt256 key) {
+      final UInt256 value = account.getOriginalStorageValue(key);
+      recordStorage(account.getAddress(), key, value);
+      return value;
+    }
+
+    @Override
+    public NavigableMap<Bytes32, AccountStorageEntry> storageEntriesFrom(
+        final Bytes32 startKeyHash, final int limit) {
+      recordStorageScan();
+      return account.storageEntriesFrom(startKeyHash, limit);
+    }
+  }
+}
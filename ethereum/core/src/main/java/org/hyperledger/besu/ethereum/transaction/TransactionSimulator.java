@@ -80,8 +80,37 @@ public class TransactionSimulator {
     return process(callParams, blockchain.getChainHeadHeader());
   }
 
+  /**
+   * Processes a call at the chain head, recording the parts of the world state it reads.
+   *
+   * @param callParams the call to process.
+   * @param reads where to record the reads, which must not have been used to record another call.
+   * @return the result of the call, or empty if the chain head world state is not available.
+   */
+  public Optional<TransactionSimulatorResult> processAtHead(
+      final CallParameter callParams, final StateReads reads) {
+    return process(callParams, blockchain.getChainHeadHeader(), reads);
+  }
+
+  /**
+   * Checks whether a call recorded by {@link #processAtHead(CallParameter, StateReads)} would read
+   * the same world state at the current chain head, and so give the same result.
+   *
+   * @param reads the reads recorded for the call.
+   * @return {@code true} if the recorded reads are unchanged at the chain head.
+   */
+  public boolean isUnchangedAtHead(final StateReads reads) {
+    final Hash stateRoot = blockchain.getChainHeadHeader().getStateRoot();
+    return reads.isUnchangedIn(stateRoot, () -> worldStateArchive.get(stateRoot));
+  }
+
   private Optional<TransactionSimulatorResult> process(
       final CallParameter callParams, final BlockHeader header) {
+    return process(callParams, header, null);
+  }
+
+  private Optional<TransactionSimulatorResult> process(
+      final CallParameter callParams, final BlockHeader header, final StateReads reads) {
     if (header == null) {
       return Optional.empty();
     }
@@ -120,7 +149,9 @@ public class TransactionSimulator {
     final TransactionProcessor.Result result =
         transactionProcessor.processTransaction(
             blockchain,
-            worldState.updater(),
+            reads == null
+                ? worldState.updater()
+                : reads.recordingUpdater(header.getStateRoot(), worldState),
             header,
             transaction,
             protocolSpec.getMiningBeneficiaryCalculator().calculateBeneficiary(header),
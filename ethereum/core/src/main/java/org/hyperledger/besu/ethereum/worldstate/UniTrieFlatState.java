@@ -0,0 +1,376 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.worldstate;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import org.hyperledger.besu.ethereum.unitrie.DataLoader;
+import org.hyperledger.besu.ethereum.unitrie.StoredUniTrie;
+import org.hyperledger.besu.ethereum.unitrie.UniTrie;
+import org.hyperledger.besu.ethereum.unitrie.UniTrieKeyMapper;
+import org.hyperledger.besu.plugin.services.storage.KeyValueStorage;
+import org.hyperledger.besu.plugin.services.storage.KeyValueStorageTransaction;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+
+/**
+ * Flat snapshot of Unitrie world states, mapping the keys produced by {@link UniTrieKeyMapper}
+ * straight to their values, so that reading an account, its code or a storage slot takes a single
+ * storage lookup instead of a walk down the Unitrie.
+ *
+ * <p>The storage holds the values of a single state, the disk state, which follows the most
+ * recently persisted one. The last few states the disk state moved away from are kept in memory as
+ * layers, each holding the values that differ from the state it points to. Reads for a recent state
+ * walk its layers down to the disk state, and persisting a child of a recent state, as happens on a
+ * reorg, first moves the disk state back to its parent.
+ *
+ * <p>The storage is only trusted when its root marker names the disk state, and the marker is
+ * written in the same transaction as the values. When there is no usable snapshot, one is generated
+ * in the background from the Unitrie of the next persisted state, while the states persisted on top
+ * of it are accumulated in memory. Reads for states the snapshot does not cover are answered by the
+ * caller's fallback, normally the Unitrie itself.
+ */
+public class UniTrieFlatState {
+  private static final Logger LOG = LogManager.getLogger();
+
+  static final int DEFAULT_MAX_LAYERS = 128;
+
+  // Number of consecutive states persisted on top of an unknown parent before regenerating
+  private static final int REGENERATION_THRESHOLD = 8;
+  private static final int MAX_ENTRIES_BATCH_SIZE = 10_000;
+
+  // Unitrie keys start with a zero domain prefix, so the marker can't clash with them
+  private static final byte[] ROOT_KEY = "flatStateRoot".getBytes(UTF_8);
+
+  private final KeyValueStorage storage;
+  private final DataLoader nodeLoader;
+  private final int maxLayers;
+  private final Executor generationExecutor;
+
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+  private final Map<Bytes32, Layer> layers = new LinkedHashMap<>();
+  private Bytes32 diskRoot;
+  private Generation generation;
+  private int untrackedUpdates;
+
+  UniTrieFlatState(
+      final KeyValueStorage storage,
+      final DataLoader nodeLoader,
+      final int maxLayers,
+      final Executor generationExecutor) {
+    this.storage = storage;
+    this.nodeLoader = nodeLoader;
+    this.maxLayers = maxLayers;
+    this.generationExecutor = generationExecutor;
+    this.diskRoot = storage.get(ROOT_KEY).map(Bytes32::wrap).orElse(null);
+  }
+
+  public static UniTrieFlatState create(
+      final KeyValueStorage storage, final WorldStateStorage worldStateStorage) {
+    return new UniTrieFlatState(
+        storage,
+        worldStateStorage::getAccountStateTrieNode,
+        DEFAULT_MAX_LAYERS,
+        Executors.newSingleThreadExecutor(
+            new ThreadFactoryBuilder()
+                .setDaemon(true)
+                .setNameFormat(UniTrieFlatState.class.getSimpleName() + "-%d")
+                .build()));
+  }
+
+  /**
+   * Read the value mapped to a Unitrie key in a given state.
+   *
+   * @param rootHash root hash of the state to read from
+   * @param key Unitrie key to read
+   * @param fallback function answering the read if the snapshot doesn't cover the state
+   * @return value mapped to the key in the given state, if any
+   */
+  public Optional<Bytes> get(
+      final Bytes32 rootHash, final Bytes key, final Function<Bytes, Optional<Bytes>> fallback) {
+    lock.readLock().lock();
+    try {
+      Bytes32 root = rootHash;
+      for (int i = 0; diskRoot != null && i <= layers.size(); i++) {
+        if (root.equals(diskRoot)) {
+          return storage.get(key.toArrayUnsafe()).map(Bytes::wrap);
+        }
+        final Layer layer = layers.get(root);
+        if (layer == null) {
+          break;
+        }
+        final Optional<Bytes> value = layer.values.get(key);
+        if (value != null) {
+          return value;
+        }
+        root = layer.base;
+      }
+    } finally {
+      lock.readLock().unlock();
+    }
+    return fallback.apply(key);
+  }
+
+  /**
+   * Record a newly persisted state.
+   *
+   * @param parentRoot root hash of the state the new one was derived from
+   * @param rootHash root hash of the new state
+   * @param changes values changed from the parent state, mapped to empty if removed
+   */
+  public void update(
+      final Bytes32 parentRoot, final Bytes32 rootHash, final Map<Bytes, Optional<Bytes>> changes) {
+    if (parentRoot.equals(rootHash)) {
+      return;
+    }
+
+    lock.writeLock().lock();
+    try {
+      if (generation != null) {
+        generation.append(parentRoot, rootHash, changes);
+        return;
+      }
+
+      if (!isTracked(parentRoot)) {
+        if (diskRoot == null || ++untrackedUpdates >= REGENERATION_THRESHOLD) {
+          startGeneration(rootHash);
+        }
+        return;
+      }
+
+      untrackedUpdates = 0;
+      if (!parentRoot.equals(diskRoot)) {
+        moveDiskTo(parentRoot);
+      }
+      addLayer(parentRoot, rootHash, write(rootHash, changes));
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  @VisibleForTesting
+  boolean isTracked(final Bytes32 rootHash) {
+    lock.readLock().lock();
+    try {
+      Bytes32 root = rootHash;
+      for (int i = 0; diskRoot != null && i <= layers.size(); i++) {
+        if (root.equals(diskRoot)) {
+          return true;
+        }
+        final Layer layer = layers.get(root);
+        if (layer == null) {
+          return false;
+        }
+        root = layer.base;
+      }
+      return false;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Visit the entries of a Unitrie whose keys start with a given prefix, in key order.
+   *
+   * @param trie Unitrie to visit
+   * @param prefix prefix of the keys to visit
+   * @param consumer consumer of the visited keys and values
+   * @return number of visited entries
+   */
+  static long forEachEntry(
+      final UniTrie<Bytes, Bytes> trie,
+      final Bytes prefix,
+      final BiConsumer<Bytes, Bytes> consumer) {
+    long count = 0;
+    Bytes startKey = prefix;
+    // Start small: entries past the prefix are collected too, and most prefixes have few entries
+    int limit = 16;
+    while (true) {
+      final NavigableMap<Bytes, Bytes> entries = trie.entriesFrom(startKey, limit);
+      for (final Map.Entry<Bytes, Bytes> entry : entries.entrySet()) {
+        if (entry.getKey().commonPrefixLength(prefix) < prefix.size()) {
+          return count;
+        }
+        consumer.accept(entry.getKey(), entry.getValue());
+        count++;
+      }
+      if (entries.size() < limit) {
+        return count;
+      }
+      // Appending a zero byte yields the smallest key greater than the last one
+      startKey = Bytes.concatenate(entries.lastKey(), Bytes.of(0));
+      limit = Math.min(limit * 2, MAX_ENTRIES_BATCH_SIZE);
+    }
+  }
+
+  private void moveDiskTo(final Bytes32 rootHash) {
+    final Map<Bytes, Optional<Bytes>> values = new HashMap<>();
+    Bytes32 root = rootHash;
+    while (!root.equals(diskRoot)) {
+      final Layer layer = layers.get(root);
+      layer.values.forEach(values::putIfAbsent);
+      root = layer.base;
+    }
+    final Bytes32 previousRoot = diskRoot;
+    addLayer(previousRoot, rootHash, write(rootHash, values));
+  }
+
+  private Map<Bytes, Optional<Bytes>> write(
+      final Bytes32 rootHash, final Map<Bytes, Optional<Bytes>> changes) {
+    final Map<Bytes, Optional<Bytes>> previousValues = new HashMap<>(changes.size());
+    final KeyValueStorageTransaction transaction = storage.startTransaction();
+    changes.forEach(
+        (key, value) -> {
+          final byte[] rawKey = key.toArrayUnsafe();
+          previousValues.put(key, storage.get(rawKey).map(Bytes::wrap));
+          if (value.isPresent()) {
+            transaction.put(rawKey, value.get().toArrayUnsafe());
+          } else {
+            transaction.remove(rawKey);
+          }
+        });
+    transaction.put(ROOT_KEY, rootHash.toArrayUnsafe());
+    transaction.commit();
+    diskRoot = rootHash;
+    // The disk state is never a layer
+    layers.remove(rootHash);
+    return previousValues;
+  }
+
+  private void addLayer(
+      final Bytes32 rootHash, final Bytes32 base, final Map<Bytes, Optional<Bytes>> values) {
+    layers.put(rootHash, new Layer(base, values));
+    final Iterator<Bytes32> oldest = layers.keySet().iterator();
+    while (layers.size() > maxLayers) {
+      oldest.next();
+      oldest.remove();
+    }
+  }
+
+  private void startGeneration(final Bytes32 rootHash) {
+    diskRoot = null;
+    layers.clear();
+    untrackedUpdates = 0;
+    final Generation newGeneration = new Generation(rootHash);
+    generation = newGeneration;
+    generationExecutor.execute(() -> generate(newGeneration));
+  }
+
+  private void generate(final Generation generation) {
+    LOG.info("Generating Unitrie flat state for root {}", generation.rootHash);
+    try {
+      // Drop the marker first, so that an interrupted generation leaves no snapshot behind
+      final KeyValueStorageTransaction markerTransaction = storage.startTransaction();
+      markerTransaction.remove(ROOT_KEY);
+      markerTransaction.commit();
+      storage.clear();
+
+      final UniTrie<Bytes, Bytes> trie =
+          new StoredUniTrie<>(nodeLoader, generation.rootHash, b -> b, b -> b);
+      final BatchWriter writer = new BatchWriter();
+      final long count = forEachEntry(trie, Bytes.EMPTY, writer);
+      writer.commit();
+      LOG.info("Generated Unitrie flat state with {} entries", count);
+    } catch (final RuntimeException e) {
+      // Most likely the state was pruned while being read, the next persisted state will retry
+      LOG.warn("Unitrie flat state generation failed", e);
+      lock.writeLock().lock();
+      try {
+        this.generation = null;
+      } finally {
+        lock.writeLock().unlock();
+      }
+      return;
+    }
+
+    lock.writeLock().lock();
+    try {
+      write(generation.headRoot, generation.changes);
+      this.generation = null;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  private class BatchWriter implements BiConsumer<Bytes, Bytes> {
+    private KeyValueStorageTransaction transaction = storage.startTransaction();
+    private int size;
+
+    @Override
+    public void accept(final Bytes key, final Bytes value) {
+      transaction.put(key.toArrayUnsafe(), value.toArrayUnsafe());
+      if (++size == MAX_ENTRIES_BATCH_SIZE) {
+        commit();
+        transaction = storage.startTransaction();
+        size = 0;
+      }
+    }
+
+    private void commit() {
+      transaction.commit();
+    }
+  }
+
+  private static class Layer {
+    private final Bytes32 base;
+    private final Map<Bytes, Optional<Bytes>> values;
+
+    private Layer(final Bytes32 base, final Map<Bytes, Optional<Bytes>> values) {
+      this.base = base;
+      this.values = values;
+    }
+  }
+
+  /** States persisted on top of the one being generated, folded into a single change set. */
+  private static class Generation {
+    private final Bytes32 rootHash;
+    private final Map<Bytes, Optional<Bytes>> changes = new HashMap<>();
+    private Bytes32 headRoot;
+
+    private Generation(final Bytes32 rootHash) {
+      this.rootHash = rootHash;
+      this.headRoot = rootHash;
+    }
+
+    private void append(
+        final Bytes32 parentRoot,
+        final Bytes32 rootHash,
+        final Map<Bytes, Optional<Bytes>> changes) {
+      // States off the generated chain are left to the fallback
+      if (parentRoot.equals(headRoot)) {
+        this.changes.putAll(changes);
+        headRoot = rootHash;
+      }
+    }
+  }
+}
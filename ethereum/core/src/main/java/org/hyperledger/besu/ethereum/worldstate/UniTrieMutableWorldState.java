@@ -37,6 +37,7 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.NavigableMap;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.stream.Stream;
 
 import com.google.common.annotations.VisibleForTesting;
@@ -53,18 +54,32 @@ public class UniTrieMutableWorldState implements MutableWorldState {
 
   private final WorldStateStorage worldStateStorage;
   private final UniTrie<Bytes, Bytes> trie;
+  private final Optional<UniTrieFlatState> flatState;
 
   private final Map<Address, Bytes> updatedAccountCode = new HashMap<>();
   private final UniTrieKeyMapper keyMapper = new UniTrieKeyMapper();
 
+  // Unitrie changes since the last persist, only tracked when reading from a flat state
+  private final Map<Bytes, Optional<Bytes>> pendingChanges = new HashMap<>();
+  private Bytes32 persistedRootHash;
+
   public UniTrieMutableWorldState(final WorldStateStorage storage) {
     this(UniTrie.NULL_UNINODE_HASH, storage);
   }
 
   public UniTrieMutableWorldState(
       final Bytes32 rootHash, final WorldStateStorage worldStateStorage) {
+    this(rootHash, worldStateStorage, Optional.empty());
+  }
+
+  public UniTrieMutableWorldState(
+      final Bytes32 rootHash,
+      final WorldStateStorage worldStateStorage,
+      final Optional<UniTrieFlatState> flatState) {
     this.worldStateStorage = worldStateStorage;
     this.trie = initTrie(rootHash);
+    this.flatState = flatState;
+    this.persistedRootHash = rootHash;
   }
 
   public UniTrieMutableWorldState(final WorldState worldState) {
@@ -75,6 +90,8 @@ public class UniTrieMutableWorldState implements MutableWorldState {
     final UniTrieMutableWorldState other = (UniTrieMutableWorldState) worldState;
     this.worldStateStorage = other.worldStateStorage;
     this.trie = initTrie(other.trie.getRootHash());
+    this.flatState = other.flatState;
+    this.persistedRootHash = other.trie.getRootHash();
   }
 
   private UniTrie<Bytes, Bytes> initTrie(final Bytes32 rootHash) {
@@ -93,7 +110,7 @@ public class UniTrieMutableWorldState implements MutableWorldState {
 
   @Override
   public MutableWorldState copy() {
-    return new UniTrieMutableWorldState(rootHash(), worldStateStorage);
+    return new UniTrieMutableWorldState(rootHash(), worldStateStorage, flatState);
   }
 
   @Override
@@ -102,6 +119,12 @@ public class UniTrieMutableWorldState implements MutableWorldState {
     trie.commit(stateUpdater::putAccountStateTrieNode, stateUpdater::rawPut);
     updatedAccountCode.clear();
     stateUpdater.commit();
+
+    // The flat state is updated after the Unitrie, so it never gets ahead of it
+    final Bytes32 rootHash = trie.getRootHash();
+    flatState.ifPresent(f -> f.update(persistedRootHash, rootHash, pendingChanges));
+    pendingChanges.clear();
+    persistedRootHash = rootHash;
   }
 
   @Override
@@ -119,7 +142,7 @@ public class UniTrieMutableWorldState implements MutableWorldState {
   @Override
   public Account get(final Address address) {
     final Bytes mappedKey = keyMapper.getAccountKey(address);
-    return trie.get(mappedKey).map(bytes -> deserializeAccount(address, bytes)).orElse(null);
+    return getValue(mappedKey).map(bytes -> deserializeAccount(address, bytes)).orElse(null);
   }
 
   @Override
@@ -142,6 +165,40 @@ public class UniTrieMutableWorldState implements MutableWorldState {
     return trie;
   }
 
+  private Optional<Bytes> getValue(final Bytes key) {
+    if (flatState.isEmpty()) {
+      return trie.get(key);
+    }
+    final Optional<Bytes> pendingValue = pendingChanges.get(key);
+    if (pendingValue != null) {
+      return pendingValue;
+    }
+    return flatState.get().get(persistedRootHash, key, trie::get);
+  }
+
+  private void put(final Bytes key, final Bytes value) {
+    trie.put(key, value);
+    if (flatState.isPresent()) {
+      pendingChanges.put(key, Optional.of(value));
+    }
+  }
+
+  private void remove(final Bytes key) {
+    trie.remove(key);
+    if (flatState.isPresent()) {
+      pendingChanges.put(key, Optional.empty());
+    }
+  }
+
+  private void removeRecursive(final Bytes prefix) {
+    if (flatState.isPresent()) {
+      // The flat state has no subtrees, so each removed key must be listed
+      UniTrieFlatState.forEachEntry(
+          trie, prefix, (key, value) -> pendingChanges.put(key, Optional.empty()));
+    }
+    trie.removeRecursive(prefix);
+  }
+
   private WorldStateAccount deserializeAccount(final Address address, final Bytes encoded)
       throws RLPException {
 
@@ -203,7 +260,7 @@ public class UniTrieMutableWorldState implements MutableWorldState {
       // don't associate code entries to the code hash, the lookup key can't be the
       // code hash. The key must come from the key mapper.
       Bytes mappedKey = keyMapper.getAccountCodeKey(address);
-      return trie.get(mappedKey).orElse(Bytes.EMPTY);
+      return getValue(mappedKey).orElse(Bytes.EMPTY);
     }
 
     @Override
@@ -218,6 +275,9 @@ public class UniTrieMutableWorldState implements MutableWorldState {
       }
 
       Bytes mappedKey = keyMapper.getAccountCodeKey(address);
+      if (flatState.isPresent()) {
+        return getValue(mappedKey).map(Hash::hash).orElse(Hash.EMPTY);
+      }
       return trie.getValueHash(mappedKey).map(Hash::wrap).orElse(Hash.EMPTY);
     }
 
@@ -228,6 +288,11 @@ public class UniTrieMutableWorldState implements MutableWorldState {
       }
 
       Bytes mappedKey = keyMapper.getAccountCodeKey(address);
+      if (flatState.isPresent()) {
+        return getValue(mappedKey)
+            .map(code -> UInt256.valueOf(code.size()).toBytes())
+            .orElse(Bytes32.ZERO);
+      }
       return trie.getValueLength(mappedKey)
           .map(n -> UInt256.valueOf(n).toBytes())
           .orElse(Bytes32.ZERO);
@@ -243,7 +308,7 @@ public class UniTrieMutableWorldState implements MutableWorldState {
       // UniTries don't associate storage entries to their hashes. So the lookup
       // key for a storage entry must come from the key mapper.
       Bytes mappedKey = keyMapper.getAccountStorageKey(address, key);
-      return trie.get(mappedKey).map(this::convertToUInt256).orElse(UInt256.ZERO);
+      return getValue(mappedKey).map(this::convertToUInt256).orElse(UInt256.ZERO);
     }
 
     @Override
@@ -308,8 +373,7 @@ public class UniTrieMutableWorldState implements MutableWorldState {
       final UniTrieMutableWorldState wrapped = wrappedWorldView();
       final Bytes mappedKey = wrapped.keyMapper.getAccountKey(address);
       return wrapped
-          .trie
-          .get(mappedKey)
+          .getValue(mappedKey)
           .map(bytes -> wrapped.deserializeAccount(address, bytes))
           .orElse(null);
     }
@@ -326,7 +390,7 @@ public class UniTrieMutableWorldState implements MutableWorldState {
 
       for (final Address address : deletedAccounts()) {
         final Bytes accountKey = wrapped.keyMapper.getAccountKey(address);
-        wrapped.trie.removeRecursive(accountKey);
+        wrapped.removeRecursive(accountKey);
         wrapped.updatedAccountCode.remove(address);
       }
 
@@ -340,9 +404,9 @@ public class UniTrieMutableWorldState implements MutableWorldState {
           Bytes updatedCode = updated.getCode();
           wrapped.updatedAccountCode.put(address, updatedCode);
           if (updatedCode.isEmpty()) {
-            wrapped.trie.remove(wrapped.keyMapper.getAccountCodeKey(address));
+            wrapped.remove(wrapped.keyMapper.getAccountCodeKey(address));
           } else {
-            wrapped.trie.put(wrapped.keyMapper.getAccountCodeKey(address), updatedCode);
+            wrapped.put(wrapped.keyMapper.getAccountCodeKey(address), updatedCode);
           }
         }
 
@@ -350,26 +414,25 @@ public class UniTrieMutableWorldState implements MutableWorldState {
         Bytes storageRootPrefixKey = wrapped.keyMapper.getAccountStoragePrefixKey(address);
 
         if (updated.getStorageWasCleared()) {
-          wrapped.trie.removeRecursive(storageRootPrefixKey);
+          wrapped.removeRecursive(storageRootPrefixKey);
         }
 
         final Map<UInt256, UInt256> updatedStorage = updated.getUpdatedStorage();
         if (!updatedStorage.isEmpty()) {
-          wrapped.trie.put(storageRootPrefixKey, Bytes.of(0));
+          wrapped.put(storageRootPrefixKey, Bytes.of(0));
           for (final Map.Entry<UInt256, UInt256> entry : updatedStorage.entrySet()) {
             final UInt256 value = entry.getValue();
             final Bytes storageKey =
                 wrapped.keyMapper.getAccountStorageKey(address, entry.getKey());
             if (value.isZero()) {
-              wrapped.trie.remove(storageKey);
+              wrapped.remove(storageKey);
             } else {
-              wrapped.trie.put(
-                  storageKey, RLP.encode(out -> out.writeUInt256Scalar(entry.getValue())));
+              wrapped.put(storageKey, RLP.encode(out -> out.writeUInt256Scalar(entry.getValue())));
             }
           }
 
           if (wrapped.trie.isLeaf(storageRootPrefixKey)) {
-            wrapped.trie.remove(storageRootPrefixKey);
+            wrapped.remove(storageRootPrefixKey);
           }
         }
 
@@ -378,7 +441,7 @@ public class UniTrieMutableWorldState implements MutableWorldState {
             serializeAccount(updated.getNonce(), updated.getBalance(), updated.getVersion());
 
         Bytes accountKey = wrapped.keyMapper.getAccountKey(address);
-        wrapped.trie.put(accountKey, account);
+        wrapped.put(accountKey, account);
       }
     }
   }
@@ -47,6 +47,15 @@ public interface WorldStateStorage {
 
   void removeNodeAddedListener(long id);
 
+  /**
+   * Flat snapshot of the Unitrie world states kept in this storage.
+   *
+   * @return the flat state, or empty if this storage doesn't keep one
+   */
+  default Optional<UniTrieFlatState> getUniTrieFlatState() {
+    return Optional.empty();
+  }
+
   interface Updater {
 
     Updater removeAccountStateTrieNode(Bytes32 nodeHash);
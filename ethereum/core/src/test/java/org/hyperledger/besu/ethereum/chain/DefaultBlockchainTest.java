@@ -16,6 +16,11 @@ package org.hyperledger.besu.ethereum.chain;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
 
 import org.hyperledger.besu.ethereum.core.Block;
 import org.hyperledger.besu.ethereum.core.BlockDataGenerator;
@@ -687,6 +692,57 @@ public class DefaultBlockchainTest {
     assertThat(blockchain.blockIsOnCanonicalChain(originalHead.getHash())).isFalse();
   }
 
+  @Test
+  public void recentBlockDataIsServedFromCache() {
+    final BlockDataGenerator gen = new BlockDataGenerator(2);
+    final List<Block> chain = gen.blockSequence(4);
+    final List<List<TransactionReceipt>> blockReceipts =
+        chain.stream().map(gen::receipts).collect(Collectors.toList());
+    final BlockchainStorage storage = spy(createStorage(new InMemoryKeyValueStorage()));
+    final DefaultBlockchain blockchain =
+        (DefaultBlockchain)
+            DefaultBlockchain.createMutable(chain.get(0), storage, new NoOpMetricsSystem());
+    for (int i = 1; i < chain.size(); i++) {
+      blockchain.appendBlock(chain.get(i), blockReceipts.get(i));
+    }
+    clearInvocations(storage);
+
+    for (int i = 1; i < chain.size(); i++) {
+      final Block block = chain.get(i);
+      assertThat(blockchain.getBlockHeader(block.getHeader().getNumber()))
+          .contains(block.getHeader());
+      assertThat(blockchain.getBlockBody(block.getHash())).contains(block.getBody());
+      assertThat(blockchain.getTxReceipts(block.getHash())).contains(blockReceipts.get(i));
+    }
+
+    verify(storage, never()).getBlockHash(any(Long.class));
+    verify(storage, never()).getBlockBody(any());
+    verify(storage, never()).getTransactionReceipts(any());
+  }
+
+  @Test
+  public void rewindChainInvalidatesCachedBlockHashes() {
+    final BlockDataGenerator gen = new BlockDataGenerator(2);
+    final List<Block> chain = gen.blockSequence(4);
+    final KeyValueStorage kvStore = new InMemoryKeyValueStorage();
+    final DefaultBlockchain blockchain = createMutableBlockchain(kvStore, chain.get(0));
+    for (int i = 1; i < chain.size(); i++) {
+      blockchain.appendBlock(chain.get(i), gen.receipts(chain.get(i)));
+    }
+    final Block originalHead = chain.get(chain.size() - 1);
+    assertThat(blockchain.getBlockHashByNumber(originalHead.getHeader().getNumber()))
+        .contains(originalHead.getHash());
+
+    blockchain.rewindToBlock(originalHead.getHeader().getNumber() - 1);
+
+    assertThat(blockchain.getBlockHashByNumber(originalHead.getHeader().getNumber()))
+        .isNotPresent();
+    assertThat(blockchain.getBlockHeader(originalHead.getHeader().getNumber())).isNotPresent();
+    // Block data itself is still retrievable by hash
+    assertThat(blockchain.getBlockHeader(originalHead.getHash()))
+        .contains(originalHead.getHeader());
+  }
+
   @Test
   public void appendBlockForFork() {
     final BlockDataGenerator gen = new BlockDataGenerator(2);
@@ -0,0 +1,223 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+import org.hyperledger.besu.ethereum.core.AbstractWorldUpdater.UpdateTrackingAccount;
+
+import java.util.Collection;
+import java.util.stream.Collectors;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.units.bigints.UInt256;
+import org.junit.Before;
+import org.junit.Test;
+
+public class JournaledUpdaterTest {
+
+  private static final Address ADDRESS1 = Address.fromHexString("0x1");
+  private static final Address ADDRESS2 = Address.fromHexString("0x2");
+  private static final Address ADDRESS3 = Address.fromHexString("0x3");
+
+  private MutableWorldState worldState;
+  private WorldUpdater blockUpdater;
+  private WorldUpdater transactionUpdater;
+
+  @Before
+  public void setUp() {
+    worldState = InMemoryStorageProvider.createInMemoryWorldState();
+    final WorldUpdater setup = worldState.updater();
+    final MutableAccount account = setup.createAccount(ADDRESS1, 1, Wei.of(100)).getMutable();
+    account.setStorageValue(UInt256.ONE, UInt256.valueOf(11));
+    account.setCode(Bytes.fromHexString("0x6001"));
+    setup.createAccount(ADDRESS2, 0, Wei.of(200));
+    setup.commit();
+    worldState.persist();
+
+    blockUpdater = worldState.updater();
+    transactionUpdater = blockUpdater.transactionUpdater();
+  }
+
+  @Test
+  public void revertDiscardsChangesMadeSinceCheckpoint() {
+    final WorldUpdater outer = transactionUpdater.updater();
+    final MutableAccount account = outer.getAccount(ADDRESS1).getMutable();
+    account.setBalance(Wei.of(150));
+    account.setStorageValue(UInt256.ONE, UInt256.valueOf(12));
+
+    final WorldUpdater inner = outer.updater();
+    final MutableAccount innerAccount = inner.getAccount(ADDRESS1).getMutable();
+    innerAccount.incrementBalance(Wei.of(50));
+    innerAccount.setNonce(5);
+    innerAccount.setCode(Bytes.fromHexString("0x6002"));
+    innerAccount.setStorageValue(UInt256.ONE, UInt256.valueOf(13));
+    innerAccount.setStorageValue(UInt256.valueOf(2), UInt256.valueOf(21));
+    inner.createAccount(ADDRESS3, 0, Wei.of(300));
+    inner.deleteAccount(ADDRESS2);
+    assertThat(outer.get(ADDRESS1).getBalance()).isEqualTo(Wei.of(200));
+    assertThat(outer.get(ADDRESS2)).isNull();
+
+    inner.revert();
+
+    final Account reverted = outer.get(ADDRESS1);
+    assertThat(reverted.getBalance()).isEqualTo(Wei.of(150));
+    assertThat(reverted.getNonce()).isEqualTo(1);
+    assertThat(reverted.getCode()).isEqualTo(Bytes.fromHexString("0x6001"));
+    assertThat(reverted.getStorageValue(UInt256.ONE)).isEqualTo(UInt256.valueOf(12));
+    assertThat(reverted.getStorageValue(UInt256.valueOf(2))).isEqualTo(UInt256.ZERO);
+    assertThat(outer.get(ADDRESS2).getBalance()).isEqualTo(Wei.of(200));
+    assertThat(outer.get(ADDRESS3)).isNull();
+
+    commitAll(outer);
+    assertThat(worldState.get(ADDRESS1).getBalance()).isEqualTo(Wei.of(150));
+    assertThat(worldState.get(ADDRESS1).getStorageValue(UInt256.ONE))
+        .isEqualTo(UInt256.valueOf(12));
+    assertThat(worldState.get(ADDRESS2)).isNotNull();
+    assertThat(worldState.get(ADDRESS3)).isNull();
+  }
+
+  @Test
+  public void committedCheckpointChangesAreRevertedWithEnclosingCheckpoint() {
+    final WorldUpdater outer = transactionUpdater.updater();
+    final WorldUpdater inner = outer.updater();
+    inner.getAccount(ADDRESS1).getMutable().setStorageValue(UInt256.ONE, UInt256.ZERO);
+    inner.createAccount(ADDRESS3, 0, Wei.of(300));
+    inner.commit();
+
+    assertThat(outer.get(ADDRESS1).getStorageValue(UInt256.ONE)).isEqualTo(UInt256.ZERO);
+    assertThat(outer.get(ADDRESS3)).isNotNull();
+
+    outer.revert();
+
+    assertThat(transactionUpdater.get(ADDRESS1).getStorageValue(UInt256.ONE))
+        .isEqualTo(UInt256.valueOf(11));
+    assertThat(transactionUpdater.get(ADDRESS3)).isNull();
+    assertThat(transactionUpdater.getTouchedAccounts()).isEmpty();
+  }
+
+  @Test
+  public void revertRestoresClearedStorage() {
+    final WorldUpdater outer = transactionUpdater.updater();
+    final MutableAccount account = outer.getAccount(ADDRESS1).getMutable();
+    account.setStorageValue(UInt256.valueOf(2), UInt256.valueOf(22));
+
+    final WorldUpdater inner = outer.updater();
+    inner.getAccount(ADDRESS1).getMutable().clearStorage();
+    assertThat(outer.get(ADDRESS1).getStorageValue(UInt256.ONE)).isEqualTo(UInt256.ZERO);
+
+    inner.revert();
+
+    assertThat(outer.get(ADDRESS1).getStorageValue(UInt256.ONE)).isEqualTo(UInt256.valueOf(11));
+    assertThat(outer.get(ADDRESS1).getStorageValue(UInt256.valueOf(2)))
+        .isEqualTo(UInt256.valueOf(22));
+  }
+
+  @Test
+  public void updatedStorageIsScopedToCheckpoint() {
+    final WorldUpdater outer = transactionUpdater.updater();
+    outer.getAccount(ADDRESS1).getMutable().setStorageValue(UInt256.ONE, UInt256.valueOf(12));
+
+    final WorldUpdater inner = outer.updater();
+    final MutableAccount innerAccount = inner.getAccount(ADDRESS1).getMutable();
+    assertThat(innerAccount.getUpdatedStorage()).isEmpty();
+    innerAccount.setStorageValue(UInt256.valueOf(2), UInt256.valueOf(21));
+    assertThat(innerAccount.getUpdatedStorage())
+        .containsOnly(entry(UInt256.valueOf(2), UInt256.valueOf(21)));
+    inner.commit();
+
+    final WorldUpdater reverted = outer.updater();
+    reverted.getAccount(ADDRESS1).getMutable().setStorageValue(UInt256.ONE, UInt256.valueOf(13));
+    reverted.revert();
+
+    assertThat(outer.getAccount(ADDRESS1).getMutable().getUpdatedStorage())
+        .containsOnly(
+            entry(UInt256.ONE, UInt256.valueOf(12)),
+            entry(UInt256.valueOf(2), UInt256.valueOf(21)));
+  }
+
+  @Test
+  public void touchedAccountsAreScopedToCheckpoint() {
+    final WorldUpdater outer = transactionUpdater.updater();
+    outer.getAccount(ADDRESS1);
+
+    final WorldUpdater inner = outer.updater();
+    inner.getAccount(ADDRESS2);
+    inner.createAccount(ADDRESS3);
+
+    assertThat(addresses(inner.getTouchedAccounts())).containsExactlyInAnyOrder(ADDRESS2, ADDRESS3);
+    assertThat(addresses(outer.getTouchedAccounts()))
+        .containsExactlyInAnyOrder(ADDRESS1, ADDRESS2, ADDRESS3);
+
+    inner.revert();
+
+    assertThat(inner.getTouchedAccounts()).isEmpty();
+    assertThat(addresses(outer.getTouchedAccounts())).containsExactly(ADDRESS1);
+  }
+
+  @Test
+  public void accountTouchedAgainInNestedCheckpointIsTouchedByIt() {
+    final WorldUpdater outer = transactionUpdater.updater();
+    outer.getAccount(ADDRESS1);
+
+    final WorldUpdater inner = outer.updater();
+    assertThat(inner.getTouchedAccounts()).isEmpty();
+    inner.getAccount(ADDRESS1);
+
+    assertThat(addresses(inner.getTouchedAccounts())).containsExactly(ADDRESS1);
+    inner.revert();
+    assertThat(addresses(outer.getTouchedAccounts())).containsExactly(ADDRESS1);
+  }
+
+  @Test
+  public void deletedAccountsAreScopedToCheckpoint() {
+    final WorldUpdater outer = transactionUpdater.updater();
+    outer.deleteAccount(ADDRESS1);
+
+    final WorldUpdater inner = outer.updater();
+    inner.deleteAccount(ADDRESS2);
+
+    assertThat(inner.getDeletedAccountAddresses()).containsExactly(ADDRESS2);
+    assertThat(outer.getDeletedAccountAddresses()).containsExactlyInAnyOrder(ADDRESS1, ADDRESS2);
+
+    inner.revert();
+
+    assertThat(outer.getDeletedAccountAddresses()).containsExactly(ADDRESS1);
+    assertThat(outer.get(ADDRESS2)).isNotNull();
+  }
+
+  @Test
+  public void checkpointsChainToTransactionAndBlockUpdaters() {
+    final WorldUpdater outer = transactionUpdater.updater();
+    final WorldUpdater inner = outer.updater();
+
+    assertThat(inner.parentUpdater()).contains(outer);
+    assertThat(outer.parentUpdater()).contains(transactionUpdater);
+    assertThat(transactionUpdater.parentUpdater()).contains(blockUpdater);
+  }
+
+  private void commitAll(final WorldUpdater checkpoint) {
+    checkpoint.commit();
+    transactionUpdater.commit();
+    blockUpdater.commit();
+    worldState.persist();
+  }
+
+  private static Collection<Address> addresses(
+      final Collection<UpdateTrackingAccount<? extends Account>> accounts) {
+    return accounts.stream().map(Account::getAddress).collect(Collectors.toList());
+  }
+}
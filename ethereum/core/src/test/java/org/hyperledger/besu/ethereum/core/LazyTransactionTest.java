@@ -0,0 +1,102 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.hyperledger.besu.ethereum.mainnet.BodyValidation;
+import org.hyperledger.besu.ethereum.mainnet.MainnetBlockHeaderFunctions;
+import org.hyperledger.besu.ethereum.rlp.RLP;
+import org.hyperledger.besu.ethereum.rlp.RLPException;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.junit.Test;
+
+public class LazyTransactionTest {
+
+  private final BlockDataGenerator gen = new BlockDataGenerator();
+
+  @Test
+  public void hashAndEncodingDoNotDecodeFields() {
+    final Transaction transaction = gen.transaction();
+    final Bytes encoded = RLP.encode(transaction::writeTo);
+
+    final LazyTransaction lazy = (LazyTransaction) Transaction.readLazilyFrom(RLP.input(encoded));
+
+    assertThat(lazy.getHash()).isEqualTo(transaction.getHash());
+    assertThat(RLP.encode(lazy::writeTo)).isEqualTo(encoded);
+    assertThat(lazy.isDecoded()).isFalse();
+  }
+
+  @Test
+  public void fieldsAreDecodedOnFirstAccess() {
+    final Transaction transaction = gen.transaction();
+    final Transaction lazy =
+        Transaction.readLazilyFrom(RLP.input(RLP.encode(transaction::writeTo)));
+
+    assertThat(lazy.getNonce()).isEqualTo(transaction.getNonce());
+    assertThat(((LazyTransaction) lazy).isDecoded()).isTrue();
+    assertThat(lazy.getSender()).isEqualTo(transaction.getSender());
+    assertThat(lazy.getV()).isEqualTo(transaction.getV());
+    assertThat(lazy).isEqualTo(transaction);
+    assertThat(transaction).isEqualTo(lazy);
+    assertThat(lazy.hashCode()).isEqualTo(transaction.hashCode());
+    assertThat(lazy.toString()).isEqualTo(transaction.toString());
+  }
+
+  @Test
+  public void blockBodyMatchesEagerlyDecodedBody() {
+    final BlockBody body = gen.body();
+    final Bytes encoded = RLP.encode(body::writeTo);
+    final MainnetBlockHeaderFunctions functions = new MainnetBlockHeaderFunctions();
+
+    final BlockBody lazy = BlockBody.readLazilyFrom(RLP.input(encoded), functions);
+
+    assertThat(transactionHashes(lazy.getTransactions()))
+        .isEqualTo(transactionHashes(body.getTransactions()));
+    assertThat(BodyValidation.transactionsRoot(lazy.getTransactions()))
+        .isEqualTo(BodyValidation.transactionsRoot(body.getTransactions()));
+    assertThat(RLP.encode(lazy::writeTo)).isEqualTo(encoded);
+    assertThat(lazy.getTransactions())
+        .allMatch(transaction -> !((LazyTransaction) transaction).isDecoded());
+    assertThat(lazy).isEqualTo(BlockBody.readFrom(RLP.input(encoded), functions));
+  }
+
+  @Test
+  public void blockMatchesEagerlyDecodedBlock() {
+    final Block block = gen.block();
+    final Bytes encoded = RLP.encode(block::writeTo);
+    final MainnetBlockHeaderFunctions functions = new MainnetBlockHeaderFunctions();
+
+    final Block lazy = Block.readLazilyFrom(RLP.input(encoded), functions);
+
+    assertThat(lazy).isEqualTo(block);
+    assertThat(RLP.encode(lazy::writeTo)).isEqualTo(encoded);
+  }
+
+  @Test
+  public void rejectsNonListTransaction() {
+    assertThatThrownBy(() -> Transaction.readLazilyFrom(RLP.input(Bytes.fromHexString("0x80"))))
+        .isInstanceOf(RLPException.class);
+  }
+
+  private static List<Hash> transactionHashes(final List<Transaction> transactions) {
+    return transactions.stream().map(Transaction::getHash).collect(Collectors.toList());
+  }
+}
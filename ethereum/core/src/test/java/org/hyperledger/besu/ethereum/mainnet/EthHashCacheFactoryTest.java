@@ -0,0 +1,96 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.mainnet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.hyperledger.besu.metrics.StubMetricsSystem;
+
+import java.nio.IntBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.google.common.primitives.Ints;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class EthHashCacheFactoryTest {
+
+  @Rule public final TemporaryFolder tmp = new TemporaryFolder();
+
+  private final List<Runnable> backgroundTasks = new ArrayList<>();
+  private final StubMetricsSystem metricsSystem = new StubMetricsSystem();
+
+  @Test
+  public void persistsGeneratedCacheAndLoadsItOnRestart() throws Exception {
+    final Path directory = tmp.newFolder().toPath();
+    final EthHashCacheFactory factory = createFactory(directory);
+
+    final IntBuffer generated = factory.ethHashCacheFor(1).getCache();
+
+    assertThat(Files.size(directory.resolve("cache-0.bin"))).isEqualTo(EthHash.cacheSize(0));
+    assertThat(generated)
+        .isEqualTo(IntBuffer.wrap(EthHash.mkCache(Ints.checkedCast(EthHash.cacheSize(0)), 1)));
+    assertThat(metricsSystem.getCounterValue("ethash_caches_total", "generated")).isEqualTo(1);
+
+    final EthHashCacheFactory.EthHashDescriptor loaded =
+        createFactory(directory).ethHashCacheFor(1);
+
+    assertThat(loaded.getCache().isDirect()).isTrue();
+    assertThat(loaded.getCache()).isEqualTo(generated);
+    assertThat(loaded.getDatasetSize()).isEqualTo(EthHash.datasetSize(0));
+    assertThat(metricsSystem.getCounterValue("ethash_caches_total", "loaded")).isEqualTo(1);
+  }
+
+  @Test
+  public void ignoresTruncatedCacheFile() throws Exception {
+    final Path directory = tmp.newFolder().toPath();
+    Files.write(directory.resolve("cache-0.bin"), new byte[64]);
+
+    createFactory(directory).ethHashCacheFor(1);
+
+    assertThat(metricsSystem.getCounterValue("ethash_caches_total", "loaded")).isZero();
+    assertThat(Files.size(directory.resolve("cache-0.bin"))).isEqualTo(EthHash.cacheSize(0));
+  }
+
+  @Test
+  public void precomputesNextEpochNearBoundary() throws Exception {
+    final Path directory = tmp.newFolder().toPath();
+    final EthHashCacheFactory factory = createFactory(directory);
+
+    factory.ethHashCacheFor(EthHash.EPOCH_LENGTH - EthHashCacheFactory.PRECOMPUTE_DISTANCE - 1);
+    assertThat(backgroundTasks).isEmpty();
+
+    factory.ethHashCacheFor(EthHash.EPOCH_LENGTH - EthHashCacheFactory.PRECOMPUTE_DISTANCE);
+    factory.ethHashCacheFor(EthHash.EPOCH_LENGTH - 1);
+    assertThat(backgroundTasks).hasSize(1);
+
+    backgroundTasks.forEach(Runnable::run);
+    assertThat(metricsSystem.getCounterValue("ethash_caches_total", "precomputed")).isEqualTo(1);
+    assertThat(Files.exists(directory.resolve("cache-1.bin"))).isTrue();
+
+    factory.ethHashCacheFor(EthHash.EPOCH_LENGTH);
+    assertThat(metricsSystem.getCounterValue("ethash_caches_total", "generated")).isEqualTo(1);
+  }
+
+  private EthHashCacheFactory createFactory(final Path directory) {
+    final EthHashCacheFactory factory = new EthHashCacheFactory(backgroundTasks::add);
+    factory.configure(directory, metricsSystem);
+    return factory;
+  }
+}
@@ -17,6 +17,7 @@ package org.hyperledger.besu.ethereum.mainnet;
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -26,10 +27,16 @@ import org.hyperledger.besu.ethereum.ProtocolContext;
 import org.hyperledger.besu.ethereum.chain.MutableBlockchain;
 import org.hyperledger.besu.ethereum.core.Block;
 import org.hyperledger.besu.ethereum.core.Hash;
+import org.hyperledger.besu.ethereum.core.MutableWorldState;
+import org.hyperledger.besu.ethereum.storage.WriteBatch;
+
+import java.util.Collections;
+import java.util.Optional;
 
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 
@@ -40,6 +47,8 @@ public class MainnetBlockImporterTest {
   @Mock private MutableBlockchain blockchain;
   @Mock private Block block;
   @Mock private Hash hash;
+  @Mock private MutableWorldState worldState;
+  @Mock private WriteBatch writeBatch;
   private MainnetBlockImporter<Object> blockImporter;
 
   @Before
@@ -62,4 +71,25 @@ public class MainnetBlockImporterTest {
             context, block, HeaderValidationMode.FULL, HeaderValidationMode.FULL);
     verify(blockchain, never()).appendBlock(eq(block), any());
   }
+
+  @Test
+  public void persistBlockInSingleWriteBatch() {
+    when(blockValidator.validateAndProcessBlock(
+            context, block, HeaderValidationMode.FULL, HeaderValidationMode.FULL))
+        .thenReturn(
+            Optional.of(
+                new BlockValidator.BlockProcessingOutputs(worldState, Collections.emptyList())));
+    when(context.startWriteBatch()).thenReturn(writeBatch);
+
+    assertThat(
+            blockImporter.importBlock(
+                context, block, HeaderValidationMode.FULL, HeaderValidationMode.FULL))
+        .isTrue();
+
+    final InOrder inOrder = inOrder(context, worldState, blockchain, writeBatch);
+    inOrder.verify(context).startWriteBatch();
+    inOrder.verify(worldState).persist();
+    inOrder.verify(blockchain).appendBlock(block, Collections.emptyList());
+    inOrder.verify(writeBatch).close();
+  }
 }
@@ -0,0 +1,235 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.mainnet;
+
+import static java.util.Collections.emptyList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.hyperledger.besu.crypto.SECP256K1.KeyPair;
+import org.hyperledger.besu.ethereum.chain.Blockchain;
+import org.hyperledger.besu.ethereum.core.Address;
+import org.hyperledger.besu.ethereum.core.BlockHeader;
+import org.hyperledger.besu.ethereum.core.BlockHeaderTestFixture;
+import org.hyperledger.besu.ethereum.core.ExecutionContextTestFixture;
+import org.hyperledger.besu.ethereum.core.Hash;
+import org.hyperledger.besu.ethereum.core.InMemoryStorageProvider;
+import org.hyperledger.besu.ethereum.core.MutableAccount;
+import org.hyperledger.besu.ethereum.core.MutableWorldState;
+import org.hyperledger.besu.ethereum.core.Transaction;
+import org.hyperledger.besu.ethereum.core.TransactionReceipt;
+import org.hyperledger.besu.ethereum.core.Wei;
+import org.hyperledger.besu.ethereum.core.WorldUpdater;
+import org.hyperledger.besu.ethereum.rlp.RLP;
+import org.hyperledger.besu.ethereum.vm.TestBlockchain;
+import org.hyperledger.besu.metrics.StubMetricsSystem;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.units.bigints.UInt256;
+import org.junit.After;
+import org.junit.Test;
+
+public class ParallelTransactionExecutorTest {
+
+  private static final Address COINBASE = Address.fromHexString("0xc0c0c0");
+  private static final Address COUNTER = Address.fromHexString("0xc0ffee");
+  // Increments storage slot 0: PUSH1 0 SLOAD PUSH1 1 ADD PUSH1 0 SSTORE
+  private static final Bytes COUNTER_CODE = Bytes.fromHexString("0x600054600101600055");
+  private static final Wei INITIAL_BALANCE = Wei.fromEth(10);
+
+  private final ProtocolSpec<Void> protocolSpec =
+      ExecutionContextTestFixture.create().getProtocolSchedule().getByBlockNumber(1);
+  private final Blockchain blockchain = new TestBlockchain();
+  private final StubMetricsSystem metricsSystem = new StubMetricsSystem();
+  private final ExecutorService executorService = Executors.newFixedThreadPool(4);
+  private final ParallelTransactionExecutor parallelTransactionExecutor =
+      new ParallelTransactionExecutor(executorService, metricsSystem);
+  private final List<KeyPair> keys = new ArrayList<>();
+
+  @After
+  public void tearDown() {
+    executorService.shutdownNow();
+  }
+
+  @Test
+  public void independentTransactionsDoNotConflict() {
+    final List<Transaction> transactions = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      transactions.add(transfer(sender(i), 0, Address.fromHexString("0x100" + i)));
+    }
+
+    assertParallelProcessingMatchesSequential(transactions);
+    assertThat(metricsSystem.getCounterValue("parallel_transactions_total")).isEqualTo(4);
+    assertThat(metricsSystem.getCounterValue("parallel_transaction_conflicts_total")).isZero();
+  }
+
+  @Test
+  public void transactionsFromSameSenderAreReExecuted() {
+    final KeyPair sender = sender(0);
+    final List<Transaction> transactions = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      transactions.add(transfer(sender, i, Address.fromHexString("0x100" + i)));
+    }
+    transactions.add(transfer(sender(1), 0, Address.fromHexString("0x1004")));
+
+    assertParallelProcessingMatchesSequential(transactions);
+    assertThat(metricsSystem.getCounterValue("parallel_transaction_conflicts_total")).isEqualTo(2);
+    assertThat(metricsSystem.getGaugeValue("parallel_transaction_conflict_rate")).isEqualTo(0.5);
+  }
+
+  @Test
+  public void transactionsWritingSameStorageAreReExecuted() {
+    final List<Transaction> transactions = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      transactions.add(call(sender(i), 0, COUNTER));
+    }
+
+    final MutableWorldState worldState = assertParallelProcessingMatchesSequential(transactions);
+    assertThat(worldState.get(COUNTER).getStorageValue(UInt256.ZERO)).isEqualTo(UInt256.valueOf(3));
+    assertThat(metricsSystem.getCounterValue("parallel_transaction_conflicts_total")).isEqualTo(2);
+  }
+
+  @Test
+  public void beneficiaryFeesDoNotConflict() {
+    final List<Transaction> transactions = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      transactions.add(transfer(sender(i), 0, Address.fromHexString("0x100" + i)));
+    }
+
+    final MutableWorldState worldState =
+        assertParallelProcessingMatchesSequential(transactions, true);
+    assertThat(worldState.get(COINBASE).getBalance()).isGreaterThan(INITIAL_BALANCE);
+    assertThat(metricsSystem.getCounterValue("parallel_transaction_conflicts_total")).isZero();
+  }
+
+  @Test
+  public void transactionsReadingBeneficiaryAreReExecuted() {
+    final List<Transaction> transactions = new ArrayList<>();
+    transactions.add(transfer(sender(0), 0, Address.fromHexString("0x1000")));
+    transactions.add(transfer(sender(1), 0, COINBASE));
+    transactions.add(transfer(sender(2), 0, Address.fromHexString("0x1002")));
+
+    assertParallelProcessingMatchesSequential(transactions, true);
+    assertThat(metricsSystem.getCounterValue("parallel_transaction_conflicts_total")).isEqualTo(1);
+  }
+
+  private MutableWorldState assertParallelProcessingMatchesSequential(
+      final List<Transaction> transactions) {
+    return assertParallelProcessingMatchesSequential(transactions, false);
+  }
+
+  private MutableWorldState assertParallelProcessingMatchesSequential(
+      final List<Transaction> transactions, final boolean fundCoinbase) {
+    final BlockHeader blockHeader =
+        new BlockHeaderTestFixture()
+            .number(1)
+            .gasLimit(10_000_000)
+            .coinbase(COINBASE)
+            .buildHeader();
+
+    final MutableWorldState sequentialState = createWorldState(fundCoinbase);
+    final AbstractBlockProcessor.Result sequentialResult =
+        createBlockProcessor()
+            .processBlock(blockchain, sequentialState, blockHeader, transactions, emptyList());
+
+    final MutableWorldState parallelState = createWorldState(fundCoinbase);
+    final AbstractBlockProcessor parallelBlockProcessor = createBlockProcessor();
+    parallelBlockProcessor.setParallelTransactionExecutor(parallelTransactionExecutor);
+    final AbstractBlockProcessor.Result parallelResult =
+        parallelBlockProcessor.processBlock(
+            blockchain, parallelState, blockHeader, transactions, emptyList());
+
+    assertThat(sequentialResult.isSuccessful()).isTrue();
+    assertThat(parallelResult.isSuccessful()).isTrue();
+    assertThat(encoded(parallelResult.getReceipts()))
+        .isEqualTo(encoded(sequentialResult.getReceipts()));
+    final Hash expectedRoot = sequentialState.rootHash();
+    assertThat(parallelState.rootHash()).isEqualTo(expectedRoot);
+    return parallelState;
+  }
+
+  private static List<Bytes> encoded(final List<TransactionReceipt> receipts) {
+    return receipts.stream()
+        .map(receipt -> RLP.encode(receipt::writeToWithRevertReason))
+        .collect(Collectors.toList());
+  }
+
+  private AbstractBlockProcessor createBlockProcessor() {
+    return new MainnetBlockProcessor(
+        protocolSpec.getTransactionProcessor(),
+        protocolSpec.getTransactionReceiptFactory(),
+        protocolSpec.getBlockReward(),
+        protocolSpec.getMiningBeneficiaryCalculator(),
+        protocolSpec.isSkipZeroBlockRewards());
+  }
+
+  private MutableWorldState createWorldState(final boolean fundCoinbase) {
+    final MutableWorldState worldState = InMemoryStorageProvider.createInMemoryWorldState();
+    final WorldUpdater updater = worldState.updater();
+    for (final KeyPair key : keys) {
+      updater.createAccount(senderAddress(key), 0, INITIAL_BALANCE);
+    }
+    if (fundCoinbase) {
+      updater.createAccount(COINBASE, 0, INITIAL_BALANCE);
+    }
+    final MutableAccount counter = updater.createAccount(COUNTER).getMutable();
+    counter.setCode(COUNTER_CODE);
+    updater.commit();
+    worldState.persist();
+    return worldState;
+  }
+
+  private KeyPair sender(final int index) {
+    while (keys.size() <= index) {
+      keys.add(KeyPair.generate());
+    }
+    return keys.get(index);
+  }
+
+  private static Address senderAddress(final KeyPair key) {
+    return Address.extract(Hash.hash(key.getPublicKey().getEncodedBytes()));
+  }
+
+  private static Transaction transfer(final KeyPair sender, final long nonce, final Address to) {
+    return transaction(sender, nonce, to, 21_000, Wei.of(1000));
+  }
+
+  private static Transaction call(final KeyPair sender, final long nonce, final Address to) {
+    return transaction(sender, nonce, to, 100_000, Wei.ZERO);
+  }
+
+  private static Transaction transaction(
+      final KeyPair sender,
+      final long nonce,
+      final Address to,
+      final long gasLimit,
+      final Wei value) {
+    return Transaction.builder()
+        .nonce(nonce)
+        .gasPrice(Wei.of(5))
+        .gasLimit(gasLimit)
+        .to(to)
+        .value(value)
+        .payload(Bytes.EMPTY)
+        .chainId(BigInteger.valueOf(42))
+        .signAndBuild(sender);
+  }
+}
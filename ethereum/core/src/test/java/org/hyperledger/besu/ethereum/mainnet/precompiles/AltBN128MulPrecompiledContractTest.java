@@ -0,0 +1,80 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.mainnet.precompiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.hyperledger.besu.ethereum.vm.GasCalculator;
+import org.hyperledger.besu.ethereum.vm.MessageFrame;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class AltBN128MulPrecompiledContractTest {
+
+  private static final Bytes G1 =
+      Bytes.fromHexString(
+          "0x0000000000000000000000000000000000000000000000000000000000000001"
+              + "0000000000000000000000000000000000000000000000000000000000000002");
+  private static final Bytes G1_TIMES_TWO =
+      Bytes.fromHexString(
+          "0x030644e72e131a029b85045b68181585d97816a916871ca8d3c208c16d87cfd3"
+              + "15ed738c0e0a7c92e7845f96b2ae9c0a68a6a449e3538fc7ff3ebf7a5a18a2c4");
+  private static final Bytes INFINITY = Bytes.wrap(new byte[64]);
+
+  @Mock MessageFrame messageFrame;
+  @Mock GasCalculator gasCalculator;
+
+  private final AltBN128MulPrecompiledContract contract =
+      AltBN128MulPrecompiledContract.istanbul(gasCalculator);
+
+  @Test
+  public void compute_doubling() {
+    assertThat(contract.compute(Bytes.concatenate(G1, scalar(2)), messageFrame))
+        .isEqualTo(G1_TIMES_TWO);
+  }
+
+  @Test
+  public void compute_missingBytesAreZeros() {
+    assertThat(contract.compute(Bytes.EMPTY, messageFrame)).isEqualTo(INFINITY);
+    assertThat(contract.compute(G1, messageFrame)).isEqualTo(INFINITY);
+    assertThat(contract.compute(Bytes.concatenate(G1, Bytes.of(0)), messageFrame))
+        .isEqualTo(INFINITY);
+  }
+
+  @Test
+  public void compute_extraBytesAreIgnored() {
+    assertThat(contract.compute(Bytes.concatenate(G1, scalar(2), G1), messageFrame))
+        .isEqualTo(G1_TIMES_TWO);
+  }
+
+  @Test
+  public void compute_invalidPoint() {
+    assertThat(
+            contract.compute(
+                Bytes.concatenate(G1.slice(0, 32), G1_TIMES_TWO.slice(32, 32), scalar(2)),
+                messageFrame))
+        .isNull();
+  }
+
+  private static Bytes scalar(final int n) {
+    return Bytes32.leftPad(Bytes.of(n));
+  }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.mainnet.precompiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.hyperledger.besu.ethereum.mainnet.IstanbulGasCalculator;
+import org.hyperledger.besu.ethereum.vm.MessageFrame;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class BigIntegerModularExponentiationPrecompiledContractTest {
+
+  @Mock MessageFrame messageFrame;
+
+  private final BigIntegerModularExponentiationPrecompiledContract contract =
+      new BigIntegerModularExponentiationPrecompiledContract(new IstanbulGasCalculator());
+
+  @Test
+  public void compute_modularExponentiation() {
+    // 3^5 mod 7
+    final Bytes input = Bytes.concatenate(lengths(1, 1, 1), Bytes.of(3, 5, 7));
+    assertThat(contract.compute(input, messageFrame)).isEqualTo(Bytes.of(5));
+  }
+
+  @Test
+  public void compute_missingBytesAreZeros() {
+    // 3^5 mod 0x0700, the second byte of the modulus is missing
+    final Bytes input = Bytes.concatenate(lengths(1, 1, 2), Bytes.of(3, 5, 7));
+    assertThat(contract.compute(input, messageFrame)).isEqualTo(Bytes.of(0, 243));
+  }
+
+  @Test
+  public void compute_zeroModulus() {
+    final Bytes input = Bytes.concatenate(lengths(1, 1, 2), Bytes.of(3, 5));
+    assertThat(contract.compute(input, messageFrame)).isEqualTo(Bytes.of(0, 0));
+  }
+
+  private static Bytes lengths(
+      final int baseLength, final int exponentLength, final int modulusLength) {
+    return Bytes.concatenate(
+        Bytes32.leftPad(Bytes.of(baseLength)),
+        Bytes32.leftPad(Bytes.of(exponentLength)),
+        Bytes32.leftPad(Bytes.of(modulusLength)));
+  }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.privacy;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.hyperledger.besu.enclave.Enclave;
+import org.hyperledger.besu.enclave.EnclaveClientException;
+import org.hyperledger.besu.enclave.types.ReceiveResponse;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.Test;
+
+public class EnclavePayloadCacheTest {
+
+  private final Enclave enclave = mock(Enclave.class);
+  private final EnclavePayloadCache enclavePayloadCache = new EnclavePayloadCache(enclave);
+
+  @Test
+  public void prefetchedPayloadsAreNotFetchedAgain() {
+    final ReceiveResponse first = response("first");
+    final ReceiveResponse second = response("second");
+    when(enclave.receiveAsync("a")).thenReturn(CompletableFuture.completedFuture(first));
+    when(enclave.receiveAsync("b")).thenReturn(CompletableFuture.completedFuture(second));
+
+    enclavePayloadCache.prefetch(List.of("a", "b", "a"));
+
+    assertThat(enclavePayloadCache.receive("a")).isSameAs(first);
+    assertThat(enclavePayloadCache.receive("b")).isSameAs(second);
+    verify(enclave, times(1)).receiveAsync("a");
+    verify(enclave, never()).receive("a");
+    verify(enclave, never()).receive("b");
+  }
+
+  @Test
+  public void payloadsAreHandedOutOnce() {
+    final ReceiveResponse prefetched = response("prefetched");
+    final ReceiveResponse fetched = response("fetched");
+    when(enclave.receiveAsync("a")).thenReturn(CompletableFuture.completedFuture(prefetched));
+    when(enclave.receive("a")).thenReturn(fetched);
+
+    enclavePayloadCache.prefetch(List.of("a"));
+
+    assertThat(enclavePayloadCache.receive("a")).isSameAs(prefetched);
+    assertThat(enclavePayloadCache.receive("a")).isSameAs(fetched);
+  }
+
+  @Test
+  public void payloadsThatWereNotPrefetchedAreFetchedSynchronously() {
+    final ReceiveResponse fetched = response("fetched");
+    when(enclave.receive("a")).thenReturn(fetched);
+
+    assertThat(enclavePayloadCache.receive("a")).isSameAs(fetched);
+  }
+
+  @Test
+  public void prefetchFailuresAreRethrownOnReceive() {
+    final EnclaveClientException error = new EnclaveClientException(404, "EnclavePayloadNotFound");
+    when(enclave.receiveAsync("a")).thenReturn(CompletableFuture.failedFuture(error));
+
+    enclavePayloadCache.prefetch(List.of("a"));
+
+    assertThatThrownBy(() -> enclavePayloadCache.receive("a")).isSameAs(error);
+  }
+
+  private static ReceiveResponse response(final String payload) {
+    return new ReceiveResponse(payload.getBytes(), "group", "sender");
+  }
+}
@@ -18,18 +18,31 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.hyperledger.besu.ethereum.privacy.storage.PrivateStateKeyValueStorage.SCHEMA_VERSION_1_0_0;
 import static org.hyperledger.besu.ethereum.privacy.storage.PrivateStateKeyValueStorage.SCHEMA_VERSION_1_4_0;
 
+import org.hyperledger.besu.ethereum.core.Hash;
 import org.hyperledger.besu.services.kvstore.InMemoryKeyValueStorage;
 
+import java.util.Map;
+
+import org.apache.tuweni.bytes.Bytes32;
 import org.junit.Before;
 import org.junit.Test;
 
 public class PrivateStateKeyValueStorageTest {
 
+  private static final Bytes32 PRIVACY_GROUP_ID = Bytes32.fromHexStringLenient("0x1");
+  private static final Hash BLOCK_1 = Hash.fromHexStringLenient("0xb1");
+  private static final Hash BLOCK_2 = Hash.fromHexStringLenient("0xb2");
+  private static final Hash BLOCK_3 = Hash.fromHexStringLenient("0xb3");
+  private static final Hash STATE_ROOT_1 = Hash.fromHexStringLenient("0x51");
+  private static final Hash STATE_ROOT_2 = Hash.fromHexStringLenient("0x52");
+
+  private InMemoryKeyValueStorage keyValueStorage;
   private PrivateStateKeyValueStorage storage;
 
   @Before
   public void before() {
-    storage = new PrivateStateKeyValueStorage(new InMemoryKeyValueStorage());
+    keyValueStorage = new InMemoryKeyValueStorage();
+    storage = new PrivateStateKeyValueStorage(keyValueStorage);
   }
 
   @Test
@@ -43,6 +56,74 @@ public class PrivateStateKeyValueStorageTest {
     assertThat(storage.getSchemaVersion()).isEqualTo(123);
   }
 
+  @Test
+  public void privateBlockMetadataIndexesLatestStateRoot() {
+    storage
+        .updater()
+        .putPrivateBlockMetadata(BLOCK_1, PRIVACY_GROUP_ID, metadata(STATE_ROOT_1, STATE_ROOT_2))
+        .commit();
+
+    assertThat(storage.getPrivateStateRoot(BLOCK_1, PRIVACY_GROUP_ID)).contains(STATE_ROOT_2);
+    assertThat(storage.getPrivateStateRoot(BLOCK_2, PRIVACY_GROUP_ID)).isEmpty();
+  }
+
+  @Test
+  public void headBlockMapCarriesStateRootForward() {
+    storage
+        .updater()
+        .putPrivateBlockMetadata(BLOCK_1, PRIVACY_GROUP_ID, metadata(STATE_ROOT_1))
+        .putPrivacyGroupHeadBlockMap(BLOCK_1, headBlockMap(BLOCK_1))
+        .putPrivacyGroupHeadBlockMap(BLOCK_2, headBlockMap(BLOCK_1))
+        .commit();
+    storage.updater().putPrivacyGroupHeadBlockMap(BLOCK_3, headBlockMap(BLOCK_1)).commit();
+
+    assertThat(storage.getPrivateStateRoot(BLOCK_2, PRIVACY_GROUP_ID)).contains(STATE_ROOT_1);
+    assertThat(storage.getPrivateStateRoot(BLOCK_3, PRIVACY_GROUP_ID)).contains(STATE_ROOT_1);
+  }
+
+  @Test
+  public void stateRootIndexIsPersisted() {
+    storage
+        .updater()
+        .putPrivateBlockMetadata(BLOCK_1, PRIVACY_GROUP_ID, metadata(STATE_ROOT_1))
+        .putPrivacyGroupHeadBlockMap(BLOCK_2, headBlockMap(BLOCK_1))
+        .commit();
+
+    final PrivateStateKeyValueStorage reopened = new PrivateStateKeyValueStorage(keyValueStorage);
+    assertThat(reopened.getPrivateStateRoot(BLOCK_1, PRIVACY_GROUP_ID)).contains(STATE_ROOT_1);
+    assertThat(reopened.getPrivateStateRoot(BLOCK_2, PRIVACY_GROUP_ID)).contains(STATE_ROOT_1);
+  }
+
+  @Test
+  public void cachedStateRootIsUpdatedOnCommit() {
+    storage
+        .updater()
+        .putPrivateBlockMetadata(BLOCK_1, PRIVACY_GROUP_ID, metadata(STATE_ROOT_1))
+        .commit();
+    assertThat(storage.getPrivateStateRoot(BLOCK_1, PRIVACY_GROUP_ID)).contains(STATE_ROOT_1);
+
+    final PrivateStateStorage.Updater updater =
+        storage
+            .updater()
+            .putPrivateBlockMetadata(
+                BLOCK_1, PRIVACY_GROUP_ID, metadata(STATE_ROOT_1, STATE_ROOT_2));
+    assertThat(storage.getPrivateStateRoot(BLOCK_1, PRIVACY_GROUP_ID)).contains(STATE_ROOT_1);
+    updater.commit();
+
+    assertThat(storage.getPrivateStateRoot(BLOCK_1, PRIVACY_GROUP_ID)).contains(STATE_ROOT_2);
+  }
+
+  @Test
+  public void rolledBackStateRootsAreNotIndexed() {
+    final PrivateStateStorage.Updater updater =
+        storage
+            .updater()
+            .putPrivateBlockMetadata(BLOCK_1, PRIVACY_GROUP_ID, metadata(STATE_ROOT_1));
+    updater.rollback();
+
+    assertThat(storage.getPrivateStateRoot(BLOCK_1, PRIVACY_GROUP_ID)).isEmpty();
+  }
+
   @Test
   public void schemaVersion1_0_xHasCorrectValue() {
     assertThat(SCHEMA_VERSION_1_0_0).isEqualTo(1);
@@ -52,4 +133,16 @@ public class PrivateStateKeyValueStorageTest {
   public void schemaVersion1_4_xHasCorrectValue() {
     assertThat(SCHEMA_VERSION_1_4_0).isEqualTo(2);
   }
+
+  private static PrivateBlockMetadata metadata(final Hash... stateRoots) {
+    final PrivateBlockMetadata metadata = PrivateBlockMetadata.empty();
+    for (final Hash stateRoot : stateRoots) {
+      metadata.addPrivateTransactionMetadata(new PrivateTransactionMetadata(Hash.ZERO, stateRoot));
+    }
+    return metadata;
+  }
+
+  private static PrivacyGroupHeadBlockMap headBlockMap(final Hash headBlockHash) {
+    return new PrivacyGroupHeadBlockMap(Map.of(PRIVACY_GROUP_ID, headBlockHash));
+  }
 }
@@ -0,0 +1,73 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.storage.keyvalue;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.hyperledger.besu.ethereum.storage.WriteBatch;
+import org.hyperledger.besu.plugin.services.storage.KeyValueStorageTransaction;
+import org.hyperledger.besu.services.kvstore.InMemoryKeyValueStorage;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.junit.Test;
+
+public class KeyValueStorageProviderTest {
+
+  private static final byte[] KEY = Bytes.fromHexString("0x01").toArrayUnsafe();
+  private static final byte[] VALUE = Bytes.fromHexString("0x0abc").toArrayUnsafe();
+
+  private final InMemoryKeyValueStorage pruningStorage = new InMemoryKeyValueStorage();
+  private final KeyValueStorageProvider storageProvider =
+      new KeyValueStorageProvider(
+          new InMemoryKeyValueStorage(),
+          new InMemoryKeyValueStorage(),
+          new InMemoryKeyValueStorage(),
+          pruningStorage,
+          false);
+
+  @Test
+  public void persistWritesWhenBatchIsClosed() {
+    try (final WriteBatch ignored = storageProvider.startWriteBatch()) {
+      put();
+
+      assertThat(storageProvider.createPruningStorage().get(KEY)).contains(VALUE);
+      assertThat(pruningStorage.get(KEY)).isEmpty();
+    }
+
+    assertThat(pruningStorage.get(KEY)).contains(VALUE);
+  }
+
+  @Test
+  public void persistWritesOfNestedBatchWithOutermostBatch() {
+    try (final WriteBatch outer = storageProvider.startWriteBatch()) {
+      try (final WriteBatch ignored = storageProvider.startWriteBatch()) {
+        put();
+      }
+
+      assertThat(pruningStorage.get(KEY)).isEmpty();
+
+      outer.commit();
+
+      assertThat(pruningStorage.get(KEY)).contains(VALUE);
+    }
+  }
+
+  private void put() {
+    final KeyValueStorageTransaction transaction =
+        storageProvider.createPruningStorage().startTransaction();
+    transaction.put(KEY, VALUE);
+    transaction.commit();
+  }
+}
@@ -0,0 +1,227 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.worldstate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.hyperledger.besu.ethereum.core.Address;
+import org.hyperledger.besu.ethereum.core.Hash;
+import org.hyperledger.besu.ethereum.core.MutableAccount;
+import org.hyperledger.besu.ethereum.core.Wei;
+import org.hyperledger.besu.ethereum.core.WorldUpdater;
+import org.hyperledger.besu.ethereum.storage.keyvalue.WorldStateKeyValueStorage;
+import org.hyperledger.besu.ethereum.unitrie.StoredUniTrie;
+import org.hyperledger.besu.ethereum.unitrie.UniTrie;
+import org.hyperledger.besu.ethereum.unitrie.UniTrieKeyMapper;
+import org.hyperledger.besu.services.kvstore.InMemoryKeyValueStorage;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+import org.apache.tuweni.units.bigints.UInt256;
+import org.junit.Test;
+
+public class UniTrieFlatStateTest {
+
+  private static final Address ADDRESS =
+      Address.fromHexString("0xa94f5374fce5edbc8e2a8697c15331677e6ebf0b");
+  private static final Address OTHER_ADDRESS =
+      Address.fromHexString("0x095e7baea6a6c7c4c2dfeb977efac326af552d87");
+  private static final Bytes CODE = Bytes.fromHexString("0x600054600101600055");
+
+  private static final UniTrieKeyMapper keyMapper = new UniTrieKeyMapper();
+
+  private final InMemoryKeyValueStorage flatStorage = new InMemoryKeyValueStorage();
+  private final WorldStateStorage worldStateStorage =
+      new WorldStateKeyValueStorage(new InMemoryKeyValueStorage());
+  private final List<Runnable> generationTasks = new ArrayList<>();
+
+  private UniTrieFlatState flatState = createFlatState(4);
+
+  @Test
+  public void generatesSnapshotOfFirstPersistedState() {
+    final Bytes32 root = update(UniTrie.NULL_UNINODE_HASH, 1, UInt256.ONE);
+    assertThat(flatState.isTracked(root)).isFalse();
+
+    runGeneration();
+
+    assertThat(flatState.isTracked(root)).isTrue();
+    assertFlatStateMatchesUniTrie(root);
+    assertThat(worldState(root).get(ADDRESS).getCode()).isEqualTo(CODE);
+    assertThat(worldState(root).get(ADDRESS).getCodeHash()).isEqualTo(Hash.hash(CODE));
+    assertThat(worldState(root).get(ADDRESS).getStorageValue(UInt256.ONE)).isEqualTo(UInt256.ONE);
+  }
+
+  @Test
+  public void generationCatchesUpWithStatesPersistedMeanwhile() {
+    final Bytes32 root1 = update(UniTrie.NULL_UNINODE_HASH, 1, UInt256.ONE);
+    final Bytes32 root2 = update(root1, 2, UInt256.valueOf(2));
+    final Bytes32 root3 = update(root2, 3, UInt256.ZERO);
+
+    runGeneration();
+
+    assertThat(flatState.isTracked(root3)).isTrue();
+    assertFlatStateMatchesUniTrie(root3);
+    assertThat(worldState(root3).get(ADDRESS).getStorageValue(UInt256.ONE)).isEqualTo(UInt256.ZERO);
+  }
+
+  @Test
+  public void servesRecentStates() {
+    final Bytes32 root1 = generate();
+    final Bytes32 root2 = update(root1, 2, UInt256.valueOf(2));
+    final Bytes32 root3 = update(root2, 3, UInt256.ZERO);
+
+    for (final Bytes32 root : List.of(root1, root2, root3)) {
+      assertThat(flatState.isTracked(root)).isTrue();
+      assertFlatStateMatchesUniTrie(root);
+    }
+    assertThat(worldState(root2).get(ADDRESS).getBalance()).isEqualTo(Wei.of(2));
+    assertThat(worldState(root3).get(ADDRESS).getBalance()).isEqualTo(Wei.of(3));
+  }
+
+  @Test
+  public void followsReorgs() {
+    flatState = createFlatState(8);
+    final Bytes32 root1 = generate();
+    final Bytes32 root2 = update(root1, 2, UInt256.valueOf(2));
+    final Bytes32 root3 = update(root2, 3, UInt256.valueOf(3));
+    final Bytes32 forkRoot2 = update(root1, 20, UInt256.ZERO);
+    final Bytes32 forkRoot3 = update(forkRoot2, 30, UInt256.valueOf(30));
+    final Bytes32 root4 = update(root3, 4, UInt256.valueOf(4));
+
+    for (final Bytes32 root : List.of(root1, root2, root3, forkRoot2, forkRoot3, root4)) {
+      assertThat(flatState.isTracked(root)).isTrue();
+      assertFlatStateMatchesUniTrie(root);
+    }
+  }
+
+  @Test
+  public void fallsBackToUniTrieForEvictedStates() {
+    final Bytes32 root1 = generate();
+    Bytes32 root = root1;
+    for (int i = 2; i <= 6; i++) {
+      root = update(root, i, UInt256.valueOf(i));
+    }
+
+    assertThat(flatState.isTracked(root1)).isFalse();
+    assertThat(worldState(root1).get(ADDRESS).getBalance()).isEqualTo(Wei.of(1));
+    assertThat(worldState(root1).get(ADDRESS).getStorageValue(UInt256.ONE)).isEqualTo(UInt256.ONE);
+    assertFlatStateMatchesUniTrie(root);
+  }
+
+  @Test
+  public void removesDeletedAccountsAndClearedStorage() {
+    final Bytes32 root1 = generate();
+
+    final UniTrieMutableWorldState worldState = worldState(root1);
+    WorldUpdater updater = worldState.updater();
+    updater.getAccount(OTHER_ADDRESS).getMutable().clearStorage();
+    updater.deleteAccount(ADDRESS);
+    updater.commit();
+    // Pending changes are visible before persisting
+    assertThat(worldState.get(ADDRESS)).isNull();
+    assertThat(worldState.get(OTHER_ADDRESS).getStorageValue(UInt256.valueOf(7)))
+        .isEqualTo(UInt256.ZERO);
+    worldState.persist();
+    final Bytes32 root2 = worldState.rootHash();
+
+    assertThat(flatState.isTracked(root2)).isTrue();
+    assertFlatStateMatchesUniTrie(root2);
+    assertThat(flatGet(root2, keyMapper.getAccountCodeKey(ADDRESS))).isEmpty();
+    assertThat(flatGet(root2, keyMapper.getAccountStorageKey(ADDRESS, UInt256.ONE))).isEmpty();
+    assertThat(flatGet(root2, keyMapper.getAccountStorageKey(OTHER_ADDRESS, UInt256.valueOf(7))))
+        .isEmpty();
+    assertThat(flatGet(root1, keyMapper.getAccountStorageKey(ADDRESS, UInt256.ONE))).isPresent();
+  }
+
+  @Test
+  public void reopensPersistedSnapshot() {
+    final Bytes32 root1 = generate();
+    final Bytes32 root2 = update(root1, 2, UInt256.valueOf(2));
+
+    flatState = createFlatState(4);
+
+    assertThat(flatState.isTracked(root1)).isFalse();
+    assertThat(flatState.isTracked(root2)).isTrue();
+    assertFlatStateMatchesUniTrie(root2);
+  }
+
+  private UniTrieFlatState createFlatState(final int maxLayers) {
+    return new UniTrieFlatState(
+        flatStorage, worldStateStorage::getAccountStateTrieNode, maxLayers, generationTasks::add);
+  }
+
+  private Bytes32 generate() {
+    final Bytes32 root = update(UniTrie.NULL_UNINODE_HASH, 1, UInt256.ONE);
+    runGeneration();
+    return root;
+  }
+
+  private void runGeneration() {
+    generationTasks.forEach(Runnable::run);
+    generationTasks.clear();
+  }
+
+  private UniTrieMutableWorldState worldState(final Bytes32 root) {
+    return new UniTrieMutableWorldState(root, worldStateStorage, Optional.of(flatState));
+  }
+
+  private Bytes32 update(final Bytes32 parentRoot, final long balance, final UInt256 value) {
+    final UniTrieMutableWorldState worldState = worldState(parentRoot);
+    final WorldUpdater updater = worldState.updater();
+    final MutableAccount account = updater.getOrCreate(ADDRESS).getMutable();
+    account.setBalance(Wei.of(balance));
+    account.setCode(CODE);
+    account.setStorageValue(UInt256.ONE, value);
+    final MutableAccount otherAccount = updater.getOrCreate(OTHER_ADDRESS).getMutable();
+    otherAccount.setStorageValue(UInt256.valueOf(balance), UInt256.valueOf(balance));
+    otherAccount.setStorageValue(UInt256.valueOf(7), UInt256.valueOf(7));
+    updater.commit();
+    worldState.persist();
+    return worldState.rootHash();
+  }
+
+  private Optional<Bytes> flatGet(final Bytes32 root, final Bytes key) {
+    return flatState.get(
+        root,
+        key,
+        k -> {
+          throw new AssertionError("Unexpected fallback to the Unitrie");
+        });
+  }
+
+  private void assertFlatStateMatchesUniTrie(final Bytes32 root) {
+    final UniTrie<Bytes, Bytes> trie =
+        new StoredUniTrie<>(worldStateStorage::getAccountStateTrieNode, root, b -> b, b -> b);
+    final List<Bytes> keys = new ArrayList<>();
+    UniTrieFlatState.forEachEntry(
+        trie,
+        Bytes.EMPTY,
+        (key, value) -> {
+          keys.add(key);
+          assertThat(flatGet(root, key)).contains(value);
+        });
+    assertThat(keys).isNotEmpty();
+    for (final Address address : List.of(ADDRESS, OTHER_ADDRESS)) {
+      for (int i = 0; i <= 30; i++) {
+        final Bytes key = keyMapper.getAccountStorageKey(address, UInt256.valueOf(i));
+        assertThat(flatGet(root, key)).isEqualTo(trie.get(key));
+      }
+    }
+  }
+}
@@ -0,0 +1,219 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.eth.snapshot;
+
+import static org.hyperledger.besu.ethereum.core.InMemoryStorageProvider.createInMemoryWorldStateArchive;
+
+import org.hyperledger.besu.crypto.SECP256K1;
+import org.hyperledger.besu.ethereum.core.BlockDataGenerator;
+import org.hyperledger.besu.ethereum.core.BlockHeader;
+import org.hyperledger.besu.ethereum.core.BlockHeaderTestFixture;
+import org.hyperledger.besu.ethereum.core.Hash;
+import org.hyperledger.besu.ethereum.core.MutableWorldState;
+import org.hyperledger.besu.ethereum.eth.manager.EthProtocolManager;
+import org.hyperledger.besu.ethereum.eth.manager.EthProtocolManagerTestUtil;
+import org.hyperledger.besu.ethereum.eth.manager.EthScheduler;
+import org.hyperledger.besu.ethereum.eth.manager.RespondingEthPeer;
+import org.hyperledger.besu.ethereum.eth.manager.RespondingEthPeer.Responder;
+import org.hyperledger.besu.ethereum.eth.sync.SynchronizerConfiguration;
+import org.hyperledger.besu.ethereum.eth.sync.worldstate.NodeDataRequest;
+import org.hyperledger.besu.ethereum.eth.sync.worldstate.WorldStateDownloader;
+import org.hyperledger.besu.ethereum.merkleutils.UniTrieMerkleAwareProvider;
+import org.hyperledger.besu.ethereum.p2p.network.P2PNetwork;
+import org.hyperledger.besu.ethereum.p2p.peers.DefaultPeer;
+import org.hyperledger.besu.ethereum.p2p.peers.EnodeURL;
+import org.hyperledger.besu.ethereum.p2p.peers.Peer;
+import org.hyperledger.besu.ethereum.p2p.testing.MockNetwork;
+import org.hyperledger.besu.ethereum.storage.keyvalue.WorldStateKeyValueStorage;
+import org.hyperledger.besu.ethereum.worldstate.WorldStateArchive;
+import org.hyperledger.besu.ethereum.worldstate.WorldStateStorage;
+import org.hyperledger.besu.metrics.noop.NoOpMetricsSystem;
+import org.hyperledger.besu.services.kvstore.InMemoryKeyValueStorage;
+import org.hyperledger.besu.services.tasks.CachingTaskCollection;
+import org.hyperledger.besu.services.tasks.InMemoryTaskQueue;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/** Compares key-range snapshot sync of a Unitrie world state against node-data sync. */
+@State(Scope.Thread)
+public class UniTrieSnapshotSyncBenchmark {
+
+  public enum SyncMode {
+    NODE_DATA,
+    KEY_RANGE
+  }
+
+  private final BlockDataGenerator dataGen = new BlockDataGenerator();
+  private final NoOpMetricsSystem metricsSystem = new NoOpMetricsSystem();
+
+  @Param({"NODE_DATA", "KEY_RANGE"})
+  public SyncMode syncMode;
+
+  @Param({"10000"})
+  public int accounts;
+
+  private WorldStateArchive serverArchive;
+  private Hash stateRoot;
+
+  private WorldStateStorage clientStorage;
+  private CompletableFuture<Void> result;
+  private Runnable awaitResult;
+  private AutoCloseable cleanUp;
+
+  @Setup(Level.Trial)
+  public void setUpServerState() {
+    serverArchive = createInMemoryWorldStateArchive(new UniTrieMerkleAwareProvider());
+    final MutableWorldState worldState = serverArchive.getMutable();
+    dataGen.createRandomAccounts(worldState, accounts);
+    stateRoot = worldState.rootHash();
+  }
+
+  @Setup(Level.Invocation)
+  public void setUpClient() {
+    clientStorage = new WorldStateKeyValueStorage(new InMemoryKeyValueStorage());
+    switch (syncMode) {
+      case NODE_DATA:
+        setUpNodeDataSync();
+        break;
+      case KEY_RANGE:
+      default:
+        setUpKeyRangeSync();
+        break;
+    }
+  }
+
+  @TearDown(Level.Invocation)
+  public void tearDown() throws Exception {
+    cleanUp.close();
+  }
+
+  @Benchmark
+  public boolean syncWorldState() {
+    awaitResult.run();
+    result.join();
+    if (!clientStorage.isWorldStateAvailable(stateRoot)) {
+      throw new IllegalStateException("World state sync did not complete.");
+    }
+    return true;
+  }
+
+  private void setUpNodeDataSync() {
+    final SynchronizerConfiguration syncConfig =
+        new SynchronizerConfiguration.Builder().worldStateHashCountPerRequest(200).build();
+    final EthProtocolManager ethProtocolManager =
+        EthProtocolManagerTestUtil.create(
+            new EthScheduler(
+                syncConfig.getDownloaderParallelism(),
+                syncConfig.getTransactionsParallelism(),
+                syncConfig.getComputationParallelism(),
+                metricsSystem));
+    final BlockHeader blockHeader = new BlockHeaderTestFixture().stateRoot(stateRoot).buildHeader();
+    final RespondingEthPeer peer =
+        EthProtocolManagerTestUtil.createPeer(ethProtocolManager, blockHeader.getNumber());
+    final Responder responder = RespondingEthPeer.blockchainResponder(null, serverArchive);
+    final CachingTaskCollection<NodeDataRequest> pendingRequests =
+        new CachingTaskCollection<>(
+            new InMemoryTaskQueue<>(), 0, NodeDataRequest.DEPTH_FIRST_ORDER);
+
+    final WorldStateDownloader worldStateDownloader =
+        new WorldStateDownloader(
+            new UniTrieMerkleAwareProvider(),
+            ethProtocolManager.ethContext(),
+            clientStorage,
+            pendingRequests,
+            syncConfig.getWorldStateHashCountPerRequest(),
+            syncConfig.getWorldStateRequestParallelism(),
+            syncConfig.getWorldStateMaxRequestsWithoutProgress(),
+            syncConfig.getWorldStateMinMillisBeforeStalling(),
+            Clock.systemUTC(),
+            metricsSystem);
+
+    awaitResult =
+        () -> {
+          result = worldStateDownloader.run(blockHeader);
+          peer.respondWhileOtherThreadsWork(responder, () -> !result.isDone());
+        };
+    cleanUp =
+        () -> {
+          ethProtocolManager.stop();
+          ethProtocolManager.awaitStop();
+          pendingRequests.close();
+        };
+  }
+
+  private void setUpKeyRangeSync() {
+    final MockNetwork network =
+        new MockNetwork(Collections.singletonList(UniTrieSnapshotProtocol.USNAP1));
+    final EthScheduler scheduler = new EthScheduler(1, 1, 1, metricsSystem);
+    final UniTrieSnapshotProtocolManager clientProtocolManager =
+        new UniTrieSnapshotProtocolManager(
+            clientStorage, scheduler, UniTrieSnapshotProtocolManager.DEFAULT_MAX_ENTRIES_PER_RANGE);
+    final UniTrieSnapshotProtocolManager serverProtocolManager =
+        new UniTrieSnapshotProtocolManager(
+            serverArchive.getWorldStateStorage(),
+            scheduler,
+            UniTrieSnapshotProtocolManager.DEFAULT_MAX_ENTRIES_PER_RANGE);
+    final P2PNetwork clientNetwork = network.setup(setUpNode(network, clientProtocolManager));
+    clientNetwork.connect(setUpNode(network, serverProtocolManager)).join();
+
+    final ExecutorService executor = Executors.newSingleThreadExecutor();
+    final UniTrieSnapshotDownloader downloader =
+        new UniTrieSnapshotDownloader(
+            clientProtocolManager,
+            clientStorage,
+            executor,
+            UniTrieSnapshotProtocolManager.DEFAULT_MAX_ENTRIES_PER_RANGE,
+            Duration.ofSeconds(30),
+            metricsSystem);
+
+    awaitResult = () -> result = downloader.run(stateRoot);
+    cleanUp =
+        () -> {
+          executor.shutdownNow();
+          scheduler.stop();
+          scheduler.awaitStop();
+        };
+  }
+
+  private static Peer setUpNode(
+      final MockNetwork network, final UniTrieSnapshotProtocolManager protocolManager) {
+    final Peer peer =
+        DefaultPeer.fromEnodeURL(
+            EnodeURL.builder()
+                .nodeId(SECP256K1.KeyPair.generate().getPublicKey().getEncodedBytes())
+                .ipAddress("127.0.0.1")
+                .listeningPort(30303)
+                .discoveryPort(30303)
+                .build());
+    final P2PNetwork p2pNetwork = network.setup(peer);
+    p2pNetwork.subscribe(UniTrieSnapshotProtocol.USNAP1, protocolManager::processMessage);
+    p2pNetwork.subscribeConnect(protocolManager::handleNewConnection);
+    p2pNetwork.subscribeDisconnect(protocolManager::handleDisconnect);
+    return peer;
+  }
+}
@@ -14,6 +14,7 @@
  */
 package org.hyperledger.besu.ethereum.eth;
 
+import org.hyperledger.besu.ethereum.eth.sync.BlockPropagationStrategy;
 import org.hyperledger.besu.util.number.PositiveNumber;
 
 import java.util.Objects;
@@ -27,12 +28,21 @@ public class EthProtocolConfiguration {
   public static final int DEFAULT_MAX_GET_RECEIPTS = 256;
   public static final int DEFAULT_MAX_GET_NODE_DATA = 384;
   public static final int DEFAULT_MAX_GET_POOLED_TRANSACTIONS = 256;
+  public static final int DEFAULT_MAX_RESPONSE_BYTES = 2 * 1024 * 1024;
+  public static final int DEFAULT_MAX_RESPONSE_MILLIS = 500;
+  public static final int DEFAULT_MAX_QUEUED_REQUESTS_PER_PEER = 16;
+  public static final BlockPropagationStrategy DEFAULT_BLOCK_PROPAGATION_STRATEGY =
+      BlockPropagationStrategy.ALL;
 
   private final int maxGetBlockHeaders;
   private final int maxGetBlockBodies;
   private final int maxGetReceipts;
   private final int maxGetNodeData;
   private final int maxGetPooledTransactions;
+  private final int maxResponseBytes;
+  private final int maxResponseMillis;
+  private final int maxQueuedRequestsPerPeer;
+  private final BlockPropagationStrategy blockPropagationStrategy;
 
   public EthProtocolConfiguration(
       final int maxGetBlockHeaders,
@@ -40,11 +50,57 @@ public class EthProtocolConfiguration {
       final int maxGetReceipts,
       final int maxGetNodeData,
       final int maxGetPooledTransactions) {
+    this(
+        maxGetBlockHeaders,
+        maxGetBlockBodies,
+        maxGetReceipts,
+        maxGetNodeData,
+        maxGetPooledTransactions,
+        DEFAULT_MAX_RESPONSE_BYTES,
+        DEFAULT_MAX_RESPONSE_MILLIS,
+        DEFAULT_MAX_QUEUED_REQUESTS_PER_PEER);
+  }
+
+  public EthProtocolConfiguration(
+      final int maxGetBlockHeaders,
+      final int maxGetBlockBodies,
+      final int maxGetReceipts,
+      final int maxGetNodeData,
+      final int maxGetPooledTransactions,
+      final int maxResponseBytes,
+      final int maxResponseMillis,
+      final int maxQueuedRequestsPerPeer) {
+    this(
+        maxGetBlockHeaders,
+        maxGetBlockBodies,
+        maxGetReceipts,
+        maxGetNodeData,
+        maxGetPooledTransactions,
+        maxResponseBytes,
+        maxResponseMillis,
+        maxQueuedRequestsPerPeer,
+        DEFAULT_BLOCK_PROPAGATION_STRATEGY);
+  }
+
+  public EthProtocolConfiguration(
+      final int maxGetBlockHeaders,
+      final int maxGetBlockBodies,
+      final int maxGetReceipts,
+      final int maxGetNodeData,
+      final int maxGetPooledTransactions,
+      final int maxResponseBytes,
+      final int maxResponseMillis,
+      final int maxQueuedRequestsPerPeer,
+      final BlockPropagationStrategy blockPropagationStrategy) {
     this.maxGetBlockHeaders = maxGetBlockHeaders;
     this.maxGetBlockBodies = maxGetBlockBodies;
     this.maxGetReceipts = maxGetReceipts;
     this.maxGetNodeData = maxGetNodeData;
     this.maxGetPooledTransactions = maxGetPooledTransactions;
+    this.maxResponseBytes = maxResponseBytes;
+    this.maxResponseMillis = maxResponseMillis;
+    this.maxQueuedRequestsPerPeer = maxQueuedRequestsPerPeer;
+    this.blockPropagationStrategy = blockPropagationStrategy;
   }
 
   public static EthProtocolConfiguration defaultConfig() {
@@ -80,6 +136,22 @@ public class EthProtocolConfiguration {
     return maxGetPooledTransactions;
   }
 
+  public int getMaxResponseBytes() {
+    return maxResponseBytes;
+  }
+
+  public int getMaxResponseMillis() {
+    return maxResponseMillis;
+  }
+
+  public int getMaxQueuedRequestsPerPeer() {
+    return maxQueuedRequestsPerPeer;
+  }
+
+  public BlockPropagationStrategy getBlockPropagationStrategy() {
+    return blockPropagationStrategy;
+  }
+
   @Override
   public boolean equals(final Object o) {
     if (this == o) {
@@ -93,12 +165,24 @@ public class EthProtocolConfiguration {
         && maxGetBlockBodies == that.maxGetBlockBodies
         && maxGetReceipts == that.maxGetReceipts
         && maxGetNodeData == that.maxGetNodeData
-        && maxGetPooledTransactions == that.maxGetPooledTransactions;
+        && maxGetPooledTransactions == that.maxGetPooledTransactions
+        && maxResponseBytes == that.maxResponseBytes
+        && maxResponseMillis == that.maxResponseMillis
+        && maxQueuedRequestsPerPeer == that.maxQueuedRequestsPerPeer
+        && blockPropagationStrategy == that.blockPropagationStrategy;
   }
 
   @Override
   public int hashCode() {
-    return Objects.hash(maxGetBlockHeaders, maxGetBlockBodies, maxGetReceipts, maxGetNodeData);
+    return Objects.hash(
+        maxGetBlockHeaders,
+        maxGetBlockBodies,
+        maxGetReceipts,
+        maxGetNodeData,
+        maxResponseBytes,
+        maxResponseMillis,
+        maxQueuedRequestsPerPeer,
+        blockPropagationStrategy);
   }
 
   @Override
@@ -109,6 +193,10 @@ public class EthProtocolConfiguration {
         .add("maxGetReceipts", maxGetReceipts)
         .add("maxGetNodeData", maxGetNodeData)
         .add("maxGetPooledTransactions", maxGetPooledTransactions)
+        .add("maxResponseBytes", maxResponseBytes)
+        .add("maxResponseMillis", maxResponseMillis)
+        .add("maxQueuedRequestsPerPeer", maxQueuedRequestsPerPeer)
+        .add("blockPropagationStrategy", blockPropagationStrategy)
         .toString();
   }
 
@@ -128,6 +216,18 @@ public class EthProtocolConfiguration {
     private PositiveNumber maxGetPooledTransactions =
         PositiveNumber.fromInt(EthProtocolConfiguration.DEFAULT_MAX_GET_POOLED_TRANSACTIONS);
 
+    private PositiveNumber maxResponseBytes =
+        PositiveNumber.fromInt(EthProtocolConfiguration.DEFAULT_MAX_RESPONSE_BYTES);
+
+    private PositiveNumber maxResponseMillis =
+        PositiveNumber.fromInt(EthProtocolConfiguration.DEFAULT_MAX_RESPONSE_MILLIS);
+
+    private PositiveNumber maxQueuedRequestsPerPeer =
+        PositiveNumber.fromInt(EthProtocolConfiguration.DEFAULT_MAX_QUEUED_REQUESTS_PER_PEER);
+
+    private BlockPropagationStrategy blockPropagationStrategy =
+        EthProtocolConfiguration.DEFAULT_BLOCK_PROPAGATION_STRATEGY;
+
     public Builder maxGetBlockHeaders(final PositiveNumber maxGetBlockHeaders) {
       this.maxGetBlockHeaders = maxGetBlockHeaders;
       return this;
@@ -153,13 +253,38 @@ public class EthProtocolConfiguration {
       return this;
     }
 
+    public Builder maxResponseBytes(final PositiveNumber maxResponseBytes) {
+      this.maxResponseBytes = maxResponseBytes;
+      return this;
+    }
+
+    public Builder maxResponseMillis(final PositiveNumber maxResponseMillis) {
+      this.maxResponseMillis = maxResponseMillis;
+      return this;
+    }
+
+    public Builder maxQueuedRequestsPerPeer(final PositiveNumber maxQueuedRequestsPerPeer) {
+      this.maxQueuedRequestsPerPeer = maxQueuedRequestsPerPeer;
+      return this;
+    }
+
+    public Builder blockPropagationStrategy(
+        final BlockPropagationStrategy blockPropagationStrategy) {
+      this.blockPropagationStrategy = blockPropagationStrategy;
+      return this;
+    }
+
     public EthProtocolConfiguration build() {
       return new EthProtocolConfiguration(
           maxGetBlockHeaders.getValue(),
           maxGetBlockBodies.getValue(),
           maxGetReceipts.getValue(),
           maxGetNodeData.getValue(),
-          maxGetPooledTransactions.getValue());
+          maxGetPooledTransactions.getValue(),
+          maxResponseBytes.getValue(),
+          maxResponseMillis.getValue(),
+          maxQueuedRequestsPerPeer.getValue(),
+          blockPropagationStrategy);
     }
   }
 }
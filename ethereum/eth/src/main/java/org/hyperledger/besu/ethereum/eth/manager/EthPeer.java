@@ -38,9 +38,11 @@ import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.OptionalLong;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
 
@@ -65,6 +67,8 @@ public class EthPeer {
   private final AtomicBoolean statusHasBeenReceivedFromPeer = new AtomicBoolean(false);
 
   private volatile long lastRequestTimestamp = 0;
+  // Exponential moving average of the response times, -1 until the first response
+  private final AtomicLong responseLatencyNanos = new AtomicLong(-1);
   private final RequestManager headersRequestManager = new RequestManager(this);
   private final RequestManager bodiesRequestManager = new RequestManager(this);
   private final RequestManager receiptsRequestManager = new RequestManager(this);
@@ -374,6 +378,18 @@ public class EthPeer {
     return lastRequestTimestamp;
   }
 
+  void recordResponseLatency(final long latencyNanos) {
+    responseLatencyNanos.accumulateAndGet(
+        latencyNanos,
+        (average, latency) -> average < 0 ? latency : average + (latency - average) / 4);
+  }
+
+  /** @return the average time this peer takes to answer requests, if it has answered any. */
+  public OptionalLong getResponseLatencyNanos() {
+    final long latency = responseLatencyNanos.get();
+    return latency < 0 ? OptionalLong.empty() : OptionalLong.of(latency);
+  }
+
   public boolean hasAvailableRequestCapacity() {
     return outstandingRequests() < MAX_OUTSTANDING_REQUESTS;
   }
@@ -39,6 +39,8 @@ import org.hyperledger.besu.ethereum.p2p.rlpx.wire.MessageData;
 import org.hyperledger.besu.ethereum.p2p.rlpx.wire.messages.DisconnectMessage.DisconnectReason;
 import org.hyperledger.besu.ethereum.rlp.RLPException;
 import org.hyperledger.besu.ethereum.worldstate.WorldStateArchive;
+import org.hyperledger.besu.metrics.noop.NoOpMetricsSystem;
+import org.hyperledger.besu.plugin.services.MetricsSystem;
 
 import java.math.BigInteger;
 import java.util.Collections;
@@ -85,7 +87,8 @@ public class EthProtocolManager implements ProtocolManager, MinedBlockObserver {
       final List<PeerValidator> peerValidators,
       final boolean fastSyncEnabled,
       final EthScheduler scheduler,
-      final ForkIdManager forkIdManager) {
+      final ForkIdManager forkIdManager,
+      final MetricsSystem metricsSystem) {
     this.networkId = networkId;
     this.peerValidators = peerValidators;
     this.scheduler = scheduler;
@@ -101,7 +104,11 @@ public class EthProtocolManager implements ProtocolManager, MinedBlockObserver {
     this.ethMessages = ethMessages;
     this.ethContext = ethContext;
 
-    this.blockBroadcaster = new BlockBroadcaster(ethContext);
+    this.blockBroadcaster =
+        new BlockBroadcaster(
+            ethContext,
+            ethereumWireProtocolConfiguration.getBlockPropagationStrategy(),
+            metricsSystem);
 
     // Run validators
     for (final PeerValidator peerValidator : this.peerValidators) {
@@ -114,7 +121,9 @@ public class EthProtocolManager implements ProtocolManager, MinedBlockObserver {
         worldStateArchive,
         transactionPool,
         ethMessages,
-        ethereumWireProtocolConfiguration);
+        scheduler,
+        ethereumWireProtocolConfiguration,
+        metricsSystem);
   }
 
   @VisibleForTesting
@@ -142,7 +151,8 @@ public class EthProtocolManager implements ProtocolManager, MinedBlockObserver {
         peerValidators,
         fastSyncEnabled,
         scheduler,
-        new ForkIdManager(blockchain, Collections.emptyList()));
+        new ForkIdManager(blockchain, Collections.emptyList()),
+        new NoOpMetricsSystem());
   }
 
   public EthProtocolManager(
@@ -157,7 +167,8 @@ public class EthProtocolManager implements ProtocolManager, MinedBlockObserver {
       final List<PeerValidator> peerValidators,
       final boolean fastSyncEnabled,
       final EthScheduler scheduler,
-      final List<Long> forks) {
+      final List<Long> forks,
+      final MetricsSystem metricsSystem) {
     this(
         blockchain,
         networkId,
@@ -170,7 +181,8 @@ public class EthProtocolManager implements ProtocolManager, MinedBlockObserver {
         peerValidators,
         fastSyncEnabled,
         scheduler,
-        new ForkIdManager(blockchain, forks));
+        new ForkIdManager(blockchain, forks),
+        metricsSystem);
   }
 
   public EthContext ethContext() {
@@ -343,5 +355,6 @@ public class EthProtocolManager implements ProtocolManager, MinedBlockObserver {
                     new IllegalStateException(
                         "Unable to get total difficulty from blockchain for mined block."));
     blockBroadcaster.propagate(block, totalDifficulty);
+    blockBroadcaster.announce(block);
   }
 }
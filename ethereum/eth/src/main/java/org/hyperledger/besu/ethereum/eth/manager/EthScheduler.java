@@ -47,12 +47,14 @@ public class EthScheduler {
   private final AtomicBoolean stopped = new AtomicBoolean(false);
   private final CountDownLatch shutdown = new CountDownLatch(1);
   private static final int TX_WORKER_CAPACITY = 1000000;
+  private static final int SERVER_WORKER_COUNT = 2;
 
   protected final ExecutorService syncWorkerExecutor;
   protected final ScheduledExecutorService scheduler;
   protected final ExecutorService txWorkerExecutor;
   protected final ExecutorService servicesExecutor;
   protected final ExecutorService computationExecutor;
+  protected final ExecutorService serverExecutor;
 
   private final Collection<CompletableFuture<?>> pendingFutures = new ConcurrentLinkedDeque<>();
 
@@ -85,7 +87,9 @@ public class EthScheduler {
         MonitoredExecutors.newFixedThreadPool(
             EthScheduler.class.getSimpleName() + "-Computation",
             computationWorkerCount,
-            metricsSystem));
+            metricsSystem),
+        MonitoredExecutors.newFixedThreadPool(
+            EthScheduler.class.getSimpleName() + "-Server", SERVER_WORKER_COUNT, metricsSystem));
   }
 
   protected EthScheduler(
@@ -93,12 +97,14 @@ public class EthScheduler {
       final ScheduledExecutorService scheduler,
       final ExecutorService txWorkerExecutor,
       final ExecutorService servicesExecutor,
-      final ExecutorService computationExecutor) {
+      final ExecutorService computationExecutor,
+      final ExecutorService serverExecutor) {
     this.syncWorkerExecutor = syncWorkerExecutor;
     this.scheduler = scheduler;
     this.txWorkerExecutor = txWorkerExecutor;
     this.servicesExecutor = servicesExecutor;
     this.computationExecutor = computationExecutor;
+    this.serverExecutor = serverExecutor;
   }
 
   public <T> CompletableFuture<T> scheduleSyncWorkerTask(
@@ -131,6 +137,10 @@ public class EthScheduler {
     txWorkerExecutor.execute(command);
   }
 
+  public void scheduleServerTask(final Runnable command) {
+    serverExecutor.execute(command);
+  }
+
   public <T> CompletableFuture<T> scheduleServiceTask(final EthTask<T> task) {
     final CompletableFuture<T> serviceFuture = task.runAsync(servicesExecutor);
     pendingFutures.add(serviceFuture);
@@ -225,6 +235,7 @@ public class EthScheduler {
       scheduler.shutdownNow();
       servicesExecutor.shutdownNow();
       computationExecutor.shutdownNow();
+      serverExecutor.shutdownNow();
       shutdown.countDown();
     } else {
       LOG.trace("Attempted to stop already stopped " + getClass().getSimpleName());
@@ -253,6 +264,9 @@ public class EthScheduler {
       LOG.error(
           "{} computation executor did not shutdown cleanly.", this.getClass().getSimpleName());
     }
+    if (!serverExecutor.awaitTermination(30, TimeUnit.SECONDS)) {
+      LOG.error("{} server executor did not shutdown cleanly.", this.getClass().getSimpleName());
+    }
     LOG.trace("{} stopped.", this.getClass().getSimpleName());
   }
 
@@ -18,6 +18,7 @@ import org.hyperledger.besu.ethereum.chain.Blockchain;
 import org.hyperledger.besu.ethereum.core.BlockBody;
 import org.hyperledger.besu.ethereum.core.BlockHeader;
 import org.hyperledger.besu.ethereum.core.Hash;
+import org.hyperledger.besu.ethereum.core.Log;
 import org.hyperledger.besu.ethereum.core.Transaction;
 import org.hyperledger.besu.ethereum.core.TransactionReceipt;
 import org.hyperledger.besu.ethereum.eth.EthProtocolConfiguration;
@@ -40,140 +41,280 @@ import org.hyperledger.besu.ethereum.p2p.rlpx.wire.MessageData;
 import org.hyperledger.besu.ethereum.p2p.rlpx.wire.messages.DisconnectMessage.DisconnectReason;
 import org.hyperledger.besu.ethereum.rlp.RLPException;
 import org.hyperledger.besu.ethereum.worldstate.WorldStateArchive;
+import org.hyperledger.besu.metrics.BesuMetricCategory;
+import org.hyperledger.besu.plugin.services.MetricsSystem;
+import org.hyperledger.besu.plugin.services.metrics.Counter;
+import org.hyperledger.besu.plugin.services.metrics.LabelledMetric;
+import org.hyperledger.besu.plugin.services.metrics.OperationTimer;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.Lists;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
 
+/**
+ * Serves the data requested by peers.
+ *
+ * <p>Requests are queued per peer and served on the scheduler's server executor, taking the peers
+ * with queued requests in turn so that a peer sending many requests does not delay the others. A
+ * peer is only taken again once its previous request has been answered, so each peer receives its
+ * responses in the order it sent the requests. Requests arriving from a peer whose queue is full
+ * are answered with an empty response, in turn with the peer's other responses, without touching
+ * storage. A peer with twice as many requests queued as it is allowed is disconnected. Responses
+ * stop growing once their byte or time budget is spent.
+ */
 class EthServer {
   private static final Logger LOG = LogManager.getLogger();
 
+  // Rough RLP sizes used to budget responses without encoding their items twice
+  private static final int ESTIMATED_HEADER_SIZE = 500;
+  private static final int ESTIMATED_TRANSACTION_SIZE = 120;
+  private static final int ESTIMATED_RECEIPT_SIZE = 300;
+  private static final int ESTIMATED_LOG_SIZE = 40;
+
   private final Blockchain blockchain;
   private final WorldStateArchive worldStateArchive;
   private final TransactionPool transactionPool;
   private final EthMessages ethMessages;
+  private final EthScheduler scheduler;
   private final EthProtocolConfiguration ethereumWireProtocolConfiguration;
+  private final LongSupplier nanoTime;
+
+  private final Map<Integer, Handler> handlers = new HashMap<>();
+  // Guarded by this
+  private final Map<EthPeer, PeerRequests> queuedRequests = new HashMap<>();
+  // Peers with queued requests and no request being served
+  private final Deque<EthPeer> peersWithQueuedRequests = new ArrayDeque<>();
+
+  private final LabelledMetric<OperationTimer> servingTimer;
+  private final LabelledMetric<Counter> bytesServedCounter;
+  private final LabelledMetric<Counter> rejectedRequestsCounter;
+
+  EthServer(
+      final Blockchain blockchain,
+      final WorldStateArchive worldStateArchive,
+      final TransactionPool transactionPool,
+      final EthMessages ethMessages,
+      final EthScheduler scheduler,
+      final EthProtocolConfiguration ethereumWireProtocolConfiguration,
+      final MetricsSystem metricsSystem) {
+    this(
+        blockchain,
+        worldStateArchive,
+        transactionPool,
+        ethMessages,
+        scheduler,
+        ethereumWireProtocolConfiguration,
+        metricsSystem,
+        System::nanoTime);
+  }
 
+  @VisibleForTesting
   EthServer(
       final Blockchain blockchain,
       final WorldStateArchive worldStateArchive,
       final TransactionPool transactionPool,
       final EthMessages ethMessages,
-      final EthProtocolConfiguration ethereumWireProtocolConfiguration) {
+      final EthScheduler scheduler,
+      final EthProtocolConfiguration ethereumWireProtocolConfiguration,
+      final MetricsSystem metricsSystem,
+      final LongSupplier nanoTime) {
     this.blockchain = blockchain;
     this.worldStateArchive = worldStateArchive;
     this.transactionPool = transactionPool;
     this.ethMessages = ethMessages;
+    this.scheduler = scheduler;
     this.ethereumWireProtocolConfiguration = ethereumWireProtocolConfiguration;
+    this.nanoTime = nanoTime;
+    this.servingTimer =
+        metricsSystem.createLabelledTimer(
+            BesuMetricCategory.NETWORK,
+            "eth_server_response_latency_seconds",
+            "Time spent building and sending responses to peer requests",
+            "message");
+    this.bytesServedCounter =
+        metricsSystem.createLabelledCounter(
+            BesuMetricCategory.NETWORK,
+            "eth_server_bytes_served_total",
+            "Number of bytes sent in responses to peer requests",
+            "message");
+    this.rejectedRequestsCounter =
+        metricsSystem.createLabelledCounter(
+            BesuMetricCategory.NETWORK,
+            "eth_server_rejected_requests_total",
+            "Number of peer requests answered with an empty response because too many requests from the same peer were queued",
+            "message");
     this.setupListeners();
   }
 
   private void setupListeners() {
-    ethMessages.subscribe(EthPV62.GET_BLOCK_HEADERS, this::handleGetBlockHeaders);
-    ethMessages.subscribe(EthPV62.GET_BLOCK_BODIES, this::handleGetBlockBodies);
-    ethMessages.subscribe(EthPV63.GET_RECEIPTS, this::handleGetReceipts);
-    ethMessages.subscribe(EthPV63.GET_NODE_DATA, this::handleGetNodeData);
-    ethMessages.subscribe(EthPV65.GET_POOLED_TRANSACTIONS, this::handleGetPooledTransactions);
+    final EthProtocolConfiguration config = ethereumWireProtocolConfiguration;
+    registerHandler(
+        EthPV62.GET_BLOCK_HEADERS,
+        "GetBlockHeaders",
+        (message, budget) ->
+            constructGetHeadersResponse(
+                blockchain, message, config.getMaxGetBlockHeaders(), budget),
+        () -> BlockHeadersMessage.create(Collections.emptyList()));
+    registerHandler(
+        EthPV62.GET_BLOCK_BODIES,
+        "GetBlockBodies",
+        (message, budget) ->
+            constructGetBodiesResponse(blockchain, message, config.getMaxGetBlockBodies(), budget),
+        () -> BlockBodiesMessage.create(Collections.emptyList()));
+    registerHandler(
+        EthPV63.GET_RECEIPTS,
+        "GetReceipts",
+        (message, budget) ->
+            constructGetReceiptsResponse(blockchain, message, config.getMaxGetReceipts(), budget),
+        () -> ReceiptsMessage.create(Collections.emptyList()));
+    registerHandler(
+        EthPV63.GET_NODE_DATA,
+        "GetNodeData",
+        (message, budget) ->
+            constructGetNodeDataResponse(
+                worldStateArchive, message, config.getMaxGetNodeData(), budget),
+        () -> NodeDataMessage.create(Collections.emptyList()));
+    registerHandler(
+        EthPV65.GET_POOLED_TRANSACTIONS,
+        "GetPooledTransactions",
+        (message, budget) ->
+            constructGetPooledTransactionsResponse(
+                transactionPool, message, config.getMaxGetPooledTransactions(), budget),
+        () -> PooledTransactionsMessage.create(Collections.emptyList()));
   }
 
-  private void handleGetBlockHeaders(final EthMessage message) {
-    LOG.trace("Responding to GET_BLOCK_HEADERS request");
-    try {
-      final MessageData response =
-          constructGetHeadersResponse(
-              blockchain,
-              message.getData(),
-              ethereumWireProtocolConfiguration.getMaxGetBlockHeaders());
-      message.getPeer().send(response);
-    } catch (final RLPException e) {
-      LOG.debug(
-          "Received malformed GET_BLOCK_HEADERS message, disconnecting: {}", message.getPeer(), e);
-      message.getPeer().disconnect(DisconnectReason.BREACH_OF_PROTOCOL);
-    } catch (final PeerNotConnected peerNotConnected) {
-      // Peer disconnected before we could respond - nothing to do
-    }
+  private void registerHandler(
+      final int code,
+      final String name,
+      final ResponseConstructor constructor,
+      final Supplier<MessageData> emptyResponse) {
+    handlers.put(code, new Handler(name, constructor, emptyResponse));
+    ethMessages.subscribe(code, this::enqueue);
   }
 
-  private void handleGetBlockBodies(final EthMessage message) {
-    LOG.trace("Responding to GET_BLOCK_BODIES request");
-    try {
-      final MessageData response =
-          constructGetBodiesResponse(
-              blockchain,
-              message.getData(),
-              ethereumWireProtocolConfiguration.getMaxGetBlockBodies());
-      message.getPeer().send(response);
-    } catch (final RLPException e) {
-      LOG.debug(
-          "Received malformed GET_BLOCK_BODIES message, disconnecting: {}", message.getPeer(), e);
-      message.getPeer().disconnect(DisconnectReason.BREACH_OF_PROTOCOL);
-    } catch (final PeerNotConnected peerNotConnected) {
-      // Peer disconnected before we could respond - nothing to do
+  private void enqueue(final EthMessage message) {
+    final EthPeer peer = message.getPeer();
+    final Handler handler = handlers.get(message.getData().getCode());
+    final int maxQueuedRequests = ethereumWireProtocolConfiguration.getMaxQueuedRequestsPerPeer();
+    final boolean flooding;
+    boolean accepted = false;
+    boolean ready = false;
+    synchronized (this) {
+      final PeerRequests requests = queuedRequests.computeIfAbsent(peer, key -> new PeerRequests());
+      // Rejected requests are still queued, so the queue itself needs a bound
+      flooding = requests.size() >= 2 * maxQueuedRequests;
+      if (!flooding) {
+        accepted = requests.acceptedCount < maxQueuedRequests;
+        // Rejections are queued too so that the empty response does not overtake earlier responses
+        ready = requests.add(new QueuedRequest(handler, accepted ? message.getData() : null));
+        if (ready) {
+          peersWithQueuedRequests.add(peer);
+        }
+      }
+    }
+
+    if (flooding) {
+      LOG.debug("Too many queued requests from {}, disconnecting", peer);
+      peer.disconnect(DisconnectReason.BREACH_OF_PROTOCOL);
+      return;
+    }
+    if (!accepted) {
+      LOG.debug("Too many queued requests from {}, rejecting {} request", peer, handler.name);
+      rejectedRequestsCounter.labels(handler.name).inc();
+    }
+    if (ready) {
+      // Each ready peer has one task scheduled, which serves whichever peer's turn it is
+      scheduler.scheduleServerTask(this::serveNext);
     }
   }
 
-  private void handleGetReceipts(final EthMessage message) {
-    LOG.trace("Responding to GET_RECEIPTS request");
+  private void serveNext() {
+    final EthPeer peer;
+    final PeerRequests requests;
+    final QueuedRequest request;
+    synchronized (this) {
+      peer = peersWithQueuedRequests.poll();
+      if (peer == null) {
+        return;
+      }
+      requests = queuedRequests.get(peer);
+      request = requests.startNext();
+    }
+
     try {
-      final MessageData response =
-          constructGetReceiptsResponse(
-              blockchain, message.getData(), ethereumWireProtocolConfiguration.getMaxGetReceipts());
-      message.getPeer().send(response);
-    } catch (final RLPException e) {
-      LOG.debug("Received malformed GET_RECEIPTS message, disconnecting: {}", message.getPeer(), e);
-      message.getPeer().disconnect(DisconnectReason.BREACH_OF_PROTOCOL);
-    } catch (final PeerNotConnected peerNotConnected) {
-      // Peer disconnected before we could respond - nothing to do
+      if (request.isRejected()) {
+        send(peer, request.handler, request.handler.emptyResponse.get());
+      } else {
+        serve(peer, request.handler, request.data);
+      }
+    } finally {
+      final boolean ready;
+      synchronized (this) {
+        ready = requests.finish();
+        if (ready) {
+          peersWithQueuedRequests.add(peer);
+        } else {
+          queuedRequests.remove(peer);
+        }
+      }
+      if (ready) {
+        scheduler.scheduleServerTask(this::serveNext);
+      }
     }
   }
 
-  private void handleGetNodeData(final EthMessage message) {
-    LOG.trace("Responding to GET_NODE_DATA request");
-    try {
-      final MessageData response =
-          constructGetNodeDataResponse(
-              worldStateArchive,
-              message.getData(),
-              ethereumWireProtocolConfiguration.getMaxGetNodeData());
-      message.getPeer().send(response);
+  private void serve(final EthPeer peer, final Handler handler, final MessageData data) {
+    if (peer.isDisconnected()) {
+      LOG.trace("Dropping {} request from disconnected peer {}", handler.name, peer);
+      return;
+    }
+
+    LOG.trace("Responding to {} request", handler.name);
+    try (final OperationTimer.TimingContext ignored =
+        servingTimer.labels(handler.name).startTimer()) {
+      final ResponseBudget budget =
+          new ResponseBudget(
+              ethereumWireProtocolConfiguration.getMaxResponseBytes(),
+              ethereumWireProtocolConfiguration.getMaxResponseMillis(),
+              nanoTime);
+      send(peer, handler, handler.constructor.construct(data, budget));
     } catch (final RLPException e) {
-      LOG.debug(
-          "Received malformed GET_NODE_DATA message, disconnecting: {}", message.getPeer(), e);
-      message.getPeer().disconnect(DisconnectReason.BREACH_OF_PROTOCOL);
-    } catch (final PeerNotConnected peerNotConnected) {
-      // Peer disconnected before we could respond - nothing to do
+      LOG.debug("Received malformed {} message, disconnecting: {}", handler.name, peer, e);
+      peer.disconnect(DisconnectReason.BREACH_OF_PROTOCOL);
+    } catch (final RuntimeException e) {
+      LOG.error("Failed to serve {} request from {}", handler.name, peer, e);
     }
   }
 
-  private void handleGetPooledTransactions(final EthMessage message) {
-    LOG.trace("Responding to GET_POOLED_TRANSACTIONS request");
+  private void send(final EthPeer peer, final Handler handler, final MessageData response) {
     try {
-      final MessageData response =
-          constructGetPooledTransactionsResponse(
-              transactionPool,
-              message.getData(),
-              ethereumWireProtocolConfiguration.getMaxGetPooledTransactions());
-      message.getPeer().send(response);
-    } catch (final RLPException e) {
-      LOG.debug(
-          "Received malformed GET_POOLED_TRANSACTIONS message, disconnecting: {}",
-          message.getPeer(),
-          e);
-      message.getPeer().disconnect(DisconnectReason.BREACH_OF_PROTOCOL);
+      peer.send(response);
+      bytesServedCounter.labels(handler.name).inc(response.getSize());
     } catch (final PeerNotConnected peerNotConnected) {
       // Peer disconnected before we could respond - nothing to do
     }
   }
 
   static MessageData constructGetHeadersResponse(
-      final Blockchain blockchain, final MessageData message, final int requestLimit) {
+      final Blockchain blockchain,
+      final MessageData message,
+      final int requestLimit,
+      final ResponseBudget budget) {
     final GetBlockHeadersMessage getHeaders = GetBlockHeadersMessage.readFrom(message);
     final Optional<Hash> hash = getHeaders.hash();
     final int skip = getHeaders.skip();
@@ -192,8 +333,9 @@ class EthServer {
       resp = Collections.emptyList();
     } else {
       resp = Lists.newArrayList(firstHeader);
+      budget.add(ESTIMATED_HEADER_SIZE);
       final long numberDelta = reversed ? -(skip + 1) : (skip + 1);
-      for (int i = 1; i < maxHeaders; i++) {
+      for (int i = 1; i < maxHeaders && !budget.isExhausted(); i++) {
         final long blockNumber = firstHeader.getNumber() + i * numberDelta;
         if (blockNumber < BlockHeader.GENESIS_BLOCK_NUMBER) {
           break;
@@ -201,6 +343,7 @@ class EthServer {
         final Optional<BlockHeader> maybeHeader = blockchain.getBlockHeader(blockNumber);
         if (maybeHeader.isPresent()) {
           resp.add(maybeHeader.get());
+          budget.add(ESTIMATED_HEADER_SIZE);
         } else {
           break;
         }
@@ -210,14 +353,17 @@ class EthServer {
   }
 
   static MessageData constructGetBodiesResponse(
-      final Blockchain blockchain, final MessageData message, final int requestLimit) {
+      final Blockchain blockchain,
+      final MessageData message,
+      final int requestLimit,
+      final ResponseBudget budget) {
     final GetBlockBodiesMessage getBlockBodiesMessage = GetBlockBodiesMessage.readFrom(message);
     final Iterable<Hash> hashes = getBlockBodiesMessage.hashes();
 
     final Collection<BlockBody> bodies = new ArrayList<>();
     int count = 0;
     for (final Hash hash : hashes) {
-      if (count >= requestLimit) {
+      if (count >= requestLimit || budget.isExhausted()) {
         break;
       }
       count++;
@@ -226,19 +372,23 @@ class EthServer {
         continue;
       }
       bodies.add(maybeBody.get());
+      budget.add(estimateSize(maybeBody.get()));
     }
     return BlockBodiesMessage.create(bodies);
   }
 
   static MessageData constructGetReceiptsResponse(
-      final Blockchain blockchain, final MessageData message, final int requestLimit) {
+      final Blockchain blockchain,
+      final MessageData message,
+      final int requestLimit,
+      final ResponseBudget budget) {
     final GetReceiptsMessage getReceipts = GetReceiptsMessage.readFrom(message);
     final Iterable<Hash> hashes = getReceipts.hashes();
 
     final List<List<TransactionReceipt>> receipts = new ArrayList<>();
     int count = 0;
     for (final Hash hash : hashes) {
-      if (count >= requestLimit) {
+      if (count >= requestLimit || budget.isExhausted()) {
         break;
       }
       count++;
@@ -247,12 +397,16 @@ class EthServer {
         continue;
       }
       receipts.add(maybeReceipts.get());
+      maybeReceipts.get().forEach(receipt -> budget.add(estimateSize(receipt)));
     }
     return ReceiptsMessage.create(receipts);
   }
 
   static MessageData constructGetPooledTransactionsResponse(
-      final TransactionPool transactionPool, final MessageData message, final int requestLimit) {
+      final TransactionPool transactionPool,
+      final MessageData message,
+      final int requestLimit,
+      final ResponseBudget budget) {
     final GetPooledTransactionsMessage getPooledTransactions =
         GetPooledTransactionsMessage.readFrom(message);
     final Iterable<Hash> hashes = getPooledTransactions.pooledTransactions();
@@ -260,7 +414,7 @@ class EthServer {
     final List<Transaction> tx = new ArrayList<>();
     int count = 0;
     for (final Hash hash : hashes) {
-      if (count >= requestLimit) {
+      if (count >= requestLimit || budget.isExhausted()) {
         break;
       }
       count++;
@@ -269,6 +423,7 @@ class EthServer {
         continue;
       }
       tx.add(maybeTx.get());
+      budget.add(estimateSize(maybeTx.get()));
     }
     return PooledTransactionsMessage.create(tx);
   }
@@ -276,20 +431,117 @@ class EthServer {
   static MessageData constructGetNodeDataResponse(
       final WorldStateArchive worldStateArchive,
       final MessageData message,
-      final int requestLimit) {
+      final int requestLimit,
+      final ResponseBudget budget) {
     final GetNodeDataMessage getNodeDataMessage = GetNodeDataMessage.readFrom(message);
     final Iterable<Hash> hashes = getNodeDataMessage.hashes();
 
     final List<Bytes> nodeData = new ArrayList<>();
     int count = 0;
     for (final Hash hash : hashes) {
-      if (count >= requestLimit) {
+      if (count >= requestLimit || budget.isExhausted()) {
         break;
       }
       count++;
 
-      worldStateArchive.getNodeData(hash).ifPresent(nodeData::add);
+      final Optional<Bytes> maybeNodeData = worldStateArchive.getNodeData(hash);
+      if (maybeNodeData.isEmpty()) {
+        continue;
+      }
+      nodeData.add(maybeNodeData.get());
+      budget.add(maybeNodeData.get().size());
     }
     return NodeDataMessage.create(nodeData);
   }
+
+  private static long estimateSize(final BlockBody body) {
+    long size = (long) body.getOmmers().size() * ESTIMATED_HEADER_SIZE;
+    for (final Transaction transaction : body.getTransactions()) {
+      size += estimateSize(transaction);
+    }
+    return size;
+  }
+
+  private static long estimateSize(final Transaction transaction) {
+    return ESTIMATED_TRANSACTION_SIZE + transaction.getPayload().size();
+  }
+
+  private static long estimateSize(final TransactionReceipt receipt) {
+    long size = ESTIMATED_RECEIPT_SIZE;
+    for (final Log log : receipt.getLogs()) {
+      size += ESTIMATED_LOG_SIZE + log.getTopics().size() * Bytes32.SIZE + log.getData().size();
+    }
+    return size;
+  }
+
+  @FunctionalInterface
+  private interface ResponseConstructor {
+    MessageData construct(MessageData message, ResponseBudget budget);
+  }
+
+  private static class Handler {
+    private final String name;
+    private final ResponseConstructor constructor;
+    private final Supplier<MessageData> emptyResponse;
+
+    private Handler(
+        final String name,
+        final ResponseConstructor constructor,
+        final Supplier<MessageData> emptyResponse) {
+      this.name = name;
+      this.constructor = constructor;
+      this.emptyResponse = emptyResponse;
+    }
+  }
+
+  /** The requests queued for one peer. Guarded by the enclosing {@link EthServer}. */
+  private static class PeerRequests {
+    private final Deque<QueuedRequest> requests = new ArrayDeque<>();
+    // Queued requests that will be served, as opposed to answered with an empty response
+    private int acceptedCount;
+    private boolean inService;
+
+    /** Returns true if the peer became ready to be served. */
+    private boolean add(final QueuedRequest request) {
+      requests.add(request);
+      if (!request.isRejected()) {
+        acceptedCount++;
+      }
+      return requests.size() == 1 && !inService;
+    }
+
+    private int size() {
+      return requests.size();
+    }
+
+    private QueuedRequest startNext() {
+      final QueuedRequest request = requests.poll();
+      if (!request.isRejected()) {
+        acceptedCount--;
+      }
+      inService = true;
+      return request;
+    }
+
+    /** Returns true if the peer has more requests to be served. */
+    private boolean finish() {
+      inService = false;
+      return !requests.isEmpty();
+    }
+  }
+
+  private static class QueuedRequest {
+    private final Handler handler;
+    // Null when the request is answered with an empty response
+    private final MessageData data;
+
+    private QueuedRequest(final Handler handler, final MessageData data) {
+      this.handler = handler;
+      this.data = data;
+    }
+
+    private boolean isRejected() {
+      return data == null;
+    }
+  }
 }
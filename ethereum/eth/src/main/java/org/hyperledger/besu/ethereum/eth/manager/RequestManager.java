@@ -32,6 +32,8 @@ public class RequestManager {
   private final EthPeer peer;
 
   private final AtomicInteger outstandingRequests = new AtomicInteger(0);
+  // Peers answer requests of a given type in order, so responses match the oldest dispatch time
+  private final Queue<Long> dispatchTimes = new ConcurrentLinkedQueue<>();
 
   public RequestManager(final EthPeer peer) {
     this.peer = peer;
@@ -44,6 +46,7 @@ public class RequestManager {
   public ResponseStream dispatchRequest(final RequestSender sender) throws PeerNotConnected {
     outstandingRequests.incrementAndGet();
     final ResponseStream stream = createStream();
+    dispatchTimes.add(System.nanoTime());
     sender.send();
     return stream;
   }
@@ -51,10 +54,15 @@ public class RequestManager {
   public void dispatchResponse(final EthMessage message) {
     final Collection<ResponseStream> streams = new ArrayList<>(responseStreams.values());
     final int count = outstandingRequests.decrementAndGet();
+    final Long dispatchTime = dispatchTimes.poll();
+    if (dispatchTime != null) {
+      peer.recordResponseLatency(System.nanoTime() - dispatchTime);
+    }
 
     streams.forEach(s -> s.processMessage(message.getData()));
     if (count == 0) {
       // No possibility of any remaining outstanding messages
+      dispatchTimes.clear();
       closeOutstandingStreams(streams);
     }
   }
@@ -0,0 +1,51 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.eth.manager;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounds the size of a response and the time spent building it. Items are added to a response until
+ * the budget is exhausted, so a response always holds at least one item and may exceed the byte
+ * budget by the size of its last item.
+ */
+class ResponseBudget {
+  private final long maxBytes;
+  private final long maxNanos;
+  private final LongSupplier nanoTime;
+  private final long start;
+  private long bytes;
+
+  ResponseBudget(final long maxBytes, final long maxMillis, final LongSupplier nanoTime) {
+    this.maxBytes = maxBytes;
+    this.maxNanos =
+        maxMillis == Long.MAX_VALUE ? Long.MAX_VALUE : TimeUnit.MILLISECONDS.toNanos(maxMillis);
+    this.nanoTime = nanoTime;
+    this.start = nanoTime.getAsLong();
+  }
+
+  static ResponseBudget unlimited() {
+    return new ResponseBudget(Long.MAX_VALUE, Long.MAX_VALUE, () -> 0);
+  }
+
+  void add(final long size) {
+    bytes += size;
+  }
+
+  boolean isExhausted() {
+    return bytes >= maxBytes || nanoTime.getAsLong() - start >= maxNanos;
+  }
+}
@@ -21,10 +21,11 @@ import org.hyperledger.besu.ethereum.mainnet.ScheduleBasedBlockHeaderFunctions;
 import org.hyperledger.besu.ethereum.p2p.rlpx.wire.AbstractMessageData;
 import org.hyperledger.besu.ethereum.p2p.rlpx.wire.MessageData;
 import org.hyperledger.besu.ethereum.rlp.BytesValueRLPInput;
-import org.hyperledger.besu.ethereum.rlp.BytesValueRLPOutput;
+import org.hyperledger.besu.ethereum.rlp.RLP;
 
 import java.util.List;
 
+import com.google.common.collect.Lists;
 import org.apache.tuweni.bytes.Bytes;
 
 public final class BlockBodiesMessage extends AbstractMessageData {
@@ -42,11 +43,16 @@ public final class BlockBodiesMessage extends AbstractMessageData {
   }
 
   public static BlockBodiesMessage create(final Iterable<BlockBody> bodies) {
-    final BytesValueRLPOutput tmp = new BytesValueRLPOutput();
-    tmp.startList();
-    bodies.forEach(body -> body.writeTo(tmp));
-    tmp.endList();
-    return new BlockBodiesMessage(tmp.encoded());
+    // Encoding iterates twice, once to size the lists and once to write them
+    final List<BlockBody> bodyList = Lists.newArrayList(bodies);
+    return new BlockBodiesMessage(
+        Bytes.wrap(
+            RLP.encodeToArray(
+                out -> {
+                  out.startList();
+                  bodyList.forEach(body -> body.writeTo(out));
+                  out.endList();
+                })));
   }
 
   private BlockBodiesMessage(final Bytes data) {
@@ -21,11 +21,12 @@ import org.hyperledger.besu.ethereum.mainnet.ScheduleBasedBlockHeaderFunctions;
 import org.hyperledger.besu.ethereum.p2p.rlpx.wire.AbstractMessageData;
 import org.hyperledger.besu.ethereum.p2p.rlpx.wire.MessageData;
 import org.hyperledger.besu.ethereum.rlp.BytesValueRLPInput;
-import org.hyperledger.besu.ethereum.rlp.BytesValueRLPOutput;
+import org.hyperledger.besu.ethereum.rlp.RLP;
 
 import java.util.Arrays;
 import java.util.List;
 
+import com.google.common.collect.Lists;
 import org.apache.tuweni.bytes.Bytes;
 
 public final class BlockHeadersMessage extends AbstractMessageData {
@@ -47,13 +48,18 @@ public final class BlockHeadersMessage extends AbstractMessageData {
   }
 
   public static BlockHeadersMessage create(final Iterable<BlockHeader> headers) {
-    final BytesValueRLPOutput tmp = new BytesValueRLPOutput();
-    tmp.startList();
-    for (final BlockHeader header : headers) {
-      header.writeTo(tmp);
-    }
-    tmp.endList();
-    return new BlockHeadersMessage(tmp.encoded());
+    // Encoding iterates twice, once to size the lists and once to write them
+    final List<BlockHeader> headerList = Lists.newArrayList(headers);
+    return new BlockHeadersMessage(
+        Bytes.wrap(
+            RLP.encodeToArray(
+                out -> {
+                  out.startList();
+                  for (final BlockHeader header : headerList) {
+                    header.writeTo(out);
+                  }
+                  out.endList();
+                })));
   }
 
   private BlockHeadersMessage(final Bytes data) {
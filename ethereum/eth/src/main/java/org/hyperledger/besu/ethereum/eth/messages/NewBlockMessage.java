@@ -21,7 +21,6 @@ import org.hyperledger.besu.ethereum.mainnet.ProtocolSchedule;
 import org.hyperledger.besu.ethereum.mainnet.ScheduleBasedBlockHeaderFunctions;
 import org.hyperledger.besu.ethereum.p2p.rlpx.wire.AbstractMessageData;
 import org.hyperledger.besu.ethereum.p2p.rlpx.wire.MessageData;
-import org.hyperledger.besu.ethereum.rlp.BytesValueRLPOutput;
 import org.hyperledger.besu.ethereum.rlp.RLP;
 import org.hyperledger.besu.ethereum.rlp.RLPInput;
 import org.hyperledger.besu.ethereum.rlp.RLPOutput;
@@ -46,9 +45,7 @@ public class NewBlockMessage extends AbstractMessageData {
 
   public static NewBlockMessage create(final Block block, final Difficulty totalDifficulty) {
     final NewBlockMessageData msgData = new NewBlockMessageData(block, totalDifficulty);
-    final BytesValueRLPOutput out = new BytesValueRLPOutput();
-    msgData.writeTo(out);
-    return new NewBlockMessage(out.encoded());
+    return new NewBlockMessage(Bytes.wrap(RLP.encodeToArray(msgData::writeTo)));
   }
 
   public static NewBlockMessage readFrom(final MessageData message) {
@@ -109,6 +106,7 @@ public class NewBlockMessage extends AbstractMessageData {
       final BlockHeaderFunctions blockHeaderFunctions =
           ScheduleBasedBlockHeaderFunctions.create(protocolSchedule);
       in.enterList();
+      // Decoded eagerly so that a malformed block is rejected before it can be relayed
       final Block block = Block.readFrom(in, blockHeaderFunctions);
       final UInt256 totaldifficulty = in.readUInt256Scalar();
       return new NewBlockMessageData(block, Difficulty.of(totaldifficulty));
@@ -17,12 +17,13 @@ package org.hyperledger.besu.ethereum.eth.messages;
 import org.hyperledger.besu.ethereum.p2p.rlpx.wire.AbstractMessageData;
 import org.hyperledger.besu.ethereum.p2p.rlpx.wire.MessageData;
 import org.hyperledger.besu.ethereum.rlp.BytesValueRLPInput;
-import org.hyperledger.besu.ethereum.rlp.BytesValueRLPOutput;
+import org.hyperledger.besu.ethereum.rlp.RLP;
 import org.hyperledger.besu.ethereum.rlp.RLPInput;
 
 import java.util.ArrayList;
 import java.util.List;
 
+import com.google.common.collect.Lists;
 import org.apache.tuweni.bytes.Bytes;
 
 public final class NodeDataMessage extends AbstractMessageData {
@@ -40,11 +41,16 @@ public final class NodeDataMessage extends AbstractMessageData {
   }
 
   public static NodeDataMessage create(final Iterable<Bytes> nodeData) {
-    final BytesValueRLPOutput tmp = new BytesValueRLPOutput();
-    tmp.startList();
-    nodeData.forEach(tmp::writeBytes);
-    tmp.endList();
-    return new NodeDataMessage(tmp.encoded());
+    // Encoding iterates twice, once to size the lists and once to write them
+    final List<Bytes> nodes = Lists.newArrayList(nodeData);
+    return new NodeDataMessage(
+        Bytes.wrap(
+            RLP.encodeToArray(
+                out -> {
+                  out.startList();
+                  nodes.forEach(out::writeBytes);
+                  out.endList();
+                })));
   }
 
   private NodeDataMessage(final Bytes data) {
@@ -18,7 +18,7 @@ import org.hyperledger.besu.ethereum.core.TransactionReceipt;
 import org.hyperledger.besu.ethereum.p2p.rlpx.wire.AbstractMessageData;
 import org.hyperledger.besu.ethereum.p2p.rlpx.wire.MessageData;
 import org.hyperledger.besu.ethereum.rlp.BytesValueRLPInput;
-import org.hyperledger.besu.ethereum.rlp.BytesValueRLPOutput;
+import org.hyperledger.besu.ethereum.rlp.RLP;
 import org.hyperledger.besu.ethereum.rlp.RLPInput;
 
 import java.util.ArrayList;
@@ -41,16 +41,19 @@ public final class ReceiptsMessage extends AbstractMessageData {
   }
 
   public static ReceiptsMessage create(final List<List<TransactionReceipt>> receipts) {
-    final BytesValueRLPOutput tmp = new BytesValueRLPOutput();
-    tmp.startList();
-    receipts.forEach(
-        (receiptSet) -> {
-          tmp.startList();
-          receiptSet.forEach(r -> r.writeTo(tmp));
-          tmp.endList();
-        });
-    tmp.endList();
-    return new ReceiptsMessage(tmp.encoded());
+    return new ReceiptsMessage(
+        Bytes.wrap(
+            RLP.encodeToArray(
+                out -> {
+                  out.startList();
+                  receipts.forEach(
+                      (receiptSet) -> {
+                        out.startList();
+                        receiptSet.forEach(r -> r.writeTo(out));
+                        out.endList();
+                      });
+                  out.endList();
+                })));
   }
 
   private ReceiptsMessage(final Bytes data) {
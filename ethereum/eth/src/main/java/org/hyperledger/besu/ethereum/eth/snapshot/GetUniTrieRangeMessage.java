@@ -0,0 +1,84 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.eth.snapshot;
+
+import org.hyperledger.besu.ethereum.core.Hash;
+import org.hyperledger.besu.ethereum.p2p.rlpx.wire.AbstractMessageData;
+import org.hyperledger.besu.ethereum.p2p.rlpx.wire.MessageData;
+import org.hyperledger.besu.ethereum.rlp.BytesValueRLPOutput;
+import org.hyperledger.besu.ethereum.rlp.RLP;
+import org.hyperledger.besu.ethereum.rlp.RLPInput;
+
+import org.apache.tuweni.bytes.Bytes;
+
+/** Requests up to a given number of UniTrie entries, starting from a given key. */
+public final class GetUniTrieRangeMessage extends AbstractMessageData {
+
+  public static GetUniTrieRangeMessage readFrom(final MessageData message) {
+    if (message instanceof GetUniTrieRangeMessage) {
+      return (GetUniTrieRangeMessage) message;
+    }
+    final int code = message.getCode();
+    if (code != UniTrieSnapshotPV1.GET_UNITRIE_RANGE) {
+      throw new IllegalArgumentException(
+          String.format("Message has code %d and thus is not a GetUniTrieRangeMessage.", code));
+    }
+    return new GetUniTrieRangeMessage(message.getData());
+  }
+
+  public static GetUniTrieRangeMessage create(
+      final Hash rootHash, final Bytes startKey, final int limit) {
+    final BytesValueRLPOutput tmp = new BytesValueRLPOutput();
+    tmp.startList();
+    tmp.writeBytes(rootHash);
+    tmp.writeBytes(startKey);
+    tmp.writeIntScalar(limit);
+    tmp.endList();
+    return new GetUniTrieRangeMessage(tmp.encoded());
+  }
+
+  private GetUniTrieRangeMessage(final Bytes data) {
+    super(data);
+  }
+
+  @Override
+  public int getCode() {
+    return UniTrieSnapshotPV1.GET_UNITRIE_RANGE;
+  }
+
+  public Hash rootHash() {
+    final RLPInput input = enterList();
+    return Hash.wrap(input.readBytes32());
+  }
+
+  public Bytes startKey() {
+    final RLPInput input = enterList();
+    input.skipNext();
+    return input.readBytes();
+  }
+
+  public int limit() {
+    final RLPInput input = enterList();
+    input.skipNext();
+    input.skipNext();
+    return input.readIntScalar();
+  }
+
+  private RLPInput enterList() {
+    final RLPInput input = RLP.input(data);
+    input.enterList();
+    return input;
+  }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.eth.snapshot;
+
+import org.hyperledger.besu.ethereum.p2p.rlpx.wire.AbstractMessageData;
+import org.hyperledger.besu.ethereum.p2p.rlpx.wire.MessageData;
+import org.hyperledger.besu.ethereum.rlp.BytesValueRLPOutput;
+import org.hyperledger.besu.ethereum.rlp.RLP;
+import org.hyperledger.besu.ethereum.rlp.RLPInput;
+import org.hyperledger.besu.ethereum.unitrie.UniTrie;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+import org.apache.tuweni.bytes.Bytes;
+
+/**
+ * A contiguous range of UniTrie entries, sorted by key, together with the proof of its boundary
+ * entries.
+ */
+public final class UniTrieRangeMessage extends AbstractMessageData {
+
+  private final NavigableMap<Bytes, Bytes> entries;
+  private final List<Bytes> proof;
+
+  public static UniTrieRangeMessage readFrom(final MessageData message) {
+    if (message instanceof UniTrieRangeMessage) {
+      return (UniTrieRangeMessage) message;
+    }
+    final int code = message.getCode();
+    if (code != UniTrieSnapshotPV1.UNITRIE_RANGE) {
+      throw new IllegalArgumentException(
+          String.format("Message has code %d and thus is not a UniTrieRangeMessage.", code));
+    }
+    return decode(message.getData());
+  }
+
+  public static UniTrieRangeMessage create(
+      final NavigableMap<Bytes, Bytes> entries, final List<Bytes> proof) {
+    final BytesValueRLPOutput tmp = new BytesValueRLPOutput();
+    tmp.startList();
+    tmp.startList();
+    for (final Map.Entry<Bytes, Bytes> entry : entries.entrySet()) {
+      tmp.startList();
+      tmp.writeBytes(entry.getKey());
+      tmp.writeBytes(entry.getValue());
+      tmp.endList();
+    }
+    tmp.endList();
+    tmp.writeList(proof, (node, out) -> out.writeBytes(node));
+    tmp.endList();
+    return new UniTrieRangeMessage(tmp.encoded(), entries, proof);
+  }
+
+  // Decoded eagerly, so that a malformed range is rejected as soon as it is received
+  private static UniTrieRangeMessage decode(final Bytes data) {
+    final RLPInput input = RLP.input(data);
+    input.enterList();
+    final NavigableMap<Bytes, Bytes> entries = new TreeMap<>(UniTrie.KEY_ORDER);
+    input.enterList();
+    while (!input.isEndOfCurrentList()) {
+      input.enterList();
+      entries.put(input.readBytes(), input.readBytes());
+      input.leaveList();
+    }
+    input.leaveList();
+    final List<Bytes> proof = input.readList(RLPInput::readBytes);
+    input.leaveList();
+    return new UniTrieRangeMessage(data, entries, proof);
+  }
+
+  private UniTrieRangeMessage(
+      final Bytes data, final NavigableMap<Bytes, Bytes> entries, final List<Bytes> proof) {
+    super(data);
+    this.entries = Collections.unmodifiableNavigableMap(entries);
+    this.proof = Collections.unmodifiableList(proof);
+  }
+
+  @Override
+  public int getCode() {
+    return UniTrieSnapshotPV1.UNITRIE_RANGE;
+  }
+
+  public NavigableMap<Bytes, Bytes> entries() {
+    return entries;
+  }
+
+  public List<Bytes> proof() {
+    return proof;
+  }
+}
@@ -0,0 +1,193 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.eth.snapshot;
+
+import org.hyperledger.besu.ethereum.core.Hash;
+import org.hyperledger.besu.ethereum.eth.manager.exceptions.NoAvailablePeersException;
+import org.hyperledger.besu.ethereum.p2p.rlpx.connections.PeerConnection;
+import org.hyperledger.besu.ethereum.unitrie.RangeProof;
+import org.hyperledger.besu.ethereum.unitrie.StoredUniTrie;
+import org.hyperledger.besu.ethereum.unitrie.UniTrie;
+import org.hyperledger.besu.ethereum.worldstate.WorldStateStorage;
+import org.hyperledger.besu.metrics.BesuMetricCategory;
+import org.hyperledger.besu.plugin.services.MetricsSystem;
+import org.hyperledger.besu.plugin.services.metrics.Counter;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+
+/**
+ * Downloads a UniTrie world state as contiguous ranges of entries, using the {@link
+ * UniTrieSnapshotProtocol}.
+ *
+ * <p>Ranges are requested in key order, so the UniTrie can be rebuilt locally by inserting their
+ * entries as they arrive, committing once per range. The proof of each range is checked against the
+ * requested root hash, which shows that no entries were left out. A peer whose response fails the
+ * check is not asked again, and the range is requested from another peer.
+ *
+ * <p>The root hash of the rebuilt UniTrie is checked once the last range has been received. Since
+ * every range was proven, a mismatch means the entries were not stored as received, which no peer
+ * can be blamed for, so the download fails rather than requesting any range again.
+ */
+public class UniTrieSnapshotDownloader {
+  private static final Logger LOG = LogManager.getLogger();
+
+  public static final Duration DEFAULT_REQUEST_TIMEOUT = Duration.ofSeconds(5);
+
+  private final UniTrieSnapshotProtocolManager protocolManager;
+  private final WorldStateStorage worldStateStorage;
+  private final Executor executor;
+  private final int entriesPerRequest;
+  private final Duration requestTimeout;
+
+  private final Counter importedEntriesCounter;
+  private final Counter invalidResponsesCounter;
+
+  public UniTrieSnapshotDownloader(
+      final UniTrieSnapshotProtocolManager protocolManager,
+      final WorldStateStorage worldStateStorage,
+      final Executor executor,
+      final int entriesPerRequest,
+      final Duration requestTimeout,
+      final MetricsSystem metricsSystem) {
+    this.protocolManager = protocolManager;
+    this.worldStateStorage = worldStateStorage;
+    this.executor = executor;
+    this.entriesPerRequest = entriesPerRequest;
+    this.requestTimeout = requestTimeout;
+    this.importedEntriesCounter =
+        metricsSystem.createCounter(
+            BesuMetricCategory.SYNCHRONIZER,
+            "unitrie_snapshot_imported_entries_total",
+            "Total number of UniTrie entries imported by snapshot sync");
+    this.invalidResponsesCounter =
+        metricsSystem.createCounter(
+            BesuMetricCategory.SYNCHRONIZER,
+            "unitrie_snapshot_failed_requests_total",
+            "Total number of UniTrie range requests that failed or returned an invalid range");
+  }
+
+  /**
+   * Download the UniTrie world state with the given root hash.
+   *
+   * @param stateRoot root hash of the world state to download
+   * @return a future completed once the world state is available locally, or exceptionally if it
+   *     could not be downloaded from any peer or could not be rebuilt
+   */
+  public CompletableFuture<Void> run(final Hash stateRoot) {
+    if (worldStateStorage.isWorldStateAvailable(stateRoot)) {
+      return CompletableFuture.completedFuture(null);
+    }
+    final Download download = new Download(stateRoot);
+    executor.execute(download::requestNextRange);
+    return download.result;
+  }
+
+  private class Download {
+    private final Hash stateRoot;
+    private final UniTrie<Bytes, Bytes> trie;
+    private final Set<PeerConnection> failedPeers = new HashSet<>();
+    private final CompletableFuture<Void> result = new CompletableFuture<>();
+    private Bytes nextKey = Bytes.EMPTY;
+
+    private Download(final Hash stateRoot) {
+      this.stateRoot = stateRoot;
+      this.trie = new StoredUniTrie<>(worldStateStorage::getAccountStateTrieNode, b -> b, b -> b);
+    }
+
+    private void requestNextRange() {
+      final Optional<PeerConnection> maybePeer =
+          protocolManager.getPeers().stream()
+              .filter(peer -> !peer.isDisconnected() && !failedPeers.contains(peer))
+              .findFirst();
+      if (maybePeer.isEmpty()) {
+        result.completeExceptionally(new NoAvailablePeersException());
+        return;
+      }
+      final PeerConnection peer = maybePeer.get();
+      protocolManager
+          .requestRange(peer, stateRoot, nextKey, entriesPerRequest)
+          .orTimeout(requestTimeout.toMillis(), TimeUnit.MILLISECONDS)
+          .whenCompleteAsync(
+              (response, error) -> {
+                try {
+                  handleResponse(peer, response, error);
+                } catch (final RuntimeException e) {
+                  result.completeExceptionally(e);
+                }
+              },
+              executor);
+    }
+
+    private void handleResponse(
+        final PeerConnection peer, final UniTrieRangeMessage response, final Throwable error) {
+      if (result.isDone()) {
+        return;
+      }
+      final NavigableMap<Bytes, Bytes> entries = error == null ? response.entries() : null;
+      if (error != null || !RangeProof.verify(stateRoot, nextKey, entries, response.proof())) {
+        LOG.debug("Failed to retrieve UniTrie range from {}, trying another peer", peer, error);
+        retryRange(peer);
+        return;
+      }
+
+      if (entries.isEmpty()) {
+        completeDownload();
+        return;
+      }
+
+      entries.forEach(trie::put);
+      final WorldStateStorage.Updater updater = worldStateStorage.updater();
+      trie.commit(updater::putAccountStateTrieNode, updater::rawPut);
+      updater.commit();
+      importedEntriesCounter.inc(entries.size());
+
+      // The smallest key greater than the last one received
+      nextKey = Bytes.concatenate(entries.lastKey(), Bytes.of(0));
+      requestNextRange();
+    }
+
+    private void completeDownload() {
+      final Bytes32 rootHash = trie.getRootHash();
+      if (rootHash.equals(stateRoot)) {
+        LOG.info("Downloaded UniTrie world state {} from snapshot", stateRoot);
+        result.complete(null);
+      } else {
+        result.completeExceptionally(
+            new IllegalStateException(
+                String.format(
+                    "UniTrie rebuilt from snapshot has root %s, expected %s",
+                    rootHash, stateRoot)));
+      }
+    }
+
+    private void retryRange(final PeerConnection peer) {
+      invalidResponsesCounter.inc();
+      failedPeers.add(peer);
+      requestNextRange();
+    }
+  }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.eth.snapshot;
+
+import org.hyperledger.besu.ethereum.p2p.rlpx.wire.Capability;
+import org.hyperledger.besu.ethereum.p2p.rlpx.wire.SubProtocol;
+
+/**
+ * Sub-protocol for downloading a UniTrie world state as contiguous ranges of entries, each proved
+ * by the proofs of its boundary entries, instead of node by node.
+ */
+public class UniTrieSnapshotProtocol implements SubProtocol {
+  public static final String NAME = "usnap";
+  public static final Capability USNAP1 = Capability.create(NAME, 1);
+
+  private static final UniTrieSnapshotProtocol INSTANCE = new UniTrieSnapshotProtocol();
+
+  public static UniTrieSnapshotProtocol get() {
+    return INSTANCE;
+  }
+
+  @Override
+  public String getName() {
+    return NAME;
+  }
+
+  @Override
+  public int messageSpace(final int protocolVersion) {
+    return UniTrieSnapshotPV1.MESSAGE_SPACE;
+  }
+
+  @Override
+  public boolean isValidMessageCode(final int protocolVersion, final int code) {
+    switch (code) {
+      case UniTrieSnapshotPV1.GET_UNITRIE_RANGE:
+      case UniTrieSnapshotPV1.UNITRIE_RANGE:
+        return true;
+      default:
+        return false;
+    }
+  }
+
+  @Override
+  public String messageName(final int protocolVersion, final int code) {
+    switch (code) {
+      case UniTrieSnapshotPV1.GET_UNITRIE_RANGE:
+        return "GetUniTrieRange";
+      case UniTrieSnapshotPV1.UNITRIE_RANGE:
+        return "UniTrieRange";
+      default:
+        return INVALID_MESSAGE_NAME;
+    }
+  }
+}
@@ -0,0 +1,285 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.eth.snapshot;
+
+import org.hyperledger.besu.ethereum.core.Hash;
+import org.hyperledger.besu.ethereum.eth.manager.EthScheduler;
+import org.hyperledger.besu.ethereum.eth.manager.exceptions.PeerDisconnectedException;
+import org.hyperledger.besu.ethereum.p2p.network.ProtocolManager;
+import org.hyperledger.besu.ethereum.p2p.rlpx.connections.PeerConnection;
+import org.hyperledger.besu.ethereum.p2p.rlpx.connections.PeerConnection.PeerNotConnected;
+import org.hyperledger.besu.ethereum.p2p.rlpx.wire.Capability;
+import org.hyperledger.besu.ethereum.p2p.rlpx.wire.Message;
+import org.hyperledger.besu.ethereum.p2p.rlpx.wire.MessageData;
+import org.hyperledger.besu.ethereum.p2p.rlpx.wire.messages.DisconnectMessage.DisconnectReason;
+import org.hyperledger.besu.ethereum.rlp.RLPException;
+import org.hyperledger.besu.ethereum.unitrie.RangeProof;
+import org.hyperledger.besu.ethereum.unitrie.StoredUniTrie;
+import org.hyperledger.besu.ethereum.unitrie.UniTrie;
+import org.hyperledger.besu.ethereum.worldstate.WorldStateStorage;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.tuweni.bytes.Bytes;
+
+/**
+ * Serves and requests ranges of UniTrie entries over the {@link UniTrieSnapshotProtocol}.
+ *
+ * <p>Ranges are served by streaming the stored UniTrie in key order, on the scheduler's server
+ * executor rather than on the network thread. Each peer's requests are served one after another, so
+ * responses can be matched to requests in the order they were sent to each peer.
+ */
+public class UniTrieSnapshotProtocolManager implements ProtocolManager {
+  private static final Logger LOG = LogManager.getLogger();
+
+  public static final int DEFAULT_MAX_ENTRIES_PER_RANGE = 4096;
+
+  private final WorldStateStorage worldStateStorage;
+  private final EthScheduler scheduler;
+  private final int maxEntriesPerRange;
+  private final Map<PeerConnection, Deque<CompletableFuture<UniTrieRangeMessage>>> pendingRequests =
+      new ConcurrentHashMap<>();
+  // Requests received from peers whose requests are being served. Guarded by this
+  private final Map<PeerConnection, Deque<Message>> queuedRequests = new HashMap<>();
+
+  public UniTrieSnapshotProtocolManager(
+      final WorldStateStorage worldStateStorage,
+      final EthScheduler scheduler,
+      final int maxEntriesPerRange) {
+    this.worldStateStorage = worldStateStorage;
+    this.scheduler = scheduler;
+    this.maxEntriesPerRange = maxEntriesPerRange;
+  }
+
+  @Override
+  public String getSupportedProtocol() {
+    return UniTrieSnapshotProtocol.NAME;
+  }
+
+  @Override
+  public List<Capability> getSupportedCapabilities() {
+    return Collections.singletonList(UniTrieSnapshotProtocol.USNAP1);
+  }
+
+  @Override
+  public void stop() {
+    pendingRequests.keySet().forEach(this::failPendingRequests);
+  }
+
+  @Override
+  public void awaitStop() {}
+
+  @Override
+  public void processMessage(final Capability cap, final Message message) {
+    switch (message.getData().getCode()) {
+      case UniTrieSnapshotPV1.GET_UNITRIE_RANGE:
+        enqueueGetUniTrieRange(message);
+        break;
+      case UniTrieSnapshotPV1.UNITRIE_RANGE:
+        handleUniTrieRange(message);
+        break;
+      default:
+        LOG.debug(
+            "Received message with invalid code {}, disconnecting: {}",
+            message.getData().getCode(),
+            message.getConnection());
+        message.getConnection().disconnect(DisconnectReason.BREACH_OF_PROTOCOL);
+    }
+  }
+
+  @Override
+  public void handleNewConnection(final PeerConnection peerConnection) {
+    if (peerConnection.getAgreedCapabilities().contains(UniTrieSnapshotProtocol.USNAP1)) {
+      pendingRequests.putIfAbsent(peerConnection, new ArrayDeque<>());
+    }
+  }
+
+  @Override
+  public void handleDisconnect(
+      final PeerConnection peerConnection,
+      final DisconnectReason disconnectReason,
+      final boolean initiatedByPeer) {
+    failPendingRequests(peerConnection);
+    pendingRequests.remove(peerConnection);
+  }
+
+  /**
+   * Connected peers that serve UniTrie ranges.
+   *
+   * @return connections to peers supporting the {@link UniTrieSnapshotProtocol}
+   */
+  public Collection<PeerConnection> getPeers() {
+    return new ArrayList<>(pendingRequests.keySet());
+  }
+
+  /**
+   * Request a range of UniTrie entries from a peer.
+   *
+   * @param peer peer to request the range from
+   * @param rootHash root hash of the UniTrie
+   * @param startKey first key of the range
+   * @param limit maximum number of entries to return; peers may return less
+   * @return a future completed with the peer response, or exceptionally if the peer disconnects
+   */
+  public CompletableFuture<UniTrieRangeMessage> requestRange(
+      final PeerConnection peer, final Hash rootHash, final Bytes startKey, final int limit) {
+    final CompletableFuture<UniTrieRangeMessage> response = new CompletableFuture<>();
+    final Deque<CompletableFuture<UniTrieRangeMessage>> requests = pendingRequests.get(peer);
+    if (requests == null) {
+      response.completeExceptionally(new PeerDisconnectedException(null));
+      return response;
+    }
+    synchronized (requests) {
+      requests.add(response);
+      try {
+        peer.sendForProtocol(
+            UniTrieSnapshotProtocol.NAME, GetUniTrieRangeMessage.create(rootHash, startKey, limit));
+      } catch (final PeerNotConnected e) {
+        requests.remove(response);
+        response.completeExceptionally(new PeerDisconnectedException(null));
+      }
+    }
+    return response;
+  }
+
+  private void enqueueGetUniTrieRange(final Message message) {
+    final PeerConnection peer = message.getConnection();
+    final boolean idle;
+    synchronized (this) {
+      final Deque<Message> requests = queuedRequests.get(peer);
+      idle = requests == null;
+      if (idle) {
+        queuedRequests.put(peer, new ArrayDeque<>(Collections.singletonList(message)));
+      } else {
+        requests.add(message);
+      }
+    }
+    if (idle) {
+      scheduler.scheduleServerTask(() -> serveQueuedRequests(peer));
+    }
+  }
+
+  private void serveQueuedRequests(final PeerConnection peer) {
+    while (true) {
+      final Message message;
+      synchronized (this) {
+        message = queuedRequests.get(peer).poll();
+        if (message == null) {
+          queuedRequests.remove(peer);
+          return;
+        }
+      }
+      handleGetUniTrieRange(message);
+    }
+  }
+
+  private void handleGetUniTrieRange(final Message message) {
+    LOG.trace("Responding to GET_UNITRIE_RANGE request");
+    try {
+      final MessageData response =
+          constructGetUniTrieRangeResponse(
+              worldStateStorage, message.getData(), maxEntriesPerRange);
+      message.getConnection().sendForProtocol(UniTrieSnapshotProtocol.NAME, response);
+    } catch (final RLPException e) {
+      LOG.debug(
+          "Received malformed GET_UNITRIE_RANGE message, disconnecting: {}",
+          message.getConnection(),
+          e);
+      message.getConnection().disconnect(DisconnectReason.BREACH_OF_PROTOCOL);
+    } catch (final PeerNotConnected peerNotConnected) {
+      // Peer disconnected before we could respond - nothing to do
+    }
+  }
+
+  private void handleUniTrieRange(final Message message) {
+    final Deque<CompletableFuture<UniTrieRangeMessage>> requests =
+        pendingRequests.get(message.getConnection());
+    final CompletableFuture<UniTrieRangeMessage> request;
+    if (requests == null) {
+      request = null;
+    } else {
+      synchronized (requests) {
+        request = requests.poll();
+      }
+    }
+    if (request == null) {
+      LOG.debug("Unsolicited UniTrie range received from {}", message.getConnection());
+      return;
+    }
+    final UniTrieRangeMessage range;
+    try {
+      range = UniTrieRangeMessage.readFrom(message.getData());
+    } catch (final RLPException e) {
+      LOG.debug(
+          "Received malformed UNITRIE_RANGE message, disconnecting: {}",
+          message.getConnection(),
+          e);
+      request.completeExceptionally(e);
+      message.getConnection().disconnect(DisconnectReason.BREACH_OF_PROTOCOL);
+      return;
+    }
+    request.complete(range);
+  }
+
+  private void failPendingRequests(final PeerConnection peerConnection) {
+    final Deque<CompletableFuture<UniTrieRangeMessage>> requests =
+        pendingRequests.get(peerConnection);
+    if (requests == null) {
+      return;
+    }
+    final List<CompletableFuture<UniTrieRangeMessage>> failed;
+    synchronized (requests) {
+      failed = new ArrayList<>(requests);
+      requests.clear();
+    }
+    failed.forEach(request -> request.completeExceptionally(new PeerDisconnectedException(null)));
+  }
+
+  static MessageData constructGetUniTrieRangeResponse(
+      final WorldStateStorage worldStateStorage,
+      final MessageData message,
+      final int maxEntriesPerRange) {
+    final GetUniTrieRangeMessage request = GetUniTrieRangeMessage.readFrom(message);
+    final Hash rootHash = request.rootHash();
+    final Bytes startKey = request.startKey();
+    final int limit = Math.max(0, Math.min(request.limit(), maxEntriesPerRange));
+
+    if (!worldStateStorage.isWorldStateAvailable(rootHash)) {
+      return UniTrieRangeMessage.create(new TreeMap<>(UniTrie.KEY_ORDER), Collections.emptyList());
+    }
+    final UniTrie<Bytes, Bytes> trie =
+        new StoredUniTrie<>(worldStateStorage::getAccountStateTrieNode, rootHash, b -> b, b -> b);
+    try {
+      final NavigableMap<Bytes, Bytes> entries = trie.entriesFrom(startKey, limit);
+      return UniTrieRangeMessage.create(entries, RangeProof.create(trie, startKey, entries));
+    } catch (final IllegalStateException e) {
+      // Part of the state was pruned while streaming it
+      return UniTrieRangeMessage.create(new TreeMap<>(UniTrie.KEY_ORDER), Collections.emptyList());
+    }
+  }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.eth.snapshot;
+
+import org.hyperledger.besu.ethereum.eth.manager.EthScheduler;
+import org.hyperledger.besu.ethereum.merkleutils.ClassicMerkleAwareProvider;
+import org.hyperledger.besu.ethereum.merkleutils.MerkleAwareProvider;
+import org.hyperledger.besu.ethereum.merkleutils.MerkleAwareProviderVisitor;
+import org.hyperledger.besu.ethereum.merkleutils.UniTrieMerkleAwareProvider;
+import org.hyperledger.besu.ethereum.worldstate.WorldStateStorage;
+
+import java.util.Optional;
+
+/**
+ * Create a {@link UniTrieSnapshotProtocolManager} for world states stored as a UniTrie. Other world
+ * states cannot be served as UniTrie ranges.
+ */
+public class UniTrieSnapshotProtocolManagerFactory
+    implements MerkleAwareProviderVisitor<Optional<UniTrieSnapshotProtocolManager>> {
+
+  public static Optional<UniTrieSnapshotProtocolManager> create(
+      final MerkleAwareProvider merkleAwareProvider,
+      final WorldStateStorage worldStateStorage,
+      final EthScheduler scheduler) {
+    return merkleAwareProvider.accept(
+        new UniTrieSnapshotProtocolManagerFactory(worldStateStorage, scheduler));
+  }
+
+  private final WorldStateStorage worldStateStorage;
+  private final EthScheduler scheduler;
+
+  private UniTrieSnapshotProtocolManagerFactory(
+      final WorldStateStorage worldStateStorage, final EthScheduler scheduler) {
+    this.worldStateStorage = worldStateStorage;
+    this.scheduler = scheduler;
+  }
+
+  @Override
+  public Optional<UniTrieSnapshotProtocolManager> visit(final ClassicMerkleAwareProvider provider) {
+    return Optional.empty();
+  }
+
+  @Override
+  public Optional<UniTrieSnapshotProtocolManager> visit(final UniTrieMerkleAwareProvider provider) {
+    return Optional.of(
+        new UniTrieSnapshotProtocolManager(
+            worldStateStorage,
+            scheduler,
+            UniTrieSnapshotProtocolManager.DEFAULT_MAX_ENTRIES_PER_RANGE));
+  }
+}
@@ -17,10 +17,24 @@ package org.hyperledger.besu.ethereum.eth.sync;
 import org.hyperledger.besu.ethereum.core.Block;
 import org.hyperledger.besu.ethereum.core.Difficulty;
 import org.hyperledger.besu.ethereum.eth.manager.EthContext;
+import org.hyperledger.besu.ethereum.eth.manager.EthPeer;
+import org.hyperledger.besu.ethereum.eth.messages.NewBlockHashesMessage;
+import org.hyperledger.besu.ethereum.eth.messages.NewBlockHashesMessage.NewBlockHash;
 import org.hyperledger.besu.ethereum.eth.messages.NewBlockMessage;
 import org.hyperledger.besu.ethereum.p2p.rlpx.connections.PeerConnection;
+import org.hyperledger.besu.ethereum.p2p.rlpx.wire.MessageData;
+import org.hyperledger.besu.metrics.BesuMetricCategory;
+import org.hyperledger.besu.metrics.noop.NoOpMetricsSystem;
+import org.hyperledger.besu.plugin.services.MetricsSystem;
+import org.hyperledger.besu.plugin.services.metrics.Counter;
+import org.hyperledger.besu.plugin.services.metrics.LabelledMetric;
 import org.hyperledger.besu.util.Subscribers;
 
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -28,11 +42,30 @@ public class BlockBroadcaster {
   private static final Logger LOG = LogManager.getLogger();
 
   private final EthContext ethContext;
+  private final BlockPropagationStrategy strategy;
+  private final Counter newBlockMessagesCounter;
+  private final Counter newBlockHashesMessagesCounter;
   private final Subscribers<BlockPropagatedSubscriber> blockPropagatedSubscribers =
       Subscribers.create();
 
   public BlockBroadcaster(final EthContext ethContext) {
+    this(ethContext, BlockPropagationStrategy.ALL, new NoOpMetricsSystem());
+  }
+
+  public BlockBroadcaster(
+      final EthContext ethContext,
+      final BlockPropagationStrategy strategy,
+      final MetricsSystem metricsSystem) {
     this.ethContext = ethContext;
+    this.strategy = strategy;
+    final LabelledMetric<Counter> propagationMessages =
+        metricsSystem.createLabelledCounter(
+            BesuMetricCategory.SYNCHRONIZER,
+            "block_propagation_messages_total",
+            "Number of messages sent to peers to propagate new blocks",
+            "type");
+    this.newBlockMessagesCounter = propagationMessages.labels("new_block");
+    this.newBlockHashesMessagesCounter = propagationMessages.labels("new_block_hashes");
   }
 
   public long subscribePropagateNewBlocks(final BlockPropagatedSubscriber callback) {
@@ -43,22 +76,67 @@ public class BlockBroadcaster {
     blockPropagatedSubscribers.unsubscribe(id);
   }
 
+  /**
+   * Send a block to the peers that have not seen it yet.
+   *
+   * <p>With {@link BlockPropagationStrategy#SQRT}, only the square root of those peers receive the
+   * block, and the others should be told about it through {@link #announce(Block)} once it has been
+   * imported.
+   *
+   * @param block the block to propagate
+   * @param totalDifficulty the total difficulty of the chain ending at the block
+   */
   public void propagate(final Block block, final Difficulty totalDifficulty) {
     blockPropagatedSubscribers.forEach(listener -> listener.accept(block, totalDifficulty));
     final NewBlockMessage newBlockMessage = NewBlockMessage.create(block, totalDifficulty);
-    ethContext
+    final List<EthPeer> peers = peersMissing(block);
+    if (strategy == BlockPropagationStrategy.SQRT) {
+      // Unmeasured peers are shuffled so that they all get a chance to receive full blocks
+      Collections.shuffle(peers);
+      peers.sort(
+          Comparator.comparingLong(peer -> peer.getResponseLatencyNanos().orElse(Long.MAX_VALUE)));
+      final int fullBlockPeers = Math.max(1, (int) Math.sqrt(peers.size()));
+      peers.subList(Math.min(fullBlockPeers, peers.size()), peers.size()).clear();
+    }
+    peers.forEach(peer -> send(block, peer, newBlockMessage, newBlockMessagesCounter));
+  }
+
+  /**
+   * Announce the hash of an imported block to the peers that have not seen it yet, so that they can
+   * fetch it on demand. Does nothing unless the strategy is {@link BlockPropagationStrategy#SQRT},
+   * since every peer has otherwise been sent the full block.
+   *
+   * @param block the imported block
+   */
+  public void announce(final Block block) {
+    if (strategy != BlockPropagationStrategy.SQRT) {
+      return;
+    }
+    final NewBlockHashesMessage newBlockHashesMessage =
+        NewBlockHashesMessage.create(
+            Collections.singletonList(
+                new NewBlockHash(block.getHash(), block.getHeader().getNumber())));
+    peersMissing(block)
+        .forEach(peer -> send(block, peer, newBlockHashesMessage, newBlockHashesMessagesCounter));
+  }
+
+  private List<EthPeer> peersMissing(final Block block) {
+    return ethContext
         .getEthPeers()
         .streamAvailablePeers()
         .filter(ethPeer -> !ethPeer.hasSeenBlock(block.getHash()))
-        .forEach(
-            ethPeer -> {
-              ethPeer.registerKnownBlock(block.getHash());
-              try {
-                ethPeer.send(newBlockMessage);
-              } catch (final PeerConnection.PeerNotConnected e) {
-                LOG.trace("Failed to broadcast new block to peer", e);
-              }
-            });
+        .collect(Collectors.toList());
+  }
+
+  private void send(
+      final Block block, final EthPeer ethPeer, final MessageData message, final Counter counter) {
+    ethPeer.registerKnownBlock(block.getHash());
+    try {
+      ethPeer.send(message);
+      counter.inc();
+    } catch (final PeerConnection.PeerNotConnected e) {
+      LOG.trace("Failed to broadcast new block to peer", e);
+    }
   }
 
   @FunctionalInterface
@@ -40,7 +40,11 @@ import org.hyperledger.besu.ethereum.mainnet.ProtocolSchedule;
 import org.hyperledger.besu.ethereum.mainnet.ProtocolSpec;
 import org.hyperledger.besu.ethereum.p2p.rlpx.wire.messages.DisconnectMessage.DisconnectReason;
 import org.hyperledger.besu.ethereum.rlp.RLPException;
+import org.hyperledger.besu.metrics.BesuMetricCategory;
 import org.hyperledger.besu.plugin.services.MetricsSystem;
+import org.hyperledger.besu.plugin.services.metrics.Counter;
+import org.hyperledger.besu.plugin.services.metrics.OperationTimer;
+import org.hyperledger.besu.plugin.services.metrics.OperationTimer.TimingContext;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -68,6 +72,8 @@ public class BlockPropagationManager<C> {
   private final SyncState syncState;
   private final MetricsSystem metricsSystem;
   private final BlockBroadcaster blockBroadcaster;
+  private final Counter duplicateBlocksCounter;
+  private final OperationTimer propagationLatencyTimer;
 
   private final AtomicBoolean started = new AtomicBoolean(false);
 
@@ -92,6 +98,16 @@ public class BlockPropagationManager<C> {
     this.blockBroadcaster = blockBroadcaster;
     this.syncState = syncState;
     this.pendingBlocks = pendingBlocks;
+    this.duplicateBlocksCounter =
+        metricsSystem.createCounter(
+            BesuMetricCategory.SYNCHRONIZER,
+            "duplicate_new_blocks_total",
+            "Number of blocks received from peers that were already known");
+    this.propagationLatencyTimer =
+        metricsSystem.createTimer(
+            BesuMetricCategory.SYNCHRONIZER,
+            "block_propagation_latency_seconds",
+            "Time between first hearing of a block from a peer and propagating it");
   }
 
   public void start() {
@@ -166,14 +182,14 @@ public class BlockPropagationManager<C> {
           block.getHeader().getNumber(), localChainHeight, bestChainHeight)) {
         return;
       }
-      if (pendingBlocks.contains(block.getHash())) {
-        return;
-      }
-      if (blockchain.contains(block.getHash())) {
+      if (pendingBlocks.contains(block.getHash())
+          || importingBlocks.contains(block.getHash())
+          || blockchain.contains(block.getHash())) {
+        duplicateBlocksCounter.inc();
         return;
       }
 
-      importOrSavePendingBlock(block);
+      importOrSavePendingBlock(block, propagationLatencyTimer.startTimer());
     } catch (final RLPException e) {
       LOG.debug(
           "Malformed NEW_BLOCK message received from peer, disconnecting: {}",
@@ -240,15 +256,19 @@ public class BlockPropagationManager<C> {
 
   private CompletableFuture<Block> processAnnouncedBlock(
       final EthPeer peer, final NewBlockHash newBlock) {
+    final TimingContext propagationTimer = propagationLatencyTimer.startTimer();
     final AbstractPeerTask<Block> getBlockTask =
         GetBlockFromPeerTask.create(
                 protocolSchedule, ethContext, newBlock.hash(), newBlock.number(), metricsSystem)
             .assignPeer(peer);
 
-    return getBlockTask.run().thenCompose((r) -> importOrSavePendingBlock(r.getResult()));
+    return getBlockTask
+        .run()
+        .thenCompose((r) -> importOrSavePendingBlock(r.getResult(), propagationTimer));
   }
 
-  private void broadcastBlock(final Block block, final BlockHeader parent) {
+  private void broadcastBlock(
+      final Block block, final BlockHeader parent, final TimingContext propagationTimer) {
     final Difficulty totalDifficulty =
         protocolContext
             .getBlockchain()
@@ -256,10 +276,16 @@ public class BlockPropagationManager<C> {
             .get()
             .add(block.getHeader().getDifficulty());
     blockBroadcaster.propagate(block, totalDifficulty);
+    propagationTimer.stopTimer();
   }
 
   @VisibleForTesting
   CompletableFuture<Block> importOrSavePendingBlock(final Block block) {
+    return importOrSavePendingBlock(block, propagationLatencyTimer.startTimer());
+  }
+
+  private CompletableFuture<Block> importOrSavePendingBlock(
+      final Block block, final TimingContext propagationTimer) {
     // Synchronize to avoid race condition where block import event fires after the
     // blockchain.contains() check and before the block is registered, causing onBlockAdded() to be
     // invoked for the parent of this block before we are able to register it.
@@ -304,16 +330,21 @@ public class BlockPropagationManager<C> {
     return ethContext
         .getScheduler()
         .scheduleSyncWorkerTask(
-            () -> validateAndProcessPendingBlock(blockHeaderValidator, block, parent));
+            () ->
+                validateAndProcessPendingBlock(
+                    blockHeaderValidator, block, parent, propagationTimer));
   }
 
   private CompletableFuture<Block> validateAndProcessPendingBlock(
       final BlockHeaderValidator<C> blockHeaderValidator,
       final Block block,
-      final BlockHeader parent) {
+      final BlockHeader parent,
+      final TimingContext propagationTimer) {
     if (blockHeaderValidator.validateHeader(
         block.getHeader(), parent, protocolContext, HeaderValidationMode.FULL)) {
-      ethContext.getScheduler().scheduleSyncWorkerTask(() -> broadcastBlock(block, parent));
+      // Send the full block before importing it, so that the peers chosen to receive it are known
+      // before the import completes and its hash is announced to every other peer.
+      broadcastBlock(block, parent, propagationTimer);
       return runImportTask(block);
     } else {
       importingBlocks.remove(block.getHash());
@@ -340,6 +371,7 @@ public class BlockPropagationManager<C> {
                     block.getHeader().getNumber(),
                     block.getHash());
               } else {
+                blockBroadcaster.announce(block);
                 final double timeInS = importTask.getTaskTimeInSec();
                 LOG.info(
                     String.format(
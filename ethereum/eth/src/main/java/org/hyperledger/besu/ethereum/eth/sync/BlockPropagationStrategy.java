@@ -0,0 +1,26 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.eth.sync;
+
+/** How newly imported or mined blocks are pushed to the peers that have not seen them yet. */
+public enum BlockPropagationStrategy {
+  /** Send the full block to every peer. */
+  ALL,
+  /**
+   * Send the full block to the square root of the number of peers, preferring the most responsive
+   * ones, and announce its hash to the others once it is imported so they can fetch it on demand.
+   */
+  SQRT
+}
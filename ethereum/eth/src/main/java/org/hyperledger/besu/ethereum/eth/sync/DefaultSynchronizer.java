@@ -19,6 +19,7 @@ import static com.google.common.base.Preconditions.checkNotNull;
 import org.hyperledger.besu.ethereum.ProtocolContext;
 import org.hyperledger.besu.ethereum.core.Synchronizer;
 import org.hyperledger.besu.ethereum.eth.manager.EthContext;
+import org.hyperledger.besu.ethereum.eth.snapshot.UniTrieSnapshotProtocolManager;
 import org.hyperledger.besu.ethereum.eth.sync.fastsync.FastDownloaderFactory;
 import org.hyperledger.besu.ethereum.eth.sync.fastsync.FastSyncDownloader;
 import org.hyperledger.besu.ethereum.eth.sync.fastsync.FastSyncException;
@@ -61,6 +62,7 @@ public class DefaultSynchronizer<C> implements Synchronizer {
       final ProtocolSchedule<C> protocolSchedule,
       final ProtocolContext<C> protocolContext,
       final WorldStateStorage worldStateStorage,
+      final Optional<UniTrieSnapshotProtocolManager> snapshotProtocolManager,
       final BlockBroadcaster blockBroadcaster,
       final Optional<Pruner> maybePruner,
       final EthContext ethContext,
@@ -102,6 +104,7 @@ public class DefaultSynchronizer<C> implements Synchronizer {
             metricsSystem,
             ethContext,
             worldStateStorage,
+            snapshotProtocolManager,
             syncState,
             clock);
 
@@ -46,6 +46,7 @@ public class SynchronizerConfiguration {
   public static final int DEFAULT_COMPUTATION_PARALLELISM = 2;
   public static final int DEFAULT_WORLD_STATE_TASK_CACHE_SIZE =
       CachingTaskCollection.DEFAULT_CACHE_SIZE;
+  public static final boolean DEFAULT_UNITRIE_SNAPSHOT_SYNC_ENABLED = false;
 
   // Fast sync config
   private final int fastSyncPivotDistance;
@@ -55,6 +56,7 @@ public class SynchronizerConfiguration {
   private final int worldStateRequestParallelism;
   private final int worldStateMaxRequestsWithoutProgress;
   private final int worldStateTaskCacheSize;
+  private final boolean uniTrieSnapshotSyncEnabled;
 
   // Block propagation config
   private final Range<Long> blockPropagationRange;
@@ -83,6 +85,7 @@ public class SynchronizerConfiguration {
       final int worldStateMaxRequestsWithoutProgress,
       final long worldStateMinMillisBeforeStalling,
       final int worldStateTaskCacheSize,
+      final boolean uniTrieSnapshotSyncEnabled,
       final Range<Long> blockPropagationRange,
       final SyncMode syncMode,
       final long downloaderChangeTargetThresholdByHeight,
@@ -102,6 +105,7 @@ public class SynchronizerConfiguration {
     this.worldStateMaxRequestsWithoutProgress = worldStateMaxRequestsWithoutProgress;
     this.worldStateMinMillisBeforeStalling = worldStateMinMillisBeforeStalling;
     this.worldStateTaskCacheSize = worldStateTaskCacheSize;
+    this.uniTrieSnapshotSyncEnabled = uniTrieSnapshotSyncEnabled;
     this.blockPropagationRange = blockPropagationRange;
     this.syncMode = syncMode;
     this.downloaderChangeTargetThresholdByHeight = downloaderChangeTargetThresholdByHeight;
@@ -215,6 +219,16 @@ public class SynchronizerConfiguration {
     return worldStateTaskCacheSize;
   }
 
+  /**
+   * Whether fast sync downloads a UniTrie world state from snapshot ranges before falling back to
+   * downloading it node by node.
+   *
+   * @return true if the UniTrie snapshot download is enabled
+   */
+  public boolean isUniTrieSnapshotSyncEnabled() {
+    return uniTrieSnapshotSyncEnabled;
+  }
+
   public int getMaxTrailingPeers() {
     return maxTrailingPeers;
   }
@@ -243,6 +257,7 @@ public class SynchronizerConfiguration {
         DEFAULT_WORLD_STATE_MAX_REQUESTS_WITHOUT_PROGRESS;
     private long worldStateMinMillisBeforeStalling = DEFAULT_WORLD_STATE_MIN_MILLIS_BEFORE_STALLING;
     private int worldStateTaskCacheSize = DEFAULT_WORLD_STATE_TASK_CACHE_SIZE;
+    private boolean uniTrieSnapshotSyncEnabled = DEFAULT_UNITRIE_SNAPSHOT_SYNC_ENABLED;
 
     public Builder fastSyncPivotDistance(final int distance) {
       fastSyncPivotDistance = distance;
@@ -345,6 +360,11 @@ public class SynchronizerConfiguration {
       return this;
     }
 
+    public Builder uniTrieSnapshotSyncEnabled(final boolean uniTrieSnapshotSyncEnabled) {
+      this.uniTrieSnapshotSyncEnabled = uniTrieSnapshotSyncEnabled;
+      return this;
+    }
+
     public Builder maxTrailingPeers(final int maxTailingPeers) {
       this.maxTrailingPeers = maxTailingPeers;
       return this;
@@ -360,6 +380,7 @@ public class SynchronizerConfiguration {
           worldStateMaxRequestsWithoutProgress,
           worldStateMinMillisBeforeStalling,
           worldStateTaskCacheSize,
+          uniTrieSnapshotSyncEnabled,
           blockPropagationRange,
           syncMode,
           downloaderChangeTargetThresholdByHeight,
@@ -17,6 +17,8 @@ package org.hyperledger.besu.ethereum.eth.sync.fastsync;
 import org.hyperledger.besu.ethereum.ProtocolContext;
 import org.hyperledger.besu.ethereum.core.BlockHeader;
 import org.hyperledger.besu.ethereum.eth.manager.EthContext;
+import org.hyperledger.besu.ethereum.eth.snapshot.UniTrieSnapshotDownloader;
+import org.hyperledger.besu.ethereum.eth.snapshot.UniTrieSnapshotProtocolManager;
 import org.hyperledger.besu.ethereum.eth.sync.SyncMode;
 import org.hyperledger.besu.ethereum.eth.sync.SynchronizerConfiguration;
 import org.hyperledger.besu.ethereum.eth.sync.state.SyncState;
@@ -51,6 +53,7 @@ public class FastDownloaderFactory {
       final MetricsSystem metricsSystem,
       final EthContext ethContext,
       final WorldStateStorage worldStateStorage,
+      final Optional<UniTrieSnapshotProtocolManager> snapshotProtocolManager,
       final SyncState syncState,
       final Clock clock) {
     if (syncConfig.getSyncMode() != SyncMode.FAST) {
@@ -87,6 +90,18 @@ public class FastDownloaderFactory {
             syncConfig.getWorldStateMinMillisBeforeStalling(),
             clock,
             metricsSystem);
+    final Optional<UniTrieSnapshotDownloader> snapshotDownloader =
+        snapshotProtocolManager
+            .filter(protocolManager -> syncConfig.isUniTrieSnapshotSyncEnabled())
+            .map(
+                protocolManager ->
+                    new UniTrieSnapshotDownloader(
+                        protocolManager,
+                        worldStateStorage,
+                        ethContext.getScheduler()::scheduleSyncWorkerTask,
+                        UniTrieSnapshotProtocolManager.DEFAULT_MAX_ENTRIES_PER_RANGE,
+                        UniTrieSnapshotDownloader.DEFAULT_REQUEST_TIMEOUT,
+                        metricsSystem));
     final FastSyncDownloader<C> fastSyncDownloader =
         new FastSyncDownloader<>(
             new FastSyncActions<>(
@@ -97,6 +112,7 @@ public class FastDownloaderFactory {
                 syncState,
                 metricsSystem),
             worldStateDownloader,
+            snapshotDownloader,
             fastSyncStateStorage,
             taskCollection,
             fastSyncDataDirectory,
@@ -131,7 +147,8 @@ public class FastDownloaderFactory {
         new CachingTaskCollection<>(
             new FlatFileTaskCollection<>(
                 dataDirectory, NodeDataRequest::serialize, NodeDataRequest::deserialize),
-            worldStateTaskCacheSize);
+            worldStateTaskCacheSize,
+            NodeDataRequest.DEPTH_FIRST_ORDER);
 
     metricsSystem.createLongGauge(
         BesuMetricCategory.SYNCHRONIZER,
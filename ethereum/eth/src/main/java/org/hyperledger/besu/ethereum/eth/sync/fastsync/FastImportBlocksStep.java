@@ -21,6 +21,7 @@ import org.hyperledger.besu.ethereum.eth.manager.EthContext;
 import org.hyperledger.besu.ethereum.eth.sync.ValidationPolicy;
 import org.hyperledger.besu.ethereum.eth.sync.tasks.exceptions.InvalidBlockException;
 import org.hyperledger.besu.ethereum.mainnet.ProtocolSchedule;
+import org.hyperledger.besu.ethereum.storage.WriteBatch;
 
 import java.util.List;
 import java.util.function.Consumer;
@@ -51,12 +52,14 @@ public class FastImportBlocksStep<C> implements Consumer<List<BlockWithReceipts>
 
   @Override
   public void accept(final List<BlockWithReceipts> blocksWithReceipts) {
-    for (final BlockWithReceipts blockWithReceipts : blocksWithReceipts) {
-      if (!importBlock(blockWithReceipts)) {
-        throw new InvalidBlockException(
-            "Failed to import block",
-            blockWithReceipts.getHeader().getNumber(),
-            blockWithReceipts.getHash());
+    try (final WriteBatch ignored = protocolContext.startWriteBatch()) {
+      for (final BlockWithReceipts blockWithReceipts : blocksWithReceipts) {
+        if (!importBlock(blockWithReceipts)) {
+          throw new InvalidBlockException(
+              "Failed to import block",
+              blockWithReceipts.getHeader().getNumber(),
+              blockWithReceipts.getHash());
+        }
       }
     }
     final long firstBlock = blocksWithReceipts.get(0).getNumber();
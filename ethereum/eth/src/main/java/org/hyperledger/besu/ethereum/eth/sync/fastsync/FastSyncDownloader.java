@@ -15,7 +15,11 @@
 package org.hyperledger.besu.ethereum.eth.sync.fastsync;
 
 import static org.hyperledger.besu.util.FutureUtils.exceptionallyCompose;
+import static org.hyperledger.besu.util.FutureUtils.propagateCancellation;
+import static org.hyperledger.besu.util.FutureUtils.propagateResult;
 
+import org.hyperledger.besu.ethereum.core.BlockHeader;
+import org.hyperledger.besu.ethereum.eth.snapshot.UniTrieSnapshotDownloader;
 import org.hyperledger.besu.ethereum.eth.sync.ChainDownloader;
 import org.hyperledger.besu.ethereum.eth.sync.TrailingPeerRequirements;
 import org.hyperledger.besu.ethereum.eth.sync.worldstate.NodeDataRequest;
@@ -44,22 +48,27 @@ public class FastSyncDownloader<C> {
   private static final Logger LOG = LogManager.getLogger();
   private final FastSyncActions<C> fastSyncActions;
   private final WorldStateDownloader worldStateDownloader;
+  private final Optional<UniTrieSnapshotDownloader> snapshotDownloader;
   private final FastSyncStateStorage fastSyncStateStorage;
   private final TaskCollection<NodeDataRequest> taskCollection;
   private final Path fastSyncDataDirectory;
   private final FastSyncState initialFastSyncState;
   private volatile Optional<TrailingPeerRequirements> trailingPeerRequirements = Optional.empty();
   private final AtomicBoolean running = new AtomicBoolean(false);
+  // Guarded by this
+  private CompletableFuture<Void> snapshotFuture = CompletableFuture.completedFuture(null);
 
   public FastSyncDownloader(
       final FastSyncActions<C> fastSyncActions,
       final WorldStateDownloader worldStateDownloader,
+      final Optional<UniTrieSnapshotDownloader> snapshotDownloader,
       final FastSyncStateStorage fastSyncStateStorage,
       final TaskCollection<NodeDataRequest> taskCollection,
       final Path fastSyncDataDirectory,
       final FastSyncState initialFastSyncState) {
     this.fastSyncActions = fastSyncActions;
     this.worldStateDownloader = worldStateDownloader;
+    this.snapshotDownloader = snapshotDownloader;
     this.fastSyncStateStorage = fastSyncStateStorage;
     this.taskCollection = taskCollection;
     this.fastSyncDataDirectory = fastSyncDataDirectory;
@@ -109,6 +118,7 @@ public class FastSyncDownloader<C> {
     synchronized (this) {
       if (running.compareAndSet(true, false)) {
         // Cancelling the world state download will also cause the chain download to be cancelled.
+        snapshotFuture.cancel(true);
         worldStateDownloader.cancel();
       }
     }
@@ -154,7 +164,7 @@ public class FastSyncDownloader<C> {
             new CancellationException("FastSyncDownloader stopped"));
       }
       final CompletableFuture<Void> worldStateFuture =
-          worldStateDownloader.run(currentState.getPivotBlockHeader().get());
+          downloadWorldState(currentState.getPivotBlockHeader().get());
       final ChainDownloader chainDownloader = fastSyncActions.createChainDownloader(currentState);
       final CompletableFuture<Void> chainFuture = chainDownloader.start();
 
@@ -179,6 +189,46 @@ public class FastSyncDownloader<C> {
     }
   }
 
+  private CompletableFuture<Void> downloadWorldState(final BlockHeader pivotBlockHeader) {
+    if (snapshotDownloader.isEmpty()) {
+      return worldStateDownloader.run(pivotBlockHeader);
+    }
+    final CompletableFuture<Void> worldStateFuture = new CompletableFuture<>();
+    snapshotFuture = snapshotDownloader.get().run(pivotBlockHeader.getStateRoot());
+    propagateCancellation(worldStateFuture, snapshotFuture);
+    snapshotFuture.whenComplete(
+        (result, error) -> {
+          if (error instanceof CancellationException) {
+            worldStateFuture.completeExceptionally(error);
+            return;
+          }
+          if (error != null) {
+            LOG.info(
+                "Unable to download world state from snapshot, downloading it node by node: {}",
+                error.getMessage());
+          }
+          // Nodes stored by the snapshot download are not requested again, so this also completes
+          // a snapshot download that failed part way through.
+          downloadRemainingWorldState(pivotBlockHeader, worldStateFuture);
+        });
+    return worldStateFuture;
+  }
+
+  private void downloadRemainingWorldState(
+      final BlockHeader pivotBlockHeader, final CompletableFuture<Void> worldStateFuture) {
+    final CompletableFuture<Void> nodeDataFuture;
+    synchronized (this) {
+      if (!running.get()) {
+        worldStateFuture.completeExceptionally(
+            new CancellationException("FastSyncDownloader stopped"));
+        return;
+      }
+      nodeDataFuture = worldStateDownloader.run(pivotBlockHeader);
+    }
+    propagateCancellation(worldStateFuture, nodeDataFuture);
+    propagateResult(nodeDataFuture, worldStateFuture);
+  }
+
   public Optional<TrailingPeerRequirements> calculateTrailingPeerRequirements() {
     return trailingPeerRequirements;
   }
@@ -22,16 +22,37 @@ import org.hyperledger.besu.ethereum.rlp.RLPInput;
 import org.hyperledger.besu.ethereum.rlp.RLPOutput;
 import org.hyperledger.besu.ethereum.worldstate.WorldStateStorage;
 
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Stream;
 
+import com.google.common.primitives.UnsignedBytes;
 import org.apache.tuweni.bytes.Bytes;
 
 public abstract class NodeDataRequest {
+
+  /**
+   * Orders requests deepest first, and requests at the same depth by their path from the root, so
+   * that subtrees are downloaded one after the other rather than level by level. This keeps the
+   * number of pending requests proportional to the depth of the trie instead of its width.
+   */
+  public static final Comparator<NodeDataRequest> DEPTH_FIRST_ORDER =
+      Comparator.comparingInt(NodeDataRequest::getDepth)
+          .reversed()
+          .thenComparing(request -> request.path, UnsignedBytes.lexicographicalComparator());
+
+  private static final int MAX_CHILD_INDEX = 0xff;
+
   private final RequestType requestType;
   private final Hash hash;
   private Bytes data;
   private boolean requiresPersisting = true;
+  private int depth;
+  // The position of each ancestor among its siblings, starting from the root. Kept as a flat array
+  // so that comparing requests in the pending queue doesn't allocate.
+  private byte[] path = new byte[0];
 
   protected NodeDataRequest(final RequestType requestType, final Hash hash) {
     this.requestType = requestType;
@@ -67,6 +88,9 @@ public abstract class NodeDataRequest {
     in.enterList();
     final RequestType requestType = RequestType.fromValue(in.readByte());
     final Hash hash = Hash.wrap(in.readBytes32());
+    // Requests persisted before depths were tracked are resumed at the root depth
+    final int depth = in.isEndOfCurrentList() ? 0 : in.readIntScalar();
+    final Bytes path = in.isEndOfCurrentList() ? Bytes.EMPTY : in.readBytes();
     in.leaveList();
 
     final NodeDataRequest deserialized;
@@ -91,6 +115,8 @@ public abstract class NodeDataRequest {
             "Unable to deserialize provided data into a valid "
                 + NodeDataRequest.class.getSimpleName());
     }
+    deserialized.depth = depth;
+    deserialized.path = path.toArray();
 
     return deserialized;
   }
@@ -99,6 +125,8 @@ public abstract class NodeDataRequest {
     out.startList();
     out.writeByte(requestType.getValue());
     out.writeBytes(hash);
+    out.writeIntScalar(depth);
+    out.writeBytes(Bytes.wrap(path));
     out.endList();
   }
 
@@ -110,6 +138,14 @@ public abstract class NodeDataRequest {
     return hash;
   }
 
+  public int getDepth() {
+    return depth;
+  }
+
+  public Bytes getPath() {
+    return Bytes.wrap(path);
+  }
+
   public Bytes getData() {
     return data;
   }
@@ -135,5 +171,24 @@ public abstract class NodeDataRequest {
 
   public abstract Stream<NodeDataRequest> getChildRequests();
 
+  /**
+   * Returns the child requests of this node, positioned one level below it so that they can be
+   * scheduled with {@link #DEPTH_FIRST_ORDER}.
+   *
+   * @return the child requests of this node.
+   */
+  public final Stream<NodeDataRequest> getPositionedChildRequests() {
+    final AtomicInteger childIndex = new AtomicInteger();
+    return getChildRequests()
+        .map(
+            child -> {
+              child.depth = depth + 1;
+              child.path = Arrays.copyOf(path, path.length + 1);
+              child.path[path.length] =
+                  (byte) Math.min(childIndex.getAndIncrement(), MAX_CHILD_INDEX);
+              return child;
+            });
+  }
+
   public abstract Optional<Bytes> getExistingData(final WorldStateStorage worldStateStorage);
 }
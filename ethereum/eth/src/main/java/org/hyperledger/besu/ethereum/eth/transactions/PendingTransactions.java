@@ -16,10 +16,10 @@ package org.hyperledger.besu.ethereum.eth.transactions;
 
 import static java.util.Comparator.comparing;
 
-import org.hyperledger.besu.ethereum.core.AccountTransactionOrder;
 import org.hyperledger.besu.ethereum.core.Address;
 import org.hyperledger.besu.ethereum.core.Hash;
 import org.hyperledger.besu.ethereum.core.Transaction;
+import org.hyperledger.besu.ethereum.core.Wei;
 import org.hyperledger.besu.metrics.BesuMetricCategory;
 import org.hyperledger.besu.plugin.services.MetricsSystem;
 import org.hyperledger.besu.plugin.services.metrics.Counter;
@@ -31,43 +31,65 @@ import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableSet;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.OptionalLong;
+import java.util.PriorityQueue;
 import java.util.Queue;
 import java.util.Set;
-import java.util.SortedSet;
-import java.util.TreeSet;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
 import java.util.stream.Collectors;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.EvictingQueue;
+import com.google.common.util.concurrent.Striped;
 
 /**
  * Holds the current set of pending transactions with the ability to iterate them based on priority
  * for mining or look-up by hash.
  *
- * <p>This class is safe for use across multiple threads.
+ * <p>Transactions are prioritized with local transactions first, then by gas price, then with the
+ * most recently added first. Transactions from the same sender are tracked in nonce order and only
+ * the lowest nonce transaction of each sender is indexed for selection, so selection interleaves
+ * senders by the priority of their next transaction.
+ *
+ * <p>This class is safe for use across multiple threads. Updates to the transactions of a sender
+ * are guarded by a lock striped by sender address, and the priority indexes are concurrent, so
+ * adding transactions does not block transaction selection.
  */
 public class PendingTransactions {
 
+  private static final int SENDER_LOCK_STRIPES = 64;
+
+  private static final Comparator<TransactionInfo> TRANSACTION_PRIORITY =
+      comparing(TransactionInfo::isReceivedFromLocalSource)
+          .thenComparing(TransactionInfo::getGasPrice)
+          .thenComparing(TransactionInfo::getSequence)
+          .reversed();
+
   private final int maxTransactionRetentionHours;
   private final Clock clock;
 
   private final Queue<Hash> newPooledHashes;
   private final Map<Hash, TransactionInfo> pendingTransactions = new ConcurrentHashMap<>();
-  private final SortedSet<TransactionInfo> prioritizedTransactions =
-      new TreeSet<>(
-          comparing(TransactionInfo::isReceivedFromLocalSource)
-              .thenComparing(TransactionInfo::getSequence)
-              .reversed());
-  private final Map<Address, TransactionsForSenderInfo> transactionsBySender = new HashMap<>();
+  // All pending transactions, lowest priority last so it can be evicted in O(log n).
+  private final NavigableSet<TransactionInfo> prioritizedTransactions =
+      new ConcurrentSkipListSet<>(TRANSACTION_PRIORITY);
+  // The lowest nonce transaction of each sender.
+  private final NavigableSet<TransactionInfo> executableTransactions =
+      new ConcurrentSkipListSet<>(TRANSACTION_PRIORITY);
+  private final Map<Address, TransactionsForSenderInfo> transactionsBySender =
+      new ConcurrentHashMap<>();
+  private final Striped<Lock> senderLocks = Striped.lock(SENDER_LOCK_STRIPES);
 
   private final Subscribers<PendingTransactionListener> pendingTransactionSubscribers =
       Subscribers.create();
@@ -167,16 +189,22 @@ public class PendingTransactions {
     doRemoveTransaction(transaction, true);
   }
 
-  private void doRemoveTransaction(final Transaction transaction, final boolean addedToBlock) {
-    synchronized (pendingTransactions) {
+  private boolean doRemoveTransaction(final Transaction transaction, final boolean addedToBlock) {
+    final Lock senderLock = senderLocks.get(transaction.getSender());
+    senderLock.lock();
+    try {
       final TransactionInfo removedTransactionInfo =
           pendingTransactions.remove(transaction.getHash());
-      if (removedTransactionInfo != null) {
-        prioritizedTransactions.remove(removedTransactionInfo);
-        removeTransactionTrackedBySenderAndNonce(transaction);
-        incrementTransactionRemovedCounter(
-            removedTransactionInfo.isReceivedFromLocalSource(), addedToBlock);
+      if (removedTransactionInfo == null) {
+        return false;
       }
+      prioritizedTransactions.remove(removedTransactionInfo);
+      removeTransactionTrackedBySenderAndNonce(transaction);
+      incrementTransactionRemovedCounter(
+          removedTransactionInfo.isReceivedFromLocalSource(), addedToBlock);
+      return true;
+    } finally {
+      senderLock.unlock();
     }
   }
 
@@ -188,81 +216,105 @@ public class PendingTransactions {
   }
 
   /*
-   * The BlockTransaction selection process (part of block mining) requires synchronised access to
-   * all pendingTransactions - this allows it to iterate over the available transactions without
-   * releasing the lock in between items.
-   *
+   * The BlockTransaction selection process (part of block mining) iterates over the lowest nonce
+   * transaction of each sender in priority order, moving on to the next transaction of a sender once
+   * the previous one has been evaluated. It works on a snapshot of the index, so transactions can
+   * be added concurrently; a transaction added during the selection may or may not be evaluated.
    */
   public void selectTransactions(final TransactionSelector selector) {
-    synchronized (pendingTransactions) {
-      final List<Transaction> transactionsToRemove = new ArrayList<>();
-      final Map<Address, AccountTransactionOrder> accountTransactions = new HashMap<>();
-      for (final TransactionInfo transactionInfo : prioritizedTransactions) {
-        final AccountTransactionOrder accountTransactionOrder =
-            accountTransactions.computeIfAbsent(
-                transactionInfo.getSender(), this::createSenderTransactionOrder);
-
-        for (final Transaction transactionToProcess :
-            accountTransactionOrder.transactionsToProcess(transactionInfo.getTransaction())) {
-          final TransactionSelectionResult result =
-              selector.evaluateTransaction(transactionToProcess);
-          switch (result) {
-            case DELETE_TRANSACTION_AND_CONTINUE:
-              transactionsToRemove.add(transactionToProcess);
-              break;
-            case CONTINUE:
-              break;
-            case COMPLETE_OPERATION:
-              transactionsToRemove.forEach(this::removeTransaction);
-              return;
-            default:
-              throw new RuntimeException("Illegal value for TransactionSelectionResult.");
-          }
-        }
+    final List<Transaction> transactionsToRemove = new ArrayList<>();
+    final Map<Address, Long> evaluatedNonces = new HashMap<>();
+    final Queue<TransactionInfo> candidates = new PriorityQueue<>(TRANSACTION_PRIORITY);
+    candidates.addAll(executableTransactions);
+    while (!candidates.isEmpty()) {
+      final TransactionInfo transactionInfo = candidates.poll();
+      final Long evaluatedNonce = evaluatedNonces.get(transactionInfo.getSender());
+      if (evaluatedNonce != null && transactionInfo.getNonce() <= evaluatedNonce) {
+        // The sender's lowest nonce changed while the snapshot was taken.
+        continue;
+      }
+      evaluatedNonces.put(transactionInfo.getSender(), transactionInfo.getNonce());
+
+      final TransactionSelectionResult result =
+          selector.evaluateTransaction(transactionInfo.getTransaction());
+      switch (result) {
+        case DELETE_TRANSACTION_AND_CONTINUE:
+          transactionsToRemove.add(transactionInfo.getTransaction());
+          break;
+        case CONTINUE:
+          break;
+        case COMPLETE_OPERATION:
+          transactionsToRemove.forEach(this::removeTransaction);
+          return;
+        default:
+          throw new RuntimeException("Illegal value for TransactionSelectionResult.");
       }
-      transactionsToRemove.forEach(this::removeTransaction);
+      getNextTransactionForSender(transactionInfo).ifPresent(candidates::add);
     }
+    transactionsToRemove.forEach(this::removeTransaction);
   }
 
-  private AccountTransactionOrder createSenderTransactionOrder(final Address address) {
-    return new AccountTransactionOrder(
-        transactionsBySender.get(address).getTransactionsInfos().values().stream()
-            .map(TransactionInfo::getTransaction));
+  private Optional<TransactionInfo> getNextTransactionForSender(
+      final TransactionInfo transactionInfo) {
+    final Lock senderLock = senderLocks.get(transactionInfo.getSender());
+    senderLock.lock();
+    try {
+      return Optional.ofNullable(transactionsBySender.get(transactionInfo.getSender()))
+          .map(
+              transactionsForSender ->
+                  transactionsForSender
+                      .getTransactionsInfos()
+                      .higherEntry(transactionInfo.getNonce()))
+          .map(Map.Entry::getValue);
+    } finally {
+      senderLock.unlock();
+    }
   }
 
   private boolean addTransaction(final TransactionInfo transactionInfo) {
-    Optional<Transaction> droppedTransaction = Optional.empty();
-    synchronized (pendingTransactions) {
+    final List<Transaction> droppedTransactions = new ArrayList<>();
+    final Lock senderLock = senderLocks.get(transactionInfo.getSender());
+    senderLock.lock();
+    try {
       if (pendingTransactions.containsKey(transactionInfo.getHash())) {
         return false;
       }
 
-      if (!addTransactionForSenderAndNonce(transactionInfo)) {
+      if (!addTransactionForSenderAndNonce(transactionInfo, droppedTransactions)) {
         return false;
       }
-      prioritizedTransactions.add(transactionInfo);
       pendingTransactions.put(transactionInfo.getHash(), transactionInfo);
-      tryEvictTransactionHash(transactionInfo.getHash());
+      prioritizedTransactions.add(transactionInfo);
+    } finally {
+      senderLock.unlock();
+    }
+    tryEvictTransactionHash(transactionInfo.getHash());
 
-      if (pendingTransactions.size() > maxPendingTransactions) {
-        final TransactionInfo toRemove = prioritizedTransactions.last();
-        doRemoveTransaction(toRemove.getTransaction(), false);
-        droppedTransaction = Optional.of(toRemove.getTransaction());
+    // Evicting may take the lock of another sender, so it is done without holding ours.
+    while (pendingTransactions.size() > maxPendingTransactions) {
+      final TransactionInfo toRemove = prioritizedTransactions.pollLast();
+      if (toRemove == null) {
+        break;
+      }
+      if (doRemoveTransaction(toRemove.getTransaction(), false)) {
+        droppedTransactions.add(toRemove.getTransaction());
       }
     }
     notifyTransactionAdded(transactionInfo.getTransaction());
-    droppedTransaction.ifPresent(this::notifyTransactionDropped);
+    droppedTransactions.forEach(this::notifyTransactionDropped);
     return true;
   }
 
-  private boolean addTransactionForSenderAndNonce(final TransactionInfo transactionInfo) {
+  private boolean addTransactionForSenderAndNonce(
+      final TransactionInfo transactionInfo, final List<Transaction> droppedTransactions) {
     final TransactionInfo existingTransaction =
         getTrackedTransactionBySenderAndNonce(transactionInfo);
     if (existingTransaction != null) {
       if (!shouldReplace(existingTransaction, transactionInfo)) {
         return false;
       }
-      removeTransaction(existingTransaction.getTransaction());
+      doRemoveTransaction(existingTransaction.getTransaction(), false);
+      droppedTransactions.add(existingTransaction.getTransaction());
     }
     trackTransactionBySenderAndNonce(transactionInfo);
     return true;
@@ -272,27 +324,48 @@ public class PendingTransactions {
     final TransactionsForSenderInfo transactionsForSenderInfo =
         transactionsBySender.computeIfAbsent(
             transactionInfo.getSender(), key -> new TransactionsForSenderInfo());
+    final TransactionInfo previousHead = transactionsForSenderInfo.getLowestNonceTransaction();
     transactionsForSenderInfo.addTransactionToTrack(transactionInfo.getNonce(), transactionInfo);
+    updateExecutableTransaction(
+        previousHead, transactionsForSenderInfo.getLowestNonceTransaction());
   }
 
   private void removeTransactionTrackedBySenderAndNonce(final Transaction transaction) {
     Optional.ofNullable(transactionsBySender.get(transaction.getSender()))
         .ifPresent(
             transactionsForSender -> {
+              final TransactionInfo previousHead =
+                  transactionsForSender.getLowestNonceTransaction();
               transactionsForSender.getTransactionsInfos().remove(transaction.getNonce());
               if (transactionsForSender.getTransactionsInfos().isEmpty()) {
                 transactionsBySender.remove(transaction.getSender());
                 transactionsForSender.updateGaps();
               }
+              updateExecutableTransaction(
+                  previousHead, transactionsForSender.getLowestNonceTransaction());
             });
   }
 
+  private void updateExecutableTransaction(
+      final TransactionInfo previousHead, final TransactionInfo head) {
+    if (previousHead == head) {
+      return;
+    }
+    if (previousHead != null) {
+      executableTransactions.remove(previousHead);
+    }
+    if (head != null) {
+      executableTransactions.add(head);
+    }
+  }
+
   private TransactionInfo getTrackedTransactionBySenderAndNonce(
       final TransactionInfo transactionInfo) {
     final TransactionsForSenderInfo transactionsForSenderInfo =
-        transactionsBySender.computeIfAbsent(
-            transactionInfo.getSender(), key -> new TransactionsForSenderInfo());
-    return transactionsForSenderInfo.getTransactionsInfos().get(transactionInfo.getNonce());
+        transactionsBySender.get(transactionInfo.getSender());
+    return transactionsForSenderInfo == null
+        ? null
+        : transactionsForSenderInfo.getTransactionsInfos().get(transactionInfo.getNonce());
   }
 
   private boolean shouldReplace(
@@ -350,7 +423,9 @@ public class PendingTransactions {
   }
 
   public OptionalLong getNextNonceForSender(final Address sender) {
-    synchronized (pendingTransactions) {
+    final Lock senderLock = senderLocks.get(sender);
+    senderLock.lock();
+    try {
       final TransactionsForSenderInfo transactionsForSenderInfo = transactionsBySender.get(sender);
       if (transactionsForSenderInfo == null
           || transactionsForSenderInfo.getTransactionsInfos().isEmpty()) {
@@ -360,6 +435,8 @@ public class PendingTransactions {
       } else {
         return OptionalLong.of(transactionsForSenderInfo.getTransactionsInfos().lastKey() + 1);
       }
+    } finally {
+      senderLock.unlock();
     }
   }
 
@@ -411,6 +488,10 @@ public class PendingTransactions {
       return transaction.getSender();
     }
 
+    public Wei getGasPrice() {
+      return transaction.getGasPrice();
+    }
+
     public boolean isReceivedFromLocalSource() {
       return receivedFromLocalSource;
     }
@@ -16,14 +16,15 @@
 package org.hyperledger.besu.ethereum.eth.transactions;
 
 import java.util.Iterator;
+import java.util.Map;
+import java.util.NavigableMap;
 import java.util.PriorityQueue;
 import java.util.Queue;
-import java.util.SortedMap;
 import java.util.TreeMap;
 import java.util.stream.LongStream;
 
 class TransactionsForSenderInfo {
-  private final SortedMap<Long, PendingTransactions.TransactionInfo> transactionsInfos;
+  private final NavigableMap<Long, PendingTransactions.TransactionInfo> transactionsInfos;
   private final Queue<Long> gaps = new PriorityQueue<>();
 
   TransactionsForSenderInfo() {
@@ -57,10 +58,16 @@ class TransactionsForSenderInfo {
     }
   }
 
-  SortedMap<Long, PendingTransactions.TransactionInfo> getTransactionsInfos() {
+  NavigableMap<Long, PendingTransactions.TransactionInfo> getTransactionsInfos() {
     return transactionsInfos;
   }
 
+  PendingTransactions.TransactionInfo getLowestNonceTransaction() {
+    final Map.Entry<Long, PendingTransactions.TransactionInfo> first =
+        transactionsInfos.firstEntry();
+    return first == null ? null : first.getValue();
+  }
+
   Queue<Long> getGaps() {
     return gaps;
   }
@@ -17,9 +17,15 @@ package org.hyperledger.besu.ethereum.eth.transactions;
 import org.hyperledger.besu.ethereum.core.Transaction;
 import org.hyperledger.besu.ethereum.eth.manager.EthPeer;
 import org.hyperledger.besu.ethereum.eth.messages.LimitedTransactionsMessages;
+import org.hyperledger.besu.ethereum.eth.messages.TransactionsMessage;
 import org.hyperledger.besu.ethereum.p2p.rlpx.connections.PeerConnection.PeerNotConnected;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.StreamSupport;
 
 class TransactionsMessageSender {
@@ -31,22 +37,43 @@ class TransactionsMessageSender {
   }
 
   public void sendTransactionsToPeers() {
+    // Peers missing the same transactions are sent the very same messages, so that these are only
+    // encoded once, and only compressed once by the connections sharing compressed payloads
+    final Map<Set<Transaction>, List<TransactionsMessage>> messagesByTransactions =
+        new ConcurrentHashMap<>();
     StreamSupport.stream(transactionTracker.getEthPeersWithUnsentTransactions().spliterator(), true)
         .parallel()
-        .forEach(this::sendTransactionsToPeer);
+        .forEach(peer -> sendTransactionsToPeer(peer, messagesByTransactions));
   }
 
-  private void sendTransactionsToPeer(final EthPeer peer) {
+  private void sendTransactionsToPeer(
+      final EthPeer peer,
+      final Map<Set<Transaction>, List<TransactionsMessage>> messagesByTransactions) {
     final Set<Transaction> allTxToSend = transactionTracker.claimTransactionsToSendToPeer(peer);
-    while (!allTxToSend.isEmpty()) {
-      final LimitedTransactionsMessages limitedTransactionsMessages =
-          LimitedTransactionsMessages.createLimited(allTxToSend);
-      allTxToSend.removeAll(limitedTransactionsMessages.getIncludedTransactions());
+    if (allTxToSend.isEmpty()) {
+      return;
+    }
+    final List<TransactionsMessage> messages =
+        messagesByTransactions.computeIfAbsent(
+            allTxToSend, TransactionsMessageSender::createMessages);
+    for (final TransactionsMessage message : messages) {
       try {
-        peer.send(limitedTransactionsMessages.getTransactionsMessage());
+        peer.send(message);
       } catch (final PeerNotConnected e) {
         return;
       }
     }
   }
+
+  private static List<TransactionsMessage> createMessages(final Set<Transaction> transactions) {
+    final Set<Transaction> remaining = new HashSet<>(transactions);
+    final List<TransactionsMessage> messages = new ArrayList<>();
+    while (!remaining.isEmpty()) {
+      final LimitedTransactionsMessages limitedTransactionsMessages =
+          LimitedTransactionsMessages.createLimited(remaining);
+      remaining.removeAll(limitedTransactionsMessages.getIncludedTransactions());
+      messages.add(limitedTransactionsMessages.getTransactionsMessage());
+    }
+    return messages;
+  }
 }
@@ -79,7 +79,8 @@ public class EthProtocolManagerTestUtil {
         Collections.emptyList(),
         false,
         ethScheduler,
-        new ForkIdManager(blockchain, Collections.emptyList()));
+        new ForkIdManager(blockchain, Collections.emptyList()),
+        new NoOpMetricsSystem());
   }
 
   public static EthProtocolManager create(final Blockchain blockchain) {
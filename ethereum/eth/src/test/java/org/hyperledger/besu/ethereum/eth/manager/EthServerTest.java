@@ -15,8 +15,16 @@
 package org.hyperledger.besu.ethereum.eth.manager;
 
 import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
 import static java.util.Collections.singletonList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -26,13 +34,19 @@ import org.hyperledger.besu.ethereum.eth.EthProtocolConfiguration;
 import org.hyperledger.besu.ethereum.eth.messages.GetNodeDataMessage;
 import org.hyperledger.besu.ethereum.eth.messages.NodeDataMessage;
 import org.hyperledger.besu.ethereum.eth.transactions.TransactionPool;
+import org.hyperledger.besu.ethereum.p2p.rlpx.wire.messages.DisconnectMessage.DisconnectReason;
 import org.hyperledger.besu.ethereum.worldstate.WorldStateArchive;
+import org.hyperledger.besu.metrics.StubMetricsSystem;
 
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.tuweni.bytes.Bytes;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.InOrder;
 
 public class EthServerTest {
 
@@ -46,7 +60,11 @@ public class EthServerTest {
   private final WorldStateArchive worldStateArchive = mock(WorldStateArchive.class);
   private final TransactionPool transactionPool = mock(TransactionPool.class);
   private final EthPeer ethPeer = mock(EthPeer.class);
+  private final EthPeer otherPeer = mock(EthPeer.class);
   private final EthMessages ethMessages = new EthMessages();
+  private final DeterministicEthScheduler scheduler = new DeterministicEthScheduler();
+  private final StubMetricsSystem metricsSystem = new StubMetricsSystem();
+  private final AtomicLong nanoTime = new AtomicLong();
 
   @Before
   public void setUp() {
@@ -55,7 +73,12 @@ public class EthServerTest {
         worldStateArchive,
         transactionPool,
         ethMessages,
-        new EthProtocolConfiguration(2, 2, 2, 2, 2));
+        scheduler,
+        new EthProtocolConfiguration(
+            2, 2, 2, 2, 2, EthProtocolConfiguration.DEFAULT_MAX_RESPONSE_BYTES, 100, 2),
+        metricsSystem,
+        nanoTime::get);
+    when(worldStateArchive.getNodeData(HASH1)).thenReturn(Optional.of(VALUE1));
   }
 
   @Test
@@ -97,4 +120,173 @@ public class EthServerTest {
 
     verify(ethPeer).send(NodeDataMessage.create(singletonList(VALUE1)));
   }
+
+  @Test
+  public void shouldStopAddingNodeDataOnceByteBudgetIsSpent() throws Exception {
+    final EthMessages budgetedMessages = new EthMessages();
+    new EthServer(
+        blockchain,
+        worldStateArchive,
+        transactionPool,
+        budgetedMessages,
+        scheduler,
+        new EthProtocolConfiguration(2, 2, 2, 2, 2, 1, 100, 2),
+        metricsSystem,
+        nanoTime::get);
+    when(worldStateArchive.getNodeData(HASH2)).thenReturn(Optional.of(VALUE2));
+    budgetedMessages.dispatch(
+        new EthMessage(ethPeer, GetNodeDataMessage.create(asList(HASH1, HASH2))));
+
+    verify(ethPeer).send(NodeDataMessage.create(singletonList(VALUE1)));
+  }
+
+  @Test
+  public void shouldStopAddingNodeDataOnceTimeBudgetIsSpent() throws Exception {
+    when(worldStateArchive.getNodeData(HASH1))
+        .then(
+            invocation -> {
+              nanoTime.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+              return Optional.of(VALUE1);
+            });
+    when(worldStateArchive.getNodeData(HASH2)).thenReturn(Optional.of(VALUE2));
+    ethMessages.dispatch(new EthMessage(ethPeer, GetNodeDataMessage.create(asList(HASH1, HASH2))));
+
+    verify(ethPeer).send(NodeDataMessage.create(singletonList(VALUE1)));
+  }
+
+  @Test
+  public void shouldServeQueuedRequestsFromPeersInTurn() throws Exception {
+    scheduler.disableAutoRun();
+    when(worldStateArchive.getNodeData(HASH2)).thenReturn(Optional.of(VALUE2));
+    when(worldStateArchive.getNodeData(HASH3)).thenReturn(Optional.of(VALUE3));
+    ethMessages.dispatch(new EthMessage(ethPeer, GetNodeDataMessage.create(singletonList(HASH1))));
+    ethMessages.dispatch(new EthMessage(ethPeer, GetNodeDataMessage.create(singletonList(HASH2))));
+    ethMessages.dispatch(
+        new EthMessage(otherPeer, GetNodeDataMessage.create(singletonList(HASH3))));
+
+    verify(ethPeer, never()).send(any());
+    runServerTasks();
+
+    final InOrder inOrder = inOrder(ethPeer, otherPeer);
+    inOrder.verify(ethPeer).send(NodeDataMessage.create(singletonList(VALUE1)));
+    inOrder.verify(otherPeer).send(NodeDataMessage.create(singletonList(VALUE3)));
+    inOrder.verify(ethPeer).send(NodeDataMessage.create(singletonList(VALUE2)));
+  }
+
+  @Test
+  public void shouldRejectRequestsOnceTooManyAreQueuedForPeer() throws Exception {
+    scheduler.disableAutoRun();
+    for (int i = 0; i < 3; i++) {
+      ethMessages.dispatch(
+          new EthMessage(ethPeer, GetNodeDataMessage.create(singletonList(HASH1))));
+    }
+
+    assertThat(metricsSystem.getCounterValue("eth_server_rejected_requests_total", "GetNodeData"))
+        .isEqualTo(1);
+
+    runServerTasks();
+    final InOrder inOrder = inOrder(ethPeer);
+    inOrder.verify(ethPeer, times(2)).send(NodeDataMessage.create(singletonList(VALUE1)));
+    inOrder.verify(ethPeer).send(NodeDataMessage.create(emptyList()));
+  }
+
+  @Test
+  public void shouldDisconnectPeerFloodingRequests() throws Exception {
+    scheduler.disableAutoRun();
+    for (int i = 0; i < 10; i++) {
+      ethMessages.dispatch(
+          new EthMessage(ethPeer, GetNodeDataMessage.create(singletonList(HASH1))));
+    }
+
+    verify(ethPeer, times(6)).disconnect(DisconnectReason.BREACH_OF_PROTOCOL);
+    assertThat(metricsSystem.getCounterValue("eth_server_rejected_requests_total", "GetNodeData"))
+        .isEqualTo(2);
+
+    runServerTasks();
+    verify(ethPeer, times(2)).send(NodeDataMessage.create(singletonList(VALUE1)));
+    verify(ethPeer, times(2)).send(NodeDataMessage.create(emptyList()));
+  }
+
+  @Test
+  public void shouldKeepServingAfterAHandlerFails() throws Exception {
+    scheduler.disableAutoRun();
+    when(worldStateArchive.getNodeData(HASH2)).thenThrow(new IllegalStateException("Failed"));
+    ethMessages.dispatch(new EthMessage(ethPeer, GetNodeDataMessage.create(singletonList(HASH2))));
+    ethMessages.dispatch(new EthMessage(ethPeer, GetNodeDataMessage.create(singletonList(HASH1))));
+
+    runServerTasks();
+
+    verify(ethPeer).send(NodeDataMessage.create(singletonList(VALUE1)));
+    verify(ethPeer, never()).disconnect(any());
+  }
+
+  @Test
+  public void shouldRespondToPeerInOrderWithConcurrentWorkers() throws Exception {
+    final EthMessages messages = new EthMessages();
+    final EthScheduler concurrentScheduler = new EthScheduler(1, 1, 1, metricsSystem);
+    new EthServer(
+        blockchain,
+        worldStateArchive,
+        transactionPool,
+        messages,
+        concurrentScheduler,
+        new EthProtocolConfiguration(
+            2, 2, 2, 2, 2, EthProtocolConfiguration.DEFAULT_MAX_RESPONSE_BYTES, 100, 2),
+        metricsSystem,
+        nanoTime::get);
+    final CountDownLatch firstRequestStarted = new CountDownLatch(1);
+    final CountDownLatch firstRequestReleased = new CountDownLatch(1);
+    when(worldStateArchive.getNodeData(HASH1))
+        .thenAnswer(
+            invocation -> {
+              firstRequestStarted.countDown();
+              firstRequestReleased.await();
+              return Optional.of(VALUE1);
+            });
+    when(worldStateArchive.getNodeData(HASH2)).thenReturn(Optional.of(VALUE2));
+
+    try {
+      messages.dispatch(new EthMessage(ethPeer, GetNodeDataMessage.create(singletonList(HASH1))));
+      messages.dispatch(new EthMessage(ethPeer, GetNodeDataMessage.create(singletonList(HASH2))));
+      messages.dispatch(new EthMessage(ethPeer, GetNodeDataMessage.create(singletonList(HASH3))));
+      assertThat(firstRequestStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+      // The second worker must not answer later requests while the first one is served
+      verify(ethPeer, after(100).never()).send(any());
+      firstRequestReleased.countDown();
+
+      verify(ethPeer, timeout(5000).times(3)).send(any());
+      final InOrder inOrder = inOrder(ethPeer);
+      inOrder.verify(ethPeer).send(NodeDataMessage.create(singletonList(VALUE1)));
+      inOrder.verify(ethPeer).send(NodeDataMessage.create(singletonList(VALUE2)));
+      inOrder.verify(ethPeer).send(NodeDataMessage.create(emptyList()));
+    } finally {
+      firstRequestReleased.countDown();
+      concurrentScheduler.stop();
+      concurrentScheduler.awaitStop();
+    }
+  }
+
+  @Test
+  public void shouldNotServeDisconnectedPeers() throws Exception {
+    when(ethPeer.isDisconnected()).thenReturn(true);
+    ethMessages.dispatch(new EthMessage(ethPeer, GetNodeDataMessage.create(singletonList(HASH1))));
+
+    verify(ethPeer, never()).send(any());
+  }
+
+  @Test
+  public void shouldRecordBytesServed() {
+    ethMessages.dispatch(new EthMessage(ethPeer, GetNodeDataMessage.create(singletonList(HASH1))));
+
+    assertThat(metricsSystem.getCounterValue("eth_server_bytes_served_total", "GetNodeData"))
+        .isEqualTo(NodeDataMessage.create(singletonList(VALUE1)).getSize());
+  }
+
+  private void runServerTasks() {
+    // Serving a peer's request schedules the task serving its next one
+    while (scheduler.getPendingFuturesCount() > 0) {
+      scheduler.runPendingFutures();
+    }
+  }
 }
@@ -28,6 +28,7 @@ import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 
@@ -211,6 +212,21 @@ public class RequestManagerTest {
     assertThat(closedCountB.get()).isEqualTo(1);
   }
 
+  @Test
+  public void recordsPeerResponseLatency() throws Exception {
+    final EthPeer peer = createPeer();
+    final RequestManager requestManager = new RequestManager(peer);
+    assertThat(peer.getResponseLatencyNanos()).isEmpty();
+
+    requestManager.dispatchRequest(() -> {}).then((closed, msg, p) -> {});
+    Thread.sleep(5);
+    requestManager.dispatchResponse(mockMessage(peer));
+
+    assertThat(peer.getResponseLatencyNanos()).isPresent();
+    assertThat(peer.getResponseLatencyNanos().getAsLong())
+        .isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(5));
+  }
+
   private EthMessage mockMessage(final EthPeer peer) {
     return new EthMessage(peer, new RawMessage(1, Bytes.EMPTY));
   }
@@ -250,19 +250,29 @@ public class RespondingEthPeer {
       MessageData response = null;
       switch (msg.getCode()) {
         case EthPV62.GET_BLOCK_HEADERS:
-          response = EthServer.constructGetHeadersResponse(blockchain, msg, 200);
+          response =
+              EthServer.constructGetHeadersResponse(
+                  blockchain, msg, 200, ResponseBudget.unlimited());
           break;
         case EthPV62.GET_BLOCK_BODIES:
-          response = EthServer.constructGetBodiesResponse(blockchain, msg, 200);
+          response =
+              EthServer.constructGetBodiesResponse(
+                  blockchain, msg, 200, ResponseBudget.unlimited());
           break;
         case EthPV63.GET_RECEIPTS:
-          response = EthServer.constructGetReceiptsResponse(blockchain, msg, 200);
+          response =
+              EthServer.constructGetReceiptsResponse(
+                  blockchain, msg, 200, ResponseBudget.unlimited());
           break;
         case EthPV63.GET_NODE_DATA:
-          response = EthServer.constructGetNodeDataResponse(worldStateArchive, msg, 200);
+          response =
+              EthServer.constructGetNodeDataResponse(
+                  worldStateArchive, msg, 200, ResponseBudget.unlimited());
           break;
         case EthPV65.GET_POOLED_TRANSACTIONS:
-          response = EthServer.constructGetPooledTransactionsResponse(transactionPool, msg, 200);
+          response =
+              EthServer.constructGetPooledTransactionsResponse(
+                  transactionPool, msg, 200, ResponseBudget.unlimited());
       }
       return Optional.ofNullable(response);
     };
@@ -24,6 +24,7 @@ import org.hyperledger.besu.ethereum.mainnet.MainnetProtocolSchedule;
 import org.hyperledger.besu.ethereum.mainnet.ProtocolSchedule;
 import org.hyperledger.besu.ethereum.p2p.rlpx.wire.RawMessage;
 import org.hyperledger.besu.ethereum.rlp.BytesValueRLPOutput;
+import org.hyperledger.besu.ethereum.rlp.RLPException;
 
 import org.apache.tuweni.bytes.Bytes;
 import org.junit.Test;
@@ -66,6 +67,31 @@ public class NewBlockMessageTest {
     assertThat(extractedBlock).isEqualTo(blockForInsertion);
   }
 
+  @Test
+  public void malformedTransactionThrows() {
+    final Block block = new BlockDataGenerator().block();
+    final BytesValueRLPOutput tmp = new BytesValueRLPOutput();
+    tmp.startList();
+    tmp.startList();
+    block.getHeader().writeTo(tmp);
+    tmp.startList();
+    tmp.startList();
+    tmp.writeLongScalar(1);
+    tmp.endList();
+    tmp.endList();
+    tmp.startList();
+    tmp.endList();
+    tmp.endList();
+    tmp.writeUInt256Scalar(Difficulty.of(12345));
+    tmp.endList();
+
+    final NewBlockMessage newBlockMsg =
+        NewBlockMessage.readFrom(new RawMessage(EthPV62.NEW_BLOCK, tmp.encoded()));
+
+    assertThatExceptionOfType(RLPException.class)
+        .isThrownBy(() -> newBlockMsg.block(protocolSchedule));
+  }
+
   @Test
   public void readFromMessageWithWrongCodeThrows() {
     final RawMessage rawMsg = new RawMessage(EthPV62.BLOCK_HEADERS, Bytes.of(0));
@@ -51,4 +51,14 @@ public final class NodeDataMessageTest {
     }
     Assertions.assertThat(readData.hasNext()).isFalse();
   }
+
+  @Test
+  public void createFromSingleUseIterable() {
+    final List<Bytes> nodeData = List.of(Bytes.of(1), Bytes.of(2, 3));
+    final Iterator<Bytes> iterator = nodeData.iterator();
+
+    final NodeDataMessage message = NodeDataMessage.create(() -> iterator);
+
+    Assertions.assertThat(message.nodeData()).containsExactlyElementsOf(nodeData);
+  }
 }
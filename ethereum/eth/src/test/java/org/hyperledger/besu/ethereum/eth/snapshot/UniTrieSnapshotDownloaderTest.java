@@ -0,0 +1,282 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.eth.snapshot;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.spy;
+
+import org.hyperledger.besu.crypto.SECP256K1;
+import org.hyperledger.besu.ethereum.core.Account;
+import org.hyperledger.besu.ethereum.core.BlockDataGenerator;
+import org.hyperledger.besu.ethereum.core.Hash;
+import org.hyperledger.besu.ethereum.eth.manager.DeterministicEthScheduler;
+import org.hyperledger.besu.ethereum.eth.manager.exceptions.NoAvailablePeersException;
+import org.hyperledger.besu.ethereum.p2p.network.P2PNetwork;
+import org.hyperledger.besu.ethereum.p2p.peers.DefaultPeer;
+import org.hyperledger.besu.ethereum.p2p.peers.EnodeURL;
+import org.hyperledger.besu.ethereum.p2p.peers.Peer;
+import org.hyperledger.besu.ethereum.p2p.rlpx.connections.PeerConnection;
+import org.hyperledger.besu.ethereum.p2p.rlpx.connections.PeerConnection.PeerNotConnected;
+import org.hyperledger.besu.ethereum.p2p.rlpx.wire.RawMessage;
+import org.hyperledger.besu.ethereum.p2p.rlpx.wire.messages.DisconnectMessage.DisconnectReason;
+import org.hyperledger.besu.ethereum.p2p.testing.MockNetwork;
+import org.hyperledger.besu.ethereum.storage.keyvalue.WorldStateKeyValueStorage;
+import org.hyperledger.besu.ethereum.unitrie.StoredUniTrie;
+import org.hyperledger.besu.ethereum.unitrie.UniTrie;
+import org.hyperledger.besu.ethereum.worldstate.UniTrieMutableWorldState;
+import org.hyperledger.besu.ethereum.worldstate.WorldStateStorage;
+import org.hyperledger.besu.metrics.StubMetricsSystem;
+import org.hyperledger.besu.services.kvstore.InMemoryKeyValueStorage;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+import org.awaitility.Awaitility;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class UniTrieSnapshotDownloaderTest {
+
+  private static final int ENTRIES_PER_REQUEST = 16;
+
+  private final BlockDataGenerator dataGen = new BlockDataGenerator(1);
+  private final MockNetwork network =
+      new MockNetwork(Collections.singletonList(UniTrieSnapshotProtocol.USNAP1));
+  private final ExecutorService executor = Executors.newSingleThreadExecutor();
+  private final DeterministicEthScheduler scheduler = new DeterministicEthScheduler();
+  private final StubMetricsSystem metricsSystem = new StubMetricsSystem();
+
+  private final WorldStateStorage serverStorage =
+      new WorldStateKeyValueStorage(new InMemoryKeyValueStorage());
+  private final WorldStateStorage clientStorage =
+      spy(new WorldStateKeyValueStorage(new InMemoryKeyValueStorage()));
+  private final UniTrieSnapshotProtocolManager clientProtocolManager =
+      new UniTrieSnapshotProtocolManager(clientStorage, scheduler, 1024);
+
+  private P2PNetwork clientNetwork;
+  private UniTrieMutableWorldState serverWorldState;
+  private List<Account> accounts;
+
+  @Before
+  public void setUp() {
+    serverWorldState = new UniTrieMutableWorldState(serverStorage);
+    accounts = dataGen.createRandomAccounts(serverWorldState, 50);
+    clientNetwork = network.setup(setUpNode(clientProtocolManager));
+  }
+
+  @After
+  public void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void downloadsWorldStateFromRanges() throws Exception {
+    connectTo(new UniTrieSnapshotProtocolManager(serverStorage, scheduler, 1024));
+
+    download(serverWorldState.rootHash()).get(10, TimeUnit.SECONDS);
+
+    assertThat(clientStorage.isWorldStateAvailable(serverWorldState.rootHash())).isTrue();
+    final UniTrieMutableWorldState clientWorldState =
+        new UniTrieMutableWorldState(serverWorldState.rootHash(), clientStorage);
+    for (final Account account : accounts) {
+      final Account downloaded = clientWorldState.get(account.getAddress());
+      assertThat(downloaded.getBalance()).isEqualTo(account.getBalance());
+      assertThat(downloaded.getCode()).isEqualTo(account.getCode());
+    }
+    final long entries =
+        serverWorldState.getTrie().entriesFrom(Bytes.EMPTY, Integer.MAX_VALUE).size();
+    assertThat(entries).isGreaterThan(ENTRIES_PER_REQUEST);
+    assertThat(metricsSystem.getCounterValue("unitrie_snapshot_imported_entries_total"))
+        .isEqualTo(entries);
+  }
+
+  @Test
+  public void rangesAreCappedByServer() throws Exception {
+    connectTo(new UniTrieSnapshotProtocolManager(serverStorage, scheduler, 3));
+
+    download(serverWorldState.rootHash()).get(10, TimeUnit.SECONDS);
+
+    assertThat(clientStorage.isWorldStateAvailable(serverWorldState.rootHash())).isTrue();
+  }
+
+  @Test
+  public void rejectsRangesThatCannotBeProven() throws Exception {
+    connectTo(
+        new UniTrieSnapshotProtocolManager(
+            new WorldStateKeyValueStorage(new InMemoryKeyValueStorage()), scheduler, 1024));
+
+    final CompletableFuture<Void> result = download(serverWorldState.rootHash());
+
+    assertThatThrownBy(() -> result.get(10, TimeUnit.SECONDS))
+        .hasCauseInstanceOf(NoAvailablePeersException.class);
+    assertThat(metricsSystem.getCounterValue("unitrie_snapshot_failed_requests_total"))
+        .isEqualTo(1);
+    assertThat(clientStorage.isWorldStateAvailable(serverWorldState.rootHash())).isFalse();
+  }
+
+  @Test
+  public void switchesPeerWhenRangeCannotBeProven() throws Exception {
+    connectTo(
+        new UniTrieSnapshotProtocolManager(
+            new WorldStateKeyValueStorage(new InMemoryKeyValueStorage()), scheduler, 1024));
+    connectTo(new UniTrieSnapshotProtocolManager(serverStorage, scheduler, 1024));
+
+    download(serverWorldState.rootHash()).get(10, TimeUnit.SECONDS);
+
+    assertThat(clientStorage.isWorldStateAvailable(serverWorldState.rootHash())).isTrue();
+  }
+
+  @Test
+  public void disconnectsPeerSendingMalformedRange() throws Exception {
+    final Peer server = createPeer();
+    final P2PNetwork serverNetwork = network.setup(server);
+    final AtomicReference<DisconnectReason> disconnectReason = new AtomicReference<>();
+    serverNetwork.subscribe(
+        UniTrieSnapshotProtocol.USNAP1,
+        (capability, message) -> sendMalformedRange(message.getConnection()));
+    serverNetwork.subscribeDisconnect(
+        (connection, reason, initiatedByPeer) -> disconnectReason.set(reason));
+    clientNetwork.connect(server).get();
+
+    final CompletableFuture<Void> result = download(serverWorldState.rootHash());
+
+    assertThatThrownBy(() -> result.get(10, TimeUnit.SECONDS))
+        .hasCauseInstanceOf(NoAvailablePeersException.class);
+    assertThat(disconnectReason.get()).isEqualTo(DisconnectReason.BREACH_OF_PROTOCOL);
+  }
+
+  @Test
+  public void failsWhenRebuiltRootDoesNotMatch() throws Exception {
+    // Make the root of the first range read back as an unrelated node
+    final UniTrie<Bytes, Bytes> firstRange =
+        new StoredUniTrie<>(hash -> Optional.empty(), b -> b, b -> b);
+    serverWorldState
+        .getTrie()
+        .entriesFrom(Bytes.EMPTY, ENTRIES_PER_REQUEST)
+        .forEach(firstRange::put);
+    final Map<Bytes32, Bytes> unrelatedNodes = new HashMap<>();
+    final UniTrie<Bytes, Bytes> unrelated =
+        new StoredUniTrie<>(hash -> Optional.empty(), b -> b, b -> b);
+    unrelated.put(Bytes.of(1), Bytes.of(2));
+    unrelated.commit(unrelatedNodes::put, (hash, value) -> {});
+    doReturn(Optional.of(unrelatedNodes.get(unrelated.getRootHash())))
+        .when(clientStorage)
+        .getAccountStateTrieNode(firstRange.getRootHash());
+    connectTo(new UniTrieSnapshotProtocolManager(serverStorage, scheduler, 1024));
+
+    final CompletableFuture<Void> result = download(serverWorldState.rootHash());
+
+    assertThatThrownBy(() -> result.get(10, TimeUnit.SECONDS))
+        .hasCauseInstanceOf(IllegalStateException.class)
+        .hasMessageContaining("expected " + serverWorldState.rootHash());
+    assertThat(metricsSystem.getCounterValue("unitrie_snapshot_failed_requests_total"))
+        .isEqualTo(0);
+    assertThat(clientStorage.isWorldStateAvailable(serverWorldState.rootHash())).isFalse();
+  }
+
+  @Test
+  public void servesRangesOnServerExecutor() throws Exception {
+    scheduler.disableAutoRun();
+    connectTo(new UniTrieSnapshotProtocolManager(serverStorage, scheduler, 1024));
+
+    final CompletableFuture<Void> result = download(serverWorldState.rootHash());
+    Awaitility.await().until(() -> scheduler.getPendingFuturesCount() > 0);
+    assertThat(result).isNotDone();
+
+    Awaitility.await()
+        .until(
+            () -> {
+              scheduler.runPendingFutures();
+              return result.isDone();
+            });
+    assertThat(clientStorage.isWorldStateAvailable(serverWorldState.rootHash())).isTrue();
+  }
+
+  @Test
+  public void failsWithoutPeers() {
+    final CompletableFuture<Void> result = download(serverWorldState.rootHash());
+
+    assertThatThrownBy(() -> result.get(10, TimeUnit.SECONDS))
+        .isInstanceOf(ExecutionException.class)
+        .hasCauseInstanceOf(NoAvailablePeersException.class);
+  }
+
+  @Test
+  public void completesImmediatelyWhenStateIsAvailable() {
+    final CompletableFuture<Void> result = download(Hash.wrap(UniTrie.NULL_UNINODE_HASH));
+
+    assertThat(result).isCompleted();
+  }
+
+  private CompletableFuture<Void> download(final Hash stateRoot) {
+    return new UniTrieSnapshotDownloader(
+            clientProtocolManager,
+            clientStorage,
+            executor,
+            ENTRIES_PER_REQUEST,
+            Duration.ofSeconds(5),
+            metricsSystem)
+        .run(stateRoot);
+  }
+
+  private void connectTo(final UniTrieSnapshotProtocolManager serverProtocolManager)
+      throws Exception {
+    clientNetwork.connect(setUpNode(serverProtocolManager)).get();
+  }
+
+  private void sendMalformedRange(final PeerConnection connection) {
+    try {
+      connection.sendForProtocol(
+          UniTrieSnapshotProtocol.NAME,
+          new RawMessage(UniTrieSnapshotPV1.UNITRIE_RANGE, Bytes.of(1, 2, 3)));
+    } catch (final PeerNotConnected e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private Peer setUpNode(final UniTrieSnapshotProtocolManager protocolManager) {
+    final Peer peer = createPeer();
+    final P2PNetwork p2pNetwork = network.setup(peer);
+    p2pNetwork.subscribe(UniTrieSnapshotProtocol.USNAP1, protocolManager::processMessage);
+    p2pNetwork.subscribeConnect(protocolManager::handleNewConnection);
+    p2pNetwork.subscribeDisconnect(protocolManager::handleDisconnect);
+    return peer;
+  }
+
+  private Peer createPeer() {
+    return DefaultPeer.fromEnodeURL(
+        EnodeURL.builder()
+            .nodeId(SECP256K1.KeyPair.generate().getPublicKey().getEncodedBytes())
+            .ipAddress("127.0.0.1")
+            .listeningPort(30303)
+            .discoveryPort(30303)
+            .build());
+  }
+}
@@ -14,7 +14,9 @@
  */
 package org.hyperledger.besu.ethereum.eth.sync;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
@@ -25,13 +27,22 @@ import org.hyperledger.besu.ethereum.core.Block;
 import org.hyperledger.besu.ethereum.core.BlockBody;
 import org.hyperledger.besu.ethereum.core.BlockHeaderTestFixture;
 import org.hyperledger.besu.ethereum.core.Difficulty;
+import org.hyperledger.besu.ethereum.core.Hash;
 import org.hyperledger.besu.ethereum.eth.manager.EthContext;
 import org.hyperledger.besu.ethereum.eth.manager.EthPeer;
 import org.hyperledger.besu.ethereum.eth.manager.EthPeers;
+import org.hyperledger.besu.ethereum.eth.messages.NewBlockHashesMessage;
+import org.hyperledger.besu.ethereum.eth.messages.NewBlockHashesMessage.NewBlockHash;
 import org.hyperledger.besu.ethereum.eth.messages.NewBlockMessage;
 import org.hyperledger.besu.ethereum.p2p.rlpx.connections.PeerConnection;
+import org.hyperledger.besu.metrics.StubMetricsSystem;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.Set;
 import java.util.stream.Stream;
 
 import org.junit.Test;
@@ -81,6 +92,79 @@ public class BlockBroadcasterTest {
     verify(ethPeer1, times(1)).send(newBlockMessage);
   }
 
+  @Test
+  public void sqrtStrategySendsBlockToFastestPeersAndAnnouncesItToOthers()
+      throws PeerConnection.PeerNotConnected {
+    final List<EthPeer> peers = new ArrayList<>();
+    for (int i = 0; i < 9; i++) {
+      peers.add(createPeer(OptionalLong.of(i)));
+    }
+    final EthPeers ethPeers = mock(EthPeers.class);
+    when(ethPeers.streamAvailablePeers()).then(invocation -> peers.stream());
+
+    final EthContext ethContext = mock(EthContext.class);
+    when(ethContext.getEthPeers()).thenReturn(ethPeers);
+
+    final StubMetricsSystem metricsSystem = new StubMetricsSystem();
+    final BlockBroadcaster blockBroadcaster =
+        new BlockBroadcaster(ethContext, BlockPropagationStrategy.SQRT, metricsSystem);
+    final Block block = generateBlock();
+    final NewBlockMessage newBlockMessage = NewBlockMessage.create(block, Difficulty.ZERO);
+    final NewBlockHashesMessage newBlockHashesMessage =
+        NewBlockHashesMessage.create(
+            Collections.singletonList(
+                new NewBlockHash(block.getHash(), block.getHeader().getNumber())));
+
+    blockBroadcaster.propagate(block, Difficulty.ZERO);
+    blockBroadcaster.announce(block);
+
+    for (int i = 0; i < 3; i++) {
+      verify(peers.get(i)).send(newBlockMessage);
+      verify(peers.get(i), never()).send(newBlockHashesMessage);
+    }
+    for (int i = 3; i < 9; i++) {
+      verify(peers.get(i), never()).send(newBlockMessage);
+      verify(peers.get(i)).send(newBlockHashesMessage);
+    }
+    assertThat(metricsSystem.getCounterValue("block_propagation_messages_total", "new_block"))
+        .isEqualTo(3);
+    assertThat(
+            metricsSystem.getCounterValue("block_propagation_messages_total", "new_block_hashes"))
+        .isEqualTo(6);
+  }
+
+  @Test
+  public void sqrtStrategySendsBlockToSinglePeer() throws PeerConnection.PeerNotConnected {
+    final EthPeer ethPeer = createPeer(OptionalLong.empty());
+    final EthPeers ethPeers = mock(EthPeers.class);
+    when(ethPeers.streamAvailablePeers()).then(invocation -> Stream.of(ethPeer));
+
+    final EthContext ethContext = mock(EthContext.class);
+    when(ethContext.getEthPeers()).thenReturn(ethPeers);
+
+    final BlockBroadcaster blockBroadcaster =
+        new BlockBroadcaster(ethContext, BlockPropagationStrategy.SQRT, new StubMetricsSystem());
+    final Block block = generateBlock();
+
+    blockBroadcaster.propagate(block, Difficulty.ZERO);
+    blockBroadcaster.announce(block);
+
+    verify(ethPeer, times(1)).send(NewBlockMessage.create(block, Difficulty.ZERO));
+    verify(ethPeer, times(1)).send(any());
+  }
+
+  private EthPeer createPeer(final OptionalLong responseLatencyNanos) {
+    final EthPeer ethPeer = mock(EthPeer.class);
+    final Set<Hash> knownBlocks = new HashSet<>();
+    when(ethPeer.getResponseLatencyNanos()).thenReturn(responseLatencyNanos);
+    when(ethPeer.hasSeenBlock(any()))
+        .then(invocation -> knownBlocks.contains(invocation.getArgument(0)));
+    doAnswer(invocation -> knownBlocks.add(invocation.getArgument(0)))
+        .when(ethPeer)
+        .registerKnownBlock(any());
+    return ethPeer;
+  }
+
   private Block generateBlock() {
     final BlockBody body = new BlockBody(Collections.emptyList(), Collections.emptyList());
     return new Block(new BlockHeaderTestFixture().buildHeader(), body);
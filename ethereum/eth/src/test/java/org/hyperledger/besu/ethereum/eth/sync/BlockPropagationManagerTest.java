@@ -19,6 +19,7 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
@@ -60,6 +61,7 @@ import java.util.function.Supplier;
 import org.junit.Before;
 import org.junit.BeforeClass;
 import org.junit.Test;
+import org.mockito.InOrder;
 
 public class BlockPropagationManagerTest {
 
@@ -620,6 +622,40 @@ public class BlockPropagationManagerTest {
     verify(ethScheduler, times(1)).scheduleSyncWorkerTask(any(Supplier.class));
   }
 
+  @SuppressWarnings("unchecked")
+  @Test
+  public void propagatesBlockBeforeAnnouncingItWhenImportCompletesFirst() {
+    // Sync worker suppliers run immediately, but other sync worker tasks are left queued
+    final EthScheduler ethScheduler = mock(EthScheduler.class);
+    when(ethScheduler.scheduleSyncWorkerTask(any(Supplier.class)))
+        .thenAnswer(invocation -> invocation.getArgument(0, Supplier.class).get());
+    final EthContext ethContext =
+        new EthContext(
+            new EthPeers("eth", TestClock.fixed(), metricsSystem), new EthMessages(), ethScheduler);
+    final BlockPropagationManager<Void> blockPropagationManager =
+        new BlockPropagationManager<>(
+            syncConfig,
+            protocolSchedule,
+            protocolContext,
+            ethContext,
+            syncState,
+            pendingBlocks,
+            metricsSystem,
+            blockBroadcaster);
+
+    blockchainUtil.importFirstBlocks(2);
+    final Block block = blockchainUtil.getBlock(2);
+    final Difficulty totalDifficulty =
+        fullBlockchain.getTotalDifficultyByHash(block.getHash()).get();
+
+    blockPropagationManager.importOrSavePendingBlock(block);
+
+    assertThat(blockchain.contains(block.getHash())).isTrue();
+    final InOrder inOrder = inOrder(blockBroadcaster);
+    inOrder.verify(blockBroadcaster).propagate(block, totalDifficulty);
+    inOrder.verify(blockBroadcaster).announce(block);
+  }
+
   @Test
   public void verifyBroadcastBlockInvocation() {
     blockchainUtil.importFirstBlocks(2);
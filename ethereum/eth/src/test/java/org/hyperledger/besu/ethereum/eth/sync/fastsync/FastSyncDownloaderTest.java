@@ -18,6 +18,7 @@ import static java.util.concurrent.CompletableFuture.completedFuture;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
@@ -25,6 +26,8 @@ import static org.mockito.Mockito.when;
 
 import org.hyperledger.besu.ethereum.core.BlockHeader;
 import org.hyperledger.besu.ethereum.core.BlockHeaderTestFixture;
+import org.hyperledger.besu.ethereum.eth.manager.exceptions.NoAvailablePeersException;
+import org.hyperledger.besu.ethereum.eth.snapshot.UniTrieSnapshotDownloader;
 import org.hyperledger.besu.ethereum.eth.sync.ChainDownloader;
 import org.hyperledger.besu.ethereum.eth.sync.TrailingPeerRequirements;
 import org.hyperledger.besu.ethereum.eth.sync.worldstate.NodeDataRequest;
@@ -33,6 +36,7 @@ import org.hyperledger.besu.ethereum.eth.sync.worldstate.WorldStateDownloader;
 import org.hyperledger.besu.services.tasks.TaskCollection;
 
 import java.nio.file.Path;
+import java.util.Optional;
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.Supplier;
@@ -62,6 +66,20 @@ public class FastSyncDownloaderTest {
       new FastSyncDownloader<>(
           fastSyncActions,
           worldStateDownloader,
+          Optional.empty(),
+          storage,
+          taskCollection,
+          fastSyncDataDirectory,
+          FastSyncState.EMPTY_SYNC_STATE);
+
+  private final UniTrieSnapshotDownloader snapshotDownloader =
+      mock(UniTrieSnapshotDownloader.class);
+
+  private final FastSyncDownloader<Void> snapshotEnabledDownloader =
+      new FastSyncDownloader<>(
+          fastSyncActions,
+          worldStateDownloader,
+          Optional.of(snapshotDownloader),
           storage,
           taskCollection,
           fastSyncDataDirectory,
@@ -111,6 +129,7 @@ public class FastSyncDownloaderTest {
         new FastSyncDownloader<>(
             fastSyncActions,
             worldStateDownloader,
+            Optional.empty(),
             storage,
             taskCollection,
             fastSyncDataDirectory,
@@ -432,6 +451,52 @@ public class FastSyncDownloaderTest {
     assertThat(result).isCompletedWithValue(secondDownloadPivotBlockHeaderState);
   }
 
+  @Test
+  public void shouldDownloadRemainingWorldStateAfterSnapshot() {
+    final CompletableFuture<Void> snapshotFuture = new CompletableFuture<>();
+    final BlockHeader pivotBlockHeader = setUpPivotBlock();
+    when(snapshotDownloader.run(pivotBlockHeader.getStateRoot())).thenReturn(snapshotFuture);
+    when(worldStateDownloader.run(pivotBlockHeader)).thenReturn(completedFuture(null));
+
+    final CompletableFuture<FastSyncState> result = snapshotEnabledDownloader.start();
+
+    verify(snapshotDownloader).run(pivotBlockHeader.getStateRoot());
+    verifyNoMoreInteractions(worldStateDownloader);
+    assertThat(result).isNotDone();
+
+    snapshotFuture.complete(null);
+    verify(worldStateDownloader).run(pivotBlockHeader);
+    assertThat(result).isCompleted();
+  }
+
+  @Test
+  public void shouldDownloadWorldStateNodeByNodeIfSnapshotFails() {
+    final BlockHeader pivotBlockHeader = setUpPivotBlock();
+    when(snapshotDownloader.run(pivotBlockHeader.getStateRoot()))
+        .thenReturn(CompletableFuture.failedFuture(new NoAvailablePeersException()));
+    when(worldStateDownloader.run(pivotBlockHeader)).thenReturn(completedFuture(null));
+
+    final CompletableFuture<FastSyncState> result = snapshotEnabledDownloader.start();
+
+    verify(worldStateDownloader).run(pivotBlockHeader);
+    assertThat(result).isCompleted();
+  }
+
+  @Test
+  public void shouldCancelSnapshotWhenStopped() {
+    final CompletableFuture<Void> snapshotFuture = new CompletableFuture<>();
+    final BlockHeader pivotBlockHeader = setUpPivotBlock();
+    when(snapshotDownloader.run(pivotBlockHeader.getStateRoot())).thenReturn(snapshotFuture);
+
+    final CompletableFuture<FastSyncState> result = snapshotEnabledDownloader.start();
+    snapshotEnabledDownloader.stop();
+
+    assertThat(snapshotFuture).isCancelled();
+    verify(worldStateDownloader, never()).run(pivotBlockHeader);
+    verify(chainDownloader).cancel();
+    assertThat(result).isCompletedExceptionally();
+  }
+
   @Test
   public void shouldNotHaveTrailingPeerRequirementsBeforePivotBlockSelected() {
     when(fastSyncActions.waitForSuitablePeers(FastSyncState.EMPTY_SYNC_STATE))
@@ -484,6 +549,21 @@ public class FastSyncDownloaderTest {
     Assertions.assertThat(downloader.calculateTrailingPeerRequirements()).isEmpty();
   }
 
+  private BlockHeader setUpPivotBlock() {
+    final FastSyncState selectPivotBlockState = new FastSyncState(50);
+    final BlockHeader pivotBlockHeader = new BlockHeaderTestFixture().number(50).buildHeader();
+    final FastSyncState downloadPivotBlockHeaderState = new FastSyncState(pivotBlockHeader);
+    when(fastSyncActions.waitForSuitablePeers(FastSyncState.EMPTY_SYNC_STATE)).thenReturn(COMPLETE);
+    when(fastSyncActions.selectPivotBlock(FastSyncState.EMPTY_SYNC_STATE))
+        .thenReturn(completedFuture(selectPivotBlockState));
+    when(fastSyncActions.downloadPivotBlockHeader(selectPivotBlockState))
+        .thenReturn(completedFuture(downloadPivotBlockHeaderState));
+    when(fastSyncActions.createChainDownloader(downloadPivotBlockHeaderState))
+        .thenReturn(chainDownloader);
+    when(chainDownloader.start()).thenReturn(completedFuture(null));
+    return pivotBlockHeader;
+  }
+
   private <T> void assertCompletedExceptionally(
       final CompletableFuture<T> future, final FastSyncError expectedError) {
     assertThat(future).isCompletedExceptionally();
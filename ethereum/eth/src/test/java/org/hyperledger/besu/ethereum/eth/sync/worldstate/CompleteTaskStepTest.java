@@ -82,7 +82,8 @@ public class CompleteTaskStepTest {
     verify(downloadState).enqueueRequests(streamCaptor.capture());
     assertThat(streamCaptor.getValue())
         .usingRecursiveFieldByFieldElementComparator()
-        .containsExactlyInAnyOrderElementsOf(() -> task.getData().getChildRequests().iterator());
+        .containsExactlyInAnyOrderElementsOf(
+            () -> task.getData().getPositionedChildRequests().iterator());
 
     verify(downloadState).checkCompletion(worldStateStorage, blockHeader);
   }
@@ -99,7 +100,8 @@ public class CompleteTaskStepTest {
     verify(downloadState).enqueueRequests(streamCaptor.capture());
     assertThat(streamCaptor.getValue())
         .usingRecursiveFieldByFieldElementComparator()
-        .containsExactlyInAnyOrderElementsOf(() -> task.getData().getChildRequests().iterator());
+        .containsExactlyInAnyOrderElementsOf(
+            () -> task.getData().getPositionedChildRequests().iterator());
 
     verify(downloadState).checkCompletion(worldStateStorage, blockHeader);
   }
@@ -15,9 +15,15 @@
 package org.hyperledger.besu.ethereum.eth.sync.worldstate;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hyperledger.besu.ethereum.eth.sync.worldstate.NodeDataRequest.DEPTH_FIRST_ORDER;
 
 import org.hyperledger.besu.ethereum.core.BlockDataGenerator;
 import org.hyperledger.besu.ethereum.core.Hash;
+import org.hyperledger.besu.ethereum.rlp.RLP;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.apache.tuweni.bytes.Bytes;
 import org.junit.Test;
@@ -95,6 +101,73 @@ public class NodeDataRequestTest {
             NodeDataRequest.createUniNodeDataRequest(VALID_UNINODE_CHILD_HASH));
   }
 
+  @Test
+  public void positionsChildRequestsBelowTheirParent() {
+    NodeDataRequest parent = positionedRequest(2, Bytes.of(3, 1));
+    parent.setData(VALID_UNINODE_ENCODING);
+    List<NodeDataRequest> children =
+        parent.getPositionedChildRequests().collect(Collectors.toList());
+    assertThat(children).extracting(NodeDataRequest::getDepth).containsExactly(3, 3);
+    assertThat(children)
+        .extracting(NodeDataRequest::getPath)
+        .containsExactly(Bytes.of(3, 1, 0), Bytes.of(3, 1, 1));
+  }
+
+  @Test
+  public void serializesPosition() {
+    NodeDataRequest root = NodeDataRequest.createUniNodeDataRequest(VALID_UNINODE_HASH);
+    root.setData(VALID_UNINODE_ENCODING);
+    NodeDataRequest child = root.getPositionedChildRequests().skip(1).findFirst().orElseThrow();
+
+    NodeDataRequest sedeRequest = serializeThenDeserialize(child);
+    assertRequestsEquals(sedeRequest, child);
+    assertThat(sedeRequest.getDepth()).isEqualTo(1);
+    assertThat(sedeRequest.getPath()).isEqualTo(Bytes.of(1));
+  }
+
+  @Test
+  public void deserializesRequestsWithoutPosition() {
+    BlockDataGenerator gen = new BlockDataGenerator(0);
+    Hash hash = gen.hash();
+    Bytes encoded =
+        RLP.encode(
+            out -> {
+              out.startList();
+              out.writeByte(RequestType.ACCOUNT_TRIE_NODE.getValue());
+              out.writeBytes(hash);
+              out.endList();
+            });
+
+    NodeDataRequest request = NodeDataRequest.deserialize(encoded);
+    assertThat(request.getHash()).isEqualTo(hash);
+    assertThat(request.getDepth()).isZero();
+    assertThat(request.getPath()).isEqualTo(Bytes.EMPTY);
+  }
+
+  @Test
+  public void ordersRequestsDepthFirst() {
+    NodeDataRequest root = positionedRequest(0, Bytes.EMPTY);
+    NodeDataRequest firstChild = positionedRequest(1, Bytes.of(0));
+    NodeDataRequest secondChild = positionedRequest(1, Bytes.of(1));
+    NodeDataRequest grandChild = positionedRequest(2, Bytes.of(1, 0));
+
+    assertThat(Stream.of(root, secondChild, firstChild, grandChild).sorted(DEPTH_FIRST_ORDER))
+        .containsExactly(grandChild, firstChild, secondChild, root);
+  }
+
+  private NodeDataRequest positionedRequest(final int depth, final Bytes path) {
+    return NodeDataRequest.deserialize(
+        RLP.encode(
+            out -> {
+              out.startList();
+              out.writeByte(RequestType.UNINODE.getValue());
+              out.writeBytes(VALID_UNINODE_HASH);
+              out.writeIntScalar(depth);
+              out.writeBytes(path);
+              out.endList();
+            }));
+  }
+
   private NodeDataRequest serializeThenDeserialize(final NodeDataRequest request) {
     return NodeDataRequest.deserialize(NodeDataRequest.serialize(request));
   }
@@ -825,7 +825,10 @@ public class WorldStateDownloaderTest {
     assertThat(otherStateRoot).isNotEqualTo(stateRoot); // Sanity check
 
     final CachingTaskCollection<NodeDataRequest> taskCollection =
-        new CachingTaskCollection<>(new InMemoryTaskQueue<>());
+        new CachingTaskCollection<>(
+            new InMemoryTaskQueue<>(),
+            CachingTaskCollection.DEFAULT_CACHE_SIZE,
+            NodeDataRequest.DEPTH_FIRST_ORDER);
     final WorldStateStorage localStorage =
         new WorldStateKeyValueStorage(new InMemoryKeyValueStorage());
     final WorldStateArchive localWorldStateArchive =
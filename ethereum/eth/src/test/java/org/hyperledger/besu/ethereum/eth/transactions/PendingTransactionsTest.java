@@ -44,6 +44,7 @@ public class PendingTransactionsTest {
   private static final int MAX_TRANSACTION_HASHES = 5;
   private static final KeyPair KEYS1 = KeyPair.generate();
   private static final KeyPair KEYS2 = KeyPair.generate();
+  private static final KeyPair KEYS3 = KeyPair.generate();
   private static final String ADDED_COUNTER = "transactions_added_total";
   private static final String REMOVED_COUNTER = "transactions_removed_total";
   private static final String REMOTE = "remote";
@@ -517,6 +518,80 @@ public class PendingTransactionsTest {
         .containsExactly(transaction4, transaction1, transaction2, transaction3);
   }
 
+  @Test
+  public void shouldSelectTransactionsByGasPrice() {
+    final Transaction transaction1 = transactionWithNonceSenderAndGasPrice(0, KEYS1, 1);
+    final Transaction transaction2 = transactionWithNonceSenderAndGasPrice(0, KEYS2, 3);
+    final Transaction transaction3 = transactionWithNonceSenderAndGasPrice(0, KEYS3, 2);
+
+    transactions.addRemoteTransaction(transaction1);
+    transactions.addRemoteTransaction(transaction2);
+    transactions.addRemoteTransaction(transaction3);
+
+    final List<Transaction> iterationOrder = new ArrayList<>();
+    transactions.selectTransactions(
+        transaction -> {
+          iterationOrder.add(transaction);
+          return PendingTransactions.TransactionSelectionResult.CONTINUE;
+        });
+
+    assertThat(iterationOrder).containsExactly(transaction2, transaction3, transaction1);
+  }
+
+  @Test
+  public void shouldSelectNextTransactionOfSenderByItsOwnGasPrice() {
+    final Transaction transaction1 = transactionWithNonceSenderAndGasPrice(0, KEYS1, 5);
+    final Transaction transaction2 = transactionWithNonceSenderAndGasPrice(1, KEYS1, 1);
+    final Transaction transaction3 = transactionWithNonceSenderAndGasPrice(0, KEYS2, 3);
+
+    transactions.addRemoteTransaction(transaction1);
+    transactions.addRemoteTransaction(transaction2);
+    transactions.addRemoteTransaction(transaction3);
+
+    final List<Transaction> iterationOrder = new ArrayList<>();
+    transactions.selectTransactions(
+        transaction -> {
+          iterationOrder.add(transaction);
+          return PendingTransactions.TransactionSelectionResult.CONTINUE;
+        });
+
+    assertThat(iterationOrder).containsExactly(transaction1, transaction3, transaction2);
+  }
+
+  @Test
+  public void shouldNotSelectHigherPricedTransactionBeforeLowerNonceOfSameSender() {
+    final Transaction transaction1 = transactionWithNonceSenderAndGasPrice(0, KEYS1, 1);
+    final Transaction transaction2 = transactionWithNonceSenderAndGasPrice(1, KEYS1, 10);
+    final Transaction transaction3 = transactionWithNonceSenderAndGasPrice(0, KEYS2, 5);
+
+    transactions.addRemoteTransaction(transaction2);
+    transactions.addRemoteTransaction(transaction1);
+    transactions.addRemoteTransaction(transaction3);
+
+    final List<Transaction> iterationOrder = new ArrayList<>();
+    transactions.selectTransactions(
+        transaction -> {
+          iterationOrder.add(transaction);
+          return PendingTransactions.TransactionSelectionResult.CONTINUE;
+        });
+
+    assertThat(iterationOrder).containsExactly(transaction3, transaction1, transaction2);
+  }
+
+  @Test
+  public void shouldDropLowestGasPriceTransactionWhenLimitExceeded() {
+    final Transaction cheapestTransaction = transactionWithNonceSenderAndGasPrice(0, KEYS2, 1);
+    transactions.addRemoteTransaction(cheapestTransaction);
+    for (int i = 0; i < MAX_TRANSACTIONS; i++) {
+      transactions.addRemoteTransaction(transactionWithNonceSenderAndGasPrice(i, KEYS1, 10));
+    }
+
+    assertThat(transactions.size()).isEqualTo(MAX_TRANSACTIONS);
+    assertTransactionNotPending(cheapestTransaction);
+    assertThat(transactions.getNextNonceForSender(SENDER2)).isEmpty();
+    assertThat(metricsSystem.getCounterValue(REMOVED_COUNTER, REMOTE, DROPPED)).isEqualTo(1);
+  }
+
   private void assertMaximumNonceForSender(final Address sender1, final int i) {
     assertThat(transactions.getNextNonceForSender(sender1)).isEqualTo(OptionalLong.of(i));
   }
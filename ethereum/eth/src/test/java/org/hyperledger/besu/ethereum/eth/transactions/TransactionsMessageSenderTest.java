@@ -63,6 +63,24 @@ public class TransactionsMessageSenderTest {
     verifyNoMoreInteractions(peer1, peer2);
   }
 
+  @Test
+  public void shouldSendSameMessageToPeersMissingSameTransactions() throws Exception {
+    transactionTracker.addToPeerSendQueue(peer1, transaction1);
+    transactionTracker.addToPeerSendQueue(peer1, transaction2);
+    transactionTracker.addToPeerSendQueue(peer2, transaction1);
+    transactionTracker.addToPeerSendQueue(peer2, transaction2);
+
+    messageSender.sendTransactionsToPeers();
+
+    final ArgumentCaptor<MessageData> sentToPeer1 = ArgumentCaptor.forClass(MessageData.class);
+    final ArgumentCaptor<MessageData> sentToPeer2 = ArgumentCaptor.forClass(MessageData.class);
+    verify(peer1).send(sentToPeer1.capture());
+    verify(peer2).send(sentToPeer2.capture());
+    assertThat(getTransactionsFromMessage(sentToPeer1.getValue()))
+        .containsExactlyInAnyOrder(transaction1, transaction2);
+    assertThat(sentToPeer2.getValue()).isSameAs(sentToPeer1.getValue());
+  }
+
   @Test
   public void shouldSendTransactionsInBatchesWithLimit() throws Exception {
     final Set<Transaction> transactions = generator.transactions(6000);
@@ -0,0 +1,103 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.p2p.rlpx.framing;
+
+import org.hyperledger.besu.ethereum.p2p.rlpx.handshake.HandshakeSecrets;
+import org.hyperledger.besu.ethereum.p2p.rlpx.wire.RawMessage;
+import org.hyperledger.besu.metrics.noop.NoOpMetricsSystem;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import org.apache.tuweni.bytes.Bytes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/** Cost of framing one block-sized message for every connected peer. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BroadcastBenchmark {
+
+  @Param({"1", "10", "50"})
+  public int peers;
+
+  @Param({"true", "false"})
+  public boolean sharedCompression;
+
+  private Framer[] framers;
+  private byte[] payload;
+  private ByteBuf buffer;
+
+  @Setup(Level.Trial)
+  public void prepare() {
+    final Random random = new Random(42);
+    final CompressedPayloadCache compressedPayloads =
+        sharedCompression
+            ? new CompressedPayloadCache(new NoOpMetricsSystem())
+            : CompressedPayloadCache.NONE;
+    framers = new Framer[peers];
+    for (int i = 0; i < peers; i++) {
+      final byte[] aesSecret = new byte[32];
+      final byte[] macSecret = new byte[32];
+      final byte[] token = new byte[32];
+      random.nextBytes(aesSecret);
+      random.nextBytes(macSecret);
+      random.nextBytes(token);
+      framers[i] =
+          Framer.create(
+              FramerBackend.DEFAULT,
+              new HandshakeSecrets(aesSecret, macSecret, token),
+              compressedPayloads);
+      framers[i].enableCompression();
+    }
+
+    // Half random, half zeroes, roughly as compressible as an encoded block
+    payload = new byte[128 * 1024];
+    random.nextBytes(payload);
+    for (int i = 0; i < payload.length; i += 2) {
+      payload[i] = 0;
+    }
+    buffer = PooledByteBufAllocator.DEFAULT.directBuffer(payload.length + 1024);
+  }
+
+  @TearDown(Level.Trial)
+  public void release() {
+    buffer.release();
+  }
+
+  @Benchmark
+  public int broadcast() {
+    // Every broadcast is a new message, shared by all of the peers it is sent to
+    final RawMessage message = new RawMessage(0x17, Bytes.wrap(payload));
+    int framedBytes = 0;
+    for (final Framer framer : framers) {
+      buffer.clear();
+      framer.frame(message, buffer);
+      framedBytes += buffer.readableBytes();
+    }
+    return framedBytes;
+  }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.p2p.rlpx.framing;
+
+import org.hyperledger.besu.ethereum.p2p.rlpx.handshake.HandshakeSecrets;
+import org.hyperledger.besu.ethereum.p2p.rlpx.wire.MessageData;
+import org.hyperledger.besu.ethereum.p2p.rlpx.wire.RawMessage;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import org.apache.tuweni.bytes.Bytes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+@State(Scope.Thread)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FramerBenchmark {
+
+  @Param({"BOUNCY_CASTLE", "JCE"})
+  public FramerBackend backend;
+
+  @Param({"128", "4096", "131072"})
+  public int messageSize;
+
+  private Framer sender;
+  private Framer receiver;
+  private MessageData message;
+  private ByteBuf buffer;
+
+  @Setup(Level.Trial)
+  public void prepare() {
+    final Random random = new Random(42);
+    final byte[] aesSecret = new byte[32];
+    final byte[] macSecret = new byte[32];
+    final byte[] token = new byte[32];
+    random.nextBytes(aesSecret);
+    random.nextBytes(macSecret);
+    random.nextBytes(token);
+
+    // Both ends start with empty MACs, so the sender's egress MAC tracks the receiver's ingress
+    // MAC.
+    sender = Framer.create(backend, new HandshakeSecrets(aesSecret, macSecret, token));
+    receiver = Framer.create(backend, new HandshakeSecrets(aesSecret, macSecret, token));
+
+    final byte[] payload = new byte[messageSize];
+    random.nextBytes(payload);
+    message = new RawMessage(0x10, Bytes.wrap(payload));
+    buffer = PooledByteBufAllocator.DEFAULT.directBuffer(messageSize + 64);
+  }
+
+  @TearDown(Level.Trial)
+  public void release() {
+    buffer.release();
+  }
+
+  @Benchmark
+  public int frame() {
+    buffer.clear();
+    sender.frame(message, buffer);
+    return buffer.readableBytes();
+  }
+
+  @Benchmark
+  public MessageData frameAndDeframe() {
+    buffer.clear();
+    sender.frame(message, buffer);
+    return receiver.deframe(buffer);
+  }
+}
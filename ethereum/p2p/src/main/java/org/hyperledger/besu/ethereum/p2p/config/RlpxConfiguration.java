@@ -16,6 +16,7 @@ package org.hyperledger.besu.ethereum.p2p.config;
 
 import static com.google.common.base.Preconditions.checkState;
 
+import org.hyperledger.besu.ethereum.p2p.rlpx.framing.FramerBackend;
 import org.hyperledger.besu.ethereum.p2p.rlpx.wire.SubProtocol;
 import org.hyperledger.besu.util.NetworkUtility;
 
@@ -33,6 +34,7 @@ public class RlpxConfiguration {
   private boolean limitRemoteWireConnectionsEnabled = false;
   private float fractionRemoteWireConnectionsAllowed = DEFAULT_FRACTION_REMOTE_CONNECTIONS_ALLOWED;
   private List<SubProtocol> supportedProtocols = Collections.emptyList();
+  private FramerBackend framerBackend = FramerBackend.DEFAULT;
 
   public static RlpxConfiguration create() {
     return new RlpxConfiguration();
@@ -103,6 +105,15 @@ public class RlpxConfiguration {
     return this;
   }
 
+  public FramerBackend getFramerBackend() {
+    return framerBackend;
+  }
+
+  public RlpxConfiguration setFramerBackend(final FramerBackend framerBackend) {
+    this.framerBackend = framerBackend;
+    return this;
+  }
+
   public int getMaxRemotelyInitiatedConnections() {
     if (!limitRemoteWireConnectionsEnabled) {
       return maxPeers;
@@ -19,6 +19,7 @@ import static com.google.common.base.Preconditions.checkArgument;
 import org.hyperledger.besu.crypto.NodeKey;
 import org.hyperledger.besu.ethereum.p2p.config.DiscoveryConfiguration;
 import org.hyperledger.besu.ethereum.p2p.discovery.internal.Packet;
+import org.hyperledger.besu.ethereum.p2p.discovery.internal.PacketDecoder;
 import org.hyperledger.besu.ethereum.p2p.discovery.internal.PeerDiscoveryController;
 import org.hyperledger.besu.ethereum.p2p.discovery.internal.PeerDiscoveryController.AsyncExecutor;
 import org.hyperledger.besu.ethereum.p2p.discovery.internal.TimerUtil;
@@ -35,6 +36,8 @@ import java.net.InetSocketAddress;
 import java.net.SocketException;
 import java.util.OptionalInt;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.function.IntSupplier;
 import java.util.function.Supplier;
 import java.util.stream.StreamSupport;
@@ -42,6 +45,7 @@ import java.util.stream.StreamSupport;
 import io.netty.channel.EventLoopGroup;
 import io.netty.util.concurrent.SingleThreadEventExecutor;
 import io.vertx.core.AsyncResult;
+import io.vertx.core.Context;
 import io.vertx.core.Vertx;
 import io.vertx.core.datagram.DatagramPacket;
 import io.vertx.core.datagram.DatagramSocket;
@@ -53,6 +57,7 @@ public class VertxPeerDiscoveryAgent extends PeerDiscoveryAgent {
   private static final Logger LOG = LogManager.getLogger();
 
   private final Vertx vertx;
+  private final PacketDecoder packetDecoder;
   /* The vert.x UDP socket. */
   private DatagramSocket socket;
 
@@ -66,6 +71,7 @@ public class VertxPeerDiscoveryAgent extends PeerDiscoveryAgent {
     super(nodeKey, config, peerPermissions, natService, metricsSystem);
     checkArgument(vertx != null, "vertx instance cannot be null");
     this.vertx = vertx;
+    this.packetDecoder = PacketDecoder.create(metricsSystem);
 
     metricsSystem.createIntegerGauge(
         BesuMetricCategory.NETWORK,
@@ -170,6 +176,7 @@ public class VertxPeerDiscoveryAgent extends PeerDiscoveryAgent {
         ar -> {
           if (ar.succeeded()) {
             controller.ifPresent(PeerDiscoveryController::stop);
+            packetDecoder.stop();
             socket = null;
             completion.complete(null);
           } else {
@@ -203,29 +210,34 @@ public class VertxPeerDiscoveryAgent extends PeerDiscoveryAgent {
       LOG.debug("Discarding over-sized packet. Actual size (bytes): " + length);
       return;
     }
-    vertx.<Packet>executeBlocking(
-        future -> {
-          try {
-            future.complete(Packet.decode(datagram.data()));
-          } catch (final Throwable t) {
-            future.fail(t);
-          }
-        },
-        event -> {
-          if (event.succeeded()) {
-            // Acquire the senders coordinates to build a Peer representation from them.
-            final String host = datagram.sender().host();
-            final int port = datagram.sender().port();
-            final Endpoint endpoint = new Endpoint(host, port, OptionalInt.empty());
-            handleIncomingPacket(endpoint, event.result());
-          } else {
-            if (event.cause() instanceof PeerDiscoveryPacketDecodingException) {
-              LOG.debug("Discarding invalid peer discovery packet: {}", event.cause().getMessage());
-            } else {
-              LOG.error("Encountered error while handling packet", event.cause());
-            }
-          }
-        });
+    // Acquire the senders coordinates to build a Peer representation from them.
+    final String host = datagram.sender().host();
+    final int port = datagram.sender().port();
+    final Context context = vertx.getOrCreateContext();
+    packetDecoder
+        .decode(host, datagram.data())
+        .whenComplete(
+            (packet, error) ->
+                context.runOnContext(
+                    v -> {
+                      if (error == null) {
+                        final Endpoint endpoint = new Endpoint(host, port, OptionalInt.empty());
+                        handleIncomingPacket(endpoint, packet);
+                      } else {
+                        handleDecodingError(error);
+                      }
+                    }));
+  }
+
+  private void handleDecodingError(final Throwable error) {
+    final Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+    if (cause instanceof PeerDiscoveryPacketDecodingException) {
+      LOG.debug("Discarding invalid peer discovery packet: {}", cause.getMessage());
+    } else if (cause instanceof RejectedExecutionException) {
+      LOG.trace("Dropping peer discovery packet: {}", cause.getMessage());
+    } else {
+      LOG.error("Encountered error while handling packet", cause);
+    }
   }
 
   private class VertxAsyncExecutor implements AsyncExecutor {
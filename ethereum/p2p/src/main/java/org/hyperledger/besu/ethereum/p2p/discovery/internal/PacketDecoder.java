@@ -0,0 +1,147 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.p2p.discovery.internal;
+
+import org.hyperledger.besu.metrics.BesuMetricCategory;
+import org.hyperledger.besu.plugin.services.MetricsSystem;
+import org.hyperledger.besu.plugin.services.metrics.Counter;
+import org.hyperledger.besu.plugin.services.metrics.LabelledMetric;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.RateLimiter;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.vertx.core.buffer.Buffer;
+import org.apache.tuweni.bytes.Bytes;
+
+/**
+ * Decodes inbound discovery packets on a bounded worker pool, so that verifying their hashes and
+ * recovering their signers does not hold up the networking threads.
+ *
+ * <p>Packets are dropped when their source exceeds its rate limit or when the pool is saturated.
+ * Recently decoded packets are remembered, so that retransmissions and replays are not verified
+ * again.
+ */
+public class PacketDecoder {
+  private static final int DEFAULT_QUEUE_SIZE = 1024;
+  private static final double DEFAULT_PACKETS_PER_SECOND_PER_SOURCE = 100;
+  private static final int MAX_TRACKED_SOURCES = 10_000;
+  private static final int RECENT_PACKETS = 1024;
+
+  private final ExecutorService executor;
+  private final LoadingCache<String, RateLimiter> rateLimiters;
+  private final Cache<Bytes, Packet> recentPackets =
+      CacheBuilder.newBuilder().maximumSize(RECENT_PACKETS).build();
+
+  private final Counter rateLimitedCounter;
+  private final Counter queueFullCounter;
+  private final Counter recentPacketsCounter;
+
+  @VisibleForTesting
+  PacketDecoder(
+      final ExecutorService executor,
+      final double packetsPerSecondPerSource,
+      final MetricsSystem metricsSystem) {
+    this.executor = executor;
+    this.rateLimiters =
+        CacheBuilder.newBuilder()
+            .maximumSize(MAX_TRACKED_SOURCES)
+            .expireAfterAccess(1, TimeUnit.MINUTES)
+            .build(CacheLoader.from(() -> RateLimiter.create(packetsPerSecondPerSource)));
+
+    final LabelledMetric<Counter> droppedPackets =
+        metricsSystem.createLabelledCounter(
+            BesuMetricCategory.NETWORK,
+            "discovery_inbound_packets_dropped_total",
+            "Number of inbound discovery packets dropped before being decoded",
+            "reason");
+    this.rateLimitedCounter = droppedPackets.labels("rate_limited");
+    this.queueFullCounter = droppedPackets.labels("queue_full");
+    this.recentPacketsCounter =
+        metricsSystem.createCounter(
+            BesuMetricCategory.NETWORK,
+            "discovery_inbound_packets_reused_total",
+            "Number of inbound discovery packets identical to a recently decoded one");
+  }
+
+  public static PacketDecoder create(final MetricsSystem metricsSystem) {
+    final int threads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+    return new PacketDecoder(
+        new ThreadPoolExecutor(
+            threads,
+            threads,
+            0L,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(DEFAULT_QUEUE_SIZE),
+            new ThreadFactoryBuilder()
+                .setDaemon(true)
+                .setNameFormat(PacketDecoder.class.getSimpleName() + "-%d")
+                .build()),
+        DEFAULT_PACKETS_PER_SECOND_PER_SOURCE,
+        metricsSystem);
+  }
+
+  /**
+   * Decodes a packet received from the given source.
+   *
+   * @param source the host the packet was received from
+   * @param message the received datagram
+   * @return the decoded packet, failed with a {@link RejectedExecutionException} if the packet was
+   *     dropped, or with a {@link
+   *     org.hyperledger.besu.ethereum.p2p.discovery.PeerDiscoveryPacketDecodingException} if it is
+   *     invalid
+   */
+  public CompletableFuture<Packet> decode(final String source, final Buffer message) {
+    if (!rateLimiters.getUnchecked(source).tryAcquire()) {
+      rateLimitedCounter.inc();
+      return CompletableFuture.failedFuture(
+          new RejectedExecutionException("Rate limit exceeded for " + source));
+    }
+
+    final Bytes key = Bytes.wrapBuffer(message);
+    final Packet recentPacket = recentPackets.getIfPresent(key);
+    if (recentPacket != null) {
+      recentPacketsCounter.inc();
+      return CompletableFuture.completedFuture(recentPacket);
+    }
+
+    try {
+      return CompletableFuture.supplyAsync(
+          () -> {
+            final Packet packet = Packet.decode(message);
+            recentPackets.put(key, packet);
+            return packet;
+          },
+          executor);
+    } catch (final RejectedExecutionException e) {
+      queueFullCounter.inc();
+      return CompletableFuture.failedFuture(e);
+    }
+  }
+
+  public void stop() {
+    executor.shutdownNow();
+  }
+}
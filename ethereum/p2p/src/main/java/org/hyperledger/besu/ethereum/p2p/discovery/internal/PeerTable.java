@@ -15,7 +15,6 @@
 package org.hyperledger.besu.ethereum.p2p.discovery.internal;
 
 import static java.util.Comparator.comparingInt;
-import static java.util.stream.Collectors.toList;
 
 import org.hyperledger.besu.crypto.Hash;
 import org.hyperledger.besu.ethereum.p2p.discovery.DiscoveryPeer;
@@ -24,6 +23,7 @@ import org.hyperledger.besu.ethereum.p2p.discovery.internal.PeerTable.AddResult.
 import org.hyperledger.besu.ethereum.p2p.peers.Peer;
 import org.hyperledger.besu.ethereum.p2p.peers.PeerId;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
@@ -192,12 +192,29 @@ public class PeerTable {
    */
   public List<DiscoveryPeer> nearestPeers(final Bytes target, final int limit) {
     final Bytes keccak256 = Hash.keccak256(target);
-    return streamAllPeers()
-        .filter(p -> p.getStatus() == PeerDiscoveryStatus.BONDED)
-        .sorted(
-            comparingInt((peer) -> PeerDistanceCalculator.distance(peer.keccak256(), keccak256)))
-        .limit(limit)
-        .collect(toList());
+    // A peer at distance d from us is at distance max(d, targetDistance) from the target, unless
+    // d == targetDistance, in which case it is strictly closer. Walking the buckets in that order
+    // yields the peers sorted by distance to the target without looking at the farther buckets.
+    final int targetDistance = PeerDistanceCalculator.distance(this.keccak256, keccak256);
+    final List<DiscoveryPeer> nearest = new ArrayList<>(limit);
+    if (targetDistance > 0) {
+      table[targetDistance].getPeers().stream()
+          .filter(p -> p.getStatus() == PeerDiscoveryStatus.BONDED)
+          .sorted(
+              comparingInt((peer) -> PeerDistanceCalculator.distance(peer.keccak256(), keccak256)))
+          .forEachOrdered(nearest::add);
+    }
+    for (int distance = 1; distance <= N_BUCKETS && nearest.size() < limit; distance++) {
+      if (distance == targetDistance) {
+        continue;
+      }
+      for (final DiscoveryPeer peer : table[distance].getPeers()) {
+        if (peer.getStatus() == PeerDiscoveryStatus.BONDED) {
+          nearest.add(peer);
+        }
+      }
+    }
+    return nearest.size() > limit ? new ArrayList<>(nearest.subList(0, limit)) : nearest;
   }
 
   public Stream<DiscoveryPeer> streamAllPeers() {
@@ -18,7 +18,9 @@ import org.hyperledger.besu.ethereum.p2p.peers.LocalNode;
 import org.hyperledger.besu.ethereum.p2p.peers.Peer;
 import org.hyperledger.besu.ethereum.p2p.rlpx.connections.PeerConnection;
 import org.hyperledger.besu.ethereum.p2p.rlpx.connections.PeerConnectionEventDispatcher;
+import org.hyperledger.besu.ethereum.p2p.rlpx.framing.CompressedPayloadCache;
 import org.hyperledger.besu.ethereum.p2p.rlpx.framing.Framer;
+import org.hyperledger.besu.ethereum.p2p.rlpx.framing.FramerBackend;
 import org.hyperledger.besu.ethereum.p2p.rlpx.handshake.Handshaker;
 import org.hyperledger.besu.ethereum.p2p.rlpx.handshake.ecies.ECIESHandshaker;
 import org.hyperledger.besu.ethereum.p2p.rlpx.wire.SubProtocol;
@@ -57,19 +59,26 @@ abstract class AbstractHandshakeHandler extends SimpleChannelInboundHandler<Byte
 
   private final MetricsSystem metricsSystem;
 
+  private final FramerBackend framerBackend;
+  private final CompressedPayloadCache compressedPayloads;
+
   AbstractHandshakeHandler(
       final List<SubProtocol> subProtocols,
       final LocalNode localNode,
       final Optional<Peer> expectedPeer,
       final CompletableFuture<PeerConnection> connectionFuture,
       final PeerConnectionEventDispatcher connectionEventDispatcher,
-      final MetricsSystem metricsSystem) {
+      final MetricsSystem metricsSystem,
+      final FramerBackend framerBackend,
+      final CompressedPayloadCache compressedPayloads) {
     this.subProtocols = subProtocols;
     this.localNode = localNode;
     this.expectedPeer = expectedPeer;
     this.connectionFuture = connectionFuture;
     this.connectionEventDispatcher = connectionEventDispatcher;
     this.metricsSystem = metricsSystem;
+    this.framerBackend = framerBackend;
+    this.compressedPayloads = compressedPayloads;
   }
 
   /**
@@ -100,7 +109,7 @@ abstract class AbstractHandshakeHandler extends SimpleChannelInboundHandler<Byte
       LOG.debug("Sending framed hello");
 
       // Exchange keys done
-      final Framer framer = new Framer(handshaker.secrets());
+      final Framer framer = Framer.create(framerBackend, handshaker.secrets(), compressedPayloads);
 
       final ByteToMessageDecoder deFramer =
           new DeFramer(
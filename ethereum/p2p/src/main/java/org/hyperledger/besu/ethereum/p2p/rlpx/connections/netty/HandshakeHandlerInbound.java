@@ -19,6 +19,8 @@ import org.hyperledger.besu.crypto.SECP256K1;
 import org.hyperledger.besu.ethereum.p2p.peers.LocalNode;
 import org.hyperledger.besu.ethereum.p2p.rlpx.connections.PeerConnection;
 import org.hyperledger.besu.ethereum.p2p.rlpx.connections.PeerConnectionEventDispatcher;
+import org.hyperledger.besu.ethereum.p2p.rlpx.framing.CompressedPayloadCache;
+import org.hyperledger.besu.ethereum.p2p.rlpx.framing.FramerBackend;
 import org.hyperledger.besu.ethereum.p2p.rlpx.handshake.Handshaker;
 import org.hyperledger.besu.ethereum.p2p.rlpx.wire.SubProtocol;
 import org.hyperledger.besu.plugin.services.MetricsSystem;
@@ -37,14 +39,18 @@ final class HandshakeHandlerInbound extends AbstractHandshakeHandler {
       final LocalNode localNode,
       final CompletableFuture<PeerConnection> connectionFuture,
       final PeerConnectionEventDispatcher connectionEventDispatcher,
-      final MetricsSystem metricsSystem) {
+      final MetricsSystem metricsSystem,
+      final FramerBackend framerBackend,
+      final CompressedPayloadCache compressedPayloads) {
     super(
         subProtocols,
         localNode,
         Optional.empty(),
         connectionFuture,
         connectionEventDispatcher,
-        metricsSystem);
+        metricsSystem,
+        framerBackend,
+        compressedPayloads);
     handshaker.prepareResponder(new BouncyCastleNodeKey(kp));
   }
 
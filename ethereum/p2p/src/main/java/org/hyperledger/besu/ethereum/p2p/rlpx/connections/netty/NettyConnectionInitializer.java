@@ -24,6 +24,7 @@ import org.hyperledger.besu.ethereum.p2p.rlpx.ConnectCallback;
 import org.hyperledger.besu.ethereum.p2p.rlpx.connections.ConnectionInitializer;
 import org.hyperledger.besu.ethereum.p2p.rlpx.connections.PeerConnection;
 import org.hyperledger.besu.ethereum.p2p.rlpx.connections.PeerConnectionEventDispatcher;
+import org.hyperledger.besu.ethereum.p2p.rlpx.framing.CompressedPayloadCache;
 import org.hyperledger.besu.metrics.BesuMetricCategory;
 import org.hyperledger.besu.plugin.services.MetricsSystem;
 import org.hyperledger.besu.util.Subscribers;
@@ -56,6 +57,7 @@ public class NettyConnectionInitializer implements ConnectionInitializer {
   private final LocalNode localNode;
   private final PeerConnectionEventDispatcher eventDispatcher;
   private final MetricsSystem metricsSystem;
+  private final CompressedPayloadCache compressedPayloads;
   private final Subscribers<ConnectCallback> connectSubscribers = Subscribers.create();
 
   private ChannelFuture server;
@@ -75,6 +77,7 @@ public class NettyConnectionInitializer implements ConnectionInitializer {
     this.localNode = localNode;
     this.eventDispatcher = eventDispatcher;
     this.metricsSystem = metricsSystem;
+    this.compressedPayloads = new CompressedPayloadCache(metricsSystem);
 
     metricsSystem.createIntegerGauge(
         BesuMetricCategory.NETWORK,
@@ -191,7 +194,9 @@ public class NettyConnectionInitializer implements ConnectionInitializer {
                             localNode,
                             connectionFuture,
                             eventDispatcher,
-                            metricsSystem));
+                            metricsSystem,
+                            config.getFramerBackend(),
+                            compressedPayloads));
               }
             })
         .connect()
@@ -229,7 +234,9 @@ public class NettyConnectionInitializer implements ConnectionInitializer {
                     localNode,
                     connectionFuture,
                     eventDispatcher,
-                    metricsSystem));
+                    metricsSystem,
+                    config.getFramerBackend(),
+                    compressedPayloads));
       }
     };
   }
@@ -0,0 +1,146 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.p2p.rlpx.framing;
+
+import static org.bouncycastle.pqc.math.linearalgebra.ByteUtils.xor;
+
+import org.hyperledger.besu.ethereum.p2p.rlpx.handshake.HandshakeSecrets;
+import org.hyperledger.besu.ethereum.p2p.rlpx.wire.MessageData;
+import org.hyperledger.besu.ethereum.p2p.rlpx.wire.RawMessage;
+
+import java.util.Arrays;
+
+import io.netty.buffer.ByteBuf;
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.MutableBytes;
+import org.bouncycastle.crypto.BlockCipher;
+import org.bouncycastle.crypto.StreamCipher;
+import org.bouncycastle.crypto.engines.AESEngine;
+import org.bouncycastle.crypto.modes.SICBlockCipher;
+import org.bouncycastle.crypto.params.KeyParameter;
+import org.bouncycastle.crypto.params.ParametersWithIV;
+
+/** A {@link Framer} that relies on the BouncyCastle AES engine for encryption and MACs. */
+public class BouncyCastleFramer extends Framer {
+
+  private final HandshakeSecrets secrets;
+  private final StreamCipher encryptor;
+  private final StreamCipher decryptor;
+  private final BlockCipher egressMacEncryptor;
+  private final BlockCipher ingressMacEncryptor;
+
+  /**
+   * Creates a new framer out of the handshake secrets derived during the cryptographic handshake.
+   *
+   * @param secrets The handshake secrets.
+   */
+  public BouncyCastleFramer(final HandshakeSecrets secrets) {
+    this.secrets = secrets;
+
+    final KeyParameter aesKey = new KeyParameter(secrets.getAesSecret());
+    final KeyParameter macKey = new KeyParameter(secrets.getMacSecret());
+
+    encryptor = new SICBlockCipher(new AESEngine());
+    encryptor.init(true, new ParametersWithIV(aesKey, IV));
+
+    decryptor = new SICBlockCipher(new AESEngine());
+    decryptor.init(false, new ParametersWithIV(aesKey, IV));
+
+    // AESEngine keeps per-block working state, so ingress and egress each get their own.
+    egressMacEncryptor = new AESEngine();
+    egressMacEncryptor.init(true, macKey);
+
+    ingressMacEncryptor = new AESEngine();
+    ingressMacEncryptor.init(true, macKey);
+  }
+
+  @Override
+  protected byte[] decryptHeader(final ByteBuf encryptedHeader) {
+    final byte[] hCipher = new byte[LENGTH_HEADER_DATA];
+    final byte[] hMac = new byte[LENGTH_MAC];
+    encryptedHeader.readBytes(hCipher).readBytes(hMac);
+
+    // Header MAC validation.
+    byte[] expectedMac = new byte[16];
+    ingressMacEncryptor.processBlock(secrets.getIngressMac(), 0, expectedMac, 0);
+    expectedMac = secrets.updateIngress(xor(expectedMac, hCipher)).getIngressMac();
+    expectedMac = Arrays.copyOf(expectedMac, LENGTH_MAC);
+
+    validateMac(hMac, expectedMac);
+
+    // Perform the header decryption.
+    decryptor.processBytes(hCipher, 0, hCipher.length, hCipher, 0);
+    return hCipher;
+  }
+
+  @Override
+  protected MessageData processFrame(final ByteBuf f, final int frameSize) {
+    final int pad = padding16(frameSize);
+    final byte[] frameData = new byte[frameSize + pad];
+    final byte[] fMac = new byte[LENGTH_MAC];
+    f.readBytes(frameData).readBytes(fMac);
+
+    // Validate the frame's MAC.
+    final byte[] fMacSeed = secrets.updateIngress(frameData).getIngressMac();
+    final byte[] fMacSeedEnc = new byte[16];
+    ingressMacEncryptor.processBlock(fMacSeed, 0, fMacSeedEnc, 0);
+    byte[] expectedMac = secrets.updateIngress(xor(fMacSeedEnc, fMacSeed)).getIngressMac();
+    expectedMac = Arrays.copyOf(expectedMac, LENGTH_MAC);
+
+    validateMac(fMac, expectedMac);
+
+    // Decrypt frame data.
+    decryptor.processBytes(frameData, 0, frameData.length, frameData, 0);
+
+    final int id = decodeMessageId(frameData[0]);
+    final int messageLength = frameSize - LENGTH_MESSAGE_ID;
+    return new RawMessage(id, Bytes.wrap(frameData, 1, messageLength));
+  }
+
+  @Override
+  void frameMessage(final MessageData message, final ByteBuf buf) {
+    final int frameSize = message.getSize() + LENGTH_MESSAGE_ID;
+    final int pad = padding16(frameSize);
+
+    // Generate the header data.
+    final byte[] h = new byte[LENGTH_HEADER_DATA];
+    writeHeaderData(frameSize, h);
+    encryptor.processBytes(h, 0, LENGTH_HEADER_DATA, h, 0);
+
+    // Generate the header MAC.
+    byte[] hMac = Arrays.copyOf(secrets.getEgressMac(), LENGTH_MAC);
+    egressMacEncryptor.processBlock(hMac, 0, hMac, 0);
+    hMac = secrets.updateEgress(xor(h, hMac)).getEgressMac();
+    hMac = Arrays.copyOf(hMac, LENGTH_MAC);
+    buf.writeBytes(h).writeBytes(hMac);
+
+    // Encrypt payload.
+    final MutableBytes f = MutableBytes.create(frameSize + pad);
+    f.set(0, encodeMessageId(message.getCode()));
+
+    // Zero-padded to 16-byte boundary.
+    message.getData().copyTo(f, 1);
+    encryptor.processBytes(f.toArrayUnsafe(), 0, f.size(), f.toArrayUnsafe(), 0);
+
+    // Calculate the frame MAC.
+    final byte[] fMacSeed =
+        Arrays.copyOf(secrets.updateEgress(f.toArrayUnsafe()).getEgressMac(), LENGTH_MAC);
+    byte[] fMac = new byte[16];
+    egressMacEncryptor.processBlock(fMacSeed, 0, fMac, 0);
+    fMac = Arrays.copyOf(secrets.updateEgress(xor(fMac, fMacSeed)).getEgressMac(), LENGTH_MAC);
+
+    buf.writeBytes(f.toArrayUnsafe()).writeBytes(fMac);
+  }
+}
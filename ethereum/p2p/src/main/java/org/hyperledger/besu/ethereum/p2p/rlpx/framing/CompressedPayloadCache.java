@@ -0,0 +1,126 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.p2p.rlpx.framing;
+
+import org.hyperledger.besu.metrics.BesuMetricCategory;
+import org.hyperledger.besu.metrics.noop.NoOpMetricsSystem;
+import org.hyperledger.besu.plugin.services.MetricsSystem;
+import org.hyperledger.besu.plugin.services.metrics.Counter;
+
+import java.util.concurrent.ExecutionException;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.MutableBytes;
+
+/**
+ * Snappy-compresses outbound message payloads, sharing the result across connections.
+ *
+ * <p>A message broadcast to many peers, such as a new block, reaches every connection with the same
+ * payload instance. Compressed payloads are cached by the identity of the uncompressed one, which
+ * is only weakly referenced: the first connection to frame the message compresses it, the others
+ * reuse the result and only repeat the encryption and MAC work, and the entry goes away along with
+ * the message once no connection holds it any longer.
+ */
+public class CompressedPayloadCache {
+
+  /** Compresses every payload, for framers that aren't shared with other connections. */
+  public static final CompressedPayloadCache NONE =
+      new CompressedPayloadCache(new NoOpMetricsSystem(), 0);
+
+  // Small payloads are cheap to compress and rarely broadcast
+  @VisibleForTesting static final int MIN_CACHED_SIZE = 1024;
+  private static final long DEFAULT_MAX_CACHED_BYTES = 32 * 1024 * 1024;
+
+  private static final SnappyCompressor compressor = new SnappyCompressor();
+
+  private final Cache<Bytes, Bytes> compressedPayloads;
+  private final Counter compressionsCounter;
+  private final Counter reusedCounter;
+  private final Counter bytesSavedCounter;
+
+  public CompressedPayloadCache(final MetricsSystem metricsSystem) {
+    this(metricsSystem, DEFAULT_MAX_CACHED_BYTES);
+  }
+
+  @VisibleForTesting
+  CompressedPayloadCache(final MetricsSystem metricsSystem, final long maxCachedBytes) {
+    this.compressedPayloads =
+        maxCachedBytes == 0
+            ? null
+            : CacheBuilder.newBuilder()
+                .weakKeys()
+                .maximumWeight(maxCachedBytes)
+                .<Bytes, Bytes>weigher((payload, compressed) -> compressed.size())
+                .build();
+    this.compressionsCounter =
+        metricsSystem.createCounter(
+            BesuMetricCategory.NETWORK,
+            "p2p_payload_compressions_total",
+            "Number of outbound message payloads compressed");
+    this.reusedCounter =
+        metricsSystem.createCounter(
+            BesuMetricCategory.NETWORK,
+            "p2p_compressed_payloads_reused_total",
+            "Number of outbound message payloads whose compressed form was shared by another connection");
+    this.bytesSavedCounter =
+        metricsSystem.createCounter(
+            BesuMetricCategory.NETWORK,
+            "p2p_compression_bytes_saved_total",
+            "Number of outbound payload bytes not compressed again thanks to a shared compressed form");
+  }
+
+  /**
+   * Compress a message payload, reusing its compressed form if another connection already
+   * compressed the same payload instance.
+   *
+   * @param payload The uncompressed payload.
+   * @return The compressed payload.
+   */
+  public Bytes compress(final Bytes payload) {
+    if (compressedPayloads == null
+        || payload.size() < MIN_CACHED_SIZE
+        || payload instanceof MutableBytes) {
+      return doCompress(payload);
+    }
+
+    // Connections framing the payload concurrently wait for a single compression
+    final boolean[] compressedHere = {false};
+    final Bytes compressed;
+    try {
+      compressed =
+          compressedPayloads.get(
+              payload,
+              () -> {
+                compressedHere[0] = true;
+                return doCompress(payload);
+              });
+    } catch (final ExecutionException e) {
+      throw new IllegalStateException(e.getCause());
+    }
+    if (!compressedHere[0]) {
+      reusedCounter.inc();
+      bytesSavedCounter.inc(payload.size());
+    }
+    return compressed;
+  }
+
+  private Bytes doCompress(final Bytes payload) {
+    compressionsCounter.inc();
+    return Bytes.wrap(compressor.compress(payload.toArrayUnsafe()));
+  }
+}
@@ -15,8 +15,6 @@
 package org.hyperledger.besu.ethereum.p2p.rlpx.framing;
 
 import static io.netty.buffer.ByteBufUtil.hexDump;
-import static io.netty.buffer.Unpooled.wrappedBuffer;
-import static org.bouncycastle.pqc.math.linearalgebra.ByteUtils.xor;
 
 import org.hyperledger.besu.ethereum.p2p.rlpx.handshake.HandshakeSecrets;
 import org.hyperledger.besu.ethereum.p2p.rlpx.handshake.Handshaker;
@@ -24,19 +22,10 @@ import org.hyperledger.besu.ethereum.p2p.rlpx.wire.MessageData;
 import org.hyperledger.besu.ethereum.p2p.rlpx.wire.RawMessage;
 import org.hyperledger.besu.ethereum.rlp.RLP;
 
-import java.util.Arrays;
-
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
 import io.netty.buffer.ByteBuf;
 import org.apache.tuweni.bytes.Bytes;
-import org.apache.tuweni.bytes.MutableBytes;
-import org.bouncycastle.crypto.BlockCipher;
-import org.bouncycastle.crypto.StreamCipher;
-import org.bouncycastle.crypto.engines.AESEngine;
-import org.bouncycastle.crypto.modes.SICBlockCipher;
-import org.bouncycastle.crypto.params.KeyParameter;
-import org.bouncycastle.crypto.params.ParametersWithIV;
 
 /**
  * This component is responsible for reading and composing RLPx protocol frames, conformant to the
@@ -49,18 +38,25 @@ import org.bouncycastle.crypto.params.ParametersWithIV;
  * fragmented frames, as well as streams of multiple messages within the same incoming buffer, as
  * long as the order of incoming bytes matches the underlying TCP sequence.
  *
+ * <p>A framer is owned by a single connection. Ingress and egress keep fully separate cipher and
+ * MAC state, so {@link #deframe(ByteBuf)} and {@link #frame(MessageData, ByteBuf)} may run
+ * concurrently, but each of them must only ever be invoked by one thread at a time, which the
+ * connection's channel pipeline guarantees.
+ *
+ * <p>The cryptographic primitives are provided by subclasses, see {@link FramerBackend}.
+ *
  * @see <a href="https://github.com/ethereum/devp2p/blob/master/rlpx.md#framing">RLPx framing</a>
  */
-public class Framer {
-  private static final int LENGTH_HEADER_DATA = 16;
-  private static final int LENGTH_MAC = 16;
-  private static final int LENGTH_FULL_HEADER = LENGTH_HEADER_DATA + LENGTH_MAC;
-  private static final int LENGTH_FRAME_SIZE = 3;
-  private static final int LENGTH_MESSAGE_ID = 1;
+public abstract class Framer {
+  protected static final int LENGTH_HEADER_DATA = 16;
+  protected static final int LENGTH_MAC = 16;
+  protected static final int LENGTH_FULL_HEADER = LENGTH_HEADER_DATA + LENGTH_MAC;
+  protected static final int LENGTH_FRAME_SIZE = 3;
+  protected static final int LENGTH_MESSAGE_ID = 1;
   private static final int LENGTH_MAX_MESSAGE_FRAME = 0xFFFFFF;
 
-  private static final byte[] IV = {0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0};
-  private static final byte[] PROTOCOL_HEADER =
+  protected static final byte[] IV = {0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0};
+  protected static final byte[] PROTOCOL_HEADER =
       RLP.encode(
               out -> {
                 out.startList();
@@ -70,34 +66,46 @@ public class Framer {
               })
           .toArray();
 
-  private final HandshakeSecrets secrets;
   private static final SnappyCompressor compressor = new SnappyCompressor();
-  private final StreamCipher encryptor;
-  private final StreamCipher decryptor;
-  private final BlockCipher macEncryptor;
   private boolean headerProcessed;
   private int frameSize;
   private boolean compressionEnabled = false;
+  private CompressedPayloadCache compressedPayloads = CompressedPayloadCache.NONE;
 
   /**
    * Creates a new framer out of the handshake secrets derived during the cryptographic handshake.
    *
+   * @param backend The implementation of the cryptographic primitives to use.
    * @param secrets The handshake secrets.
+   * @return The framer.
    */
-  public Framer(final HandshakeSecrets secrets) {
-    this.secrets = secrets;
-
-    final KeyParameter aesKey = new KeyParameter(secrets.getAesSecret());
-    final KeyParameter macKey = new KeyParameter(secrets.getMacSecret());
-
-    encryptor = new SICBlockCipher(new AESEngine());
-    encryptor.init(true, new ParametersWithIV(aesKey, IV));
-
-    decryptor = new SICBlockCipher(new AESEngine());
-    decryptor.init(false, new ParametersWithIV(aesKey, IV));
+  public static Framer create(final FramerBackend backend, final HandshakeSecrets secrets) {
+    switch (backend) {
+      case JCE:
+        return new JceFramer(secrets);
+      case BOUNCY_CASTLE:
+        return new BouncyCastleFramer(secrets);
+      default:
+        throw new IllegalArgumentException("Unsupported framer backend: " + backend);
+    }
+  }
 
-    macEncryptor = new AESEngine();
-    macEncryptor.init(true, macKey);
+  /**
+   * Creates a new framer out of the handshake secrets derived during the cryptographic handshake,
+   * sharing compressed payloads with the other framers using the same cache.
+   *
+   * @param backend The implementation of the cryptographic primitives to use.
+   * @param secrets The handshake secrets.
+   * @param compressedPayloads The cache of compressed outbound payloads.
+   * @return The framer.
+   */
+  public static Framer create(
+      final FramerBackend backend,
+      final HandshakeSecrets secrets,
+      final CompressedPayloadCache compressedPayloads) {
+    final Framer framer = create(backend, secrets);
+    framer.compressedPayloads = compressedPayloads;
+    return framer;
   }
 
   public void enableCompression() {
@@ -134,7 +142,7 @@ public class Framer {
    *     could be extracted yet.
    * @throws FramingException Thrown when a decryption or internal error occurs.
    */
-  public synchronized MessageData deframe(final ByteBuf buf) throws FramingException {
+  public MessageData deframe(final ByteBuf buf) throws FramingException {
     if (buf == null || !buf.isReadable()) {
       return null;
     }
@@ -154,7 +162,7 @@ public class Framer {
       return null;
     }
 
-    final MessageData msg = processFrame(buf.readSlice(size), frameSize);
+    final MessageData msg = decompress(processFrame(buf.readSlice(size), frameSize));
     buf.discardReadBytes();
     headerProcessed = false;
     return msg;
@@ -177,113 +185,76 @@ public class Framer {
           LENGTH_FULL_HEADER, encryptedHeader.readableBytes());
     }
 
-    // Decrypt the header.
-    final byte[] hCipher = new byte[LENGTH_HEADER_DATA];
-    final byte[] hMac = new byte[LENGTH_MAC];
-    encryptedHeader.readBytes(hCipher).readBytes(hMac);
-
-    // Header MAC validation.
-    byte[] expectedMac = new byte[16];
-    macEncryptor.processBlock(secrets.getIngressMac(), 0, expectedMac, 0);
-    expectedMac = secrets.updateIngress(xor(expectedMac, hCipher)).getIngressMac();
-    expectedMac = Arrays.copyOf(expectedMac, LENGTH_MAC);
-
-    validateMac(hMac, expectedMac);
-
-    // Perform the header decryption.
-    decryptor.processBytes(hCipher, 0, hCipher.length, hCipher, 0);
-    final ByteBuf h = wrappedBuffer(hCipher);
+    final byte[] h = decryptHeader(encryptedHeader);
 
     // Read the frame length.
-    final byte[] length = new byte[3];
-    h.readBytes(length);
-    int frameSize = length[0] & 0xff;
-    frameSize = (frameSize << 8) + (length[1] & 0xff);
-    frameSize = (frameSize << 8) + (length[2] & 0xff);
+    int frameSize = h[0] & 0xff;
+    frameSize = (frameSize << 8) + (h[1] & 0xff);
+    frameSize = (frameSize << 8) + (h[2] & 0xff);
 
     // Discard the header data (RLP): being set to fixed value 0xc28080 (list of two null
     // elements) by other clients.
-    final int headerDataLength = RLP.calculateSize(Bytes.wrapByteBuffer(h.nioBuffer()));
-    if (h.readableBytes() < headerDataLength) {
+    final int remaining = LENGTH_HEADER_DATA - LENGTH_FRAME_SIZE;
+    final int headerDataLength = RLP.calculateSize(Bytes.wrap(h, LENGTH_FRAME_SIZE, remaining));
+    if (remaining < headerDataLength) {
       throw error(
           "Expected at least %d readable bytes while processing header, remaining: %s",
-          headerDataLength, h.readableBytes());
+          headerDataLength, remaining);
     }
-    h.skipBytes(headerDataLength);
 
     // Discard padding in header (= zero-fill to 16-byte boundary).
-    h.skipBytes(padding16(LENGTH_FRAME_SIZE + headerDataLength));
-
-    if (h.readableBytes() != 0) {
-      throw error(
-          "Expected no more readable bytes while processing header, remaining: %s",
-          h.readableBytes());
+    final int unread =
+        remaining - headerDataLength - padding16(LENGTH_FRAME_SIZE + headerDataLength);
+    if (unread != 0) {
+      throw error("Expected no more readable bytes while processing header, remaining: %s", unread);
     }
 
-    h.discardReadBytes();
     return frameSize;
   }
 
   /**
-   * Parses, decrypts and performs MAC verification on a frame.
+   * Performs MAC verification on a packet header and decrypts it.
+   *
+   * @param encryptedHeader The header as seen on the wire, exactly {@link #LENGTH_FULL_HEADER}
+   *     bytes long.
+   * @return The {@link #LENGTH_HEADER_DATA} bytes of decrypted header data.
+   * @throws FramingException If the header MAC is invalid.
+   */
+  protected abstract byte[] decryptHeader(ByteBuf encryptedHeader) throws FramingException;
+
+  /**
+   * Performs MAC verification on a frame and decrypts it.
    *
    * <p>This method expects a well-formed frame, sized according to the length indicated in this
    * packet's header.
    *
-   * @param f The buffer containing
-   * @param frameSize The expected
+   * @param f The buffer containing the encrypted frame, its padding and its MAC.
+   * @param frameSize The frame size as extracted from the header.
+   * @return The message as carried in the frame, still compressed if compression is enabled.
+   * @throws FramingException If the frame MAC is invalid.
    */
-  private MessageData processFrame(final ByteBuf f, final int frameSize) {
-    final int pad = padding16(frameSize);
-    final int expectedSize = frameSize + pad + LENGTH_MAC;
-    if (f.readableBytes() != expectedSize) {
-      throw error("Expected %s bytes in header, got %s", expectedSize, f.readableBytes());
-    }
-
-    final byte[] frameData = new byte[frameSize + pad];
-    final byte[] fMac = new byte[LENGTH_MAC];
-    f.readBytes(frameData).readBytes(fMac);
-
-    // Validate the frame's MAC.
-    final byte[] fMacSeed = secrets.updateIngress(frameData).getIngressMac();
-    final byte[] fMacSeedEnc = new byte[16];
-    macEncryptor.processBlock(fMacSeed, 0, fMacSeedEnc, 0);
-    byte[] expectedMac = secrets.updateIngress(xor(fMacSeedEnc, fMacSeed)).getIngressMac();
-    expectedMac = Arrays.copyOf(expectedMac, LENGTH_MAC);
+  protected abstract MessageData processFrame(ByteBuf f, int frameSize) throws FramingException;
 
-    validateMac(fMac, expectedMac);
-
-    // Decrypt frame data.
-    decryptor.processBytes(frameData, 0, frameData.length, frameData, 0);
-
-    // Read the id.
-    final Bytes idbv = RLP.decodeOne(Bytes.of(frameData[0]));
-    final int id = idbv.isZero() || idbv.size() == 0 ? 0 : idbv.get(0);
-
-    // Write message data to ByteBuf, decompressing as necessary
-    final Bytes data;
-    if (compressionEnabled) {
-      final byte[] compressedMessageData = Arrays.copyOfRange(frameData, 1, frameData.length - pad);
-      final int uncompressedLength = compressor.uncompressedLength(compressedMessageData);
-      if (uncompressedLength >= LENGTH_MAX_MESSAGE_FRAME) {
-        throw error("Message size %s in excess of maximum length.", uncompressedLength);
-      }
-      final byte[] decompressedMessageData = compressor.decompress(compressedMessageData);
-      data = Bytes.wrap(decompressedMessageData);
-    } else {
-      // Move data to a ByteBuf
-      final int messageLength = frameSize - LENGTH_MESSAGE_ID;
-      data = Bytes.wrap(frameData, 1, messageLength);
+  private MessageData decompress(final MessageData message) {
+    if (!compressionEnabled) {
+      return message;
     }
-
-    return new RawMessage(id, data);
+    final byte[] compressedMessageData = message.getData().toArrayUnsafe();
+    final int uncompressedLength = compressor.uncompressedLength(compressedMessageData);
+    if (uncompressedLength >= LENGTH_MAX_MESSAGE_FRAME) {
+      throw error("Message size %s in excess of maximum length.", uncompressedLength);
+    }
+    final byte[] decompressedMessageData = compressor.decompress(compressedMessageData);
+    return new RawMessage(message.getCode(), Bytes.wrap(decompressedMessageData));
   }
 
-  private void validateMac(final byte[] candidateMac, final byte[] expectedMac) {
-    if (!Arrays.equals(expectedMac, candidateMac)) {
-      throw error(
-          "Frame MAC did not match expected MAC; expected: %s, received: %s",
-          hexDump(expectedMac), hexDump(candidateMac));
+  protected static void validateMac(final byte[] candidateMac, final byte[] expectedMac) {
+    for (int i = 0; i < LENGTH_MAC; i++) {
+      if (candidateMac[i] != expectedMac[i]) {
+        throw error(
+            "Frame MAC did not match expected MAC; expected: %s, received: %s",
+            hexDump(expectedMac, 0, LENGTH_MAC), hexDump(candidateMac, 0, LENGTH_MAC));
+      }
     }
   }
 
@@ -294,71 +265,63 @@ public class Framer {
    * @param message The message to frame.
    * @param output The {@link ByteBuf} to write framed data to.
    */
-  public synchronized void frame(final MessageData message, final ByteBuf output) {
+  public void frame(final MessageData message, final ByteBuf output) {
     Preconditions.checkArgument(
         message.getSize() < LENGTH_MAX_MESSAGE_FRAME, "Message size in excess of maximum length.");
     // Compress message
     if (compressionEnabled) {
-      // Extract data from message
-      // Compress data
-      final byte[] compressed = compressor.compress(message.getData().toArrayUnsafe());
+      // Compress data, or reuse the compressed form another connection produced for it
+      final Bytes compressed = compressedPayloads.compress(message.getData());
       // Construct new, compressed message
-      frameMessage(new RawMessage(message.getCode(), Bytes.wrap(compressed)), output);
+      frameMessage(new RawMessage(message.getCode(), compressed), output);
     } else {
       frameMessage(message, output);
     }
   }
 
+  /**
+   * Encrypts a message and writes it, along with its header and MACs, to the output buffer.
+   *
+   * @param message The message to frame, already compressed if compression is enabled.
+   * @param buf The {@link ByteBuf} to write framed data to.
+   */
   @VisibleForTesting
-  void frameMessage(final MessageData message, final ByteBuf buf) {
-    final int frameSize = message.getSize() + LENGTH_MESSAGE_ID;
-    final int pad = padding16(frameSize);
-
-    final byte id = (byte) message.getCode();
+  abstract void frameMessage(MessageData message, ByteBuf buf);
 
-    // Generate the header data.
-    final byte[] h = new byte[LENGTH_HEADER_DATA];
+  /**
+   * Writes the plaintext header data for a frame of the given size.
+   *
+   * @param frameSize The size of the frame, including the message id.
+   * @param h The array to write the {@link #LENGTH_HEADER_DATA} bytes of header data to.
+   */
+  protected static void writeHeaderData(final int frameSize, final byte[] h) {
     h[0] = (byte) ((frameSize >> 16) & 0xff);
     h[1] = (byte) ((frameSize >> 8) & 0xff);
     h[2] = (byte) (frameSize & 0xff);
     System.arraycopy(PROTOCOL_HEADER, 0, h, LENGTH_FRAME_SIZE, PROTOCOL_HEADER.length);
-    Arrays.fill(h, LENGTH_FRAME_SIZE + PROTOCOL_HEADER.length, h.length - 1, (byte) 0x00);
-    encryptor.processBytes(h, 0, LENGTH_HEADER_DATA, h, 0);
-
-    // Generate the header MAC.
-    byte[] hMac = Arrays.copyOf(secrets.getEgressMac(), LENGTH_MAC);
-    macEncryptor.processBlock(hMac, 0, hMac, 0);
-    hMac = secrets.updateEgress(xor(h, hMac)).getEgressMac();
-    hMac = Arrays.copyOf(hMac, LENGTH_MAC);
-    buf.writeBytes(h).writeBytes(hMac);
-
-    // Encrypt payload.
-    final MutableBytes f = MutableBytes.create(frameSize + pad);
+    for (int i = LENGTH_FRAME_SIZE + PROTOCOL_HEADER.length; i < h.length; i++) {
+      h[i] = 0x00;
+    }
+  }
 
+  protected static byte encodeMessageId(final int code) {
+    final byte id = (byte) code;
     final Bytes bv = id == 0 ? RLP.NULL : RLP.encodeOne(Bytes.of(id));
     assert bv.size() == 1;
-    f.set(0, bv.get(0));
-
-    // Zero-padded to 16-byte boundary.
-    message.getData().copyTo(f, 1);
-    encryptor.processBytes(f.toArrayUnsafe(), 0, f.size(), f.toArrayUnsafe(), 0);
-
-    // Calculate the frame MAC.
-    final byte[] fMacSeed =
-        Arrays.copyOf(secrets.updateEgress(f.toArrayUnsafe()).getEgressMac(), LENGTH_MAC);
-    byte[] fMac = new byte[16];
-    macEncryptor.processBlock(fMacSeed, 0, fMac, 0);
-    fMac = Arrays.copyOf(secrets.updateEgress(xor(fMac, fMacSeed)).getEgressMac(), LENGTH_MAC);
+    return bv.get(0);
+  }
 
-    buf.writeBytes(f.toArrayUnsafe()).writeBytes(fMac);
+  protected static int decodeMessageId(final byte encodedId) {
+    final Bytes idbv = RLP.decodeOne(Bytes.of(encodedId));
+    return idbv.isZero() || idbv.size() == 0 ? 0 : idbv.get(0);
   }
 
-  private static int padding16(final int size) {
+  protected static int padding16(final int size) {
     final int pad = size % 16;
     return pad == 0 ? 0 : 16 - pad;
   }
 
-  private static FramingException error(final String s, final Object... params) {
+  protected static FramingException error(final String s, final Object... params) {
     return new FramingException(String.format(s, params));
   }
 }
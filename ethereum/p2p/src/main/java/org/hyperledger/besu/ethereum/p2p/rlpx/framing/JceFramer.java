@@ -0,0 +1,233 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.p2p.rlpx.framing;
+
+import org.hyperledger.besu.ethereum.p2p.rlpx.handshake.HandshakeSecrets;
+import org.hyperledger.besu.ethereum.p2p.rlpx.wire.MessageData;
+import org.hyperledger.besu.ethereum.p2p.rlpx.wire.RawMessage;
+
+import java.nio.ByteBuffer;
+import java.security.GeneralSecurityException;
+import javax.crypto.Cipher;
+import javax.crypto.ShortBufferException;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+import io.netty.buffer.ByteBuf;
+import org.apache.tuweni.bytes.Bytes;
+
+/**
+ * A {@link Framer} that relies on the JCE AES ciphers, which the JVM backs with AES-NI intrinsics
+ * where the hardware supports them.
+ *
+ * <p>Frames are encrypted in place in the outbound {@link ByteBuf} and decrypted straight out of
+ * the inbound one, and MACs are computed over the buffers' memory, so the only per-frame allocation
+ * is the array holding the received payload.
+ */
+public class JceFramer extends Framer {
+  private static final String CTR_TRANSFORMATION = "AES/CTR/NoPadding";
+  private static final String ECB_TRANSFORMATION = "AES/ECB/NoPadding";
+  private static final int SCRATCH_SIZE = 4096;
+
+  private final HandshakeSecrets secrets;
+  private final Cipher encryptor;
+  private final Cipher decryptor;
+  private final Cipher egressMacEncryptor;
+  private final Cipher ingressMacEncryptor;
+  private final MacUpdater egressMacUpdater;
+  private final MacUpdater ingressMacUpdater;
+
+  // Scratch space is reused across frames and never shared between ingress and egress.
+  private final byte[] egressHeader = new byte[LENGTH_HEADER_DATA];
+  private final byte[] egressMac = new byte[LENGTH_MAC];
+  private final byte[] egressScratch = new byte[SCRATCH_SIZE];
+  private final byte[] ingressHeader = new byte[LENGTH_HEADER_DATA];
+  private final byte[] ingressMac = new byte[LENGTH_MAC];
+  private final byte[] ingressCandidateMac = new byte[LENGTH_MAC];
+  private final byte[] ingressScratch = new byte[SCRATCH_SIZE];
+
+  /**
+   * Creates a new framer out of the handshake secrets derived during the cryptographic handshake.
+   *
+   * @param secrets The handshake secrets.
+   */
+  public JceFramer(final HandshakeSecrets secrets) {
+    this.secrets = secrets;
+    this.egressMacUpdater = secrets::updateEgress;
+    this.ingressMacUpdater = secrets::updateIngress;
+
+    final SecretKeySpec aesKey = new SecretKeySpec(secrets.getAesSecret(), "AES");
+    final SecretKeySpec macKey = new SecretKeySpec(secrets.getMacSecret(), "AES");
+    try {
+      encryptor = Cipher.getInstance(CTR_TRANSFORMATION);
+      encryptor.init(Cipher.ENCRYPT_MODE, aesKey, new IvParameterSpec(IV));
+
+      decryptor = Cipher.getInstance(CTR_TRANSFORMATION);
+      decryptor.init(Cipher.DECRYPT_MODE, aesKey, new IvParameterSpec(IV));
+
+      egressMacEncryptor = Cipher.getInstance(ECB_TRANSFORMATION);
+      egressMacEncryptor.init(Cipher.ENCRYPT_MODE, macKey);
+
+      ingressMacEncryptor = Cipher.getInstance(ECB_TRANSFORMATION);
+      ingressMacEncryptor.init(Cipher.ENCRYPT_MODE, macKey);
+    } catch (final GeneralSecurityException e) {
+      throw new IllegalStateException("Unable to initialise JCE AES ciphers", e);
+    }
+  }
+
+  @Override
+  protected byte[] decryptHeader(final ByteBuf encryptedHeader) {
+    encryptedHeader.readBytes(ingressHeader).readBytes(ingressCandidateMac);
+
+    // Header MAC validation.
+    encryptBlock(ingressMacEncryptor, secrets.getIngressMac(), ingressMac);
+    xor(ingressMac, ingressHeader);
+    secrets.updateIngress(ingressMac, 0, LENGTH_MAC);
+    validateMac(ingressCandidateMac, secrets.getIngressMac());
+
+    // Perform the header decryption.
+    update(decryptor, ingressHeader, ingressHeader);
+    return ingressHeader;
+  }
+
+  @Override
+  protected MessageData processFrame(final ByteBuf f, final int frameSize) {
+    final int pad = padding16(frameSize);
+    final int start = f.readerIndex();
+    final int length = frameSize + pad;
+
+    // Validate the frame's MAC.
+    updateMac(f, start, length, ingressScratch, ingressMacUpdater);
+    final byte[] fMacSeed = secrets.getIngressMac();
+    encryptBlock(ingressMacEncryptor, fMacSeed, ingressMac);
+    xor(ingressMac, fMacSeed);
+    secrets.updateIngress(ingressMac, 0, LENGTH_MAC);
+    f.getBytes(start + length, ingressCandidateMac);
+    validateMac(ingressCandidateMac, secrets.getIngressMac());
+
+    // Decrypt the id, the message data and the padding, in stream order.
+    update(decryptor, f, start, LENGTH_MESSAGE_ID, ByteBuffer.wrap(ingressScratch));
+    final int id = decodeMessageId(ingressScratch[0]);
+    final byte[] data = new byte[frameSize - LENGTH_MESSAGE_ID];
+    update(decryptor, f, start + LENGTH_MESSAGE_ID, data.length, ByteBuffer.wrap(data));
+    update(decryptor, f, start + frameSize, pad, ByteBuffer.wrap(ingressScratch));
+
+    return new RawMessage(id, Bytes.wrap(data));
+  }
+
+  @Override
+  void frameMessage(final MessageData message, final ByteBuf buf) {
+    final int frameSize = message.getSize() + LENGTH_MESSAGE_ID;
+    final int pad = padding16(frameSize);
+    final int length = frameSize + pad;
+    buf.ensureWritable(LENGTH_FULL_HEADER + length + LENGTH_MAC);
+
+    // Generate the header data.
+    writeHeaderData(frameSize, egressHeader);
+    update(encryptor, egressHeader, egressHeader);
+
+    // Generate the header MAC.
+    encryptBlock(egressMacEncryptor, secrets.getEgressMac(), egressMac);
+    xor(egressMac, egressHeader);
+    secrets.updateEgress(egressMac, 0, LENGTH_MAC);
+    buf.writeBytes(egressHeader).writeBytes(secrets.getEgressMac(), 0, LENGTH_MAC);
+
+    // Write the frame zero-padded to 16-byte boundary, then encrypt it in place.
+    final int start = buf.writerIndex();
+    buf.writeByte(encodeMessageId(message.getCode()));
+    buf.writeBytes(message.getData().toArrayUnsafe());
+    buf.writeZero(pad);
+    for (final ByteBuffer region : buf.nioBuffers(start, length)) {
+      update(encryptor, region, region.duplicate());
+    }
+
+    // Calculate the frame MAC.
+    updateMac(buf, start, length, egressScratch, egressMacUpdater);
+    final byte[] fMacSeed = secrets.getEgressMac();
+    encryptBlock(egressMacEncryptor, fMacSeed, egressMac);
+    xor(egressMac, fMacSeed);
+    secrets.updateEgress(egressMac, 0, LENGTH_MAC);
+    buf.writeBytes(secrets.getEgressMac(), 0, LENGTH_MAC);
+  }
+
+  private static void updateMac(
+      final ByteBuf buf,
+      final int index,
+      final int length,
+      final byte[] scratch,
+      final MacUpdater updater) {
+    for (final ByteBuffer region : buf.nioBuffers(index, length)) {
+      if (region.hasArray()) {
+        updater.update(
+            region.array(), region.arrayOffset() + region.position(), region.remaining());
+      } else {
+        while (region.hasRemaining()) {
+          final int chunk = Math.min(region.remaining(), scratch.length);
+          region.get(scratch, 0, chunk);
+          updater.update(scratch, 0, chunk);
+        }
+      }
+    }
+  }
+
+  private static void encryptBlock(final Cipher cipher, final byte[] input, final byte[] output) {
+    try {
+      cipher.update(input, 0, LENGTH_MAC, output, 0);
+    } catch (final ShortBufferException e) {
+      throw new FramingException("MAC cipher output buffer too small", e);
+    }
+  }
+
+  private static void update(final Cipher cipher, final byte[] input, final byte[] output) {
+    try {
+      cipher.update(input, 0, input.length, output, 0);
+    } catch (final ShortBufferException e) {
+      throw new FramingException("Frame cipher output buffer too small", e);
+    }
+  }
+
+  private static void update(
+      final Cipher cipher,
+      final ByteBuf input,
+      final int index,
+      final int length,
+      final ByteBuffer output) {
+    if (length == 0) {
+      return;
+    }
+    for (final ByteBuffer region : input.nioBuffers(index, length)) {
+      update(cipher, region, output);
+    }
+  }
+
+  private static void update(final Cipher cipher, final ByteBuffer input, final ByteBuffer output) {
+    try {
+      cipher.update(input, output);
+    } catch (final ShortBufferException e) {
+      throw new FramingException("Frame cipher output buffer too small", e);
+    }
+  }
+
+  private static void xor(final byte[] target, final byte[] operand) {
+    for (int i = 0; i < LENGTH_MAC; i++) {
+      target[i] ^= operand[i];
+    }
+  }
+
+  @FunctionalInterface
+  private interface MacUpdater {
+    void update(byte[] bytes, int offset, int length);
+  }
+}
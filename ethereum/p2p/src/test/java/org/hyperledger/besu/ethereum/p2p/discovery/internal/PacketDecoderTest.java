@@ -0,0 +1,111 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.p2p.discovery.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.hyperledger.besu.ethereum.p2p.discovery.PeerDiscoveryPacketDecodingException;
+import org.hyperledger.besu.metrics.StubMetricsSystem;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+import com.google.common.util.concurrent.MoreExecutors;
+import io.vertx.core.buffer.Buffer;
+import org.bouncycastle.util.encoders.Hex;
+import org.junit.Test;
+
+public class PacketDecoderTest {
+
+  private static final String VALID_PONG_PACKET =
+      "a1581c1705e744976d0341011c4490b3ab0b48283407ae5cf7526b948717489613ad897c4cf167117196d21352c15bcbaec23227b22eb92a15f5cd4b0a4ef98124a679935c16bd334fbd26be55ba4344843ac4710a3f3e3684d719d48c4980660002f2cb84b4b57a1a82040182765fa046896547d3b4259aa1a67bd26e7ec58ab4be650c5552ef0360caf9dae489d53b845b872dc8";
+
+  private final StubMetricsSystem metricsSystem = new StubMetricsSystem();
+
+  @Test
+  public void decodesValidPacket() {
+    final PacketDecoder decoder = createDecoder(100);
+
+    final Packet packet = decoder.decode("10.0.0.1", pongPacket()).join();
+
+    assertThat(packet.getType()).isEqualTo(PacketType.PONG);
+    assertThat(Hex.toHexString(packet.encode().getBytes())).isEqualTo(VALID_PONG_PACKET);
+  }
+
+  @Test
+  public void reusesRecentlyDecodedPacket() {
+    final PacketDecoder decoder = createDecoder(100);
+
+    final Packet first = decoder.decode("10.0.0.1", pongPacket()).join();
+    final Packet second = decoder.decode("10.0.0.2", pongPacket()).join();
+
+    assertThat(second).isSameAs(first);
+    assertThat(metricsSystem.getCounterValue("discovery_inbound_packets_reused_total"))
+        .isEqualTo(1);
+  }
+
+  @Test
+  public void failsInvalidPacket() {
+    final PacketDecoder decoder = createDecoder(100);
+    final Buffer corrupted = pongPacket();
+    corrupted.setByte(0, (byte) (corrupted.getByte(0) + 1));
+
+    assertThatThrownBy(() -> decoder.decode("10.0.0.1", corrupted).join())
+        .isInstanceOf(CompletionException.class)
+        .hasCauseInstanceOf(PeerDiscoveryPacketDecodingException.class);
+  }
+
+  @Test
+  public void dropsPacketsFromSourceExceedingRateLimit() {
+    final PacketDecoder decoder = createDecoder(1);
+
+    assertThat(decoder.decode("10.0.0.1", pongPacket())).isCompleted();
+    final CompletableFuture<Packet> dropped = decoder.decode("10.0.0.1", pongPacket());
+    final CompletableFuture<Packet> otherSource = decoder.decode("10.0.0.2", pongPacket());
+
+    assertThatThrownBy(dropped::join).hasCauseInstanceOf(RejectedExecutionException.class);
+    assertThat(otherSource).isCompleted();
+    assertThat(
+            metricsSystem.getCounterValue(
+                "discovery_inbound_packets_dropped_total", "rate_limited"))
+        .isEqualTo(1);
+  }
+
+  @Test
+  public void dropsPacketsRejectedByPool() {
+    final ExecutorService executor = Executors.newSingleThreadExecutor();
+    executor.shutdown();
+    final PacketDecoder decoder = new PacketDecoder(executor, 100, metricsSystem);
+
+    assertThatThrownBy(() -> decoder.decode("10.0.0.1", pongPacket()).join())
+        .hasCauseInstanceOf(RejectedExecutionException.class);
+    assertThat(
+            metricsSystem.getCounterValue("discovery_inbound_packets_dropped_total", "queue_full"))
+        .isEqualTo(1);
+  }
+
+  private PacketDecoder createDecoder(final double packetsPerSecondPerSource) {
+    return new PacketDecoder(
+        MoreExecutors.newDirectExecutorService(), packetsPerSecondPerSource, metricsSystem);
+  }
+
+  private static Buffer pongPacket() {
+    return Buffer.buffer(Hex.decode(VALID_PONG_PACKET));
+  }
+}
@@ -14,11 +14,15 @@
  */
 package org.hyperledger.besu.ethereum.p2p.discovery.internal;
 
+import static java.util.Comparator.comparingInt;
+import static java.util.stream.Collectors.toList;
 import static org.assertj.core.api.Assertions.assertThat;
 
+import org.hyperledger.besu.crypto.Hash;
 import org.hyperledger.besu.crypto.SECP256K1.KeyPair;
 import org.hyperledger.besu.ethereum.p2p.discovery.DiscoveryPeer;
 import org.hyperledger.besu.ethereum.p2p.discovery.Endpoint;
+import org.hyperledger.besu.ethereum.p2p.discovery.PeerDiscoveryStatus;
 import org.hyperledger.besu.ethereum.p2p.discovery.PeerDiscoveryTestHelper;
 import org.hyperledger.besu.ethereum.p2p.discovery.internal.PeerTable.AddResult.AddOutcome;
 import org.hyperledger.besu.ethereum.p2p.discovery.internal.PeerTable.EvictResult;
@@ -26,6 +30,7 @@ import org.hyperledger.besu.ethereum.p2p.discovery.internal.PeerTable.EvictResul
 import org.hyperledger.besu.ethereum.p2p.peers.EnodeURL;
 import org.hyperledger.besu.ethereum.p2p.peers.Peer;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.OptionalInt;
 
@@ -181,4 +186,37 @@ public class PeerTableTest {
     final EvictResult evictResult = table.tryEvict(peer);
     assertThat(evictResult.getOutcome()).isEqualTo(EvictOutcome.SELF);
   }
+
+  @Test
+  public void nearestPeersMatchesPeersSortedByDistanceToTarget() {
+    final Bytes localId = Peer.randomId();
+    final PeerTable table = new PeerTable(localId, 16);
+    for (final DiscoveryPeer peer : helper.createDiscoveryPeers(100)) {
+      peer.setStatus(PeerDiscoveryStatus.BONDED);
+      table.tryAdd(peer);
+    }
+    // An unbonded peer is never returned
+    table.tryAdd(helper.createDiscoveryPeer());
+
+    final List<Bytes> targets = new ArrayList<>();
+    targets.add(localId);
+    for (int i = 0; i < 10; i++) {
+      targets.add(Peer.randomId());
+    }
+    table.streamAllPeers().limit(10).map(Peer::getId).forEach(targets::add);
+
+    for (final Bytes target : targets) {
+      final Bytes targetHash = Hash.keccak256(target);
+      final List<DiscoveryPeer> expected =
+          table
+              .streamAllPeers()
+              .filter(p -> p.getStatus() == PeerDiscoveryStatus.BONDED)
+              .sorted(
+                  comparingInt(
+                      peer -> PeerDistanceCalculator.distance(peer.keccak256(), targetHash)))
+              .limit(16)
+              .collect(toList());
+      assertThat(table.nearestPeers(target, 16)).containsExactlyElementsOf(expected);
+    }
+  }
 }
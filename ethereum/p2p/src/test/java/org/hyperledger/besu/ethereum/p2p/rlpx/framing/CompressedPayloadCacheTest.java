@@ -0,0 +1,120 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.p2p.rlpx.framing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.hyperledger.besu.metrics.StubMetricsSystem;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.junit.Test;
+
+public class CompressedPayloadCacheTest {
+
+  private final StubMetricsSystem metricsSystem = new StubMetricsSystem();
+  private final CompressedPayloadCache compressedPayloads =
+      new CompressedPayloadCache(metricsSystem);
+  private final SnappyCompressor compressor = new SnappyCompressor();
+
+  @Test
+  public void shouldCompressSamePayloadOnlyOnce() {
+    final Bytes payload = payload(CompressedPayloadCache.MIN_CACHED_SIZE * 4);
+
+    final Bytes first = compressedPayloads.compress(payload);
+    final Bytes second = compressedPayloads.compress(payload);
+    final Bytes third = compressedPayloads.compress(payload);
+
+    assertThat(first).isEqualTo(Bytes.wrap(compressor.compress(payload.toArrayUnsafe())));
+    assertThat(second).isSameAs(first);
+    assertThat(third).isSameAs(first);
+    assertThat(metricsSystem.getCounterValue("p2p_payload_compressions_total")).isEqualTo(1);
+    assertThat(metricsSystem.getCounterValue("p2p_compressed_payloads_reused_total")).isEqualTo(2);
+    assertThat(metricsSystem.getCounterValue("p2p_compression_bytes_saved_total"))
+        .isEqualTo(2L * payload.size());
+  }
+
+  @Test
+  public void shouldCompressPayloadOnlyOnceWhenFramedConcurrently() throws Exception {
+    final int threads = 8;
+    final int rounds = 20;
+    final ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      for (int round = 0; round < rounds; round++) {
+        final Bytes payload = payload(CompressedPayloadCache.MIN_CACHED_SIZE * 256);
+        final CyclicBarrier barrier = new CyclicBarrier(threads);
+        final List<Future<Bytes>> results = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+          results.add(
+              executor.submit(
+                  () -> {
+                    barrier.await();
+                    return compressedPayloads.compress(payload);
+                  }));
+        }
+        for (final Future<Bytes> result : results) {
+          assertThat(result.get(10, TimeUnit.SECONDS)).isSameAs(results.get(0).get());
+        }
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    assertThat(metricsSystem.getCounterValue("p2p_payload_compressions_total")).isEqualTo(rounds);
+    assertThat(metricsSystem.getCounterValue("p2p_compressed_payloads_reused_total"))
+        .isEqualTo(rounds * (threads - 1));
+  }
+
+  @Test
+  public void shouldNotShareCompressionOfDistinctPayloadInstances() {
+    final Bytes payload = payload(CompressedPayloadCache.MIN_CACHED_SIZE * 4);
+    final Bytes copy = Bytes.wrap(payload.toArray());
+
+    compressedPayloads.compress(payload);
+    assertThat(compressedPayloads.compress(copy))
+        .isEqualTo(Bytes.wrap(compressor.compress(payload.toArrayUnsafe())));
+
+    assertThat(metricsSystem.getCounterValue("p2p_payload_compressions_total")).isEqualTo(2);
+    assertThat(metricsSystem.getCounterValue("p2p_compressed_payloads_reused_total")).isZero();
+  }
+
+  @Test
+  public void shouldNotCacheSmallOrMutablePayloads() {
+    final Bytes small = payload(CompressedPayloadCache.MIN_CACHED_SIZE - 1);
+    final Bytes mutable = payload(CompressedPayloadCache.MIN_CACHED_SIZE * 4).mutableCopy();
+
+    compressedPayloads.compress(small);
+    compressedPayloads.compress(small);
+    compressedPayloads.compress(mutable);
+    compressedPayloads.compress(mutable);
+
+    assertThat(metricsSystem.getCounterValue("p2p_payload_compressions_total")).isEqualTo(4);
+    assertThat(metricsSystem.getCounterValue("p2p_compressed_payloads_reused_total")).isZero();
+  }
+
+  private static Bytes payload(final int size) {
+    final byte[] payload = new byte[size];
+    new Random(1).nextBytes(payload);
+    return Bytes.wrap(payload);
+  }
+}
@@ -29,8 +29,11 @@ import org.hyperledger.besu.ethereum.p2p.rlpx.wire.MessageData;
 import org.hyperledger.besu.ethereum.p2p.rlpx.wire.RawMessage;
 import org.hyperledger.besu.ethereum.p2p.rlpx.wire.messages.DisconnectMessage;
 import org.hyperledger.besu.ethereum.p2p.rlpx.wire.messages.DisconnectMessage.DisconnectReason;
+import org.hyperledger.besu.metrics.noop.NoOpMetricsSystem;
 
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 import java.util.Random;
 
@@ -40,11 +43,23 @@ import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
 import org.apache.tuweni.bytes.Bytes;
 import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameter;
+import org.junit.runners.Parameterized.Parameters;
 import org.xerial.snappy.Snappy;
 
+@RunWith(Parameterized.class)
 public class FramerTest {
   private static final ObjectMapper MAPPER = new ObjectMapper();
 
+  @Parameters(name = "{0}")
+  public static Collection<FramerBackend> data() {
+    return Arrays.asList(FramerBackend.values());
+  }
+
+  @Parameter public FramerBackend backend;
+
   @Test
   public void shouldThrowExceptionWhenFramingMessageTooLong() {
     final byte[] aes = {
@@ -61,7 +76,7 @@ public class FramerTest {
     final MessageData ethMessage = new RawMessage(0x00, Bytes.wrap(byteArray));
 
     final HandshakeSecrets secrets = new HandshakeSecrets(aes, mac, mac);
-    final Framer framer = new Framer(secrets);
+    final Framer framer = Framer.create(backend, secrets);
 
     assertThatExceptionOfType(IllegalArgumentException.class)
         .isThrownBy(() -> framer.frame(ethMessage, Unpooled.buffer()))
@@ -78,7 +93,7 @@ public class FramerTest {
     //
     final JsonNode td = MAPPER.readTree(FramerTest.class.getResource("/peer1.json"));
     final HandshakeSecrets secrets = secretsFrom(td, false);
-    final Framer framer = new Framer(secrets);
+    final Framer framer = Framer.create(backend, secrets);
     framer.enableCompression();
 
     final byte[] byteArray = Snappy.compress(new byte[0x1000000]);
@@ -88,7 +103,7 @@ public class FramerTest {
     framer.frameMessage(ethMessage, framedMessage);
 
     final HandshakeSecrets deframeSecrets = secretsFrom(td, true);
-    final Framer deframer = new Framer(deframeSecrets);
+    final Framer deframer = Framer.create(backend, deframeSecrets);
     deframer.enableCompression();
 
     assertThatExceptionOfType(FramingException.class)
@@ -102,7 +117,7 @@ public class FramerTest {
     final JsonNode td = MAPPER.readTree(FramerTest.class.getResource("/peer2.json"));
     final HandshakeSecrets secrets = secretsFrom(td, false);
 
-    final Framer framer = new Framer(secrets);
+    final Framer framer = Framer.create(backend, secrets);
     final JsonNode m = td.get("messages").get(0);
 
     assertThatCode(() -> framer.deframe(wrappedBuffer(decodeHexDump(m.get("data").asText()))))
@@ -113,7 +128,7 @@ public class FramerTest {
   public void deframeExcessDataThrowsException() throws IOException {
     final JsonNode td = MAPPER.readTree(FramerTest.class.getResource("/peer2.json"));
     final HandshakeSecrets secrets = secretsFrom(td, false);
-    final Framer framer = new Framer(secrets);
+    final Framer framer = Framer.create(backend, secrets);
 
     // frame has 19 byte protocol header
     final ByteBuf badFrame =
@@ -137,7 +152,7 @@ public class FramerTest {
 
     messages.forEach(n -> buf.writeBytes(decodeHexDump(n.get("data").asText())));
 
-    final Framer framer = new Framer(secrets);
+    final Framer framer = Framer.create(backend, secrets);
     int i = 0;
     for (MessageData m = framer.deframe(buf); m != null; m = framer.deframe(buf)) {
       final int expectedFrameSize = messages.get(i++).get("frame_size").asInt();
@@ -167,7 +182,7 @@ public class FramerTest {
     final ByteBuf all = buffer();
     messages.forEach(n -> all.writeBytes(decodeHexDump(n.get("data").asText())));
 
-    final Framer framer = new Framer(secrets);
+    final Framer framer = Framer.create(backend, secrets);
 
     int i = 0;
     final ByteBuf in = buffer();
@@ -194,7 +209,7 @@ public class FramerTest {
     //
     final JsonNode td = MAPPER.readTree(FramerTest.class.getResource("/peer1.json"));
     HandshakeSecrets secrets = secretsFrom(td, false);
-    Framer framer = new Framer(secrets);
+    Framer framer = Framer.create(backend, secrets);
 
     final JsonNode messages = td.get("messages");
     final List<MessageData> decrypted =
@@ -205,7 +220,7 @@ public class FramerTest {
             .collect(toList());
 
     secrets = secretsFrom(td, true);
-    framer = new Framer(secrets);
+    framer = Framer.create(backend, secrets);
 
     for (int i = 0; i < decrypted.size(); i++) {
       final ByteBuf b = Unpooled.buffer();
@@ -230,8 +245,8 @@ public class FramerTest {
             Bytes.fromHexString(
                     "0xc9d3385b1588a5969cba312f8c29bedb4cb9d56ec0cf825436addc1ec644f1d6")
                 .toArray());
-    final Framer receivingFramer = new Framer(secrets);
-    final Framer sendingFramer = new Framer(secrets);
+    final Framer receivingFramer = Framer.create(backend, secrets);
+    final Framer sendingFramer = Framer.create(backend, secrets);
 
     // Write a disconnect message with compression disabled.
     final ByteBuf out = Unpooled.buffer();
@@ -242,6 +257,56 @@ public class FramerTest {
     assertThatThrownBy(() -> receivingFramer.deframe(out)).isInstanceOf(FramingException.class);
   }
 
+  @Test
+  public void deframeMessageFramedByEveryBackend() throws IOException {
+    final JsonNode td = MAPPER.readTree(FramerTest.class.getResource("/peer1.json"));
+    final byte[] payload = new byte[1000];
+    new Random(1).nextBytes(payload);
+    final MessageData message = new RawMessage(0x10, Bytes.wrap(payload));
+
+    for (final FramerBackend senderBackend : FramerBackend.values()) {
+      final Framer sender = Framer.create(senderBackend, secretsFrom(td, true));
+      final Framer receiver = Framer.create(backend, secretsFrom(td, false));
+      sender.enableCompression();
+      receiver.enableCompression();
+
+      // Direct buffers exercise the paths that can't access a backing array.
+      final ByteBuf framed = Unpooled.directBuffer();
+      sender.frame(message, framed);
+      sender.frame(message, framed);
+
+      for (int i = 0; i < 2; i++) {
+        final MessageData received = receiver.deframe(framed);
+        assertThat(received.getCode()).isEqualTo(message.getCode());
+        assertThat(received.getData()).isEqualTo(message.getData());
+      }
+      assertThat(framed.readableBytes()).isZero();
+    }
+  }
+
+  @Test
+  public void framersSharingCompressedPayloadsProduceSameFrames() throws IOException {
+    final JsonNode td = MAPPER.readTree(FramerTest.class.getResource("/peer1.json"));
+    final byte[] payload = new byte[4096];
+    new Random(1).nextBytes(payload);
+    final MessageData message = new RawMessage(0x10, Bytes.wrap(payload));
+    final CompressedPayloadCache compressedPayloads =
+        new CompressedPayloadCache(new NoOpMetricsSystem());
+
+    final ByteBuf expected = Unpooled.buffer();
+    final Framer unshared = Framer.create(backend, secretsFrom(td, true));
+    unshared.enableCompression();
+    unshared.frame(message, expected);
+
+    for (int i = 0; i < 2; i++) {
+      final ByteBuf framed = Unpooled.buffer();
+      final Framer shared = Framer.create(backend, secretsFrom(td, true), compressedPayloads);
+      shared.enableCompression();
+      shared.frame(message, framed);
+      assertThat(framed).isEqualTo(expected);
+    }
+  }
+
   private HandshakeSecrets secretsFrom(final JsonNode td, final boolean swap) {
     final byte[] aes = decodeHexDump(td.get("aes_secret").asText());
     final byte[] mac = decodeHexDump(td.get("mac_secret").asText());
@@ -21,6 +21,7 @@ import org.hyperledger.besu.ethereum.core.Address;
 import org.hyperledger.besu.ethereum.p2p.peers.EnodeURL;
 import org.hyperledger.besu.ethereum.permissioning.node.NodePermissioningProvider;
 import org.hyperledger.besu.ethereum.transaction.CallParameter;
+import org.hyperledger.besu.ethereum.transaction.StateReads;
 import org.hyperledger.besu.ethereum.transaction.TransactionSimulator;
 import org.hyperledger.besu.ethereum.transaction.TransactionSimulatorResult;
 import org.hyperledger.besu.metrics.BesuMetricCategory;
@@ -48,6 +49,7 @@ public class NodeSmartContractPermissioningController implements NodePermissioni
   private final Counter checkCounter;
   private final Counter checkCounterPermitted;
   private final Counter checkCounterUnpermitted;
+  private final SmartContractPermissioningCache cache;
 
   // The first 4 bytes of the hash of the full textual signature of the function is used in
   // contract calls to determine the function being called
@@ -90,6 +92,13 @@ public class NodeSmartContractPermissioningController implements NodePermissioni
             BesuMetricCategory.PERMISSIONING,
             "node_smart_contract_check_count_unpermitted",
             "Number of times the node smart contract permissioning provider has been checked and returned unpermitted");
+    this.cache =
+        new SmartContractPermissioningCache(
+            transactionSimulator,
+            metricsSystem.createCounter(
+                BesuMetricCategory.PERMISSIONING,
+                "node_smart_contract_check_count_cached",
+                "Number of times the node smart contract permissioning provider has been checked and returned a result cached for an unchanged contract state"));
   }
 
   /**
@@ -103,6 +112,11 @@ public class NodeSmartContractPermissioningController implements NodePermissioni
   public boolean isPermitted(final EnodeURL sourceEnode, final EnodeURL destinationEnode) {
     this.checkCounter.inc();
     final Bytes payload = createPayload(sourceEnode, destinationEnode);
+    final Optional<Boolean> cachedResult = cache.get(payload);
+    if (cachedResult.isPresent()) {
+      return permitted(cachedResult.get());
+    }
+
     final CallParameter callParams =
         new CallParameter(null, contractAddress, -1, null, null, payload);
 
@@ -113,8 +127,9 @@ public class NodeSmartContractPermissioningController implements NodePermissioni
       throw new IllegalStateException("Permissioning contract does not exist");
     }
 
+    final StateReads reads = new StateReads();
     final Optional<TransactionSimulatorResult> result =
-        transactionSimulator.processAtHead(callParams);
+        transactionSimulator.processAtHead(callParams, reads);
 
     if (result.isPresent()) {
       switch (result.get().getResult().getStatus()) {
@@ -127,7 +142,16 @@ public class NodeSmartContractPermissioningController implements NodePermissioni
       }
     }
 
-    if (result.map(r -> checkTransactionResult(r.getOutput())).orElse(false)) {
+    if (result.isEmpty()) {
+      return permitted(false);
+    }
+    final boolean permitted = checkTransactionResult(result.get().getOutput());
+    cache.put(payload, reads, permitted);
+    return permitted(permitted);
+  }
+
+  private boolean permitted(final boolean permitted) {
+    if (permitted) {
       this.checkCounterPermitted.inc();
       return true;
     } else {
@@ -0,0 +1,87 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.permissioning;
+
+import org.hyperledger.besu.ethereum.transaction.StateReads;
+import org.hyperledger.besu.ethereum.transaction.TransactionSimulator;
+import org.hyperledger.besu.plugin.services.metrics.Counter;
+
+import java.util.Optional;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.apache.tuweni.bytes.Bytes;
+
+/**
+ * Memoizes the results of permissioning contract calls, keyed by call payload.
+ *
+ * <p>A result stays valid across new chain heads for as long as the accounts and storage slots the
+ * call read are unchanged, which is the case for most blocks since they rarely touch the
+ * permissioning contracts.
+ */
+class SmartContractPermissioningCache {
+  private static final int MAX_ENTRIES = 10_000;
+
+  private final Cache<Bytes, Entry> entries =
+      CacheBuilder.newBuilder().maximumSize(MAX_ENTRIES).build();
+  private final TransactionSimulator transactionSimulator;
+  private final Counter hitCounter;
+
+  SmartContractPermissioningCache(
+      final TransactionSimulator transactionSimulator, final Counter hitCounter) {
+    this.transactionSimulator = transactionSimulator;
+    this.hitCounter = hitCounter;
+  }
+
+  /**
+   * Gets the result of a call at the chain head, if it is known.
+   *
+   * @param payload the payload of the call.
+   * @return whether the call permitted the check, or empty if the result is not known.
+   */
+  Optional<Boolean> get(final Bytes payload) {
+    final Entry entry = entries.getIfPresent(payload);
+    if (entry == null) {
+      return Optional.empty();
+    }
+    if (!transactionSimulator.isUnchangedAtHead(entry.reads)) {
+      entries.invalidate(payload);
+      return Optional.empty();
+    }
+    hitCounter.inc();
+    return Optional.of(entry.permitted);
+  }
+
+  /**
+   * Records the result of a call.
+   *
+   * @param payload the payload of the call.
+   * @param reads the world state reads of the call.
+   * @param permitted whether the call permitted the check.
+   */
+  void put(final Bytes payload, final StateReads reads, final boolean permitted) {
+    entries.put(payload, new Entry(reads, permitted));
+  }
+
+  private static class Entry {
+    private final StateReads reads;
+    private final boolean permitted;
+
+    private Entry(final StateReads reads, final boolean permitted) {
+      this.reads = reads;
+      this.permitted = permitted;
+    }
+  }
+}
@@ -22,6 +22,7 @@ import org.hyperledger.besu.ethereum.core.Address;
 import org.hyperledger.besu.ethereum.core.Transaction;
 import org.hyperledger.besu.ethereum.permissioning.account.TransactionPermissioningProvider;
 import org.hyperledger.besu.ethereum.transaction.CallParameter;
+import org.hyperledger.besu.ethereum.transaction.StateReads;
 import org.hyperledger.besu.ethereum.transaction.TransactionSimulator;
 import org.hyperledger.besu.ethereum.transaction.TransactionSimulatorResult;
 import org.hyperledger.besu.metrics.BesuMetricCategory;
@@ -54,6 +55,7 @@ public class TransactionSmartContractPermissioningController
   private final Counter checkCounterPermitted;
   private final Counter checkCounter;
   private final Counter checkCounterUnpermitted;
+  private final SmartContractPermissioningCache cache;
 
   // The first 4 bytes of the hash of the full textual signature of the function is used in
   // contract calls to determine the function being called
@@ -96,6 +98,13 @@ public class TransactionSmartContractPermissioningController
             BesuMetricCategory.PERMISSIONING,
             "transaction_smart_contract_check_count_unpermitted",
             "Number of times the transaction smart contract permissioning provider has been checked and returned unpermitted");
+    this.cache =
+        new SmartContractPermissioningCache(
+            transactionSimulator,
+            metricsSystem.createCounter(
+                BesuMetricCategory.PERMISSIONING,
+                "transaction_smart_contract_check_count_cached",
+                "Number of times the transaction smart contract permissioning provider has been checked and returned a result cached for an unchanged contract state"));
   }
 
   /**
@@ -113,6 +122,11 @@ public class TransactionSmartContractPermissioningController
 
     this.checkCounter.inc();
     final Bytes payload = createPayload(transaction);
+    final Optional<Boolean> cachedResult = cache.get(payload);
+    if (cachedResult.isPresent()) {
+      return permitted(cachedResult.get(), transactionHash, sender);
+    }
+
     final CallParameter callParams =
         new CallParameter(null, contractAddress, -1, null, null, payload);
 
@@ -127,8 +141,9 @@ public class TransactionSmartContractPermissioningController
       return true;
     }
 
+    final StateReads reads = new StateReads();
     final Optional<TransactionSimulatorResult> result =
-        transactionSimulator.processAtHead(callParams);
+        transactionSimulator.processAtHead(callParams, reads);
 
     if (result.isPresent()) {
       switch (result.get().getResult().getStatus()) {
@@ -143,7 +158,19 @@ public class TransactionSmartContractPermissioningController
       }
     }
 
-    if (result.map(r -> checkTransactionResult(r.getOutput())).orElse(false)) {
+    if (result.isEmpty()) {
+      return permitted(false, transactionHash, sender);
+    }
+    final boolean permitted = checkTransactionResult(result.get().getOutput());
+    cache.put(payload, reads, permitted);
+    return permitted(permitted, transactionHash, sender);
+  }
+
+  private boolean permitted(
+      final boolean permitted,
+      final org.hyperledger.besu.ethereum.core.Hash transactionHash,
+      final Address sender) {
+    if (permitted) {
       this.checkCounterPermitted.inc();
       LOG.trace(
           "Account permissioning - Smart Contract: Permitted transaction {} from {}",
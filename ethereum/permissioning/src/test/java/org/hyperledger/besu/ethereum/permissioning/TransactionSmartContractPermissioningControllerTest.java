@@ -15,6 +15,7 @@
 package org.hyperledger.besu.ethereum.permissioning;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Collections.emptyList;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.hyperledger.besu.ethereum.core.InMemoryStorageProvider.createInMemoryBlockchain;
@@ -28,8 +29,14 @@ import org.hyperledger.besu.crypto.SECP256K1.Signature;
 import org.hyperledger.besu.ethereum.chain.GenesisState;
 import org.hyperledger.besu.ethereum.chain.MutableBlockchain;
 import org.hyperledger.besu.ethereum.core.Address;
+import org.hyperledger.besu.ethereum.core.Block;
+import org.hyperledger.besu.ethereum.core.BlockBody;
+import org.hyperledger.besu.ethereum.core.BlockHeader;
+import org.hyperledger.besu.ethereum.core.BlockHeaderTestFixture;
+import org.hyperledger.besu.ethereum.core.MutableWorldState;
 import org.hyperledger.besu.ethereum.core.Transaction;
 import org.hyperledger.besu.ethereum.core.Wei;
+import org.hyperledger.besu.ethereum.core.WorldUpdater;
 import org.hyperledger.besu.ethereum.mainnet.MainnetProtocolSchedule;
 import org.hyperledger.besu.ethereum.mainnet.ProtocolSchedule;
 import org.hyperledger.besu.ethereum.transaction.TransactionSimulator;
@@ -40,9 +47,11 @@ import org.hyperledger.besu.plugin.services.metrics.Counter;
 
 import java.io.IOException;
 import java.math.BigInteger;
+import java.util.function.Consumer;
 
 import com.google.common.io.Resources;
 import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.units.bigints.UInt256;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
@@ -54,6 +63,10 @@ public class TransactionSmartContractPermissioningControllerTest {
   @Mock private Counter checkCounter;
   @Mock private Counter checkPermittedCounter;
   @Mock private Counter checkUnpermittedCounter;
+  @Mock private Counter checkCachedCounter;
+
+  private MutableBlockchain blockchain;
+  private WorldStateArchive worldArchive;
 
   private TransactionSmartContractPermissioningController setupController(
       final String resourceName, final String contractAddressString) throws IOException {
@@ -64,8 +77,8 @@ public class TransactionSmartContractPermissioningControllerTest {
     final GenesisState genesisState =
         GenesisState.fromConfig(GenesisConfigFile.fromConfig(emptyContractFile), protocolSchedule);
 
-    final MutableBlockchain blockchain = createInMemoryBlockchain(genesisState.getBlock());
-    final WorldStateArchive worldArchive = createInMemoryWorldStateArchive();
+    blockchain = createInMemoryBlockchain(genesisState.getBlock());
+    worldArchive = createInMemoryWorldStateArchive();
 
     genesisState.writeStateTo(worldArchive.getMutable());
 
@@ -91,6 +104,12 @@ public class TransactionSmartContractPermissioningControllerTest {
             "Number of times the transaction smart contract permissioning provider has been checked and returned unpermitted"))
         .thenReturn(checkUnpermittedCounter);
 
+    when(metricsSystem.createCounter(
+            BesuMetricCategory.PERMISSIONING,
+            "transaction_smart_contract_check_count_cached",
+            "Number of times the transaction smart contract permissioning provider has been checked and returned a result cached for an unchanged contract state"))
+        .thenReturn(checkCachedCounter);
+
     return new TransactionSmartContractPermissioningController(contractAddress, ts, metricsSystem);
   }
 
@@ -160,6 +179,84 @@ public class TransactionSmartContractPermissioningControllerTest {
     verifyCountersUnpermitted();
   }
 
+  @Test
+  public void testRepeatedCheckIsCached() throws IOException {
+    final TransactionSmartContractPermissioningController controller =
+        setupController(
+            "/TransactionSmartContractPermissioningControllerTest/preseededSmartPermissioning.json",
+            "0x0000000000000000000000000000000000001234");
+    final Transaction transaction = transactionForAccount(Address.fromHexString("0x1"));
+
+    assertThat(controller.isPermitted(transaction)).isTrue();
+    verify(checkCachedCounter, times(0)).inc();
+
+    assertThat(controller.isPermitted(transaction)).isTrue();
+    verify(checkCounter, times(2)).inc();
+    verify(checkPermittedCounter, times(2)).inc();
+    verify(checkCachedCounter, times(1)).inc();
+  }
+
+  @Test
+  public void testCachedResultIsDroppedWhenContractStorageChanges() throws IOException {
+    final Address contractAddress =
+        Address.fromHexString("0x0000000000000000000000000000000000001234");
+    final TransactionSmartContractPermissioningController controller =
+        setupController(
+            "/TransactionSmartContractPermissioningControllerTest/preseededSmartPermissioning.json",
+            contractAddress.toHexString());
+    final Transaction transaction = transactionForAccount(Address.fromHexString("0x1"));
+
+    assertThat(controller.isPermitted(transaction)).isTrue();
+
+    // Remove the sender from the whitelist in a new head block
+    appendBlock(
+        updater ->
+            updater
+                .getAccount(contractAddress)
+                .getMutable()
+                .setStorageValue(
+                    UInt256.fromHexString(
+                        "0xada5013122d395ba3c54772283fb069b10426056ef8ca54750cb9bb552a59e7d"),
+                    UInt256.ZERO));
+
+    assertThat(controller.isPermitted(transaction)).isFalse();
+    verify(checkCachedCounter, times(0)).inc();
+    verify(checkUnpermittedCounter, times(1)).inc();
+  }
+
+  @Test
+  public void testCachedResultIsKeptWhenOtherAccountsChange() throws IOException {
+    final TransactionSmartContractPermissioningController controller =
+        setupController(
+            "/TransactionSmartContractPermissioningControllerTest/preseededSmartPermissioning.json",
+            "0x0000000000000000000000000000000000001234");
+    final Transaction transaction = transactionForAccount(Address.fromHexString("0x1"));
+
+    assertThat(controller.isPermitted(transaction)).isTrue();
+
+    appendBlock(updater -> updater.createAccount(Address.fromHexString("0x5678"), 0, Wei.of(1)));
+
+    assertThat(controller.isPermitted(transaction)).isTrue();
+    verify(checkCachedCounter, times(1)).inc();
+  }
+
+  private void appendBlock(final Consumer<WorldUpdater> stateChanges) {
+    final BlockHeader parent = blockchain.getChainHeadHeader();
+    final MutableWorldState worldState = worldArchive.getMutable(parent.getStateRoot()).get();
+    final WorldUpdater updater = worldState.updater();
+    stateChanges.accept(updater);
+    updater.commit();
+    worldState.persist();
+    final BlockHeader header =
+        new BlockHeaderTestFixture()
+            .number(parent.getNumber() + 1)
+            .parentHash(parent.getHash())
+            .gasLimit(parent.getGasLimit())
+            .stateRoot(worldState.rootHash())
+            .buildHeader();
+    blockchain.appendBlock(new Block(header, BlockBody.empty()), emptyList());
+  }
+
   @Test
   public void testPermissioningContractMissing() throws IOException {
     final TransactionSmartContractPermissioningController controller =
@@ -201,7 +201,7 @@ public class NodePermissioningControllerFactoryTest {
         new PermissioningConfiguration(
             Optional.empty(), Optional.of(smartContractPermissioningConfiguration));
 
-    when(transactionSimulator.processAtHead(any())).thenThrow(new RuntimeException());
+    when(transactionSimulator.processAtHead(any(), any())).thenThrow(new RuntimeException());
 
     final Throwable thrown =
         catchThrowable(
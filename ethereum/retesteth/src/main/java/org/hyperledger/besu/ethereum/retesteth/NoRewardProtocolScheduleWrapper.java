@@ -22,6 +22,7 @@ import org.hyperledger.besu.ethereum.core.Wei;
 import org.hyperledger.besu.ethereum.mainnet.BlockProcessor;
 import org.hyperledger.besu.ethereum.mainnet.MainnetBlockImporter;
 import org.hyperledger.besu.ethereum.mainnet.MainnetBlockProcessor;
+import org.hyperledger.besu.ethereum.mainnet.ParallelTransactionExecutor;
 import org.hyperledger.besu.ethereum.mainnet.ProtocolSchedule;
 import org.hyperledger.besu.ethereum.mainnet.ProtocolSpec;
 import org.hyperledger.besu.ethereum.worldstate.WorldStateArchive;
@@ -91,4 +92,10 @@ public class NoRewardProtocolScheduleWrapper<C> implements ProtocolSchedule<C> {
       final WorldStateArchive publicWorldStateArchive) {
     delegate.setPublicWorldStateArchiveForPrivacyBlockProcessor(publicWorldStateArchive);
   }
+
+  @Override
+  public void setParallelTransactionExecutor(
+      final ParallelTransactionExecutor parallelTransactionExecutor) {
+    delegate.setParallelTransactionExecutor(parallelTransactionExecutor);
+  }
 }
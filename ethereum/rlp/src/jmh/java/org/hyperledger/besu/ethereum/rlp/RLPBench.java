@@ -16,9 +16,12 @@ package org.hyperledger.besu.ethereum.rlp;
 
 import org.hyperledger.besu.ethereum.rlp.util.RLPTestUtil;
 
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
 import org.apache.tuweni.bytes.Bytes;
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.Level;
@@ -26,6 +29,7 @@ import org.openjdk.jmh.annotations.Param;
 import org.openjdk.jmh.annotations.Scope;
 import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
 
 @State(Scope.Benchmark)
 public class RLPBench {
@@ -61,11 +65,20 @@ public class RLPBench {
 
   volatile Object toEncode;
   volatile Bytes toDecode;
+  ByteBuffer byteBuffer;
+  ByteBuf byteBuf;
 
   @Setup(Level.Trial)
   public void prepare() {
     toEncode = generate(depth, width, size);
     toDecode = RLPTestUtil.encode(toEncode);
+    byteBuffer = ByteBuffer.allocateDirect(toDecode.size());
+    byteBuf = PooledByteBufAllocator.DEFAULT.directBuffer(toDecode.size());
+  }
+
+  @TearDown(Level.Trial)
+  public void release() {
+    byteBuf.release();
   }
 
   @Benchmark
@@ -73,6 +86,23 @@ public class RLPBench {
     return RLPTestUtil.encode(toEncode);
   }
 
+  @Benchmark
+  public byte[] getBenchmarkEncodingToArray() {
+    return RLP.encodeToArray(out -> RLPTestUtil.encode(toEncode, out));
+  }
+
+  @Benchmark
+  public int getBenchmarkEncodingToByteBuffer() {
+    byteBuffer.clear();
+    return RLP.encodeTo(out -> RLPTestUtil.encode(toEncode, out), byteBuffer);
+  }
+
+  @Benchmark
+  public int getBenchmarkEncodingToByteBuf() {
+    byteBuf.clear();
+    return RLP.encodeTo(out -> RLPTestUtil.encode(toEncode, out), byteBuf);
+  }
+
   @Benchmark
   public Object getBenchmarkDecoding() {
     return RLPTestUtil.decode(toDecode);
@@ -424,6 +424,20 @@ abstract class AbstractRLPInput implements RLPInput {
     return res;
   }
 
+  @Override
+  public Bytes currentListAsBytes() {
+    if (currentItem >= size) {
+      throw error("Cannot read list, input is fully consumed");
+    }
+    if (!currentKind.isList()) {
+      throw error("Expected current item to be a list, but it is: " + currentKind);
+    }
+    final long next = nextItem();
+    final Bytes res = inputSlice(currentItem, Math.toIntExact(next - currentItem));
+    setTo(next);
+    return res;
+  }
+
   @Override
   public int enterList() {
     return enterList(false);
@@ -0,0 +1,80 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.rlp;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+
+import java.nio.ByteBuffer;
+
+import org.apache.tuweni.bytes.Bytes;
+
+/**
+ * An {@link RLPOutput} that writes its encoding straight into a {@link ByteBuffer}, using the list
+ * sizes computed by a {@link SizingRLPOutput} for the same values.
+ *
+ * <p>Every list header is written as soon as the list is started, so nothing is buffered. Writing
+ * anything else than what was sized is detected, either by the buffer overflowing or by {@link
+ * #checkComplete()}.
+ */
+final class ByteBufferRLPOutput implements RLPOutput {
+
+  private static final String SIZING_MISMATCH = "RLP writer wrote different values when sized";
+
+  private final ByteBuffer buffer;
+  private final int[] payloadSizes;
+  private final int listsCount;
+  private int lastList;
+  private int depth;
+
+  ByteBufferRLPOutput(final ByteBuffer buffer, final SizingRLPOutput sizes) {
+    this.buffer = buffer;
+    this.payloadSizes = sizes.payloadSizes();
+    this.listsCount = sizes.listsCount();
+  }
+
+  @Override
+  public void writeBytes(final Bytes v) {
+    RLPEncodingHelpers.writeElement(v, buffer);
+  }
+
+  @Override
+  public void writeLongScalar(final long v) {
+    checkArgument(v >= 0, "Invalid negative value %s for scalar encoding", v);
+    RLPEncodingHelpers.writeScalar(v, buffer);
+  }
+
+  @Override
+  public void writeRLPUnsafe(final Bytes v) {
+    v.appendTo(buffer);
+  }
+
+  @Override
+  public void startList() {
+    checkState(++lastList < listsCount, SIZING_MISMATCH);
+    RLPEncodingHelpers.writeListHeader(payloadSizes[lastList], buffer);
+    ++depth;
+  }
+
+  @Override
+  public void endList() {
+    checkState(depth > 0, "LeaveList() called with no prior matching startList()");
+    --depth;
+  }
+
+  void checkComplete() {
+    checkState(depth == 0 && lastList == listsCount - 1 && !buffer.hasRemaining(), SIZING_MISMATCH);
+  }
+}
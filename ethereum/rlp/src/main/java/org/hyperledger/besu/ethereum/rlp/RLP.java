@@ -14,10 +14,13 @@
  */
 package org.hyperledger.besu.ethereum.rlp;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static java.lang.String.format;
 
+import java.nio.ByteBuffer;
 import java.util.function.Consumer;
 
+import io.netty.buffer.ByteBuf;
 import io.vertx.core.buffer.Buffer;
 import org.apache.tuweni.bytes.Bytes;
 import org.apache.tuweni.bytes.MutableBytes;
@@ -104,6 +107,94 @@ public abstract class RLP {
     return out.encoded();
   }
 
+  /**
+   * RLP encodes some data straight into a byte array of the exact encoded size.
+   *
+   * <p>Unlike {@link #encode(Consumer)}, this does not keep the written values until the encoding
+   * is complete, but invokes {@code writer} twice: once to compute the size of every list, and once
+   * to write the encoding. {@code writer} must therefore write the same values on each invocation.
+   *
+   * @param writer A method that given an {@link RLPOutput}, writes some data to it.
+   * @return The RLP encoding of the data written by {@code writer}.
+   */
+  public static byte[] encodeToArray(final Consumer<RLPOutput> writer) {
+    final SizingRLPOutput sizes = size(writer);
+    final byte[] encoded = new byte[sizes.encodedSize()];
+    write(writer, sizes, ByteBuffer.wrap(encoded));
+    return encoded;
+  }
+
+  /**
+   * RLP encodes some data straight into a {@link ByteBuffer}, starting at its current position.
+   *
+   * <p>As with {@link #encodeToArray(Consumer)}, {@code writer} is invoked twice and must write the
+   * same values on each invocation.
+   *
+   * @param writer A method that given an {@link RLPOutput}, writes some data to it.
+   * @param buffer The buffer to write the encoding to. Its position is advanced past the encoding.
+   * @return The size of the encoding.
+   * @throws IllegalArgumentException if the encoding does not fit in the remaining space of {@code
+   *     buffer}.
+   */
+  public static int encodeTo(final Consumer<RLPOutput> writer, final ByteBuffer buffer) {
+    final SizingRLPOutput sizes = size(writer);
+    final int size = sizes.encodedSize();
+    checkArgument(
+        size <= buffer.remaining(),
+        "RLP encoding of size %s does not fit in %s remaining bytes",
+        size,
+        buffer.remaining());
+    final int position = buffer.position();
+    final ByteBuffer target = buffer.slice();
+    target.limit(size);
+    write(writer, sizes, target);
+    buffer.position(position + size);
+    return size;
+  }
+
+  /**
+   * RLP encodes some data straight into a {@link ByteBuf}, starting at its writer index.
+   *
+   * <p>As with {@link #encodeToArray(Consumer)}, {@code writer} is invoked twice and must write the
+   * same values on each invocation.
+   *
+   * @param writer A method that given an {@link RLPOutput}, writes some data to it.
+   * @param buffer The buffer to write the encoding to. It is expanded if needed, and its writer
+   *     index is advanced past the encoding.
+   * @return The size of the encoding.
+   */
+  public static int encodeTo(final Consumer<RLPOutput> writer, final ByteBuf buffer) {
+    final SizingRLPOutput sizes = size(writer);
+    final int size = sizes.encodedSize();
+    buffer.ensureWritable(size);
+    final int index = buffer.writerIndex();
+    // nioBuffer() may return a copy, so only write in place through views known to share memory
+    if (buffer.hasArray()) {
+      write(writer, sizes, ByteBuffer.wrap(buffer.array(), buffer.arrayOffset() + index, size));
+    } else if (buffer.hasMemoryAddress()) {
+      write(writer, sizes, buffer.internalNioBuffer(index, size));
+    } else {
+      final byte[] encoded = new byte[size];
+      write(writer, sizes, ByteBuffer.wrap(encoded));
+      buffer.setBytes(index, encoded);
+    }
+    buffer.writerIndex(index + size);
+    return size;
+  }
+
+  private static SizingRLPOutput size(final Consumer<RLPOutput> writer) {
+    final SizingRLPOutput sizes = new SizingRLPOutput();
+    writer.accept(sizes);
+    return sizes;
+  }
+
+  private static void write(
+      final Consumer<RLPOutput> writer, final SizingRLPOutput sizes, final ByteBuffer target) {
+    final ByteBufferRLPOutput out = new ByteBufferRLPOutput(target, sizes);
+    writer.accept(out);
+    out.checkComplete();
+  }
+
   /**
    * Encodes a single binary value into RLP.
    *
@@ -14,6 +14,8 @@
  */
 package org.hyperledger.besu.ethereum.rlp;
 
+import java.nio.ByteBuffer;
+
 import org.apache.tuweni.bytes.Bytes;
 import org.apache.tuweni.bytes.MutableBytes;
 
@@ -45,6 +47,13 @@ class RLPEncodingHelpers {
     return 1 + sizeLength(value.size()) + value.size();
   }
 
+  /** The encoded size of the provided non-negative scalar. */
+  static int scalarSize(final long value) {
+    if (value < 0x80) return 1;
+
+    return 1 + scalarLength(value);
+  }
+
   /** The encoded size of a list given the encoded size of its payload. */
   static int listSize(final int payloadSize) {
     int size = 1 + payloadSize;
@@ -87,6 +96,58 @@ class RLPEncodingHelpers {
     return writeLongMetadata(0xf7, payloadSize, dest, destOffset);
   }
 
+  /** Writes the result of encoding the provided value to the provided buffer. */
+  static void writeElement(final Bytes value, final ByteBuffer dest) {
+    final int size = value.size();
+    if (isSingleRLPByte(value)) {
+      dest.put(value.get(0));
+      return;
+    }
+
+    if (isShortElement(value)) {
+      dest.put((byte) (0x80 + size));
+    } else {
+      writeLongMetadata(0xb7, size, dest);
+    }
+    value.appendTo(dest);
+  }
+
+  /** Writes the result of encoding the provided non-negative scalar to the provided buffer. */
+  static void writeScalar(final long value, final ByteBuffer dest) {
+    if (value == 0) {
+      dest.put((byte) 0x80);
+      return;
+    }
+    if (value < 0x80) {
+      dest.put((byte) value);
+      return;
+    }
+
+    final int length = scalarLength(value);
+    dest.put((byte) (0x80 + length));
+    for (int shift = (length - 1) * 8; shift >= 0; shift -= 8) {
+      dest.put((byte) (value >> shift));
+    }
+  }
+
+  /** Writes the encoded header of a list provided its encoded payload size to the buffer. */
+  static void writeListHeader(final int payloadSize, final ByteBuffer dest) {
+    if (isShortList(payloadSize)) {
+      dest.put((byte) (0xc0 + payloadSize));
+      return;
+    }
+
+    writeLongMetadata(0xf7, payloadSize, dest);
+  }
+
+  private static void writeLongMetadata(final int baseCode, final int size, final ByteBuffer dest) {
+    final int sizeLength = sizeLength(size);
+    dest.put((byte) (baseCode + sizeLength));
+    for (int shift = (sizeLength - 1) * 8; shift >= 0; shift -= 8) {
+      dest.put((byte) (size >> shift));
+    }
+  }
+
   private static int writeLongMetadata(
       final int baseCode, final int size, final MutableBytes dest, final int destOffset) {
     final int sizeLength = sizeLength(size);
@@ -99,6 +160,10 @@ class RLPEncodingHelpers {
     return destOffset + 1 + sizeLength;
   }
 
+  private static int scalarLength(final long value) {
+    return 8 - Long.numberOfLeadingZeros(value) / 8;
+  }
+
   private static int sizeLength(final int size) {
     final int zeros = Integer.numberOfLeadingZeros(size);
     return 4 - (zeros / 8);
@@ -296,6 +296,18 @@ public interface RLPInput {
    */
   RLPInput readAsRlp();
 
+  /**
+   * Returns the current list, including its RLP header, without decoding it.
+   *
+   * <p>Unlike {@link #readAsRlp()}, no input is created for the returned list, which is typically a
+   * view of this input's bytes.
+   *
+   * @return The encoded current list.
+   * @throws RLPException if the next item to read is not a list, or the input is at the end of its
+   *     current list (and {@link #leaveList()} hasn't been called).
+   */
+  Bytes currentListAsBytes();
+
   /**
    * Returns a raw {@link Bytes} representation of this RLP.
    *
@@ -0,0 +1,109 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.rlp;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+
+import java.util.Arrays;
+
+import org.apache.tuweni.bytes.Bytes;
+
+/**
+ * An {@link RLPOutput} that computes the encoded size of what is written to it, and the payload
+ * size of every list in the order the lists are started, without retaining any written value.
+ *
+ * <p>The sizes are computed the same way as in {@link AbstractRLPOutput}, and allow a {@link
+ * ByteBufferRLPOutput} to write a second pass of the same writer straight into its destination.
+ */
+final class SizingRLPOutput implements RLPOutput {
+
+  // First element is the total size, following elements the payload size of the ith list started.
+  private int[] payloadSizes = new int[8];
+  private int listsCount = 1;
+
+  private int[] parentListStack = new int[4];
+  private int stackSize = 1;
+  private boolean terminated;
+
+  private int currentList() {
+    return parentListStack[stackSize - 1];
+  }
+
+  private void add(final int encodedSize) {
+    checkState(!terminated, "Terminated RLP output, cannot add more elements");
+    payloadSizes[currentList()] += encodedSize;
+    terminated = stackSize == 1;
+  }
+
+  @Override
+  public void writeBytes(final Bytes v) {
+    add(RLPEncodingHelpers.elementSize(v));
+  }
+
+  @Override
+  public void writeLongScalar(final long v) {
+    checkArgument(v >= 0, "Invalid negative value %s for scalar encoding", v);
+    add(RLPEncodingHelpers.scalarSize(v));
+  }
+
+  @Override
+  public void writeRLPUnsafe(final Bytes v) {
+    add(v.size());
+  }
+
+  @Override
+  public void startList() {
+    checkState(!terminated, "Terminated RLP output, cannot add more elements");
+    ++listsCount;
+    ++stackSize;
+
+    if (listsCount > payloadSizes.length) {
+      payloadSizes = Arrays.copyOf(payloadSizes, (payloadSizes.length * 3) / 2);
+    }
+    if (stackSize > parentListStack.length) {
+      parentListStack = Arrays.copyOf(parentListStack, (parentListStack.length * 3) / 2);
+    }
+    parentListStack[stackSize - 1] = listsCount - 1;
+  }
+
+  @Override
+  public void endList() {
+    checkState(stackSize > 1, "LeaveList() called with no prior matching startList()");
+
+    final int finishedListSize = RLPEncodingHelpers.listSize(payloadSizes[currentList()]);
+    --stackSize;
+    add(finishedListSize);
+  }
+
+  /**
+   * Returns the encoded size of what was written to this output.
+   *
+   * @return The size of the RLP-encoded data written to this output.
+   * @throws IllegalStateException if some opened list haven't been closed.
+   */
+  int encodedSize() {
+    checkState(stackSize == 1, "A list has been entered (startList()) but not left (endList())");
+    return payloadSizes[0];
+  }
+
+  int[] payloadSizes() {
+    return payloadSizes;
+  }
+
+  int listsCount() {
+    return listsCount;
+  }
+}
@@ -362,6 +362,19 @@ public class BytesValueRLPInputTest {
     assertThat(in.isDone()).isTrue();
   }
 
+  @Test
+  public void currentListAsBytes() {
+    final Bytes inner = h("0xc20102");
+    final RLPInput in = RLP.input(h("0xc6c20102c18003"));
+    in.enterList();
+    assertThat(in.currentListAsBytes()).isEqualTo(inner);
+    assertThat(in.currentListAsBytes()).isEqualTo(h("0xc180"));
+    assertThatThrownBy(in::currentListAsBytes).isInstanceOf(RLPException.class);
+    assertThat(in.readByte()).isEqualTo((byte) 0x03);
+    in.leaveList();
+    assertThat(in.isDone()).isTrue();
+  }
+
   @Test
   public void readAsRlp() {
     // Test null value
@@ -19,8 +19,15 @@ import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
 
 import org.hyperledger.besu.ethereum.rlp.util.RLPTestUtil;
 
+import java.nio.ByteBuffer;
 import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.CompositeByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.buffer.Unpooled;
 import org.apache.tuweni.bytes.Bytes;
 import org.junit.Test;
 
@@ -134,6 +141,150 @@ public class RLPTest {
     }
   }
 
+  @Test
+  public void encodeToArray_fuzz() {
+    final Random random = new Random(1);
+    for (int i = 0; i < 1000; ++i) {
+      final int seed = random.nextInt();
+      final Bytes expected = RLPTestUtil.randomRLPValue(seed).encoded();
+      assertThat(Bytes.wrap(RLP.encodeToArray(out -> RLPTestUtil.writeRandomRLPValue(seed, out))))
+          .isEqualTo(expected);
+    }
+  }
+
+  @Test
+  public void encodeToArray_scalars() {
+    final long[] scalars = {0, 1, 0x7f, 0x80, 0xff, 0x100, 0xffffff, 1L << 56, Long.MAX_VALUE};
+    final Consumer<RLPOutput> writer =
+        out -> {
+          out.startList();
+          for (final long scalar : scalars) {
+            out.writeLongScalar(scalar);
+            if (scalar <= Integer.MAX_VALUE) {
+              out.writeIntScalar((int) scalar);
+            }
+          }
+          out.endList();
+        };
+    assertThat(Bytes.wrap(RLP.encodeToArray(writer))).isEqualTo(RLP.encode(writer));
+  }
+
+  @Test
+  public void encodeToArray_extremelyDeepNestedList() {
+    final Consumer<RLPOutput> writer =
+        out -> {
+          for (int i = 0; i < 20000; ++i) {
+            out.startList();
+          }
+          out.writeBytes(Bytes.fromHexString("0x0102"));
+          for (int i = 0; i < 20000; ++i) {
+            out.endList();
+          }
+        };
+    assertThat(Bytes.wrap(RLP.encodeToArray(writer))).isEqualTo(RLP.encode(writer));
+  }
+
+  @Test
+  public void encodeTo_byteBufferAtPosition() {
+    final Consumer<RLPOutput> writer = out -> RLPTestUtil.writeRandomRLPValue(42, out);
+    final Bytes expected = RLP.encode(writer);
+    final ByteBuffer buffer = ByteBuffer.allocate(expected.size() + 20);
+    buffer.position(10);
+
+    assertThat(RLP.encodeTo(writer, buffer)).isEqualTo(expected.size());
+    assertThat(buffer.position()).isEqualTo(10 + expected.size());
+    assertThat(Bytes.wrap(buffer.array(), 10, expected.size())).isEqualTo(expected);
+    assertThat(Bytes.wrap(buffer.array(), 0, 10).isZero()).isTrue();
+    assertThat(Bytes.wrap(buffer.array(), 10 + expected.size(), 10).isZero()).isTrue();
+  }
+
+  @Test
+  public void encodeTo_byteBufferTooSmall() {
+    final Consumer<RLPOutput> writer = out -> RLPTestUtil.writeRandomRLPValue(42, out);
+    final ByteBuffer buffer = ByteBuffer.allocate(RLP.encode(writer).size() - 1);
+
+    assertThatThrownBy(() -> RLP.encodeTo(writer, buffer))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThat(buffer.position()).isZero();
+  }
+
+  @Test
+  public void encodeTo_byteBuf() {
+    final Consumer<RLPOutput> writer = out -> RLPTestUtil.writeRandomRLPValue(42, out);
+    final Bytes expected = RLP.encode(writer);
+    final ByteBuf buffer = PooledByteBufAllocator.DEFAULT.directBuffer(1);
+    try {
+      buffer.writeByte(0xff);
+
+      assertThat(RLP.encodeTo(writer, buffer)).isEqualTo(expected.size());
+      assertThat(buffer.readByte()).isEqualTo((byte) 0xff);
+      assertThat(Bytes.wrapByteBuf(buffer, 1, expected.size())).isEqualTo(expected);
+      assertThat(buffer.writerIndex()).isEqualTo(1 + expected.size());
+    } finally {
+      buffer.release();
+    }
+  }
+
+  @Test
+  public void encodeTo_compositeByteBuf() {
+    final Consumer<RLPOutput> writer = out -> RLPTestUtil.writeRandomRLPValue(42, out);
+    final Bytes expected = RLP.encode(writer);
+    final CompositeByteBuf buffer = Unpooled.compositeBuffer();
+    buffer.addComponent(true, Unpooled.wrappedBuffer(new byte[] {1, 2}));
+    buffer.addComponent(true, Unpooled.wrappedBuffer(new byte[] {3}));
+
+    RLP.encodeTo(writer, buffer);
+
+    assertThat(buffer.writerIndex()).isEqualTo(3 + expected.size());
+    assertThat(Bytes.wrapByteBuf(buffer, 0, buffer.writerIndex()))
+        .isEqualTo(Bytes.concatenate(Bytes.of(1, 2, 3), expected));
+  }
+
+  @Test
+  public void encodeTo_slicedHeapByteBuf() {
+    final Consumer<RLPOutput> writer = out -> RLPTestUtil.writeRandomRLPValue(42, out);
+    final Bytes expected = RLP.encode(writer);
+    final ByteBuf buffer = Unpooled.buffer(expected.size() + 4).slice(2, expected.size() + 2);
+    buffer.writerIndex(1);
+
+    assertThat(RLP.encodeTo(writer, buffer)).isEqualTo(expected.size());
+    assertThat(buffer.writerIndex()).isEqualTo(1 + expected.size());
+    assertThat(Bytes.wrapByteBuf(buffer, 1, expected.size())).isEqualTo(expected);
+  }
+
+  @Test
+  public void encodeTo_compositeByteBufSpanningComponents() {
+    final Consumer<RLPOutput> writer = out -> RLPTestUtil.writeRandomRLPValue(42, out);
+    final Bytes expected = RLP.encode(writer);
+    // The readable byte is in a single component, but the encoding straddles both
+    final CompositeByteBuf buffer = Unpooled.compositeBuffer();
+    buffer.addComponent(Unpooled.directBuffer(2).writeBytes(new byte[] {1, 0}));
+    buffer.addComponent(Unpooled.directBuffer(expected.size()).writeZero(expected.size()));
+    buffer.writerIndex(1);
+
+    RLP.encodeTo(writer, buffer);
+
+    assertThat(buffer.writerIndex()).isEqualTo(1 + expected.size());
+    assertThat(Bytes.wrapByteBuf(buffer, 0, buffer.writerIndex()))
+        .isEqualTo(Bytes.concatenate(Bytes.of(1), expected));
+    buffer.release();
+  }
+
+  @Test
+  public void encodeToArray_writerChangingBetweenPasses() {
+    final AtomicInteger calls = new AtomicInteger();
+    final Consumer<RLPOutput> writer =
+        out -> {
+          out.startList();
+          for (int i = calls.incrementAndGet(); i > 0; i--) {
+            out.writeLongScalar(i);
+          }
+          out.endList();
+        };
+
+    assertThatThrownBy(() -> RLP.encodeToArray(writer)).isInstanceOf(RuntimeException.class);
+  }
+
   @Test
   public void calculateSize_extremelyDeepNestedList() {
     final int MAX_DEPTH = 20000;
@@ -72,7 +72,16 @@ public class RLPTestUtil {
     return out.encoded();
   }
 
-  private static void encode(final Object obj, final RLPOutput out) {
+  /**
+   * Recursively writes an object consisting of recursive lists of {@link Bytes} to an output.
+   *
+   * @param obj An object that must be either directly a {@link Bytes}, or a list whose elements are
+   *     either {@link Bytes}, or similarly composed sub-lists.
+   * @param out The output to write {@code obj} to.
+   * @throws IllegalArgumentException if {@code obj} is not a valid input (not entirely composed
+   *     from lists and {@link Bytes}).
+   */
+  public static void encode(final Object obj, final RLPOutput out) {
     if (obj instanceof Bytes) {
       out.writeBytes((Bytes) obj);
     } else if (obj instanceof List) {
@@ -93,8 +102,19 @@ public class RLPTestUtil {
    * @return a random rlp-encoded value
    */
   public static BytesValueRLPOutput randomRLPValue(final int randomSeed) {
-    final Random random = new Random(randomSeed);
     final BytesValueRLPOutput out = new BytesValueRLPOutput();
+    writeRandomRLPValue(randomSeed, out);
+    return out;
+  }
+
+  /**
+   * Write a random value to an output. The same value is written for the same seed.
+   *
+   * @param randomSeed Seed to use for random generation.
+   * @param out The output to write the value to.
+   */
+  public static void writeRandomRLPValue(final int randomSeed, final RLPOutput out) {
+    final Random random = new Random(randomSeed);
     final AtomicInteger listDepth = new AtomicInteger(0);
     int iterations = 0;
     do {
@@ -107,8 +127,6 @@ public class RLPTestUtil {
 
       writeRandomRLPData(out, random, listDepth);
     } while (listDepth.get() > 0);
-
-    return out;
   }
 
   private static void writeRandomRLPData(
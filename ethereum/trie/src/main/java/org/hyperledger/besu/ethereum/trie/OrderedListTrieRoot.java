@@ -0,0 +1,309 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.trie;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static org.hyperledger.besu.crypto.Hash.keccak256;
+
+import org.hyperledger.besu.ethereum.rlp.BytesValueRLPOutput;
+import org.hyperledger.besu.ethereum.rlp.RLP;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+
+/**
+ * Computes the root hash of a {@link MerklePatriciaTrie} mapping the RLP-encoded index of each
+ * element of a list to that element, as used for the transactions and receipts roots.
+ *
+ * <p>Elements are appended in list order. Because the keys are known in advance, they are fed to a
+ * stack-based builder in key order: only the rightmost path of the trie is kept open, and every
+ * subtree to its left is hashed as soon as no further key can reach it. No trie nodes are retained
+ * for completed subtrees, so building the root is linear in the number of elements.
+ *
+ * <p>The RLP encoding of index 0 sorts after indexes 1 to 127, so the first element is held back
+ * until the 129th element is appended or the root is requested.
+ *
+ * <p>This class is not thread-safe.
+ */
+public class OrderedListTrieRoot {
+  private static final int RADIX = 16;
+  private static final int SINGLE_BYTE_KEYS = 0x80;
+  private static final byte[] FIRST_KEY = keyPath(0);
+
+  private Node root;
+  private Bytes first;
+  private int size;
+
+  /**
+   * Computes the root hash of the trie built from the given list.
+   *
+   * @param values The RLP-encoded list elements, in order.
+   * @return The root hash.
+   */
+  public static Bytes32 rootHash(final List<Bytes> values) {
+    final OrderedListTrieRoot trie = new OrderedListTrieRoot();
+    values.forEach(trie::append);
+    return trie.getRootHash();
+  }
+
+  /**
+   * Appends the next element of the list.
+   *
+   * @param value The RLP-encoded element.
+   */
+  public void append(final Bytes value) {
+    checkNotNull(value);
+    final int index = size++;
+    if (index == 0) {
+      first = value;
+      return;
+    }
+    if (index == SINGLE_BYTE_KEYS) {
+      root = insert(root, FIRST_KEY, 0, first);
+      first = null;
+    }
+    root = insert(root, keyPath(index), 0, value);
+  }
+
+  /**
+   * Returns the number of elements appended so far.
+   *
+   * @return The number of elements.
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Returns the root hash of the trie holding the elements appended so far. More elements may be
+   * appended afterwards.
+   *
+   * @return The root hash.
+   */
+  public Bytes32 getRootHash() {
+    if (size == 0) {
+      return MerklePatriciaTrie.EMPTY_TRIE_NODE_HASH;
+    }
+    Node node = root;
+    if (first != null) {
+      node = insert(node == null ? null : node.copy(), FIRST_KEY, 0, first);
+    }
+    return keccak256(encode(node));
+  }
+
+  private static byte[] keyPath(final int index) {
+    if (index > 0 && index < SINGLE_BYTE_KEYS) {
+      return new byte[] {(byte) (index >>> 4), (byte) (index & 0x0f)};
+    }
+    final int length =
+        index == 0 ? 0 : (Integer.SIZE - Integer.numberOfLeadingZeros(index) + 7) / 8;
+    final byte[] path = new byte[2 + 2 * length];
+    path[0] = (byte) 0x08;
+    path[1] = (byte) length;
+    for (int i = 0; i < length; i++) {
+      final int b = index >>> (8 * (length - 1 - i));
+      path[2 + 2 * i] = (byte) ((b >>> 4) & 0x0f);
+      path[3 + 2 * i] = (byte) (b & 0x0f);
+    }
+    return path;
+  }
+
+  private static Node insert(
+      final Node node, final byte[] key, final int offset, final Bytes value) {
+    if (node == null) {
+      return Node.leaf(Arrays.copyOfRange(key, offset, key.length), value);
+    }
+    switch (node.type) {
+      case BRANCH:
+        final int index = key[offset];
+        if (node.openChild != index) {
+          if (node.openChild > index) {
+            throw new IllegalStateException("Keys must be inserted in order");
+          }
+          if (node.openChild >= 0) {
+            node.children[node.openChild].commit();
+          }
+          node.openChild = index;
+        }
+        node.children[index] = insert(node.children[index], key, offset + 1, value);
+        return node;
+      case EXTENSION:
+        final int extensionMatch = matchingNibbles(node.path, key, offset);
+        if (extensionMatch == node.path.length) {
+          node.child = insert(node.child, key, offset + extensionMatch, value);
+          return node;
+        }
+        final Node remainder =
+            extensionMatch + 1 < node.path.length
+                ? Node.extension(
+                    Arrays.copyOfRange(node.path, extensionMatch + 1, node.path.length), node.child)
+                : node.child;
+        return split(node.path, extensionMatch, remainder, key, offset, value);
+      case LEAF:
+        final int leafMatch = matchingNibbles(node.path, key, offset);
+        if (leafMatch == node.path.length) {
+          throw new IllegalStateException("Keys must not be prefixes of one another");
+        }
+        final Node leafRemainder =
+            Node.leaf(Arrays.copyOfRange(node.path, leafMatch + 1, node.path.length), node.value);
+        return split(node.path, leafMatch, leafRemainder, key, offset, value);
+      default:
+        throw new IllegalStateException("Keys must be inserted in order");
+    }
+  }
+
+  private static Node split(
+      final byte[] path,
+      final int match,
+      final Node remainder,
+      final byte[] key,
+      final int offset,
+      final Bytes value) {
+    final int previousIndex = path[match];
+    final int index = key[offset + match];
+    if (previousIndex > index) {
+      throw new IllegalStateException("Keys must be inserted in order");
+    }
+    // Every later key sorts after the new one, so the existing subtree is complete.
+    remainder.commit();
+    final Node branch = Node.branch();
+    branch.children[previousIndex] = remainder;
+    branch.children[index] =
+        Node.leaf(Arrays.copyOfRange(key, offset + match + 1, key.length), value);
+    branch.openChild = index;
+    return match == 0 ? branch : Node.extension(Arrays.copyOf(path, match), branch);
+  }
+
+  private static int matchingNibbles(final byte[] path, final byte[] key, final int offset) {
+    final int max = Math.min(path.length, key.length - offset);
+    int i = 0;
+    while (i < max && path[i] == key[offset + i]) {
+      i++;
+    }
+    return i;
+  }
+
+  private static Bytes encode(final Node node) {
+    final BytesValueRLPOutput out = new BytesValueRLPOutput();
+    out.startList();
+    switch (node.type) {
+      case LEAF:
+        final byte[] leafPath = Arrays.copyOf(node.path, node.path.length + 1);
+        leafPath[node.path.length] = CompactEncoding.LEAF_TERMINATOR;
+        out.writeBytes(CompactEncoding.encode(Bytes.wrap(leafPath)));
+        out.writeBytes(node.value);
+        break;
+      case EXTENSION:
+        out.writeBytes(CompactEncoding.encode(Bytes.wrap(node.path)));
+        out.writeRLPUnsafe(reference(node.child));
+        break;
+      case BRANCH:
+        for (int i = 0; i < RADIX; i++) {
+          final Node child = node.children[i];
+          out.writeRLPUnsafe(child == null ? MerklePatriciaTrie.EMPTY_TRIE_NODE : reference(child));
+        }
+        out.writeNull();
+        break;
+      default:
+        throw new IllegalStateException("Committed nodes cannot be re-encoded");
+    }
+    out.endList();
+    return out.encoded();
+  }
+
+  private static Bytes reference(final Node node) {
+    if (node.type == NodeType.COMMITTED) {
+      return node.reference;
+    }
+    final Bytes rlp = encode(node);
+    return rlp.size() < 32 ? rlp : RLP.encodeOne(keccak256(rlp));
+  }
+
+  private enum NodeType {
+    LEAF,
+    EXTENSION,
+    BRANCH,
+    COMMITTED
+  }
+
+  private static final class Node {
+    private NodeType type;
+    private byte[] path;
+    private Bytes value;
+    private Node child;
+    private Node[] children;
+    private int openChild = -1;
+    private Bytes reference;
+
+    private Node(final NodeType type) {
+      this.type = type;
+    }
+
+    static Node leaf(final byte[] path, final Bytes value) {
+      final Node node = new Node(NodeType.LEAF);
+      node.path = path;
+      node.value = value;
+      return node;
+    }
+
+    static Node extension(final byte[] path, final Node child) {
+      final Node node = new Node(NodeType.EXTENSION);
+      node.path = path;
+      node.child = child;
+      return node;
+    }
+
+    static Node branch() {
+      final Node node = new Node(NodeType.BRANCH);
+      node.children = new Node[RADIX];
+      return node;
+    }
+
+    /** Replaces this node by its reference, releasing the subtree below it. */
+    void commit() {
+      if (type == NodeType.COMMITTED) {
+        return;
+      }
+      reference = OrderedListTrieRoot.reference(this);
+      type = NodeType.COMMITTED;
+      path = null;
+      value = null;
+      child = null;
+      children = null;
+    }
+
+    /** Copies the open nodes of this subtree; committed nodes are immutable and shared. */
+    Node copy() {
+      switch (type) {
+        case LEAF:
+          return leaf(path, value);
+        case EXTENSION:
+          return extension(path, child.copy());
+        case BRANCH:
+          final Node branch = branch();
+          for (int i = 0; i < RADIX; i++) {
+            branch.children[i] = children[i] == null ? null : children[i].copy();
+          }
+          branch.openChild = openChild;
+          return branch;
+        default:
+          return this;
+      }
+    }
+  }
+}
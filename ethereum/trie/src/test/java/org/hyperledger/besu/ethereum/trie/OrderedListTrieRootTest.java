@@ -0,0 +1,84 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.trie;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.hyperledger.besu.ethereum.rlp.RLP;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.units.bigints.UInt256;
+import org.junit.Test;
+
+public class OrderedListTrieRootTest {
+  private final Random random = new Random(42);
+
+  @Test
+  public void emptyListHasEmptyTrieRoot() {
+    assertThat(new OrderedListTrieRoot().getRootHash())
+        .isEqualTo(MerklePatriciaTrie.EMPTY_TRIE_NODE_HASH);
+  }
+
+  @Test
+  public void rootMatchesTrieAroundKeyLengthBoundaries() {
+    for (final int size : new int[] {1, 2, 16, 17, 127, 128, 129, 255, 256, 257, 1000}) {
+      final List<Bytes> values = randomValues(size);
+      assertThat(OrderedListTrieRoot.rootHash(values)).isEqualTo(expectedRoot(values));
+    }
+  }
+
+  @Test
+  public void rootMatchesTrieForSmallValues() {
+    // Values this small produce nodes that are embedded in their parent rather than hashed.
+    final List<Bytes> values = new ArrayList<>();
+    for (int i = 0; i < 300; i++) {
+      values.add(RLP.encodeOne(Bytes.of(i % 3)));
+    }
+    assertThat(OrderedListTrieRoot.rootHash(values)).isEqualTo(expectedRoot(values));
+  }
+
+  @Test
+  public void rootCanBeRequestedWhileAppending() {
+    final List<Bytes> values = randomValues(300);
+    final OrderedListTrieRoot trie = new OrderedListTrieRoot();
+    for (int i = 0; i < values.size(); i++) {
+      trie.append(values.get(i));
+      assertThat(trie.size()).isEqualTo(i + 1);
+      assertThat(trie.getRootHash()).isEqualTo(expectedRoot(values.subList(0, i + 1)));
+    }
+  }
+
+  private List<Bytes> randomValues(final int size) {
+    final List<Bytes> values = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      final byte[] value = new byte[1 + random.nextInt(100)];
+      random.nextBytes(value);
+      values.add(RLP.encodeOne(Bytes.wrap(value)));
+    }
+    return values;
+  }
+
+  private static Bytes expectedRoot(final List<Bytes> values) {
+    final MerklePatriciaTrie<Bytes, Bytes> trie = new SimpleMerklePatriciaTrie<>(b -> b);
+    for (int i = 0; i < values.size(); i++) {
+      trie.put(RLP.encodeOne(UInt256.valueOf(i).toBytes().trimLeadingZeros()), values.get(i));
+    }
+    return trie.getRootHash();
+  }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ */
+
+package org.hyperledgher.besu.ethereum.unitrie;
+
+import org.hyperledger.besu.ethereum.unitrie.SimpleUniTrie;
+import org.hyperledger.besu.ethereum.unitrie.UniTrie;
+
+import java.util.Random;
+import java.util.function.Function;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/** Read-heavy Unitrie workloads, hitting node values and children sizes. */
+@State(Scope.Thread)
+public class UnitrieReadBenchmark {
+
+  private static final int KEYS = 10_000;
+
+  @Param({"64", "10"})
+  public int valueLength;
+
+  private UniTrie<Bytes, Bytes> trie;
+  private Bytes[] keys;
+
+  @Setup
+  public void prepare() {
+    final Random random = new Random(42);
+    trie = new SimpleUniTrie<>(Function.identity(), Function.identity());
+    keys = new Bytes[KEYS];
+    for (int i = 0; i < KEYS; i++) {
+      keys[i] = Bytes.wrap(randomBytes(random, 32));
+      trie.put(keys[i], Bytes.wrap(randomBytes(random, valueLength)));
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(KEYS)
+  public void get(final Blackhole blackhole) {
+    for (final Bytes key : keys) {
+      blackhole.consume(trie.get(key));
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(KEYS)
+  public void getValueLength(final Blackhole blackhole) {
+    for (final Bytes key : keys) {
+      blackhole.consume(trie.getValueLength(key));
+    }
+  }
+
+  @Benchmark
+  public void intrinsicSize(final Blackhole blackhole) {
+    trie.visitAll(node -> blackhole.consume(node.intrinsicSize()));
+  }
+
+  private static byte[] randomBytes(final Random random, final int length) {
+    final byte[] bytes = new byte[length];
+    random.nextBytes(bytes);
+    return bytes;
+  }
+}
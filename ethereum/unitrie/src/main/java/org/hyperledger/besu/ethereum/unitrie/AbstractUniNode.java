@@ -44,6 +44,12 @@ public abstract class AbstractUniNode implements UniNode {
   private byte shortPath;
   private SoftReference<byte[]> longPath;
 
+  // Offsets into the encoding, set once it is known by indexEncoding(). Zero means unknown, since
+  // the flags always come first. Chars pack along with the byte fields, so they don't make nodes
+  // any larger.
+  private char childrenSizeOffset;
+  private char valueOffset;
+
   private ValueWrapper longValueWrapper;
   private boolean dirty = false;
 
@@ -74,6 +80,57 @@ public abstract class AbstractUniNode implements UniNode {
     }
   }
 
+  /**
+   * Record where the children size and the value start within this node's encoding, so that
+   * accessors don't have to parse the flags, path and children again. Subclasses must call this
+   * method once their encoding is set.
+   */
+  void indexEncoding() {
+    ByteBuffer buffer = ByteBuffer.wrap(getEncoding());
+    if (buffer.capacity() > Character.MAX_VALUE) {
+      // Offsets wouldn't fit, accessors will parse the encoding instead
+      return;
+    }
+    if (encodingHelper.skipToChildrenSize(buffer)) {
+      childrenSizeOffset = (char) buffer.position();
+      encodingHelper.skipChildrenSize(buffer);
+    }
+    valueOffset = (char) buffer.position();
+  }
+
+  /**
+   * Get the offset of the children size within this node's encoding.
+   *
+   * @return offset of the children size, -1 if the node has no children
+   */
+  int getChildrenSizeOffset() {
+    if (childrenSizeOffset != 0) {
+      return childrenSizeOffset;
+    }
+    ByteBuffer buffer = ByteBuffer.wrap(getEncoding());
+    return encodingHelper.skipToChildrenSize(buffer) ? buffer.position() : -1;
+  }
+
+  private int getValueOffset() {
+    if (valueOffset != 0) {
+      return valueOffset;
+    }
+    ByteBuffer buffer = ByteBuffer.wrap(getEncoding());
+    if (encodingHelper.skipToChildrenSize(buffer)) {
+      encodingHelper.skipChildrenSize(buffer);
+    }
+    return buffer.position();
+  }
+
+  /**
+   * Get the length of the value referenced by hash from this node.
+   *
+   * @return length of the long value, 0 if the node's value is short or absent
+   */
+  int getLongValueLength() {
+    return longValueWrapper == null ? 0 : longValueWrapper.getLength().orElse(0);
+  }
+
   @VisibleForTesting
   void clearWeakReferences() {
     if (longPath != null) {
@@ -105,22 +162,64 @@ public abstract class AbstractUniNode implements UniNode {
       return longValueWrapper;
     }
 
-    return encodingHelper.decodeValueWrapperFromFullEncoding(ByteBuffer.wrap(getEncoding()));
+    byte[] encoding = getEncoding();
+    int offset = getValueOffset();
+    if (offset == encoding.length) {
+      return ValueWrapper.EMPTY;
+    }
+    return ValueWrapper.fromValue(Arrays.copyOfRange(encoding, offset, encoding.length));
   }
 
+  // Short values are read straight from the encoding, without going through a ValueWrapper
+
   @Override
   public Optional<byte[]> getValue(final DataLoader loader) {
-    return getValueWrapper().solveValue(loader);
+    if (longValueWrapper != null) {
+      return longValueWrapper.solveValue(loader);
+    }
+
+    byte[] encoding = getEncoding();
+    int offset = getValueOffset();
+    if (offset == encoding.length) {
+      return Optional.empty();
+    }
+    return Optional.of(Arrays.copyOfRange(encoding, offset, encoding.length));
   }
 
   @Override
   public Optional<byte[]> getValueHash() {
-    return getValueWrapper().getHash();
+    if (longValueWrapper != null) {
+      return longValueWrapper.getHash();
+    }
+
+    byte[] encoding = getEncoding();
+    int offset = getValueOffset();
+    if (offset == encoding.length) {
+      return Optional.empty();
+    }
+    return Optional.of(
+        Hash.keccak256(Bytes.wrap(encoding, offset, encoding.length - offset)).toArrayUnsafe());
   }
 
   @Override
   public Optional<Integer> getValueLength() {
-    return getValueWrapper().getLength();
+    if (longValueWrapper != null) {
+      return longValueWrapper.getLength();
+    }
+
+    int length = getEncoding().length - getValueOffset();
+    return length == 0 ? Optional.empty() : Optional.of(length);
+  }
+
+  private boolean valueIs(final byte[] value) {
+    if (longValueWrapper != null) {
+      return longValueWrapper.wrappedValueIs(value);
+    }
+
+    byte[] encoding = getEncoding();
+    int offset = getValueOffset();
+    return offset < encoding.length
+        && Arrays.equals(value, 0, value.length, encoding, offset, encoding.length);
   }
 
   @Override
@@ -161,41 +260,51 @@ public abstract class AbstractUniNode implements UniNode {
   UniNode removeValue(final UniNodeFactory nodeFactory) {
     // By removing this node's value we might have a chance to coalesce
     return coalesce(
-        nodeFactory.createBranch(getPath(), ValueWrapper.EMPTY, getLeftChild(), getRightChild()),
+        nodeFactory.createBranch(
+            getPath(), ValueWrapper.EMPTY, getLeftChild(), getRightChild(), getChildrenSize()),
         nodeFactory);
   }
 
   UniNode replaceValue(final byte[] newValue, final UniNodeFactory nodeFactory) {
     Preconditions.checkNotNull(
         newValue, "Can't call replaceValue with null, call removeValue instead");
-    if (getValueWrapper().wrappedValueIs(newValue)) {
+    if (valueIs(newValue)) {
       return this;
     }
     return nodeFactory.createBranch(
-        getPath(), ValueWrapper.fromValue(newValue), getLeftChild(), getRightChild());
+        getPath(),
+        ValueWrapper.fromValue(newValue),
+        getLeftChild(),
+        getRightChild(),
+        getChildrenSize());
   }
 
   UniNode replacePath(final byte[] newPath, final UniNodeFactory nodeFactory) {
     if (Arrays.equals(newPath, getPath())) {
       return this;
     }
-    return nodeFactory.createBranch(newPath, getValueWrapper(), getLeftChild(), getRightChild());
+    return nodeFactory.createBranch(
+        newPath, getValueWrapper(), getLeftChild(), getRightChild(), getChildrenSize());
   }
 
   UniNode replaceChild(final byte pos, final UniNode newChild, final UniNodeFactory nodeFactory) {
+    UniNode oldChild = pos == 0 ? getLeftChild() : getRightChild();
+    if (newChild == oldChild) {
+      return this;
+    }
+
+    // The replaced child lies on the path being modified, so it is already loaded. Deriving the
+    // size of its sibling from this node's encoding avoids loading the sibling just to learn it.
+    long childrenSize = getChildrenSize() - oldChild.intrinsicSize() + newChild.intrinsicSize();
     if (pos == 0) {
-      if (newChild == getLeftChild()) {
-        return this;
-      }
       return coalesce(
-          nodeFactory.createBranch(getPath(), getValueWrapper(), newChild, getRightChild()),
+          nodeFactory.createBranch(
+              getPath(), getValueWrapper(), newChild, getRightChild(), childrenSize),
           nodeFactory);
     } else {
-      if (newChild == getRightChild()) {
-        return this;
-      }
       return coalesce(
-          nodeFactory.createBranch(getPath(), getValueWrapper(), getLeftChild(), newChild),
+          nodeFactory.createBranch(
+              getPath(), getValueWrapper(), getLeftChild(), newChild, childrenSize),
           nodeFactory);
     }
   }
@@ -220,7 +329,7 @@ public abstract class AbstractUniNode implements UniNode {
    * @return original node, or coalesced one.
    */
   private static UniNode coalesce(final UniNode node, final UniNodeFactory nodeFactory) {
-    if (!node.getValueWrapper().isEmpty()) {
+    if (node.getValueLength().isPresent()) {
       return node;
     }
 
@@ -255,6 +364,10 @@ public abstract class AbstractUniNode implements UniNode {
     System.arraycopy(childPath, 0, newPath, nodePath.length + 1, childPath.length);
 
     return nodeFactory.createBranch(
-        newPath, child.getValueWrapper(), child.getLeftChild(), child.getRightChild());
+        newPath,
+        child.getValueWrapper(),
+        child.getLeftChild(),
+        child.getRightChild(),
+        child.getChildrenSize());
   }
 }
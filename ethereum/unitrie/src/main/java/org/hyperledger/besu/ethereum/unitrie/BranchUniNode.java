@@ -14,8 +14,6 @@
  */
 package org.hyperledger.besu.ethereum.unitrie;
 
-import java.nio.ByteBuffer;
-
 import com.google.common.base.Preconditions;
 import org.apache.tuweni.bytes.Bytes;
 
@@ -37,6 +35,21 @@ public class BranchUniNode extends AbstractUniNode {
       final UniNode leftChild,
       final UniNode rightChild) {
 
+    this(
+        path,
+        valueWrapper,
+        leftChild,
+        rightChild,
+        UniNodeEncodingInput.childrenSize(leftChild, rightChild));
+  }
+
+  BranchUniNode(
+      final byte[] path,
+      final ValueWrapper valueWrapper,
+      final UniNode leftChild,
+      final UniNode rightChild,
+      final long childrenSize) {
+
     super(path, valueWrapper);
 
     Preconditions.checkNotNull(leftChild);
@@ -44,7 +57,8 @@ public class BranchUniNode extends AbstractUniNode {
 
     this.leftChild = leftChild;
     this.rightChild = rightChild;
-    this.encoding = encode(path, valueWrapper);
+    this.encoding = encode(path, valueWrapper, childrenSize);
+    indexEncoding();
   }
 
   BranchUniNode(final UniNodeEncodingOutput encodingOutput) {
@@ -57,6 +71,7 @@ public class BranchUniNode extends AbstractUniNode {
     leftChild = encodingOutput.getLeftChild();
     rightChild = encodingOutput.getRightChild();
     encoding = encodingOutput.getEncoding();
+    indexEncoding();
   }
 
   @Override
@@ -81,14 +96,13 @@ public class BranchUniNode extends AbstractUniNode {
 
   @Override
   public long getChildrenSize() {
-    return encodingHelper.decodeChildrenSizeFromFullEncoding(ByteBuffer.wrap(encoding));
+    int offset = getChildrenSizeOffset();
+    return offset == -1 ? -1 : encodingHelper.decodeChildrenSize(encoding, offset);
   }
 
   @Override
   public long intrinsicSize() {
-    ValueWrapper valueWrapper = getValueWrapper();
-    int valueSize = valueWrapper.isLong() ? valueWrapper.getLength().orElse(0) : 0;
-    return valueSize + getChildrenSize() + getEncoding().length;
+    return getLongValueLength() + getChildrenSize() + getEncoding().length;
   }
 
   @Override
@@ -101,9 +115,10 @@ public class BranchUniNode extends AbstractUniNode {
     return true;
   }
 
-  private byte[] encode(final byte[] path, final ValueWrapper valueWrapper) {
+  private byte[] encode(
+      final byte[] path, final ValueWrapper valueWrapper, final long childrenSize) {
     UniNodeEncodingInput encData =
-        new UniNodeEncodingInput(path, valueWrapper, leftChild, rightChild);
+        new UniNodeEncodingInput(path, valueWrapper, leftChild, rightChild, childrenSize);
     return encodingHelper.encode(encData).toArrayUnsafe();
   }
 }
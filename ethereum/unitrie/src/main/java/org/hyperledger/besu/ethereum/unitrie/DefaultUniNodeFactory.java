@@ -39,4 +39,19 @@ public class DefaultUniNodeFactory implements UniNodeFactory {
 
     return new BranchUniNode(path, valueWrapper, leftChild, rightChild);
   }
+
+  @Override
+  public UniNode createBranch(
+      final byte[] path,
+      final ValueWrapper valueWrapper,
+      final UniNode leftChild,
+      final UniNode rightChild,
+      final long childrenSize) {
+
+    if ((leftChild == NullUniNode.instance()) && (rightChild == NullUniNode.instance())) {
+      return new LeafUniNode(path, valueWrapper);
+    }
+
+    return new BranchUniNode(path, valueWrapper, leftChild, rightChild, childrenSize);
+  }
 }
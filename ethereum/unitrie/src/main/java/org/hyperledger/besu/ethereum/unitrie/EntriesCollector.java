@@ -0,0 +1,104 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.unitrie;
+
+import java.util.Arrays;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.TreeMap;
+
+import org.apache.tuweni.bytes.Bytes;
+
+/**
+ * Collect the entries of a Unitrie in key order, starting from a given key.
+ *
+ * <p>Values are stored at the node reached by following the bits of their key, so visiting a node
+ * before its left and then its right child yields the keys in ascending order. Subtrees whose paths
+ * sort before the start key are skipped, and visited nodes are unloaded so that streaming a large
+ * stored trie does not keep it in memory.
+ */
+class EntriesCollector {
+
+  private static final byte[] LEFT = {0};
+  private static final byte[] RIGHT = {1};
+
+  private final DataLoader loader;
+  private final byte[] startPath;
+  private final int limit;
+  private final NavigableMap<Bytes, byte[]> entries = new TreeMap<>(UniTrie.KEY_ORDER);
+
+  private EntriesCollector(final DataLoader loader, final Bytes startKey, final int limit) {
+    this.loader = loader;
+    this.startPath = PathEncoding.decodePath(startKey, startKey.size() * 8).toArrayUnsafe();
+    this.limit = limit;
+  }
+
+  /**
+   * Collect up to {@code limit} entries whose keys are greater than or equal to {@code startKey}.
+   *
+   * @param root root of the Unitrie to traverse
+   * @param loader {@link DataLoader} used to solve long values
+   * @param startKey smallest key to collect
+   * @param limit maximum number of entries to collect
+   * @return collected entries, mapping keys to raw values
+   */
+  static NavigableMap<Bytes, byte[]> collect(
+      final UniNode root, final DataLoader loader, final Bytes startKey, final int limit) {
+    final EntriesCollector collector = new EntriesCollector(loader, startKey, limit);
+    if (limit > 0) {
+      collector.visit(root, new byte[0]);
+    }
+    return collector.entries;
+  }
+
+  private boolean visit(final UniNode node, final byte[] parentPath) {
+    if (node == NullUniNode.instance()) {
+      return true;
+    }
+
+    final byte[] path = concat(parentPath, node.getPath());
+    final int common = Math.min(path.length, startPath.length);
+    final int cmp = Arrays.compare(path, 0, common, startPath, 0, common);
+    if (cmp < 0) {
+      // Every key below this node sorts before the start key
+      return true;
+    }
+
+    if (cmp > 0 || path.length >= startPath.length) {
+      final Optional<byte[]> value = node.getValue(loader);
+      if (value.isPresent()) {
+        entries.put(PathEncoding.encodePath(Bytes.wrap(path)), value.get());
+        if (entries.size() >= limit) {
+          return false;
+        }
+      }
+    }
+
+    return visitChild(node.getLeftChild(), concat(path, LEFT))
+        && visitChild(node.getRightChild(), concat(path, RIGHT));
+  }
+
+  private boolean visitChild(final UniNode child, final byte[] path) {
+    final boolean proceed = visit(child, path);
+    child.unload();
+    return proceed;
+  }
+
+  private static byte[] concat(final byte[] a, final byte[] b) {
+    final byte[] result = Arrays.copyOf(a, a.length + b.length);
+    System.arraycopy(b, 0, result, a.length, b.length);
+    return result;
+  }
+}
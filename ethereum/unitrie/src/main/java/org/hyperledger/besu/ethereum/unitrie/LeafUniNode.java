@@ -30,6 +30,7 @@ public class LeafUniNode extends AbstractUniNode {
   public LeafUniNode(final byte[] path, final ValueWrapper valueWrapper) {
     super(path, valueWrapper);
     encoding = encode(path, valueWrapper);
+    indexEncoding();
   }
 
   LeafUniNode(final UniNodeEncodingOutput encodingOutput) {
@@ -37,6 +38,7 @@ public class LeafUniNode extends AbstractUniNode {
 
     Preconditions.checkNotNull(encodingOutput.getEncoding());
     encoding = encodingOutput.getEncoding();
+    indexEncoding();
   }
 
   @Override
@@ -66,9 +68,7 @@ public class LeafUniNode extends AbstractUniNode {
 
   @Override
   public long intrinsicSize() {
-    ValueWrapper valueWrapper = getValueWrapper();
-    int valueSize = valueWrapper.isLong() ? valueWrapper.getLength().orElse(0) : 0;
-    return (long) valueSize + getEncoding().length;
+    return (long) getLongValueLength() + getEncoding().length;
   }
 
   @Override
@@ -0,0 +1,100 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.unitrie;
+
+import static org.hyperledger.besu.crypto.Hash.keccak256;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Set;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+
+/**
+ * Boundary proofs for contiguous ranges of Unitrie entries, as returned by {@link
+ * UniTrie#entriesFrom(Bytes, int)}.
+ *
+ * <p>A range proof holds the nodes visited by a {@link ProofVisitor} on the way to the start key of
+ * the range and to its last entry. Together with the entries, they prove that the entries are
+ * exactly the content of the Unitrie from the start key to the last entry, or from the start key
+ * onwards if the range is empty.
+ */
+public final class RangeProof {
+
+  private RangeProof() {}
+
+  /**
+   * Create the proof for a range of entries.
+   *
+   * @param trie Unitrie the entries were taken from
+   * @param startKey key the range was requested from
+   * @param entries entries in the range
+   * @return encoded proof nodes, without duplicates
+   */
+  public static List<Bytes> create(
+      final UniTrie<Bytes, ?> trie, final Bytes startKey, final NavigableMap<Bytes, ?> entries) {
+    final Set<Bytes> proof = new LinkedHashSet<>();
+    proof.addAll(trie.getValueWithProof(startKey).getProofRelatedNodes());
+    if (!entries.isEmpty()) {
+      proof.addAll(trie.getValueWithProof(entries.lastKey()).getProofRelatedNodes());
+    }
+    return new ArrayList<>(proof);
+  }
+
+  /**
+   * Verify the proof for a range of entries.
+   *
+   * @param rootHash root hash of the Unitrie the entries are supposed to belong to
+   * @param startKey key the range was requested from
+   * @param entries entries in the range
+   * @param proof encoded proof nodes
+   * @return true iff the entries are all the entries of the Unitrie with the given root hash from
+   *     the start key to the last entry, or no entry exists from the start key onwards if there are
+   *     no entries
+   */
+  public static boolean verify(
+      final Bytes32 rootHash,
+      final Bytes startKey,
+      final NavigableMap<Bytes, Bytes> entries,
+      final List<Bytes> proof) {
+    if (!entries.isEmpty() && UniTrie.KEY_ORDER.compare(entries.firstKey(), startKey) < 0) {
+      return false;
+    }
+
+    final Map<Bytes32, Bytes> data = new HashMap<>();
+    proof.forEach(node -> data.put(keccak256(node), node));
+    // Long values are referenced by hash from their nodes
+    entries.values().forEach(value -> data.putIfAbsent(keccak256(value), value));
+
+    final DataLoader loader = hash -> Optional.ofNullable(data.get(hash));
+    final UniNode root =
+        rootHash.equals(UniTrie.NULL_UNINODE_HASH)
+            ? NullUniNode.instance()
+            : new StoredUniNode(rootHash.toArrayUnsafe(), new StoredUniNodeFactory(loader));
+    try {
+      return RangeVerifier.verify(root, loader, startKey, entries);
+    } catch (final IllegalStateException | NoSuchElementException e) {
+      // A node or long value on the path to a boundary of the range is missing
+      return false;
+    }
+  }
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.unitrie;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.Optional;
+
+import org.apache.tuweni.bytes.Bytes;
+
+/**
+ * Check that a contiguous range of entries is exactly the content of a Unitrie between two keys.
+ *
+ * <p>The Unitrie is traversed from its root, only loading the nodes on the paths to the start key
+ * and to the last key of the range, which the range proof must provide. Every subtree hanging off
+ * those paths lies either outside the range, and is ignored, or inside it. The hash of a subtree
+ * inside the range must match the hash of the subtree rebuilt from the entries under its path, and
+ * the values stored on the two paths must match the entries at their keys. The range is verified if
+ * every entry is accounted for this way, so no entry can be added, changed or left out.
+ */
+class RangeVerifier {
+
+  private static final byte[] LEFT = {0};
+  private static final byte[] RIGHT = {1};
+
+  private final DataLoader loader;
+  private final UniNodeFactory nodeFactory = new DefaultUniNodeFactory();
+  private final byte[] startPath;
+  // Null when the range extends to the end of the Unitrie
+  private final byte[] endPath;
+  // Paths and values of the entries, in key order
+  private final List<byte[]> paths = new ArrayList<>();
+  private final List<byte[]> values = new ArrayList<>();
+  private int verifiedEntries;
+
+  private RangeVerifier(
+      final DataLoader loader, final Bytes startKey, final NavigableMap<Bytes, Bytes> entries) {
+    this.loader = loader;
+    this.startPath = toPath(startKey);
+    this.endPath = entries.isEmpty() ? null : toPath(entries.lastKey());
+    entries.forEach(
+        (key, value) -> {
+          paths.add(toPath(key));
+          values.add(value.toArrayUnsafe());
+        });
+  }
+
+  /**
+   * Verify that the given entries are all the entries of a Unitrie from {@code startKey} to the
+   * last entry, or from {@code startKey} onwards if there are no entries.
+   *
+   * @param root root of the Unitrie
+   * @param loader {@link DataLoader} resolving the nodes and long values on the boundary paths
+   * @param startKey key the range starts at
+   * @param entries entries in the range, none of them before {@code startKey}
+   * @return true iff the entries are exactly the content of the Unitrie in the range
+   * @throws IllegalStateException if a node on the boundary paths cannot be loaded
+   */
+  static boolean verify(
+      final UniNode root,
+      final DataLoader loader,
+      final Bytes startKey,
+      final NavigableMap<Bytes, Bytes> entries) {
+    final RangeVerifier verifier = new RangeVerifier(loader, startKey, entries);
+    return verifier.verify(root, new byte[0]) && verifier.verifiedEntries == entries.size();
+  }
+
+  private boolean verify(final UniNode node, final byte[] prefix) {
+    if (isBeforeRange(prefix) || isAfterRange(prefix)) {
+      return true;
+    }
+    if (!isOnBoundary(prefix)) {
+      return Arrays.equals(node.getHash(), rebuild(prefix).getHash());
+    }
+    if (node == NullUniNode.instance()) {
+      return true;
+    }
+
+    final byte[] path = concat(prefix, node.getPath());
+    if (path.length % 8 == 0 && isInRange(path)) {
+      final Optional<byte[]> value = node.getValue(loader);
+      if (value.isPresent()) {
+        final int index = firstIndexFrom(path);
+        if (index == paths.size()
+            || !Arrays.equals(paths.get(index), path)
+            || !Arrays.equals(values.get(index), value.get())) {
+          return false;
+        }
+        verifiedEntries++;
+      }
+    }
+
+    return verify(node.getLeftChild(), concat(path, LEFT))
+        && verify(node.getRightChild(), concat(path, RIGHT));
+  }
+
+  /** Every path starting with the prefix sorts before the start of the range. */
+  private boolean isBeforeRange(final byte[] prefix) {
+    return Arrays.compare(prefix, startPath) < 0 && !isPrefix(prefix, startPath);
+  }
+
+  /** Every path starting with the prefix sorts after the end of the range. */
+  private boolean isAfterRange(final byte[] prefix) {
+    return endPath != null && Arrays.compare(prefix, endPath) > 0;
+  }
+
+  /** Some paths starting with the prefix are in the range and some are not. */
+  private boolean isOnBoundary(final byte[] prefix) {
+    return (prefix.length < startPath.length && isPrefix(prefix, startPath))
+        || (endPath != null && isPrefix(prefix, endPath));
+  }
+
+  private boolean isInRange(final byte[] path) {
+    return Arrays.compare(path, startPath) >= 0
+        && (endPath == null || Arrays.compare(path, endPath) <= 0);
+  }
+
+  /** Rebuild the subtree holding the entries whose paths start with the given prefix. */
+  private UniNode rebuild(final byte[] prefix) {
+    UniNode subtree = NullUniNode.instance();
+    // Entries sharing a prefix are contiguous in key order
+    for (int i = firstIndexFrom(prefix); i < paths.size() && isPrefix(prefix, paths.get(i)); i++) {
+      final byte[] path = paths.get(i);
+      subtree =
+          subtree.accept(
+              new PutVisitor(values.get(i), nodeFactory),
+              Bytes.wrap(path, prefix.length, path.length - prefix.length));
+      verifiedEntries++;
+    }
+    return subtree;
+  }
+
+  private int firstIndexFrom(final byte[] path) {
+    int low = 0;
+    int high = paths.size();
+    while (low < high) {
+      final int mid = (low + high) >>> 1;
+      if (Arrays.compare(paths.get(mid), path) < 0) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
+  private static boolean isPrefix(final byte[] prefix, final byte[] path) {
+    return prefix.length <= path.length
+        && Arrays.equals(prefix, 0, prefix.length, path, 0, prefix.length);
+  }
+
+  private static byte[] toPath(final Bytes key) {
+    return PathEncoding.decodePath(key, key.size() * 8).toArrayUnsafe();
+  }
+
+  private static byte[] concat(final byte[] a, final byte[] b) {
+    final byte[] result = Arrays.copyOf(a, a.length + b.length);
+    System.arraycopy(b, 0, result, a.length, b.length);
+    return result;
+  }
+}
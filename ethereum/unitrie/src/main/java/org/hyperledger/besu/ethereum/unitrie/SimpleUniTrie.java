@@ -21,7 +21,9 @@ import org.hyperledger.besu.ethereum.trie.NodeUpdater;
 import org.hyperledger.besu.ethereum.trie.Proof;
 
 import java.util.List;
+import java.util.NavigableMap;
 import java.util.Optional;
+import java.util.TreeMap;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -98,13 +100,22 @@ public class SimpleUniTrie<K extends Bytes, V> implements UniTrie<K, V> {
   @Override
   public Optional<Integer> getValueLength(final K key) {
     checkNotNull(key);
-    return root.accept(getVisitor, bytesToPath(key)).getValueWrapper().getLength();
+    return root.accept(getVisitor, bytesToPath(key)).getValueLength();
   }
 
   @Override
   public Optional<Bytes32> getValueHash(final K key) {
     checkNotNull(key);
-    return root.accept(getVisitor, bytesToPath(key)).getValueWrapper().getHash().map(Bytes32::wrap);
+    return root.accept(getVisitor, bytesToPath(key)).getValueHash().map(Bytes32::wrap);
+  }
+
+  @Override
+  public NavigableMap<Bytes, V> entriesFrom(final Bytes startKey, final int limit) {
+    checkNotNull(startKey);
+    final NavigableMap<Bytes, V> entries = new TreeMap<>(KEY_ORDER);
+    EntriesCollector.collect(root, loader, startKey, limit)
+        .forEach((key, value) -> entries.put(key, valueDeserializer.apply(value)));
+    return entries;
   }
 
   @Override
@@ -52,6 +52,22 @@ public class StoredUniNodeFactory implements UniNodeFactory {
     return handleNewNode(new BranchUniNode(path, valueWrapper, leftChild, rightChild));
   }
 
+  @Override
+  public UniNode createBranch(
+      final byte[] path,
+      final ValueWrapper valueWrapper,
+      final UniNode leftChild,
+      final UniNode rightChild,
+      final long childrenSize) {
+
+    if ((leftChild == NullUniNode.instance()) && (rightChild == NullUniNode.instance())) {
+      return handleNewNode(new LeafUniNode(path, valueWrapper));
+    }
+
+    return handleNewNode(
+        new BranchUniNode(path, valueWrapper, leftChild, rightChild, childrenSize));
+  }
+
   private UniNode handleNewNode(final UniNode node) {
     node.markDirty();
     return node;
@@ -281,15 +281,16 @@ class UniNodeEncoding {
   }
 
   /**
-   * Decode {@link ValueWrapper} from the given byte buffer.
+   * Move the position of the given byte buffer, holding a full node encoding, past the flags, path
+   * and children of the node.
    *
-   * @param buffer byte buffer
-   * @return decoded {@link ValueWrapper} instance
+   * @param buffer byte buffer, positioned at the start of the encoding
+   * @return whether the node has children, in which case the buffer is left positioned at the
+   *     children size; otherwise it is left positioned at the value
    */
-  ValueWrapper decodeValueWrapperFromFullEncoding(final ByteBuffer buffer) {
+  boolean skipToChildrenSize(final ByteBuffer buffer) {
     byte flags = buffer.get();
 
-    boolean hasLongValue = (flags & 0b00100000) == 0b00100000;
     boolean hasPath = (flags & 0b00010000) == 0b00010000;
     boolean hasLeftChild = (flags & 0b00001000) == 0b00001000;
     boolean hasRightChild = (flags & 0b00000100) == 0b00000100;
@@ -303,41 +304,27 @@ class UniNodeEncoding {
     skipChild(buffer, hasLeftChild, leftChildEmbedded);
     skipChild(buffer, hasRightChild, rightChildEmbedded);
 
-    if (hasLeftChild || hasRightChild) {
-      skipVarInt(buffer);
-    }
-
-    return ValueWrapper.decodeFrom(buffer, hasLongValue);
+    return hasLeftChild || hasRightChild;
   }
 
   /**
-   * Decode children size from the given byte buffer.
+   * Move the position of the given byte buffer past the children size it is positioned at.
    *
    * @param buffer byte buffer
-   * @return decoded children size
    */
-  long decodeChildrenSizeFromFullEncoding(final ByteBuffer buffer) {
-    byte flags = buffer.get();
-
-    boolean hasPath = (flags & 0b00010000) == 0b00010000;
-    boolean hasLeftChild = (flags & 0b00001000) == 0b00001000;
-    boolean hasRightChild = (flags & 0b00000100) == 0b00000100;
-    boolean leftChildEmbedded = (flags & 0b00000010) == 0b00000010;
-    boolean rightChildEmbedded = (flags & 0b00000001) == 0b00000001;
-
-    if (hasPath) {
-      skipPath(buffer);
-    }
-
-    skipChild(buffer, hasLeftChild, leftChildEmbedded);
-    skipChild(buffer, hasRightChild, rightChildEmbedded);
-
-    long childrenSize = -1;
-    if (hasLeftChild || hasRightChild) {
-      childrenSize = readVarInt(buffer).getValue();
-    }
+  void skipChildrenSize(final ByteBuffer buffer) {
+    skipVarInt(buffer);
+  }
 
-    return childrenSize;
+  /**
+   * Decode the children size found at the given offset of a full node encoding.
+   *
+   * @param encoding full node encoding
+   * @param offset offset of the children size, as left by {@link #skipToChildrenSize(ByteBuffer)}
+   * @return decoded children size
+   */
+  long decodeChildrenSize(final byte[] encoding, final int offset) {
+    return new VarInt(encoding, offset).getValue();
   }
 
   /**
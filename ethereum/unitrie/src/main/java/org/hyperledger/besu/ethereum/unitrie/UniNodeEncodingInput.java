@@ -31,16 +31,18 @@ class UniNodeEncodingInput {
   private final ValueWrapper valueWrapper;
   private final UniNode leftChild;
   private final UniNode rightChild;
+  private final long childrenSize;
 
   UniNodeEncodingInput(final byte[] path, final ValueWrapper valueWrapper) {
-    this(path, valueWrapper, NullUniNode.instance(), NullUniNode.instance());
+    this(path, valueWrapper, NullUniNode.instance(), NullUniNode.instance(), 0);
   }
 
   UniNodeEncodingInput(
       final byte[] path,
       final ValueWrapper valueWrapper,
       final UniNode leftChild,
-      final UniNode rightChild) {
+      final UniNode rightChild,
+      final long childrenSize) {
 
     Preconditions.checkNotNull(path);
     Preconditions.checkNotNull(valueWrapper);
@@ -51,6 +53,19 @@ class UniNodeEncodingInput {
     this.valueWrapper = valueWrapper;
     this.leftChild = leftChild;
     this.rightChild = rightChild;
+    this.childrenSize = childrenSize;
+  }
+
+  /**
+   * Compute the children size of a node from its children. Children referenced by hash are loaded,
+   * so prefer deriving the size from the encoding of the node being replaced whenever possible.
+   *
+   * @param leftChild left hand side child
+   * @param rightChild right hand side child
+   * @return sum of the intrinsic sizes of both children
+   */
+  static long childrenSize(final UniNode leftChild, final UniNode rightChild) {
+    return leftChild.intrinsicSize() + rightChild.intrinsicSize();
   }
 
   public byte[] getPath() {
@@ -74,11 +89,7 @@ class UniNodeEncodingInput {
   }
 
   long getChildrenSize() {
-    if (isLeaf()) {
-      return 0;
-    } else {
-      return leftChild.intrinsicSize() + rightChild.intrinsicSize();
-    }
+    return isLeaf() ? 0 : childrenSize;
   }
 
   boolean isLeaf() {
@@ -41,4 +41,22 @@ public interface UniNodeFactory {
    */
   UniNode createBranch(
       byte[] path, ValueWrapper valueWrapper, UniNode leftChild, UniNode rightChild);
+
+  /**
+   * Create a branch {@link UniNode} whose children size is already known, so that children only
+   * referenced by hash don't have to be loaded to compute it.
+   *
+   * @param path path of node to create
+   * @param valueWrapper value of node to create
+   * @param leftChild left hand side child of node to create
+   * @param rightChild right hand side child of node to create
+   * @param childrenSize sum of the intrinsic sizes of both children
+   * @return new branch node
+   */
+  UniNode createBranch(
+      byte[] path,
+      ValueWrapper valueWrapper,
+      UniNode leftChild,
+      UniNode rightChild,
+      long childrenSize);
 }
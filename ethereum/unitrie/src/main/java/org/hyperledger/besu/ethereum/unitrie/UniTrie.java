@@ -21,9 +21,12 @@ import org.hyperledger.besu.ethereum.rlp.RLP;
 import org.hyperledger.besu.ethereum.trie.NodeUpdater;
 import org.hyperledger.besu.ethereum.trie.Proof;
 
+import java.util.Comparator;
+import java.util.NavigableMap;
 import java.util.Optional;
 import java.util.function.Consumer;
 
+import com.google.common.primitives.UnsignedBytes;
 import org.apache.tuweni.bytes.Bytes;
 import org.apache.tuweni.bytes.Bytes32;
 
@@ -33,6 +36,10 @@ public interface UniTrie<K, V> {
   Bytes NULL_UNINODE_ENCODING = RLP.NULL;
   Bytes32 NULL_UNINODE_HASH = keccak256(NULL_UNINODE_ENCODING);
 
+  /** Order of keys in a Unitrie: as unsigned byte strings, matching the order of their paths. */
+  Comparator<Bytes> KEY_ORDER =
+      Comparator.comparing(Bytes::toArrayUnsafe, UnsignedBytes.lexicographicalComparator());
+
   /**
    * Returns an {@code Optional} of value mapped to the hash if it exists; otherwise empty.
    *
@@ -74,6 +81,16 @@ public interface UniTrie<K, V> {
    */
   Optional<Bytes32> getValueHash(final K key);
 
+  /**
+   * Retrieve up to {@code limit} entries, in {@link #KEY_ORDER}, beginning from the first entry
+   * with key equal to or greater than {@code startKey}.
+   *
+   * @param startKey the first key to return
+   * @param limit the maximum number of entries to return
+   * @return the requested entries as a map of key to value
+   */
+  NavigableMap<Bytes, V> entriesFrom(Bytes startKey, int limit);
+
   /**
    * Updates the value mapped to the specified key, creating the mapping if one does not already
    * exist.
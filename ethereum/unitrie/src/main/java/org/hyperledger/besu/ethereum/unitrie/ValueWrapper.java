@@ -20,7 +20,6 @@ import org.hyperledger.besu.ethereum.unitrie.ints.UInt24;
 import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.NoSuchElementException;
-import java.util.Objects;
 import java.util.Optional;
 
 import com.google.common.base.Preconditions;
@@ -50,7 +49,7 @@ public final class ValueWrapper {
   private static final int MAX_SHORT_LEN = 64;
 
   private byte[] value;
-  private final byte[] hash;
+  private byte[] hash;
   private final int length;
 
   private ValueWrapper(final byte[] value, final byte[] hash, final int length) {
@@ -76,8 +75,8 @@ public final class ValueWrapper {
    */
   public static ValueWrapper fromValue(final byte[] value) {
     Preconditions.checkNotNull(value, "Value can't be null");
-    Bytes32 hash = Hash.keccak256(Bytes.of(value));
-    return new ValueWrapper(value, hash.toArrayUnsafe(), value.length);
+    // The hash of a short value is only computed if requested, see getHash()
+    return new ValueWrapper(value, null, value.length);
   }
 
   /**
@@ -156,6 +155,9 @@ public final class ValueWrapper {
    * @return optional with hash if wrapper isn't empty, empty optional otherwise
    */
   Optional<byte[]> getHash() {
+    if (hash == null && value != null) {
+      hash = Hash.keccak256(Bytes.wrap(value)).toArrayUnsafe();
+    }
     return Optional.ofNullable(hash);
   }
 
@@ -174,7 +176,7 @@ public final class ValueWrapper {
    * @return whether this wrapper is empty
    */
   boolean isEmpty() {
-    return Objects.isNull(hash);
+    return length == -1;
   }
 
   /**
@@ -188,8 +190,10 @@ public final class ValueWrapper {
     if (isEmpty() || value.length != length) {
       return false;
     }
-    return (this.value != null && Arrays.equals(value, this.value))
-        || Hash.keccak256(Bytes.of(value)).equals(Bytes32.wrap(hash));
+    if (this.value != null) {
+      return Arrays.equals(value, this.value);
+    }
+    return Hash.keccak256(Bytes.wrap(value)).equals(Bytes32.wrap(hash));
   }
 
   /**
@@ -207,7 +211,8 @@ public final class ValueWrapper {
       return "[empty]";
     }
 
-    return String.format("(%s, hash=%s, len=%d)", Bytes.wrap(value), Bytes32.wrap(hash), length);
+    return String.format(
+        "(%s, hash=%s, len=%d)", Bytes.wrap(value), Bytes32.wrap(getHash().get()), length);
   }
 
   /**
@@ -221,7 +226,7 @@ public final class ValueWrapper {
     }
 
     if (isLong()) {
-      buffer.put(hash);
+      buffer.put(getHash().get());
       buffer.put(UInt24.fromInt(length).toByteArray());
     } else {
       buffer.put(value);
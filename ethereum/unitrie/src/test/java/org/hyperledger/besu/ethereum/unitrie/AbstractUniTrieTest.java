@@ -17,6 +17,7 @@ package org.hyperledger.besu.ethereum.unitrie;
 
 import static junit.framework.TestCase.assertFalse;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
 
 import org.hyperledger.besu.ethereum.trie.KeyValueMerkleStorage;
 import org.hyperledger.besu.ethereum.trie.MerkleStorage;
@@ -411,4 +412,29 @@ public abstract class AbstractUniTrieTest {
 
     assertThat(trie.getValueLength(key2)).contains(1021);
   }
+
+  @Test
+  public void entriesFromReturnsEntriesInKeyOrder() {
+    trie.put(Bytes.of(0xff), "value5");
+    trie.put(Bytes.of(1, 5, 2), "value3");
+    trie.put(Bytes.of(1), "value1");
+    trie.put(Bytes.of(2), Strings.repeat("x", 100));
+    trie.put(Bytes.of(1, 5), "value2");
+
+    assertThat(trie.entriesFrom(Bytes.EMPTY, 10))
+        .containsExactly(
+            entry(Bytes.of(1), "value1"),
+            entry(Bytes.of(1, 5), "value2"),
+            entry(Bytes.of(1, 5, 2), "value3"),
+            entry(Bytes.of(2), Strings.repeat("x", 100)),
+            entry(Bytes.of(0xff), "value5"));
+    assertThat(trie.entriesFrom(Bytes.of(1, 5), 2))
+        .containsExactly(entry(Bytes.of(1, 5), "value2"), entry(Bytes.of(1, 5, 2), "value3"));
+    assertThat(trie.entriesFrom(Bytes.of(1, 6), 10).keySet())
+        .containsExactly(Bytes.of(2), Bytes.of(0xff));
+    assertThat(trie.entriesFrom(Bytes.of(1, 5, 2, 0), 10).keySet())
+        .containsExactly(Bytes.of(2), Bytes.of(0xff));
+    assertThat(trie.entriesFrom(Bytes.EMPTY, 0)).isEmpty();
+    assertThat(trie.entriesFrom(Bytes.of(0xff, 0), 10)).isEmpty();
+  }
 }
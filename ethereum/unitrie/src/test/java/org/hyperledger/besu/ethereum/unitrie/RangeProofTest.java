@@ -0,0 +1,191 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.unitrie;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.hyperledger.besu.ethereum.trie.KeyValueMerkleStorage;
+import org.hyperledger.besu.ethereum.trie.MerkleStorage;
+import org.hyperledger.besu.services.kvstore.InMemoryKeyValueStorage;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+import com.google.common.base.Strings;
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+import org.junit.Before;
+import org.junit.Test;
+
+public class RangeProofTest {
+
+  private final MerkleStorage storage = new KeyValueMerkleStorage(new InMemoryKeyValueStorage());
+  private UniTrie<Bytes, Bytes> trie;
+  private Bytes32 rootHash;
+
+  @Before
+  public void setup() {
+    final UniTrie<Bytes, Bytes> source = new StoredUniTrie<>(storage::get, b -> b, b -> b);
+    for (int i = 0; i < 200; i++) {
+      final Bytes key = Bytes.of(i, i % 7);
+      source.put(key, Bytes.of(i));
+      source.put(
+          Bytes.concatenate(key, Bytes.of(1)), Bytes.wrap(Strings.repeat("v", i + 1).getBytes()));
+    }
+    source.commit(storage::put, storage::put);
+    rootHash = source.getRootHash();
+    trie = new StoredUniTrie<>(storage::get, rootHash, b -> b, b -> b);
+  }
+
+  @Test
+  public void verifiesRange() {
+    final Bytes startKey = Bytes.of(50);
+    final NavigableMap<Bytes, Bytes> entries = trie.entriesFrom(startKey, 40);
+    final List<Bytes> proof = RangeProof.create(trie, startKey, entries);
+
+    assertThat(entries).hasSize(40);
+    assertThat(RangeProof.verify(rootHash, startKey, entries, proof)).isTrue();
+  }
+
+  @Test
+  public void verifiesEmptyRangeAfterLastKey() {
+    final Bytes startKey = Bytes.of(0xff);
+    final NavigableMap<Bytes, Bytes> entries = trie.entriesFrom(startKey, 40);
+    final List<Bytes> proof = RangeProof.create(trie, startKey, entries);
+
+    assertThat(entries).isEmpty();
+    assertThat(RangeProof.verify(rootHash, startKey, entries, proof)).isTrue();
+  }
+
+  @Test
+  public void rejectsTamperedBoundaryValue() {
+    final Bytes startKey = Bytes.of(50);
+    final NavigableMap<Bytes, Bytes> entries = new TreeMap<>(trie.entriesFrom(startKey, 40));
+    final List<Bytes> proof = RangeProof.create(trie, startKey, entries);
+    entries.put(entries.lastKey(), Bytes.of(0xba, 0xd));
+
+    assertThat(RangeProof.verify(rootHash, startKey, entries, proof)).isFalse();
+  }
+
+  @Test
+  public void verifiesRangeStartingBetweenKeys() {
+    final Bytes startKey = Bytes.of(50, 3, 7);
+    final NavigableMap<Bytes, Bytes> entries = trie.entriesFrom(startKey, 40);
+    final List<Bytes> proof = RangeProof.create(trie, startKey, entries);
+
+    assertThat(entries.firstKey()).isNotEqualTo(startKey);
+    assertThat(RangeProof.verify(rootHash, startKey, entries, proof)).isTrue();
+  }
+
+  @Test
+  public void verifiesWholeTrie() {
+    final NavigableMap<Bytes, Bytes> entries = trie.entriesFrom(Bytes.EMPTY, 1000);
+    final List<Bytes> proof = RangeProof.create(trie, Bytes.EMPTY, entries);
+
+    assertThat(RangeProof.verify(rootHash, Bytes.EMPTY, entries, proof)).isTrue();
+  }
+
+  @Test
+  public void verifiesConsecutiveRanges() {
+    Bytes startKey = Bytes.EMPTY;
+    NavigableMap<Bytes, Bytes> entries;
+    do {
+      entries = trie.entriesFrom(startKey, 7);
+      final List<Bytes> proof = RangeProof.create(trie, startKey, entries);
+      assertThat(RangeProof.verify(rootHash, startKey, entries, proof)).isTrue();
+      if (!entries.isEmpty()) {
+        startKey = Bytes.concatenate(entries.lastKey(), Bytes.of(0));
+      }
+    } while (!entries.isEmpty());
+  }
+
+  @Test
+  public void rejectsRangeWithMissingEntry() {
+    final Bytes startKey = Bytes.of(50);
+    final NavigableMap<Bytes, Bytes> entries = new TreeMap<>(trie.entriesFrom(startKey, 40));
+    final List<Bytes> proof = RangeProof.create(trie, startKey, entries);
+    entries.remove(entries.higherKey(entries.firstKey()));
+
+    assertThat(RangeProof.verify(rootHash, startKey, entries, proof)).isFalse();
+  }
+
+  @Test
+  public void rejectsRangeWithMissingFirstEntry() {
+    final Bytes startKey = Bytes.of(50);
+    final NavigableMap<Bytes, Bytes> entries = new TreeMap<>(trie.entriesFrom(startKey, 40));
+    entries.remove(entries.firstKey());
+    final List<Bytes> proof = RangeProof.create(trie, startKey, entries);
+
+    assertThat(RangeProof.verify(rootHash, startKey, entries, proof)).isFalse();
+  }
+
+  @Test
+  public void rejectsRangeWithTamperedInnerValue() {
+    final Bytes startKey = Bytes.of(50);
+    final NavigableMap<Bytes, Bytes> entries = new TreeMap<>(trie.entriesFrom(startKey, 40));
+    final List<Bytes> proof = RangeProof.create(trie, startKey, entries);
+    entries.put(entries.higherKey(entries.firstKey()), Bytes.of(0xba, 0xd));
+
+    assertThat(RangeProof.verify(rootHash, startKey, entries, proof)).isFalse();
+  }
+
+  @Test
+  public void rejectsRangeWithExtraEntry() {
+    final Bytes startKey = Bytes.of(50);
+    final NavigableMap<Bytes, Bytes> entries = new TreeMap<>(trie.entriesFrom(startKey, 40));
+    final List<Bytes> proof = RangeProof.create(trie, startKey, entries);
+    entries.put(Bytes.of(50, 3, 7), Bytes.of(1));
+
+    assertThat(RangeProof.verify(rootHash, startKey, entries, proof)).isFalse();
+  }
+
+  @Test
+  public void rejectsEmptyRangeWhenEntriesFollowStartKey() {
+    final Bytes startKey = Bytes.of(50);
+    final NavigableMap<Bytes, Bytes> entries = new TreeMap<>(UniTrie.KEY_ORDER);
+    final List<Bytes> proof = RangeProof.create(trie, startKey, entries);
+
+    assertThat(RangeProof.verify(rootHash, startKey, entries, proof)).isFalse();
+  }
+
+  @Test
+  public void rejectsIncompleteProof() {
+    final Bytes startKey = Bytes.of(50);
+    final NavigableMap<Bytes, Bytes> entries = trie.entriesFrom(startKey, 40);
+    final List<Bytes> proof = new ArrayList<>(RangeProof.create(trie, startKey, entries));
+    proof.remove(proof.size() - 1);
+
+    assertThat(RangeProof.verify(rootHash, startKey, entries, proof)).isFalse();
+  }
+
+  @Test
+  public void rejectsEntriesBeforeStartKey() {
+    final NavigableMap<Bytes, Bytes> entries = trie.entriesFrom(Bytes.of(40), 40);
+    final List<Bytes> proof = RangeProof.create(trie, Bytes.of(40), entries);
+
+    assertThat(RangeProof.verify(rootHash, Bytes.of(50), entries, proof)).isFalse();
+  }
+
+  @Test
+  public void rejectsRangeOfAnotherTrie() {
+    final Bytes startKey = Bytes.of(50);
+    final NavigableMap<Bytes, Bytes> entries = trie.entriesFrom(startKey, 40);
+    final List<Bytes> proof = RangeProof.create(trie, startKey, entries);
+
+    assertThat(RangeProof.verify(Bytes32.ZERO, startKey, entries, proof)).isFalse();
+  }
+}
@@ -25,6 +25,7 @@ import org.hyperledger.besu.services.kvstore.InMemoryKeyValueStorage;
 
 import java.nio.charset.StandardCharsets;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 
 import org.apache.tuweni.bytes.Bytes;
@@ -166,6 +167,39 @@ public class StoredUniTrieTest extends AbstractUniTrieTest {
     }
   }
 
+  @Test
+  public void putOnlyLoadsNodesOnItsPath() {
+    for (int i = 0; i < 1000; i++) {
+      trie.put(toKey(i), toValue(i));
+    }
+    trie.commit(merkleStorage::put, merkleStorage::put);
+    final Bytes32 rootHash = trie.getRootHash();
+
+    // Even keys hold short values, so reading them loads exactly the nodes on their path
+    for (int i = 0; i < 1000; i += 2) {
+      final Bytes key = toKey(i);
+      final AtomicInteger loads = new AtomicInteger();
+      final DataLoader countingLoader =
+          hash -> {
+            loads.incrementAndGet();
+            return merkleStorage.get(hash);
+          };
+
+      new StoredUniTrie<>(countingLoader, rootHash, valueSerializer, valueDeserializer).get(key);
+      final int pathLoads = loads.getAndSet(0);
+
+      final UniTrie<Bytes, String> modifiedTrie =
+          new StoredUniTrie<>(countingLoader, rootHash, valueSerializer, valueDeserializer);
+      modifiedTrie.put(key, "updated");
+      final Bytes32 modifiedHash = modifiedTrie.getRootHash();
+      assertThat(loads.get()).isEqualTo(pathLoads);
+
+      trie.put(key, "updated");
+      assertThat(modifiedHash).isEqualTo(trie.getRootHash());
+      trie.put(key, toValue(i));
+    }
+  }
+
   private Bytes toKey(final int i) {
     Bytes32 hash = Hash.keccak256(Bytes.wrap(String.valueOf(i).getBytes(StandardCharsets.UTF_8)));
     return Bytes.wrap(hash.toArrayUnsafe());
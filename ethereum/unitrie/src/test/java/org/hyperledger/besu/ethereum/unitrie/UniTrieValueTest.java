@@ -90,6 +90,36 @@ public class UniTrieValueTest {
     assertThat(trie.getValue(loader)).hasValue(value);
   }
 
+  @Test
+  public void decodedNodesReadSameValuesAndChildrenSize() {
+    byte[] shortValue = bytes(1, 2, 3);
+    byte[] longValue = makeValue(65);
+
+    UniNode trie =
+        NullUniNode.instance()
+            .accept(new PutVisitor(shortValue, nodeFactory), Bytes.of(0, 1))
+            .accept(new PutVisitor(longValue, nodeFactory), Bytes.of(0, 1, 1))
+            .accept(new PutVisitor(shortValue, nodeFactory), Bytes.of(0, 1, 0, 1))
+            .accept(new PutVisitor(longValue, nodeFactory), Bytes.of(1, 0, 1, 1));
+    storage.put(Hash.keccak256(Bytes.of(longValue)), Bytes.of(longValue));
+
+    StoredUniNodeFactory storedNodeFactory = new StoredUniNodeFactory(loader);
+    trie.accept(
+        new AllUniNodesVisitor(
+            node -> {
+              UniNode decoded = storedNodeFactory.decode(node.getEncoding());
+              assertThat(decoded.getValue(loader).map(Bytes::wrap))
+                  .isEqualTo(node.getValue(loader).map(Bytes::wrap));
+              assertThat(decoded.getValueHash().map(Bytes::wrap))
+                  .isEqualTo(node.getValueHash().map(Bytes::wrap));
+              assertThat(decoded.getValueLength()).isEqualTo(node.getValueLength());
+              assertThat(decoded.getValueWrapper().isLong())
+                  .isEqualTo(node.getValueWrapper().isLong());
+              assertThat(decoded.getChildrenSize()).isEqualTo(node.getChildrenSize());
+              assertThat(decoded.intrinsicSize()).isEqualTo(node.intrinsicSize());
+            }));
+  }
+
   private static byte[] makeValue(final int length) {
     byte[] value = new byte[length];
 
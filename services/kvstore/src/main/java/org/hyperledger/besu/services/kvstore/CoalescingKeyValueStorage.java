@@ -0,0 +1,404 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.services.kvstore;
+
+import static com.google.common.base.Preconditions.checkState;
+
+import org.hyperledger.besu.plugin.services.exception.StorageException;
+import org.hyperledger.besu.plugin.services.storage.KeyValueStorage;
+import org.hyperledger.besu.plugin.services.storage.KeyValueStorageTransaction;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import org.apache.tuweni.bytes.Bytes;
+
+/**
+ * Key-value storage that can hold the transactions committed to it in memory, and write them to the
+ * underlying storage together.
+ *
+ * <p>While coalescing, committed transactions are merged into pending changes that reads consult
+ * before the underlying storage, so they are visible straight away. A flush writes the pending
+ * changes in a single transaction of the underlying storage, while transactions committed in the
+ * meantime are coalesced separately.
+ *
+ * <p>Transactions commit under a shared lock, so that while not coalescing they are written to the
+ * underlying storage concurrently, as they would be without this wrapper. Starting and stopping
+ * coalescing, and detaching the pending changes, take the lock exclusively.
+ */
+public class CoalescingKeyValueStorage implements KeyValueStorage {
+
+  private final KeyValueStorage storage;
+  private final Lock commitLock;
+  private final Lock exclusiveLock;
+  // Signalled, holding the exclusive lock, when a flush completes
+  private final Condition flushCompleted;
+
+  // Changes not written to the storage yet, mapped to empty if removed, or null if not coalescing
+  private volatile Map<Bytes, Optional<byte[]>> pending;
+  // Changes being written to the storage, still visible to reads until the flush completes
+  private volatile Map<Bytes, Optional<byte[]>> flushing;
+
+  public CoalescingKeyValueStorage(final KeyValueStorage storage) {
+    this.storage = storage;
+    final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    this.commitLock = lock.readLock();
+    this.exclusiveLock = lock.writeLock();
+    this.flushCompleted = exclusiveLock.newCondition();
+  }
+
+  /** Start holding committed transactions in memory, until flushed. */
+  public void startCoalescing() {
+    exclusiveLock.lock();
+    try {
+      if (pending == null) {
+        pending = new ConcurrentHashMap<>();
+      }
+    } finally {
+      exclusiveLock.unlock();
+    }
+  }
+
+  /** Write the pending changes to the underlying storage and stop coalescing transactions. */
+  public void stopCoalescing() {
+    exclusiveLock.lock();
+    try {
+      // Holding the lock keeps later transactions from being overwritten by the flushed changes
+      awaitFlush();
+      startFlush().complete();
+      pending = null;
+    } finally {
+      exclusiveLock.unlock();
+    }
+  }
+
+  public boolean isCoalescing() {
+    return pending != null;
+  }
+
+  /**
+   * Start flushing the pending changes. Transactions committed from now on are coalesced
+   * separately, and the flushed changes stay visible to reads until {@link Flush#complete()} has
+   * written them to the underlying storage.
+   *
+   * @return the flush to complete
+   */
+  public Flush startFlush() {
+    exclusiveLock.lock();
+    try {
+      checkState(flushing == null, "A flush is already in progress");
+      final Map<Bytes, Optional<byte[]>> changes = pending;
+      if (changes == null || changes.isEmpty()) {
+        return new Flush(Map.of());
+      }
+      flushing = changes;
+      pending = new ConcurrentHashMap<>();
+      return new Flush(changes);
+    } finally {
+      exclusiveLock.unlock();
+    }
+  }
+
+  /**
+   * Complete several flushes. When the storages they were started on share the same underlying
+   * storage, or are segments of the same {@link SegmentedKeyValueStorage}, their changes are
+   * written atomically in a single transaction. Otherwise the flushes are completed one after the
+   * other, in the given order.
+   *
+   * @param flushes the flushes to complete
+   */
+  public static void completeAll(final List<Flush> flushes) throws StorageException {
+    final List<Flush> writes =
+        flushes.stream().filter(flush -> !flush.changes.isEmpty()).collect(Collectors.toList());
+    if (writes.size() < 2) {
+      writes.forEach(Flush::complete);
+      return;
+    }
+
+    final KeyValueStorage storage = writes.get(0).getStorage();
+    final Optional<SegmentedKeyValueStorage<?>> segmentedStorage = getSegmentedStorage(writes);
+    if (!writes.stream().allMatch(flush -> flush.getStorage() == storage)
+        && segmentedStorage.isEmpty()) {
+      writes.forEach(Flush::complete);
+      return;
+    }
+
+    boolean written = false;
+    try {
+      if (segmentedStorage.isPresent()) {
+        writeSegments(segmentedStorage.get(), writes);
+      } else {
+        final KeyValueStorageTransaction transaction = storage.startTransaction();
+        writes.forEach(flush -> writeTo(transaction, flush.changes));
+        transaction.commit();
+      }
+      written = true;
+    } finally {
+      for (final Flush flush : writes) {
+        flush.finish(written);
+      }
+    }
+  }
+
+  private static Optional<SegmentedKeyValueStorage<?>> getSegmentedStorage(
+      final List<Flush> flushes) {
+    SegmentedKeyValueStorage<?> segmentedStorage = null;
+    for (final Flush flush : flushes) {
+      if (!(flush.getStorage() instanceof SegmentedKeyValueStorageAdapter)) {
+        return Optional.empty();
+      }
+      final SegmentedKeyValueStorage<?> flushStorage =
+          ((SegmentedKeyValueStorageAdapter<?>) flush.getStorage()).getSegmentedStorage();
+      if (segmentedStorage != null && segmentedStorage != flushStorage) {
+        return Optional.empty();
+      }
+      segmentedStorage = flushStorage;
+    }
+    return Optional.ofNullable(segmentedStorage);
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <S> void writeSegments(
+      final SegmentedKeyValueStorage<S> segmentedStorage, final List<Flush> flushes) {
+    final SegmentedKeyValueStorage.Transaction<S> transaction = segmentedStorage.startTransaction();
+    for (final Flush flush : flushes) {
+      final S segment =
+          ((SegmentedKeyValueStorageAdapter<S>) flush.getStorage()).getSegmentHandle();
+      flush.changes.forEach(
+          (key, value) -> {
+            if (value.isPresent()) {
+              transaction.put(segment, key.toArrayUnsafe(), value.get());
+            } else {
+              transaction.remove(segment, key.toArrayUnsafe());
+            }
+          });
+    }
+    transaction.commit();
+  }
+
+  @Override
+  public void clear() throws StorageException {
+    exclusiveLock.lock();
+    try {
+      awaitFlush();
+      if (pending != null) {
+        pending.clear();
+      }
+      storage.clear();
+    } finally {
+      exclusiveLock.unlock();
+    }
+  }
+
+  @Override
+  public boolean containsKey(final byte[] key) throws StorageException {
+    final Optional<byte[]> value = getPending(Bytes.wrap(key));
+    return value != null ? value.isPresent() : storage.containsKey(key);
+  }
+
+  @Override
+  public Optional<byte[]> get(final byte[] key) throws StorageException {
+    final Optional<byte[]> value = getPending(Bytes.wrap(key));
+    return value != null ? value : storage.get(key);
+  }
+
+  /**
+   * Remove the keys that don't satisfy the condition. Pending changes are flushed first, so the
+   * removals go straight to the underlying storage.
+   */
+  @Override
+  public long removeAllKeysUnless(final Predicate<byte[]> retainCondition) throws StorageException {
+    exclusiveLock.lock();
+    try {
+      awaitFlush();
+      startFlush().complete();
+      return storage.removeAllKeysUnless(retainCondition);
+    } finally {
+      exclusiveLock.unlock();
+    }
+  }
+
+  @Override
+  public Set<byte[]> getAllKeysThat(final Predicate<byte[]> returnCondition) {
+    final Map<Bytes, Optional<byte[]>> changes = new HashMap<>();
+    final Map<Bytes, Optional<byte[]>> flushingChanges = flushing;
+    final Map<Bytes, Optional<byte[]>> pendingChanges = pending;
+    if (flushingChanges != null) {
+      changes.putAll(flushingChanges);
+    }
+    if (pendingChanges != null) {
+      changes.putAll(pendingChanges);
+    }
+    final Set<byte[]> keys =
+        new HashSet<>(
+            storage.getAllKeysThat(
+                key -> !changes.containsKey(Bytes.wrap(key)) && returnCondition.test(key)));
+    changes.forEach(
+        (key, value) -> {
+          if (value.isPresent() && returnCondition.test(key.toArrayUnsafe())) {
+            keys.add(key.toArrayUnsafe());
+          }
+        });
+    return keys;
+  }
+
+  @Override
+  public KeyValueStorageTransaction startTransaction() throws StorageException {
+    // Whether the changes are coalesced or written straight away is decided when committing
+    return new KeyValueStorageTransactionTransitionValidatorDecorator(new CoalescedTransaction());
+  }
+
+  @Override
+  public void close() throws IOException {
+    storage.close();
+  }
+
+  private Optional<byte[]> getPending(final Bytes key) {
+    final Map<Bytes, Optional<byte[]>> pendingChanges = pending;
+    if (pendingChanges != null) {
+      final Optional<byte[]> value = pendingChanges.get(key);
+      if (value != null) {
+        return value;
+      }
+    }
+    final Map<Bytes, Optional<byte[]>> flushingChanges = flushing;
+    return flushingChanges != null ? flushingChanges.get(key) : null;
+  }
+
+  // Must be called holding the exclusive lock
+  private void awaitFlush() {
+    while (flushing != null) {
+      try {
+        flushCompleted.await();
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new StorageException(e);
+      }
+    }
+  }
+
+  private void commit(final Map<Bytes, Optional<byte[]>> changes) {
+    commitLock.lock();
+    try {
+      final Map<Bytes, Optional<byte[]>> pendingChanges = pending;
+      if (pendingChanges != null) {
+        pendingChanges.putAll(changes);
+      } else {
+        write(changes);
+      }
+    } finally {
+      commitLock.unlock();
+    }
+  }
+
+  private void write(final Map<Bytes, Optional<byte[]>> changes) {
+    final KeyValueStorageTransaction transaction = storage.startTransaction();
+    writeTo(transaction, changes);
+    transaction.commit();
+  }
+
+  private static void writeTo(
+      final KeyValueStorageTransaction transaction, final Map<Bytes, Optional<byte[]>> changes) {
+    changes.forEach(
+        (key, value) -> {
+          if (value.isPresent()) {
+            transaction.put(key.toArrayUnsafe(), value.get());
+          } else {
+            transaction.remove(key.toArrayUnsafe());
+          }
+        });
+  }
+
+  /** Pending changes detached by {@link #startFlush()}. */
+  public class Flush {
+    private final Map<Bytes, Optional<byte[]>> changes;
+
+    private Flush(final Map<Bytes, Optional<byte[]>> changes) {
+      this.changes = changes;
+    }
+
+    /**
+     * Write the flushed changes to the underlying storage. If writing fails, the changes are moved
+     * back to the pending changes, unless superseded by a transaction committed since the flush
+     * started, so that the next flush writes them.
+     */
+    public void complete() throws StorageException {
+      if (changes.isEmpty()) {
+        return;
+      }
+      boolean written = false;
+      try {
+        write(changes);
+        written = true;
+      } finally {
+        finish(written);
+      }
+    }
+
+    private KeyValueStorage getStorage() {
+      return storage;
+    }
+
+    private void finish(final boolean written) {
+      exclusiveLock.lock();
+      try {
+        if (!written) {
+          // Coalescing can't stop while a flush is in progress, so there are pending changes
+          changes.forEach(pending::putIfAbsent);
+        }
+        flushing = null;
+        flushCompleted.signalAll();
+      } finally {
+        exclusiveLock.unlock();
+      }
+    }
+  }
+
+  private class CoalescedTransaction implements KeyValueStorageTransaction {
+
+    private final Map<Bytes, Optional<byte[]>> changes = new HashMap<>();
+
+    @Override
+    public void put(final byte[] key, final byte[] value) {
+      changes.put(Bytes.wrap(key), Optional.of(value));
+    }
+
+    @Override
+    public void remove(final byte[] key) {
+      changes.put(Bytes.wrap(key), Optional.empty());
+    }
+
+    @Override
+    public void commit() throws StorageException {
+      CoalescingKeyValueStorage.this.commit(changes);
+    }
+
+    @Override
+    public void rollback() {
+      changes.clear();
+    }
+  }
+}
@@ -35,6 +35,14 @@ public class SegmentedKeyValueStorageAdapter<S> implements KeyValueStorage {
     this.storage = storage;
   }
 
+  S getSegmentHandle() {
+    return segmentHandle;
+  }
+
+  SegmentedKeyValueStorage<S> getSegmentedStorage() {
+    return storage;
+  }
+
   @Override
   public void clear() {
     storage.clear(segmentHandle);
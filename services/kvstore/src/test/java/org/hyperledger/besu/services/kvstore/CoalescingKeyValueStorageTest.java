@@ -0,0 +1,306 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.services.kvstore;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.hyperledger.besu.kvstore.AbstractKeyValueStorageTest;
+import org.hyperledger.besu.plugin.services.exception.StorageException;
+import org.hyperledger.besu.plugin.services.storage.KeyValueStorage;
+import org.hyperledger.besu.plugin.services.storage.KeyValueStorageTransaction;
+import org.hyperledger.besu.plugin.services.storage.SegmentIdentifier;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.junit.Test;
+
+public class CoalescingKeyValueStorageTest extends AbstractKeyValueStorageTest {
+
+  private static final byte[] KEY = Bytes.fromHexString("0x01").toArrayUnsafe();
+  private static final byte[] OTHER_KEY = Bytes.fromHexString("0x02").toArrayUnsafe();
+  private static final byte[] VALUE = Bytes.fromHexString("0x0abc").toArrayUnsafe();
+  private static final byte[] OTHER_VALUE = Bytes.fromHexString("0x0def").toArrayUnsafe();
+
+  private final InMemoryKeyValueStorage underlying = new InMemoryKeyValueStorage();
+  private final CoalescingKeyValueStorage storage = new CoalescingKeyValueStorage(underlying);
+
+  @Override
+  protected KeyValueStorage createStore() {
+    final CoalescingKeyValueStorage store =
+        new CoalescingKeyValueStorage(new InMemoryKeyValueStorage());
+    store.startCoalescing();
+    return store;
+  }
+
+  @Test
+  public void writesThroughWhenNotCoalescing() {
+    put(KEY, VALUE);
+
+    assertThat(underlying.get(KEY)).contains(VALUE);
+  }
+
+  @Test
+  public void holdsCommittedTransactionsUntilFlushed() {
+    storage.startCoalescing();
+    put(KEY, VALUE);
+
+    assertThat(storage.get(KEY)).contains(VALUE);
+    assertThat(storage.containsKey(KEY)).isTrue();
+    assertThat(underlying.get(KEY)).isEmpty();
+
+    storage.startFlush().complete();
+
+    assertThat(underlying.get(KEY)).contains(VALUE);
+    assertThat(storage.get(KEY)).contains(VALUE);
+    assertThat(storage.isCoalescing()).isTrue();
+  }
+
+  @Test
+  public void hidesRemovedKeysUntilFlushed() {
+    put(KEY, VALUE);
+    storage.startCoalescing();
+
+    final KeyValueStorageTransaction transaction = storage.startTransaction();
+    transaction.remove(KEY);
+    transaction.commit();
+
+    assertThat(storage.get(KEY)).isEmpty();
+    assertThat(storage.containsKey(KEY)).isFalse();
+    assertThat(storage.getAllKeysThat(key -> true)).isEmpty();
+    assertThat(underlying.get(KEY)).contains(VALUE);
+
+    storage.stopCoalescing();
+
+    assertThat(underlying.get(KEY)).isEmpty();
+  }
+
+  @Test
+  public void keepsFlushedChangesVisibleUntilComplete() {
+    storage.startCoalescing();
+    put(KEY, VALUE);
+
+    final CoalescingKeyValueStorage.Flush flush = storage.startFlush();
+    put(OTHER_KEY, OTHER_VALUE);
+
+    assertThat(storage.get(KEY)).contains(VALUE);
+    assertThat(storage.get(OTHER_KEY)).contains(OTHER_VALUE);
+    assertThat(underlying.get(KEY)).isEmpty();
+
+    flush.complete();
+
+    assertThat(underlying.get(KEY)).contains(VALUE);
+    assertThat(underlying.get(OTHER_KEY)).isEmpty();
+    assertThat(storage.get(OTHER_KEY)).contains(OTHER_VALUE);
+  }
+
+  @Test
+  public void newerChangesOverrideFlushedOnes() {
+    storage.startCoalescing();
+    put(KEY, VALUE);
+
+    final CoalescingKeyValueStorage.Flush flush = storage.startFlush();
+    put(KEY, OTHER_VALUE);
+    flush.complete();
+
+    assertThat(storage.get(KEY)).contains(OTHER_VALUE);
+
+    storage.stopCoalescing();
+
+    assertThat(underlying.get(KEY)).contains(OTHER_VALUE);
+  }
+
+  @Test
+  public void writesTransactionsCommittedAfterCoalescingStopped() {
+    storage.startCoalescing();
+    final KeyValueStorageTransaction transaction = storage.startTransaction();
+    transaction.put(KEY, VALUE);
+    storage.stopCoalescing();
+
+    transaction.commit();
+
+    assertThat(underlying.get(KEY)).contains(VALUE);
+  }
+
+  @Test
+  public void validatesTransactionsWhenNotCoalescing() {
+    final KeyValueStorageTransaction transaction = storage.startTransaction();
+    transaction.put(KEY, VALUE);
+    transaction.commit();
+
+    assertThatThrownBy(transaction::commit).isInstanceOf(IllegalStateException.class);
+    assertThat(underlying.get(KEY)).contains(VALUE);
+  }
+
+  @Test
+  public void restoresFlushedChangesWhenWriteFails() {
+    final InMemoryKeyValueStorage failing = spy(new InMemoryKeyValueStorage());
+    final KeyValueStorageTransaction failingTransaction = mock(KeyValueStorageTransaction.class);
+    doThrow(new StorageException("Write failed")).when(failingTransaction).commit();
+    final CoalescingKeyValueStorage store = new CoalescingKeyValueStorage(failing);
+    store.startCoalescing();
+    put(store, KEY, VALUE);
+    put(store, OTHER_KEY, VALUE);
+
+    final CoalescingKeyValueStorage.Flush flush = store.startFlush();
+    put(store, KEY, OTHER_VALUE);
+    doReturn(failingTransaction).doCallRealMethod().when(failing).startTransaction();
+
+    assertThatThrownBy(flush::complete).isInstanceOf(StorageException.class);
+    assertThat(store.get(KEY)).contains(OTHER_VALUE);
+    assertThat(store.get(OTHER_KEY)).contains(VALUE);
+
+    store.stopCoalescing();
+
+    assertThat(failing.get(KEY)).contains(OTHER_VALUE);
+    assertThat(failing.get(OTHER_KEY)).contains(VALUE);
+  }
+
+  @Test
+  public void commitsConcurrentlyWhenNotCoalescing() throws Exception {
+    final KeyValueStorage blocking = mock(KeyValueStorage.class);
+    final KeyValueStorageTransaction transaction = mock(KeyValueStorageTransaction.class);
+    final CountDownLatch committing = new CountDownLatch(2);
+    final AtomicInteger concurrentCommits = new AtomicInteger();
+    doAnswer(
+            invocation -> {
+              committing.countDown();
+              if (committing.await(5, TimeUnit.SECONDS)) {
+                concurrentCommits.incrementAndGet();
+              }
+              return null;
+            })
+        .when(transaction)
+        .commit();
+    when(blocking.startTransaction()).thenReturn(transaction);
+    final CoalescingKeyValueStorage store = new CoalescingKeyValueStorage(blocking);
+
+    final ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      final Future<?> first = executor.submit(() -> put(store, KEY, VALUE));
+      final Future<?> second = executor.submit(() -> put(store, OTHER_KEY, OTHER_VALUE));
+      first.get(10, TimeUnit.SECONDS);
+      second.get(10, TimeUnit.SECONDS);
+    } finally {
+      executor.shutdownNow();
+    }
+
+    assertThat(concurrentCommits).hasValue(2);
+  }
+
+  @Test
+  public void listsPendingKeys() {
+    put(KEY, VALUE);
+    storage.startCoalescing();
+    put(OTHER_KEY, OTHER_VALUE);
+
+    assertThat(storage.getAllKeysThat(key -> true))
+        .extracting(Bytes::wrap)
+        .containsExactlyInAnyOrder(Bytes.wrap(KEY), Bytes.wrap(OTHER_KEY));
+  }
+
+  @Test
+  public void completesFlushesOfSharedStorageInOneTransaction() {
+    final InMemoryKeyValueStorage shared = spy(new InMemoryKeyValueStorage());
+    final CoalescingKeyValueStorage first = new CoalescingKeyValueStorage(shared);
+    final CoalescingKeyValueStorage second = new CoalescingKeyValueStorage(shared);
+    first.startCoalescing();
+    second.startCoalescing();
+    put(first, KEY, VALUE);
+    put(second, OTHER_KEY, OTHER_VALUE);
+
+    CoalescingKeyValueStorage.completeAll(List.of(first.startFlush(), second.startFlush()));
+
+    verify(shared, times(1)).startTransaction();
+    assertThat(shared.get(KEY)).contains(VALUE);
+    assertThat(shared.get(OTHER_KEY)).contains(OTHER_VALUE);
+    // Both flushes are finished, so new ones can be started
+    first.startFlush().complete();
+    second.startFlush().complete();
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void completesFlushesOfSegmentsInOneTransaction() {
+    final SegmentedKeyValueStorage<String> segmentedStorage = mock(SegmentedKeyValueStorage.class);
+    final SegmentedKeyValueStorage.Transaction<String> transaction =
+        mock(SegmentedKeyValueStorage.Transaction.class);
+    final SegmentIdentifier firstSegment = mock(SegmentIdentifier.class);
+    final SegmentIdentifier secondSegment = mock(SegmentIdentifier.class);
+    when(segmentedStorage.getSegmentIdentifierByName(firstSegment)).thenReturn("first");
+    when(segmentedStorage.getSegmentIdentifierByName(secondSegment)).thenReturn("second");
+    when(segmentedStorage.startTransaction()).thenReturn(transaction);
+
+    final CoalescingKeyValueStorage first =
+        new CoalescingKeyValueStorage(
+            new SegmentedKeyValueStorageAdapter<>(firstSegment, segmentedStorage));
+    final CoalescingKeyValueStorage second =
+        new CoalescingKeyValueStorage(
+            new SegmentedKeyValueStorageAdapter<>(secondSegment, segmentedStorage));
+    first.startCoalescing();
+    second.startCoalescing();
+    put(first, KEY, VALUE);
+    final KeyValueStorageTransaction removal = second.startTransaction();
+    removal.remove(OTHER_KEY);
+    removal.commit();
+
+    CoalescingKeyValueStorage.completeAll(List.of(first.startFlush(), second.startFlush()));
+
+    verify(segmentedStorage, times(1)).startTransaction();
+    verify(transaction).put("first", KEY, VALUE);
+    verify(transaction).remove("second", OTHER_KEY);
+    verify(transaction, times(1)).commit();
+  }
+
+  @Test
+  public void completesFlushesOfUnrelatedStoragesInOrder() {
+    final InMemoryKeyValueStorage otherUnderlying = new InMemoryKeyValueStorage();
+    final CoalescingKeyValueStorage other = new CoalescingKeyValueStorage(otherUnderlying);
+    storage.startCoalescing();
+    other.startCoalescing();
+    put(KEY, VALUE);
+    put(other, OTHER_KEY, OTHER_VALUE);
+
+    CoalescingKeyValueStorage.completeAll(List.of(storage.startFlush(), other.startFlush()));
+
+    assertThat(underlying.get(KEY)).contains(VALUE);
+    assertThat(otherUnderlying.get(OTHER_KEY)).contains(OTHER_VALUE);
+  }
+
+  private void put(final byte[] key, final byte[] value) {
+    put(storage, key, value);
+  }
+
+  private static void put(final KeyValueStorage storage, final byte[] key, final byte[] value) {
+    final KeyValueStorageTransaction transaction = storage.startTransaction();
+    transaction.put(key, value);
+    transaction.commit();
+  }
+}
@@ -16,7 +16,9 @@ package org.hyperledger.besu.services.tasks;
 
 import java.io.IOException;
 import java.util.ArrayDeque;
+import java.util.Comparator;
 import java.util.HashSet;
+import java.util.PriorityQueue;
 import java.util.Queue;
 import java.util.Set;
 
@@ -30,7 +32,7 @@ public class CachingTaskCollection<T> implements TaskCollection<T> {
   /**
    * A cache of tasks to operate on before going to {@link CachingTaskCollection#wrappedCollection}
    */
-  private final Queue<Task<T>> cache = new ArrayDeque<>();
+  private final Queue<Task<T>> cache;
   // Tasks that have been removed, but not marked completed yet
   private final Set<Task<T>> outstandingTasks = new HashSet<>();
 
@@ -39,6 +41,25 @@ public class CachingTaskCollection<T> implements TaskCollection<T> {
   public CachingTaskCollection(final TaskCollection<T> collection, final int maxCacheSize) {
     this.wrappedCollection = collection;
     this.maxCacheSize = maxCacheSize;
+    this.cache = new ArrayDeque<>();
+  }
+
+  /**
+   * Creates a collection whose cached tasks are removed in the given priority order rather than in
+   * insertion order. Tasks spilled to the underlying collection are only removed once the cache is
+   * empty, in the order of that collection.
+   *
+   * @param collection the collection holding the tasks that do not fit in the cache
+   * @param maxCacheSize the maximum number of tasks held in memory
+   * @param priority the order in which cached tasks are removed, lowest first
+   */
+  public CachingTaskCollection(
+      final TaskCollection<T> collection,
+      final int maxCacheSize,
+      final Comparator<? super T> priority) {
+    this.wrappedCollection = collection;
+    this.maxCacheSize = maxCacheSize;
+    this.cache = new PriorityQueue<>(Comparator.comparing(Task::getData, priority));
   }
 
   public CachingTaskCollection(final TaskCollection<T> collection) {
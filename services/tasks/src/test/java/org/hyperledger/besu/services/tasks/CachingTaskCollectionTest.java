@@ -19,6 +19,7 @@ import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -174,6 +175,34 @@ public class CachingTaskCollectionTest {
         .containsExactlyInAnyOrder(getTaskData(failedTasks).toArray(new Bytes[0]));
   }
 
+  @Test
+  public void removeCachedTasksInPriorityOrder() {
+    final CachingTaskCollection<Bytes> taskCollection =
+        new CachingTaskCollection<>(
+            wrappedTaskCollection, 10, Comparator.<Bytes>comparingInt(Bytes::toInt).reversed());
+    generateTasks(taskCollection, 5);
+
+    final Task<Bytes> highestPriorityTask = taskCollection.remove();
+    assertThat(highestPriorityTask.getData()).isEqualTo(Bytes.of(4));
+    highestPriorityTask.markFailed();
+    taskCollection.add(Bytes.of(7));
+
+    assertThat(getTaskData(getAllTasks(taskCollection)))
+        .containsExactly(
+            Bytes.of(7), Bytes.of(4), Bytes.of(3), Bytes.of(2), Bytes.of(1), Bytes.of(0));
+  }
+
+  @Test
+  public void removeOverflowingTasksOnceCacheIsEmpty() {
+    final CachingTaskCollection<Bytes> taskCollection =
+        new CachingTaskCollection<>(
+            wrappedTaskCollection, 2, Comparator.<Bytes>comparingInt(Bytes::toInt).reversed());
+    generateTasks(taskCollection, 4);
+
+    assertThat(getTaskData(getAllTasks(taskCollection)))
+        .containsExactly(Bytes.of(1), Bytes.of(0), Bytes.of(2), Bytes.of(3));
+  }
+
   @Test
   public void close() throws IOException {
     final CachingTaskCollection<Bytes> taskCollection = createCachingCollection(10);